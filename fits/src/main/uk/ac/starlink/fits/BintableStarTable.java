@@ -18,6 +18,7 @@ import uk.ac.starlink.table.DescribedValue;
 import uk.ac.starlink.table.HealpixTableInfo;
 import uk.ac.starlink.table.RowAccess;
 import uk.ac.starlink.table.RowSequence;
+import uk.ac.starlink.table.RowSplittable;
 import uk.ac.starlink.table.TableSink;
 import uk.ac.starlink.table.Tables;
 import uk.ac.starlink.table.ValueInfo;
@@ -435,6 +436,21 @@ public abstract class BintableStarTable extends AbstractStarTable {
         return colReaders_[ icol ].readValue( stream );
     }
 
+    /**
+     * Reads a cell from a given column from the current position in
+     * a stream as a double precision value.
+     * For scalar numeric columns this avoids object creation.
+     *
+     * @param  icol  the column index corresponding to the cell to be read
+     * @param  stream  a stream containing the byte data, positioned to
+     *                 the right place
+     * @return  numeric cell value, or NaN for blank or non-numeric values
+     */
+    protected double readCellDouble( BasicInput stream, int icol )
+            throws IOException {
+        return colReaders_[ icol ].readDouble( stream );
+    }
+
     /**
      * Reads a whole row of the table from the current position in a stream,
      * returning a new Object[] array.
@@ -791,6 +807,15 @@ public abstract class BintableStarTable extends AbstractStarTable {
                         throw new IllegalStateException();
                     }
                 }
+                public double getDouble( int icol ) throws IOException {
+                    if ( pos >= 0 && pos < endPos ) {
+                        input.seek( pos + colOffsets_[ icol ] );
+                        return readCellDouble( input, icol );
+                    }
+                    else {
+                        throw new IllegalStateException();
+                    }
+                }
                 public void close() throws IOException {
                     input.close();
                 }
@@ -813,15 +838,85 @@ public abstract class BintableStarTable extends AbstractStarTable {
                     input.seek( irow_ * rowLength_ );
                     return readRow( input );
                 }
+                public double getDouble( int icol ) throws IOException {
+                    input.seek( irow_ * rowLength_ + colOffsets_[ icol ] );
+                    return readCellDouble( input, icol );
+                }
                 public void close() throws IOException {
                     input.close();
                 }
             };
         }
 
+        public RowSplittable getRowSplittable() throws IOException {
+            return new BintableRowSplittable( -1, getRowCount() );
+        }
+
         public void close() throws IOException {
             randomInputThreadLocal_.close();
             inputFact_.close();
         }
+
+        /**
+         * RowSplittable implementation for this table.
+         * Each instance reads its own range of rows from a dedicated
+         * input, which is not created until it is needed.
+         */
+        private class BintableRowSplittable extends RangeRowSplittable {
+            private BasicInput input_;
+
+            /**
+             * Constructor.
+             *
+             * @param  irow  row index immediately before start of range
+             * @param  nrow  row index immediately after end of range
+             */
+            BintableRowSplittable( long irow, long nrow ) {
+                super( irow, nrow, rowLength_,
+                       BlockMappedInput.DEFAULT_BLOCKSIZE );
+            }
+
+            protected RangeRowSplittable createSplit( long irow, long nrow ) {
+                return new BintableRowSplittable( irow, nrow );
+            }
+
+            public Object getCell( int icol ) throws IOException {
+                return readCell( seekRow( colOffsets_[ icol ] ), icol );
+            }
+
+            public Object[] getRow() throws IOException {
+                return readRow( seekRow( 0 ) );
+            }
+
+            public double getDouble( int icol ) throws IOException {
+                return readCellDouble( seekRow( colOffsets_[ icol ] ), icol );
+            }
+
+            public void close() throws IOException {
+                if ( input_ != null ) {
+                    input_.close();
+                    input_ = null;
+                }
+            }
+
+            /**
+             * Returns this splittable's input, positioned at a given
+             * offset into the current row.
+             *
+             * @param  off  byte offset into current row
+             * @return  positioned input
+             */
+            private BasicInput seekRow( int off ) throws IOException {
+                long irow = getRowIndex();
+                if ( irow < 0 ) {
+                    throw new IllegalStateException();
+                }
+                if ( input_ == null ) {
+                    input_ = inputFact_.createInput( true );
+                }
+                input_.seek( irow * rowLength_ + off );
+                return input_;
+            }
+        }
     }
 }
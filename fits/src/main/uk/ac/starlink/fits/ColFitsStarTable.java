@@ -12,6 +12,7 @@ import uk.ac.starlink.table.AbstractStarTable;
 import uk.ac.starlink.table.ColumnInfo;
 import uk.ac.starlink.table.RowAccess;
 import uk.ac.starlink.table.RowSequence;
+import uk.ac.starlink.table.RowSplittable;
 import uk.ac.starlink.table.TableFormatException;
 import uk.ac.starlink.table.Tables;
 import uk.ac.starlink.util.Compression;
@@ -354,6 +355,22 @@ public class ColFitsStarTable extends AbstractStarTable {
         }
     }
 
+    public RowSplittable getRowSplittable() throws IOException {
+        if ( isRandom_ ) {
+
+            /* Align splits with the blocks of the widest column,
+             * which has the most data to map. */
+            long itemBytes = 0;
+            for ( ValueReader valReader : valReaders_ ) {
+                itemBytes = Math.max( itemBytes, valReader.getItemBytes() );
+            }
+            return new ColFitsRowSplittable( -1, nrow_, itemBytes );
+        }
+        else {
+            return super.getRowSplittable();
+        }
+    }
+
     public void close() throws IOException {
         closer_.close();
     }
@@ -821,6 +838,74 @@ public class ColFitsStarTable extends AbstractStarTable {
         }
     }
 
+    /**
+     * RowSplittable implementation for this table.
+     * Each instance reads its own range of rows using dedicated inputs
+     * for each column, which are not created until they are needed.
+     */
+    private class ColFitsRowSplittable extends RangeRowSplittable {
+        private final long itemBytes_;
+        private final ColumnReader[] colReaders_;
+
+        /**
+         * Constructor.
+         *
+         * @param  irow  row index immediately before start of range
+         * @param  nrow  row index immediately after end of range
+         * @param  itemBytes  number of bytes per row in the column
+         *                    used for aligning split points
+         */
+        ColFitsRowSplittable( long irow, long nrow, long itemBytes ) {
+            super( irow, nrow, itemBytes, BlockMappedInput.DEFAULT_BLOCKSIZE );
+            itemBytes_ = itemBytes;
+            colReaders_ = new ColumnReader[ ncol_ ];
+            for ( int icol = 0; icol < ncol_; icol++ ) {
+                final InputFactory inFact = inputFacts_[ icol ];
+                colReaders_[ icol ] = new ColumnReader( valReaders_[ icol ] ) {
+                    BasicInput input_;
+                    protected BasicInput getInput() throws IOException {
+                        if ( input_ == null ) {
+                            input_ = inFact.createInput( true );
+                        }
+                        return input_;
+                    }
+                    public void close() throws IOException {
+                        if ( input_ != null ) {
+                            input_.close();
+                            input_ = null;
+                        }
+                    }
+                };
+            }
+        }
+
+        protected RangeRowSplittable createSplit( long irow, long nrow ) {
+            return new ColFitsRowSplittable( irow, nrow, itemBytes_ );
+        }
+
+        public Object getCell( int icol ) throws IOException {
+            long irow = getRowIndex();
+            if ( irow < 0 ) {
+                throw new IllegalStateException();
+            }
+            return colReaders_[ icol ].readIndexedCell( irow );
+        }
+
+        public Object[] getRow() throws IOException {
+            Object[] row = new Object[ ncol_ ];
+            for ( int icol = 0; icol < ncol_; icol++ ) {
+                row[ icol ] = getCell( icol );
+            }
+            return row;
+        }
+
+        public void close() throws IOException {
+            for ( ColumnReader colReader : colReaders_ ) {
+                colReader.close();
+            }
+        }
+    }
+
     /**
      * RowAccess implementation for this table.
      */
@@ -71,6 +71,22 @@ abstract class ColumnReader {
      */
     abstract Object readValue( BasicInput stream ) throws IOException;
 
+    /**
+     * Reads bytes from a stream to return a double precision value.
+     * This can be used to avoid object creation for scalar numeric columns.
+     * The default implementation calls <tt>readValue</tt>,
+     * but subclasses may override it for efficiency.
+     * It must read the same number of bytes as <tt>readValue</tt>.
+     *
+     * @param  stream containing bytes to turn into a value
+     * @return  numeric value, or NaN for blank or non-numeric values
+     */
+    double readDouble( BasicInput stream ) throws IOException {
+        Object value = readValue( stream );
+        return value instanceof Number ? ((Number) value).doubleValue()
+                                       : Double.NaN;
+    }
+
     /**
      * Returns the class which objects returned by <tt>readValue</tt>
      * will belong to.
@@ -501,6 +517,13 @@ abstract class ColumnReader {
                                         ? null
                                         : new Short( val );
                         }
+                        double readDouble( BasicInput stream )
+                                throws IOException {
+                            short val = stream.readShort();
+                            return ( hasBlank && val == (short) blank )
+                                        ? Double.NaN
+                                        : val;
+                        }
                     };
                 }
                 return reader;
@@ -531,6 +554,13 @@ abstract class ColumnReader {
                                         ? null
                                         : new Double( val * scale + dZero );
                         }
+                        double readDouble( BasicInput stream )
+                                throws IOException {
+                            int val = stream.readInt();
+                            return ( hasBlank && val == (int) blank )
+                                        ? Double.NaN
+                                        : val * scale + dZero;
+                        }
                     };
                 }
                 else {
@@ -543,6 +573,13 @@ abstract class ColumnReader {
                                         ? null
                                         : new Integer( val );
                         }
+                        double readDouble( BasicInput stream )
+                                throws IOException {
+                            int val = stream.readInt();
+                            return ( hasBlank && val == (int) blank )
+                                        ? Double.NaN
+                                        : val;
+                        }
                     };
                 }
                 return reader;
@@ -628,6 +665,13 @@ abstract class ColumnReader {
                                         ? null
                                         : new Double( val * scale + dZero );
                         }
+                        double readDouble( BasicInput stream )
+                                throws IOException {
+                            long val = stream.readLong();
+                            return ( hasBlank && val == (long) blank )
+                                        ? Double.NaN
+                                        : val * scale + dZero;
+                        }
                     };
                 }
                 else {
@@ -639,6 +683,13 @@ abstract class ColumnReader {
                                         ? null
                                         : new Long( val );
                         }
+                        double readDouble( BasicInput stream )
+                                throws IOException {
+                            long val = stream.readLong();
+                            return ( hasBlank && val == (long) blank )
+                                        ? Double.NaN
+                                        : val;
+                        }
                     };
                 }
                 return reader;
@@ -663,6 +714,11 @@ abstract class ColumnReader {
                             float val = stream.readFloat();
                             return new Float( val * scale + dZero );
                         }
+                        double readDouble( BasicInput stream )
+                                throws IOException {
+                            float val = stream.readFloat();
+                            return (float) ( val * scale + dZero );
+                        }
                     };
                 }
                 else {
@@ -672,6 +728,10 @@ abstract class ColumnReader {
                             float val = stream.readFloat();
                             return new Float( val );
                         }
+                        double readDouble( BasicInput stream )
+                                throws IOException {
+                            return stream.readFloat();
+                        }
                     };
                 }
                 return reader;    
@@ -686,6 +746,11 @@ abstract class ColumnReader {
                             double val = stream.readDouble();
                             return new Double( val * scale + dZero );
                         }
+                        double readDouble( BasicInput stream )
+                                throws IOException {
+                            double val = stream.readDouble();
+                            return val * scale + dZero;
+                        }
                     };
                 }
                 else {
@@ -696,6 +761,10 @@ abstract class ColumnReader {
                             double val = stream.readDouble();
                             return new Double( val );
                         }
+                        double readDouble( BasicInput stream )
+                                throws IOException {
+                            return stream.readDouble();
+                        }
                     };
                 }
                 return reader;
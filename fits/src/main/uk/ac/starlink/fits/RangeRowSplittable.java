@@ -0,0 +1,119 @@
+package uk.ac.starlink.fits;
+
+import java.io.IOException;
+import java.util.function.LongSupplier;
+import uk.ac.starlink.table.RowSplittable;
+
+/**
+ * Partial RowSplittable implementation that iterates over a contiguous
+ * range of rows and splits by dividing that range.
+ * Concrete subclasses are expected to read the data for their row range
+ * from their own independent {@link BasicInput}s,
+ * so that the splits can be read concurrently without contention.
+ *
+ * <p>Where possible, split points are placed at block boundaries
+ * in the underlying data, that is at the first row whose absolute
+ * byte offset from the start of the data, <code>irow*rowBytes</code>,
+ * is at or after a multiple of <code>blockBytes</code>.
+ * If the data is read using a {@link BlockMappedInput} with that
+ * block size, this means that each split will only need to map the
+ * blocks containing its own rows.  A single row straddling
+ * the boundary may still require the split before it to map
+ * the following block as well, unless the row length divides
+ * the block size.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+abstract class RangeRowSplittable implements RowSplittable {
+
+    private final long rowBytes_;
+    private final long blockBytes_;
+    private long irow_;
+    private long nrow_;
+
+    /**
+     * Constructor.
+     *
+     * @param  irow   row index immediately before start of iteration range
+     * @param  nrow   row index immediately after end of iteration range
+     * @param  rowBytes  number of bytes per row in the underlying data;
+     *                   if not positive, split points are not aligned
+     * @param  blockBytes  number of bytes per block of underlying data
+     */
+    protected RangeRowSplittable( long irow, long nrow, long rowBytes,
+                                  long blockBytes ) {
+        irow_ = irow;
+        nrow_ = nrow;
+        rowBytes_ = rowBytes;
+        blockBytes_ = Math.max( 1, blockBytes );
+    }
+
+    /**
+     * Returns a new splittable of the same kind as this one
+     * covering a given row range.
+     *
+     * @param  irow   row index immediately before start of iteration range
+     * @param  nrow   row index immediately after end of iteration range
+     * @return  new splittable
+     */
+    protected abstract RangeRowSplittable createSplit( long irow, long nrow );
+
+    /**
+     * Returns the index of the current row.
+     *
+     * @return  current row index
+     */
+    protected long getRowIndex() {
+        return irow_;
+    }
+
+    public long splittableSize() {
+        return nrow_ - irow_ - 1;
+    }
+
+    public RowSplittable split() {
+        if ( nrow_ - irow_ > 2 ) {
+            long mid = ( irow_ + nrow_ ) / 2;
+            if ( rowBytes_ > 0 &&
+                 ( nrow_ - irow_ ) * rowBytes_ > 2 * blockBytes_ ) {
+                long bmid = getBlockRow( mid );
+                if ( bmid > irow_ + 1 && bmid < nrow_ ) {
+                    mid = bmid;
+                }
+            }
+            RowSplittable split = createSplit( irow_, mid );
+            irow_ = mid - 1;
+            return split;
+        }
+        else {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the index of the first row starting at or after the
+     * block boundary nearest to the start of a given row.
+     *
+     * @param  irow  row index
+     * @return   index of first row in block
+     */
+    private long getBlockRow( long irow ) {
+        long iblock = ( irow * rowBytes_ + blockBytes_ / 2 ) / blockBytes_;
+        return ( iblock * blockBytes_ + rowBytes_ - 1 ) / rowBytes_;
+    }
+
+    public LongSupplier rowIndex() {
+        return () -> irow_;
+    }
+
+    public boolean next() throws IOException {
+        if ( irow_ < nrow_ - 1 ) {
+            irow_++;
+            return true;
+        }
+        else {
+            return false;
+        }
+    }
+}
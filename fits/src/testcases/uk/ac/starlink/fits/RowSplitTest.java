@@ -0,0 +1,184 @@
+package uk.ac.starlink.fits;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.BitSet;
+import java.util.function.LongSupplier;
+import uk.ac.starlink.table.ColumnInfo;
+import uk.ac.starlink.table.ColumnStarTable;
+import uk.ac.starlink.table.PrimitiveArrayColumn;
+import uk.ac.starlink.table.RowCollector;
+import uk.ac.starlink.table.RowRunner;
+import uk.ac.starlink.table.RowSplittable;
+import uk.ac.starlink.table.StarTable;
+import uk.ac.starlink.table.StarTableWriter;
+import uk.ac.starlink.table.StoragePolicy;
+import uk.ac.starlink.table.TableBuilder;
+import uk.ac.starlink.table.Tables;
+import uk.ac.starlink.util.FileDataSource;
+import uk.ac.starlink.util.SplitPolicy;
+import uk.ac.starlink.util.SplitProcessor;
+import uk.ac.starlink.util.TestCase;
+
+public class RowSplitTest extends TestCase {
+
+    private static final int NROW = 5000;
+
+    public RowSplitTest( String name ) {
+        super( name );
+    }
+
+    public void testFitsSplit() throws IOException {
+        exerciseSplit( new FitsTableWriter(), new FitsTableBuilder() );
+        exerciseSplit( new ColFitsTableWriter(), new ColFitsTableBuilder() );
+    }
+
+    public void testRange() throws IOException {
+        exerciseRange( 10, 640 );
+        exerciseRange( 24, 1000 );
+        exerciseRange( 0, 1000 );
+    }
+
+    private void exerciseRange( long rowBytes, long blockBytes )
+            throws IOException {
+        RowSplittable split =
+            new TestRangeSplittable( -1, 1000, rowBytes, blockBytes );
+        BitSet seen = new BitSet();
+        int nsplit = collectRows( split, seen );
+        assertEquals( 1000, seen.cardinality() );
+        assertEquals( 1000, seen.nextClearBit( 0 ) );
+        assertTrue( nsplit > 8 );
+    }
+
+    private int collectRows( RowSplittable split, BitSet seen )
+            throws IOException {
+        int nsplit = 1;
+        if ( split.splittableSize() > 100 ) {
+            long size0 = split.splittableSize();
+            RowSplittable split2 = split.split();
+            assertTrue( split2 instanceof TestRangeSplittable );
+            assertEquals( size0, split.splittableSize()
+                               + split2.splittableSize() );
+            nsplit += collectRows( split2, seen );
+            nsplit += collectRows( split, seen );
+        }
+        else {
+            LongSupplier rowIndex = split.rowIndex();
+            while ( split.next() ) {
+                long irow = rowIndex.getAsLong();
+                assertFalse( seen.get( (int) irow ) );
+                seen.set( (int) irow );
+            }
+        }
+        return nsplit;
+    }
+
+    private void exerciseSplit( StarTableWriter writer, TableBuilder builder )
+            throws IOException {
+        StarTable table0 = createTable();
+        File f = File.createTempFile( "table", ".fits" );
+        f.deleteOnExit();
+        OutputStream out = new FileOutputStream( f );
+        writer.writeStarTable( table0, out );
+        out.close();
+        StarTable table =
+            builder.makeStarTable( new FileDataSource( f ), true,
+                                   StoragePolicy.PREFER_MEMORY );
+        assertTrue( table.isRandom() );
+        assertTrue( table.getRowSplittable() instanceof RangeRowSplittable );
+        Tables.checkTable( table );
+
+        RowRunner parRunner =
+            new RowRunner( SplitProcessor
+                          .createBasicParallelProcessor(
+                               new SplitPolicy( null, 100, (short) 0 ) ) );
+        double[] seqSums = RowRunner.SEQUENTIAL.collect( new SumCollector(),
+                                                         table );
+        double[] parSums = parRunner.collect( new SumCollector(), table );
+        assertEquals( NROW, (int) seqSums[ 2 ] );
+        assertArrayEquals( seqSums, parSums );
+        table.close();
+    }
+
+    private static StarTable createTable() {
+        double[] xs = new double[ NROW ];
+        int[] ks = new int[ NROW ];
+        for ( int i = 0; i < NROW; i++ ) {
+            xs[ i ] = i * 0.5;
+            ks[ i ] = i % 17;
+        }
+        ColumnStarTable table = ColumnStarTable.makeTableWithRows( NROW );
+        table.addColumn( PrimitiveArrayColumn.makePrimitiveColumn(
+                             new ColumnInfo( "x", Double.class, null ), xs ) );
+        table.addColumn( PrimitiveArrayColumn.makePrimitiveColumn(
+                             new ColumnInfo( "k", Integer.class, null ), ks ) );
+        return table;
+    }
+
+    /**
+     * Accumulates sums of x and row index, and row count.
+     */
+    private class SumCollector extends RowCollector<double[]> {
+        public double[] createAccumulator() {
+            return new double[ 3 ];
+        }
+        public void accumulateRows( RowSplittable rseq, double[] acc )
+                throws IOException {
+            LongSupplier rowIndex = rseq.rowIndex();
+            while ( rseq.next() ) {
+                double x = ((Number) rseq.getCell( 0 )).doubleValue();
+                long irow = rowIndex.getAsLong();
+                assertEquals( irow * 0.5, x );
+                assertEquals( x, rseq.getDouble( 0 ) );
+                assertEquals( (double) ( irow % 17 ), rseq.getDouble( 1 ) );
+                assertEquals( (int) ( irow % 17 ),
+                              ((Number) rseq.getRow()[ 1 ]).intValue() );
+                acc[ 0 ] += x;
+                acc[ 1 ] += irow;
+                acc[ 2 ]++;
+            }
+        }
+        public double[] combine( double[] acc1, double[] acc2 ) {
+            for ( int i = 0; i < 3; i++ ) {
+                acc1[ i ] += acc2[ i ];
+            }
+            return acc1;
+        }
+    }
+
+    /**
+     * RangeRowSplittable implementation with no data.
+     */
+    private class TestRangeSplittable extends RangeRowSplittable {
+        final long rowBytes_;
+        final long blockBytes_;
+        TestRangeSplittable( long irow, long nrow, long rowBytes,
+                             long blockBytes ) {
+            super( irow, nrow, rowBytes, blockBytes );
+            rowBytes_ = rowBytes;
+            blockBytes_ = blockBytes;
+        }
+        protected RangeRowSplittable createSplit( long irow, long nrow ) {
+            if ( rowBytes_ > 0 &&
+                 splittableSize() * rowBytes_ > 2 * blockBytes_ ) {
+
+                /* First row of the upper split is the first one starting
+                 * at or after a block boundary. */
+                long off = nrow * rowBytes_;
+                assertTrue( off % blockBytes_ < rowBytes_ );
+            }
+            return new TestRangeSplittable( irow, nrow, rowBytes_,
+                                            blockBytes_ );
+        }
+        public Object getCell( int icol ) {
+            return null;
+        }
+        public Object[] getRow() {
+            return new Object[ 0 ];
+        }
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,478 @@
+package uk.ac.starlink.parquet;
+
+import java.io.IOException;
+import uk.ac.starlink.table.TableFormatException;
+
+/**
+ * Holds the fully decoded content of one column chunk,
+ * that is the data for a single column within a single row group.
+ *
+ * <p>Values are stored in slots; for scalar columns there is one
+ * slot per row, and for list columns there is one slot per element,
+ * with a per-row offset array giving the slot range for each row.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+class ChunkData {
+
+    private final ColumnDesc desc_;
+    private final ValueStore store_;
+    private final boolean[] nulls_;
+    private final int[] offsets_;
+    private final boolean[] rowNulls_;
+
+    /** Page type code for data page. */
+    private static final int DATA_PAGE = 0;
+
+    /** Page type code for dictionary page. */
+    private static final int DICTIONARY_PAGE = 2;
+
+    /** Page type code for version 2 data page. */
+    private static final int DATA_PAGE_V2 = 3;
+
+    /**
+     * Constructor.
+     *
+     * @param  desc  column description
+     * @param  store  value store
+     * @param  nulls  per-slot null flags, or null if no slots are null
+     * @param  offsets  for list columns, array of length nrow+1 giving
+     *                  the first slot for each row; null for scalars
+     * @param  rowNulls  for list columns, per-row null flags,
+     *                   or null if no rows are null
+     */
+    private ChunkData( ColumnDesc desc, ValueStore store, boolean[] nulls,
+                       int[] offsets, boolean[] rowNulls ) {
+        desc_ = desc;
+        store_ = store;
+        nulls_ = nulls;
+        offsets_ = offsets;
+        rowNulls_ = rowNulls;
+    }
+
+    /**
+     * Indicates whether the value in a given row is null.
+     *
+     * @param  irow  row index within chunk
+     * @return  true iff the cell is blank
+     */
+    public boolean isNull( int irow ) {
+        boolean[] nulls = offsets_ == null ? nulls_ : rowNulls_;
+        return nulls != null && nulls[ irow ];
+    }
+
+    /**
+     * Returns the value in a given row as an object.
+     *
+     * @param  irow  row index within chunk
+     * @return   cell value
+     */
+    public Object getObject( int irow ) {
+        if ( isNull( irow ) ) {
+            return null;
+        }
+        else if ( offsets_ == null ) {
+            return store_.getObject( irow );
+        }
+        else {
+            return store_.getArray( offsets_[ irow ], offsets_[ irow + 1 ],
+                                    nulls_ );
+        }
+    }
+
+    /**
+     * Returns the value in a given row as a double precision number.
+     *
+     * @param  irow  row index within chunk
+     * @return  numeric value, or NaN
+     */
+    public double getDouble( int irow ) {
+        return offsets_ != null || isNull( irow ) ? Double.NaN
+                                                  : store_.getDouble( irow );
+    }
+
+    /**
+     * Returns the value in a given row as a long integer.
+     *
+     * @param  irow  row index within chunk
+     * @return  integer value, or 0
+     */
+    public long getLong( int irow ) {
+        return offsets_ != null || isNull( irow ) ? 0L
+                                                  : store_.getLong( irow );
+    }
+
+    /**
+     * Decodes the bytes of a column chunk.
+     *
+     * @param  desc  column description
+     * @param  meta  ColumnMetaData struct for the chunk
+     * @param  buf   buffer containing the chunk's pages
+     * @param  nrow  number of rows in the row group
+     * @return   decoded data
+     */
+    public static ChunkData decode( ColumnDesc desc, ThriftStruct meta,
+                                    byte[] buf, int nrow )
+            throws IOException {
+        try {
+            return new Decoder( desc, meta, nrow ).decode( buf );
+        }
+        catch ( IndexOutOfBoundsException | NegativeArraySizeException e ) {
+            throw new TableFormatException( "Corrupt Parquet data for "
+                                          + desc, e );
+        }
+    }
+
+    /**
+     * Does the work of decoding a chunk page by page.
+     */
+    private static class Decoder {
+
+        final ColumnDesc desc_;
+        final int nrow_;
+        final long nvalTotal_;
+        final CompressionCodec codec_;
+        final boolean isList_;
+        final int maxDef_;
+        final int maxRep_;
+        final int nslot_;
+        final ValueStore store_;
+        final int[] offsets_;
+        boolean[] nulls_;
+        boolean[] rowNulls_;
+        ValueStore dict_;
+        int irow_;
+        int islot_;
+
+        /**
+         * Constructor.
+         *
+         * @param  desc  column description
+         * @param  meta  ColumnMetaData struct
+         * @param  nrow  number of rows in chunk
+         */
+        Decoder( ColumnDesc desc, ThriftStruct meta, int nrow )
+                throws TableFormatException {
+            desc_ = desc;
+            nrow_ = nrow;
+            nvalTotal_ = meta.getLong( 5, -1 );
+            codec_ = CompressionCodec.fromCode( meta.getInt( 4, 0 ) );
+            isList_ = desc.isList();
+            maxDef_ = desc.getMaxDef();
+            maxRep_ = desc.getMaxRep();
+            if ( nvalTotal_ < nrow || nvalTotal_ > Integer.MAX_VALUE ) {
+                throw new TableFormatException( "Bad value count "
+                                              + nvalTotal_ + " for "
+                                              + desc );
+            }
+            nslot_ = isList_ ? (int) nvalTotal_ : nrow;
+            store_ = ValueStore.createStore( desc, nslot_ );
+            offsets_ = isList_ ? new int[ nrow + 1 ] : null;
+        }
+
+        /**
+         * Decodes the pages.
+         *
+         * @param  buf  buffer containing all the chunk's pages
+         * @return  decoded chunk
+         */
+        ChunkData decode( byte[] buf ) throws IOException {
+            int pos = 0;
+            int end = buf.length;
+            long nent = 0;
+            while ( nent < nvalTotal_ ) {
+                if ( pos >= end ) {
+                    throw new TableFormatException( "Parquet column chunk "
+                                                  + "truncated" );
+                }
+                CompactReader rdr = new CompactReader( buf, pos, end );
+                ThriftStruct hdr = rdr.readStruct();
+                pos = rdr.getPosition();
+                int ptype = hdr.getInt( 1, -1 );
+                int usize = hdr.getInt( 2, -1 );
+                int csize = hdr.getInt( 3, -1 );
+                if ( usize < 0 || csize < 0 ) {
+                    throw new TableFormatException( "Bad page header" );
+                }
+                ValueStore.checkLength( pos, end, csize );
+                int pstart = pos;
+                pos += csize;
+                if ( ptype == DICTIONARY_PAGE ) {
+                    ThriftStruct dh = hdr.getStruct( 7 );
+                    int nd = dh == null ? -1 : dh.getInt( 1, -1 );
+                    if ( nd < 0 ) {
+                        throw new TableFormatException( "Bad dictionary "
+                                                      + "page header" );
+                    }
+                    Page page = uncompress( buf, pstart, csize, usize );
+                    dict_ = ValueStore.createStore( desc_, nd );
+                    dict_.decode( Encodings.PLAIN, page.buf_, page.pos_,
+                                  page.end_, nd, 0 );
+                }
+                else if ( ptype == DATA_PAGE ) {
+                    ThriftStruct dh = hdr.getStruct( 5 );
+                    if ( dh == null ) {
+                        throw new TableFormatException( "Bad data page "
+                                                      + "header" );
+                    }
+                    int nv = dh.getInt( 1, -1 );
+                    Page page = uncompress( buf, pstart, csize, usize );
+                    int ppos = page.pos_;
+                    int[] reps = null;
+                    int[] defs = null;
+                    if ( maxRep_ > 0 ) {
+                        reps = new int[ nv ];
+                        ppos = readLevels( page.buf_, ppos, page.end_,
+                                           maxRep_, reps, nv );
+                    }
+                    if ( maxDef_ > 0 ) {
+                        defs = new int[ nv ];
+                        ppos = readLevels( page.buf_, ppos, page.end_,
+                                           maxDef_, defs, nv );
+                    }
+                    readPage( nv, reps, defs, dh.getInt( 2, -1 ),
+                              page.buf_, ppos, page.end_ );
+                    nent += nv;
+                }
+                else if ( ptype == DATA_PAGE_V2 ) {
+                    ThriftStruct dh = hdr.getStruct( 8 );
+                    if ( dh == null ) {
+                        throw new TableFormatException( "Bad data page "
+                                                      + "header" );
+                    }
+                    int nv = dh.getInt( 1, -1 );
+                    int defLeng = dh.getInt( 5, 0 );
+                    int repLeng = dh.getInt( 6, 0 );
+                    boolean isCompressed = dh.getBoolean( 7, true );
+                    int[] reps = null;
+                    int[] defs = null;
+                    int lpos = pstart;
+                    if ( maxRep_ > 0 ) {
+                        reps = new int[ nv ];
+                        Encodings.decodeHybrid( buf, lpos, lpos + repLeng,
+                                                Encodings.bitWidth( maxRep_ ),
+                                                reps, nv );
+                    }
+                    lpos += repLeng;
+                    if ( maxDef_ > 0 ) {
+                        defs = new int[ nv ];
+                        Encodings.decodeHybrid( buf, lpos, lpos + defLeng,
+                                                Encodings.bitWidth( maxDef_ ),
+                                                defs, nv );
+                    }
+                    lpos += defLeng;
+                    int vleng = csize - repLeng - defLeng;
+                    Page page = isCompressed
+                              ? uncompress( buf, lpos, vleng,
+                                            usize - repLeng - defLeng )
+                              : new Page( buf, lpos, lpos + vleng );
+                    readPage( nv, reps, defs, dh.getInt( 4, -1 ),
+                              page.buf_, page.pos_, page.end_ );
+                    nent += nv;
+                }
+            }
+            if ( irow_ != nrow_ ) {
+                throw new TableFormatException( "Row count mismatch for "
+                                              + desc_ + " (" + irow_
+                                              + " != " + nrow_ + ")" );
+            }
+            if ( isList_ ) {
+                offsets_[ nrow_ ] = islot_;
+            }
+            return new ChunkData( desc_, store_, nulls_, offsets_,
+                                  rowNulls_ );
+        }
+
+        /**
+         * Reads the levels and values from a single data page.
+         *
+         * @param  nv   number of level entries in page
+         * @param  reps  repetition levels, or null if max level is zero
+         * @param  defs  definition levels, or null if max level is zero
+         * @param  encoding   value encoding
+         * @param  buf   buffer containing encoded values
+         * @param  pos   offset of start of values
+         * @param  end   offset of end of values
+         */
+        private void readPage( int nv, int[] reps, int[] defs, int encoding,
+                               byte[] buf, int pos, int end )
+                throws TableFormatException {
+            if ( nv < 0 ) {
+                throw new TableFormatException( "Bad page value count" );
+            }
+            int slot0 = islot_;
+            int npresent = 0;
+            if ( ! isList_ ) {
+                if ( irow_ + nv > nrow_ ) {
+                    throw new TableFormatException( "Too many rows for "
+                                                  + desc_ );
+                }
+                for ( int i = 0; i < nv; i++ ) {
+                    int is = islot_++;
+                    if ( defs != null && defs[ i ] < maxDef_ ) {
+                        setNull( is );
+                    }
+                    else {
+                        npresent++;
+                    }
+                }
+                irow_ = islot_;
+            }
+            else {
+                int defOuter = desc_.getDefOuter();
+                int defEl = desc_.getDefElement();
+                for ( int i = 0; i < nv; i++ ) {
+                    int def = defs == null ? maxDef_ : defs[ i ];
+                    if ( reps[ i ] == 0 ) {
+                        if ( irow_ >= nrow_ ) {
+                            throw new TableFormatException( "Too many rows "
+                                                          + "for " + desc_ );
+                        }
+                        offsets_[ irow_ ] = islot_;
+                        if ( def < defOuter ) {
+                            if ( rowNulls_ == null ) {
+                                rowNulls_ = new boolean[ nrow_ ];
+                            }
+                            rowNulls_[ irow_ ] = true;
+                        }
+                        irow_++;
+                    }
+                    else if ( irow_ == 0 ) {
+                        throw new TableFormatException( "Bad repetition "
+                                                      + "levels for "
+                                                      + desc_ );
+                    }
+                    if ( def >= defEl ) {
+                        int is = islot_++;
+                        if ( def < maxDef_ ) {
+                            setNull( is );
+                        }
+                        else {
+                            npresent++;
+                        }
+                    }
+                }
+            }
+
+            /* Decode the non-null values contiguously at the start of
+             * this page's slot range. */
+            if ( encoding == Encodings.PLAIN_DICTIONARY ||
+                 encoding == Encodings.RLE_DICTIONARY ) {
+                if ( dict_ == null ) {
+                    throw new TableFormatException( "No dictionary page" );
+                }
+                int[] ixs = new int[ npresent ];
+                if ( npresent > 0 ) {
+                    int bw = buf[ pos ] & 0xff;
+                    Encodings.decodeHybrid( buf, pos + 1, end, bw,
+                                            ixs, npresent );
+                }
+                store_.copyFromDict( dict_, ixs, npresent, slot0 );
+            }
+            else {
+                store_.decode( encoding, buf, pos, end, npresent, slot0 );
+            }
+
+            /* Then spread them out to their correct slots if there
+             * are any nulls, working backwards so that no unread
+             * values get overwritten. */
+            if ( npresent < islot_ - slot0 ) {
+                int from = slot0 + npresent - 1;
+                for ( int is = islot_ - 1; is >= slot0; is-- ) {
+                    if ( nulls_[ is ] ) {
+                        store_.clear( is );
+                    }
+                    else {
+                        if ( from != is ) {
+                            store_.move( from, is );
+                        }
+                        from--;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Marks a slot as null.
+         *
+         * @param  is  slot index
+         */
+        private void setNull( int is ) {
+            if ( nulls_ == null ) {
+                nulls_ = new boolean[ nslot_ ];
+            }
+            nulls_[ is ] = true;
+        }
+
+        /**
+         * Reads length-prefixed RLE-encoded levels from a version 1
+         * data page.
+         *
+         * @param  buf  buffer
+         * @param  pos  offset of length prefix
+         * @param  end  end of page data
+         * @param  maxLevel  maximum level value
+         * @param  levels  array to receive levels
+         * @param  nv   number of levels to read
+         * @return   offset following level data
+         */
+        private static int readLevels( byte[] buf, int pos, int end,
+                                       int maxLevel, int[] levels, int nv )
+                throws TableFormatException {
+            ValueStore.checkLength( pos, end, 4 );
+            int leng = Encodings.readInt( buf, pos );
+            pos += 4;
+            if ( leng < 0 ) {
+                throw new TableFormatException( "Bad level data length" );
+            }
+            ValueStore.checkLength( pos, end, leng );
+            Encodings.decodeHybrid( buf, pos, pos + leng,
+                                    Encodings.bitWidth( maxLevel ),
+                                    levels, nv );
+            return pos + leng;
+        }
+
+        /**
+         * Returns the uncompressed content of a page or page section.
+         *
+         * @param  buf  buffer containing compressed data
+         * @param  pos  offset of compressed data
+         * @param  leng  length of compressed data
+         * @param  uleng  length of uncompressed data
+         * @return  uncompressed page
+         */
+        private Page uncompress( byte[] buf, int pos, int leng, int uleng )
+                throws IOException {
+            if ( codec_ == CompressionCodec.UNCOMPRESSED ) {
+                return new Page( buf, pos, pos + leng );
+            }
+            else {
+                byte[] ubuf = codec_.decompress( buf, pos, leng, uleng );
+                return new Page( ubuf, 0, ubuf.length );
+            }
+        }
+    }
+
+    /**
+     * Aggregates a buffer with a range of bytes within it.
+     */
+    private static class Page {
+        final byte[] buf_;
+        final int pos_;
+        final int end_;
+
+        /**
+         * Constructor.
+         *
+         * @param  buf  buffer
+         * @param  pos  start offset
+         * @param  end  end offset
+         */
+        Page( byte[] buf, int pos, int end ) {
+            buf_ = buf;
+            pos_ = pos;
+            end_ = end;
+        }
+    }
+}
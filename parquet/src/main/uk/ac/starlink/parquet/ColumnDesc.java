@@ -0,0 +1,272 @@
+package uk.ac.starlink.parquet;
+
+/**
+ * Describes a leaf column of a Parquet file that can be presented
+ * as a StarTable column.
+ * This may represent either a scalar column, or a one-dimensional
+ * array column encoded using any of the usual Parquet LIST
+ * representations.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+class ColumnDesc {
+
+    private final String name_;
+    private final int ileaf_;
+    private final int physType_;
+    private final int typeLength_;
+    private final Kind kind_;
+    private final int scale_;
+    private final boolean isUbyte_;
+    private final boolean isList_;
+    private final int maxDef_;
+    private final int maxRep_;
+    private final int defOuter_;
+    private final int defElement_;
+
+    /** Physical type code for BOOLEAN. */
+    static final int BOOLEAN = 0;
+
+    /** Physical type code for INT32. */
+    static final int INT32 = 1;
+
+    /** Physical type code for INT64. */
+    static final int INT64 = 2;
+
+    /** Physical type code for INT96. */
+    static final int INT96 = 3;
+
+    /** Physical type code for FLOAT. */
+    static final int FLOAT = 4;
+
+    /** Physical type code for DOUBLE. */
+    static final int DOUBLE = 5;
+
+    /** Physical type code for BYTE_ARRAY. */
+    static final int BYTE_ARRAY = 6;
+
+    /** Physical type code for FIXED_LEN_BYTE_ARRAY. */
+    static final int FIXED_LEN_BYTE_ARRAY = 7;
+
+    /**
+     * Constructor.
+     *
+     * @param  name  column name
+     * @param  ileaf  index of the leaf in the file schema,
+     *                which is also its index in each row group
+     * @param  physType  physical type code
+     * @param  typeLength  element length for FIXED_LEN_BYTE_ARRAY
+     * @param  kind   data kind presented to the user
+     * @param  scale  decimal scale, used only for DECIMAL kind
+     * @param  isUbyte  true if SHORT kind values represent unsigned bytes
+     * @param  isList  true for array-valued columns
+     * @param  maxDef  maximum definition level
+     * @param  maxRep  maximum repetition level (0 or 1)
+     * @param  defOuter  for list columns, the definition level at or
+     *                   above which the list itself is not null
+     * @param  defElement  for list columns, the definition level at or
+     *                     above which a level entry represents an element
+     */
+    public ColumnDesc( String name, int ileaf, int physType, int typeLength,
+                       Kind kind, int scale, boolean isUbyte, boolean isList,
+                       int maxDef, int maxRep, int defOuter, int defElement ) {
+        name_ = name;
+        ileaf_ = ileaf;
+        physType_ = physType;
+        typeLength_ = typeLength;
+        kind_ = kind;
+        scale_ = scale;
+        isUbyte_ = isUbyte;
+        isList_ = isList;
+        maxDef_ = maxDef;
+        maxRep_ = maxRep;
+        defOuter_ = defOuter;
+        defElement_ = defElement;
+    }
+
+    /**
+     * Returns the column name.
+     *
+     * @return  name
+     */
+    public String getName() {
+        return name_;
+    }
+
+    /**
+     * Returns the index of this column's leaf in the file schema.
+     *
+     * @return  leaf index
+     */
+    public int getLeafIndex() {
+        return ileaf_;
+    }
+
+    /**
+     * Returns the physical type code.
+     *
+     * @return  physical type
+     */
+    public int getPhysicalType() {
+        return physType_;
+    }
+
+    /**
+     * Returns the element length in bytes for fixed-length byte arrays.
+     *
+     * @return  fixed length
+     */
+    public int getTypeLength() {
+        return typeLength_;
+    }
+
+    /**
+     * Returns the data kind presented to the user.
+     *
+     * @return  kind
+     */
+    public Kind getKind() {
+        return kind_;
+    }
+
+    /**
+     * Returns the decimal scale; only relevant for DECIMAL kind.
+     *
+     * @return  number of digits after the decimal point
+     */
+    public int getScale() {
+        return scale_;
+    }
+
+    /**
+     * Indicates whether the values represent unsigned bytes.
+     *
+     * @return  true for unsigned byte data presented as SHORT kind
+     */
+    public boolean isUbyte() {
+        return isUbyte_;
+    }
+
+    /**
+     * Indicates whether this column is array-valued.
+     *
+     * @return  true for list columns
+     */
+    public boolean isList() {
+        return isList_;
+    }
+
+    /**
+     * Returns the maximum definition level.
+     *
+     * @return  max definition level
+     */
+    public int getMaxDef() {
+        return maxDef_;
+    }
+
+    /**
+     * Returns the maximum repetition level.
+     *
+     * @return  max repetition level
+     */
+    public int getMaxRep() {
+        return maxRep_;
+    }
+
+    /**
+     * Returns the definition level at or above which a list is non-null.
+     *
+     * @return  outer definition level
+     */
+    public int getDefOuter() {
+        return defOuter_;
+    }
+
+    /**
+     * Returns the definition level at or above which a level entry
+     * represents a (possibly null) list element rather than an
+     * empty or null list.
+     *
+     * @return  element definition level
+     */
+    public int getDefElement() {
+        return defElement_;
+    }
+
+    /**
+     * Returns the class of the values in this column presented
+     * to the user.
+     *
+     * @return  content class
+     */
+    public Class<?> getContentClass() {
+        return isList_ ? kind_.arrayClazz_ : kind_.scalarClazz_;
+    }
+
+    @Override
+    public String toString() {
+        return name_ + "(" + kind_ + ( isList_ ? "[]" : "" ) + ")";
+    }
+
+    /**
+     * Enumerates the kinds of data value that may be presented to the user.
+     */
+    enum Kind {
+
+        /** Boolean. */
+        BOOLEAN( Boolean.class, boolean[].class ),
+
+        /** Signed 8-bit integer. */
+        BYTE( Byte.class, byte[].class ),
+
+        /** Signed 16-bit integer, or unsigned 8-bit integer. */
+        SHORT( Short.class, short[].class ),
+
+        /** Signed 32-bit integer, or unsigned 16-bit integer. */
+        INT( Integer.class, int[].class ),
+
+        /** Signed 64-bit integer, or unsigned 32-bit integer. */
+        LONG( Long.class, long[].class ),
+
+        /** Single precision floating point. */
+        FLOAT( Float.class, float[].class ),
+
+        /** Double precision floating point. */
+        DOUBLE( Double.class, double[].class ),
+
+        /** Decimal value, presented as double precision. */
+        DECIMAL( Double.class, double[].class ),
+
+        /** UTF-8 string. */
+        STRING( String.class, String[].class ),
+
+        /** Opaque byte array; not available as a list element. */
+        BINARY( byte[].class, null );
+
+        private final Class<?> scalarClazz_;
+        private final Class<?> arrayClazz_;
+
+        /**
+         * Constructor.
+         *
+         * @param  scalarClazz  class of scalar values
+         * @param  arrayClazz  class of list values, or null if lists
+         *                     of this kind are not supported
+         */
+        Kind( Class<?> scalarClazz, Class<?> arrayClazz ) {
+            scalarClazz_ = scalarClazz;
+            arrayClazz_ = arrayClazz;
+        }
+
+        /**
+         * Indicates whether lists of this kind can be presented.
+         *
+         * @return  true iff list columns of this kind are supported
+         */
+        public boolean isListable() {
+            return arrayClazz_ != null;
+        }
+    }
+}
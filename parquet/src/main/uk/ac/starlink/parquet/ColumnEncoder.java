@@ -0,0 +1,1074 @@
+package uk.ac.starlink.parquet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import uk.ac.starlink.table.ColumnInfo;
+import uk.ac.starlink.table.Tables;
+import uk.ac.starlink.util.IntList;
+
+/**
+ * Accumulates the values for one output column within a row group,
+ * and writes them as a Parquet column chunk.
+ *
+ * <p>Scalar columns are written as OPTIONAL leaf fields.
+ * Array-valued columns are written using the standard three-level
+ * LIST representation with REQUIRED elements.
+ * Values are written using the PLAIN encoding, except for booleans
+ * which use RLE, and low-cardinality strings which use a dictionary.
+ * Data pages are split at row boundaries once they reach a
+ * certain size.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+abstract class ColumnEncoder {
+
+    private final String name_;
+    private final boolean isList_;
+    private final int physType_;
+    private final IntList defs_;
+    private final IntList reps_;
+    private final IntList markLevels_;
+    private final IntList markVals_;
+    private final IntList markBytes_;
+    private int nval_;
+    private long nullCount_;
+
+    /** Approximate maximum size of an uncompressed data page in bytes. */
+    static final int PAGE_BYTES = 1024 * 1024;
+
+    /** Maximum number of level entries in a data page. */
+    static final int PAGE_LEVELS = 1024 * 1024;
+
+    private static final int REQUIRED = 0;
+    private static final int OPTIONAL = 1;
+    private static final int REPEATED = 2;
+    private static final int DATA_PAGE = 0;
+    private static final int DICTIONARY_PAGE = 2;
+
+    /**
+     * Constructor.
+     *
+     * @param  name  column name
+     * @param  isList  true for array-valued columns
+     * @param  physType  Parquet physical type code
+     */
+    protected ColumnEncoder( String name, boolean isList, int physType ) {
+        name_ = name;
+        isList_ = isList;
+        physType_ = physType;
+        defs_ = new IntList();
+        reps_ = isList ? new IntList() : null;
+        markLevels_ = new IntList();
+        markVals_ = new IntList();
+        markBytes_ = new IntList();
+    }
+
+    /**
+     * Indicates whether a non-null cell value can be written by this
+     * encoder.
+     *
+     * @param  value  non-null cell value
+     * @return  true iff value is of a suitable type
+     */
+    abstract boolean accepts( Object value );
+
+    /**
+     * Adds a scalar value.
+     *
+     * @param  value  non-null value for which {@link #accepts} is true
+     */
+    abstract void addScalar( Object value );
+
+    /**
+     * Adds an element of an array value.
+     *
+     * @param  array  non-null array for which {@link #accepts} is true
+     * @param  i   element index
+     */
+    abstract void addElement( Object array, int i );
+
+    /**
+     * Returns the number of value bytes currently accumulated.
+     *
+     * @return  byte count
+     */
+    abstract int getValueBytes();
+
+    /**
+     * Writes the value for the leaf schema element
+     * logical and converted type fields, if any.
+     * Fields with IDs 6 and 10 may be written.
+     *
+     * @param  w  compact writer positioned within the SchemaElement struct
+     */
+    abstract void writeTypeAnnotations( CompactWriter w );
+
+    /**
+     * Returns a dictionary page content if dictionary encoding is
+     * to be used for the current row group.
+     *
+     * @return   PLAIN-encoded dictionary values, or null for no dictionary
+     */
+    byte[] getDictionary() {
+        return null;
+    }
+
+    /**
+     * Returns the number of entries in the dictionary returned by
+     * {@link #getDictionary}.
+     *
+     * @return  dictionary size
+     */
+    int getDictionarySize() {
+        return 0;
+    }
+
+    /**
+     * Writes encoded values for a page to a buffer.
+     *
+     * @param  ival0  index of first value
+     * @param  ival1  index after last value
+     * @param  ibyte0  offset of first value in the PLAIN value buffer
+     * @param  ibyte1  offset after last value in the PLAIN value buffer
+     * @param  useDict  true if dictionary indices are to be written
+     * @param  out   destination buffer
+     * @return  encoding code
+     */
+    abstract int encodeValues( int ival0, int ival1, int ibyte0, int ibyte1,
+                               boolean useDict, ByteArrayOutputStream out );
+
+    /**
+     * Returns the PLAIN-encoded minimum value for statistics.
+     *
+     * @return  encoded min, or null if not available
+     */
+    byte[] getMinBytes() {
+        return null;
+    }
+
+    /**
+     * Returns the PLAIN-encoded maximum value for statistics.
+     *
+     * @return  encoded max, or null if not available
+     */
+    byte[] getMaxBytes() {
+        return null;
+    }
+
+    /**
+     * Discards the accumulated values.
+     */
+    abstract void resetValues();
+
+    /**
+     * Returns the column name.
+     *
+     * @return  name
+     */
+    public String getName() {
+        return name_;
+    }
+
+    /**
+     * Indicates whether this encoder writes array-valued cells.
+     *
+     * @return  true for list columns
+     */
+    public boolean isList() {
+        return isList_;
+    }
+
+    /**
+     * Returns the number of schema elements written by
+     * {@link #writeSchema}.
+     *
+     * @return  schema element count
+     */
+    public int getSchemaElementCount() {
+        return isList_ ? 3 : 1;
+    }
+
+    /**
+     * Writes the schema elements for this column.
+     *
+     * @param  w  compact writer positioned within a list of SchemaElements
+     */
+    public void writeSchema( CompactWriter w ) {
+        if ( isList_ ) {
+            w.beginStruct();
+            w.i32Field( 3, OPTIONAL );
+            w.stringField( 4, name_ );
+            w.i32Field( 5, 1 );
+            w.i32Field( 6, 3 );
+            w.structField( 10 );
+            w.beginStruct();
+            w.structField( 3 );
+            w.beginStruct();
+            w.endStruct();
+            w.endStruct();
+            w.endStruct();
+            w.beginStruct();
+            w.i32Field( 3, REPEATED );
+            w.stringField( 4, "list" );
+            w.i32Field( 5, 1 );
+            w.endStruct();
+            writeLeafSchema( w, "element", REQUIRED );
+        }
+        else {
+            writeLeafSchema( w, name_, OPTIONAL );
+        }
+    }
+
+    /**
+     * Returns the path in schema of the leaf for this column.
+     *
+     * @return  path elements
+     */
+    public String[] getPath() {
+        return isList_ ? new String[] { name_, "list", "element" }
+                       : new String[] { name_ };
+    }
+
+    /**
+     * Adds a cell value to the current row group.
+     *
+     * @param  value  cell value, may be null
+     */
+    public void addCell( Object value ) {
+        boolean ok = value != null && accepts( value );
+        if ( isList_ ) {
+            if ( ! ok ) {
+                reps_.add( 0 );
+                defs_.add( 0 );
+                nullCount_++;
+            }
+            else {
+                int n = java.lang.reflect.Array.getLength( value );
+                if ( n == 0 ) {
+                    reps_.add( 0 );
+                    defs_.add( 1 );
+                }
+                for ( int i = 0; i < n; i++ ) {
+                    reps_.add( i == 0 ? 0 : 1 );
+                    defs_.add( 2 );
+                    addElement( value, i );
+                }
+                nval_ += n;
+            }
+        }
+        else {
+            if ( ok ) {
+                defs_.add( 1 );
+                addScalar( value );
+                nval_++;
+            }
+            else {
+                defs_.add( 0 );
+                nullCount_++;
+            }
+        }
+
+        /* Mark a page boundary if enough data has accumulated. */
+        int nlev = defs_.size();
+        int nmark = markLevels_.size();
+        int lastLevel = nmark > 0 ? markLevels_.get( nmark - 1 ) : 0;
+        int lastBytes = nmark > 0 ? markBytes_.get( nmark - 1 ) : 0;
+        if ( getValueBytes() - lastBytes >= PAGE_BYTES ||
+             nlev - lastLevel >= PAGE_LEVELS ) {
+            markLevels_.add( nlev );
+            markVals_.add( nval_ );
+            markBytes_.add( getValueBytes() );
+        }
+    }
+
+    /**
+     * Returns the approximate number of bytes of memory used to
+     * buffer the current row group.
+     *
+     * @return  buffered byte count
+     */
+    public long getBufferedBytes() {
+        return getValueBytes() + ( isList_ ? 8L : 4L ) * defs_.size();
+    }
+
+    /**
+     * Writes the accumulated data as a column chunk, and resets
+     * ready for the next row group.
+     *
+     * @param  out  destination stream
+     * @param  codec  compression codec
+     * @return  information about the written chunk
+     */
+    public ChunkInfo writeChunk( CountOutputStream out,
+                                 CompressionCodec codec )
+            throws IOException {
+        ChunkInfo info = new ChunkInfo();
+        info.codec_ = codec;
+        info.numValues_ = defs_.size();
+        info.nullCount_ = nullCount_;
+        info.min_ = getMinBytes();
+        info.max_ = getMaxBytes();
+        byte[] dict = nval_ > 0 ? getDictionary() : null;
+        boolean useDict = dict != null;
+        if ( useDict ) {
+            info.dictOffset_ = out.getPosition();
+            writePage( out, codec, DICTIONARY_PAGE, dict,
+                       getDictionarySize(), Encodings.PLAIN_DICTIONARY,
+                       info );
+        }
+        info.dataOffset_ = out.getPosition();
+
+        /* Write one data page per marked range. */
+        int nlev = defs_.size();
+        int[] levels = concat( markLevels_, nlev );
+        int[] ivals = concat( markVals_, nval_ );
+        int[] ibytes = concat( markBytes_, getValueBytes() );
+        int encoding = -1;
+        for ( int ip = 0; ip < levels.length - 1; ip++ ) {
+            int l0 = levels[ ip ];
+            int l1 = levels[ ip + 1 ];
+            if ( l1 > l0 || ip == 0 ) {
+                ByteArrayOutputStream pout = new ByteArrayOutputStream();
+                if ( isList_ ) {
+                    writeLevels( reps_, l0, l1, 1, pout );
+                }
+                writeLevels( defs_, l0, l1, isList_ ? 2 : 1, pout );
+                encoding = encodeValues( ivals[ ip ], ivals[ ip + 1 ],
+                                         ibytes[ ip ], ibytes[ ip + 1 ],
+                                         useDict, pout );
+                writePage( out, codec, DATA_PAGE, pout.toByteArray(),
+                           l1 - l0, encoding, info );
+            }
+        }
+        info.encodings_ = useDict
+                        ? new int[] { Encodings.PLAIN_DICTIONARY,
+                                      Encodings.RLE }
+                        : encoding == Encodings.RLE
+                          ? new int[] { Encodings.RLE }
+                          : new int[] { encoding, Encodings.RLE };
+        info.physType_ = physType_;
+        info.path_ = getPath();
+
+        /* Reset ready for the next row group. */
+        defs_.clear();
+        if ( reps_ != null ) {
+            reps_.clear();
+        }
+        markLevels_.clear();
+        markVals_.clear();
+        markBytes_.clear();
+        nval_ = 0;
+        nullCount_ = 0;
+        resetValues();
+        return info;
+    }
+
+    /**
+     * Writes a single page with its header.
+     *
+     * @param  out  destination stream
+     * @param  codec  compression codec
+     * @param  pageType  page type code
+     * @param  data  uncompressed page data
+     * @param  nv   number of values in page
+     * @param  encoding  value encoding
+     * @param  info  chunk information to be updated with page sizes
+     */
+    private static void writePage( CountOutputStream out,
+                                   CompressionCodec codec, int pageType,
+                                   byte[] data, int nv, int encoding,
+                                   ChunkInfo info )
+            throws IOException {
+        byte[] cdata = codec.compress( data, 0, data.length );
+        CompactWriter w = new CompactWriter();
+        w.beginStruct();
+        w.i32Field( 1, pageType );
+        w.i32Field( 2, data.length );
+        w.i32Field( 3, cdata.length );
+        if ( pageType == DICTIONARY_PAGE ) {
+            w.structField( 7 );
+            w.beginStruct();
+            w.i32Field( 1, nv );
+            w.i32Field( 2, encoding );
+            w.endStruct();
+        }
+        else {
+            w.structField( 5 );
+            w.beginStruct();
+            w.i32Field( 1, nv );
+            w.i32Field( 2, encoding );
+            w.i32Field( 3, Encodings.RLE );
+            w.i32Field( 4, Encodings.RLE );
+            w.endStruct();
+        }
+        w.endStruct();
+        byte[] hdr = w.toByteArray();
+        out.write( hdr );
+        out.write( cdata );
+        info.uncompressedSize_ += hdr.length + data.length;
+        info.compressedSize_ += hdr.length + cdata.length;
+    }
+
+    /**
+     * Writes a range of levels as length-prefixed RLE/bit-packed hybrid
+     * data.
+     *
+     * @param  levels  level list
+     * @param  l0  index of first level
+     * @param  l1  index after last level
+     * @param  maxLevel  maximum level value
+     * @param  out  destination buffer
+     */
+    private static void writeLevels( IntList levels, int l0, int l1,
+                                     int maxLevel,
+                                     ByteArrayOutputStream out ) {
+        int[] vals = Arrays.copyOfRange( levels.getIntBuffer(), l0, l1 );
+        ByteArrayOutputStream lout = new ByteArrayOutputStream();
+        Encodings.encodeHybrid( vals, vals.length,
+                                Encodings.bitWidth( maxLevel ), lout );
+        Encodings.writeInt( out, lout.size() );
+        byte[] lbytes = lout.toByteArray();
+        out.write( lbytes, 0, lbytes.length );
+    }
+
+    /**
+     * Returns an array consisting of a leading zero, the contents of
+     * a list, and a given final value.
+     *
+     * @param  list  list
+     * @param  last  final value
+     * @return  new array
+     */
+    private static int[] concat( IntList list, int last ) {
+        int n = list.size();
+        int[] out = new int[ n + 2 ];
+        for ( int i = 0; i < n; i++ ) {
+            out[ i + 1 ] = list.get( i );
+        }
+        out[ n + 1 ] = last;
+        return out;
+    }
+
+    /**
+     * Writes the leaf schema element.
+     *
+     * @param  w  compact writer
+     * @param  name  element name
+     * @param  repetition  repetition type code
+     */
+    private void writeLeafSchema( CompactWriter w, String name,
+                                  int repetition ) {
+        w.beginStruct();
+        w.i32Field( 1, physType_ );
+        w.i32Field( 3, repetition );
+        w.stringField( 4, name );
+        writeTypeAnnotations( w );
+        w.endStruct();
+    }
+
+    /**
+     * Returns an encoder for a given column, if possible.
+     *
+     * @param  info  column metadata
+     * @return   encoder, or null if the column cannot be written
+     */
+    public static ColumnEncoder createEncoder( ColumnInfo info ) {
+        String name = info.getName();
+        Class<?> clazz = info.getContentClass();
+        if ( clazz == Boolean.class ) {
+            return new BooleanEncoder( name, false );
+        }
+        else if ( clazz == boolean[].class ) {
+            return new BooleanEncoder( name, true );
+        }
+        else if ( clazz == Byte.class ) {
+            return new IntEncoder( name, false, 8, true );
+        }
+        else if ( clazz == byte[].class ) {
+            return new IntEncoder( name, true, 8, true );
+        }
+        else if ( clazz == Short.class ) {
+            boolean isUbyte =
+                Boolean.TRUE
+               .equals( info.getAuxDatumValue( Tables.UBYTE_FLAG_INFO,
+                                               Boolean.class ) );
+            return isUbyte ? new IntEncoder( name, false, 8, false )
+                           : new IntEncoder( name, false, 16, true );
+        }
+        else if ( clazz == short[].class ) {
+            return new IntEncoder( name, true, 16, true );
+        }
+        else if ( clazz == Integer.class ) {
+            return new IntEncoder( name, false, 32, true );
+        }
+        else if ( clazz == int[].class ) {
+            return new IntEncoder( name, true, 32, true );
+        }
+        else if ( clazz == Long.class ) {
+            return new LongEncoder( name, false );
+        }
+        else if ( clazz == long[].class ) {
+            return new LongEncoder( name, true );
+        }
+        else if ( clazz == Float.class ) {
+            return new FloatEncoder( name, false );
+        }
+        else if ( clazz == float[].class ) {
+            return new FloatEncoder( name, true );
+        }
+        else if ( clazz == Double.class ) {
+            return new DoubleEncoder( name, false );
+        }
+        else if ( clazz == double[].class ) {
+            return new DoubleEncoder( name, true );
+        }
+        else if ( clazz == String.class ) {
+            return new StringEncoder( name, false );
+        }
+        else if ( clazz == String[].class ) {
+            return new StringEncoder( name, true );
+        }
+        else {
+            return null;
+        }
+    }
+
+    /**
+     * Encoder for boolean values, written with the RLE encoding.
+     */
+    private static class BooleanEncoder extends ColumnEncoder {
+        private final IntList vals_;
+        BooleanEncoder( String name, boolean isList ) {
+            super( name, isList, ColumnDesc.BOOLEAN );
+            vals_ = new IntList();
+        }
+        boolean accepts( Object value ) {
+            return isList() ? value instanceof boolean[]
+                           : value instanceof Boolean;
+        }
+        void addScalar( Object value ) {
+            vals_.add( ((Boolean) value).booleanValue() ? 1 : 0 );
+        }
+        void addElement( Object array, int i ) {
+            vals_.add( ((boolean[]) array)[ i ] ? 1 : 0 );
+        }
+        int getValueBytes() {
+            return vals_.size() / 8;
+        }
+        void writeTypeAnnotations( CompactWriter w ) {
+        }
+        int encodeValues( int ival0, int ival1, int ibyte0, int ibyte1,
+                          boolean useDict, ByteArrayOutputStream out ) {
+            int[] bits = Arrays.copyOfRange( vals_.getIntBuffer(),
+                                             ival0, ival1 );
+            ByteArrayOutputStream bout = new ByteArrayOutputStream();
+            Encodings.encodeHybrid( bits, bits.length, 1, bout );
+            Encodings.writeInt( out, bout.size() );
+            byte[] bytes = bout.toByteArray();
+            out.write( bytes, 0, bytes.length );
+            return Encodings.RLE;
+        }
+        void resetValues() {
+            vals_.clear();
+        }
+    }
+
+    /**
+     * Partial encoder implementation for values written to a
+     * PLAIN-encoded byte buffer.
+     */
+    private static abstract class PlainEncoder extends ColumnEncoder {
+        final ByteArrayOutputStream buf_;
+        private byte[] bytes_;
+        PlainEncoder( String name, boolean isList, int physType ) {
+            super( name, isList, physType );
+            buf_ = new ByteArrayOutputStream();
+        }
+        int getValueBytes() {
+            return buf_.size();
+        }
+        int encodeValues( int ival0, int ival1, int ibyte0, int ibyte1,
+                          boolean useDict, ByteArrayOutputStream out ) {
+            if ( bytes_ == null ) {
+                bytes_ = buf_.toByteArray();
+            }
+            out.write( bytes_, ibyte0, ibyte1 - ibyte0 );
+            return Encodings.PLAIN;
+        }
+        void resetValues() {
+            buf_.reset();
+            bytes_ = null;
+        }
+    }
+
+    /**
+     * Encoder for integer values written as INT32.
+     */
+    private static class IntEncoder extends PlainEncoder {
+        private final int nbit_;
+        private final boolean isSigned_;
+        private int min_;
+        private int max_;
+        private boolean hasRange_;
+        IntEncoder( String name, boolean isList, int nbit,
+                    boolean isSigned ) {
+            super( name, isList, ColumnDesc.INT32 );
+            nbit_ = nbit;
+            isSigned_ = isSigned;
+        }
+        boolean accepts( Object value ) {
+            if ( isList() ) {
+                switch ( nbit_ ) {
+                    case 8:
+                        return value instanceof byte[];
+                    case 16:
+                        return value instanceof short[];
+                    default:
+                        return value instanceof int[];
+                }
+            }
+            else {
+                return value instanceof Number;
+            }
+        }
+        void addScalar( Object value ) {
+            addInt( ((Number) value).intValue() );
+        }
+        void addElement( Object array, int i ) {
+            switch ( nbit_ ) {
+                case 8:
+                    addInt( ((byte[]) array)[ i ] );
+                    break;
+                case 16:
+                    addInt( ((short[]) array)[ i ] );
+                    break;
+                default:
+                    addInt( ((int[]) array)[ i ] );
+            }
+        }
+        private void addInt( int v ) {
+            Encodings.writeInt( buf_, v );
+            if ( hasRange_ ) {
+                min_ = Math.min( min_, v );
+                max_ = Math.max( max_, v );
+            }
+            else {
+                min_ = v;
+                max_ = v;
+                hasRange_ = true;
+            }
+        }
+        void writeTypeAnnotations( CompactWriter w ) {
+            if ( nbit_ < 32 ) {
+                final int ctype;
+                if ( nbit_ == 8 ) {
+                    ctype = isSigned_ ? 15 : 11;
+                }
+                else {
+                    ctype = 16;
+                }
+                w.i32Field( 6, ctype );
+                w.structField( 10 );
+                w.beginStruct();
+                w.structField( 10 );
+                w.beginStruct();
+                w.byteField( 1, (byte) nbit_ );
+                w.boolField( 2, isSigned_ );
+                w.endStruct();
+                w.endStruct();
+            }
+        }
+        byte[] getMinBytes() {
+            return hasRange_ ? intBytes( min_ ) : null;
+        }
+        byte[] getMaxBytes() {
+            return hasRange_ ? intBytes( max_ ) : null;
+        }
+        void resetValues() {
+            super.resetValues();
+            hasRange_ = false;
+        }
+    }
+
+    /**
+     * Encoder for long integer values written as INT64.
+     */
+    private static class LongEncoder extends PlainEncoder {
+        private long min_;
+        private long max_;
+        private boolean hasRange_;
+        LongEncoder( String name, boolean isList ) {
+            super( name, isList, ColumnDesc.INT64 );
+        }
+        boolean accepts( Object value ) {
+            return isList() ? value instanceof long[]
+                           : value instanceof Number;
+        }
+        void addScalar( Object value ) {
+            addLong( ((Number) value).longValue() );
+        }
+        void addElement( Object array, int i ) {
+            addLong( ((long[]) array)[ i ] );
+        }
+        private void addLong( long v ) {
+            Encodings.writeLong( buf_, v );
+            if ( hasRange_ ) {
+                min_ = Math.min( min_, v );
+                max_ = Math.max( max_, v );
+            }
+            else {
+                min_ = v;
+                max_ = v;
+                hasRange_ = true;
+            }
+        }
+        void writeTypeAnnotations( CompactWriter w ) {
+        }
+        byte[] getMinBytes() {
+            return hasRange_ ? longBytes( min_ ) : null;
+        }
+        byte[] getMaxBytes() {
+            return hasRange_ ? longBytes( max_ ) : null;
+        }
+        void resetValues() {
+            super.resetValues();
+            hasRange_ = false;
+        }
+    }
+
+    /**
+     * Encoder for single precision values written as FLOAT.
+     * NaNs are written as values, but excluded from statistics.
+     */
+    private static class FloatEncoder extends PlainEncoder {
+        private float min_;
+        private float max_;
+        private boolean hasRange_;
+        FloatEncoder( String name, boolean isList ) {
+            super( name, isList, ColumnDesc.FLOAT );
+        }
+        boolean accepts( Object value ) {
+            return isList() ? value instanceof float[]
+                           : value instanceof Number;
+        }
+        void addScalar( Object value ) {
+            addFloat( ((Number) value).floatValue() );
+        }
+        void addElement( Object array, int i ) {
+            addFloat( ((float[]) array)[ i ] );
+        }
+        private void addFloat( float v ) {
+            Encodings.writeInt( buf_, Float.floatToIntBits( v ) );
+            if ( ! Float.isNaN( v ) ) {
+                if ( hasRange_ ) {
+                    min_ = Math.min( min_, v );
+                    max_ = Math.max( max_, v );
+                }
+                else {
+                    min_ = v;
+                    max_ = v;
+                    hasRange_ = true;
+                }
+            }
+        }
+        void writeTypeAnnotations( CompactWriter w ) {
+        }
+        byte[] getMinBytes() {
+            return hasRange_ ? intBytes( Float.floatToIntBits( min_ ) )
+                             : null;
+        }
+        byte[] getMaxBytes() {
+            return hasRange_ ? intBytes( Float.floatToIntBits( max_ ) )
+                             : null;
+        }
+        void resetValues() {
+            super.resetValues();
+            hasRange_ = false;
+        }
+    }
+
+    /**
+     * Encoder for double precision values written as DOUBLE.
+     * NaNs are written as values, but excluded from statistics.
+     */
+    private static class DoubleEncoder extends PlainEncoder {
+        private double min_;
+        private double max_;
+        private boolean hasRange_;
+        DoubleEncoder( String name, boolean isList ) {
+            super( name, isList, ColumnDesc.DOUBLE );
+        }
+        boolean accepts( Object value ) {
+            return isList() ? value instanceof double[]
+                           : value instanceof Number;
+        }
+        void addScalar( Object value ) {
+            addDouble( ((Number) value).doubleValue() );
+        }
+        void addElement( Object array, int i ) {
+            addDouble( ((double[]) array)[ i ] );
+        }
+        private void addDouble( double v ) {
+            Encodings.writeLong( buf_, Double.doubleToLongBits( v ) );
+            if ( ! Double.isNaN( v ) ) {
+                if ( hasRange_ ) {
+                    min_ = Math.min( min_, v );
+                    max_ = Math.max( max_, v );
+                }
+                else {
+                    min_ = v;
+                    max_ = v;
+                    hasRange_ = true;
+                }
+            }
+        }
+        void writeTypeAnnotations( CompactWriter w ) {
+        }
+        byte[] getMinBytes() {
+            return hasRange_ ? longBytes( Double.doubleToLongBits( min_ ) )
+                             : null;
+        }
+        byte[] getMaxBytes() {
+            return hasRange_ ? longBytes( Double.doubleToLongBits( max_ ) )
+                             : null;
+        }
+        void resetValues() {
+            super.resetValues();
+            hasRange_ = false;
+        }
+    }
+
+    /**
+     * Encoder for string values written as UTF8-annotated BYTE_ARRAY.
+     * While the number of distinct values in a row group is small,
+     * a dictionary is also accumulated; if it is still small
+     * and worthwhile when the chunk is written, dictionary encoding
+     * is used.  Null elements of string arrays are written as
+     * empty strings.
+     */
+    private static class StringEncoder extends PlainEncoder {
+        private Map<String,Integer> dictMap_;
+        private ByteArrayOutputStream dictBuf_;
+        private IntList dictIxs_;
+
+        /** Maximum size of dictionary page in bytes. */
+        private static final int MAX_DICT_BYTES = 1024 * 1024;
+
+        StringEncoder( String name, boolean isList ) {
+            super( name, isList, ColumnDesc.BYTE_ARRAY );
+            resetDict();
+        }
+        boolean accepts( Object value ) {
+            return isList() ? value instanceof String[]
+                           : value instanceof String;
+        }
+        void addScalar( Object value ) {
+            addString( (String) value );
+        }
+        void addElement( Object array, int i ) {
+            String s = ((String[]) array)[ i ];
+            addString( s == null ? "" : s );
+        }
+        private void addString( String s ) {
+            byte[] bytes = s.getBytes( StandardCharsets.UTF_8 );
+            Encodings.writeInt( buf_, bytes.length );
+            buf_.write( bytes, 0, bytes.length );
+            if ( dictMap_ != null ) {
+                Integer ix = dictMap_.get( s );
+                if ( ix == null ) {
+                    ix = Integer.valueOf( dictMap_.size() );
+                    dictMap_.put( s, ix );
+                    Encodings.writeInt( dictBuf_, bytes.length );
+                    dictBuf_.write( bytes, 0, bytes.length );
+                }
+                dictIxs_.add( ix.intValue() );
+                if ( dictBuf_.size() > MAX_DICT_BYTES ) {
+                    dictMap_ = null;
+                    dictBuf_ = null;
+                    dictIxs_ = null;
+                }
+            }
+        }
+        void writeTypeAnnotations( CompactWriter w ) {
+            w.i32Field( 6, 0 );
+            w.structField( 10 );
+            w.beginStruct();
+            w.structField( 1 );
+            w.beginStruct();
+            w.endStruct();
+            w.endStruct();
+        }
+        byte[] getDictionary() {
+            return dictMap_ != null && dictMap_.size() <= dictIxs_.size() / 2
+                 ? dictBuf_.toByteArray()
+                 : null;
+        }
+        int getDictionarySize() {
+            return dictMap_.size();
+        }
+        int encodeValues( int ival0, int ival1, int ibyte0, int ibyte1,
+                          boolean useDict, ByteArrayOutputStream out ) {
+            if ( useDict ) {
+                int bw = Encodings.bitWidth( dictMap_.size() - 1 );
+                out.write( bw );
+                int[] ixs = Arrays.copyOfRange( dictIxs_.getIntBuffer(),
+                                                ival0, ival1 );
+                Encodings.encodeHybrid( ixs, ixs.length, bw, out );
+                return Encodings.PLAIN_DICTIONARY;
+            }
+            else {
+                return super.encodeValues( ival0, ival1, ibyte0, ibyte1,
+                                           useDict, out );
+            }
+        }
+        void resetValues() {
+            super.resetValues();
+            resetDict();
+        }
+        private void resetDict() {
+            dictMap_ = new HashMap<String,Integer>();
+            dictBuf_ = new ByteArrayOutputStream();
+            dictIxs_ = new IntList();
+        }
+    }
+
+    /**
+     * Returns the little-endian representation of an int.
+     *
+     * @param  v  value
+     * @return  4-byte array
+     */
+    private static byte[] intBytes( int v ) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream( 4 );
+        Encodings.writeInt( out, v );
+        return out.toByteArray();
+    }
+
+    /**
+     * Returns the little-endian representation of a long.
+     *
+     * @param  v  value
+     * @return  8-byte array
+     */
+    private static byte[] longBytes( long v ) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream( 8 );
+        Encodings.writeLong( out, v );
+        return out.toByteArray();
+    }
+
+    /**
+     * Aggregates information about a written column chunk
+     * required for the file footer.
+     */
+    static class ChunkInfo {
+        int physType_;
+        String[] path_;
+        int[] encodings_;
+        CompressionCodec codec_;
+        long numValues_;
+        long uncompressedSize_;
+        long compressedSize_;
+        long dataOffset_;
+        long dictOffset_ = -1;
+        long nullCount_;
+        byte[] min_;
+        byte[] max_;
+
+        /**
+         * Returns the file offset of the start of this chunk.
+         *
+         * @return  chunk offset
+         */
+        long getStartOffset() {
+            return dictOffset_ >= 0 ? dictOffset_ : dataOffset_;
+        }
+
+        /**
+         * Writes a ColumnChunk struct describing this chunk.
+         *
+         * @param  w  compact writer
+         */
+        void writeColumnChunk( CompactWriter w ) {
+            w.beginStruct();
+            w.i64Field( 2, getStartOffset() );
+            w.structField( 3 );
+            w.beginStruct();
+            w.i32Field( 1, physType_ );
+            w.listField( 2, CompactReader.I32, encodings_.length );
+            for ( int enc : encodings_ ) {
+                w.intElement( enc );
+            }
+            w.listField( 3, CompactReader.BINARY, path_.length );
+            for ( String p : path_ ) {
+                w.stringElement( p );
+            }
+            w.i32Field( 4, codec_.getCode() );
+            w.i64Field( 5, numValues_ );
+            w.i64Field( 6, uncompressedSize_ );
+            w.i64Field( 7, compressedSize_ );
+            w.i64Field( 9, dataOffset_ );
+            if ( dictOffset_ >= 0 ) {
+                w.i64Field( 11, dictOffset_ );
+            }
+            w.structField( 12 );
+            w.beginStruct();
+            w.i64Field( 3, nullCount_ );
+            if ( min_ != null && max_ != null ) {
+                w.binaryField( 5, max_ );
+                w.binaryField( 6, min_ );
+            }
+            w.endStruct();
+            w.endStruct();
+            w.endStruct();
+        }
+    }
+
+    /**
+     * OutputStream wrapper that keeps track of the number of bytes written.
+     */
+    static class CountOutputStream extends OutputStream {
+        private final OutputStream out_;
+        private long pos_;
+
+        /**
+         * Constructor.
+         *
+         * @param  out  base stream
+         */
+        CountOutputStream( OutputStream out ) {
+            out_ = out;
+        }
+
+        /**
+         * Returns the number of bytes written so far.
+         *
+         * @return  byte count
+         */
+        long getPosition() {
+            return pos_;
+        }
+
+        @Override
+        public void write( int b ) throws IOException {
+            out_.write( b );
+            pos_++;
+        }
+
+        @Override
+        public void write( byte[] b, int off, int len ) throws IOException {
+            out_.write( b, off, len );
+            pos_ += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out_.flush();
+        }
+    }
+}
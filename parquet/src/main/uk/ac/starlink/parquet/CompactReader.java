@@ -0,0 +1,244 @@
+package uk.ac.starlink.parquet;
+
+import java.util.ArrayList;
+import java.util.List;
+import uk.ac.starlink.table.TableFormatException;
+
+/**
+ * Decodes Thrift structures serialized using the Compact protocol,
+ * as used for Parquet metadata.
+ * No schema is required; the result is a generic {@link ThriftStruct}.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+class CompactReader {
+
+    private final byte[] buf_;
+    private final int end_;
+    private int pos_;
+
+    /** Compact protocol type code for boolean true. */
+    static final int BOOLEAN_TRUE = 1;
+
+    /** Compact protocol type code for boolean false. */
+    static final int BOOLEAN_FALSE = 2;
+
+    /** Compact protocol type code for 8-bit integer. */
+    static final int BYTE = 3;
+
+    /** Compact protocol type code for 16-bit integer. */
+    static final int I16 = 4;
+
+    /** Compact protocol type code for 32-bit integer. */
+    static final int I32 = 5;
+
+    /** Compact protocol type code for 64-bit integer. */
+    static final int I64 = 6;
+
+    /** Compact protocol type code for double precision value. */
+    static final int DOUBLE = 7;
+
+    /** Compact protocol type code for binary value. */
+    static final int BINARY = 8;
+
+    /** Compact protocol type code for list. */
+    static final int LIST = 9;
+
+    /** Compact protocol type code for set. */
+    static final int SET = 10;
+
+    /** Compact protocol type code for map. */
+    static final int MAP = 11;
+
+    /** Compact protocol type code for struct. */
+    static final int STRUCT = 12;
+
+    /** Maximum nesting depth; guards against corrupted input. */
+    private static final int MAX_DEPTH = 64;
+
+    /**
+     * Constructor.
+     *
+     * @param  buf  buffer containing serialized data
+     * @param  pos  offset into buffer at which reading starts
+     * @param  end  offset into buffer beyond which no data will be read
+     */
+    public CompactReader( byte[] buf, int pos, int end ) {
+        buf_ = buf;
+        pos_ = pos;
+        end_ = end;
+    }
+
+    /**
+     * Returns the current read position.
+     *
+     * @return  offset into buffer of next byte to read
+     */
+    public int getPosition() {
+        return pos_;
+    }
+
+    /**
+     * Reads a struct from the current position.
+     *
+     * @return  decoded struct
+     */
+    public ThriftStruct readStruct() throws TableFormatException {
+        return readStruct( 0 );
+    }
+
+    /**
+     * Reads a struct at a given nesting depth.
+     *
+     * @param  depth  nesting depth
+     * @return  decoded struct
+     */
+    private ThriftStruct readStruct( int depth ) throws TableFormatException {
+        if ( depth > MAX_DEPTH ) {
+            throw new TableFormatException( "Thrift structs nested too deep" );
+        }
+        ThriftStruct struct = new ThriftStruct();
+        int lastId = 0;
+        while ( true ) {
+            int b = readByte() & 0xff;
+            if ( b == 0 ) {
+                return struct;
+            }
+            int type = b & 0x0f;
+            int delta = b >>> 4;
+            int id = delta == 0 ? (int) readZigzag() : lastId + delta;
+            lastId = id;
+            final Object value;
+            if ( type == BOOLEAN_TRUE ) {
+                value = Boolean.TRUE;
+            }
+            else if ( type == BOOLEAN_FALSE ) {
+                value = Boolean.FALSE;
+            }
+            else {
+                value = readValue( type, depth );
+            }
+            struct.put( id, value );
+        }
+    }
+
+    /**
+     * Reads a value of a given type.
+     * Boolean values are read as they appear in collections,
+     * that is as a single byte.
+     *
+     * @param  type  compact protocol type code
+     * @param  depth  nesting depth
+     * @return  decoded value
+     */
+    private Object readValue( int type, int depth )
+            throws TableFormatException {
+        switch ( type ) {
+            case BOOLEAN_TRUE:
+            case BOOLEAN_FALSE:
+                return Boolean.valueOf( readByte() == BOOLEAN_TRUE );
+            case BYTE:
+                return Long.valueOf( readByte() );
+            case I16:
+            case I32:
+            case I64:
+                return Long.valueOf( readZigzag() );
+            case DOUBLE:
+                long bits = 0;
+                for ( int i = 0; i < 8; i++ ) {
+                    bits |= ( readByte() & 0xffL ) << ( 8 * i );
+                }
+                return Double.valueOf( Double.longBitsToDouble( bits ) );
+            case BINARY:
+                int leng = readLength();
+                byte[] bytes = new byte[ leng ];
+                System.arraycopy( buf_, pos_, bytes, 0, leng );
+                pos_ += leng;
+                return bytes;
+            case LIST:
+            case SET:
+                int hdr = readByte() & 0xff;
+                int elType = hdr & 0x0f;
+                int nel = hdr >>> 4;
+                if ( nel == 15 ) {
+                    nel = readLength();
+                }
+                List<Object> list = new ArrayList<Object>( Math.min( nel,
+                                                                     1024 ) );
+                for ( int i = 0; i < nel; i++ ) {
+                    list.add( readValue( elType, depth + 1 ) );
+                }
+                return list;
+            case MAP:
+                int nent = readLength();
+                if ( nent > 0 ) {
+                    int kv = readByte() & 0xff;
+                    for ( int i = 0; i < nent; i++ ) {
+                        readValue( kv >>> 4, depth + 1 );
+                        readValue( kv & 0x0f, depth + 1 );
+                    }
+                }
+                return null;
+            case STRUCT:
+                return readStruct( depth + 1 );
+            default:
+                throw new TableFormatException( "Unknown thrift type "
+                                              + type );
+        }
+    }
+
+    /**
+     * Reads a non-negative length value.
+     *
+     * @return  length
+     */
+    private int readLength() throws TableFormatException {
+        long leng = readVarint();
+        if ( leng < 0 || leng > end_ - pos_ ) {
+            throw new TableFormatException( "Bad thrift length " + leng );
+        }
+        return (int) leng;
+    }
+
+    /**
+     * Reads a zigzag-encoded variable-length integer.
+     *
+     * @return  value
+     */
+    private long readZigzag() throws TableFormatException {
+        long n = readVarint();
+        return ( n >>> 1 ) ^ -( n & 1 );
+    }
+
+    /**
+     * Reads an unsigned variable-length integer.
+     *
+     * @return  value
+     */
+    private long readVarint() throws TableFormatException {
+        long value = 0;
+        for ( int shift = 0; shift < 70; shift += 7 ) {
+            int b = readByte();
+            value |= ( b & 0x7fL ) << shift;
+            if ( ( b & 0x80 ) == 0 ) {
+                return value;
+            }
+        }
+        throw new TableFormatException( "Bad thrift varint" );
+    }
+
+    /**
+     * Reads a single byte.
+     *
+     * @return  byte value
+     */
+    private byte readByte() throws TableFormatException {
+        if ( pos_ < end_ ) {
+            return buf_[ pos_++ ];
+        }
+        else {
+            throw new TableFormatException( "Thrift data truncated" );
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package uk.ac.starlink.parquet;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Serializes Thrift structures using the Compact protocol,
+ * as used for Parquet metadata.
+ * Structs are written by bracketing a sequence of field writes
+ * with calls to {@link #beginStruct} and {@link #endStruct};
+ * fields within a struct must be written in order of increasing ID.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+class CompactWriter {
+
+    private final ByteArrayOutputStream out_;
+    private final Deque<Integer> idStack_;
+    private int lastId_;
+
+    /**
+     * Constructor.
+     */
+    public CompactWriter() {
+        out_ = new ByteArrayOutputStream();
+        idStack_ = new ArrayDeque<Integer>();
+    }
+
+    /**
+     * Begins a struct value.  The struct may be top-level,
+     * the value of a field introduced by {@link #structField},
+     * or a list element.
+     */
+    public void beginStruct() {
+        idStack_.push( Integer.valueOf( lastId_ ) );
+        lastId_ = 0;
+    }
+
+    /**
+     * Ends a struct begun by {@link #beginStruct}.
+     */
+    public void endStruct() {
+        out_.write( 0 );
+        lastId_ = idStack_.pop().intValue();
+    }
+
+    /**
+     * Writes a 32-bit integer field.
+     *
+     * @param  id  field ID
+     * @param  value  field value
+     */
+    public void i32Field( int id, int value ) {
+        writeFieldHeader( id, CompactReader.I32 );
+        writeZigzag( value );
+    }
+
+    /**
+     * Writes a 16-bit integer field.
+     *
+     * @param  id  field ID
+     * @param  value  field value
+     */
+    public void i16Field( int id, short value ) {
+        writeFieldHeader( id, CompactReader.I16 );
+        writeZigzag( value );
+    }
+
+    /**
+     * Writes a 64-bit integer field.
+     *
+     * @param  id  field ID
+     * @param  value  field value
+     */
+    public void i64Field( int id, long value ) {
+        writeFieldHeader( id, CompactReader.I64 );
+        writeZigzag( value );
+    }
+
+    /**
+     * Writes an 8-bit integer field.
+     *
+     * @param  id  field ID
+     * @param  value  field value
+     */
+    public void byteField( int id, byte value ) {
+        writeFieldHeader( id, CompactReader.BYTE );
+        out_.write( value );
+    }
+
+    /**
+     * Writes a boolean field.
+     *
+     * @param  id  field ID
+     * @param  value  field value
+     */
+    public void boolField( int id, boolean value ) {
+        writeFieldHeader( id, value ? CompactReader.BOOLEAN_TRUE
+                                    : CompactReader.BOOLEAN_FALSE );
+    }
+
+    /**
+     * Writes a binary field.
+     *
+     * @param  id  field ID
+     * @param  value  field value
+     */
+    public void binaryField( int id, byte[] value ) {
+        writeFieldHeader( id, CompactReader.BINARY );
+        binaryElement( value );
+    }
+
+    /**
+     * Writes a string field.
+     *
+     * @param  id  field ID
+     * @param  value  field value
+     */
+    public void stringField( int id, String value ) {
+        binaryField( id, value.getBytes( StandardCharsets.UTF_8 ) );
+    }
+
+    /**
+     * Introduces a struct-valued field.
+     * This must be followed by a call to {@link #beginStruct},
+     * field writes, and {@link #endStruct}.
+     *
+     * @param  id  field ID
+     */
+    public void structField( int id ) {
+        writeFieldHeader( id, CompactReader.STRUCT );
+    }
+
+    /**
+     * Introduces a list-valued field.
+     * This must be followed by <code>size</code> element writes
+     * of the appropriate type.
+     *
+     * @param  id  field ID
+     * @param  elType  compact protocol type code of list elements
+     * @param  size  number of list elements
+     */
+    public void listField( int id, int elType, int size ) {
+        writeFieldHeader( id, CompactReader.LIST );
+        if ( size < 15 ) {
+            out_.write( ( size << 4 ) | elType );
+        }
+        else {
+            out_.write( 0xf0 | elType );
+            writeVarint( size );
+        }
+    }
+
+    /**
+     * Writes an integer list element.
+     *
+     * @param  value  element value
+     */
+    public void intElement( long value ) {
+        writeZigzag( value );
+    }
+
+    /**
+     * Writes a binary list element.
+     *
+     * @param  value  element value
+     */
+    public void binaryElement( byte[] value ) {
+        writeVarint( value.length );
+        out_.write( value, 0, value.length );
+    }
+
+    /**
+     * Writes a string list element.
+     *
+     * @param  value  element value
+     */
+    public void stringElement( String value ) {
+        binaryElement( value.getBytes( StandardCharsets.UTF_8 ) );
+    }
+
+    /**
+     * Returns the bytes written so far.
+     *
+     * @return  serialized content
+     */
+    public byte[] toByteArray() {
+        return out_.toByteArray();
+    }
+
+    /**
+     * Writes a field header.
+     *
+     * @param  id  field ID
+     * @param  type  compact protocol type code
+     */
+    private void writeFieldHeader( int id, int type ) {
+        int delta = id - lastId_;
+        if ( delta > 0 && delta <= 15 ) {
+            out_.write( ( delta << 4 ) | type );
+        }
+        else {
+            out_.write( type );
+            writeZigzag( id );
+        }
+        lastId_ = id;
+    }
+
+    /**
+     * Writes a zigzag-encoded variable-length integer.
+     *
+     * @param  value  value
+     */
+    private void writeZigzag( long value ) {
+        writeVarint( ( value << 1 ) ^ ( value >> 63 ) );
+    }
+
+    /**
+     * Writes an unsigned variable-length integer.
+     *
+     * @param  value  value
+     */
+    private void writeVarint( long value ) {
+        while ( ( value & ~0x7fL ) != 0 ) {
+            out_.write( (int) ( ( value & 0x7f ) | 0x80 ) );
+            value >>>= 7;
+        }
+        out_.write( (int) value );
+    }
+}
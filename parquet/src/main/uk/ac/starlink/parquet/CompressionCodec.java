@@ -0,0 +1,159 @@
+package uk.ac.starlink.parquet;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import uk.ac.starlink.table.TableFormatException;
+
+/**
+ * Page compression codecs supported for Parquet I/O.
+ * The enum names and codes match those of the Parquet
+ * <code>CompressionCodec</code> enumeration.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+public enum CompressionCodec {
+
+    /** No compression. */
+    UNCOMPRESSED( 0 ) {
+        byte[] compress( byte[] buf, int off, int leng ) {
+            byte[] out = new byte[ leng ];
+            System.arraycopy( buf, off, out, 0, leng );
+            return out;
+        }
+        byte[] decompress( byte[] buf, int off, int leng, int outLeng ) {
+            byte[] out = new byte[ leng ];
+            System.arraycopy( buf, off, out, 0, leng );
+            return out;
+        }
+    },
+
+    /** Snappy compression; fast with moderate compression ratios. */
+    SNAPPY( 1 ) {
+        byte[] compress( byte[] buf, int off, int leng ) {
+            return Snappy.compress( buf, off, leng );
+        }
+        byte[] decompress( byte[] buf, int off, int leng, int outLeng )
+                throws TableFormatException {
+            return Snappy.uncompress( buf, off, leng );
+        }
+    },
+
+    /** Gzip compression; slower but with better compression ratios. */
+    GZIP( 2 ) {
+        byte[] compress( byte[] buf, int off, int leng ) throws IOException {
+            ByteArrayOutputStream bout =
+                new ByteArrayOutputStream( leng / 2 + 64 );
+            GZIPOutputStream zout = new GZIPOutputStream( bout );
+            zout.write( buf, off, leng );
+            zout.close();
+            return bout.toByteArray();
+        }
+        byte[] decompress( byte[] buf, int off, int leng, int outLeng )
+                throws IOException {
+            byte[] out = new byte[ outLeng ];
+            InputStream zin =
+                new GZIPInputStream( new ByteArrayInputStream( buf, off,
+                                                               leng ) );
+            try {
+                int n = 0;
+                while ( n < outLeng ) {
+                    int nr = zin.read( out, n, outLeng - n );
+                    if ( nr < 0 ) {
+                        throw new TableFormatException( "Gzip page "
+                                                      + "truncated" );
+                    }
+                    n += nr;
+                }
+            }
+            finally {
+                zin.close();
+            }
+            return out;
+        }
+    };
+
+    private final int code_;
+
+    /**
+     * Constructor.
+     *
+     * @param  code  Parquet codec identifier
+     */
+    CompressionCodec( int code ) {
+        code_ = code;
+    }
+
+    /**
+     * Returns the identifier for this codec used in Parquet metadata.
+     *
+     * @return  codec code
+     */
+    public int getCode() {
+        return code_;
+    }
+
+    /**
+     * Compresses a buffer.
+     *
+     * @param  buf  buffer
+     * @param  off  offset of data in buffer
+     * @param  leng  length of data
+     * @return   compressed data
+     */
+    abstract byte[] compress( byte[] buf, int off, int leng )
+            throws IOException;
+
+    /**
+     * Decompresses a buffer.
+     *
+     * @param  buf  buffer
+     * @param  off  offset of compressed data in buffer
+     * @param  leng  length of compressed data
+     * @param  outLeng  length of uncompressed data
+     * @return   uncompressed data
+     */
+    abstract byte[] decompress( byte[] buf, int off, int leng, int outLeng )
+            throws IOException;
+
+    /**
+     * Returns the codec with a given Parquet identifier.
+     *
+     * @param  code  Parquet codec identifier
+     * @return   codec
+     * @throws  TableFormatException  if the codec is not supported
+     */
+    static CompressionCodec fromCode( int code ) throws TableFormatException {
+        for ( CompressionCodec codec : values() ) {
+            if ( codec.code_ == code ) {
+                return codec;
+            }
+        }
+        final String name;
+        switch ( code ) {
+            case 3:
+                name = "LZO";
+                break;
+            case 4:
+                name = "BROTLI";
+                break;
+            case 5:
+                name = "LZ4";
+                break;
+            case 6:
+                name = "ZSTD";
+                break;
+            case 7:
+                name = "LZ4_RAW";
+                break;
+            default:
+                name = "#" + code;
+        }
+        throw new TableFormatException( "Unsupported Parquet compression "
+                                      + "codec " + name );
+    }
+}
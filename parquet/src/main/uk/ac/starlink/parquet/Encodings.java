@@ -0,0 +1,398 @@
+package uk.ac.starlink.parquet;
+
+import java.io.ByteArrayOutputStream;
+import uk.ac.starlink.table.TableFormatException;
+
+/**
+ * Low-level utilities for the integer encodings used in Parquet pages:
+ * the RLE/bit-packed hybrid encoding used for levels, dictionary indices
+ * and booleans, and the DELTA_BINARY_PACKED encoding.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+class Encodings {
+
+    /** Encoding code for PLAIN. */
+    public static final int PLAIN = 0;
+
+    /** Encoding code for PLAIN_DICTIONARY. */
+    public static final int PLAIN_DICTIONARY = 2;
+
+    /** Encoding code for RLE (RLE/bit-packed hybrid). */
+    public static final int RLE = 3;
+
+    /** Encoding code for deprecated BIT_PACKED. */
+    public static final int BIT_PACKED = 4;
+
+    /** Encoding code for DELTA_BINARY_PACKED. */
+    public static final int DELTA_BINARY_PACKED = 5;
+
+    /** Encoding code for DELTA_LENGTH_BYTE_ARRAY. */
+    public static final int DELTA_LENGTH_BYTE_ARRAY = 6;
+
+    /** Encoding code for DELTA_BYTE_ARRAY. */
+    public static final int DELTA_BYTE_ARRAY = 7;
+
+    /** Encoding code for RLE_DICTIONARY. */
+    public static final int RLE_DICTIONARY = 8;
+
+    /** Encoding code for BYTE_STREAM_SPLIT. */
+    public static final int BYTE_STREAM_SPLIT = 9;
+
+    /**
+     * Private constructor prevents instantiation.
+     */
+    private Encodings() {
+    }
+
+    /**
+     * Returns the number of bits required to represent a given
+     * non-negative integer.
+     *
+     * @param  maxValue  largest value to be represented
+     * @return  bit width
+     */
+    public static int bitWidth( int maxValue ) {
+        return 32 - Integer.numberOfLeadingZeros( maxValue );
+    }
+
+    /**
+     * Reads a little-endian 4-byte integer.
+     *
+     * @param  buf  buffer
+     * @param  pos  offset into buffer
+     * @return  value
+     */
+    public static int readInt( byte[] buf, int pos ) {
+        return ( buf[ pos ] & 0xff )
+             | ( ( buf[ pos + 1 ] & 0xff ) << 8 )
+             | ( ( buf[ pos + 2 ] & 0xff ) << 16 )
+             | ( ( buf[ pos + 3 ] & 0xff ) << 24 );
+    }
+
+    /**
+     * Reads a little-endian 8-byte integer.
+     *
+     * @param  buf  buffer
+     * @param  pos  offset into buffer
+     * @return  value
+     */
+    public static long readLong( byte[] buf, int pos ) {
+        return ( readInt( buf, pos ) & 0xffffffffL )
+             | ( ( (long) readInt( buf, pos + 4 ) ) << 32 );
+    }
+
+    /**
+     * Writes a little-endian 4-byte integer to a stream.
+     *
+     * @param  out  destination stream
+     * @param  value  value
+     */
+    public static void writeInt( ByteArrayOutputStream out, int value ) {
+        out.write( value );
+        out.write( value >>> 8 );
+        out.write( value >>> 16 );
+        out.write( value >>> 24 );
+    }
+
+    /**
+     * Writes a little-endian 8-byte integer to a stream.
+     *
+     * @param  out  destination stream
+     * @param  value  value
+     */
+    public static void writeLong( ByteArrayOutputStream out, long value ) {
+        writeInt( out, (int) value );
+        writeInt( out, (int) ( value >>> 32 ) );
+    }
+
+    /**
+     * Decodes values in the RLE/bit-packed hybrid encoding.
+     * The input is not prefixed by a length.
+     *
+     * @param  buf  buffer
+     * @param  pos  offset into buffer of start of encoded data
+     * @param  end  offset into buffer beyond which data will not be read
+     * @param  bitWidth  bit width of encoded values
+     * @param  out  array to receive decoded values
+     * @param  count  number of values required
+     * @return  offset into buffer following the last data read
+     */
+    public static int decodeHybrid( byte[] buf, int pos, int end,
+                                    int bitWidth, int[] out, int count )
+            throws TableFormatException {
+        if ( bitWidth < 0 || bitWidth > 32 ) {
+            throw new TableFormatException( "Bad bit width " + bitWidth );
+        }
+        int byteWidth = ( bitWidth + 7 ) / 8;
+        int n = 0;
+        int[] vp = new int[ 1 ];
+        while ( n < count ) {
+            if ( pos >= end ) {
+                throw new TableFormatException( "RLE data truncated" );
+            }
+            vp[ 0 ] = pos;
+            long header = readVarint( buf, vp, end );
+            pos = vp[ 0 ];
+            if ( ( header & 1 ) == 0 ) {
+                long runLeng = header >>> 1;
+                int value = 0;
+                for ( int i = 0; i < byteWidth; i++ ) {
+                    value |= ( buf[ pos++ ] & 0xff ) << ( 8 * i );
+                }
+                int nr = (int) Math.min( runLeng, count - n );
+                for ( int i = 0; i < nr; i++ ) {
+                    out[ n++ ] = value;
+                }
+            }
+            else {
+                long nv = ( header >>> 1 ) * 8;
+                int nr = (int) Math.min( nv, count - n );
+                unpack( buf, pos, end, bitWidth, out, n, nr );
+                n += nr;
+                pos += (int) ( ( nv * bitWidth ) / 8 );
+            }
+        }
+        return Math.min( pos, end );
+    }
+
+    /**
+     * Unpacks a sequence of little-endian bit-packed integer values
+     * of up to 32 bits each.
+     *
+     * @param  buf  buffer
+     * @param  pos  offset into buffer of first packed value
+     * @param  end  offset into buffer beyond which data will not be read
+     * @param  bitWidth  bit width of packed values
+     * @param  out  array to receive unpacked values
+     * @param  outOff  offset into output array of first value
+     * @param  count  number of values to unpack
+     */
+    public static void unpack( byte[] buf, int pos, int end, int bitWidth,
+                               int[] out, int outOff, int count ) {
+        if ( bitWidth == 0 ) {
+            for ( int i = 0; i < count; i++ ) {
+                out[ outOff + i ] = 0;
+            }
+            return;
+        }
+        long mask = ( 1L << bitWidth ) - 1;
+        long bitPos = 0;
+        for ( int i = 0; i < count; i++ ) {
+            int ib = pos + (int) ( bitPos >>> 3 );
+            int shift = (int) ( bitPos & 7 );
+            long acc = 0;
+            int nb = ( shift + bitWidth + 7 ) / 8;
+            for ( int j = 0; j < nb && ib + j < end; j++ ) {
+                acc |= ( buf[ ib + j ] & 0xffL ) << ( 8 * j );
+            }
+            out[ outOff + i ] = (int) ( ( acc >>> shift ) & mask );
+            bitPos += bitWidth;
+        }
+    }
+
+    /**
+     * Decodes values in the DELTA_BINARY_PACKED encoding.
+     *
+     * @param  buf  buffer
+     * @param  vp   one-element array containing the offset into the buffer
+     *              of the start of the encoded data;
+     *              on exit it contains the offset following the end
+     *              of the encoded data
+     * @param  end  offset into buffer beyond which data will not be read
+     * @return  decoded values
+     */
+    public static long[] decodeDelta( byte[] buf, int[] vp, int end )
+            throws TableFormatException {
+        long blockSize = readVarint( buf, vp, end );
+        long nMini = readVarint( buf, vp, end );
+        long total = readVarint( buf, vp, end );
+        long value = readZigzag( buf, vp, end );
+        if ( nMini <= 0 || blockSize <= 0 || blockSize % nMini != 0 ||
+             ( blockSize / nMini ) % 8 != 0 || total > Integer.MAX_VALUE ) {
+            throw new TableFormatException( "Bad delta encoding header" );
+        }
+        int perMini = (int) ( blockSize / nMini );
+        long[] out = new long[ (int) total ];
+        int n = 0;
+        if ( total > 0 ) {
+            out[ n++ ] = value;
+        }
+        while ( n < total ) {
+            long minDelta = readZigzag( buf, vp, end );
+            int widthPos = vp[ 0 ];
+            vp[ 0 ] += (int) nMini;
+            for ( int im = 0; im < nMini && n < total; im++ ) {
+                int width = buf[ widthPos + im ] & 0xff;
+                if ( width > 64 ) {
+                    throw new TableFormatException( "Bad delta bit width" );
+                }
+                long bitPos = 8L * vp[ 0 ];
+                for ( int i = 0; i < perMini && n < total; i++ ) {
+                    value += minDelta + readBits( buf, bitPos, width, end );
+                    out[ n++ ] = value;
+                    bitPos += width;
+                }
+                vp[ 0 ] += perMini * width / 8;
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Reads a little-endian bit-packed value of up to 64 bits.
+     *
+     * @param  buf  buffer
+     * @param  bitPos  offset into buffer in bits of start of value
+     * @param  width  number of bits
+     * @param  end  offset into buffer in bytes beyond which data
+     *              will not be read
+     * @return  value
+     */
+    private static long readBits( byte[] buf, long bitPos, int width,
+                                  int end ) {
+        long value = 0;
+        int got = 0;
+        while ( got < width ) {
+            int ib = (int) ( bitPos >>> 3 );
+            int shift = (int) ( bitPos & 7 );
+            int b = ib < end ? ( buf[ ib ] & 0xff ) >>> shift : 0;
+            int nbit = Math.min( 8 - shift, width - got );
+            value |= ( (long) ( b & ( ( 1 << nbit ) - 1 ) ) ) << got;
+            got += nbit;
+            bitPos += nbit;
+        }
+        return value;
+    }
+
+    /**
+     * Reads an unsigned variable-length integer.
+     *
+     * @param  buf  buffer
+     * @param  vp   one-element array containing the read position,
+     *              updated on exit
+     * @param  end  offset into buffer beyond which data will not be read
+     * @return  value
+     */
+    public static long readVarint( byte[] buf, int[] vp, int end )
+            throws TableFormatException {
+        long value = 0;
+        int pos = vp[ 0 ];
+        for ( int shift = 0; shift < 70; shift += 7 ) {
+            if ( pos >= end ) {
+                throw new TableFormatException( "Varint truncated" );
+            }
+            int b = buf[ pos++ ];
+            value |= ( b & 0x7fL ) << shift;
+            if ( ( b & 0x80 ) == 0 ) {
+                vp[ 0 ] = pos;
+                return value;
+            }
+        }
+        throw new TableFormatException( "Bad varint" );
+    }
+
+    /**
+     * Reads a zigzag-encoded variable-length integer.
+     *
+     * @param  buf  buffer
+     * @param  vp   one-element array containing the read position,
+     *              updated on exit
+     * @param  end  offset into buffer beyond which data will not be read
+     * @return  value
+     */
+    private static long readZigzag( byte[] buf, int[] vp, int end )
+            throws TableFormatException {
+        long n = readVarint( buf, vp, end );
+        return ( n >>> 1 ) ^ -( n & 1 );
+    }
+
+    /**
+     * Writes an unsigned variable-length integer to a stream.
+     *
+     * @param  out  destination stream
+     * @param  value  value
+     */
+    private static void writeVarint( ByteArrayOutputStream out, long value ) {
+        while ( ( value & ~0x7fL ) != 0 ) {
+            out.write( (int) ( ( value & 0x7f ) | 0x80 ) );
+            value >>>= 7;
+        }
+        out.write( (int) value );
+    }
+
+    /**
+     * Encodes values using the RLE/bit-packed hybrid encoding.
+     * Long runs of repeated values are written as RLE runs,
+     * and everything else as bit-packed groups of 8.
+     * The output is not prefixed by a length.
+     *
+     * @param  values  values to encode
+     * @param  count   number of values to encode
+     * @param  bitWidth  bit width sufficient to represent all values
+     * @param  out   destination stream
+     */
+    public static void encodeHybrid( int[] values, int count, int bitWidth,
+                                     ByteArrayOutputStream out ) {
+        int byteWidth = ( bitWidth + 7 ) / 8;
+        ByteArrayOutputStream packed = new ByteArrayOutputStream();
+        int nGroup = 0;
+        int i = 0;
+        while ( i < count ) {
+            int v = values[ i ];
+            int j = i + 1;
+            while ( j < count && values[ j ] == v ) {
+                j++;
+            }
+            if ( j - i >= 8 ) {
+                if ( nGroup > 0 ) {
+                    writePacked( out, packed, nGroup );
+                    nGroup = 0;
+                }
+                writeVarint( out, ( (long) ( j - i ) ) << 1 );
+                for ( int k = 0; k < byteWidth; k++ ) {
+                    out.write( v >>> ( 8 * k ) );
+                }
+                i = j;
+            }
+            else {
+                long acc = 0;
+                int nbit = 0;
+                for ( int k = 0; k < 8; k++ ) {
+                    int iv = i + k;
+                    long val = iv < count ? ( values[ iv ] & 0xffffffffL ) : 0;
+                    acc |= val << nbit;
+                    nbit += bitWidth;
+                    while ( nbit >= 8 ) {
+                        packed.write( (int) acc );
+                        acc >>>= 8;
+                        nbit -= 8;
+                    }
+                }
+                nGroup++;
+                i += 8;
+            }
+        }
+        if ( nGroup > 0 ) {
+            writePacked( out, packed, nGroup );
+        }
+    }
+
+    /**
+     * Writes a bit-packed run of groups to a stream,
+     * and resets the buffer in which they were accumulated.
+     *
+     * @param  out  destination stream
+     * @param  packed  buffer containing packed values
+     * @param  nGroup  number of 8-value groups in buffer
+     */
+    private static void writePacked( ByteArrayOutputStream out,
+                                     ByteArrayOutputStream packed,
+                                     int nGroup ) {
+        writeVarint( out, ( ( (long) nGroup ) << 1 ) | 1 );
+        byte[] bytes = packed.toByteArray();
+        out.write( bytes, 0, bytes.length );
+        packed.reset();
+    }
+}
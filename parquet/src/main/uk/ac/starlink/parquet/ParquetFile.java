@@ -0,0 +1,709 @@
+package uk.ac.starlink.parquet;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+import uk.ac.starlink.table.TableFormatException;
+
+/**
+ * Represents the structure of a Parquet file as described by its footer.
+ * This gives the columns that can be presented as StarTable columns,
+ * the row groups with their per-column statistics,
+ * and the means to read and decode individual column chunks.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+class ParquetFile {
+
+    private final File file_;
+    private final long fileLeng_;
+    private final long nrow_;
+    private final String createdBy_;
+    private final Map<String,String> kvMap_;
+    private final ColumnDesc[] cols_;
+    private final RowGroup[] groups_;
+
+    /** Magic number at start and end of Parquet files. */
+    static final byte[] MAGIC = new byte[] { 'P', 'A', 'R', '1' };
+
+    private static final int REQUIRED = 0;
+    private static final int OPTIONAL = 1;
+    private static final int REPEATED = 2;
+
+    private static final int CT_UTF8 = 0;
+    private static final int CT_LIST = 3;
+    private static final int CT_ENUM = 4;
+    private static final int CT_DECIMAL = 5;
+    private static final int CT_UINT_8 = 11;
+    private static final int CT_UINT_16 = 12;
+    private static final int CT_UINT_32 = 13;
+    private static final int CT_UINT_64 = 14;
+    private static final int CT_INT_8 = 15;
+    private static final int CT_INT_16 = 16;
+    private static final int CT_JSON = 19;
+
+    private static final Logger logger_ =
+        Logger.getLogger( "uk.ac.starlink.parquet" );
+
+    /**
+     * Constructor.
+     *
+     * @param  file  Parquet file
+     */
+    public ParquetFile( File file ) throws IOException {
+        file_ = file;
+        ThriftStruct fmeta;
+        try ( FileChannel chan = openChannel() ) {
+            fileLeng_ = chan.size();
+            if ( fileLeng_ < 12 ) {
+                throw new TableFormatException( "File too short for Parquet" );
+            }
+            byte[] tail = readBytes( chan, fileLeng_ - 8, 8 );
+            if ( ! isMagic( tail, 4 ) ) {
+                throw new TableFormatException( tail[ 7 ] == 'E'
+                                              ? "Encrypted Parquet footer"
+                                              + " not supported"
+                                              : "No trailing PAR1 magic" );
+            }
+            long footLeng = Encodings.readInt( tail, 0 ) & 0xffffffffL;
+            if ( footLeng > fileLeng_ - 12 ) {
+                throw new TableFormatException( "Bad footer length "
+                                              + footLeng );
+            }
+            byte[] foot = readBytes( chan, fileLeng_ - 8 - footLeng,
+                                     (int) footLeng );
+            fmeta = new CompactReader( foot, 0, foot.length ).readStruct();
+        }
+        nrow_ = fmeta.getLong( 3, -1 );
+        createdBy_ = fmeta.getString( 6 );
+        kvMap_ = new LinkedHashMap<String,String>();
+        for ( Object kv : fmeta.getList( 5 ) ) {
+            if ( kv instanceof ThriftStruct ) {
+                ThriftStruct kvs = (ThriftStruct) kv;
+                String key = kvs.getString( 1 );
+                if ( key != null ) {
+                    kvMap_.put( key, kvs.getString( 2 ) );
+                }
+            }
+        }
+
+        /* Reconstruct the schema tree from its flattened form,
+         * and identify those top-level fields we can represent
+         * as StarTable columns. */
+        List<?> schema = fmeta.getList( 2 );
+        if ( schema.isEmpty() ) {
+            throw new TableFormatException( "No Parquet schema" );
+        }
+        SchemaNode root = readNode( schema, new int[ 1 ], 0 );
+        List<ColumnDesc> colList = new ArrayList<>();
+        List<Boolean> signedList = new ArrayList<>();
+        int ileaf = 0;
+        for ( SchemaNode node : root.children_ ) {
+            ColumnDesc col = createColumn( node, ileaf );
+            if ( col != null ) {
+                colList.add( col );
+                signedList.add( Boolean.valueOf( isSignedOrder( node ) ) );
+            }
+            else {
+                logger_.warning( "Ignoring unsupported Parquet column "
+                               + node.name_ );
+            }
+            ileaf += node.getLeafCount();
+        }
+        int nleaf = ileaf;
+        cols_ = colList.toArray( new ColumnDesc[ 0 ] );
+        int ncol = cols_.length;
+        boolean[] isSigned = new boolean[ ncol ];
+        for ( int ic = 0; ic < ncol; ic++ ) {
+            isSigned[ ic ] = signedList.get( ic ).booleanValue();
+        }
+
+        /* Read row group metadata. */
+        List<?> rgList = fmeta.getList( 4 );
+        groups_ = new RowGroup[ rgList.size() ];
+        long irow0 = 0;
+        for ( int ig = 0; ig < groups_.length; ig++ ) {
+            ThriftStruct rg = (ThriftStruct) rgList.get( ig );
+            List<?> chunks = rg.getList( 1 );
+            if ( chunks.size() != nleaf ) {
+                throw new TableFormatException( "Row group column count "
+                                              + "mismatch" );
+            }
+            long ngrow = rg.getLong( 3, -1 );
+            if ( ngrow < 0 || ngrow > Integer.MAX_VALUE ) {
+                throw new TableFormatException( "Bad row group size "
+                                              + ngrow );
+            }
+            ThriftStruct[] metas = new ThriftStruct[ ncol ];
+            double[] mins = new double[ ncol ];
+            double[] maxs = new double[ ncol ];
+            long[] nullCounts = new long[ ncol ];
+            for ( int ic = 0; ic < ncol; ic++ ) {
+                ThriftStruct chunk =
+                    (ThriftStruct) chunks.get( cols_[ ic ].getLeafIndex() );
+                if ( chunk.has( 1 ) ) {
+                    throw new TableFormatException( "External column chunks"
+                                                  + " not supported" );
+                }
+                ThriftStruct md = chunk.getStruct( 3 );
+                if ( md == null ) {
+                    throw new TableFormatException( "No column metadata" );
+                }
+                metas[ ic ] = md;
+                ThriftStruct stats = md.getStruct( 12 );
+                double[] range = getRange( cols_[ ic ], stats, isSigned[ ic ] );
+                mins[ ic ] = range == null ? Double.NaN : range[ 0 ];
+                maxs[ ic ] = range == null ? Double.NaN : range[ 1 ];
+                nullCounts[ ic ] = stats == null ? -1
+                                                 : stats.getLong( 3, -1 );
+            }
+            groups_[ ig ] = new RowGroup( (int) ngrow, irow0, metas,
+                                          mins, maxs, nullCounts );
+            irow0 += ngrow;
+        }
+        if ( irow0 != nrow_ ) {
+            throw new TableFormatException( "Row count mismatch ("
+                                          + irow0 + " != " + nrow_ + ")" );
+        }
+    }
+
+    /**
+     * Returns the file.
+     *
+     * @return  file
+     */
+    public File getFile() {
+        return file_;
+    }
+
+    /**
+     * Returns the total number of rows.
+     *
+     * @return  row count
+     */
+    public long getRowCount() {
+        return nrow_;
+    }
+
+    /**
+     * Returns the value of the created_by footer field.
+     *
+     * @return  creator application string, or null
+     */
+    public String getCreatedBy() {
+        return createdBy_;
+    }
+
+    /**
+     * Returns the file-level key-value metadata.
+     *
+     * @return  unmodifiable key-value map
+     */
+    public Map<String,String> getKeyValueMetadata() {
+        return Collections.unmodifiableMap( kvMap_ );
+    }
+
+    /**
+     * Returns descriptions of the columns that can be presented.
+     *
+     * @return  column array
+     */
+    public ColumnDesc[] getColumns() {
+        return cols_.clone();
+    }
+
+    /**
+     * Returns the row groups.
+     *
+     * @return  row group array
+     */
+    public RowGroup[] getRowGroups() {
+        return groups_.clone();
+    }
+
+    /**
+     * Opens a new read-only channel for this file.
+     *
+     * @return  new channel; it is the caller's responsibility to close it
+     */
+    public FileChannel openChannel() throws IOException {
+        return FileChannel.open( file_.toPath(), StandardOpenOption.READ );
+    }
+
+    /**
+     * Reads and decodes the data for a single column in a single row group.
+     *
+     * @param  chan  channel open on this file
+     * @param  group  row group
+     * @param  icol   index into the columns of this file
+     * @return  decoded chunk
+     */
+    public ChunkData readChunk( FileChannel chan, RowGroup group, int icol )
+            throws IOException {
+        ThriftStruct md = group.metas_[ icol ];
+        long dataOff = md.getLong( 9, -1 );
+        long dictOff = md.getLong( 11, -1 );
+        long start = dictOff > 0 && dictOff < dataOff ? dictOff : dataOff;
+        long leng = md.getLong( 7, -1 );
+        if ( start < MAGIC.length || leng < 0 ||
+             start + leng > fileLeng_ - 8 || leng > Integer.MAX_VALUE ) {
+            throw new TableFormatException( "Bad column chunk position for "
+                                          + cols_[ icol ] );
+        }
+        byte[] buf = readBytes( chan, start, (int) leng );
+        return ChunkData.decode( cols_[ icol ], md, buf, group.nrow_ );
+    }
+
+    /**
+     * Indicates whether a byte buffer starts with the Parquet magic number.
+     *
+     * @param  intro  initial bytes of a file
+     * @return  true iff the content looks like the start of a Parquet file
+     */
+    public static boolean isMagic( byte[] intro ) {
+        return intro.length >= MAGIC.length && isMagic( intro, 0 );
+    }
+
+    /**
+     * Indicates whether a buffer contains the Parquet magic number
+     * at a given position.
+     *
+     * @param  buf  buffer
+     * @param  off  offset
+     * @return  true iff magic number is present
+     */
+    private static boolean isMagic( byte[] buf, int off ) {
+        for ( int i = 0; i < MAGIC.length; i++ ) {
+            if ( buf[ off + i ] != MAGIC[ i ] ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads a given number of bytes from a channel.
+     *
+     * @param  chan  channel
+     * @param  pos  file offset
+     * @param  leng  number of bytes
+     * @return  buffer containing bytes
+     */
+    private static byte[] readBytes( FileChannel chan, long pos, int leng )
+            throws IOException {
+        byte[] buf = new byte[ leng ];
+        ByteBuffer bbuf = ByteBuffer.wrap( buf );
+        while ( bbuf.hasRemaining() ) {
+            if ( chan.read( bbuf, pos + bbuf.position() ) < 0 ) {
+                throw new TableFormatException( "Unexpected end of file" );
+            }
+        }
+        return buf;
+    }
+
+    /**
+     * Reads a schema node and its descendents from the flattened
+     * schema element list.
+     *
+     * @param  schema  list of SchemaElement structs
+     * @param  ip   one-element array giving the index of the next element
+     *              to read, updated on exit
+     * @param  depth  nesting depth
+     * @return   schema node
+     */
+    private static SchemaNode readNode( List<?> schema, int[] ip, int depth )
+            throws TableFormatException {
+        if ( ip[ 0 ] >= schema.size() || depth > 64 ) {
+            throw new TableFormatException( "Bad Parquet schema" );
+        }
+        ThriftStruct el = (ThriftStruct) schema.get( ip[ 0 ]++ );
+        SchemaNode node = new SchemaNode( el );
+        int nchild = el.getInt( 5, -1 );
+        if ( nchild >= 0 && ! el.has( 1 ) ) {
+            node.children_ = new ArrayList<SchemaNode>();
+            for ( int i = 0; i < nchild; i++ ) {
+                node.children_.add( readNode( schema, ip, depth + 1 ) );
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Attempts to create a column description for a top-level schema field.
+     *
+     * @param  node  top-level schema node
+     * @param  ileaf  leaf index of the first leaf under node
+     * @return  column description, or null if it can't be represented
+     */
+    private static ColumnDesc createColumn( SchemaNode node, int ileaf ) {
+        final SchemaNode leaf;
+        final boolean isList;
+        final int maxDef;
+        final int defOuter;
+        final int defEl;
+        if ( node.isLeaf() ) {
+            leaf = node;
+            if ( node.rep_ == REPEATED ) {
+                isList = true;
+                defOuter = 0;
+                defEl = 1;
+                maxDef = 1;
+            }
+            else {
+                isList = false;
+                defOuter = 0;
+                defEl = 0;
+                maxDef = node.rep_ == OPTIONAL ? 1 : 0;
+            }
+        }
+        else if ( node.isList() && node.children_.size() == 1 &&
+                  node.rep_ != REPEATED ) {
+            SchemaNode rnode = node.children_.get( 0 );
+            if ( rnode.rep_ != REPEATED ) {
+                return null;
+            }
+            isList = true;
+            defOuter = node.rep_ == OPTIONAL ? 1 : 0;
+            defEl = defOuter + 1;
+
+            /* Two-level list representation. */
+            if ( rnode.isLeaf() ) {
+                leaf = rnode;
+                maxDef = defEl;
+            }
+
+            /* Three-level list representation; the backward compatibility
+             * rules of the LIST specification say that repeated groups
+             * named "array" or "<name>_tuple" are elements, not wrappers. */
+            else if ( rnode.children_.size() == 1 &&
+                      rnode.children_.get( 0 ).isLeaf() &&
+                      rnode.children_.get( 0 ).rep_ != REPEATED &&
+                      ! rnode.name_.equals( "array" ) &&
+                      ! rnode.name_.equals( node.name_ + "_tuple" ) ) {
+                leaf = rnode.children_.get( 0 );
+                maxDef = defEl + ( leaf.rep_ == OPTIONAL ? 1 : 0 );
+            }
+            else {
+                return null;
+            }
+        }
+        else {
+            return null;
+        }
+        ThriftStruct el = leaf.el_;
+        int physType = el.getInt( 1, -1 );
+        ThriftStruct logical = el.getStruct( 10 );
+        int ctype = el.getInt( 6, -1 );
+        ThriftStruct intType = logical == null ? null : logical.getStruct( 10 );
+        ThriftStruct decType = logical == null ? null : logical.getStruct( 5 );
+        boolean isDecimal = decType != null || ctype == CT_DECIMAL;
+        int scale = decType != null ? decType.getInt( 1, 0 )
+                                    : el.getInt( 7, 0 );
+        boolean isString = ctype == CT_UTF8 || ctype == CT_ENUM
+                        || ctype == CT_JSON
+                        || ( logical != null &&
+                             ( logical.has( 1 ) || logical.has( 4 ) ||
+                               logical.has( 12 ) ) );
+        int nbit = 0;
+        boolean isSigned = true;
+        if ( intType != null ) {
+            nbit = intType.getInt( 1, 0 );
+            isSigned = intType.getBoolean( 2, true );
+        }
+        else if ( ctype == CT_INT_8 || ctype == CT_UINT_8 ) {
+            nbit = 8;
+            isSigned = ctype == CT_INT_8;
+        }
+        else if ( ctype == CT_INT_16 || ctype == CT_UINT_16 ) {
+            nbit = 16;
+            isSigned = ctype == CT_INT_16;
+        }
+        else if ( ctype == CT_UINT_32 || ctype == CT_UINT_64 ) {
+            isSigned = false;
+        }
+        ColumnDesc.Kind kind;
+        boolean isUbyte = false;
+        switch ( physType ) {
+            case ColumnDesc.BOOLEAN:
+                kind = ColumnDesc.Kind.BOOLEAN;
+                break;
+            case ColumnDesc.INT32:
+                if ( isDecimal ) {
+                    kind = ColumnDesc.Kind.DECIMAL;
+                }
+                else if ( nbit == 8 ) {
+                    kind = isSigned ? ColumnDesc.Kind.BYTE
+                                    : ColumnDesc.Kind.SHORT;
+                    isUbyte = ! isSigned;
+                }
+                else if ( nbit == 16 ) {
+                    kind = isSigned ? ColumnDesc.Kind.SHORT
+                                    : ColumnDesc.Kind.INT;
+                }
+                else {
+                    kind = isSigned ? ColumnDesc.Kind.INT
+                                    : ColumnDesc.Kind.LONG;
+                }
+                break;
+            case ColumnDesc.INT64:
+                kind = isDecimal ? ColumnDesc.Kind.DECIMAL
+                                 : ColumnDesc.Kind.LONG;
+                break;
+            case ColumnDesc.FLOAT:
+                kind = ColumnDesc.Kind.FLOAT;
+                break;
+            case ColumnDesc.DOUBLE:
+                kind = ColumnDesc.Kind.DOUBLE;
+                break;
+            case ColumnDesc.BYTE_ARRAY:
+                kind = isString ? ColumnDesc.Kind.STRING
+                                : isDecimal ? ColumnDesc.Kind.DECIMAL
+                                            : ColumnDesc.Kind.BINARY;
+                break;
+            case ColumnDesc.FIXED_LEN_BYTE_ARRAY:
+                kind = isDecimal ? ColumnDesc.Kind.DECIMAL
+                                 : ColumnDesc.Kind.BINARY;
+                break;
+            default:
+                return null;
+        }
+        if ( isList && ! kind.isListable() ) {
+            return null;
+        }
+        int maxRep = isList ? 1 : 0;
+        return new ColumnDesc( node.name_, ileaf, physType,
+                               el.getInt( 2, 0 ), kind, scale, isUbyte,
+                               isList, maxDef, maxRep, defOuter, defEl );
+    }
+
+    /**
+     * Indicates whether the statistics for a top-level schema field
+     * would be in signed order if written using the deprecated
+     * min/max fields.
+     *
+     * @param  node  top-level schema node
+     * @return   true for signed numeric leaf fields
+     */
+    private static boolean isSignedOrder( SchemaNode node ) {
+        if ( ! node.isLeaf() ) {
+            return false;
+        }
+        ThriftStruct el = node.el_;
+        int ctype = el.getInt( 6, -1 );
+        ThriftStruct logical = el.getStruct( 10 );
+        ThriftStruct intType = logical == null ? null : logical.getStruct( 10 );
+        return ! ( ctype >= CT_UINT_8 && ctype <= CT_UINT_64 )
+            && ! ( intType != null && ! intType.getBoolean( 2, true ) );
+    }
+
+    /**
+     * Returns the numeric range for a scalar column in a row group
+     * given its statistics, if available.
+     *
+     * @param  col  column
+     * @param  stats  Statistics struct, or null
+     * @param  isSigned  true if the deprecated min/max fields can be used
+     * @return   2-element (min,max) array, or null
+     */
+    private static double[] getRange( ColumnDesc col, ThriftStruct stats,
+                                      boolean isSigned ) {
+        if ( stats == null || col.isList() ) {
+            return null;
+        }
+        byte[] min = stats.getBinary( 6 );
+        byte[] max = stats.getBinary( 5 );
+        if ( ( min == null || max == null ) && isSigned ) {
+            min = stats.getBinary( 2 );
+            max = stats.getBinary( 1 );
+        }
+        if ( min == null || max == null ) {
+            return null;
+        }
+        double dmin = toNumber( col, min );
+        double dmax = toNumber( col, max );
+        return Double.isNaN( dmin ) || Double.isNaN( dmax )
+             ? null
+             : new double[] { dmin, dmax };
+    }
+
+    /**
+     * Decodes a PLAIN-encoded statistics value as a number.
+     *
+     * @param  col  column
+     * @param  buf  encoded value
+     * @return   numeric value, or NaN if not available
+     */
+    private static double toNumber( ColumnDesc col, byte[] buf ) {
+        ColumnDesc.Kind kind = col.getKind();
+        switch ( col.getPhysicalType() ) {
+            case ColumnDesc.INT32:
+                if ( buf.length != 4 ) {
+                    return Double.NaN;
+                }
+                int ival = Encodings.readInt( buf, 0 );
+                return kind == ColumnDesc.Kind.DECIMAL
+                     ? ValueStore.toDecimal( ival, col.getScale() )
+                     : kind == ColumnDesc.Kind.LONG ? ival & 0xffffffffL
+                                                    : ival;
+            case ColumnDesc.INT64:
+                if ( buf.length != 8 ) {
+                    return Double.NaN;
+                }
+                long lval = Encodings.readLong( buf, 0 );
+                return kind == ColumnDesc.Kind.DECIMAL
+                     ? ValueStore.toDecimal( lval, col.getScale() )
+                     : lval;
+            case ColumnDesc.FLOAT:
+                return buf.length == 4
+                     ? Float.intBitsToFloat( Encodings.readInt( buf, 0 ) )
+                     : Double.NaN;
+            case ColumnDesc.DOUBLE:
+                return buf.length == 8
+                     ? Double.longBitsToDouble( Encodings.readLong( buf, 0 ) )
+                     : Double.NaN;
+            default:
+                return Double.NaN;
+        }
+    }
+
+    /**
+     * Describes a row group.
+     */
+    static class RowGroup {
+        private final int nrow_;
+        private final long irow0_;
+        private final ThriftStruct[] metas_;
+        private final double[] mins_;
+        private final double[] maxs_;
+        private final long[] nullCounts_;
+
+        /**
+         * Constructor.
+         *
+         * @param  nrow  number of rows in group
+         * @param  irow0  index in file of first row in group
+         * @param  metas  per-column ColumnMetaData structs
+         * @param  mins  per-column minimum values, NaN if unknown
+         * @param  maxs  per-column maximum values, NaN if unknown
+         * @param  nullCounts  per-column null counts, -1 if unknown
+         */
+        RowGroup( int nrow, long irow0, ThriftStruct[] metas,
+                  double[] mins, double[] maxs, long[] nullCounts ) {
+            nrow_ = nrow;
+            irow0_ = irow0;
+            metas_ = metas;
+            mins_ = mins;
+            maxs_ = maxs;
+            nullCounts_ = nullCounts;
+        }
+
+        /**
+         * Returns the number of rows in this group.
+         *
+         * @return  row count
+         */
+        public int getRowCount() {
+            return nrow_;
+        }
+
+        /**
+         * Returns the index in the file of the first row in this group.
+         *
+         * @return  row offset
+         */
+        public long getRowOffset() {
+            return irow0_;
+        }
+
+        /**
+         * Indicates whether this group may contain a non-null value
+         * in a given range for a given column.
+         * The result is conservative; if statistics are not available
+         * true is returned.
+         *
+         * @param  icol  column index
+         * @param  lo   lower bound of range, inclusive
+         * @param  hi   upper bound of range, inclusive
+         * @return   false if it is known that no value in the column
+         *           lies in the given range
+         */
+        public boolean mayContain( int icol, double lo, double hi ) {
+            if ( nullCounts_[ icol ] == nrow_ ) {
+                return false;
+            }
+            double min = mins_[ icol ];
+            double max = maxs_[ icol ];
+            return Double.isNaN( min ) || Double.isNaN( max )
+                || ! ( max < lo || min > hi );
+        }
+    }
+
+    /**
+     * Node in the schema tree.
+     */
+    private static class SchemaNode {
+        final ThriftStruct el_;
+        final String name_;
+        final int rep_;
+        List<SchemaNode> children_;
+
+        /**
+         * Constructor.
+         *
+         * @param  el  SchemaElement struct
+         */
+        SchemaNode( ThriftStruct el ) {
+            el_ = el;
+            name_ = el.getString( 4 );
+            rep_ = el.getInt( 3, REQUIRED );
+        }
+
+        /**
+         * Indicates whether this is a leaf (primitive) node.
+         *
+         * @return  true for leaf nodes
+         */
+        boolean isLeaf() {
+            return children_ == null;
+        }
+
+        /**
+         * Indicates whether this node is a group annotated as a LIST.
+         *
+         * @return  true for list groups
+         */
+        boolean isList() {
+            ThriftStruct logical = el_.getStruct( 10 );
+            return children_ != null
+                && ( el_.getInt( 6, -1 ) == CT_LIST ||
+                     ( logical != null && logical.has( 3 ) ) );
+        }
+
+        /**
+         * Returns the number of leaf nodes at or below this one.
+         *
+         * @return  leaf count
+         */
+        int getLeafCount() {
+            if ( children_ == null ) {
+                return 1;
+            }
+            else {
+                int n = 0;
+                for ( SchemaNode child : children_ ) {
+                    n += child.getLeafCount();
+                }
+                return n;
+            }
+        }
+    }
+}
@@ -0,0 +1,528 @@
+package uk.ac.starlink.parquet;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import uk.ac.starlink.table.AbstractStarTable;
+import uk.ac.starlink.table.ColumnInfo;
+import uk.ac.starlink.table.DefaultValueInfo;
+import uk.ac.starlink.table.DescribedValue;
+import uk.ac.starlink.table.RangeRestrictable;
+import uk.ac.starlink.table.RowAccess;
+import uk.ac.starlink.table.RowSequence;
+import uk.ac.starlink.table.RowSplittable;
+import uk.ac.starlink.table.StarTable;
+import uk.ac.starlink.table.Tables;
+import uk.ac.starlink.table.ValueInfo;
+
+/**
+ * StarTable implementation based on a Parquet file.
+ *
+ * <p>Data is read a column chunk at a time, and only for those
+ * columns which are actually accessed, so that reading a subset
+ * of the columns of a wide table is correspondingly cheaper.
+ * Parallel processing splits the table along row group boundaries.
+ * The per-row-group column statistics stored in the file are used
+ * to implement {@link uk.ac.starlink.table.RangeRestrictable},
+ * so that row groups which cannot match a range filter
+ * need not be read at all.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+public class ParquetStarTable extends AbstractStarTable
+                              implements RangeRestrictable {
+
+    private final ParquetFile pfile_;
+    private final ColumnDesc[] cols_;
+    private final ColumnInfo[] colInfos_;
+    private final ParquetFile.RowGroup[] groups_;
+    private final long[] starts_;
+    private final int ncol_;
+    private final long nrow_;
+    private final GroupReader randomReader_;
+
+    /** Prefix for file metadata keys used to store StarTable metadata. */
+    public static final String META_PREFIX = "starjava.";
+
+    /** File metadata key used to store the table name. */
+    public static final String NAME_KEY = META_PREFIX + "name";
+
+    /** Prefix for file metadata keys used to store table parameters. */
+    public static final String PARAM_PREFIX = META_PREFIX + "param.";
+
+    /**
+     * Prefix for file metadata keys used to store column metadata;
+     * the full key is this prefix followed by the column name,
+     * a dot, and one of the column metadata suffixes.
+     */
+    public static final String COLUMN_PREFIX = META_PREFIX + "col.";
+
+    /** Column metadata key suffix for UCD. */
+    public static final String UCD_KEY = "ucd";
+
+    /** Column metadata key suffix for Utype. */
+    public static final String UTYPE_KEY = "utype";
+
+    /** Column metadata key suffix for unit string. */
+    public static final String UNIT_KEY = "unit";
+
+    /** Column metadata key suffix for description text. */
+    public static final String DESCRIPTION_KEY = "description";
+
+    /** Column metadata key suffix for stringified array shape. */
+    public static final String SHAPE_KEY = "shape";
+
+    /** Aux metadata key for column Parquet physical type. */
+    public static final ValueInfo PQTYPE_INFO =
+        new DefaultValueInfo( "parquet_type", String.class,
+                              "Physical type from Parquet input file" );
+
+    private static final String[] PHYSICAL_NAMES = {
+        "BOOLEAN", "INT32", "INT64", "INT96", "FLOAT", "DOUBLE",
+        "BYTE_ARRAY", "FIXED_LEN_BYTE_ARRAY",
+    };
+
+    /**
+     * Constructs a ParquetStarTable from a File.
+     *
+     * @param  file  Parquet file
+     */
+    public ParquetStarTable( File file ) throws IOException {
+        this( new ParquetFile( file ) );
+    }
+
+    /**
+     * Constructs a ParquetStarTable from a parsed Parquet file.
+     *
+     * @param  pfile  parsed file
+     */
+    ParquetStarTable( ParquetFile pfile ) {
+        this( pfile, pfile.getColumns(), createColumnInfos( pfile ),
+              pfile.getRowGroups() );
+        Map<String,String> kvMap = pfile.getKeyValueMetadata();
+        setName( kvMap.get( NAME_KEY ) );
+        List<DescribedValue> params = new ArrayList<>();
+        for ( Map.Entry<String,String> entry : kvMap.entrySet() ) {
+            String key = entry.getKey();
+            String value = entry.getValue();
+            final String pname;
+            if ( key.startsWith( PARAM_PREFIX ) ) {
+                pname = key.substring( PARAM_PREFIX.length() );
+            }
+            else if ( key.startsWith( META_PREFIX ) ||
+                      key.equals( "ARROW:schema" ) ) {
+                pname = null;
+            }
+            else {
+                pname = key;
+            }
+            if ( pname != null && pname.length() > 0 && value != null ) {
+                params.add( new DescribedValue(
+                                new DefaultValueInfo( pname, String.class ),
+                                value ) );
+            }
+        }
+        setParameters( params );
+    }
+
+    /**
+     * Constructs a table with given metadata and a given list of row groups.
+     *
+     * @param  pfile  parsed file
+     * @param  cols   column descriptions
+     * @param  colInfos  column metadata
+     * @param  groups  row groups from which this table is composed
+     */
+    private ParquetStarTable( ParquetFile pfile, ColumnDesc[] cols,
+                              ColumnInfo[] colInfos,
+                              ParquetFile.RowGroup[] groups ) {
+        pfile_ = pfile;
+        cols_ = cols;
+        colInfos_ = colInfos;
+        groups_ = groups;
+        ncol_ = cols.length;
+        starts_ = new long[ groups.length + 1 ];
+        for ( int jg = 0; jg < groups.length; jg++ ) {
+            starts_[ jg + 1 ] = starts_[ jg ] + groups[ jg ].getRowCount();
+        }
+        nrow_ = starts_[ groups.length ];
+        randomReader_ = new GroupReader();
+    }
+
+    public int getColumnCount() {
+        return ncol_;
+    }
+
+    public long getRowCount() {
+        return nrow_;
+    }
+
+    public boolean isRandom() {
+        return true;
+    }
+
+    public ColumnInfo getColumnInfo( int icol ) {
+        return colInfos_[ icol ];
+    }
+
+    /**
+     * Returns the number of row groups in this table.
+     *
+     * @return  row group count
+     */
+    public int getRowGroupCount() {
+        return groups_.length;
+    }
+
+    public Object getCell( long irow, int icol ) throws IOException {
+        int jg = getGroupIndex( irow );
+        int ig = (int) ( irow - starts_[ jg ] );
+        synchronized ( randomReader_ ) {
+            return randomReader_.getChunk( jg, icol ).getObject( ig );
+        }
+    }
+
+    public Object[] getRow( long irow ) throws IOException {
+        int jg = getGroupIndex( irow );
+        int ig = (int) ( irow - starts_[ jg ] );
+        synchronized ( randomReader_ ) {
+            return randomReader_.getRow( jg, ig );
+        }
+    }
+
+    public RowSequence getRowSequence() {
+        return new GroupSplittable( 0, groups_.length );
+    }
+
+    public RowSplittable getRowSplittable() {
+        return new GroupSplittable( 0, groups_.length );
+    }
+
+    public RowAccess getRowAccess() {
+        final GroupReader rdr = new GroupReader();
+        return new RowAccess() {
+            int jg_;
+            int ig_;
+            public void setRowIndex( long irow ) {
+                jg_ = getGroupIndex( irow );
+                ig_ = (int) ( irow - starts_[ jg_ ] );
+            }
+            public Object getCell( int icol ) throws IOException {
+                return rdr.getChunk( jg_, icol ).getObject( ig_ );
+            }
+            public Object[] getRow() throws IOException {
+                return rdr.getRow( jg_, ig_ );
+            }
+            public double getDouble( int icol ) throws IOException {
+                return rdr.getChunk( jg_, icol ).getDouble( ig_ );
+            }
+            public long getLong( int icol ) throws IOException {
+                return rdr.getChunk( jg_, icol ).getLong( ig_ );
+            }
+            public boolean isNull( int icol ) throws IOException {
+                return rdr.getChunk( jg_, icol ).isNull( ig_ );
+            }
+            public void close() throws IOException {
+                rdr.close();
+            }
+        };
+    }
+
+    /**
+     * Returns a table containing only those row groups whose
+     * column statistics indicate that they may contain values in
+     * the given range.
+     * If statistics are not available, or the column is not a
+     * scalar numeric column, this table is returned unchanged.
+     */
+    public StarTable restrictRange( int icol, double lo, double hi ) {
+        ColumnDesc col = cols_[ icol ];
+        if ( col.isList() ||
+             ! Number.class.isAssignableFrom( col.getContentClass() ) ) {
+            return this;
+        }
+        List<ParquetFile.RowGroup> keepList = new ArrayList<>();
+        for ( ParquetFile.RowGroup group : groups_ ) {
+            if ( group.mayContain( icol, lo, hi ) ) {
+                keepList.add( group );
+            }
+        }
+        if ( keepList.size() == groups_.length ) {
+            return this;
+        }
+        ParquetStarTable restricted =
+            new ParquetStarTable( pfile_, cols_, colInfos_,
+                                  keepList.toArray( new ParquetFile
+                                                       .RowGroup[ 0 ] ) );
+        restricted.setName( getName() );
+        restricted.setURL( getURL() );
+        restricted.setParameters( new ArrayList<DescribedValue>(
+                                          getParameters() ) );
+        return restricted;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized ( randomReader_ ) {
+            randomReader_.close();
+        }
+    }
+
+    /**
+     * Returns the index of the row group within this table
+     * containing a given row.
+     *
+     * @param  irow  row index
+     * @return  index into groups_ array
+     */
+    private int getGroupIndex( long irow ) {
+        if ( irow < 0 || irow >= nrow_ ) {
+            throw new IllegalArgumentException( "Row index " + irow
+                                              + " out of range" );
+        }
+        int ix = Arrays.binarySearch( starts_, irow );
+
+        /* Step past any empty groups. */
+        if ( ix >= 0 ) {
+            while ( starts_[ ix + 1 ] == irow ) {
+                ix++;
+            }
+            return ix;
+        }
+        else {
+            return -2 - ix;
+        }
+    }
+
+    /**
+     * Creates the column metadata for the columns of a Parquet file.
+     *
+     * @param  pfile  parsed file
+     * @return  column metadata array
+     */
+    private static ColumnInfo[] createColumnInfos( ParquetFile pfile ) {
+        ColumnDesc[] cols = pfile.getColumns();
+        Map<String,String> kvMap = pfile.getKeyValueMetadata();
+        ColumnInfo[] infos = new ColumnInfo[ cols.length ];
+        for ( int ic = 0; ic < cols.length; ic++ ) {
+            ColumnDesc col = cols[ ic ];
+            String name = col.getName();
+            ColumnInfo info =
+                new ColumnInfo( name, col.getContentClass(), null );
+            info.setNullable( col.isList() ? col.getDefOuter() > 0
+                                           : col.getMaxDef() > 0 );
+            String keyBase = COLUMN_PREFIX + name + ".";
+            String ucd = kvMap.get( keyBase + UCD_KEY );
+            String utype = kvMap.get( keyBase + UTYPE_KEY );
+            String unit = kvMap.get( keyBase + UNIT_KEY );
+            String descrip = kvMap.get( keyBase + DESCRIPTION_KEY );
+            String shape = kvMap.get( keyBase + SHAPE_KEY );
+            if ( ucd != null ) {
+                info.setUCD( ucd );
+            }
+            if ( utype != null ) {
+                info.setUtype( utype );
+            }
+            if ( unit != null ) {
+                info.setUnitString( unit );
+            }
+            if ( descrip != null ) {
+                info.setDescription( descrip );
+            }
+            if ( shape != null && col.isList() ) {
+                try {
+                    info.setShape( DefaultValueInfo.unformatShape( shape ) );
+                }
+                catch ( RuntimeException e ) {
+                }
+            }
+            info.setAuxDatum( new DescribedValue( PQTYPE_INFO,
+                                                  PHYSICAL_NAMES[ col
+                                                  .getPhysicalType() ] ) );
+            if ( col.isUbyte() ) {
+                info.setAuxDatum( new DescribedValue( Tables.UBYTE_FLAG_INFO,
+                                                      Boolean.TRUE ) );
+            }
+            infos[ ic ] = info;
+        }
+        return infos;
+    }
+
+    /**
+     * Reads and caches the column chunks for the current row group.
+     * Chunks are decoded only when a cell from the corresponding
+     * column is first requested.
+     * Instances are not thread-safe.
+     */
+    private class GroupReader implements Closeable {
+
+        private final ChunkData[] chunks_;
+        private FileChannel chan_;
+        private int jg_;
+
+        /**
+         * Constructor.
+         */
+        GroupReader() {
+            chunks_ = new ChunkData[ ncol_ ];
+            jg_ = -1;
+        }
+
+        /**
+         * Returns the decoded data for a column chunk.
+         *
+         * @param  jg  index into this table's row group list
+         * @param  icol  column index
+         * @return  chunk data
+         */
+        ChunkData getChunk( int jg, int icol ) throws IOException {
+            if ( jg != jg_ ) {
+                Arrays.fill( chunks_, null );
+                jg_ = jg;
+            }
+            ChunkData chunk = chunks_[ icol ];
+            if ( chunk == null ) {
+                if ( chan_ == null ) {
+                    chan_ = pfile_.openChannel();
+                }
+                chunk = pfile_.readChunk( chan_, groups_[ jg ], icol );
+                chunks_[ icol ] = chunk;
+            }
+            return chunk;
+        }
+
+        /**
+         * Returns all the cells of a row.
+         *
+         * @param  jg  index into this table's row group list
+         * @param  ig  row index within row group
+         * @return  row cell array
+         */
+        Object[] getRow( int jg, int ig ) throws IOException {
+            Object[] row = new Object[ ncol_ ];
+            for ( int ic = 0; ic < ncol_; ic++ ) {
+                row[ ic ] = getChunk( jg, ic ).getObject( ig );
+            }
+            return row;
+        }
+
+        public void close() throws IOException {
+            Arrays.fill( chunks_, null );
+            jg_ = -1;
+            if ( chan_ != null ) {
+                chan_.close();
+                chan_ = null;
+            }
+        }
+    }
+
+    /**
+     * RowSplittable implementation that iterates over a contiguous
+     * range of row groups.  Splitting divides the range of row groups,
+     * so that the smallest unit of work is a single row group.
+     */
+    private class GroupSplittable implements RowSplittable {
+
+        private final GroupReader rdr_;
+        private final int jgLo_;
+        private int jgHi_;
+        private int jg_;
+        private int ig_;
+        private int ng_;
+
+        /**
+         * Constructor.
+         *
+         * @param  jgLo  index of first row group (inclusive)
+         * @param  jgHi  index of last row group (exclusive)
+         */
+        GroupSplittable( int jgLo, int jgHi ) {
+            rdr_ = new GroupReader();
+            jgLo_ = jgLo;
+            jgHi_ = jgHi;
+            jg_ = jgLo - 1;
+            ig_ = -1;
+            ng_ = 0;
+        }
+
+        public boolean next() {
+            ig_++;
+            while ( ig_ >= ng_ ) {
+                if ( jg_ + 1 >= jgHi_ ) {
+                    ig_ = ng_;
+                    return false;
+                }
+                jg_++;
+                ig_ = 0;
+                ng_ = groups_[ jg_ ].getRowCount();
+            }
+            return true;
+        }
+
+        public RowSplittable split() {
+            if ( jg_ >= jgLo_ || jgHi_ - jgLo_ < 2 ) {
+                return null;
+            }
+            int mid = ( jgLo_ + jgHi_ ) / 2;
+            RowSplittable other = new GroupSplittable( mid, jgHi_ );
+            jgHi_ = mid;
+            return other;
+        }
+
+        public long splittableSize() {
+            return starts_[ jgHi_ ] - starts_[ jgLo_ ];
+        }
+
+        public LongSupplier rowIndex() {
+            return () -> jg_ < jgLo_ ? starts_[ jgLo_ ] - 1
+                                     : starts_[ jg_ ] + ig_;
+        }
+
+        public Object getCell( int icol ) throws IOException {
+            checkRow();
+            return rdr_.getChunk( jg_, icol ).getObject( ig_ );
+        }
+
+        public Object[] getRow() throws IOException {
+            checkRow();
+            return rdr_.getRow( jg_, ig_ );
+        }
+
+        public double getDouble( int icol ) throws IOException {
+            checkRow();
+            return rdr_.getChunk( jg_, icol ).getDouble( ig_ );
+        }
+
+        public long getLong( int icol ) throws IOException {
+            checkRow();
+            return rdr_.getChunk( jg_, icol ).getLong( ig_ );
+        }
+
+        public boolean isNull( int icol ) throws IOException {
+            checkRow();
+            return rdr_.getChunk( jg_, icol ).isNull( ig_ );
+        }
+
+        public void close() throws IOException {
+            rdr_.close();
+        }
+
+        /**
+         * Checks that this sequence is positioned at a row.
+         *
+         * @throws  IllegalStateException  if there is no current row
+         */
+        private void checkRow() {
+            if ( jg_ < jgLo_ || ig_ >= ng_ ) {
+                throw new IllegalStateException( "No current row" );
+            }
+        }
+    }
+}
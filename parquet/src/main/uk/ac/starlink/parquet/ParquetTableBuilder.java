@@ -0,0 +1,117 @@
+package uk.ac.starlink.parquet;
+
+import java.awt.datatransfer.DataFlavor;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import uk.ac.starlink.table.StarTable;
+import uk.ac.starlink.table.StoragePolicy;
+import uk.ac.starlink.table.TableFormatException;
+import uk.ac.starlink.table.TableSink;
+import uk.ac.starlink.table.formats.DocumentedIOHandler;
+import uk.ac.starlink.table.formats.DocumentedTableBuilder;
+import uk.ac.starlink.util.Compression;
+import uk.ac.starlink.util.DataSource;
+import uk.ac.starlink.util.FileDataSource;
+import uk.ac.starlink.util.URLDataSource;
+import uk.ac.starlink.util.URLUtils;
+
+/**
+ * TableBuilder implementation for Apache Parquet format.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+public class ParquetTableBuilder extends DocumentedTableBuilder {
+
+    public ParquetTableBuilder() {
+        super( new String[] { "parquet", "parq" } );
+    }
+
+    public String getFormatName() {
+        return "parquet";
+    }
+
+    public StarTable makeStarTable( DataSource datsrc, boolean wantRandom,
+                                    StoragePolicy storagePolicy )
+            throws IOException {
+        if ( ! ParquetFile.isMagic( datsrc.getIntro() ) ) {
+            throw new TableFormatException( "No PAR1 magic number" );
+        }
+        File pfile = getFile( datsrc );
+        if ( pfile != null && datsrc.getCompression() == Compression.NONE ) {
+            return new ParquetStarTable( pfile );
+        }
+        else {
+            throw new TableFormatException( "Only uncompressed files supported"
+                                          + " for Parquet" );
+        }
+    }
+
+    public boolean canImport( DataFlavor flavor ) {
+        return false;
+    }
+
+    public void streamStarTable( InputStream in, TableSink sink, String pos )
+            throws IOException {
+        throw new TableFormatException( "Can't stream from Parquet format" );
+    }
+
+    public String getXmlDescription() {
+        return String.join( "\n",
+            "<p>Parquet is a columnar format developed within",
+            "the Apache project.",
+            "Data is stored in row groups, within which each column",
+            "is stored contiguously and may be compressed.",
+            "Some description is available at",
+            DocumentedIOHandler.toLink( "https://parquet.apache.org/" ) + ".",
+            "</p>",
+            "<p>Since the footer containing the metadata is at the end",
+            "of the file, only uncompressed local files can be read.",
+            "Column data is only read and decoded for those columns",
+            "that are actually used,",
+            "so processing a few columns of a wide table is relatively",
+            "cheap.",
+            "Row groups are used as the unit of parallel processing,",
+            "and the per-row-group column statistics are used to avoid",
+            "reading row groups that cannot pass simple numeric range",
+            "filters.",
+            "</p>",
+            "<p>Supported data types are the primitive boolean,",
+            "integer and floating point types, strings, decimals",
+            "(read as double precision values), and one-dimensional",
+            "LIST arrays of these.",
+            "Other nested structures and INT96 timestamps are ignored.",
+            "Supported compression codecs are UNCOMPRESSED, SNAPPY",
+            "and GZIP.",
+            "</p>",
+        "" );
+    }
+
+    public boolean canStream() {
+        return false;
+    }
+
+    public boolean docIncludesExample() {
+        return false;
+    }
+
+    /**
+     * Returns a file corresponding to a DataSource, if possible.
+     *
+     * @param  datsrc  data source
+     * @return   corresponding file, or null if it's not a file
+     */
+    private static File getFile( DataSource datsrc ) {
+        if ( datsrc instanceof FileDataSource ) {
+            return ((FileDataSource) datsrc).getFile();
+        }
+        else if ( datsrc instanceof URLDataSource ) {
+            return URLUtils
+                  .urlToFile( ((URLDataSource) datsrc).getURL().toString() );
+        }
+        else {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,409 @@
+package uk.ac.starlink.parquet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+import uk.ac.starlink.table.ColumnInfo;
+import uk.ac.starlink.table.DefaultValueInfo;
+import uk.ac.starlink.table.DescribedValue;
+import uk.ac.starlink.table.RowSequence;
+import uk.ac.starlink.table.StarTable;
+import uk.ac.starlink.table.formats.DocumentedIOHandler;
+import uk.ac.starlink.table.formats.DocumentedStreamStarTableWriter;
+import uk.ac.starlink.util.ConfigMethod;
+import uk.ac.starlink.util.IOUtils;
+import uk.ac.starlink.util.IntList;
+
+/**
+ * StarTableWriter implementation for writing to Apache Parquet files.
+ *
+ * <p>Rows are accumulated in memory a row group at a time,
+ * so the memory required is proportional to the row group size
+ * rather than the table size.
+ * Per-column min/max statistics are written for numeric columns,
+ * which allows readers to skip row groups when filtering.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+public class ParquetTableWriter extends DocumentedStreamStarTableWriter {
+
+    private long groupSize_;
+    private CompressionCodec codec_;
+    private static final Logger logger_ =
+        Logger.getLogger( "uk.ac.starlink.parquet" );
+
+    /**
+     * Approximate amount of buffered data in bytes at which a row group
+     * is written, if the row group size is not set explicitly.
+     */
+    public static final long DFLT_GROUP_BYTES = 64 * 1024 * 1024;
+
+    /**
+     * Constructor.
+     */
+    public ParquetTableWriter() {
+        super( new String[] { "parquet", "parq" } );
+        groupSize_ = -1;
+        codec_ = CompressionCodec.SNAPPY;
+    }
+
+    public String getFormatName() {
+        return "parquet";
+    }
+
+    public String getMimeType() {
+        return "application/octet-stream";
+    }
+
+    public boolean docIncludesExample() {
+        return false;
+    }
+
+    public String getXmlDescription() {
+        return String.join( "\n",
+            "<p>Parquet is a columnar format developed within",
+            "the Apache project.",
+            "Data is stored in row groups, within which each column",
+            "is stored contiguously and may be compressed.",
+            "Some description is available at",
+            DocumentedIOHandler.toLink( "https://parquet.apache.org/" ) + ".",
+            "</p>",
+            "<p>Scalar boolean, integer, floating point and string columns",
+            "are written, as well as one-dimensional arrays of these types",
+            "using the standard LIST representation.",
+            "Minimum and maximum value statistics are written for",
+            "numeric columns in each row group,",
+            "which allows readers to skip row groups that cannot match",
+            "a filter.",
+            "Table and column metadata such as units and UCDs",
+            "are stored in the file-level key-value metadata.",
+            "</p>",
+        "" );
+    }
+
+    /**
+     * Sets the number of rows in each row group.
+     *
+     * @param  groupSize  rows per group, or a non-positive value
+     *                    to determine group size automatically
+     */
+    @ConfigMethod(
+        property = "groupSize",
+        doc = "<p>Number of rows in each Parquet row group. "
+            + "Larger groups generally give better compression "
+            + "and read performance, "
+            + "but require more memory during writing, "
+            + "and smaller groups give finer granularity for "
+            + "parallel processing and for skipping data using "
+            + "column statistics. "
+            + "If the value is zero or negative, the group size is "
+            + "chosen so that each group occupies about "
+            + ( DFLT_GROUP_BYTES / 1024 / 1024 ) + "Mbyte "
+            + "before compression.</p>",
+        example = "100000"
+    )
+    public void setGroupSize( long groupSize ) {
+        groupSize_ = groupSize;
+    }
+
+    /**
+     * Returns the number of rows in each row group.
+     *
+     * @return  rows per group, or a non-positive value for automatic
+     */
+    public long getGroupSize() {
+        return groupSize_;
+    }
+
+    /**
+     * Sets the compression codec used for data pages.
+     *
+     * @param  codec  compression codec
+     */
+    @ConfigMethod(
+        property = "compression",
+        usage = "UNCOMPRESSED|SNAPPY|GZIP",
+        example = "GZIP",
+        doc = "<p>Compression codec used for column data. "
+            + "SNAPPY is fast with moderate compression; "
+            + "GZIP is slower but compresses better.</p>"
+    )
+    public void setCompression( CompressionCodec codec ) {
+        codec_ = codec;
+    }
+
+    /**
+     * Returns the compression codec used for data pages.
+     *
+     * @return  compression codec
+     */
+    public CompressionCodec getCompression() {
+        return codec_;
+    }
+
+    public void writeStarTable( StarTable table, OutputStream out )
+            throws IOException {
+
+        /* Acquire encoders for those columns that can be output. */
+        int ncol = table.getColumnCount();
+        List<ColumnEncoder> encList = new ArrayList<>();
+        IntList icList = new IntList();
+        for ( int ic = 0; ic < ncol; ic++ ) {
+            ColumnInfo info = table.getColumnInfo( ic );
+            ColumnEncoder enc = ColumnEncoder.createEncoder( info );
+            if ( enc != null ) {
+                encList.add( enc );
+                icList.add( ic );
+            }
+            else {
+                logger_.warning( "Can't encode column " + info + " to "
+                               + getFormatName() + " format" );
+            }
+        }
+        ColumnEncoder[] encs = encList.toArray( new ColumnEncoder[ 0 ] );
+        int[] ics = icList.toIntArray();
+        int nenc = encs.length;
+
+        /* Write the data a row group at a time. */
+        ColumnEncoder.CountOutputStream cout =
+            new ColumnEncoder.CountOutputStream( out );
+        cout.write( ParquetFile.MAGIC );
+        List<GroupInfo> groups = new ArrayList<>();
+        long maxRows = groupSize_ > 0
+                     ? Math.min( groupSize_, Integer.MAX_VALUE )
+                     : Integer.MAX_VALUE;
+        RowSequence rseq = table.getRowSequence();
+        try {
+            int ngrow = 0;
+            while ( rseq.next() ) {
+                for ( int jc = 0; jc < nenc; jc++ ) {
+                    encs[ jc ].addCell( rseq.getCell( ics[ jc ] ) );
+                }
+                ngrow++;
+                if ( ngrow >= maxRows ||
+                     ( groupSize_ <= 0 && ngrow % 1024 == 0 &&
+                       getBufferedBytes( encs ) >= DFLT_GROUP_BYTES ) ) {
+                    groups.add( writeGroup( encs, ngrow, cout ) );
+                    ngrow = 0;
+                }
+            }
+            if ( ngrow > 0 ) {
+                groups.add( writeGroup( encs, ngrow, cout ) );
+            }
+        }
+        finally {
+            rseq.close();
+        }
+
+        /* Write the footer. */
+        byte[] footer = createFooter( table, encs, ics, groups );
+        cout.write( footer );
+        ByteArrayOutputStream lout = new ByteArrayOutputStream( 4 );
+        Encodings.writeInt( lout, footer.length );
+        lout.writeTo( cout );
+        cout.write( ParquetFile.MAGIC );
+        cout.flush();
+    }
+
+    /**
+     * Writes a row group.
+     *
+     * @param  encs  column encoders containing accumulated data
+     * @param  nrow  number of rows in group
+     * @param  out   destination stream
+     * @return   information about the written group
+     */
+    private GroupInfo writeGroup( ColumnEncoder[] encs, int nrow,
+                                  ColumnEncoder.CountOutputStream out )
+            throws IOException {
+        ColumnEncoder.ChunkInfo[] chunks =
+            new ColumnEncoder.ChunkInfo[ encs.length ];
+        long offset = out.getPosition();
+        for ( int jc = 0; jc < encs.length; jc++ ) {
+            chunks[ jc ] = encs[ jc ].writeChunk( out, codec_ );
+        }
+        return new GroupInfo( nrow, offset, chunks );
+    }
+
+    /**
+     * Serializes the FileMetaData structure for the file footer.
+     *
+     * @param  table  table being written
+     * @param  encs   column encoders
+     * @param  ics    table column index for each encoder
+     * @param  groups  row groups that have been written
+     * @return   serialized footer
+     */
+    private static byte[] createFooter( StarTable table, ColumnEncoder[] encs,
+                                        int[] ics, List<GroupInfo> groups ) {
+        long nrow = 0;
+        for ( GroupInfo group : groups ) {
+            nrow += group.nrow_;
+        }
+        int nschema = 1;
+        for ( ColumnEncoder enc : encs ) {
+            nschema += enc.getSchemaElementCount();
+        }
+        Map<String,String> kvMap = getKeyValueMetadata( table, encs, ics );
+        CompactWriter w = new CompactWriter();
+        w.beginStruct();
+        w.i32Field( 1, 1 );
+
+        /* Schema. */
+        w.listField( 2, CompactReader.STRUCT, nschema );
+        w.beginStruct();
+        w.stringField( 4, "schema" );
+        w.i32Field( 5, encs.length );
+        w.endStruct();
+        for ( ColumnEncoder enc : encs ) {
+            enc.writeSchema( w );
+        }
+        w.i64Field( 3, nrow );
+
+        /* Row groups. */
+        w.listField( 4, CompactReader.STRUCT, groups.size() );
+        for ( int ig = 0; ig < groups.size(); ig++ ) {
+            GroupInfo group = groups.get( ig );
+            long usize = 0;
+            long csize = 0;
+            w.beginStruct();
+            w.listField( 1, CompactReader.STRUCT, group.chunks_.length );
+            for ( ColumnEncoder.ChunkInfo chunk : group.chunks_ ) {
+                chunk.writeColumnChunk( w );
+                usize += chunk.uncompressedSize_;
+                csize += chunk.compressedSize_;
+            }
+            w.i64Field( 2, usize );
+            w.i64Field( 3, group.nrow_ );
+            w.i64Field( 5, group.offset_ );
+            w.i64Field( 6, csize );
+            w.i16Field( 7, (short) ig );
+            w.endStruct();
+        }
+
+        /* Key-value metadata. */
+        w.listField( 5, CompactReader.STRUCT, kvMap.size() );
+        for ( Map.Entry<String,String> entry : kvMap.entrySet() ) {
+            w.beginStruct();
+            w.stringField( 1, entry.getKey() );
+            w.stringField( 2, entry.getValue() );
+            w.endStruct();
+        }
+
+        /* Creator and column orders. */
+        String version = IOUtils.getResourceContents( StarTable.class,
+                                                      "stil.version", null );
+        w.stringField( 6, version == null ? "STIL" : "STIL v" + version );
+        w.listField( 7, CompactReader.STRUCT, encs.length );
+        for ( int jc = 0; jc < encs.length; jc++ ) {
+            w.beginStruct();
+            w.structField( 1 );
+            w.beginStruct();
+            w.endStruct();
+            w.endStruct();
+        }
+        w.endStruct();
+        return w.toByteArray();
+    }
+
+    /**
+     * Returns the key-value metadata to be written for a table.
+     *
+     * @param  table  table
+     * @param  encs   column encoders
+     * @param  ics    table column index for each encoder
+     * @return   ordered key-value map
+     */
+    private static Map<String,String>
+            getKeyValueMetadata( StarTable table, ColumnEncoder[] encs,
+                                 int[] ics ) {
+        Map<String,String> map = new LinkedHashMap<>();
+        String name = table.getName();
+        if ( name != null && name.trim().length() > 0 ) {
+            map.put( ParquetStarTable.NAME_KEY, name );
+        }
+        for ( DescribedValue dval : table.getParameters() ) {
+            Object value = dval.getValue();
+            if ( value != null && ! value.getClass().isArray() ) {
+                map.put( ParquetStarTable.PARAM_PREFIX
+                       + dval.getInfo().getName(), value.toString() );
+            }
+        }
+        for ( int jc = 0; jc < encs.length; jc++ ) {
+            ColumnEncoder enc = encs[ jc ];
+            ColumnInfo info = table.getColumnInfo( ics[ jc ] );
+            String base = ParquetStarTable.COLUMN_PREFIX + enc.getName() + ".";
+            putIfPresent( map, base + ParquetStarTable.UCD_KEY,
+                          info.getUCD() );
+            putIfPresent( map, base + ParquetStarTable.UTYPE_KEY,
+                          info.getUtype() );
+            putIfPresent( map, base + ParquetStarTable.UNIT_KEY,
+                          info.getUnitString() );
+            putIfPresent( map, base + ParquetStarTable.DESCRIPTION_KEY,
+                          info.getDescription() );
+            int[] shape = info.getShape();
+            if ( enc.isList() && shape != null && shape.length > 0 &&
+                 ! ( shape.length == 1 && shape[ 0 ] < 0 ) ) {
+                map.put( base + ParquetStarTable.SHAPE_KEY,
+                         DefaultValueInfo.formatShape( shape ) );
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Adds an entry to a map if the value is non-blank.
+     *
+     * @param  map  map
+     * @param  key  key
+     * @param  value  value, may be null
+     */
+    private static void putIfPresent( Map<String,String> map, String key,
+                                      String value ) {
+        if ( value != null && value.trim().length() > 0 ) {
+            map.put( key, value );
+        }
+    }
+
+    /**
+     * Returns the total amount of data buffered by a set of encoders.
+     *
+     * @param  encs  encoders
+     * @return  buffered byte count
+     */
+    private static long getBufferedBytes( ColumnEncoder[] encs ) {
+        long nbyte = 0;
+        for ( ColumnEncoder enc : encs ) {
+            nbyte += enc.getBufferedBytes();
+        }
+        return nbyte;
+    }
+
+    /**
+     * Records information about a written row group.
+     */
+    private static class GroupInfo {
+        final int nrow_;
+        final long offset_;
+        final ColumnEncoder.ChunkInfo[] chunks_;
+
+        /**
+         * Constructor.
+         *
+         * @param  nrow  number of rows
+         * @param  offset  file offset of first column chunk
+         * @param  chunks  column chunk information
+         */
+        GroupInfo( int nrow, long offset, ColumnEncoder.ChunkInfo[] chunks ) {
+            nrow_ = nrow;
+            offset_ = offset;
+            chunks_ = chunks;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package uk.ac.starlink.parquet;
+
+import java.util.Arrays;
+import uk.ac.starlink.table.TableFormatException;
+
+/**
+ * Compression and decompression using the raw (unframed)
+ * Snappy block format, as used by Parquet.
+ *
+ * <p>The compressor is a straightforward greedy hash-based matcher;
+ * it does not achieve quite the same ratios as the reference
+ * implementation, but its output is fully compliant.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ * @see  <a href="https://github.com/google/snappy/blob/main/format_description.txt"
+ *          >Snappy format description</a>
+ */
+class Snappy {
+
+    private static final int HASH_BITS = 14;
+    private static final int MAX_OFFSET = 65535;
+    private static final int BLOCK_SIZE = 1 << 16;
+
+    /**
+     * Private constructor prevents instantiation.
+     */
+    private Snappy() {
+    }
+
+    /**
+     * Decompresses a Snappy block.
+     *
+     * @param  in  input buffer
+     * @param  off  offset of compressed data in input buffer
+     * @param  leng  length of compressed data
+     * @return  uncompressed data
+     */
+    public static byte[] uncompress( byte[] in, int off, int leng )
+            throws TableFormatException {
+        int ip = off;
+        int end = off + leng;
+
+        /* Read preamble giving uncompressed length. */
+        long outLeng = 0;
+        for ( int shift = 0; ; shift += 7 ) {
+            if ( ip >= end || shift > 28 ) {
+                throw new TableFormatException( "Bad snappy preamble" );
+            }
+            int b = in[ ip++ ];
+            outLeng |= ( b & 0x7fL ) << shift;
+            if ( ( b & 0x80 ) == 0 ) {
+                break;
+            }
+        }
+        if ( outLeng > Integer.MAX_VALUE ) {
+            throw new TableFormatException( "Snappy block too large" );
+        }
+        byte[] out = new byte[ (int) outLeng ];
+        int op = 0;
+        try {
+            while ( ip < end ) {
+                int tag = in[ ip++ ] & 0xff;
+                int type = tag & 3;
+                if ( type == 0 ) {
+                    int litLeng = tag >>> 2;
+                    if ( litLeng >= 60 ) {
+                        int nb = litLeng - 59;
+                        litLeng = 0;
+                        for ( int i = 0; i < nb; i++ ) {
+                            litLeng |= ( in[ ip++ ] & 0xff ) << ( 8 * i );
+                        }
+                    }
+                    litLeng++;
+                    System.arraycopy( in, ip, out, op, litLeng );
+                    ip += litLeng;
+                    op += litLeng;
+                }
+                else {
+                    final int copyLeng;
+                    final int offset;
+                    if ( type == 1 ) {
+                        copyLeng = ( ( tag >>> 2 ) & 0x7 ) + 4;
+                        offset = ( ( tag >>> 5 ) << 8 ) | ( in[ ip++ ] & 0xff );
+                    }
+                    else if ( type == 2 ) {
+                        copyLeng = ( tag >>> 2 ) + 1;
+                        offset = ( in[ ip ] & 0xff )
+                               | ( ( in[ ip + 1 ] & 0xff ) << 8 );
+                        ip += 2;
+                    }
+                    else {
+                        copyLeng = ( tag >>> 2 ) + 1;
+                        offset = ( in[ ip ] & 0xff )
+                               | ( ( in[ ip + 1 ] & 0xff ) << 8 )
+                               | ( ( in[ ip + 2 ] & 0xff ) << 16 )
+                               | ( ( in[ ip + 3 ] & 0xff ) << 24 );
+                        ip += 4;
+                    }
+                    if ( offset <= 0 || offset > op ||
+                         op + copyLeng > out.length ) {
+                        throw new TableFormatException( "Bad snappy copy" );
+                    }
+
+                    /* Copy byte by byte, since source and destination
+                     * regions may overlap. */
+                    int from = op - offset;
+                    for ( int i = 0; i < copyLeng; i++ ) {
+                        out[ op++ ] = out[ from++ ];
+                    }
+                }
+            }
+        }
+        catch ( IndexOutOfBoundsException e ) {
+            throw new TableFormatException( "Corrupt snappy data", e );
+        }
+        if ( op != out.length ) {
+            throw new TableFormatException( "Snappy length mismatch ("
+                                          + op + " != " + out.length + ")" );
+        }
+        return out;
+    }
+
+    /**
+     * Compresses data to a Snappy block.
+     *
+     * @param  in  input buffer
+     * @param  off  offset of data in input buffer
+     * @param  leng  length of data
+     * @return  compressed data
+     */
+    public static byte[] compress( byte[] in, int off, int leng ) {
+        byte[] out = new byte[ 32 + leng + leng / 6 ];
+        int op = 0;
+        for ( long n = leng; ; n >>>= 7 ) {
+            if ( ( n & ~0x7fL ) == 0 ) {
+                out[ op++ ] = (byte) n;
+                break;
+            }
+            out[ op++ ] = (byte) ( ( n & 0x7f ) | 0x80 );
+        }
+        int[] table = new int[ 1 << HASH_BITS ];
+        for ( int blockStart = off; blockStart < off + leng;
+              blockStart += BLOCK_SIZE ) {
+            int blockEnd = Math.min( blockStart + BLOCK_SIZE, off + leng );
+            op = compressBlock( in, blockStart, blockEnd, out, op, table );
+        }
+        return Arrays.copyOf( out, op );
+    }
+
+    /**
+     * Compresses a block of at most 64kbytes.
+     *
+     * @param  in  input buffer
+     * @param  start  offset of block start
+     * @param  end  offset of block end
+     * @param  out  output buffer
+     * @param  op   output position
+     * @param  table  hash table workspace
+     * @return   new output position
+     */
+    private static int compressBlock( byte[] in, int start, int end,
+                                      byte[] out, int op, int[] table ) {
+        Arrays.fill( table, -1 );
+        int ip = start;
+        int litStart = start;
+        int limit = end - 4;
+        while ( ip < limit ) {
+            int h = hash( in, ip );
+            int cand = table[ h ];
+            table[ h ] = ip;
+            if ( cand >= start && ip - cand <= MAX_OFFSET &&
+                 in[ cand ] == in[ ip ] &&
+                 in[ cand + 1 ] == in[ ip + 1 ] &&
+                 in[ cand + 2 ] == in[ ip + 2 ] &&
+                 in[ cand + 3 ] == in[ ip + 3 ] ) {
+                op = writeLiteral( in, litStart, ip - litStart, out, op );
+                int matchLeng = 4;
+                while ( ip + matchLeng < end &&
+                        in[ cand + matchLeng ] == in[ ip + matchLeng ] ) {
+                    matchLeng++;
+                }
+                op = writeCopy( ip - cand, matchLeng, out, op );
+                ip += matchLeng;
+                litStart = ip;
+            }
+            else {
+                ip++;
+            }
+        }
+        return writeLiteral( in, litStart, end - litStart, out, op );
+    }
+
+    /**
+     * Writes a literal element.
+     *
+     * @param  in  input buffer
+     * @param  from  offset of literal bytes in input buffer
+     * @param  leng  number of literal bytes
+     * @param  out  output buffer
+     * @param  op  output position
+     * @return   new output position
+     */
+    private static int writeLiteral( byte[] in, int from, int leng,
+                                     byte[] out, int op ) {
+        if ( leng == 0 ) {
+            return op;
+        }
+        int n = leng - 1;
+        if ( n < 60 ) {
+            out[ op++ ] = (byte) ( n << 2 );
+        }
+        else if ( n < 0x100 ) {
+            out[ op++ ] = (byte) ( 60 << 2 );
+            out[ op++ ] = (byte) n;
+        }
+        else {
+            out[ op++ ] = (byte) ( 61 << 2 );
+            out[ op++ ] = (byte) n;
+            out[ op++ ] = (byte) ( n >>> 8 );
+        }
+        System.arraycopy( in, from, out, op, leng );
+        return op + leng;
+    }
+
+    /**
+     * Writes one or more copy elements.
+     *
+     * @param  offset  backward offset of copied data
+     * @param  leng   number of bytes to copy
+     * @param  out  output buffer
+     * @param  op  output position
+     * @return   new output position
+     */
+    private static int writeCopy( int offset, int leng, byte[] out, int op ) {
+        while ( leng > 0 ) {
+
+            /* Avoid leaving a remainder shorter than the minimum
+             * copy length of 4. */
+            int n = leng > 64 ? ( leng - 64 < 4 ? 60 : 64 ) : leng;
+            if ( n >= 4 && n < 12 && offset < 2048 ) {
+                out[ op++ ] = (byte) ( 1 | ( ( n - 4 ) << 2 )
+                                         | ( ( offset >>> 8 ) << 5 ) );
+                out[ op++ ] = (byte) offset;
+            }
+            else {
+                out[ op++ ] = (byte) ( 2 | ( ( n - 1 ) << 2 ) );
+                out[ op++ ] = (byte) offset;
+                out[ op++ ] = (byte) ( offset >>> 8 );
+            }
+            leng -= n;
+        }
+        return op;
+    }
+
+    /**
+     * Hashes four bytes at a given position.
+     *
+     * @param  buf  buffer
+     * @param  pos  position
+     * @return   hash table index
+     */
+    private static int hash( byte[] buf, int pos ) {
+        int v = ( buf[ pos ] & 0xff )
+              | ( ( buf[ pos + 1 ] & 0xff ) << 8 )
+              | ( ( buf[ pos + 2 ] & 0xff ) << 16 )
+              | ( ( buf[ pos + 3 ] & 0xff ) << 24 );
+        return ( v * 0x1e35a7bd ) >>> ( 32 - HASH_BITS );
+    }
+}
@@ -0,0 +1,148 @@
+package uk.ac.starlink.parquet;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generic representation of a Thrift struct as decoded from
+ * the Compact protocol.
+ * Field values are stored by field ID.
+ * Integer values of all widths are stored as Longs,
+ * binary values as byte arrays, booleans as Booleans,
+ * structs as ThriftStructs and lists as Lists.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+class ThriftStruct {
+
+    private final Map<Integer,Object> fields_;
+
+    /**
+     * Constructor.
+     */
+    public ThriftStruct() {
+        fields_ = new HashMap<Integer,Object>();
+    }
+
+    /**
+     * Sets a field value.
+     *
+     * @param  id  field ID
+     * @param  value  field value
+     */
+    void put( int id, Object value ) {
+        fields_.put( Integer.valueOf( id ), value );
+    }
+
+    /**
+     * Indicates whether a given field is present.
+     *
+     * @param  id  field ID
+     * @return  true iff field is present
+     */
+    public boolean has( int id ) {
+        return fields_.get( Integer.valueOf( id ) ) != null;
+    }
+
+    /**
+     * Returns the untyped value of a field.
+     *
+     * @param  id  field ID
+     * @return   field value, or null
+     */
+    public Object get( int id ) {
+        return fields_.get( Integer.valueOf( id ) );
+    }
+
+    /**
+     * Returns the value of an integer-valued field.
+     *
+     * @param  id  field ID
+     * @param  dflt  value to return if the field is absent
+     * @return  field value
+     */
+    public long getLong( int id, long dflt ) {
+        Object value = get( id );
+        return value instanceof Number ? ((Number) value).longValue() : dflt;
+    }
+
+    /**
+     * Returns the value of an integer-valued field as an int.
+     *
+     * @param  id  field ID
+     * @param  dflt  value to return if the field is absent
+     * @return  field value
+     */
+    public int getInt( int id, int dflt ) {
+        return (int) getLong( id, dflt );
+    }
+
+    /**
+     * Returns the value of a boolean-valued field.
+     *
+     * @param  id  field ID
+     * @param  dflt  value to return if the field is absent
+     * @return  field value
+     */
+    public boolean getBoolean( int id, boolean dflt ) {
+        Object value = get( id );
+        return value instanceof Boolean ? ((Boolean) value).booleanValue()
+                                        : dflt;
+    }
+
+    /**
+     * Returns the value of a binary-valued field.
+     *
+     * @param  id  field ID
+     * @return  field value, or null
+     */
+    public byte[] getBinary( int id ) {
+        Object value = get( id );
+        return value instanceof byte[] ? (byte[]) value : null;
+    }
+
+    /**
+     * Returns the value of a binary-valued field interpreted as
+     * a UTF-8 string.
+     *
+     * @param  id  field ID
+     * @return  field value, or null
+     */
+    public String getString( int id ) {
+        byte[] bytes = getBinary( id );
+        return bytes == null ? null
+                             : new String( bytes, StandardCharsets.UTF_8 );
+    }
+
+    /**
+     * Returns the value of a struct-valued field.
+     *
+     * @param  id  field ID
+     * @return  field value, or null
+     */
+    public ThriftStruct getStruct( int id ) {
+        Object value = get( id );
+        return value instanceof ThriftStruct ? (ThriftStruct) value : null;
+    }
+
+    /**
+     * Returns the value of a list-valued field.
+     *
+     * @param  id  field ID
+     * @return  field value, not null
+     */
+    public List<?> getList( int id ) {
+        Object value = get( id );
+        return value instanceof List ? (List<?>) value
+                                     : Collections.emptyList();
+    }
+
+    @Override
+    public String toString() {
+        return fields_.toString();
+    }
+}
@@ -0,0 +1,761 @@
+package uk.ac.starlink.parquet;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import uk.ac.starlink.table.TableFormatException;
+
+/**
+ * Stores decoded values from a Parquet column chunk or dictionary page.
+ * Concrete subclasses correspond to physical types, and hold their
+ * values in primitive arrays where possible.
+ * Conversion to the user-visible value type appropriate for the
+ * column's {@link ColumnDesc.Kind} is done on access.
+ *
+ * <p>Null values are not managed by this class;
+ * slots corresponding to null values should be blanked
+ * using the {@link #clear} method.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+abstract class ValueStore {
+
+    final ColumnDesc.Kind kind_;
+
+    private static final double[] POW10 = new double[ 23 ];
+    static {
+        POW10[ 0 ] = 1.0;
+        for ( int i = 1; i < POW10.length; i++ ) {
+            POW10[ i ] = POW10[ i - 1 ] * 10;
+        }
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param  kind  kind of values presented to the user
+     */
+    protected ValueStore( ColumnDesc.Kind kind ) {
+        kind_ = kind;
+    }
+
+    /**
+     * Decodes a sequence of values into this store.
+     *
+     * @param  encoding  Parquet encoding code
+     * @param  buf   buffer containing encoded data
+     * @param  pos   offset into buffer of start of encoded data
+     * @param  end   offset into buffer beyond which data will not be read
+     * @param  n     number of values to decode
+     * @param  dest  index in this store of the first value to write
+     * @return   offset into buffer following the decoded data
+     * @throws  TableFormatException  if the encoding is not supported
+     *                                or the data is corrupt
+     */
+    abstract int decode( int encoding, byte[] buf, int pos, int end,
+                         int n, int dest )
+            throws TableFormatException;
+
+    /**
+     * Populates values in this store by lookup in a dictionary.
+     *
+     * @param  dict  store containing dictionary values;
+     *               must be of the same type as this one
+     * @param  ixs   indices into dictionary
+     * @param  n     number of values to copy
+     * @param  dest  index in this store of the first value to write
+     */
+    abstract void copyFromDict( ValueStore dict, int[] ixs, int n, int dest );
+
+    /**
+     * Copies a value from one slot to another within this store.
+     *
+     * @param  from  source index
+     * @param  to   destination index
+     */
+    abstract void move( int from, int to );
+
+    /**
+     * Sets a slot to a blank value; zero for integers, NaN for
+     * floating point and null for objects.
+     *
+     * @param  i  index
+     */
+    abstract void clear( int i );
+
+    /**
+     * Returns a value as a user-visible object.
+     *
+     * @param  i  index
+     * @return   value
+     */
+    abstract Object getObject( int i );
+
+    /**
+     * Returns a value as a double precision number.
+     *
+     * @param  i  index
+     * @return  numeric value, or NaN if not numeric
+     */
+    abstract double getDouble( int i );
+
+    /**
+     * Returns a value as a long integer.
+     *
+     * @param  i  index
+     * @return  integer value, or 0 if not integer
+     */
+    abstract long getLong( int i );
+
+    /**
+     * Returns a range of values as a primitive or String array
+     * suitable for presentation as a list column value.
+     *
+     * @param  from  index of first element
+     * @param  to   index after last element
+     * @param  nulls  per-slot null flags, or null if no elements are null;
+     *                null slots are assumed to have been cleared
+     * @return   array value of class
+     *           {@link ColumnDesc#getContentClass}
+     */
+    abstract Object getArray( int from, int to, boolean[] nulls );
+
+    /**
+     * Returns a store suitable for the values of a given column.
+     *
+     * @param  desc  column description
+     * @param  size  number of value slots required
+     * @return  new store
+     */
+    public static ValueStore createStore( ColumnDesc desc, int size ) {
+        switch ( desc.getPhysicalType() ) {
+            case ColumnDesc.BOOLEAN:
+                return new BooleanStore( size );
+            case ColumnDesc.INT32:
+                return new IntStore( desc, size );
+            case ColumnDesc.INT64:
+                return new LongStore( desc, size );
+            case ColumnDesc.FLOAT:
+                return new FloatStore( size );
+            case ColumnDesc.DOUBLE:
+                return new DoubleStore( size );
+            case ColumnDesc.BYTE_ARRAY:
+            case ColumnDesc.FIXED_LEN_BYTE_ARRAY:
+                return new BinaryStore( desc, size );
+            default:
+                throw new IllegalArgumentException( "Unsupported type "
+                                                  + desc );
+        }
+    }
+
+    /**
+     * Returns an exception reporting an unsupported encoding.
+     *
+     * @param  encoding  encoding code
+     * @return  exception
+     */
+    static TableFormatException unsupported( int encoding ) {
+        return new TableFormatException( "Unsupported Parquet encoding "
+                                       + encoding );
+    }
+
+    /**
+     * Checks that a buffer contains at least a given number of bytes.
+     *
+     * @param  pos  start offset
+     * @param  end  end offset
+     * @param  nbyte  number of bytes required
+     * @throws  TableFormatException  if there are not enough bytes
+     */
+    static void checkLength( int pos, int end, long nbyte )
+            throws TableFormatException {
+        if ( pos + nbyte > end ) {
+            throw new TableFormatException( "Parquet page data truncated" );
+        }
+    }
+
+    /**
+     * Reads a value from data in the BYTE_STREAM_SPLIT encoding.
+     *
+     * @param  buf  buffer
+     * @param  pos  offset of start of encoded data
+     * @param  n   number of values in encoded data
+     * @param  width  number of bytes per value
+     * @param  i   index of value required
+     * @return  value bits
+     */
+    static long splitValue( byte[] buf, int pos, int n, int width, int i ) {
+        long v = 0;
+        for ( int k = 0; k < width; k++ ) {
+            v |= ( buf[ pos + k * n + i ] & 0xffL ) << ( 8 * k );
+        }
+        return v;
+    }
+
+    /**
+     * Converts an unscaled integer to a decimal value.
+     *
+     * @param  unscaled  unscaled value
+     * @param  scale   number of decimal places
+     * @return   decimal value
+     */
+    static double toDecimal( long unscaled, int scale ) {
+        if ( scale >= 0 && scale < POW10.length &&
+             Math.abs( unscaled ) < ( 1L << 53 ) ) {
+            return unscaled / POW10[ scale ];
+        }
+        else {
+            return BigDecimal.valueOf( unscaled, scale ).doubleValue();
+        }
+    }
+
+    /**
+     * Store for BOOLEAN physical type.
+     */
+    private static class BooleanStore extends ValueStore {
+        final boolean[] vals_;
+        BooleanStore( int size ) {
+            super( ColumnDesc.Kind.BOOLEAN );
+            vals_ = new boolean[ size ];
+        }
+        int decode( int encoding, byte[] buf, int pos, int end,
+                    int n, int dest )
+                throws TableFormatException {
+            if ( encoding == Encodings.PLAIN ) {
+                checkLength( pos, end, ( n + 7 ) / 8 );
+                for ( int i = 0; i < n; i++ ) {
+                    vals_[ dest + i ] =
+                        ( buf[ pos + ( i >>> 3 ) ] & ( 1 << ( i & 7 ) ) ) != 0;
+                }
+                return pos + ( n + 7 ) / 8;
+            }
+            else if ( encoding == Encodings.RLE ) {
+                checkLength( pos, end, 4 );
+                int leng = Encodings.readInt( buf, pos );
+                pos += 4;
+                checkLength( pos, end, leng );
+                int[] ivals = new int[ n ];
+                Encodings.decodeHybrid( buf, pos, pos + leng, 1, ivals, n );
+                for ( int i = 0; i < n; i++ ) {
+                    vals_[ dest + i ] = ivals[ i ] != 0;
+                }
+                return pos + leng;
+            }
+            else {
+                throw unsupported( encoding );
+            }
+        }
+        void copyFromDict( ValueStore dict, int[] ixs, int n, int dest ) {
+            boolean[] dvals = ((BooleanStore) dict).vals_;
+            for ( int i = 0; i < n; i++ ) {
+                vals_[ dest + i ] = dvals[ ixs[ i ] ];
+            }
+        }
+        void move( int from, int to ) {
+            vals_[ to ] = vals_[ from ];
+        }
+        void clear( int i ) {
+            vals_[ i ] = false;
+        }
+        Object getObject( int i ) {
+            return Boolean.valueOf( vals_[ i ] );
+        }
+        double getDouble( int i ) {
+            return Double.NaN;
+        }
+        long getLong( int i ) {
+            return 0L;
+        }
+        Object getArray( int from, int to, boolean[] nulls ) {
+            boolean[] out = new boolean[ to - from ];
+            for ( int i = from; i < to; i++ ) {
+                out[ i - from ] = vals_[ i ];
+            }
+            return out;
+        }
+    }
+
+    /**
+     * Store for INT32 physical type.
+     */
+    private static class IntStore extends ValueStore {
+        final int[] vals_;
+        final int scale_;
+        IntStore( ColumnDesc desc, int size ) {
+            super( desc.getKind() );
+            vals_ = new int[ size ];
+            scale_ = desc.getScale();
+        }
+        int decode( int encoding, byte[] buf, int pos, int end,
+                    int n, int dest )
+                throws TableFormatException {
+            switch ( encoding ) {
+                case Encodings.PLAIN:
+                    checkLength( pos, end, 4L * n );
+                    for ( int i = 0; i < n; i++ ) {
+                        vals_[ dest + i ] = Encodings.readInt( buf, pos );
+                        pos += 4;
+                    }
+                    return pos;
+                case Encodings.DELTA_BINARY_PACKED:
+                    int[] vp = new int[] { pos };
+                    long[] lvals = Encodings.decodeDelta( buf, vp, end );
+                    checkLength( 0, lvals.length, n );
+                    for ( int i = 0; i < n; i++ ) {
+                        vals_[ dest + i ] = (int) lvals[ i ];
+                    }
+                    return vp[ 0 ];
+                case Encodings.BYTE_STREAM_SPLIT:
+                    checkLength( pos, end, 4L * n );
+                    for ( int i = 0; i < n; i++ ) {
+                        vals_[ dest + i ] =
+                            (int) splitValue( buf, pos, n, 4, i );
+                    }
+                    return pos + 4 * n;
+                default:
+                    throw unsupported( encoding );
+            }
+        }
+        void copyFromDict( ValueStore dict, int[] ixs, int n, int dest ) {
+            int[] dvals = ((IntStore) dict).vals_;
+            for ( int i = 0; i < n; i++ ) {
+                vals_[ dest + i ] = dvals[ ixs[ i ] ];
+            }
+        }
+        void move( int from, int to ) {
+            vals_[ to ] = vals_[ from ];
+        }
+        void clear( int i ) {
+            vals_[ i ] = 0;
+        }
+        Object getObject( int i ) {
+            int v = vals_[ i ];
+            switch ( kind_ ) {
+                case BYTE:
+                    return Byte.valueOf( (byte) v );
+                case SHORT:
+                    return Short.valueOf( (short) v );
+                case LONG:
+                    return Long.valueOf( v & 0xffffffffL );
+                case DECIMAL:
+                    return Double.valueOf( toDecimal( v, scale_ ) );
+                default:
+                    return Integer.valueOf( v );
+            }
+        }
+        double getDouble( int i ) {
+            return kind_ == ColumnDesc.Kind.DECIMAL
+                 ? toDecimal( vals_[ i ], scale_ )
+                 : getLong( i );
+        }
+        long getLong( int i ) {
+            int v = vals_[ i ];
+            switch ( kind_ ) {
+                case BYTE:
+                    return (byte) v;
+                case SHORT:
+                    return (short) v;
+                case LONG:
+                    return v & 0xffffffffL;
+                case DECIMAL:
+                    return (long) toDecimal( v, scale_ );
+                default:
+                    return v;
+            }
+        }
+        Object getArray( int from, int to, boolean[] nulls ) {
+            int n = to - from;
+            switch ( kind_ ) {
+                case BYTE:
+                    byte[] bout = new byte[ n ];
+                    for ( int i = 0; i < n; i++ ) {
+                        bout[ i ] = (byte) vals_[ from + i ];
+                    }
+                    return bout;
+                case SHORT:
+                    short[] sout = new short[ n ];
+                    for ( int i = 0; i < n; i++ ) {
+                        sout[ i ] = (short) vals_[ from + i ];
+                    }
+                    return sout;
+                case LONG:
+                    long[] lout = new long[ n ];
+                    for ( int i = 0; i < n; i++ ) {
+                        lout[ i ] = vals_[ from + i ] & 0xffffffffL;
+                    }
+                    return lout;
+                case DECIMAL:
+                    double[] dout = new double[ n ];
+                    for ( int i = 0; i < n; i++ ) {
+                        dout[ i ] = nulls != null && nulls[ from + i ]
+                                  ? Double.NaN
+                                  : toDecimal( vals_[ from + i ], scale_ );
+                    }
+                    return dout;
+                default:
+                    int[] iout = new int[ n ];
+                    System.arraycopy( vals_, from, iout, 0, n );
+                    return iout;
+            }
+        }
+    }
+
+    /**
+     * Store for INT64 physical type.
+     */
+    private static class LongStore extends ValueStore {
+        final long[] vals_;
+        final int scale_;
+        LongStore( ColumnDesc desc, int size ) {
+            super( desc.getKind() );
+            vals_ = new long[ size ];
+            scale_ = desc.getScale();
+        }
+        int decode( int encoding, byte[] buf, int pos, int end,
+                    int n, int dest )
+                throws TableFormatException {
+            switch ( encoding ) {
+                case Encodings.PLAIN:
+                    checkLength( pos, end, 8L * n );
+                    for ( int i = 0; i < n; i++ ) {
+                        vals_[ dest + i ] = Encodings.readLong( buf, pos );
+                        pos += 8;
+                    }
+                    return pos;
+                case Encodings.DELTA_BINARY_PACKED:
+                    int[] vp = new int[] { pos };
+                    long[] lvals = Encodings.decodeDelta( buf, vp, end );
+                    checkLength( 0, lvals.length, n );
+                    System.arraycopy( lvals, 0, vals_, dest, n );
+                    return vp[ 0 ];
+                case Encodings.BYTE_STREAM_SPLIT:
+                    checkLength( pos, end, 8L * n );
+                    for ( int i = 0; i < n; i++ ) {
+                        vals_[ dest + i ] = splitValue( buf, pos, n, 8, i );
+                    }
+                    return pos + 8 * n;
+                default:
+                    throw unsupported( encoding );
+            }
+        }
+        void copyFromDict( ValueStore dict, int[] ixs, int n, int dest ) {
+            long[] dvals = ((LongStore) dict).vals_;
+            for ( int i = 0; i < n; i++ ) {
+                vals_[ dest + i ] = dvals[ ixs[ i ] ];
+            }
+        }
+        void move( int from, int to ) {
+            vals_[ to ] = vals_[ from ];
+        }
+        void clear( int i ) {
+            vals_[ i ] = 0;
+        }
+        Object getObject( int i ) {
+            return kind_ == ColumnDesc.Kind.DECIMAL
+                 ? (Object) Double.valueOf( toDecimal( vals_[ i ], scale_ ) )
+                 : (Object) Long.valueOf( vals_[ i ] );
+        }
+        double getDouble( int i ) {
+            return kind_ == ColumnDesc.Kind.DECIMAL
+                 ? toDecimal( vals_[ i ], scale_ )
+                 : (double) vals_[ i ];
+        }
+        long getLong( int i ) {
+            return kind_ == ColumnDesc.Kind.DECIMAL
+                 ? (long) toDecimal( vals_[ i ], scale_ )
+                 : vals_[ i ];
+        }
+        Object getArray( int from, int to, boolean[] nulls ) {
+            int n = to - from;
+            if ( kind_ == ColumnDesc.Kind.DECIMAL ) {
+                double[] dout = new double[ n ];
+                for ( int i = 0; i < n; i++ ) {
+                    dout[ i ] = nulls != null && nulls[ from + i ]
+                              ? Double.NaN
+                              : toDecimal( vals_[ from + i ], scale_ );
+                }
+                return dout;
+            }
+            else {
+                long[] lout = new long[ n ];
+                System.arraycopy( vals_, from, lout, 0, n );
+                return lout;
+            }
+        }
+    }
+
+    /**
+     * Store for FLOAT physical type.
+     */
+    private static class FloatStore extends ValueStore {
+        final float[] vals_;
+        FloatStore( int size ) {
+            super( ColumnDesc.Kind.FLOAT );
+            vals_ = new float[ size ];
+        }
+        int decode( int encoding, byte[] buf, int pos, int end,
+                    int n, int dest )
+                throws TableFormatException {
+            switch ( encoding ) {
+                case Encodings.PLAIN:
+                    checkLength( pos, end, 4L * n );
+                    for ( int i = 0; i < n; i++ ) {
+                        vals_[ dest + i ] =
+                            Float.intBitsToFloat( Encodings
+                                                 .readInt( buf, pos ) );
+                        pos += 4;
+                    }
+                    return pos;
+                case Encodings.BYTE_STREAM_SPLIT:
+                    checkLength( pos, end, 4L * n );
+                    for ( int i = 0; i < n; i++ ) {
+                        vals_[ dest + i ] =
+                            Float.intBitsToFloat( (int)
+                                                  splitValue( buf, pos, n,
+                                                              4, i ) );
+                    }
+                    return pos + 4 * n;
+                default:
+                    throw unsupported( encoding );
+            }
+        }
+        void copyFromDict( ValueStore dict, int[] ixs, int n, int dest ) {
+            float[] dvals = ((FloatStore) dict).vals_;
+            for ( int i = 0; i < n; i++ ) {
+                vals_[ dest + i ] = dvals[ ixs[ i ] ];
+            }
+        }
+        void move( int from, int to ) {
+            vals_[ to ] = vals_[ from ];
+        }
+        void clear( int i ) {
+            vals_[ i ] = Float.NaN;
+        }
+        Object getObject( int i ) {
+            return Float.valueOf( vals_[ i ] );
+        }
+        double getDouble( int i ) {
+            return vals_[ i ];
+        }
+        long getLong( int i ) {
+            return (long) vals_[ i ];
+        }
+        Object getArray( int from, int to, boolean[] nulls ) {
+            int n = to - from;
+            float[] out = new float[ n ];
+            System.arraycopy( vals_, from, out, 0, n );
+            return out;
+        }
+    }
+
+    /**
+     * Store for DOUBLE physical type.
+     */
+    private static class DoubleStore extends ValueStore {
+        final double[] vals_;
+        DoubleStore( int size ) {
+            super( ColumnDesc.Kind.DOUBLE );
+            vals_ = new double[ size ];
+        }
+        int decode( int encoding, byte[] buf, int pos, int end,
+                    int n, int dest )
+                throws TableFormatException {
+            switch ( encoding ) {
+                case Encodings.PLAIN:
+                    checkLength( pos, end, 8L * n );
+                    for ( int i = 0; i < n; i++ ) {
+                        vals_[ dest + i ] =
+                            Double.longBitsToDouble( Encodings
+                                                    .readLong( buf, pos ) );
+                        pos += 8;
+                    }
+                    return pos;
+                case Encodings.BYTE_STREAM_SPLIT:
+                    checkLength( pos, end, 8L * n );
+                    for ( int i = 0; i < n; i++ ) {
+                        vals_[ dest + i ] =
+                            Double.longBitsToDouble( splitValue( buf, pos, n,
+                                                                 8, i ) );
+                    }
+                    return pos + 8 * n;
+                default:
+                    throw unsupported( encoding );
+            }
+        }
+        void copyFromDict( ValueStore dict, int[] ixs, int n, int dest ) {
+            double[] dvals = ((DoubleStore) dict).vals_;
+            for ( int i = 0; i < n; i++ ) {
+                vals_[ dest + i ] = dvals[ ixs[ i ] ];
+            }
+        }
+        void move( int from, int to ) {
+            vals_[ to ] = vals_[ from ];
+        }
+        void clear( int i ) {
+            vals_[ i ] = Double.NaN;
+        }
+        Object getObject( int i ) {
+            return Double.valueOf( vals_[ i ] );
+        }
+        double getDouble( int i ) {
+            return vals_[ i ];
+        }
+        long getLong( int i ) {
+            return (long) vals_[ i ];
+        }
+        Object getArray( int from, int to, boolean[] nulls ) {
+            int n = to - from;
+            double[] out = new double[ n ];
+            System.arraycopy( vals_, from, out, 0, n );
+            return out;
+        }
+    }
+
+    /**
+     * Store for BYTE_ARRAY and FIXED_LEN_BYTE_ARRAY physical types.
+     * Values are converted to String, byte[] or Double objects
+     * according to kind at decode time.
+     */
+    private static class BinaryStore extends ValueStore {
+        final Object[] vals_;
+        final int typeLength_;
+        final boolean isFixed_;
+        final int scale_;
+        BinaryStore( ColumnDesc desc, int size ) {
+            super( desc.getKind() );
+            vals_ = new Object[ size ];
+            isFixed_ = desc.getPhysicalType()
+                    == ColumnDesc.FIXED_LEN_BYTE_ARRAY;
+            typeLength_ = desc.getTypeLength();
+            scale_ = desc.getScale();
+        }
+        int decode( int encoding, byte[] buf, int pos, int end,
+                    int n, int dest )
+                throws TableFormatException {
+            switch ( encoding ) {
+                case Encodings.PLAIN:
+                    for ( int i = 0; i < n; i++ ) {
+                        final int leng;
+                        if ( isFixed_ ) {
+                            leng = typeLength_;
+                        }
+                        else {
+                            checkLength( pos, end, 4 );
+                            leng = Encodings.readInt( buf, pos );
+                            pos += 4;
+                        }
+                        if ( leng < 0 ) {
+                            throw new TableFormatException( "Negative length" );
+                        }
+                        checkLength( pos, end, leng );
+                        vals_[ dest + i ] = convert( buf, pos, leng );
+                        pos += leng;
+                    }
+                    return pos;
+                case Encodings.DELTA_LENGTH_BYTE_ARRAY: {
+                    int[] vp = new int[] { pos };
+                    long[] lengs = Encodings.decodeDelta( buf, vp, end );
+                    checkLength( 0, lengs.length, n );
+                    pos = vp[ 0 ];
+                    for ( int i = 0; i < n; i++ ) {
+                        int leng = (int) lengs[ i ];
+                        if ( leng < 0 ) {
+                            throw new TableFormatException( "Negative length" );
+                        }
+                        checkLength( pos, end, leng );
+                        vals_[ dest + i ] = convert( buf, pos, leng );
+                        pos += leng;
+                    }
+                    return pos;
+                }
+                case Encodings.DELTA_BYTE_ARRAY: {
+                    int[] vp = new int[] { pos };
+                    long[] prefixes = Encodings.decodeDelta( buf, vp, end );
+                    long[] suffixes = Encodings.decodeDelta( buf, vp, end );
+                    checkLength( 0, prefixes.length, n );
+                    checkLength( 0, suffixes.length, n );
+                    pos = vp[ 0 ];
+                    byte[] last = new byte[ 0 ];
+                    for ( int i = 0; i < n; i++ ) {
+                        int npre = (int) prefixes[ i ];
+                        int nsuf = (int) suffixes[ i ];
+                        if ( npre < 0 || npre > last.length || nsuf < 0 ) {
+                            throw new TableFormatException( "Bad delta "
+                                                          + "byte array" );
+                        }
+                        checkLength( pos, end, nsuf );
+                        byte[] value = new byte[ npre + nsuf ];
+                        System.arraycopy( last, 0, value, 0, npre );
+                        System.arraycopy( buf, pos, value, npre, nsuf );
+                        pos += nsuf;
+                        vals_[ dest + i ] = convert( value, 0, value.length );
+                        last = value;
+                    }
+                    return pos;
+                }
+                default:
+                    throw unsupported( encoding );
+            }
+        }
+        Object convert( byte[] buf, int off, int leng ) {
+            switch ( kind_ ) {
+                case STRING:
+                    return new String( buf, off, leng,
+                                       StandardCharsets.UTF_8 );
+                case DECIMAL:
+                    byte[] bytes = new byte[ Math.max( leng, 1 ) ];
+                    System.arraycopy( buf, off, bytes, 0, leng );
+                    BigInteger unscaled = new BigInteger( bytes );
+                    return Double.valueOf( new BigDecimal( unscaled, scale_ )
+                                          .doubleValue() );
+                default:
+                    byte[] out = new byte[ leng ];
+                    System.arraycopy( buf, off, out, 0, leng );
+                    return out;
+            }
+        }
+        void copyFromDict( ValueStore dict, int[] ixs, int n, int dest ) {
+            Object[] dvals = ((BinaryStore) dict).vals_;
+            for ( int i = 0; i < n; i++ ) {
+                vals_[ dest + i ] = dvals[ ixs[ i ] ];
+            }
+        }
+        void move( int from, int to ) {
+            vals_[ to ] = vals_[ from ];
+        }
+        void clear( int i ) {
+            vals_[ i ] = null;
+        }
+        Object getObject( int i ) {
+            Object v = vals_[ i ];
+            return v instanceof byte[] ? ((byte[]) v).clone() : v;
+        }
+        double getDouble( int i ) {
+            Object v = vals_[ i ];
+            return v instanceof Number ? ((Number) v).doubleValue()
+                                       : Double.NaN;
+        }
+        long getLong( int i ) {
+            Object v = vals_[ i ];
+            return v instanceof Number ? ((Number) v).longValue() : 0L;
+        }
+        Object getArray( int from, int to, boolean[] nulls ) {
+            int n = to - from;
+            if ( kind_ == ColumnDesc.Kind.DECIMAL ) {
+                double[] dout = new double[ n ];
+                for ( int i = 0; i < n; i++ ) {
+                    dout[ i ] = nulls != null && nulls[ from + i ]
+                              ? Double.NaN
+                              : getDouble( from + i );
+                }
+                return dout;
+            }
+            else {
+                String[] sout = new String[ n ];
+                System.arraycopy( vals_, from, sout, 0, n );
+                return sout;
+            }
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package uk.ac.starlink.parquet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.LongSupplier;
+import uk.ac.starlink.table.ArrayColumn;
+import uk.ac.starlink.table.ColumnInfo;
+import uk.ac.starlink.table.ColumnStarTable;
+import uk.ac.starlink.table.RowAccess;
+import uk.ac.starlink.table.RowSplittable;
+import uk.ac.starlink.table.StarTable;
+import uk.ac.starlink.table.StoragePolicy;
+import uk.ac.starlink.table.Tables;
+import uk.ac.starlink.util.FileDataSource;
+import uk.ac.starlink.util.TestCase;
+
+public class ParquetTest extends TestCase {
+
+    private static final int NROW = 5000;
+
+    public ParquetTest( String name ) {
+        super( name );
+    }
+
+    /**
+     * Small tests.  More comprehensive round-trip testing in
+     * uk.ac.starlink.table.FormatsTest.
+     */
+    public void testRoundTrip() throws IOException {
+        StarTable t0 = createTable( NROW );
+        for ( CompressionCodec codec : CompressionCodec.values() ) {
+            for ( long groupSize : new long[] { 0, 700, NROW } ) {
+                ParquetTableWriter writer = new ParquetTableWriter();
+                writer.setCompression( codec );
+                writer.setGroupSize( groupSize );
+                ParquetStarTable t1 = roundTrip( t0, writer );
+                int ngroup = groupSize == 700
+                           ? ( NROW + 699 ) / 700
+                           : 1;
+                assertEquals( ngroup, t1.getRowGroupCount() );
+                Tables.checkTable( t1 );
+                assertSameData( t0, t1 );
+                t1.close();
+            }
+        }
+    }
+
+    public void testSplit() throws IOException {
+        StarTable t0 = createTable( NROW );
+        ParquetTableWriter writer = new ParquetTableWriter();
+        writer.setGroupSize( 300 );
+        ParquetStarTable t1 = roundTrip( t0, writer );
+        int ngroup = t1.getRowGroupCount();
+        assertEquals( ( NROW + 299 ) / 300, ngroup );
+
+        /* Split down to single groups, and check that every row is
+         * seen exactly once with the right index and content. */
+        List<RowSplittable> splits = new ArrayList<>();
+        List<RowSplittable> todo = new ArrayList<>();
+        todo.add( t1.getRowSplittable() );
+        while ( ! todo.isEmpty() ) {
+            RowSplittable s = todo.remove( todo.size() - 1 );
+            RowSplittable s2 = s.split();
+            if ( s2 == null ) {
+                splits.add( s );
+            }
+            else {
+                todo.add( s );
+                todo.add( s2 );
+            }
+        }
+        assertEquals( ngroup, splits.size() );
+        boolean[] seen = new boolean[ NROW ];
+        for ( RowSplittable s : splits ) {
+            LongSupplier rowIndex = s.rowIndex();
+            long nr = 0;
+            while ( s.next() ) {
+                int irow = (int) rowIndex.getAsLong();
+                assertFalse( seen[ irow ] );
+                seen[ irow ] = true;
+                assertEquals( t0.getCell( irow, 0 ), s.getCell( 0 ) );
+                assertEquals( t0.getCell( irow, 5 ), s.getCell( 5 ) );
+                nr++;
+            }
+            assertTrue( nr <= 300 );
+            s.close();
+        }
+        for ( boolean b : seen ) {
+            assertTrue( b );
+        }
+
+        /* Random access in a non-sequential order. */
+        Random rnd = new Random( 23001 );
+        RowAccess racc = t1.getRowAccess();
+        for ( int i = 0; i < 200; i++ ) {
+            long irow = rnd.nextInt( NROW );
+            racc.setRowIndex( irow );
+            assertArrayEquals( t0.getRow( irow ), racc.getRow() );
+            assertArrayEquals( t0.getRow( irow ), t1.getRow( irow ) );
+        }
+        racc.close();
+        t1.close();
+    }
+
+    public void testRestrict() throws IOException {
+        StarTable t0 = createTable( NROW );
+        ParquetTableWriter writer = new ParquetTableWriter();
+        writer.setGroupSize( 1000 );
+        ParquetStarTable t1 = roundTrip( t0, writer );
+        assertEquals( 5, t1.getRowGroupCount() );
+
+        /* Column 0 is the row index, so ranges map directly to groups. */
+        StarTable r1 = t1.restrictRange( 0, 1500, 2500 );
+        assertEquals( 2000L, r1.getRowCount() );
+        assertEquals( Integer.valueOf( 1000 ), r1.getCell( 0, 0 ) );
+        Tables.checkTable( r1 );
+        assertEquals( 1000L,
+                      t1.restrictRange( 0, 4500, Double.POSITIVE_INFINITY )
+                        .getRowCount() );
+        assertEquals( 0L, t1.restrictRange( 0, -10, -1 ).getRowCount() );
+        assertEquals( 0L, t1.restrictRange( 0, 8000, 9000 ).getRowCount() );
+        assertEquals( 1000L, t1.restrictRange( 0, 2000, 2000 )
+                               .getRowCount() );
+
+        /* Restrictions compose. */
+        StarTable r2 = ((ParquetStarTable) r1)
+                      .restrictRange( 3, Double.NEGATIVE_INFINITY, 999.7 );
+        assertEquals( 1000L, r2.getRowCount() );
+
+        /* String columns are not restricted. */
+        assertEquals( (long) NROW,
+                      t1.restrictRange( 6, 0, 1 ).getRowCount() );
+        t1.close();
+    }
+
+    public void testSnappy() throws IOException {
+        Random rnd = new Random( 99 );
+        for ( int leng : new int[] { 0, 1, 15, 100, 70000, 300000 } ) {
+            byte[] data = new byte[ leng ];
+            for ( int i = 0; i < leng; i++ ) {
+                data[ i ] = (byte) ( i % 3 == 0 ? rnd.nextInt( 256 )
+                                                : ( i / 7 ) % 50 );
+            }
+            byte[] comp = Snappy.compress( data, 0, leng );
+            assertArrayEquals( data,
+                               Snappy.uncompress( comp, 0, comp.length ) );
+        }
+    }
+
+    public void testDelta() throws IOException {
+
+        /* Examples from the Parquet encodings specification. */
+        assertArrayEquals( new long[] { 1, 2, 3, 4, 5 },
+                           Encodings.decodeDelta( toBytes( new int[] {
+                               0x80, 0x01, 0x04, 0x05, 0x02, 0x02,
+                               0, 0, 0, 0,
+                           } ), new int[ 1 ], 10 ) );
+        byte[] buf2 = toBytes( new int[] {
+            0x80, 0x01, 0x04, 0x08, 0x0e, 0x03, 2, 0, 0, 0,
+            0xc0, 0x3f, 0, 0, 0, 0, 0, 0,
+        } );
+        int[] vp = new int[ 1 ];
+        assertArrayEquals( new long[] { 7, 5, 3, 1, 2, 3, 4, 5 },
+                           Encodings.decodeDelta( buf2, vp, buf2.length ) );
+    }
+
+    public void testHybrid() throws IOException {
+        int[] vals = new int[ 1000 ];
+        Random rnd = new Random( 1 );
+        for ( int i = 0; i < vals.length; i++ ) {
+            vals[ i ] = i < 300 ? 5 : rnd.nextInt( 8 );
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Encodings.encodeHybrid( vals, vals.length, 3, out );
+        byte[] buf = out.toByteArray();
+        int[] vals1 = new int[ vals.length ];
+        int pos = Encodings.decodeHybrid( buf, 0, buf.length, 3,
+                                          vals1, vals.length );
+        assertArrayEquals( vals, vals1 );
+        assertTrue( pos <= buf.length );
+    }
+
+    private static byte[] toBytes( int[] ibuf ) {
+        byte[] buf = new byte[ ibuf.length ];
+        for ( int i = 0; i < ibuf.length; i++ ) {
+            buf[ i ] = (byte) ibuf[ i ];
+        }
+        return buf;
+    }
+
+    private ParquetStarTable roundTrip( StarTable table,
+                                        ParquetTableWriter writer )
+            throws IOException {
+        File file = File.createTempFile( "tst", ".parquet" );
+        file.deleteOnExit();
+        try ( OutputStream out = new FileOutputStream( file ) ) {
+            writer.writeStarTable( table, out );
+        }
+        StarTable t1 = new ParquetTableBuilder()
+                      .makeStarTable( new FileDataSource( file ), true,
+                                      StoragePolicy.PREFER_MEMORY );
+        return (ParquetStarTable) t1;
+    }
+
+    private void assertSameData( StarTable t0, StarTable t1 )
+            throws IOException {
+        int ncol = t0.getColumnCount();
+        assertEquals( ncol, t1.getColumnCount() );
+        assertEquals( t0.getRowCount(), t1.getRowCount() );
+        for ( int ic = 0; ic < ncol; ic++ ) {
+            ColumnInfo c0 = t0.getColumnInfo( ic );
+            ColumnInfo c1 = t1.getColumnInfo( ic );
+            assertEquals( c0.getName(), c1.getName() );
+            assertEquals( c0.getContentClass(), c1.getContentClass() );
+            assertEquals( c0.getUnitString(), c1.getUnitString() );
+            assertEquals( c0.getUCD(), c1.getUCD() );
+        }
+        long nrow = t0.getRowCount();
+        for ( long ir = 0; ir < nrow; ir++ ) {
+            assertArrayEquals( t0.getRow( ir ), t1.getRow( ir ) );
+        }
+    }
+
+    private static StarTable createTable( int nrow ) {
+        ColumnStarTable table = ColumnStarTable.makeTableWithRows( nrow );
+        int[] ivals = new int[ nrow ];
+        long[] lvals = new long[ nrow ];
+        double[] dvals = new double[ nrow ];
+        short[] svals = new short[ nrow ];
+        float[] fvals = new float[ nrow ];
+        boolean[] bvals = new boolean[ nrow ];
+        String[] strs = new String[ nrow ];
+        double[][] darrs = new double[ nrow ][];
+        Integer[] nints = new Integer[ nrow ];
+        String[] colors = { "red", "green", "blue", null };
+        for ( int i = 0; i < nrow; i++ ) {
+            ivals[ i ] = i;
+            lvals[ i ] = i * 1000000007L;
+            dvals[ i ] = i % 17 == 0 ? Double.NaN : i * 0.25 - 100;
+            svals[ i ] = (short) ( i % 30000 );
+            fvals[ i ] = i * 0.5f;
+            bvals[ i ] = i % 3 == 0;
+            strs[ i ] = colors[ i % colors.length ];
+            darrs[ i ] = i % 11 == 0 ? null : new double[ i % 4 ];
+            for ( int j = 0; darrs[ i ] != null && j < i % 4; j++ ) {
+                darrs[ i ][ j ] = i + j * 0.5;
+            }
+            nints[ i ] = i % 5 == 0 ? null : Integer.valueOf( -i );
+        }
+        ColumnInfo iinfo = new ColumnInfo( "index", Integer.class, null );
+        iinfo.setUCD( "meta.id" );
+        ColumnInfo dinfo = new ColumnInfo( "dval", Double.class, null );
+        dinfo.setUnitString( "deg" );
+        table.addColumn( ArrayColumn.makeColumn( iinfo, ivals ) );
+        table.addColumn( ArrayColumn.makeColumn( "lval", lvals ) );
+        table.addColumn( ArrayColumn.makeColumn( dinfo, dvals ) );
+        table.addColumn( ArrayColumn.makeColumn( "fval", fvals ) );
+        table.addColumn( ArrayColumn.makeColumn( "sval", svals ) );
+        table.addColumn( ArrayColumn.makeColumn( "bval", bvals ) );
+        table.addColumn( ArrayColumn.makeColumn( "color", strs ) );
+        table.addColumn( ArrayColumn.makeColumn( "darr", darrs ) );
+        table.addColumn( ArrayColumn.makeColumn( "nint", nints ) );
+        return table;
+    }
+}
@@ -54,6 +54,42 @@ public class AccessRowSequence implements RowSequence {
         }
     }
 
+    public double getDouble( int icol ) throws IOException {
+        if ( irow_ >= 0 ) {
+            return racc_.getDouble( icol );
+        }
+        else {
+            throw new IllegalStateException();
+        }
+    }
+
+    public long getLong( int icol ) throws IOException {
+        if ( irow_ >= 0 ) {
+            return racc_.getLong( icol );
+        }
+        else {
+            throw new IllegalStateException();
+        }
+    }
+
+    public boolean getBoolean( int icol ) throws IOException {
+        if ( irow_ >= 0 ) {
+            return racc_.getBoolean( icol );
+        }
+        else {
+            throw new IllegalStateException();
+        }
+    }
+
+    public boolean isNull( int icol ) throws IOException {
+        if ( irow_ >= 0 ) {
+            return racc_.isNull( icol );
+        }
+        else {
+            throw new IllegalStateException();
+        }
+    }
+
     public void close() throws IOException {
         racc_.close();
     }
@@ -71,6 +71,74 @@ public abstract class ColumnData {
      */
     public abstract Object readValue( long irow ) throws IOException;
 
+    /**
+     * Returns the value stored at a given row in this column as a
+     * double precision value.
+     * Blank and non-numeric values are returned as NaN.
+     * The implementation in the <tt>ColumnData</tt> class calls
+     * {@link #readValue}; subclasses may override it to avoid
+     * object creation.
+     *
+     * @param   irow  the row from which to retrieve the value
+     * @return  numeric value at <tt>irow</tt>, or NaN
+     * @throws  IOException  if there is some problem reading
+     */
+    public double readDouble( long irow ) throws IOException {
+        Object value = readValue( irow );
+        return value instanceof Number ? ((Number) value).doubleValue()
+                                       : Double.NaN;
+    }
+
+    /**
+     * Returns the value stored at a given row in this column as a
+     * long integer value.
+     * Blank and non-numeric values are returned as zero.
+     * The implementation in the <tt>ColumnData</tt> class calls
+     * {@link #readValue}; subclasses may override it to avoid
+     * object creation.
+     *
+     * @param   irow  the row from which to retrieve the value
+     * @return  integer value at <tt>irow</tt>, or 0
+     * @throws  IOException  if there is some problem reading
+     */
+    public long readLong( long irow ) throws IOException {
+        Object value = readValue( irow );
+        return value instanceof Number ? ((Number) value).longValue()
+                                       : 0L;
+    }
+
+    /**
+     * Returns the value stored at a given row in this column as a
+     * boolean value.
+     * Blank and non-boolean values are returned as false.
+     * The implementation in the <tt>ColumnData</tt> class calls
+     * {@link #readValue}; subclasses may override it to avoid
+     * object creation.
+     *
+     * @param   irow  the row from which to retrieve the value
+     * @return  boolean value at <tt>irow</tt>, or false
+     * @throws  IOException  if there is some problem reading
+     */
+    public boolean readBoolean( long irow ) throws IOException {
+        Object value = readValue( irow );
+        return value instanceof Boolean && ((Boolean) value).booleanValue();
+    }
+
+    /**
+     * Indicates whether the value stored at a given row in this column
+     * is null.
+     * The implementation in the <tt>ColumnData</tt> class calls
+     * {@link #readValue}; subclasses may override it to avoid
+     * object creation.
+     *
+     * @param   irow  the row to test
+     * @return  true iff the value at <tt>irow</tt> is null
+     * @throws  IOException  if there is some problem reading
+     */
+    public boolean isNull( long irow ) throws IOException {
+        return readValue( irow ) == null;
+    }
+
     /**
      * Stores a given value in a given row for this column.
      * Will only work if the <tt>isWritable</tt> method returns true.
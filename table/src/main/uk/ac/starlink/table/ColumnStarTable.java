@@ -22,6 +22,7 @@ import java.util.List;
 public abstract class ColumnStarTable extends RandomStarTable {
 
     public List<ColumnData> columns_ = new ArrayList<ColumnData>();
+    private Boolean isBasicGetCell_;
 
     /**
      * Default constructor.
@@ -64,6 +65,165 @@ public abstract class ColumnStarTable extends RandomStarTable {
         return getColumnData( icol ).readValue( lrow );
     }
 
+    /**
+     * Returns a <tt>RowSequence</tt> object based on the
+     * {@link #getRowAccess} method of this table.
+     *
+     * @return  a row iterator
+     */
+    public RowSequence getRowSequence() {
+        return new AccessRowSequence( getRowAccess(), getRowCount() );
+    }
+
+    /**
+     * Returns a <tt>RowAccess</tt> object which reads data directly from
+     * this table's columns.  The typed primitive accessor methods
+     * are passed to the corresponding typed table-level methods
+     * {@link #readDouble readDouble} etc, which can avoid object creation.
+     *
+     * @return  a row access
+     */
+    public RowAccess getRowAccess() {
+        return new RowAccess() {
+            long irow_ = -1;
+            public void setRowIndex( long irow ) {
+                irow_ = irow;
+            }
+            public Object getCell( int icol ) throws IOException {
+                return ColumnStarTable.this.getCell( irow_, icol );
+            }
+            public Object[] getRow() throws IOException {
+                return ColumnStarTable.this.getRow( irow_ );
+            }
+            public double getDouble( int icol ) throws IOException {
+                return readDouble( irow_, icol );
+            }
+            public long getLong( int icol ) throws IOException {
+                return readLong( irow_, icol );
+            }
+            public boolean getBoolean( int icol ) throws IOException {
+                return readBoolean( irow_, icol );
+            }
+            public boolean isNull( int icol ) throws IOException {
+                return ColumnStarTable.this.isNull( irow_, icol );
+            }
+            public void close() {
+            }
+        };
+    }
+
+    /**
+     * Returns the contents of a cell as a double precision value.
+     * This is used by the {@link RowData#getDouble getDouble} method
+     * of this table's row access.
+     *
+     * <p>If {@link #getCell getCell} has not been overridden,
+     * the default implementation reads the value directly from
+     * the column's {@link ColumnData#readDouble readDouble} method.
+     * Otherwise it converts the result of <tt>getCell</tt>,
+     * so that subclasses which modify cell values behave consistently;
+     * such subclasses may override this method as well to provide
+     * more efficient access.
+     *
+     * @param  lrow  the row index
+     * @param  icol  the column index
+     * @return  numeric cell contents, or NaN
+     * @throws  IOException if an I/O error occurs
+     */
+    protected double readDouble( long lrow, int icol ) throws IOException {
+        if ( isBasicGetCell() ) {
+            return getColumnData( icol ).readDouble( lrow );
+        }
+        else {
+            Object value = getCell( lrow, icol );
+            return value instanceof Number ? ((Number) value).doubleValue()
+                                           : Double.NaN;
+        }
+    }
+
+    /**
+     * Returns the contents of a cell as a long integer value.
+     * This is used by the {@link RowData#getLong getLong} method
+     * of this table's row access.
+     * The same considerations apply as for {@link #readDouble readDouble}.
+     *
+     * @param  lrow  the row index
+     * @param  icol  the column index
+     * @return  integer cell contents, or 0
+     * @throws  IOException if an I/O error occurs
+     */
+    protected long readLong( long lrow, int icol ) throws IOException {
+        if ( isBasicGetCell() ) {
+            return getColumnData( icol ).readLong( lrow );
+        }
+        else {
+            Object value = getCell( lrow, icol );
+            return value instanceof Number ? ((Number) value).longValue()
+                                           : 0L;
+        }
+    }
+
+    /**
+     * Returns the contents of a cell as a boolean value.
+     * This is used by the {@link RowData#getBoolean getBoolean} method
+     * of this table's row access.
+     * The same considerations apply as for {@link #readDouble readDouble}.
+     *
+     * @param  lrow  the row index
+     * @param  icol  the column index
+     * @return  boolean cell contents, or false
+     * @throws  IOException if an I/O error occurs
+     */
+    protected boolean readBoolean( long lrow, int icol ) throws IOException {
+        if ( isBasicGetCell() ) {
+            return getColumnData( icol ).readBoolean( lrow );
+        }
+        else {
+            Object value = getCell( lrow, icol );
+            return value instanceof Boolean
+                && ((Boolean) value).booleanValue();
+        }
+    }
+
+    /**
+     * Indicates whether the contents of a cell is null.
+     * This is used by the {@link RowData#isNull isNull} method
+     * of this table's row access.
+     * The same considerations apply as for {@link #readDouble readDouble}.
+     *
+     * @param  lrow  the row index
+     * @param  icol  the column index
+     * @return  true iff the cell value is null
+     * @throws  IOException if an I/O error occurs
+     */
+    protected boolean isNull( long lrow, int icol ) throws IOException {
+        return isBasicGetCell() ? getColumnData( icol ).isNull( lrow )
+                                : getCell( lrow, icol ) == null;
+    }
+
+    /**
+     * Indicates whether this object uses the <tt>getCell</tt>
+     * implementation defined by this class, so that cell values are
+     * just those read from the column data objects.
+     *
+     * @return  true iff getCell is not overridden
+     */
+    private boolean isBasicGetCell() {
+        if ( isBasicGetCell_ == null ) {
+            boolean isBasic;
+            try {
+                isBasic = getClass()
+                         .getMethod( "getCell", long.class, int.class )
+                         .getDeclaringClass() == ColumnStarTable.class;
+            }
+            catch ( NoSuchMethodException e ) {
+                isBasic = false;
+            }
+            isBasicGetCell_ = Boolean.valueOf( isBasic );
+        }
+        return isBasicGetCell_.booleanValue();
+    }
+
     /**
      * Stores an object in a given cell of the table.
      *
@@ -0,0 +1,1518 @@
+package uk.ac.starlink.table;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+import java.util.function.LongSupplier;
+import java.util.logging.Logger;
+import uk.ac.starlink.util.SplitPolicy;
+
+/**
+ * Sorts table rows on the values of one or more key columns,
+ * without requiring all the data to fit in memory.
+ *
+ * <p>The key values are read sequentially from a <em>key table</em>,
+ * which has the same number of rows as the table to be sorted and
+ * one column for each sort key.  They are held in primitive arrays
+ * where possible, in runs of a fixed maximum number of rows.
+ * Each run is sorted, in parallel if so configured, and if there is
+ * more than one run the sorted runs are written to byte stores
+ * acquired from a {@link StoragePolicy} and merged.
+ * There is no restriction on the number of rows that can be sorted,
+ * except that sorting on key columns of types other than numeric,
+ * boolean, character or string requires all keys to be held in memory.
+ *
+ * <p>Blank values, as determined by {@link Tables#isBlank},
+ * are ranked at the start or end of the collation order.
+ * The sort is stable, that is rows with equal keys retain their
+ * original relative order.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+public class ExternalSorter {
+
+    private final StoragePolicy storage_;
+    private final SplitPolicy splitPolicy_;
+    private final int runSize_;
+    private final int mergeWay_;
+
+    /** Default maximum number of rows in a sorted run. */
+    public static final int DFLT_RUN_SIZE = 1 << 22;
+
+    /** Default maximum number of runs merged at once. */
+    public static final int DFLT_MERGE_WAY = 128;
+
+    /** Largest number of rows for which a row map array can be used. */
+    private static final long MAX_ARRAY_ROWS = Integer.MAX_VALUE - 8;
+
+    /** Smallest subarray size for which parallel sorting is attempted. */
+    private static final int PARALLEL_SORT_MIN = 1 << 13;
+
+    private static final int INSERTION_SORT_MAX = 24;
+
+    private static final Logger logger_ =
+        Logger.getLogger( "uk.ac.starlink.table" );
+
+    /**
+     * Constructs a sorter with default configuration.
+     * Runs are sorted in parallel using the default split policy,
+     * and spilled to storage using the default storage policy.
+     */
+    public ExternalSorter() {
+        this( StoragePolicy.getDefaultPolicy(), SplitPolicy.DFLT_POLICY,
+              DFLT_RUN_SIZE, DFLT_MERGE_WAY );
+    }
+
+    /**
+     * Constructs a sorter with given configuration.
+     *
+     * @param  storage  storage policy used for spilling sorted runs
+     * @param  splitPolicy  policy determining parallel execution,
+     *                      or null for sequential operation
+     * @param  runSize   maximum number of rows in a sorted run
+     * @param  mergeWay   maximum number of runs merged at once;
+     *                    if there are more runs than this,
+     *                    multiple merge passes are made
+     */
+    public ExternalSorter( StoragePolicy storage, SplitPolicy splitPolicy,
+                           int runSize, int mergeWay ) {
+        storage_ = storage;
+        splitPolicy_ = splitPolicy;
+        runSize_ = Math.max( 2, runSize );
+        mergeWay_ = Math.max( 2, mergeWay );
+    }
+
+    /**
+     * Returns an array giving the sorted row order of a table.
+     *
+     * @param   keyTable  table whose columns are the sort keys;
+     *          first column is primary key etc
+     * @param   up  true for sorting into ascending order, false for
+     *          descending order
+     * @param   nullsLast  true if blank values should be considered
+     *          last in the collation order, false if they should
+     *          be considered first
+     * @return  an array mapping the rows in the table to their sorted order
+     * @throws  IOException  if there are too many rows for an array
+     */
+    public long[] getSortedOrder( StarTable keyTable, boolean up,
+                                  boolean nullsLast )
+            throws IOException {
+        try ( IndexSequence iseq = sort( keyTable, up, nullsLast ) ) {
+            long nrow = iseq.getCount();
+            if ( nrow > MAX_ARRAY_ROWS ) {
+                throw new IOException( "Too many rows (" + nrow + ")"
+                                     + " for row order array" );
+            }
+            long[] order = new long[ (int) nrow ];
+            for ( int i = 0; iseq.next(); i++ ) {
+                order[ i ] = iseq.getIndex();
+            }
+            return order;
+        }
+    }
+
+    /**
+     * Returns a sorted version of a table.
+     * If the row count permits, the result is a
+     * {@link RowPermutedStarTable} based on the input table;
+     * otherwise, the sorted rows are copied to a row store acquired
+     * from this sorter's storage policy.
+     *
+     * @param   table  table to sort; must have random access
+     * @param   keyTable  table with the same row count as
+     *          <code>table</code> whose columns are the sort keys;
+     *          first column is primary key etc
+     * @param   up  true for sorting into ascending order, false for
+     *          descending order
+     * @param   nullsLast  true if blank values should be considered
+     *          last in the collation order, false if they should
+     *          be considered first
+     * @return  table with the same rows as <code>table</code>
+     *          but in sorted order
+     * @throws  IOException  if <code>table.isRandom</code> is false
+     */
+    public StarTable sortTable( StarTable table, StarTable keyTable,
+                                boolean up, boolean nullsLast )
+            throws IOException {
+        if ( ! table.isRandom() ) {
+            throw new IOException( "Table does not have random access" );
+        }
+        try ( IndexSequence iseq = sort( keyTable, up, nullsLast ) ) {
+            long nrow = iseq.getCount();
+            if ( nrow <= MAX_ARRAY_ROWS ) {
+                long[] order = new long[ (int) nrow ];
+                for ( int i = 0; iseq.next(); i++ ) {
+                    order[ i ] = iseq.getIndex();
+                }
+                return new RowPermutedStarTable( table, order );
+            }
+            else {
+                RowStore rowStore = storage_.makeConfiguredRowStore( table );
+                try ( RowAccess racc = table.getRowAccess() ) {
+                    while ( iseq.next() ) {
+                        racc.setRowIndex( iseq.getIndex() );
+                        rowStore.acceptRow( racc.getRow().clone() );
+                    }
+                }
+                rowStore.endRows();
+                return rowStore.getStarTable();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ExternalSorter(runSize=" + runSize_
+             + ", mergeWay=" + mergeWay_
+             + ", storage=" + storage_
+             + ", " + ( splitPolicy_ == null ? "sequential" : splitPolicy_ )
+             + ")";
+    }
+
+    /**
+     * Performs the sort, and returns the row indices in sorted order.
+     *
+     * @param   keyTable  table whose columns are the sort keys
+     * @param   up  true for ascending order
+     * @param   nullsLast  true for blanks last in collation order
+     * @return  sequence of sorted row indices; the caller must close it
+     */
+    private IndexSequence sort( StarTable keyTable, boolean up,
+                                boolean nullsLast )
+            throws IOException {
+        int nkey = keyTable.getColumnCount();
+        if ( nkey == 0 ) {
+            throw new IOException( "No sort keys" );
+        }
+        KeyType[] types = new KeyType[ nkey ];
+        boolean canSpill = true;
+        for ( int ik = 0; ik < nkey; ik++ ) {
+            types[ ik ] =
+                KeyType.forClass( keyTable.getColumnInfo( ik )
+                                          .getContentClass() );
+            canSpill = canSpill && types[ ik ] != KeyType.OBJECT;
+        }
+        long nrow = keyTable.getRowCount();
+        long maxRun = canSpill ? runSize_ : MAX_ARRAY_ROWS;
+        int initSize = nrow >= 0 && nrow <= maxRun
+                     ? Math.max( 1, (int) nrow )
+                     : (int) Math.min( maxRun, 1 << 16 );
+        ForkJoinPool pool = splitPolicy_ == null
+                          ? null
+                          : splitPolicy_.getForkJoinPool();
+        int maxPending = pool == null ? 0 : pool.getParallelism();
+        LinkedList<ForkJoinTask<ByteStore>> pending =
+            new LinkedList<ForkJoinTask<ByteStore>>();
+        List<ByteStore> runStores = new ArrayList<ByteStore>();
+        boolean done = false;
+        try {
+
+            /* Read key values into runs, sorting and spilling each
+             * full run as it is filled. */
+            KeyRun run = new KeyRun( types, initSize, up, nullsLast );
+            boolean isRead = pool != null && nrow > 0 && nrow <= maxRun
+                          && readParallel( keyTable, run, (int) nrow );
+            if ( ! isRead ) try ( RowSequence rseq =
+                                      keyTable.getRowSequence() ) {
+                for ( long irow = 0; rseq.next(); irow++ ) {
+                    if ( run.size_ == run.capacity() ) {
+                        if ( run.size_ < maxRun ) {
+                            run.ensureCapacity( (int)
+                                Math.min( maxRun, 2L * run.size_ ) );
+                        }
+                        else if ( ! canSpill ) {
+                            throw new IOException( "Too many rows to sort"
+                                                 + " on non-primitive keys" );
+                        }
+                        else {
+                            final KeyRun fullRun = run;
+                            if ( pool == null ) {
+                                runStores.add( spillRun( fullRun, null ) );
+                            }
+                            else {
+                                while ( pending.size() >= maxPending ) {
+                                    runStores.add( join( pending
+                                                        .removeFirst() ) );
+                                }
+                                pending.add( pool.submit(
+                                    () -> spillRun( fullRun, pool ) ) );
+                            }
+                            run = new KeyRun( types, run.capacity(),
+                                              up, nullsLast );
+                        }
+                    }
+                    run.readRow( rseq, irow );
+                }
+            }
+            while ( ! pending.isEmpty() ) {
+                runStores.add( join( pending.removeFirst() ) );
+            }
+
+            /* If everything fits in one run, no merge is required. */
+            if ( runStores.isEmpty() ) {
+                int[] perm = sortRun( run, pool );
+                done = true;
+                return new RunIndexSequence( run, perm );
+            }
+
+            /* Otherwise spill the last run and merge. */
+            if ( run.size_ > 0 ) {
+                runStores.add( spillRun( run, pool ) );
+            }
+            run = null;
+            logger_.info( "Merging " + runStores.size() + " sorted runs" );
+            while ( runStores.size() > mergeWay_ ) {
+                List<ByteStore> nextStores = new ArrayList<ByteStore>();
+                for ( int i0 = 0; i0 < runStores.size(); i0 += mergeWay_ ) {
+                    List<ByteStore> group =
+                        runStores.subList( i0, Math.min( runStores.size(),
+                                                         i0 + mergeWay_ ) );
+                    nextStores.add( mergeRuns( group, types, up,
+                                               nullsLast ) );
+                }
+                runStores = nextStores;
+            }
+            IndexSequence iseq =
+                new MergeIndexSequence( runStores, types, up, nullsLast );
+            done = true;
+            return iseq;
+        }
+        finally {
+            if ( ! done ) {
+                for ( ForkJoinTask<ByteStore> task : pending ) {
+                    try {
+                        join( task ).close();
+                    }
+                    catch ( IOException e ) {
+                    }
+                }
+                for ( ByteStore bs : runStores ) {
+                    bs.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Attempts to read all the key values from a table into a run
+     * in parallel.  If the table's splittable does not supply row
+     * indices, nothing is done.
+     *
+     * @param  keyTable  key table
+     * @param  run   run with capacity at least <code>nrow</code>
+     * @param  nrow  number of rows in key table
+     * @return   true iff the run has been populated
+     */
+    private boolean readParallel( StarTable keyTable, final KeyRun run,
+                                  final int nrow )
+            throws IOException {
+        RowSplittable rsplit = keyTable.getRowSplittable();
+        if ( rsplit.rowIndex() == null ) {
+            rsplit.close();
+            return false;
+        }
+        RowCollector<long[]> collector = new RowCollector<long[]>() {
+            public long[] createAccumulator() {
+                return new long[ 1 ];
+            }
+            public void accumulateRows( RowSplittable rseq, long[] acc )
+                    throws IOException {
+                LongSupplier rowIndex = rseq.rowIndex();
+                while ( rseq.next() ) {
+                    long irow = rowIndex.getAsLong();
+                    if ( irow < 0 || irow >= nrow ) {
+                        throw new IOException( "Row index " + irow
+                                             + " out of range" );
+                    }
+                    run.setRow( rseq, (int) irow );
+                    acc[ 0 ]++;
+                }
+            }
+            public long[] combine( long[] acc1, long[] acc2 ) {
+                acc1[ 0 ] += acc2[ 0 ];
+                return acc1;
+            }
+        };
+        long nread = RowRunner.createStandardRunner( splitPolicy_ )
+                              .collect( collector, rsplit )[ 0 ];
+        if ( nread != nrow ) {
+            throw new IOException( "Row count mismatch: "
+                                 + nread + " != " + nrow );
+        }
+        run.size_ = nrow;
+        return true;
+    }
+
+    /**
+     * Sorts a run and writes it to a new byte store.
+     *
+     * @param  run  populated run
+     * @param  pool  pool for parallel sorting, or null
+     * @return   byte store containing sorted run records
+     */
+    private ByteStore spillRun( KeyRun run, ForkJoinPool pool )
+            throws IOException {
+        int[] perm = sortRun( run, pool );
+        ByteStore store = storage_.makeByteStore();
+        try ( DataOutputStream out = createOutput( store ) ) {
+            out.writeLong( run.size_ );
+            for ( int i : perm ) {
+                run.writeRecord( out, i );
+            }
+        }
+        return store;
+    }
+
+    /**
+     * Merges a number of sorted runs into a single sorted run.
+     *
+     * @param  stores  byte stores containing sorted runs;
+     *                 they are closed by this method
+     * @param  types   key types
+     * @param  up  true for ascending order
+     * @param  nullsLast  true for blanks last in collation order
+     * @return   byte store containing merged run
+     */
+    private ByteStore mergeRuns( List<ByteStore> stores, KeyType[] types,
+                                 boolean up, boolean nullsLast )
+            throws IOException {
+        ByteStore outStore = storage_.makeByteStore();
+        try ( MergeIndexSequence mseq =
+                  new MergeIndexSequence( stores, types, up, nullsLast );
+              DataOutputStream out = createOutput( outStore ) ) {
+            out.writeLong( mseq.getCount() );
+            while ( mseq.next() ) {
+                mseq.writeCurrent( out );
+            }
+        }
+        return outStore;
+    }
+
+    /**
+     * Returns a data output stream writing to a byte store.
+     *
+     * @param  store  byte store
+     * @return  output stream
+     */
+    private static DataOutputStream createOutput( ByteStore store ) {
+        return new DataOutputStream(
+                   new BufferedOutputStream( store.getOutputStream(),
+                                             64 * 1024 ) );
+    }
+
+    /**
+     * Waits for a spill task to complete.
+     *
+     * @param  task  task
+     * @return   task result
+     */
+    private static ByteStore join( ForkJoinTask<ByteStore> task )
+            throws IOException {
+        try {
+            return task.get();
+        }
+        catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw (IOException)
+                  new IOException( "Sort interrupted" ).initCause( e );
+        }
+        catch ( ExecutionException e ) {
+            Throwable cause = e.getCause();
+            if ( cause instanceof IOException ) {
+                throw (IOException) cause;
+            }
+            else if ( cause instanceof RuntimeException ) {
+                throw (RuntimeException) cause;
+            }
+            else {
+                throw (IOException) new IOException( "Sort error" )
+                                   .initCause( cause );
+            }
+        }
+    }
+
+    /**
+     * Returns the sorted order of the records in a run.
+     *
+     * @param  run  populated run
+     * @param  pool  pool for parallel sorting, or null
+     * @return  permutation array giving run indices in sorted order
+     */
+    private static int[] sortRun( KeyRun run, ForkJoinPool pool )
+            throws IOException {
+        if ( run.keys_.length == 1 &&
+             run.keys_[ 0 ] instanceof PrimitiveKeyBuffer ) {
+            return radixSortRun( run, pool );
+        }
+        int n = run.size_;
+        int[] perm = new int[ n ];
+        for ( int i = 0; i < n; i++ ) {
+            perm[ i ] = i;
+        }
+        int[] work = new int[ n ];
+        try {
+            if ( pool != null && n >= 2 * PARALLEL_SORT_MIN ) {
+                pool.invoke( new SortTask( run, perm, work, 0, n ) );
+            }
+            else {
+                mergeSort( run, perm, work, 0, n );
+            }
+        }
+        catch ( ClassCastException e ) {
+            throw (IOException)
+                  new IOException( "Values cannot be compared for sorting" )
+                 .initCause( e );
+        }
+        return perm;
+    }
+
+    /**
+     * Returns the sorted order of the records in a run with a single
+     * key that has a primitive representation, using a radix sort.
+     * The run index must be in ascending order of row index.
+     *
+     * @param  run  populated run with a single PrimitiveKeyBuffer
+     * @param  pool  pool for parallel sorting, or null
+     * @return  permutation array giving run indices in sorted order
+     */
+    private static int[] radixSortRun( KeyRun run, ForkJoinPool pool ) {
+        PrimitiveKeyBuffer key = (PrimitiveKeyBuffer) run.keys_[ 0 ];
+        int n = run.size_;
+
+        /* Separate out blank values, and get sortable keys for the rest.
+         * For descending order the keys are inverted; the radix sort
+         * is stable, so ties are still in ascending row order. */
+        long[] keys = new long[ n ];
+        int[] ixs = new int[ n ];
+        int[] nullIxs = new int[ n ];
+        int nk = 0;
+        int nnull = 0;
+        for ( int i = 0; i < n; i++ ) {
+            if ( key.isNull( i ) ) {
+                nullIxs[ nnull++ ] = i;
+            }
+            else {
+                long k = key.getRadixKey( i );
+                keys[ nk ] = run.up_ ? k : ~k;
+                ixs[ nk ] = i;
+                nk++;
+            }
+        }
+        radixSort( keys, ixs, nk, pool );
+
+        /* Blanks go at the end of the collation order if nullsLast,
+         * but the order is reversed for a descending sort. */
+        if ( nnull > 0 ) {
+            if ( run.nullsLast_ == run.up_ ) {
+                System.arraycopy( nullIxs, 0, ixs, nk, nnull );
+            }
+            else {
+                System.arraycopy( ixs, 0, ixs, nnull, nk );
+                System.arraycopy( nullIxs, 0, ixs, 0, nnull );
+            }
+        }
+        return ixs;
+    }
+
+    /**
+     * Performs a stable least significant digit radix sort on an array
+     * of keys considered as unsigned 64-bit integers,
+     * carrying along an array of payload values.
+     * Byte positions at which all keys are equal are skipped.
+     *
+     * @param  keys  keys, sorted in place
+     * @param  ixs   payload values, permuted in place along with keys
+     * @param  n     number of elements to sort
+     * @param  pool  pool for parallel execution, or null
+     */
+    static void radixSort( long[] keys, int[] ixs, int n,
+                           ForkJoinPool pool ) {
+        if ( n < 2 ) {
+            return;
+        }
+        long k0 = keys[ 0 ];
+        long diff = 0;
+        for ( int i = 1; i < n; i++ ) {
+            diff |= keys[ i ] ^ k0;
+        }
+        int nchunk = pool == null || n < 2 * PARALLEL_SORT_MIN
+                   ? 1
+                   : Math.min( 4 * pool.getParallelism(),
+                               n / PARALLEL_SORT_MIN );
+        long[] keys1 = keys;
+        int[] ixs1 = ixs;
+        long[] keys2 = new long[ n ];
+        int[] ixs2 = new int[ n ];
+        int[][] counts = new int[ nchunk ][];
+        for ( int shift = 0; shift < 64; shift += 8 ) {
+            if ( ( ( diff >>> shift ) & 0xff ) != 0 ) {
+                new RadixPass( keys1, ixs1, keys2, ixs2, n, shift, nchunk,
+                               counts ).run( pool );
+                long[] ktmp = keys1;
+                keys1 = keys2;
+                keys2 = ktmp;
+                int[] itmp = ixs1;
+                ixs1 = ixs2;
+                ixs2 = itmp;
+            }
+        }
+        if ( keys1 != keys ) {
+            System.arraycopy( keys1, 0, keys, 0, n );
+            System.arraycopy( ixs1, 0, ixs, 0, n );
+        }
+    }
+
+    /**
+     * Performs one pass of a radix sort, distributing elements from
+     * input to output arrays according to the value of one byte.
+     * The input is divided into contiguous chunks which are
+     * histogrammed and scattered concurrently.
+     */
+    private static class RadixPass {
+        private final long[] keysIn_;
+        private final int[] ixsIn_;
+        private final long[] keysOut_;
+        private final int[] ixsOut_;
+        private final int n_;
+        private final int shift_;
+        private final int nchunk_;
+        private final int[][] counts_;
+
+        /**
+         * Constructor.
+         *
+         * @param  keysIn  input keys
+         * @param  ixsIn   input payload
+         * @param  keysOut  output keys
+         * @param  ixsOut   output payload
+         * @param  n     number of elements
+         * @param  shift  bit offset of byte to sort on
+         * @param  nchunk  number of chunks
+         * @param  counts  workspace array with nchunk elements
+         */
+        RadixPass( long[] keysIn, int[] ixsIn, long[] keysOut, int[] ixsOut,
+                   int n, int shift, int nchunk, int[][] counts ) {
+            keysIn_ = keysIn;
+            ixsIn_ = ixsIn;
+            keysOut_ = keysOut;
+            ixsOut_ = ixsOut;
+            n_ = n;
+            shift_ = shift;
+            nchunk_ = nchunk;
+            counts_ = counts;
+        }
+
+        /**
+         * Executes this pass.
+         *
+         * @param  pool  pool for parallel execution, or null
+         */
+        void run( ForkJoinPool pool ) {
+            forEachChunk( pool, ic -> {
+                int[] count = new int[ 256 ];
+                for ( int i = chunkStart( ic ); i < chunkStart( ic + 1 );
+                      i++ ) {
+                    count[ (int) ( keysIn_[ i ] >>> shift_ ) & 0xff ]++;
+                }
+                counts_[ ic ] = count;
+            } );
+            int pos = 0;
+            for ( int d = 0; d < 256; d++ ) {
+                for ( int ic = 0; ic < nchunk_; ic++ ) {
+                    int c = counts_[ ic ][ d ];
+                    counts_[ ic ][ d ] = pos;
+                    pos += c;
+                }
+            }
+            forEachChunk( pool, ic -> {
+                int[] offsets = counts_[ ic ];
+                for ( int i = chunkStart( ic ); i < chunkStart( ic + 1 );
+                      i++ ) {
+                    long k = keysIn_[ i ];
+                    int j = offsets[ (int) ( k >>> shift_ ) & 0xff ]++;
+                    keysOut_[ j ] = k;
+                    ixsOut_[ j ] = ixsIn_[ i ];
+                }
+            } );
+        }
+
+        /**
+         * Returns the first element index of a chunk.
+         *
+         * @param  ic  chunk index, may be equal to nchunk
+         * @return  element index
+         */
+        private int chunkStart( int ic ) {
+            return (int) ( (long) n_ * ic / nchunk_ );
+        }
+
+        /**
+         * Invokes an action for each chunk index, in parallel if possible.
+         *
+         * @param  pool  pool, or null
+         * @param  action  action to perform on chunk index
+         */
+        private void forEachChunk( ForkJoinPool pool, IntConsumer action ) {
+            if ( pool == null || nchunk_ == 1 ) {
+                for ( int ic = 0; ic < nchunk_; ic++ ) {
+                    action.accept( ic );
+                }
+            }
+            else {
+                List<ForkJoinTask<?>> tasks =
+                    new ArrayList<ForkJoinTask<?>>();
+                for ( int ic = 0; ic < nchunk_; ic++ ) {
+                    final int ic0 = ic;
+                    tasks.add( ForkJoinTask
+                              .adapt( () -> action.accept( ic0 ) ) );
+                }
+                pool.invoke( new RecursiveAction() {
+                    protected void compute() {
+                        invokeAll( tasks );
+                    }
+                } );
+            }
+        }
+    }
+
+    /**
+     * Sorts part of an index array by the ordering of the records
+     * in a run.
+     *
+     * @param  run  run
+     * @param  ix   index array
+     * @param  work  workspace array the same size as <code>ix</code>
+     * @param  lo   lower bound of range to sort (inclusive)
+     * @param  hi   upper bound of range to sort (exclusive)
+     */
+    private static void mergeSort( KeyRun run, int[] ix, int[] work,
+                                   int lo, int hi ) {
+        if ( hi - lo <= INSERTION_SORT_MAX ) {
+            for ( int i = lo + 1; i < hi; i++ ) {
+                int v = ix[ i ];
+                int j = i - 1;
+                while ( j >= lo && run.compare( ix[ j ], run, v ) > 0 ) {
+                    ix[ j + 1 ] = ix[ j ];
+                    j--;
+                }
+                ix[ j + 1 ] = v;
+            }
+        }
+        else {
+            int mid = ( lo + hi ) >>> 1;
+            mergeSort( run, ix, work, lo, mid );
+            mergeSort( run, ix, work, mid, hi );
+            merge( run, ix, work, lo, mid, hi );
+        }
+    }
+
+    /**
+     * Merges two adjacent sorted ranges of an index array.
+     *
+     * @param  run  run
+     * @param  ix   index array
+     * @param  work  workspace array
+     * @param  lo   start of first range
+     * @param  mid  end of first range and start of second
+     * @param  hi   end of second range
+     */
+    private static void merge( KeyRun run, int[] ix, int[] work,
+                               int lo, int mid, int hi ) {
+        if ( run.compare( ix[ mid - 1 ], run, ix[ mid ] ) <= 0 ) {
+            return;
+        }
+        System.arraycopy( ix, lo, work, lo, hi - lo );
+        int i = lo;
+        int j = mid;
+        int k = lo;
+        while ( i < mid && j < hi ) {
+            ix[ k++ ] = run.compare( work[ j ], run, work[ i ] ) < 0
+                      ? work[ j++ ]
+                      : work[ i++ ];
+        }
+        while ( i < mid ) {
+            ix[ k++ ] = work[ i++ ];
+        }
+        while ( j < hi ) {
+            ix[ k++ ] = work[ j++ ];
+        }
+    }
+
+    /**
+     * ForkJoin task for parallel merge sort of an index array.
+     */
+    private static class SortTask extends RecursiveAction {
+        private final KeyRun run_;
+        private final int[] ix_;
+        private final int[] work_;
+        private final int lo_;
+        private final int hi_;
+
+        /**
+         * Constructor.
+         *
+         * @param  run  run
+         * @param  ix   index array
+         * @param  work  workspace array
+         * @param  lo   lower bound of range to sort (inclusive)
+         * @param  hi   upper bound of range to sort (exclusive)
+         */
+        SortTask( KeyRun run, int[] ix, int[] work, int lo, int hi ) {
+            run_ = run;
+            ix_ = ix;
+            work_ = work;
+            lo_ = lo;
+            hi_ = hi;
+        }
+
+        protected void compute() {
+            if ( hi_ - lo_ < 2 * PARALLEL_SORT_MIN ) {
+                mergeSort( run_, ix_, work_, lo_, hi_ );
+            }
+            else {
+                int mid = ( lo_ + hi_ ) >>> 1;
+                invokeAll( new SortTask( run_, ix_, work_, lo_, mid ),
+                           new SortTask( run_, ix_, work_, mid, hi_ ) );
+                merge( run_, ix_, work_, lo_, mid, hi_ );
+            }
+        }
+    }
+
+    /**
+     * Enumerates the ways in which sort key values may be stored.
+     */
+    private enum KeyType {
+
+        /** Floating point values, stored as double; NaN means blank. */
+        DOUBLE,
+
+        /** Integer values, stored as long. */
+        LONG,
+
+        /** Boolean values, stored as long 0 or 1. */
+        BOOLEAN,
+
+        /** Character values, stored as long. */
+        CHAR,
+
+        /** String values; empty string means blank. */
+        STRING,
+
+        /** Other values, which cannot be serialized. */
+        OBJECT;
+
+        /**
+         * Returns the key type appropriate for a given value class.
+         *
+         * @param  clazz  content class
+         * @return  key type
+         */
+        static KeyType forClass( Class<?> clazz ) {
+            if ( clazz == Double.class || clazz == Float.class ) {
+                return DOUBLE;
+            }
+            else if ( clazz == Long.class || clazz == Integer.class ||
+                      clazz == Short.class || clazz == Byte.class ) {
+                return LONG;
+            }
+            else if ( clazz == Boolean.class ) {
+                return BOOLEAN;
+            }
+            else if ( clazz == Character.class ) {
+                return CHAR;
+            }
+            else if ( clazz == String.class ) {
+                return STRING;
+            }
+            else {
+                return OBJECT;
+            }
+        }
+
+        /**
+         * Creates a new buffer for storing key values of this type.
+         *
+         * @param  size  initial capacity
+         * @return  new buffer
+         */
+        KeyBuffer createBuffer( int size ) {
+            switch ( this ) {
+                case DOUBLE:
+                    return new DoubleKeyBuffer( size );
+                case LONG:
+                case BOOLEAN:
+                case CHAR:
+                    return new LongKeyBuffer( this, size );
+                case STRING:
+                    return new StringKeyBuffer( size );
+                default:
+                    return new ObjectKeyBuffer( size );
+            }
+        }
+    }
+
+    /**
+     * Stores a sequence of key values for a single sort key.
+     */
+    private static abstract class KeyBuffer {
+
+        /**
+         * Returns the number of values this buffer can hold.
+         *
+         * @return  capacity
+         */
+        abstract int capacity();
+
+        /**
+         * Increases the capacity of this buffer.
+         *
+         * @param  size  new capacity
+         */
+        abstract void resize( int size );
+
+        /**
+         * Reads a value from the current row of a row sequence
+         * into a given position of this buffer.
+         *
+         * @param  rseq  row sequence
+         * @param  icol  column index
+         * @param  i   buffer index
+         */
+        abstract void readCell( RowSequence rseq, int icol, int i )
+                throws IOException;
+
+        /**
+         * Indicates whether a stored value is blank.
+         *
+         * @param  i  buffer index
+         * @return  true iff value at i is blank
+         */
+        abstract boolean isNull( int i );
+
+        /**
+         * Compares two non-blank values according to their natural order.
+         *
+         * @param  i1  index in this buffer
+         * @param  other  other buffer, of the same type as this one
+         * @param  i2  index in other buffer
+         * @return  comparison result
+         */
+        abstract int compareValues( int i1, KeyBuffer other, int i2 );
+
+        /**
+         * Serializes a stored value.
+         *
+         * @param  out  destination
+         * @param  i  buffer index
+         */
+        abstract void writeValue( DataOutput out, int i ) throws IOException;
+
+        /**
+         * Deserializes a value into this buffer.
+         *
+         * @param  in  source
+         * @param  i   buffer index
+         */
+        abstract void readValue( DataInput in, int i ) throws IOException;
+
+        /**
+         * Compares two values, taking account of blanks.
+         *
+         * @param  i1  index in this buffer
+         * @param  other  other buffer, of the same type as this one
+         * @param  i2  index in other buffer
+         * @param  nullsLast  true for blanks last in collation order
+         * @return  comparison result
+         */
+        final int compare( int i1, KeyBuffer other, int i2,
+                           boolean nullsLast ) {
+            boolean null1 = isNull( i1 );
+            boolean null2 = other.isNull( i2 );
+            if ( null1 || null2 ) {
+                return null1 == null2 ? 0
+                                      : ( null1 == nullsLast ? +1 : -1 );
+            }
+            else {
+                return compareValues( i1, other, i2 );
+            }
+        }
+    }
+
+    /**
+     * KeyBuffer whose non-blank values can be mapped to 64-bit keys
+     * whose unsigned integer ordering is the same as the natural
+     * ordering of the values.
+     */
+    private static abstract class PrimitiveKeyBuffer extends KeyBuffer {
+
+        /**
+         * Returns a key suitable for radix sorting.
+         *
+         * @param  i  index of non-blank value
+         * @return  key with unsigned ordering matching value ordering
+         */
+        abstract long getRadixKey( int i );
+    }
+
+    /**
+     * KeyBuffer implementation for floating point values.
+     */
+    private static class DoubleKeyBuffer extends PrimitiveKeyBuffer {
+        private double[] values_;
+        DoubleKeyBuffer( int size ) {
+            values_ = new double[ size ];
+        }
+        int capacity() {
+            return values_.length;
+        }
+        void resize( int size ) {
+            values_ = Arrays.copyOf( values_, size );
+        }
+        void readCell( RowSequence rseq, int icol, int i )
+                throws IOException {
+            values_[ i ] = rseq.getDouble( icol );
+        }
+        boolean isNull( int i ) {
+            return Double.isNaN( values_[ i ] );
+        }
+        int compareValues( int i1, KeyBuffer other, int i2 ) {
+            return Double.compare( values_[ i1 ],
+                                   ((DoubleKeyBuffer) other).values_[ i2 ] );
+        }
+        void writeValue( DataOutput out, int i ) throws IOException {
+            out.writeDouble( values_[ i ] );
+        }
+        void readValue( DataInput in, int i ) throws IOException {
+            values_[ i ] = in.readDouble();
+        }
+        long getRadixKey( int i ) {
+
+            /* Flip all bits of negative values and the sign bit of
+             * positive ones; this gives the same order as Double.compare. */
+            long bits = Double.doubleToLongBits( values_[ i ] );
+            return bits < 0 ? ~bits : bits ^ Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * KeyBuffer implementation for values that can be represented
+     * as long integers.
+     */
+    private static class LongKeyBuffer extends PrimitiveKeyBuffer {
+        private final KeyType type_;
+        private long[] values_;
+        private boolean[] nulls_;
+        LongKeyBuffer( KeyType type, int size ) {
+            type_ = type;
+            values_ = new long[ size ];
+            nulls_ = new boolean[ size ];
+        }
+        int capacity() {
+            return values_.length;
+        }
+        void resize( int size ) {
+            values_ = Arrays.copyOf( values_, size );
+            nulls_ = Arrays.copyOf( nulls_, size );
+        }
+        void readCell( RowSequence rseq, int icol, int i )
+                throws IOException {
+            boolean isNull = rseq.isNull( icol );
+            nulls_[ i ] = isNull;
+            if ( isNull ) {
+                values_[ i ] = 0;
+            }
+            else if ( type_ == KeyType.BOOLEAN ) {
+                values_[ i ] = rseq.getBoolean( icol ) ? 1 : 0;
+            }
+            else if ( type_ == KeyType.CHAR ) {
+                values_[ i ] = ((Character) rseq.getCell( icol )).charValue();
+            }
+            else {
+                values_[ i ] = rseq.getLong( icol );
+            }
+        }
+        boolean isNull( int i ) {
+            return nulls_[ i ];
+        }
+        int compareValues( int i1, KeyBuffer other, int i2 ) {
+            return Long.compare( values_[ i1 ],
+                                 ((LongKeyBuffer) other).values_[ i2 ] );
+        }
+        void writeValue( DataOutput out, int i ) throws IOException {
+            out.writeBoolean( nulls_[ i ] );
+            out.writeLong( values_[ i ] );
+        }
+        void readValue( DataInput in, int i ) throws IOException {
+            nulls_[ i ] = in.readBoolean();
+            values_[ i ] = in.readLong();
+        }
+        long getRadixKey( int i ) {
+            return values_[ i ] ^ Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * KeyBuffer implementation for string values.
+     */
+    private static class StringKeyBuffer extends KeyBuffer {
+        private String[] values_;
+        StringKeyBuffer( int size ) {
+            values_ = new String[ size ];
+        }
+        int capacity() {
+            return values_.length;
+        }
+        void resize( int size ) {
+            values_ = Arrays.copyOf( values_, size );
+        }
+        void readCell( RowSequence rseq, int icol, int i )
+                throws IOException {
+            Object value = rseq.getCell( icol );
+            values_[ i ] = Tables.isBlank( value ) ? null : (String) value;
+        }
+        boolean isNull( int i ) {
+            return values_[ i ] == null;
+        }
+        int compareValues( int i1, KeyBuffer other, int i2 ) {
+            return values_[ i1 ]
+                  .compareTo( ((StringKeyBuffer) other).values_[ i2 ] );
+        }
+        void writeValue( DataOutput out, int i ) throws IOException {
+            String value = values_[ i ];
+            if ( value == null ) {
+                out.writeInt( -1 );
+            }
+            else {
+                byte[] buf = value.getBytes( StandardCharsets.UTF_8 );
+                out.writeInt( buf.length );
+                out.write( buf );
+            }
+        }
+        void readValue( DataInput in, int i ) throws IOException {
+            int leng = in.readInt();
+            if ( leng < 0 ) {
+                values_[ i ] = null;
+            }
+            else {
+                byte[] buf = new byte[ leng ];
+                in.readFully( buf );
+                values_[ i ] = new String( buf, StandardCharsets.UTF_8 );
+            }
+        }
+    }
+
+    /**
+     * KeyBuffer implementation for arbitrary comparable objects.
+     * These cannot be serialized.
+     */
+    private static class ObjectKeyBuffer extends KeyBuffer {
+        private Object[] values_;
+        ObjectKeyBuffer( int size ) {
+            values_ = new Object[ size ];
+        }
+        int capacity() {
+            return values_.length;
+        }
+        void resize( int size ) {
+            values_ = Arrays.copyOf( values_, size );
+        }
+        void readCell( RowSequence rseq, int icol, int i )
+                throws IOException {
+            Object value = rseq.getCell( icol );
+            values_[ i ] = Tables.isBlank( value ) ? null : value;
+        }
+        boolean isNull( int i ) {
+            return values_[ i ] == null;
+        }
+        @SuppressWarnings("unchecked")
+        int compareValues( int i1, KeyBuffer other, int i2 ) {
+            return ((Comparable<Object>) values_[ i1 ])
+                  .compareTo( ((ObjectKeyBuffer) other).values_[ i2 ] );
+        }
+        void writeValue( DataOutput out, int i ) {
+            throw new UnsupportedOperationException();
+        }
+        void readValue( DataInput in, int i ) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Holds row indices and key values for a sequence of rows.
+     */
+    private static class KeyRun {
+        final KeyBuffer[] keys_;
+        final boolean up_;
+        final boolean nullsLast_;
+        long[] rows_;
+        int size_;
+
+        /**
+         * Constructor.
+         *
+         * @param  types   key types
+         * @param  size   initial capacity
+         * @param  up  true for ascending order
+         * @param  nullsLast  true for blanks last in collation order
+         */
+        KeyRun( KeyType[] types, int size, boolean up, boolean nullsLast ) {
+            up_ = up;
+            nullsLast_ = nullsLast;
+            keys_ = new KeyBuffer[ types.length ];
+            for ( int ik = 0; ik < types.length; ik++ ) {
+                keys_[ ik ] = types[ ik ].createBuffer( size );
+            }
+            rows_ = new long[ size ];
+        }
+
+        /**
+         * Returns the number of records this run can hold.
+         *
+         * @return  capacity
+         */
+        int capacity() {
+            return rows_.length;
+        }
+
+        /**
+         * Increases the capacity of this run.
+         *
+         * @param  size  new capacity
+         */
+        void ensureCapacity( int size ) {
+            if ( size > rows_.length ) {
+                rows_ = Arrays.copyOf( rows_, size );
+                for ( KeyBuffer key : keys_ ) {
+                    key.resize( size );
+                }
+            }
+        }
+
+        /**
+         * Appends the key values from the current row of a sequence.
+         *
+         * @param  rseq  row sequence positioned at row irow
+         * @param  irow  row index
+         */
+        void readRow( RowSequence rseq, long irow ) throws IOException {
+            int i = size_++;
+            rows_[ i ] = irow;
+            for ( int ik = 0; ik < keys_.length; ik++ ) {
+                keys_[ ik ].readCell( rseq, ik, i );
+            }
+        }
+
+        /**
+         * Stores the key values from the current row of a sequence
+         * at a given position, where the run index is the row index.
+         * The size of this run is not affected.
+         * May be called concurrently for different indices.
+         *
+         * @param  rseq  row sequence positioned at row i
+         * @param  i   run index and row index
+         */
+        void setRow( RowSequence rseq, int i ) throws IOException {
+            rows_[ i ] = i;
+            for ( int ik = 0; ik < keys_.length; ik++ ) {
+                keys_[ ik ].readCell( rseq, ik, i );
+            }
+        }
+
+        /**
+         * Compares two records.  Records with equal keys are ordered
+         * by row index, so the ordering is total.
+         *
+         * @param  i1  index in this run
+         * @param  other  other run, with the same key types as this one
+         * @param  i2  index in other run
+         * @return  comparison result
+         */
+        int compare( int i1, KeyRun other, int i2 ) {
+            for ( int ik = 0; ik < keys_.length; ik++ ) {
+                int c = keys_[ ik ].compare( i1, other.keys_[ ik ], i2,
+                                             nullsLast_ );
+                if ( c != 0 ) {
+                    return up_ ? c : -c;
+                }
+            }
+            return Long.compare( rows_[ i1 ], other.rows_[ i2 ] );
+        }
+
+        /**
+         * Serializes a record.
+         *
+         * @param  out  destination
+         * @param  i   run index
+         */
+        void writeRecord( DataOutput out, int i ) throws IOException {
+            out.writeLong( rows_[ i ] );
+            for ( KeyBuffer key : keys_ ) {
+                key.writeValue( out, i );
+            }
+        }
+
+        /**
+         * Deserializes a record.
+         *
+         * @param  in  source
+         * @param  i   run index
+         */
+        void readRecord( DataInput in, int i ) throws IOException {
+            rows_[ i ] = in.readLong();
+            for ( KeyBuffer key : keys_ ) {
+                key.readValue( in, i );
+            }
+        }
+    }
+
+    /**
+     * Iterates over row indices in sorted order.
+     */
+    private interface IndexSequence extends Closeable {
+
+        /**
+         * Returns the total number of indices in this sequence.
+         *
+         * @return  row count
+         */
+        long getCount();
+
+        /**
+         * Advances to the next index.
+         *
+         * @return  true iff there is another index
+         */
+        boolean next() throws IOException;
+
+        /**
+         * Returns the current index.
+         *
+         * @return  row index
+         */
+        long getIndex();
+    }
+
+    /**
+     * IndexSequence implementation based on a single in-memory run.
+     */
+    private static class RunIndexSequence implements IndexSequence {
+        private final KeyRun run_;
+        private final int[] perm_;
+        private int ix_;
+
+        /**
+         * Constructor.
+         *
+         * @param  run  run
+         * @param  perm  sorted order of run indices
+         */
+        RunIndexSequence( KeyRun run, int[] perm ) {
+            run_ = run;
+            perm_ = perm;
+            ix_ = -1;
+        }
+        public long getCount() {
+            return perm_.length;
+        }
+        public boolean next() {
+            return ++ix_ < perm_.length;
+        }
+        public long getIndex() {
+            return run_.rows_[ perm_[ ix_ ] ];
+        }
+        public void close() {
+        }
+    }
+
+    /**
+     * IndexSequence implementation that performs a k-way merge of
+     * a number of sorted runs stored in byte stores.
+     */
+    private static class MergeIndexSequence implements IndexSequence {
+        private final PriorityQueue<RunReader> queue_;
+        private final List<RunReader> readers_;
+        private final long count_;
+        private RunReader current_;
+
+        /**
+         * Constructor.
+         *
+         * @param  stores  byte stores containing sorted runs;
+         *                 they are closed when this sequence is closed
+         * @param  types   key types
+         * @param  up  true for ascending order
+         * @param  nullsLast  true for blanks last in collation order
+         */
+        MergeIndexSequence( List<ByteStore> stores, KeyType[] types,
+                            boolean up, boolean nullsLast )
+                throws IOException {
+            queue_ = new PriorityQueue<RunReader>( Math.max( 1,
+                                                            stores.size() ),
+                (r1, r2) -> r1.rec_.compare( 0, r2.rec_, 0 ) );
+            readers_ = new ArrayList<RunReader>();
+            long count = 0;
+            for ( ByteStore store : stores ) {
+                RunReader reader =
+                    new RunReader( store, new KeyRun( types, 1, up,
+                                                      nullsLast ) );
+                readers_.add( reader );
+                count += reader.remaining_;
+                if ( reader.advance() ) {
+                    queue_.add( reader );
+                }
+            }
+            count_ = count;
+        }
+
+        public long getCount() {
+            return count_;
+        }
+
+        public boolean next() throws IOException {
+            if ( current_ != null && current_.advance() ) {
+                queue_.add( current_ );
+            }
+            current_ = queue_.poll();
+            return current_ != null;
+        }
+
+        public long getIndex() {
+            return current_.rec_.rows_[ 0 ];
+        }
+
+        /**
+         * Serializes the current record.
+         *
+         * @param  out  destination
+         */
+        void writeCurrent( DataOutput out ) throws IOException {
+            current_.rec_.writeRecord( out, 0 );
+        }
+
+        public void close() {
+            queue_.clear();
+            for ( RunReader reader : readers_ ) {
+                reader.store_.close();
+            }
+            readers_.clear();
+        }
+    }
+
+    /**
+     * Reads records sequentially from a byte store containing a sorted run.
+     */
+    private static class RunReader {
+        final ByteStore store_;
+        final KeyRun rec_;
+        final DataInputStream in_;
+        long remaining_;
+
+        /**
+         * Constructor.
+         *
+         * @param  store  byte store
+         * @param  rec   single-record run used to hold the current record
+         */
+        RunReader( ByteStore store, KeyRun rec ) throws IOException {
+            store_ = store;
+            rec_ = rec;
+            rec_.size_ = 1;
+            in_ = new DataInputStream(
+                      new BufferedInputStream(
+                          new BuffersInputStream( store.toByteBuffers() ),
+                          16 * 1024 ) );
+            remaining_ = in_.readLong();
+        }
+
+        /**
+         * Reads the next record into the current record slot.
+         *
+         * @return  true iff a record was read
+         */
+        boolean advance() throws IOException {
+            if ( remaining_ > 0 ) {
+                remaining_--;
+                rec_.readRecord( in_, 0 );
+                return true;
+            }
+            else {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * InputStream that reads sequentially from an array of byte buffers.
+     */
+    private static class BuffersInputStream extends InputStream {
+        private final Iterator<ByteBuffer> bufIt_;
+        private ByteBuffer buf_;
+
+        /**
+         * Constructor.
+         *
+         * @param  bufs  byte buffers
+         */
+        BuffersInputStream( ByteBuffer[] bufs ) {
+            bufIt_ = Arrays.asList( bufs ).iterator();
+            buf_ = ByteBuffer.allocate( 0 );
+        }
+
+        @Override
+        public int read() {
+            return nextBuffer() ? ( buf_.get() & 0xff ) : -1;
+        }
+
+        @Override
+        public int read( byte[] b, int off, int len ) {
+            if ( len == 0 ) {
+                return 0;
+            }
+            if ( ! nextBuffer() ) {
+                return -1;
+            }
+            int n = Math.min( len, buf_.remaining() );
+            buf_.get( b, off, n );
+            return n;
+        }
+
+        /**
+         * Ensures that the current buffer has some remaining bytes
+         * if possible.
+         *
+         * @return  true iff there are bytes remaining
+         */
+        private boolean nextBuffer() {
+            while ( ! buf_.hasRemaining() ) {
+                if ( bufIt_.hasNext() ) {
+                    buf_ = bufIt_.next().duplicate();
+                }
+                else {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -41,6 +41,28 @@ public abstract class PrimitiveArrayColumn extends ArrayColumn {
                                                       : readElement( irow );
     }
 
+    public boolean isNull( long lrow ) {
+        return flags.get( (int) lrow ) == trueMeansNull;
+    }
+
+    public double readDouble( long lrow ) {
+        int irow = (int) lrow;
+        return flags.get( irow ) == trueMeansNull ? Double.NaN
+                                                  : readDoubleElement( irow );
+    }
+
+    public long readLong( long lrow ) {
+        int irow = (int) lrow;
+        return flags.get( irow ) == trueMeansNull ? 0L
+                                                  : readLongElement( irow );
+    }
+
+    public boolean readBoolean( long lrow ) {
+        int irow = (int) lrow;
+        return flags.get( irow ) == trueMeansNull ? false
+                                                  : readBooleanElement( irow );
+    }
+
     /**
      * Sets all the elements in this column to <tt>null</tt>.
      * Each will remain <tt>null</tt> until it is explicitly set (to a
@@ -67,6 +89,42 @@ public abstract class PrimitiveArrayColumn extends ArrayColumn {
     abstract void storeElement( int irow, Object val );
     abstract Object readElement( int irow );
 
+    /**
+     * Returns the numeric value of a non-null element.
+     * The default implementation returns NaN, suitable for
+     * non-numeric columns.
+     *
+     * @param  irow  row index
+     * @return  numeric value
+     */
+    double readDoubleElement( int irow ) {
+        return Double.NaN;
+    }
+
+    /**
+     * Returns the integer value of a non-null element.
+     * The default implementation returns zero, suitable for
+     * non-numeric columns.
+     *
+     * @param  irow  row index
+     * @return  integer value
+     */
+    long readLongElement( int irow ) {
+        return 0L;
+    }
+
+    /**
+     * Returns the boolean value of a non-null element.
+     * The default implementation returns false, suitable for
+     * non-boolean columns.
+     *
+     * @param  irow  row index
+     * @return  boolean value
+     */
+    boolean readBooleanElement( int irow ) {
+        return false;
+    }
+
     /**
      * Constructs a new PrimitiveArrayColumn based on a given data array.
      * The <tt>contentClass</tt> of the given base column info must
@@ -206,6 +264,9 @@ public abstract class PrimitiveArrayColumn extends ArrayColumn {
         Object readElement( int irow ) {
             return data[ irow ] ? Boolean.TRUE : Boolean.FALSE;
         }
+        boolean readBooleanElement( int irow ) {
+            return data[ irow ];
+        }
     }
 
     private static class CharacterArrayColumn extends PrimitiveArrayColumn {
@@ -236,6 +297,12 @@ public abstract class PrimitiveArrayColumn extends ArrayColumn {
         Object readElement( int irow ) {
             return new Byte( data[ irow ] );
         }
+        double readDoubleElement( int irow ) {
+            return data[ irow ];
+        }
+        long readLongElement( int irow ) {
+            return data[ irow ];
+        }
     }
     private static class ShortArrayColumn extends PrimitiveArrayColumn {
         short[] data;
@@ -250,6 +317,12 @@ public abstract class PrimitiveArrayColumn extends ArrayColumn {
         Object readElement( int irow ) {
             return new Short( data[ irow ] );
         }
+        double readDoubleElement( int irow ) {
+            return data[ irow ];
+        }
+        long readLongElement( int irow ) {
+            return data[ irow ];
+        }
     }
 
     private static class IntegerArrayColumn extends PrimitiveArrayColumn {
@@ -265,6 +338,12 @@ public abstract class PrimitiveArrayColumn extends ArrayColumn {
         Object readElement( int irow ) {
             return new Integer( data[ irow ] );
         }
+        double readDoubleElement( int irow ) {
+            return data[ irow ];
+        }
+        long readLongElement( int irow ) {
+            return data[ irow ];
+        }
     }
 
     private static class LongArrayColumn extends PrimitiveArrayColumn {
@@ -280,6 +359,12 @@ public abstract class PrimitiveArrayColumn extends ArrayColumn {
         Object readElement( int irow ) {
             return new Long( data[ irow ] );
         }
+        double readDoubleElement( int irow ) {
+            return data[ irow ];
+        }
+        long readLongElement( int irow ) {
+            return data[ irow ];
+        }
     }
 
     private static class FloatArrayColumn extends PrimitiveArrayColumn {
@@ -295,6 +380,12 @@ public abstract class PrimitiveArrayColumn extends ArrayColumn {
         Object readElement( int irow ) {
             return new Float( data[ irow ] );
         }
+        double readDoubleElement( int irow ) {
+            return data[ irow ];
+        }
+        long readLongElement( int irow ) {
+            return (long) data[ irow ];
+        }
     }
 
     private static class DoubleArrayColumn extends PrimitiveArrayColumn {
@@ -310,5 +401,11 @@ public abstract class PrimitiveArrayColumn extends ArrayColumn {
         Object readElement( int irow ) {
             return new Double( data[ irow ] );
         }
+        double readDoubleElement( int irow ) {
+            return data[ irow ];
+        }
+        long readLongElement( int irow ) {
+            return (long) data[ irow ];
+        }
     }
 }
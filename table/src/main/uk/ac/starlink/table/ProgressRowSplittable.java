@@ -70,6 +70,22 @@ public class ProgressRowSplittable implements RowSplittable {
         return base_.getRow();
     }
 
+    public double getDouble( int icol ) throws IOException {
+        return base_.getDouble( icol );
+    }
+
+    public long getLong( int icol ) throws IOException {
+        return base_.getLong( icol );
+    }
+
+    public boolean getBoolean( int icol ) throws IOException {
+        return base_.getBoolean( icol );
+    }
+
+    public boolean isNull( int icol ) throws IOException {
+        return base_.isNull( icol );
+    }
+
     public LongSupplier rowIndex() {
         return base_.rowIndex();
     }
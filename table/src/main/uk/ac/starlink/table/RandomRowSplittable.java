@@ -95,6 +95,22 @@ public class RandomRowSplittable implements RowSplittable {
         return access_.getRow();
     }
 
+    public double getDouble( int icol ) throws IOException {
+        return access_.getDouble( icol );
+    }
+
+    public long getLong( int icol ) throws IOException {
+        return access_.getLong( icol );
+    }
+
+    public boolean getBoolean( int icol ) throws IOException {
+        return access_.getBoolean( icol );
+    }
+
+    public boolean isNull( int icol ) throws IOException {
+        return access_.isNull( icol );
+    }
+
     public void close() throws IOException {
         access_.close();
     }
@@ -0,0 +1,43 @@
+package uk.ac.starlink.table;
+
+import java.io.IOException;
+
+/**
+ * Mixin interface for a StarTable that can cheaply provide a view
+ * of itself restricted to rows whose value in a given numeric column
+ * may lie within a given range.
+ * This is typically implemented by tables in formats that store
+ * per-block value statistics, so that blocks which cannot contain
+ * any matching rows can be skipped without being read.
+ *
+ * <p>The restriction is conservative: the returned table must contain
+ * every row of this table for which the column value lies in the
+ * given range, but it may contain other rows as well.
+ * Callers should therefore still apply the exact test to each row.
+ * Row order is preserved.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+public interface RangeRestrictable extends StarTable {
+
+    /**
+     * Returns a table with the same columns as this one,
+     * containing a superset of those rows for which the value
+     * in a given column lies within a given range.
+     * Rows for which the column value is null or NaN
+     * need not be included.
+     *
+     * <p>If no useful restriction can be made, this table itself
+     * may be returned.
+     *
+     * @param  icol  index of a numeric column
+     * @param  lo   lower bound of range (inclusive);
+     *              may be <code>-Infinity</code>
+     * @param  hi   upper bound of range (inclusive);
+     *              may be <code>+Infinity</code>
+     * @return   table containing at least all the matching rows
+     */
+    StarTable restrictRange( int icol, double lo, double hi )
+            throws IOException;
+}
@@ -32,4 +32,72 @@ public interface RowData {
      *           containing cell data; may be reused by subsequent invocations
      */
     Object[] getRow() throws IOException;
+
+    /**
+     * Returns the contents of one cell in this row as a double precision
+     * value.  This may be used to avoid object creation for numeric
+     * columns.  Blank and non-numeric values are returned as NaN.
+     *
+     * <p>The default implementation calls {@link #getCell};
+     * implementations may override it to provide more efficient access.
+     *
+     * @param   icol  column index
+     * @return   numeric cell contents, or NaN
+     * @throws   IOException  if there's a problem reading the value
+     */
+    default double getDouble( int icol ) throws IOException {
+        Object value = getCell( icol );
+        return value instanceof Number ? ((Number) value).doubleValue()
+                                       : Double.NaN;
+    }
+
+    /**
+     * Returns the contents of one cell in this row as a long integer value.
+     * This may be used to avoid object creation for integer columns.
+     * Blank and non-numeric values are returned as zero;
+     * use {@link #isNull} to distinguish these cases.
+     *
+     * <p>The default implementation calls {@link #getCell};
+     * implementations may override it to provide more efficient access.
+     *
+     * @param   icol  column index
+     * @return   integer cell contents, or 0
+     * @throws   IOException  if there's a problem reading the value
+     */
+    default long getLong( int icol ) throws IOException {
+        Object value = getCell( icol );
+        return value instanceof Number ? ((Number) value).longValue()
+                                       : 0L;
+    }
+
+    /**
+     * Returns the contents of one cell in this row as a boolean value.
+     * Blank and non-boolean values are returned as false;
+     * use {@link #isNull} to distinguish these cases.
+     *
+     * <p>The default implementation calls {@link #getCell};
+     * implementations may override it to provide more efficient access.
+     *
+     * @param   icol  column index
+     * @return   boolean cell contents, or false
+     * @throws   IOException  if there's a problem reading the value
+     */
+    default boolean getBoolean( int icol ) throws IOException {
+        Object value = getCell( icol );
+        return value instanceof Boolean && ((Boolean) value).booleanValue();
+    }
+
+    /**
+     * Indicates whether the contents of one cell in this row is null.
+     *
+     * <p>The default implementation calls {@link #getCell};
+     * implementations may override it to provide more efficient access.
+     *
+     * @param   icol  column index
+     * @return   true iff the cell value is null
+     * @throws   IOException  if there's a problem reading the value
+     */
+    default boolean isNull( int icol ) throws IOException {
+        return getCell( icol ) == null;
+    }
 }
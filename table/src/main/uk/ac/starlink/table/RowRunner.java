@@ -2,8 +2,10 @@ package uk.ac.starlink.table;
 
 import java.io.IOException;
 import java.util.function.Supplier;
+import uk.ac.starlink.util.SplitCollector;
 import uk.ac.starlink.util.SplitPolicy;
 import uk.ac.starlink.util.SplitProcessor;
+import uk.ac.starlink.util.Splittable;
 
 /**
  * Manages potentially parallel processing of StarTable row data.
@@ -13,7 +15,7 @@ import uk.ac.starlink.util.SplitProcessor;
  */
 public class RowRunner {
 
-    private final SplitProcessor<RowSplittable> processor_;
+    private final SplitProcessor<?> processor_;
 
     /** Default split policy. */
     public static final SplitPolicy DFLT_POLICY = SplitPolicy.DFLT_POLICY;
@@ -21,7 +23,11 @@ public class RowRunner {
     /** Determines whether the default parallel instance uses pooling. */
     private static final boolean STD_IS_POOL = false;
 
-    /** General purpose instance; will be parallel for suitable environments. */
+    /**
+     * General purpose instance; will be parallel for suitable environments.
+     * This uses the default pool, which may be configured using
+     * {@link uk.ac.starlink.util.SplitPools}.
+     */
     public static final RowRunner DEFAULT =
         new RowRunner( SplitProcessor
                       .createStandardProcessor( DFLT_POLICY, STD_IS_POOL ) );
@@ -42,10 +48,40 @@ public class RowRunner {
      * @param  processor   processor that manages the executions
      */
     public RowRunner( SplitProcessor<?> processor ) {
-        @SuppressWarnings("unchecked")
-        SplitProcessor<RowSplittable> rowProcessor =
-            (SplitProcessor<RowSplittable>) processor;
-        processor_ = rowProcessor;
+        processor_ = processor;
+    }
+
+    /**
+     * Returns a general purpose instance that executes according to
+     * a given split policy.
+     * This can be used to run a particular task in a dedicated pool,
+     * for instance one acquired from
+     * {@link uk.ac.starlink.util.SplitPools}.
+     * If the policy's pool has a parallelism of 1,
+     * execution will be sequential.
+     *
+     * @param  policy  split policy
+     * @return  new runner
+     */
+    public static RowRunner createStandardRunner( SplitPolicy policy ) {
+        return new RowRunner( SplitProcessor
+                             .createStandardProcessor( policy, STD_IS_POOL ) );
+    }
+
+    /**
+     * Returns a general purpose instance that executes in a named
+     * dedicated pool with a given parallelism.
+     *
+     * @param  poolName  pool name
+     * @param  parallelism  pool parallelism
+     * @return  new runner
+     * @see   uk.ac.starlink.util.SplitPools#getPool
+     */
+    public static RowRunner createPoolRunner( String poolName,
+                                              int parallelism ) {
+        return createStandardRunner( SplitPolicy
+                                    .createPoolPolicy( poolName,
+                                                       parallelism ) );
     }
 
     /**
@@ -57,9 +93,32 @@ public class RowRunner {
      */
     public <A> A collect( RowCollector<A> collector, StarTable table )
             throws IOException {
-        RowSplittable splittable = createRowSplittable( table );
+        return collect( collector, createRowSplittable( table ) );
+    }
+
+    /**
+     * Performs a collection operation on a splittable object,
+     * using the same execution policy as is used for table rows.
+     * The splittable does not have to represent table rows,
+     * so this can be used for parallel processing of other
+     * data structures in a way that is consistent with table processing.
+     *
+     * <p>If the collector throws a RuntimeException whose cause chain
+     * includes an IOException, an IOException will be thrown from
+     * this method.
+     *
+     * @param   collector   collector defining operation
+     * @param   content    splittable object supplying data
+     * @return   result of collection
+     */
+    public <S extends Splittable<S>,A> A collect( SplitCollector<S,A>
+                                                      collector,
+                                                  S content )
+            throws IOException {
+        @SuppressWarnings("unchecked")
+        SplitProcessor<S> processor = (SplitProcessor<S>) processor_;
         return invokeWithSmuggledIOException(
-            () -> processor_.collect( collector, splittable )
+            () -> processor.collect( collector, content )
         );
     }
 
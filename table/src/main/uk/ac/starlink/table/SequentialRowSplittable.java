@@ -46,6 +46,7 @@ public class SequentialRowSplittable implements RowSplittable {
     public SequentialRowSplittable( RowSequence rseq, long nrow ) {
         rseq_ = rseq;
         nrow_ = nrow;
+        irow_ = -1;
     }
 
     public long splittableSize() {
@@ -73,6 +74,22 @@ public class SequentialRowSplittable implements RowSplittable {
         return rseq_.getRow();
     }
 
+    public double getDouble( int icol ) throws IOException {
+        return rseq_.getDouble( icol );
+    }
+
+    public long getLong( int icol ) throws IOException {
+        return rseq_.getLong( icol );
+    }
+
+    public boolean getBoolean( int icol ) throws IOException {
+        return rseq_.getBoolean( icol );
+    }
+
+    public boolean isNull( int icol ) throws IOException {
+        return rseq_.isNull( icol );
+    }
+
     public void close() throws IOException {
         rseq_.close();
     }
@@ -92,6 +92,8 @@ import uk.ac.starlink.util.URLDataSource;
  *      (format name="ecsv")
  * <li> {@link uk.ac.starlink.feather.FeatherTableBuilder}
  *      (format name="feather")
+ * <li> {@link uk.ac.starlink.parquet.ParquetTableBuilder}
+ *      (format name="parquet")
  * </ul>
  *
  * <p>The following additional handlers are installed in the
@@ -191,6 +193,7 @@ public class StarTableFactory {
         "uk.ac.starlink.cdf.CdfTableBuilder",
         "uk.ac.starlink.ecsv.EcsvTableBuilder",
         "uk.ac.starlink.feather.FeatherTableBuilder",
+        "uk.ac.starlink.parquet.ParquetTableBuilder",
         "uk.ac.starlink.gbin.GbinTableBuilder",
     };
     private static String[] knownBuilderClasses = {
@@ -48,6 +48,7 @@ import uk.ac.starlink.util.Loader;
  * <li> {@link uk.ac.starlink.votable.VOTableWriter}
  * <li> {@link uk.ac.starlink.ecsv.EcsvTableWriter}
  * <li> {@link uk.ac.starlink.feather.FeatherTableWriter}
+ * <li> {@link uk.ac.starlink.parquet.ParquetTableWriter}
  * <li> {@link uk.ac.starlink.table.formats.TextTableWriter}
  * <li> {@link uk.ac.starlink.table.formats.AsciiTableWriter}
  * <li> {@link uk.ac.starlink.table.formats.CsvTableWriter}
@@ -81,6 +82,7 @@ public class StarTableOutput {
         "uk.ac.starlink.votable.VOTableWriter",
         "uk.ac.starlink.ecsv.EcsvTableWriter",
         "uk.ac.starlink.feather.FeatherTableWriter",
+        "uk.ac.starlink.parquet.ParquetTableWriter",
         TextTableWriter.class.getName(),
         AsciiTableWriter.class.getName(),
         CsvTableWriter.class.getName(),
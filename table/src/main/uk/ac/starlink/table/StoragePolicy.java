@@ -12,6 +12,7 @@ import uk.ac.starlink.table.storage.DiscardRowStore;
 import uk.ac.starlink.table.storage.DiskRowStore;
 import uk.ac.starlink.table.storage.FileByteStore;
 import uk.ac.starlink.table.storage.MemoryByteStore;
+import uk.ac.starlink.table.storage.OffHeapColumnarRowStore;
 import uk.ac.starlink.table.storage.SidewaysRowStore;
 import uk.ac.starlink.util.Loader;
 
@@ -34,7 +35,8 @@ import uk.ac.starlink.util.Loader;
  *
  * <p>Code which wants to store data in a particular way may use one of
  * the predefined policies {@link #ADAPTIVE}, {@link #PREFER_MEMORY},
- * {@link #PREFER_DISK} {@link #SIDEWAYS} or {@link #DISCARD},
+ * {@link #PREFER_DISK} {@link #SIDEWAYS}, {@link #COMPRESSED},
+ * {@link #OFFHEAP_COLUMNAR} or {@link #DISCARD},
  * or may implement their own policy by extending this class.
  * If you want more control, you can always create instances of the 
  * public {@link RowStore} implementations directly.
@@ -59,7 +61,7 @@ public abstract class StoragePolicy {
      * Name of the system property which can be set to indicate the
      * initial setting of the default storage policy ({@value}).
      * Currently recognised values are "adaptive", "memory", "disk",
-     * "sideways", and "discard".
+     * "sideways", "compressed", "offheap" and "discard".
      * Alternatively, the classname of a StoragePolicy implementation
      * with a no-arg constructor may be supplied.
      */
@@ -86,6 +88,12 @@ public abstract class StoragePolicy {
                 else if ( "sideways".equals( pref ) ) {
                     defaultInstance_ = SIDEWAYS;
                 }
+                else if ( "compressed".equals( pref ) ) {
+                    defaultInstance_ = COMPRESSED;
+                }
+                else if ( "offheap".equals( pref ) ) {
+                    defaultInstance_ = OFFHEAP_COLUMNAR;
+                }
                 else if ( "discard".equals( pref ) ) {
                     defaultInstance_ = DISCARD;
                 }
@@ -265,6 +273,52 @@ public abstract class StoragePolicy {
             }
         };
 
+    /**
+     * Storage policy like {@link #SIDEWAYS}, except that columns of
+     * scalar and string types are stored in compressed blocks.
+     * The encoding of each block is chosen automatically according to
+     * its content, for instance delta encoding for sorted integer IDs
+     * or dictionary encoding for low-cardinality strings.
+     * Blocks are independently decodable, so random access is still
+     * possible, but scratch file sizes and disk I/O are typically
+     * much reduced at the cost of some CPU time.
+     * If it's impossible for some reason to store the data in this way,
+     * or if the number of cells requested is small, it will fall back
+     * to using memory storage.
+     */
+    public static final StoragePolicy COMPRESSED =
+        new DiskStoragePolicy( "COMPRESSED", MIN_DISK_CELLS ) {
+            protected RowStore makeDiskRowStore() throws IOException {
+                return new SidewaysRowStore( true );
+            }
+        };
+
+    /**
+     * Storage policy which will normally store table data column by column
+     * outside of the java heap.
+     * Scalar numeric columns are stored as primitive values in
+     * memory-mapped scratch files with null bitmaps,
+     * string columns are stored as codes referring to a shared
+     * string dictionary, and other columns are serialized to scratch files.
+     * Random access to the resulting tables does not require any
+     * per-row objects to be held on the heap, so this is suitable for
+     * very long tables.
+     * If it's impossible for some reason to store the data in this way,
+     * or if the number of cells requested is small, it will fall back
+     * to using memory storage.
+     * Temporary disk files are written
+     * in the default temporary directory, which is the value of the
+     * <tt>java.io.tmpdir</tt> system property.
+     * These files will be deleted when the JVM exits,
+     * if not before.
+     */
+    public static final StoragePolicy OFFHEAP_COLUMNAR =
+        new DiskStoragePolicy( "OFFHEAP_COLUMNAR", MIN_DISK_CELLS ) {
+            protected RowStore makeDiskRowStore() throws IOException {
+                return new OffHeapColumnarRowStore();
+            }
+        };
+
     /**
      * Storage policy which just throws away the rows it is given.
      * Tables obtained from its row stores will have no rows.
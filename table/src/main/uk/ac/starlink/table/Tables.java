@@ -458,13 +458,22 @@ public class Tables {
      * @return  a table with the same rows as <tt>table</tt> but in an 
      *          order determined by the other arguments
      * @throws  IOException if <tt>table.isRandom</tt> is not true
+     * @see   ExternalSorter
      */
     public static StarTable sortTable( StarTable table, int[] colIndices,
                                        boolean up, boolean nullsLast )
             throws IOException {
-        long[] rowMap =
-            TableSorter.getSortedOrder( table, colIndices, up, nullsLast );
-        return new RowPermutedStarTable( table, rowMap );
+        for ( int icol : colIndices ) {
+            ColumnInfo info = table.getColumnInfo( icol );
+            if ( ! Comparable.class
+                  .isAssignableFrom( info.getContentClass() ) ) {
+                throw new IOException( "Column " + info +
+                                       " has no defined sort order" );
+            }
+        }
+        StarTable keyTable = new ColumnPermutedStarTable( table, colIndices );
+        return new ExternalSorter()
+              .sortTable( table, keyTable, up, nullsLast );
     }
 
     /**
@@ -98,29 +98,10 @@ public class AsciiStarTable extends StreamStarTable {
     protected RowEvaluator.Metadata obtainMetadata()
             throws TableFormatException, IOException {
 
-        /* Get an input stream. */
-        PushbackInputStream in = getInputStream();
-
-        /* Look at each row in it counting cells and assessing what sort of
+        /* Look at each row counting cells and assessing what sort of
          * data they look like. */
-        RowEvaluator evaluator = new RowEvaluator();
         comments_ = new ArrayList<String>();
-        long lrow = 0;
-        try {
-            for ( List<String> row; ( row = readRow( in ) ) != null; ) {
-                lrow++;
-                evaluator.submitRow( row );
-            }
-        }
-        catch ( TableFormatException e ) {
-            throw new TableFormatException( e.getMessage() + " at row " + lrow,
-                                            e );
-        }
-        finally {
-            if ( in != null ) {
-                in.close();
-            }
-        }
+        RowEvaluator evaluator = evaluateRows( 0, null );
 
         /* Get and check the metadata. */
         RowEvaluator.Metadata meta = evaluator.getMetadata();
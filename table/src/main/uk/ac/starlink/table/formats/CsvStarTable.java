@@ -60,33 +60,15 @@ public class CsvStarTable extends StreamStarTable {
     protected RowEvaluator.Metadata obtainMetadata()
             throws TableFormatException, IOException {
 
-        /* Get an input stream. */
-        PushbackInputStream in = super.getInputStream();
-
-        /* Read and store the first column.  It could be a special header
-         * row, or it could be just data. */
-        long lrow = 0;
-        String[] row0 = readRow( in ).toArray( new String[ 0 ] );
-        lrow++;
-
-        /* Look at each subsequent row assessing what sort of data they
-         * look like. */
-        RowEvaluator evaluator = new RowEvaluator();
-        try {
-            for ( List<String> row; ( row = readRow( in ) ) != null; ) {
-                evaluator.submitRow( row );
-                lrow++;
-            }
-        }
-        catch ( TableFormatException e ) {
-            throw new TableFormatException( e.getMessage() + " at line "
-                                          + ( lrow + 1 ), e );
-        }
-        finally {
-            if ( in != null ) {
-                in.close();
-            }
+        /* Read and store the first row.  It could be a special header
+         * row, or it could be just data.  Look at each subsequent row
+         * assessing what sort of data they look like. */
+        List<List<String>> headRows = new ArrayList<List<String>>( 1 );
+        RowEvaluator evaluator = evaluateRows( 1, headRows );
+        if ( headRows.size() == 0 ) {
+            throw new TableFormatException( "No rows" );
         }
+        String[] row0 = headRows.get( 0 ).toArray( new String[ 0 ] );
 
         /* Get a first look at the metadata (may be adjusted later). */
         RowEvaluator.Metadata meta = evaluator.getMetadata();
@@ -139,6 +121,11 @@ public class CsvStarTable extends StreamStarTable {
         }
     }
 
+    @Override
+    protected int getLineQuoteChar() {
+        return '"';
+    }
+
     /**
      * Reads the next row of data from a given stream.
      * Ignorable rows are skipped; comments may be stashed away.
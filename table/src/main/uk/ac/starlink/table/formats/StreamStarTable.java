@@ -1,15 +1,33 @@
 package uk.ac.starlink.table.formats;
 
 import java.io.BufferedInputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.PushbackInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
 import uk.ac.starlink.table.AbstractStarTable;
 import uk.ac.starlink.table.ColumnInfo;
 import uk.ac.starlink.table.ReaderRowSequence;
+import uk.ac.starlink.table.RowAccess;
 import uk.ac.starlink.table.RowSequence;
 import uk.ac.starlink.table.TableFormatException;
+import uk.ac.starlink.util.Compression;
 import uk.ac.starlink.util.DataSource;
+import uk.ac.starlink.util.FileDataSource;
+import uk.ac.starlink.util.LongList;
+import uk.ac.starlink.util.SplitPools;
 
 /**
  * Abstract superclass for tables which reads a stream of characters to
@@ -20,6 +38,12 @@ import uk.ac.starlink.util.DataSource;
  * a further pass through for each required RowSequence, using the
  * metadata obtained earlier.
  *
+ * <p>Subclasses which use {@link #evaluateRows evaluateRows} to
+ * perform the initial pass can additionally, if the data comes from
+ * a large enough uncompressed local file, have that pass done in
+ * parallel, and will then provide random access and hence
+ * efficient parallel row iteration.
+ *
  * @author   Mark Taylor (Starlink)
  * @since    21 Sep 2004
  * @see   RowEvaluator
@@ -31,10 +55,37 @@ public abstract class StreamStarTable extends AbstractStarTable {
     private long nrow_;
     private RowEvaluator.Decoder[] decoders_;
     private ColumnInfo[] colInfos_;
+    private FileChannel chan_;
+    private long fileLeng_;
+    private long nrec_;
+    private long recOffset_;
+    private long[] indexRecs_;
+    private long[] indexOffsets_;
+    private RecordReader randomReader_;
 
     /** Char representation of -1 (as returned end-of-stream read) */
     protected final static char END = (char) -1;
 
+    /**
+     * Name of system property giving the minimum file size in bytes
+     * for which parallel scanning and row indexing are used
+     * by {@link #evaluateRows evaluateRows}.
+     */
+    public static final String INDEX_MINSIZE_PROPERTY =
+        "startable.textindex.minsize";
+
+    /** Default value for {@link #INDEX_MINSIZE_PROPERTY}. */
+    public static final long DFLT_INDEX_MINSIZE = 64L * 1024 * 1024;
+
+    /** Number of records between recorded record offsets. */
+    static final int INDEX_STEP = 64;
+
+    private static final long MIN_CHUNK = 4L * 1024 * 1024;
+    private static final long MAX_CHUNK = 256L * 1024 * 1024;
+    private static final int BUFSIZ = 64 * 1024;
+    private static final Logger logger_ =
+        Logger.getLogger( "uk.ac.starlink.table.formats" );
+
     /**
      * Constructor.  This doesn't perform any processing; you must call
      * {@link #init} before doing anything with the constructed table.
@@ -70,6 +121,15 @@ public abstract class StreamStarTable extends AbstractStarTable {
         colInfos_ = meta.colInfos_;
         nrow_ = meta.nrow_;
         ncol_ = meta.ncol_;
+
+        /* If evaluateRows built an index, work out which records
+         * correspond to data rows. */
+        if ( chan_ != null ) {
+            recOffset_ = nrec_ - nrow_;
+            if ( recOffset_ < 0 ) {
+                discardIndex();
+            }
+        }
     }
 
     public int getColumnCount() {
@@ -86,7 +146,6 @@ public abstract class StreamStarTable extends AbstractStarTable {
 
     public RowSequence getRowSequence() throws IOException {
         final PushbackInputStream in = getInputStream();
-        final int ncol = getColumnCount();
         return new ReaderRowSequence() {
             protected Object[] readRow() throws IOException {
                 List<String> cellList = StreamStarTable.this.readRow( in );
@@ -95,14 +154,7 @@ public abstract class StreamStarTable extends AbstractStarTable {
                     return null;
                 }
                 else {
-                    Object[] row = new Object[ ncol ];
-                    for ( int icol = 0; icol < ncol; icol++ ) {
-                        String sval = cellList.get( icol );
-                        if ( sval != null && sval.trim().length() > 0 ) {
-                            row[ icol ] = decoders_[ icol ].decode( sval );
-                        }
-                    }
-                    return row;
+                    return decodeRow( cellList );
                 }
             }
             public void close() throws IOException {
@@ -111,6 +163,144 @@ public abstract class StreamStarTable extends AbstractStarTable {
         };
     }
 
+    /**
+     * Returns true if {@link #evaluateRows evaluateRows} was able to
+     * index the rows of this table.
+     */
+    @Override
+    public boolean isRandom() {
+        return chan_ != null;
+    }
+
+    @Override
+    public synchronized Object[] getRow( long irow ) throws IOException {
+        checkRandom();
+        if ( randomReader_ == null ) {
+            randomReader_ = new RecordReader();
+        }
+        return randomReader_.readRow( irow );
+    }
+
+    @Override
+    public Object getCell( long irow, int icol ) throws IOException {
+        return getRow( irow )[ icol ];
+    }
+
+    @Override
+    public RowAccess getRowAccess() throws IOException {
+        checkRandom();
+        final RecordReader reader = new RecordReader();
+        return new RowAccess() {
+            long irow_ = -1;
+            long rowIrow_ = -1;
+            Object[] row_;
+            public void setRowIndex( long irow ) {
+                irow_ = irow;
+            }
+            public Object getCell( int icol ) throws IOException {
+                return getRow()[ icol ];
+            }
+            public Object[] getRow() throws IOException {
+                if ( irow_ != rowIrow_ ) {
+                    row_ = reader.readRow( irow_ );
+                    rowIrow_ = irow_;
+                }
+                return row_;
+            }
+            public void close() throws IOException {
+                reader.close();
+            }
+        };
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if ( randomReader_ != null ) {
+            randomReader_.close();
+            randomReader_ = null;
+        }
+        if ( chan_ != null ) {
+            chan_.close();
+        }
+    }
+
+    /**
+     * Reads through the rows of this table's data stream,
+     * submitting them to a RowEvaluator.
+     * This is a utility method for use by {@link #obtainMetadata}
+     * implementations.
+     *
+     * <p>If the data source is an uncompressed local file of at least
+     * {@link #INDEX_MINSIZE_PROPERTY} bytes, the file is split at
+     * row boundaries into chunks which are scanned in parallel,
+     * and the positions of some rows are recorded along the way
+     * so that this table can subsequently provide random access.
+     * Chunks are scanned in order on the calling thread until all
+     * the <code>nhead</code> rows have been seen, and the first chunk
+     * is always complete before any other is started,
+     * so {@link #readRow readRow} may rely on seeing the start of the
+     * stream first; it must otherwise be safe to call concurrently
+     * on different streams.
+     *
+     * <p>Any rows read here which are not included in the row count
+     * of the metadata finally returned by <code>obtainMetadata</code>
+     * are taken to be non-data rows at the start of the stream.
+     *
+     * @param  nhead  number of rows at the start of the stream which are
+     *                not submitted to the evaluator
+     * @param  headRows  list to which the first <code>nhead</code> rows
+     *                   are appended; may be null if <code>nhead</code>
+     *                   is zero
+     * @return  evaluator which has been shown all the rows after
+     *          the first <code>nhead</code>
+     * @throws   TableFormatException  if the data doesn't represent this
+     *           kind of table
+     * @throws   IOException   if I/O error is encountered
+     */
+    protected RowEvaluator evaluateRows( int nhead,
+                                         List<List<String>> headRows )
+            throws TableFormatException, IOException {
+        File file = getIndexableFile();
+        if ( file == null ) {
+            ChunkScan scan = new ChunkScan();
+            scanRows( getInputStream(), nhead, headRows, scan );
+            scan.checkError( 0 );
+            return scan.evaluator_;
+        }
+        long start = System.currentTimeMillis();
+        FileChannel chan = FileChannel.open( file.toPath(),
+                                             StandardOpenOption.READ );
+        try {
+            RowEvaluator evaluator = evaluateChunks( chan, nhead, headRows );
+            chan_ = chan;
+            logger_.info( "Scanned and indexed " + nrec_ + " rows in "
+                        + ( System.currentTimeMillis() - start ) + "ms"
+                        + " from " + file );
+            return evaluator;
+        }
+        finally {
+            if ( chan_ == null ) {
+                chan.close();
+            }
+        }
+    }
+
+    /**
+     * Returns the quote character within which line breaks do not
+     * terminate a row, if any.  This is used to locate row boundaries
+     * when splitting a file for parallel scanning;
+     * a line break is taken to end a row if the number of such
+     * quote characters preceding it is even.
+     *
+     * <p>The default implementation returns -1, meaning that every
+     * line break ends a row.
+     *
+     * @return  quote character, or -1
+     */
+    protected int getLineQuoteChar() {
+        return -1;
+    }
+
     /**
      * Convenience method which returns a buffered pushback stream based
      * on this table's data source.
@@ -148,4 +338,548 @@ public abstract class StreamStarTable extends AbstractStarTable {
      */
     protected abstract List<String> readRow( PushbackInputStream in )
             throws TableFormatException, IOException;
+
+    /**
+     * Decodes a list of cell strings into a row of values.
+     *
+     * @param  cellList  list of cell strings
+     * @return  row data
+     */
+    private Object[] decodeRow( List<String> cellList ) {
+        Object[] row = new Object[ ncol_ ];
+        for ( int icol = 0; icol < ncol_; icol++ ) {
+            String sval = cellList.get( icol );
+            if ( sval != null && sval.trim().length() > 0 ) {
+                row[ icol ] = decoders_[ icol ].decode( sval );
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Throws an exception if this table is not random access.
+     */
+    private void checkRandom() {
+        if ( chan_ == null ) {
+            throw new UnsupportedOperationException( "Not random access" );
+        }
+    }
+
+    /**
+     * Forgets any index, reverting to sequential-only access.
+     */
+    private void discardIndex() throws IOException {
+        FileChannel chan = chan_;
+        chan_ = null;
+        indexRecs_ = null;
+        indexOffsets_ = null;
+        chan.close();
+    }
+
+    /**
+     * Returns the file to scan in parallel and index, if appropriate.
+     *
+     * @return  local uncompressed data file large enough to index, or null
+     */
+    private File getIndexableFile() throws IOException {
+        if ( datsrc_ instanceof FileDataSource &&
+             datsrc_.getCompression() == Compression.NONE ) {
+            File file = ((FileDataSource) datsrc_).getFile();
+            return file.isFile() && file.length() >= getIndexMinSize()
+                 ? file
+                 : null;
+        }
+        else {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the minimum file size for indexing.
+     *
+     * @return  size in bytes
+     */
+    private static long getIndexMinSize() {
+        String prop;
+        try {
+            prop = System.getProperty( INDEX_MINSIZE_PROPERTY );
+        }
+        catch ( SecurityException e ) {
+            prop = null;
+        }
+        if ( prop != null && prop.trim().length() > 0 ) {
+            try {
+                return Long.parseLong( prop.trim() );
+            }
+            catch ( NumberFormatException e ) {
+                logger_.warning( "Bad value for " + INDEX_MINSIZE_PROPERTY
+                               + ": \"" + prop + "\"" );
+            }
+        }
+        return DFLT_INDEX_MINSIZE;
+    }
+
+    /**
+     * Splits a file into chunks at row boundaries, scans them in parallel
+     * and assembles the index.
+     *
+     * @param  chan  channel for the whole file
+     * @param  nhead  number of non-evaluated rows at the start
+     * @param  headRows  list to which head rows are appended
+     * @return  evaluator which has seen all rows after the head
+     */
+    private RowEvaluator evaluateChunks( final FileChannel chan, int nhead,
+                                         List<List<String>> headRows )
+            throws IOException {
+        final long leng = chan.size();
+        long[] bounds = getChunkBounds( chan, leng );
+        int nchunk = bounds.length - 1;
+        ChunkScan[] scans = new ChunkScan[ nchunk ];
+
+        /* Scan leading chunks in sequence until the head rows are done. */
+        int ic0 = 0;
+        do {
+            ChunkScan scan = new ChunkScan();
+            int nh = nhead - ( headRows == null ? 0 : headRows.size() );
+            scanRows( new OffsetInputStream( chan, bounds[ ic0 ],
+                                             bounds[ ic0 + 1 ] ),
+                      nh, headRows, scan );
+            scans[ ic0++ ] = scan;
+        } while ( ic0 < nchunk &&
+                  nhead > ( headRows == null ? 0 : headRows.size() ) );
+
+        /* Scan the rest in parallel. */
+        if ( ic0 < nchunk ) {
+            List<Callable<ChunkScan>> tasks =
+                new ArrayList<Callable<ChunkScan>>();
+            for ( int ic = ic0; ic < nchunk; ic++ ) {
+                final long lo = bounds[ ic ];
+                final long hi = bounds[ ic + 1 ];
+                tasks.add( () -> {
+                    ChunkScan scan = new ChunkScan();
+                    try {
+                        scanRows( new OffsetInputStream( chan, lo, hi ),
+                                  0, null, scan );
+                    }
+                    catch ( IOException e ) {
+                        scan.error_ = e;
+                    }
+                    return scan;
+                } );
+            }
+            List<Future<ChunkScan>> futures =
+                SplitPools.getDefaultPool().invokeAll( tasks );
+            for ( int ic = ic0; ic < nchunk; ic++ ) {
+                scans[ ic ] = getResult( futures.get( ic - ic0 ) );
+            }
+        }
+
+        /* Merge the evaluators and index in chunk order. */
+        RowEvaluator evaluator = scans[ 0 ].evaluator_;
+        LongList indexRecs = new LongList();
+        LongList indexOffsets = new LongList();
+        long nrec = 0;
+        for ( int ic = 0; ic < nchunk; ic++ ) {
+            ChunkScan scan = scans[ ic ];
+            scan.checkError( nrec );
+            if ( ic > 0 ) {
+                evaluator.merge( scan.evaluator_ );
+            }
+            for ( int ix = 0; ix < scan.indexRecs_.size(); ix++ ) {
+                indexRecs.add( nrec + scan.indexRecs_.get( ix ) );
+                indexOffsets.add( scan.indexOffsets_.get( ix ) );
+            }
+            nrec += scan.nrec_;
+        }
+        fileLeng_ = leng;
+        nrec_ = nrec;
+        indexRecs_ = indexRecs.toLongArray();
+        indexOffsets_ = indexOffsets.toLongArray();
+        return evaluator;
+    }
+
+    /**
+     * Returns the result of a completed chunk scan.
+     *
+     * @param  future  future
+     * @return  scan result
+     */
+    private static ChunkScan getResult( Future<ChunkScan> future )
+            throws IOException {
+        try {
+            return future.get();
+        }
+        catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw (IOException)
+                  new InterruptedIOException( "Interrupted" ).initCause( e );
+        }
+        catch ( ExecutionException e ) {
+            Throwable cause = e.getCause();
+            if ( cause instanceof RuntimeException ) {
+                throw (RuntimeException) cause;
+            }
+            else if ( cause instanceof Error ) {
+                throw (Error) cause;
+            }
+            else {
+                throw new IOException( "Scan failed", cause );
+            }
+        }
+    }
+
+    /**
+     * Determines the byte offsets at which a file will be split
+     * into chunks for parallel scanning.
+     * Each boundary is placed at the start of a row.
+     *
+     * @param  chan  file channel
+     * @param  leng  file length
+     * @return  strictly increasing array of chunk boundaries,
+     *          starting with 0 and ending with <code>leng</code>
+     */
+    private long[] getChunkBounds( final FileChannel chan, long leng )
+            throws IOException {
+        ForkJoinPool pool = SplitPools.getDefaultPool();
+        long chunk = leng / ( 4 * Math.max( 1, pool.getParallelism() ) );
+        chunk = Math.max( MIN_CHUNK, Math.min( MAX_CHUNK, chunk ) );
+        int nchunk = (int) Math.max( 1, ( leng + chunk - 1 ) / chunk );
+        final int quote = getLineQuoteChar();
+
+        /* If line breaks may be quoted, count the quote characters
+         * in each nominal chunk, so that the quoting state at the
+         * start of each one is known. */
+        boolean[] inQuotes = new boolean[ nchunk ];
+        if ( quote >= 0 && nchunk > 1 ) {
+            List<Callable<Long>> tasks = new ArrayList<Callable<Long>>();
+            for ( int ic = 0; ic < nchunk - 1; ic++ ) {
+                final long lo = ic * chunk;
+                final long hi = lo + chunk;
+                tasks.add( () -> countBytes( chan, lo, hi, (byte) quote ) );
+            }
+            List<Future<Long>> futures = pool.invokeAll( tasks );
+            long nq = 0;
+            for ( int ic = 1; ic < nchunk; ic++ ) {
+                try {
+                    nq += futures.get( ic - 1 ).get().longValue();
+                }
+                catch ( InterruptedException e ) {
+                    Thread.currentThread().interrupt();
+                    throw (IOException)
+                          new InterruptedIOException( "Interrupted" )
+                         .initCause( e );
+                }
+                catch ( ExecutionException e ) {
+                    throw new IOException( "Scan failed", e.getCause() );
+                }
+                inQuotes[ ic ] = nq % 2 != 0;
+            }
+        }
+
+        /* Move each nominal boundary forward to the next row start. */
+        LongList bounds = new LongList();
+        bounds.add( 0 );
+        for ( int ic = 1; ic < nchunk; ic++ ) {
+            long bound = findRowStart( chan, ic * chunk, leng, quote,
+                                       inQuotes[ ic ] );
+            if ( bound > bounds.get( bounds.size() - 1 ) && bound < leng ) {
+                bounds.add( bound );
+            }
+        }
+        bounds.add( leng );
+        return bounds.toLongArray();
+    }
+
+    /**
+     * Reads rows from a stream into a chunk scan result.
+     * The stream is closed on exit.
+     *
+     * @param  in  input stream; if it is an OffsetInputStream
+     *             row positions will be recorded
+     * @param  nhead  number of rows at the start which are not evaluated
+     * @param  headRows  list to which head rows are appended
+     * @param  scan   scan result to populate
+     */
+    private void scanRows( PushbackInputStream in, int nhead,
+                           List<List<String>> headRows, ChunkScan scan )
+            throws IOException {
+        OffsetInputStream oin = in instanceof OffsetInputStream
+                              ? (OffsetInputStream) in
+                              : null;
+        try {
+            while ( true ) {
+                long offset = oin != null && scan.nrec_ % INDEX_STEP == 0
+                            ? oin.getOffset()
+                            : -1;
+                List<String> row = readRow( in );
+                if ( row == null ) {
+                    return;
+                }
+                if ( offset >= 0 ) {
+                    scan.indexRecs_.add( scan.nrec_ );
+                    scan.indexOffsets_.add( offset );
+                }
+                if ( scan.nrec_ < nhead ) {
+                    headRows.add( row );
+                }
+                else {
+                    scan.evaluator_.submitRow( row );
+                }
+                scan.nrec_++;
+            }
+        }
+        catch ( TableFormatException e ) {
+            scan.error_ = e;
+        }
+        finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Counts the occurrences of a given byte in part of a file.
+     *
+     * @param  chan  file channel
+     * @param  lo   start offset
+     * @param  hi   end offset
+     * @param  b    byte value to count
+     * @return  number of occurrences
+     */
+    private static long countBytes( FileChannel chan, long lo, long hi,
+                                    byte b )
+            throws IOException {
+        InputStream in = new ChannelInputStream( chan, lo, hi );
+        byte[] buf = new byte[ BUFSIZ ];
+        long count = 0;
+        for ( int n; ( n = in.read( buf, 0, BUFSIZ ) ) >= 0; ) {
+            for ( int i = 0; i < n; i++ ) {
+                if ( buf[ i ] == b ) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Locates the start of the first row following a given position.
+     * This is the first byte which is not a line break, following a
+     * line break which is not quoted.
+     *
+     * @param  chan  file channel
+     * @param  pos   position from which to search
+     * @param  leng  file length
+     * @param  quote  quote character permitting embedded line breaks,
+     *                or -1
+     * @param  inQuote  whether <code>pos</code> is within quotes
+     * @return  offset of row start, or <code>leng</code> if none
+     */
+    private static long findRowStart( FileChannel chan, long pos, long leng,
+                                      int quote, boolean inQuote )
+            throws IOException {
+        InputStream in = new ChannelInputStream( chan, pos, leng );
+        boolean afterBreak = false;
+        for ( int c; ( c = in.read() ) >= 0; pos++ ) {
+            boolean isBreak = c == '\n' || c == '\r';
+            if ( afterBreak && ! isBreak ) {
+                return pos;
+            }
+            if ( c == quote ) {
+                inQuote = ! inQuote;
+            }
+            else if ( isBreak && ! inQuote ) {
+                afterBreak = true;
+            }
+        }
+        return leng;
+    }
+
+    /**
+     * Result of scanning part of the stream.
+     */
+    private static class ChunkScan {
+        final RowEvaluator evaluator_ = new RowEvaluator();
+        final LongList indexRecs_ = new LongList();
+        final LongList indexOffsets_ = new LongList();
+        long nrec_;
+        IOException error_;
+
+        /**
+         * Rethrows any error encountered during the scan.
+         *
+         * @param  rec0  number of rows preceding this chunk
+         */
+        void checkError( long rec0 ) throws IOException {
+            if ( error_ instanceof TableFormatException ) {
+                throw new TableFormatException( error_.getMessage()
+                                              + " at row "
+                                              + ( rec0 + nrec_ + 1 ),
+                                                error_ );
+            }
+            else if ( error_ != null ) {
+                throw error_;
+            }
+        }
+    }
+
+    /**
+     * Reads rows from an independent input, using the index to
+     * locate them.
+     */
+    private class RecordReader {
+        OffsetInputStream in_;
+        long nextRec_;
+
+        /**
+         * Reads the data row with a given index.
+         *
+         * @param  irow  row index
+         * @return  row data
+         */
+        Object[] readRow( long irow ) throws IOException {
+            if ( irow < 0 || irow >= nrow_ ) {
+                throw new IllegalArgumentException( "No such row " + irow );
+            }
+            long irec = irow + recOffset_;
+            if ( in_ == null || irec != nextRec_ ) {
+                int ix = Arrays.binarySearch( indexRecs_, irec );
+                if ( ix < 0 ) {
+                    ix = -ix - 2;
+                }
+                if ( in_ == null || irec < nextRec_ ||
+                     indexRecs_[ ix ] > nextRec_ ) {
+                    close();
+                    in_ = new OffsetInputStream( chan_, indexOffsets_[ ix ],
+                                                 fileLeng_ );
+                    nextRec_ = indexRecs_[ ix ];
+                }
+            }
+            List<String> cellList;
+            do {
+                cellList = StreamStarTable.this.readRow( in_ );
+                if ( cellList == null ) {
+                    throw new IOException( "Unexpected end of data" );
+                }
+            } while ( nextRec_++ < irec );
+            return decodeRow( cellList );
+        }
+
+        /**
+         * Releases resources.
+         */
+        void close() throws IOException {
+            if ( in_ != null ) {
+                in_.close();
+                in_ = null;
+            }
+        }
+    }
+
+    /**
+     * Pushback stream reading part of a file, which can report its
+     * current position.
+     */
+    private static class OffsetInputStream extends PushbackInputStream {
+
+        /**
+         * Constructor.
+         *
+         * @param  chan  file channel
+         * @param  lo   start offset
+         * @param  hi   end offset
+         */
+        OffsetInputStream( FileChannel chan, long lo, long hi ) {
+            super( new ChannelInputStream( chan, lo, hi ) );
+        }
+
+        /**
+         * Returns the file offset of the next byte to be read.
+         *
+         * @return  offset
+         */
+        long getOffset() {
+            return ((ChannelInputStream) in).getPosition()
+                 - ( buf.length - pos );
+        }
+    }
+
+    /**
+     * Buffered input stream reading part of a file using positional
+     * reads, so that many instances can share a channel.
+     * Closing it does not close the channel.
+     */
+    private static class ChannelInputStream extends InputStream {
+        private final FileChannel chan_;
+        private final long hi_;
+        private final ByteBuffer bbuf_;
+        private long bufStart_;
+
+        /**
+         * Constructor.
+         *
+         * @param  chan  file channel
+         * @param  lo   start offset
+         * @param  hi   end offset
+         */
+        ChannelInputStream( FileChannel chan, long lo, long hi ) {
+            chan_ = chan;
+            hi_ = hi;
+            bbuf_ = ByteBuffer.allocate( BUFSIZ );
+            bbuf_.limit( 0 );
+            bufStart_ = lo;
+        }
+
+        /**
+         * Returns the file offset of the next byte to be read.
+         *
+         * @return  offset
+         */
+        long getPosition() {
+            return bufStart_ + bbuf_.position();
+        }
+
+        @Override
+        public int read() throws IOException {
+            return bbuf_.hasRemaining() || fill() ? bbuf_.get() & 0xff
+                                                  : -1;
+        }
+
+        @Override
+        public int read( byte[] b, int off, int len ) throws IOException {
+            if ( len == 0 ) {
+                return 0;
+            }
+            else if ( bbuf_.hasRemaining() || fill() ) {
+                int n = Math.min( len, bbuf_.remaining() );
+                bbuf_.get( b, off, n );
+                return n;
+            }
+            else {
+                return -1;
+            }
+        }
+
+        /**
+         * Attempts to read more data into the buffer.
+         *
+         * @return  true iff some data is now available
+         */
+        private boolean fill() throws IOException {
+            long pos = getPosition();
+            long remain = hi_ - pos;
+            if ( remain <= 0 ) {
+                return false;
+            }
+            bbuf_.clear();
+            bbuf_.limit( (int) Math.min( bbuf_.capacity(), remain ) );
+            bufStart_ = pos;
+            while ( bbuf_.hasRemaining() ) {
+                if ( chan_.read( bbuf_, pos + bbuf_.position() ) < 0 ) {
+                    break;
+                }
+            }
+            bbuf_.flip();
+            return bbuf_.hasRemaining();
+        }
+    }
 }
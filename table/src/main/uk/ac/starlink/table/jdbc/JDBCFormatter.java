@@ -1,6 +1,7 @@
 package uk.ac.starlink.table.jdbc;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.DriverManager;
@@ -17,9 +18,14 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Logger;
 import uk.ac.starlink.table.ColumnInfo;
 import uk.ac.starlink.table.RowSequence;
+import uk.ac.starlink.table.RowSplittable;
 import uk.ac.starlink.table.StarTable;
 import uk.ac.starlink.table.StarTableFactory;
 import uk.ac.starlink.table.Tables;
@@ -28,6 +34,15 @@ import uk.ac.starlink.util.Loader;
 /**
  * Handles conversion of a StarTable into a new table in an RDBMS.
  *
+ * <p>By default rows are inserted using JDBC batch updates where the
+ * driver supports them, and transaction handling is left to the
+ * connection's auto-commit setting.
+ * Several methods are provided to tune bulk loading:
+ * the batch size and commit interval can be configured,
+ * multiple rows can be packed into each INSERT statement,
+ * and the rows can be divided between several connections
+ * which write in parallel.
+ *
  * @author   Mark Taylor
  */
 public class JDBCFormatter {
@@ -41,6 +56,14 @@ public class JDBCFormatter {
     private final Map<Integer,String> typeNameMap_;
     private final SqlSyntax sqlSyntax_;
     private final boolean upperCasePreferred_;
+    private int batchSize_;
+    private long commitRows_;
+    private int rowsPerInsert_;
+    private Connector writerConnector_;
+    private int nWriter_;
+
+    /** Default number of rows submitted in each JDBC batch. */
+    public static final int DFLT_BATCH_SIZE = 1000;
 
     private static Logger logger = 
         Logger.getLogger( "uk.ac.starlink.table.jdbc" );
@@ -61,6 +84,9 @@ public class JDBCFormatter {
         maxTableLeng_ = meta.getMaxTableNameLength();
         upperCasePreferred_ = meta.storesUpperCaseIdentifiers();
         sqlSyntax_ = getSqlSyntax( meta );
+        batchSize_ = DFLT_BATCH_SIZE;
+        rowsPerInsert_ = 1;
+        nWriter_ = 1;
 
         /* Work out column types and see if we need to work out maximum string
          * lengths. */
@@ -140,6 +166,96 @@ public class JDBCFormatter {
         }
     }
 
+    /**
+     * Sets the number of rows submitted to the database in each
+     * JDBC batch update.  Batching is only used if the driver reports
+     * that it supports batch updates.
+     * A value of 1 or less means that each INSERT statement is
+     * executed individually.
+     * The default is {@link #DFLT_BATCH_SIZE}.
+     *
+     * @param  batchSize  rows per batch
+     */
+    public void setBatchSize( int batchSize ) {
+        batchSize_ = batchSize;
+    }
+
+    /**
+     * Returns the number of rows submitted in each JDBC batch update.
+     *
+     * @return  rows per batch
+     */
+    public int getBatchSize() {
+        return batchSize_;
+    }
+
+    /**
+     * Sets the number of rows written between transaction commits.
+     * If a positive value is given, auto-commit is switched off
+     * while the data is written, and a commit is made after
+     * (approximately) every <code>commitRows</code> rows
+     * and at the end.
+     * If zero (the default), the connection's auto-commit setting is
+     * left alone.
+     *
+     * @param  commitRows  rows per transaction, or 0
+     */
+    public void setCommitInterval( long commitRows ) {
+        commitRows_ = commitRows;
+    }
+
+    /**
+     * Returns the number of rows written between transaction commits.
+     *
+     * @return  rows per transaction, or 0 for no transaction management
+     */
+    public long getCommitInterval() {
+        return commitRows_;
+    }
+
+    /**
+     * Sets the number of rows written by each INSERT statement.
+     * If greater than 1, a multi-row
+     * <code>INSERT INTO ... VALUES (...), (...), ...</code>
+     * statement is used, which allows the data to be streamed
+     * to the database in large blocks.
+     * This form is understood by most, but not all, RDBMSs.
+     * The default is 1.
+     *
+     * @param  rowsPerInsert  rows per INSERT statement
+     */
+    public void setRowsPerInsert( int rowsPerInsert ) {
+        rowsPerInsert_ = rowsPerInsert;
+    }
+
+    /**
+     * Returns the number of rows written by each INSERT statement.
+     *
+     * @return  rows per INSERT statement
+     */
+    public int getRowsPerInsert() {
+        return rowsPerInsert_;
+    }
+
+    /**
+     * Configures the data to be written to the database by several
+     * connections in parallel.
+     * Each writer obtains its own connection from the supplied
+     * connector, and writes a partition of the input table's rows
+     * as supplied by its {@link uk.ac.starlink.table.RowSplittable}.
+     * Rows will therefore not in general be inserted in order.
+     * Each connection commits its own transactions, so if one writer
+     * fails, rows written by the others may be retained.
+     *
+     * @param  connector  source of additional connections,
+     *                    or null for single-connection writing
+     * @param  nWriter   maximum number of parallel writers
+     */
+    public void setParallelWriters( Connector connector, int nWriter ) {
+        writerConnector_ = connector;
+        nWriter_ = nWriter;
+    }
+
     /**
      * Returns the text of a suitable CREATE TABLE statement.
      *
@@ -177,23 +293,40 @@ public class JDBCFormatter {
      * @param   tableName  name SQL table for insertion
      */
     public String getInsertStatement( String tableName ) {
+        return getInsertStatement( tableName, 1 );
+    }
+
+    /**
+     * Returns the text of a suitable parametric statement for inserting
+     * a given number of rows.
+     *
+     * @param   tableName  name SQL table for insertion
+     * @param   nrow   number of rows inserted by the statement
+     */
+    public String getInsertStatement( String tableName, int nrow ) {
         StringBuffer sql = new StringBuffer();
         sql.append( "INSERT INTO " )
            .append( defensiveQuoteTable( tableName ) )
-           .append( " VALUES(" );
-        boolean first = true;
-        int ncol = sqlCols_.length;
-        for ( int icol = 0; icol < ncol; icol++ ) {
-            if ( sqlCols_[ icol ] != null ) {
-                if ( ! first ) {
-                    sql.append( ',' );
+           .append( " VALUES" );
+        for ( int irow = 0; irow < nrow; irow++ ) {
+            if ( irow > 0 ) {
+                sql.append( ',' );
+            }
+            sql.append( '(' );
+            boolean first = true;
+            int ncol = sqlCols_.length;
+            for ( int icol = 0; icol < ncol; icol++ ) {
+                if ( sqlCols_[ icol ] != null ) {
+                    if ( ! first ) {
+                        sql.append( ',' );
+                    }
+                    first = false;
+                    sql.append( ' ' ) 
+                       .append( '?' );
                 }
-                first = false;
-                sql.append( ' ' ) 
-                   .append( '?' );
             }
+            sql.append( " )" );
         }
-        sql.append( " )" );
         return sql.toString();
     }
 
@@ -232,37 +365,201 @@ public class JDBCFormatter {
             stmt.executeUpdate( create );
         }
 
-        /* Prepare a statement for adding the data. */
-        String insert = getInsertStatement( tableName );
-        logger.info( insert );
-        PreparedStatement pstmt = conn_.prepareStatement( insert );
-
         /* Add the data. */
-        int ncol = sqlCols_.length;
-        RowSequence rseq = table_.getRowSequence();
+        logger.info( getInsertStatement( tableName ) );
+        if ( writerConnector_ != null && nWriter_ > 1 ) {
+
+            /* Make sure that any new table is visible to other
+             * connections. */
+            if ( ! conn_.getAutoCommit() ) {
+                conn_.commit();
+            }
+            writeParallel( tableName );
+        }
+        else {
+            RowSequence rseq = table_.getRowSequence();
+            try {
+                writeRows( conn_, tableName, rseq );
+            }
+            finally {
+                rseq.close();
+            }
+        }
+    }
+
+    /**
+     * Writes the rows of this formatter's table using several
+     * connections in parallel.
+     *
+     * @param   tableName  name of table to write to
+     */
+    private void writeParallel( final String tableName )
+            throws IOException, SQLException {
+
+        /* Partition the rows. */
+        List<RowSplittable> parts = new ArrayList<RowSplittable>();
+        parts.add( table_.getRowSplittable() );
+        while ( parts.size() < nWriter_ ) {
+            int ibig = 0;
+            for ( int ip = 1; ip < parts.size(); ip++ ) {
+                if ( parts.get( ip ).splittableSize() >
+                     parts.get( ibig ).splittableSize() ) {
+                    ibig = ip;
+                }
+            }
+            RowSplittable part = parts.get( ibig ).split();
+            if ( part == null ) {
+                break;
+            }
+            parts.add( part );
+        }
+        logger.info( "Writing rows with " + parts.size()
+                   + " parallel connections" );
+
+        /* Write each partition using its own connection. */
+        ExecutorService executor =
+            Executors.newFixedThreadPool( parts.size(), r -> {
+                Thread thread = new Thread( r, "JDBC writer" );
+                thread.setDaemon( true );
+                return thread;
+            } );
         try {
-            while ( rseq.next() ) {
-                Object[] row = rseq.getRow();
-                int pix = 0;
-                for ( int icol = 0; icol < ncol; icol++ ) {
-                    if ( sqlCols_[ icol ] != null ) {
-                        pix++;
-                        Object val = row[ icol ];
-                        if ( Tables.isBlank( val ) ) {
-                            pstmt.setNull( pix, sqlTypes_[ icol ] );
+            List<Future<Long>> futures = new ArrayList<Future<Long>>();
+            for ( final RowSplittable part : parts ) {
+                futures.add( executor.submit( () -> {
+                    try {
+                        Connection conn = writerConnector_.getConnection();
+                        try {
+                            return writeRows( conn, tableName, part );
                         }
-                        else {
-                            pstmt.setObject( pix, row[ icol ],
-                                             sqlTypes_[ icol ] );
+                        finally {
+                            conn.close();
                         }
                     }
+                    finally {
+                        part.close();
+                    }
+                } ) );
+            }
+            for ( Future<Long> future : futures ) {
+                try {
+                    future.get();
+                }
+                catch ( InterruptedException e ) {
+                    Thread.currentThread().interrupt();
+                    throw (IOException)
+                          new InterruptedIOException()
+                         .initCause( e );
+                }
+                catch ( ExecutionException e ) {
+                    Throwable cause = e.getCause();
+                    if ( cause instanceof SQLException ) {
+                        throw (SQLException) cause;
+                    }
+                    else if ( cause instanceof IOException ) {
+                        throw (IOException) cause;
+                    }
+                    else if ( cause instanceof RuntimeException ) {
+                        throw (RuntimeException) cause;
+                    }
+                    else if ( cause instanceof Error ) {
+                        throw (Error) cause;
+                    }
+                    else {
+                        throw new IOException( "Write failed", cause );
+                    }
+                }
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Writes all the rows from a row sequence into a database table
+     * using a given connection.  The row sequence is not closed.
+     *
+     * @param  conn  connection
+     * @param  tableName  name of table to write to
+     * @param  rseq   row sequence supplying data
+     * @return  number of rows written
+     */
+    private long writeRows( Connection conn, String tableName,
+                            RowSequence rseq )
+            throws IOException, SQLException {
+        int nper = Math.max( 1, rowsPerInsert_ );
+        boolean isBatch = batchSize_ > 1
+                       && conn.getMetaData().supportsBatchUpdates();
+        int batchStmts = isBatch ? Math.max( 1, batchSize_ / nper ) : 1;
+        boolean manageCommit = commitRows_ > 0;
+        boolean autoCommit0 = conn.getAutoCommit();
+        if ( manageCommit ) {
+            conn.setAutoCommit( false );
+        }
+        StatementWriter multiWriter =
+            new StatementWriter( conn.prepareStatement(
+                                     getInsertStatement( tableName, nper ) ),
+                                 nper, isBatch );
+        StatementWriter singleWriter = nper == 1
+            ? multiWriter
+            : new StatementWriter( conn.prepareStatement(
+                                       getInsertStatement( tableName, 1 ) ),
+                                   1, isBatch );
+        Object[][] rowBuf = new Object[ nper ][];
+        int nbuf = 0;
+        long nrow = 0;
+        long nUncommitted = 0;
+        boolean done = false;
+        try {
+            while ( rseq.next() ) {
+
+                /* Copy the row, since the sequence may reuse its array. */
+                rowBuf[ nbuf++ ] = rseq.getRow().clone();
+                if ( nbuf == nper ) {
+                    multiWriter.write( rowBuf );
+                    nbuf = 0;
+                    nrow += nper;
+                    nUncommitted += nper;
+                    if ( multiWriter.nBatch_ >= batchStmts ) {
+                        multiWriter.flush();
+                    }
+                    if ( manageCommit && nUncommitted >= commitRows_ ) {
+                        multiWriter.flush();
+                        conn.commit();
+                        nUncommitted = 0;
+                    }
                 }
-                pstmt.executeUpdate();
             }
+            multiWriter.flush();
+            for ( int ir = 0; ir < nbuf; ir++ ) {
+                singleWriter.write( new Object[][] { rowBuf[ ir ] } );
+                nrow++;
+            }
+            singleWriter.flush();
+            if ( manageCommit ) {
+                conn.commit();
+            }
+            done = true;
         }
         finally {
-            rseq.close();
+            multiWriter.close();
+            if ( singleWriter != multiWriter ) {
+                singleWriter.close();
+            }
+            if ( manageCommit ) {
+                if ( ! done ) {
+                    try {
+                        conn.rollback();
+                    }
+                    catch ( SQLException e ) {
+                        logger.warning( "Rollback failed: " + e );
+                    }
+                }
+                conn.setAutoCommit( autoCommit0 );
+            }
         }
+        return nrow;
     }
 
     /**
@@ -567,6 +864,79 @@ public class JDBCFormatter {
         }
     }
 
+    /**
+     * Writes rows using a prepared INSERT statement.
+     */
+    private class StatementWriter {
+        final PreparedStatement pstmt_;
+        final int nper_;
+        final boolean isBatch_;
+        int nBatch_;
+
+        /**
+         * Constructor.
+         *
+         * @param  pstmt  prepared INSERT statement
+         * @param  nper   number of rows inserted by the statement
+         * @param  isBatch  whether to use JDBC batch updates
+         */
+        StatementWriter( PreparedStatement pstmt, int nper, boolean isBatch ) {
+            pstmt_ = pstmt;
+            nper_ = nper;
+            isBatch_ = isBatch;
+        }
+
+        /**
+         * Writes, or adds to the current batch, a statement inserting
+         * the given rows.
+         *
+         * @param  rows  array of <code>nper</code> rows
+         */
+        void write( Object[][] rows ) throws SQLException {
+            int ncol = sqlCols_.length;
+            int pix = 0;
+            for ( int ir = 0; ir < nper_; ir++ ) {
+                Object[] row = rows[ ir ];
+                for ( int icol = 0; icol < ncol; icol++ ) {
+                    if ( sqlCols_[ icol ] != null ) {
+                        pix++;
+                        Object val = row[ icol ];
+                        if ( Tables.isBlank( val ) ) {
+                            pstmt_.setNull( pix, sqlTypes_[ icol ] );
+                        }
+                        else {
+                            pstmt_.setObject( pix, val, sqlTypes_[ icol ] );
+                        }
+                    }
+                }
+            }
+            if ( isBatch_ ) {
+                pstmt_.addBatch();
+                nBatch_++;
+            }
+            else {
+                pstmt_.executeUpdate();
+            }
+        }
+
+        /**
+         * Executes any pending batch.
+         */
+        void flush() throws SQLException {
+            if ( nBatch_ > 0 ) {
+                pstmt_.executeBatch();
+                nBatch_ = 0;
+            }
+        }
+
+        /**
+         * Releases resources.
+         */
+        void close() throws SQLException {
+            pstmt_.close();
+        }
+    }
+
     /**
      * Describes a column as it will be written to a table in an RDBMS.
      */
@@ -17,6 +17,13 @@ public class JDBCHandler {
     private JDBCAuthenticator auth;
     private String user;
     private String passwd;
+    private int batchSize = JDBCFormatter.DFLT_BATCH_SIZE;
+    private long commitRows;
+    private int rowsPerInsert = 1;
+    private int nWriter = 1;
+    private int fetchSize;
+    private String splitKey;
+    private int nReader = 1;
 
     private static final Logger logger_ =
         Logger.getLogger( "uk.ac.starlink.table.jdbc" );
@@ -37,6 +44,13 @@ public class JDBCHandler {
      */
     public JDBCHandler( JDBCHandler jh ) {
         this( jh.auth );
+        batchSize = jh.batchSize;
+        commitRows = jh.commitRows;
+        rowsPerInsert = jh.rowsPerInsert;
+        nWriter = jh.nWriter;
+        fetchSize = jh.fetchSize;
+        splitKey = jh.splitKey;
+        nReader = jh.nReader;
     }
 
     public JDBCAuthenticator getAuthenticator() {
@@ -48,6 +62,72 @@ public class JDBCHandler {
         this.auth = auth;
     }
 
+    /**
+     * Sets the number of rows per JDBC batch used when writing tables.
+     *
+     * @param  batchSize  rows per batch
+     * @see  JDBCFormatter#setBatchSize
+     */
+    public void setBatchSize( int batchSize ) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Sets the number of rows between commits used when writing tables.
+     *
+     * @param  commitRows  rows per transaction, or 0 to leave auto-commit
+     * @see  JDBCFormatter#setCommitInterval
+     */
+    public void setCommitInterval( long commitRows ) {
+        this.commitRows = commitRows;
+    }
+
+    /**
+     * Sets the number of rows inserted by each INSERT statement
+     * used when writing tables.
+     *
+     * @param  rowsPerInsert  rows per statement
+     * @see  JDBCFormatter#setRowsPerInsert
+     */
+    public void setRowsPerInsert( int rowsPerInsert ) {
+        this.rowsPerInsert = rowsPerInsert;
+    }
+
+    /**
+     * Sets the number of connections which write rows in parallel
+     * when writing tables.
+     *
+     * @param  nWriter  maximum number of writer connections
+     * @see  JDBCFormatter#setParallelWriters
+     */
+    public void setWriterCount( int nWriter ) {
+        this.nWriter = nWriter;
+    }
+
+    /**
+     * Sets the JDBC fetch size used when reading tables.
+     *
+     * @param  fetchSize  rows per fetch, or 0 for driver default
+     * @see  JDBCStarTable#setFetchSize
+     */
+    public void setFetchSize( int fetchSize ) {
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Configures concurrent queries on key ranges for parallel
+     * processing of tables read by this handler.
+     *
+     * @param  splitKey  SQL expression for numeric split column,
+     *                   or null for no parallel reading
+     * @param  nReader   maximum number of concurrent queries
+     * @see  JDBCStarTable#setParallelReaders
+     */
+    public void setParallelReaders( String splitKey, int nReader ) {
+        this.splitKey = splitKey;
+        this.nReader = nReader;
+    }
+
     public StarTable makeStarTable( String spec, boolean wantRandom )
             throws IOException {
 
@@ -88,8 +168,9 @@ public class JDBCHandler {
                     }
                 }
             };
+            JDBCStarTable table;
             try {
-                return new JDBCStarTable( connector, frag, wantRandom );
+                table = new JDBCStarTable( connector, frag, wantRandom );
             }
 
             /* The open may fail if we've asked for a random one due to 
@@ -97,12 +178,15 @@ public class JDBCHandler {
              * one instead. */
             catch ( SQLException e ) {
                 if ( wantRandom ) {
-                    return new JDBCStarTable( connector, frag, false );
+                    table = new JDBCStarTable( connector, frag, false );
                 }
                 else {
                     throw e;
                 }
             }
+            table.setFetchSize( fetchSize );
+            table.setParallelReaders( splitKey, nReader );
+            return table;
         }
         catch ( SQLException e ) {
             StringBuffer sbuf = new StringBuffer()
@@ -141,14 +225,31 @@ public class JDBCHandler {
                 "Bad JDBC specification, should be \"jdbc:...#table-name\"" );
         }
         String frag = spec.substring( hashPos + 1 );
-        String url = spec.substring( 0, hashPos );
+        final String url = spec.substring( 0, hashPos );
 
         /* Try to get a connection using the URL. */
         Connection conn = getConnection( url );
  
-        /* And write the data to the table. */
+        /* And write the data to the table.  Any additional connections
+         * for parallel writing reuse the credentials of the first one. */
         try {
-            new JDBCFormatter( conn, startab ).createJDBCTable( frag, mode );
+            JDBCFormatter formatter = new JDBCFormatter( conn, startab );
+            formatter.setBatchSize( batchSize );
+            formatter.setCommitInterval( commitRows );
+            formatter.setRowsPerInsert( rowsPerInsert );
+            if ( nWriter > 1 ) {
+                final String user1 = user;
+                final String passwd1 = passwd;
+                formatter.setParallelWriters( new Connector() {
+                    public Connection getConnection() throws SQLException {
+                        return user1 == null
+                             ? DriverManager.getConnection( url )
+                             : DriverManager.getConnection( url, user1,
+                                                            passwd1 );
+                    }
+                }, nWriter );
+            }
+            formatter.createJDBCTable( frag, mode );
         }
         finally {
             conn.close();
@@ -6,6 +6,8 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
 import java.util.logging.Logger;
 import uk.ac.starlink.table.AbstractStarTable;
 import uk.ac.starlink.table.ColumnInfo;
@@ -13,6 +15,7 @@ import uk.ac.starlink.table.DefaultValueInfo;
 import uk.ac.starlink.table.DescribedValue;
 import uk.ac.starlink.table.RowAccess;
 import uk.ac.starlink.table.RowSequence;
+import uk.ac.starlink.table.RowSplittable;
 import uk.ac.starlink.table.ValueInfo;
 import uk.ac.starlink.table.WrapperRowSequence;
 
@@ -25,6 +28,9 @@ public class JDBCStarTable extends AbstractStarTable {
     private ColumnInfo[] colInfos_;
     private final Connector connx_;
     private final String sql_;
+    private int fetchSize_;
+    private String splitKey_;
+    private int nReader_ = 1;
 
     /**
      * Holds a random access ResultSet if this object provides random access.
@@ -211,6 +217,15 @@ public class JDBCStarTable extends AbstractStarTable {
                 public Object[] getRow() throws IOException {
                     return rset.getRow();
                 }
+                public double getDouble( int icol ) throws IOException {
+                    return rset.getDouble( icol );
+                }
+                public long getLong( int icol ) throws IOException {
+                    return rset.getLong( icol );
+                }
+                public boolean isNull( int icol ) throws IOException {
+                    return rset.isNull( icol );
+                }
                 public void close() throws IOException {
                     try {
                         conn0.close();
@@ -225,12 +240,92 @@ public class JDBCStarTable extends AbstractStarTable {
     }
 
     public RowSequence getRowSequence() throws IOException {
+        return openRowSequence( sql_ );
+    }
+
+    /**
+     * If a split key has been configured using {@link #setParallelReaders},
+     * the returned splittable divides the rows between
+     * several queries on different connections, each covering a range
+     * of the key values.  Otherwise the default implementation is used.
+     */
+    @Override
+    public RowSplittable getRowSplittable() throws IOException {
+        if ( splitKey_ != null && nReader_ > 1 ) {
+            RowSplittable split = createKeyRangeSplittable();
+            if ( split != null ) {
+                return split;
+            }
+        }
+        return super.getRowSplittable();
+    }
+
+    /**
+     * Sets the JDBC fetch size used when reading rows sequentially.
+     * If positive, the query is executed so that the driver retrieves
+     * rows from a server-side cursor in blocks of this size,
+     * which allows arbitrarily large results to be read in
+     * constant memory;
+     * see {@link JDBCUtils#createStreamingStatement(Connection,boolean,int)}.
+     * If zero (the default), driver-specific defaults are used.
+     *
+     * @param  fetchSize  rows per fetch, or 0 for default
+     */
+    public void setFetchSize( int fetchSize ) {
+        fetchSize_ = fetchSize;
+    }
+
+    /**
+     * Returns the JDBC fetch size used when reading rows sequentially.
+     *
+     * @return  rows per fetch, or 0 for default
+     */
+    public int getFetchSize() {
+        return fetchSize_;
+    }
+
+    /**
+     * Configures this table to read rows for parallel processing
+     * using several concurrent queries.
+     * When a {@link #getRowSplittable RowSplittable} is requested,
+     * the range of values of the given key expression in the query
+     * results is determined, and the rows are divided between up to
+     * <code>nReader</code> queries, each restricted to a sub-range
+     * of the key, and each executed on its own connection.
+     * The key should be a numeric expression, ideally an indexed
+     * integer column with values spread fairly evenly over its range,
+     * such as a primary key.
+     * Rows with a null key are included in the first range.
+     *
+     * <p>Note the rows of a split sequence are ordered by key range,
+     * so the overall order will not in general be the same as that
+     * of the unsplit query.
+     *
+     * @param  splitKey  SQL expression for a numeric column in the query
+     *                   results, or null for no parallel reading
+     * @param  nReader   maximum number of concurrent queries
+     */
+    public void setParallelReaders( String splitKey, int nReader ) {
+        splitKey_ = splitKey;
+        nReader_ = nReader;
+    }
+
+    /**
+     * Executes a query and returns a sequence over its rows.
+     * The returned sequence owns a connection, which is
+     * committed if required and closed when the sequence is closed.
+     *
+     * @param  sql  query text
+     * @return  row sequence
+     */
+    private RowSequence openRowSequence( String sql ) throws IOException {
         final StarResultSet srset;
         Connection conn = null;
         try {
             conn = connx_.getConnection();
-            Statement stmt = JDBCUtils.createStreamingStatement( conn, false );
-            srset = new StarResultSet( stmt.executeQuery( sql_ ) );
+            Statement stmt =
+                JDBCUtils.createStreamingStatement( conn, false, fetchSize_ );
+            srset = new StarResultSet( stmt.executeQuery( sql ) );
             checkConsistent( srset );
         }
         catch ( SQLException e ) {
@@ -260,7 +355,21 @@ public class JDBCStarTable extends AbstractStarTable {
         }
         assert conn != null;
         final Connection connection = conn;
-        return new WrapperRowSequence( srset.createRowSequence() ) {
+        final RowSequence rseq = srset.createRowSequence();
+        return new WrapperRowSequence( rseq ) {
+            @Override
+            public double getDouble( int icol ) throws IOException {
+                return rseq.getDouble( icol );
+            }
+            @Override
+            public long getLong( int icol ) throws IOException {
+                return rseq.getLong( icol );
+            }
+            @Override
+            public boolean isNull( int icol ) throws IOException {
+                return rseq.isNull( icol );
+            }
+            @Override
             public void close() throws IOException {
                 try {
                     super.close();
@@ -277,6 +386,65 @@ public class JDBCStarTable extends AbstractStarTable {
         };
     }
 
+    /**
+     * Returns a splittable which divides the rows of this table
+     * between queries on ranges of the split key.
+     * The key range and row count are determined by an initial query.
+     *
+     * @return  new splittable, or null if the query result is empty
+     */
+    private RowSplittable createKeyRangeSplittable() throws IOException {
+        String rangeSql = new StringBuffer()
+            .append( "SELECT MIN(" )
+            .append( splitKey_ )
+            .append( "), MAX(" )
+            .append( splitKey_ )
+            .append( "), COUNT(*) FROM " )
+            .append( getSubquery() )
+            .toString();
+        try {
+            Connection conn = connx_.getConnection();
+            try {
+                Statement stmt = conn.createStatement();
+                ResultSet rset = stmt.executeQuery( rangeSql );
+                rset.next();
+                double min = rset.getDouble( 1 );
+                boolean isEmpty = rset.wasNull();
+                double max = rset.getDouble( 2 );
+                long count = rset.getLong( 3 );
+                rset.close();
+                stmt.close();
+                if ( isEmpty || ! ( max >= min ) ) {
+                    return null;
+                }
+                long lo = (long) Math.floor( min );
+                long hi = (long) Math.floor( max ) + 1;
+                logger_.info( "Splitting JDBC query on " + splitKey_
+                            + " range " + lo + " - " + hi
+                            + " between up to " + nReader_ + " readers" );
+                return new KeyRangeSplittable( lo, hi, true, count,
+                                               new AtomicInteger( 1 ) );
+            }
+            finally {
+                conn.close();
+            }
+        }
+        catch ( SQLException e ) {
+            throw (IOException) new IOException( e.getMessage() )
+                               .initCause( e );
+        }
+    }
+
+    /**
+     * Returns this table's query in a form that can appear in the FROM
+     * clause of another query.
+     *
+     * @return  aliased parenthesised subquery
+     */
+    private String getSubquery() {
+        return "(" + sql_ + ") split_query";
+    }
+
     /**
      * Returns a JDBC Connection that can supply the data for this table.
      *
@@ -325,4 +493,127 @@ public class JDBCStarTable extends AbstractStarTable {
                 "ResultSet column count has changed" );
         }
     }
+
+    /**
+     * RowSplittable implementation which reads the rows with a given
+     * range of split key values using its own query and connection.
+     * Splitting divides the key range in two, and is only possible
+     * before iteration has started.
+     */
+    private class KeyRangeSplittable implements RowSplittable {
+
+        private final boolean withNulls_;
+        private final AtomicInteger nPart_;
+        private long lo_;
+        private long hi_;
+        private long size_;
+        private RowSequence rseq_;
+
+        /**
+         * Constructor.
+         *
+         * @param  lo   lower bound of key range (inclusive)
+         * @param  hi   upper bound of key range (exclusive)
+         * @param  withNulls  whether rows with null keys are included
+         * @param  size   estimated number of rows in range
+         * @param  nPart  number of parts in splittable family so far
+         */
+        KeyRangeSplittable( long lo, long hi, boolean withNulls, long size,
+                            AtomicInteger nPart ) {
+            lo_ = lo;
+            hi_ = hi;
+            withNulls_ = withNulls;
+            size_ = size;
+            nPart_ = nPart;
+        }
+
+        public RowSplittable split() {
+            if ( rseq_ == null && hi_ - lo_ >= 2 ) {
+                if ( nPart_.incrementAndGet() <= nReader_ ) {
+                    long mid = lo_ + ( hi_ - lo_ ) / 2;
+                    long size1 = size_ / 2;
+                    KeyRangeSplittable other =
+                        new KeyRangeSplittable( mid, hi_, false,
+                                                size_ - size1, nPart_ );
+                    hi_ = mid;
+                    size_ = size1;
+                    return other;
+                }
+                else {
+                    nPart_.decrementAndGet();
+                }
+            }
+            return null;
+        }
+
+        public long splittableSize() {
+            return size_;
+        }
+
+        public LongSupplier rowIndex() {
+            return null;
+        }
+
+        public boolean next() throws IOException {
+            if ( rseq_ == null ) {
+                rseq_ = openRowSequence( getRangeSql() );
+            }
+            return rseq_.next();
+        }
+
+        public Object getCell( int icol ) throws IOException {
+            return rseq_.getCell( icol );
+        }
+
+        public Object[] getRow() throws IOException {
+            return rseq_.getRow();
+        }
+
+        @Override
+        public double getDouble( int icol ) throws IOException {
+            return rseq_.getDouble( icol );
+        }
+
+        @Override
+        public long getLong( int icol ) throws IOException {
+            return rseq_.getLong( icol );
+        }
+
+        @Override
+        public boolean isNull( int icol ) throws IOException {
+            return rseq_.isNull( icol );
+        }
+
+        public void close() throws IOException {
+            if ( rseq_ != null ) {
+                rseq_.close();
+            }
+        }
+
+        /**
+         * Returns the text of the query for this object's key range.
+         *
+         * @return  SQL query
+         */
+        private String getRangeSql() {
+            StringBuffer sbuf = new StringBuffer()
+                .append( "SELECT * FROM " )
+                .append( getSubquery() )
+                .append( " WHERE (" )
+                .append( splitKey_ )
+                .append( " >= " )
+                .append( lo_ )
+                .append( " AND " )
+                .append( splitKey_ )
+                .append( " < " )
+                .append( hi_ )
+                .append( ")" );
+            if ( withNulls_ ) {
+                sbuf.append( " OR " )
+                    .append( splitKey_ )
+                    .append( " IS NULL" );
+            }
+            return sbuf.toString();
+        }
+    }
 }
@@ -50,6 +50,56 @@ public class JDBCUtils {
     public static Statement createStreamingStatement( Connection conn, 
                                                       boolean update )
             throws SQLException {
+        return createStreamingStatement( conn, update, 0 );
+    }
+
+    /**
+     * Returns a statement which tries its best to stream data,
+     * with a given JDBC fetch size.
+     * If the fetch size is positive, it overrides any driver-specific
+     * value, and the connection's autocommit mode is turned off,
+     * since many drivers (including PostgreSQL) will only fetch rows
+     * from a server-side cursor within a transaction.
+     * The statement is in any case forward-only.
+     * If the fetch size is not positive, the behaviour is as for
+     * {@link #createStreamingStatement(java.sql.Connection,boolean)}.
+     *
+     * <p>Note that the MySQL driver only honours positive fetch sizes
+     * if the connection URL includes <code>useCursorFetch=true</code>;
+     * otherwise, the default (zero) is a better choice.
+     *
+     * @param   conn  connection
+     * @param   update  true for an updatable set, false for read-only
+     * @param   fetchSize  number of rows to fetch from the database
+     *                     at a time, or non-positive for default
+     * @return  statement which (hopefully) streams results
+     */
+    public static Statement createStreamingStatement( Connection conn,
+                                                      boolean update,
+                                                      int fetchSize )
+            throws SQLException {
+        Statement stmt = createDriverStreamingStatement( conn, update );
+        if ( fetchSize > 0 ) {
+            logger_.info( "Streaming results with fetch size " + fetchSize );
+            if ( conn.getAutoCommit() ) {
+                conn.setAutoCommit( false );
+            }
+            stmt.setFetchSize( fetchSize );
+        }
+        return stmt;
+    }
+
+    /**
+     * Returns a statement which applies any known driver-specific
+     * adjustments to stream data.
+     *
+     * @param   conn  connection
+     * @param   update  true for an updatable set, false for read-only
+     * @return  statement which (hopefully) streams results
+     */
+    private static Statement createDriverStreamingStatement( Connection conn,
+                                                             boolean update )
+            throws SQLException {
         int concurrency = update ? ResultSet.CONCUR_UPDATABLE
                                  : ResultSet.CONCUR_READ_ONLY;
 
@@ -197,15 +197,68 @@ public class StarResultSet {
      * @return   the cell value
      */
     public Object getCell( int icol ) throws IOException {
-        Object base;
         try {
-            base = rset_.getObject( icol + 1 );
+            return valueHandlers_[ icol ].readValue( rset_, icol + 1 );
         }
         catch ( SQLException e ) {
-            throw (IOException) new IOException( "SQL read error" + e )
-                               .initCause( e );
+            throw readError( e );
+        }
+    }
+
+    /**
+     * Returns the value at a given column in the current row of this
+     * result set as a double precision value.
+     * For numeric columns this may avoid object creation.
+     * Callers may need to worry about synchronization.
+     *
+     * @param  icol  the column to use (first column is 0)
+     * @return   numeric cell value, or NaN
+     * @see   uk.ac.starlink.table.RowData#getDouble
+     */
+    public double getDouble( int icol ) throws IOException {
+        try {
+            return valueHandlers_[ icol ].readDouble( rset_, icol + 1 );
+        }
+        catch ( SQLException e ) {
+            throw readError( e );
+        }
+    }
+
+    /**
+     * Returns the value at a given column in the current row of this
+     * result set as a long integer value.
+     * For numeric columns this may avoid object creation.
+     * Callers may need to worry about synchronization.
+     *
+     * @param  icol  the column to use (first column is 0)
+     * @return   integer cell value, or 0
+     * @see   uk.ac.starlink.table.RowData#getLong
+     */
+    public long getLong( int icol ) throws IOException {
+        try {
+            return valueHandlers_[ icol ].readLong( rset_, icol + 1 );
+        }
+        catch ( SQLException e ) {
+            throw readError( e );
+        }
+    }
+
+    /**
+     * Indicates whether the value at a given column in the current row
+     * of this result set is null.
+     * Callers may need to worry about synchronization.
+     *
+     * @param  icol  the column to use (first column is 0)
+     * @return   true iff the cell value is null
+     * @see   uk.ac.starlink.table.RowData#isNull
+     */
+    public boolean isNull( int icol ) throws IOException {
+        try {
+            return valueHandlers_[ icol ].readNull( rset_, icol + 1 );
+        }
+        catch ( SQLException e ) {
+            throw readError( e );
         }
-        return valueHandlers_[ icol ].getValue( base );
     }
 
     /**
@@ -235,6 +288,18 @@ public class StarResultSet {
         return new ResultSetRowSequence();
     }
 
+    /**
+     * Returns an IOException wrapping an SQLException encountered
+     * when reading data.
+     *
+     * @param  e  SQL error
+     * @return  I/O error
+     */
+    private static IOException readError( SQLException e ) {
+        return (IOException) new IOException( "SQL read error" + e )
+                            .initCause( e );
+    }
+
     /**
      * Row sequence based on this result set.  Assumes that the cursor starts
      * off positioned at the top of the results, and that no other access
@@ -242,9 +307,12 @@ public class StarResultSet {
      */
     private class ResultSetRowSequence implements RowSequence {
 
+        private boolean hasRow_;
+
         public boolean next() throws IOException {
             try {
-                return rset_.next();
+                hasRow_ = rset_.next();
+                return hasRow_;
             }
             catch ( SQLException e  ) {
                 throw (IOException) new IOException( e.getMessage() )
@@ -262,6 +330,24 @@ public class StarResultSet {
             return StarResultSet.this.getRow();
         }
 
+        @Override
+        public double getDouble( int icol ) throws IOException {
+            checkHasCurrentRow();
+            return StarResultSet.this.getDouble( icol );
+        }
+
+        @Override
+        public long getLong( int icol ) throws IOException {
+            checkHasCurrentRow();
+            return StarResultSet.this.getLong( icol );
+        }
+
+        @Override
+        public boolean isNull( int icol ) throws IOException {
+            checkHasCurrentRow();
+            return StarResultSet.this.isNull( icol );
+        }
+
         public void close() throws IOException {
             try {
                 rset_.close();
@@ -274,20 +360,16 @@ public class StarResultSet {
 
         /**
          * Ensure that there is a current row.
+         * This is tracked locally rather than by asking the result set
+         * (<code>isBeforeFirst</code>), since that is called for every
+         * cell, and some drivers do not support it (SQL Server is known
+         * to report an unsupported operation).
          *
          * @throws NoSuchElementException  if there is no current row
          */
         private void checkHasCurrentRow() {
-            try {
-                if ( rset_.isBeforeFirst() ) {
-                    throw new NoSuchElementException( "No current row" );
-                }
-            }
-
-            /* SQL Server driver is known to fail here reporting an unsupported
-             * operation when isBeforeFirst is called.  Just assume it's OK
-             * in that case. */
-            catch ( SQLException e ) {
+            if ( ! hasRow_ ) {
+                throw new NoSuchElementException( "No current row" );
             }
         }
     }
@@ -2,6 +2,7 @@ package uk.ac.starlink.table.jdbc;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.Arrays;
@@ -114,6 +115,25 @@ public class TypeMappers {
                                                   dateTimeSeparator );
     }
 
+    /**
+     * Returns a ValueHandler which behaves like a given one,
+     * but which reads numeric values from the result set using
+     * the typed accessor methods rather than <code>getObject</code>.
+     * If the base handler's content class is not a primitive wrapper
+     * numeric type, the base handler itself is returned.
+     *
+     * @param  base  handler supplying column metadata and conversions
+     * @return   handler with typed numeric access where possible
+     */
+    private static ValueHandler numericValueHandler( ValueHandler base ) {
+        Class<?> clazz = base.getColumnInfo().getContentClass();
+        return clazz == Double.class || clazz == Float.class ||
+               clazz == Long.class || clazz == Integer.class ||
+               clazz == Short.class || clazz == Byte.class
+             ? new NumericValueHandler( base )
+             : base;
+    }
+
     /**
      * ValueHandler implementation which performs no conversions.
      */
@@ -295,6 +315,101 @@ public class TypeMappers {
         }
     }
 
+    /**
+     * ValueHandler wrapper for numeric columns which reads values
+     * using the typed accessor methods of the ResultSet
+     * (<code>getDouble</code>, <code>getLong</code> etc) followed by
+     * <code>wasNull</code>.  This avoids the work done by some drivers
+     * in <code>getObject</code>, and allows primitive values to be
+     * read without object creation.
+     */
+    private static class NumericValueHandler implements ValueHandler {
+        private final ValueHandler base_;
+        private final Class<?> clazz_;
+        private final boolean isInteger_;
+
+        /**
+         * Constructor.
+         *
+         * @param  base  handler whose content class is one of the
+         *               primitive wrapper numeric types
+         */
+        NumericValueHandler( ValueHandler base ) {
+            base_ = base;
+            clazz_ = base.getColumnInfo().getContentClass();
+            isInteger_ = clazz_ != Double.class && clazz_ != Float.class;
+        }
+
+        public ColumnInfo getColumnInfo() {
+            return base_.getColumnInfo();
+        }
+
+        public Object getValue( Object baseValue ) {
+            return base_.getValue( baseValue );
+        }
+
+        @Override
+        public Object readValue( ResultSet rset, int jcol1 )
+                throws SQLException {
+            final Object value;
+            if ( clazz_ == Double.class ) {
+                value = Double.valueOf( rset.getDouble( jcol1 ) );
+            }
+            else if ( clazz_ == Float.class ) {
+                value = Float.valueOf( rset.getFloat( jcol1 ) );
+            }
+            else if ( clazz_ == Long.class ) {
+                value = Long.valueOf( rset.getLong( jcol1 ) );
+            }
+            else if ( clazz_ == Integer.class ) {
+                value = Integer.valueOf( rset.getInt( jcol1 ) );
+            }
+            else if ( clazz_ == Short.class ) {
+                value = Short.valueOf( rset.getShort( jcol1 ) );
+            }
+            else if ( clazz_ == Byte.class ) {
+                value = Byte.valueOf( rset.getByte( jcol1 ) );
+            }
+            else {
+                assert false;
+                return base_.readValue( rset, jcol1 );
+            }
+            return rset.wasNull() ? null : value;
+        }
+
+        @Override
+        public double readDouble( ResultSet rset, int jcol1 )
+                throws SQLException {
+            double dval = rset.getDouble( jcol1 );
+            return rset.wasNull() ? Double.NaN : dval;
+        }
+
+        @Override
+        public long readLong( ResultSet rset, int jcol1 )
+                throws SQLException {
+            if ( isInteger_ ) {
+                long lval = rset.getLong( jcol1 );
+                return rset.wasNull() ? 0L : lval;
+            }
+            else {
+                double dval = rset.getDouble( jcol1 );
+                return rset.wasNull() ? 0L : (long) dval;
+            }
+        }
+
+        @Override
+        public boolean readNull( ResultSet rset, int jcol1 )
+                throws SQLException {
+            if ( isInteger_ ) {
+                rset.getLong( jcol1 );
+            }
+            else {
+                rset.getDouble( jcol1 );
+            }
+            return rset.wasNull();
+        }
+    }
+
     /**
      * TypeMapper which performs no conversions.
      */
@@ -302,7 +417,8 @@ public class TypeMappers {
         public ValueHandler createValueHandler( ResultSetMetaData meta,
                                                 int jcol1 )
                 throws SQLException {
-            return createIdentityValueHandler( meta, jcol1 );
+            return numericValueHandler( createIdentityValueHandler( meta,
+                                                                    jcol1 ) );
         }
         public List<ValueInfo> getColumnAuxDataInfos() {
             return Collections.unmodifiableList( Arrays
@@ -388,13 +504,14 @@ public class TypeMappers {
             else if ( BigDecimal.class.isAssignableFrom( clazz ) ) {
                 logger_.info( "JDBC table handler casting BigDecimal column "
                             + meta.getColumnName( jcol1 ) + " to Double" );
-                return new ForcedValueHandler( meta, jcol1, Double.class ) {
+                return numericValueHandler(
+                        new ForcedValueHandler( meta, jcol1, Double.class ) {
                     public Object getValue( Object baseValue ) {
                         return baseValue instanceof Number
                              ? new Double( ((Number) baseValue).doubleValue() )
                              : null;
                     }
-                };
+                } );
             }
 
             /* Is this a likely type?  Earlier versions of the code 
@@ -411,9 +528,10 @@ public class TypeMappers {
                 };
             }
 
-            /* If no known special case, use the identity handler. */
+            /* If no known special case, use the identity handler,
+             * reading numeric values with typed access. */
             else {
-                return handler;
+                return numericValueHandler( handler );
             }
         }
 
@@ -1,5 +1,7 @@
 package uk.ac.starlink.table.jdbc;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import uk.ac.starlink.table.ColumnInfo;
 
 /**
@@ -27,4 +29,79 @@ public interface ValueHandler {
      * @return  value for processing
      */
     Object getValue( Object baseValue );
+
+    /**
+     * Reads the value for this handler's column from the current row
+     * of a result set, in the form that {@link #getValue} would return.
+     *
+     * <p>The default implementation calls
+     * {@link java.sql.ResultSet#getObject(int)} and passes the result
+     * to {@link #getValue};
+     * implementations may override it to use the typed accessor methods
+     * of the result set instead.
+     *
+     * @param  rset  result set positioned at a row
+     * @param  jcol1   JDBC column index (first column is 1)
+     * @return  value for processing
+     */
+    default Object readValue( ResultSet rset, int jcol1 )
+            throws SQLException {
+        return getValue( rset.getObject( jcol1 ) );
+    }
+
+    /**
+     * Reads the value for this handler's column from the current row
+     * of a result set as a double precision value.
+     * Blank and non-numeric values are returned as NaN.
+     *
+     * <p>The default implementation calls {@link #readValue};
+     * implementations may override it to avoid object creation.
+     *
+     * @param  rset  result set positioned at a row
+     * @param  jcol1   JDBC column index (first column is 1)
+     * @return  numeric value, or NaN
+     * @see   uk.ac.starlink.table.RowData#getDouble
+     */
+    default double readDouble( ResultSet rset, int jcol1 )
+            throws SQLException {
+        Object value = readValue( rset, jcol1 );
+        return value instanceof Number ? ((Number) value).doubleValue()
+                                       : Double.NaN;
+    }
+
+    /**
+     * Reads the value for this handler's column from the current row
+     * of a result set as a long integer value.
+     * Blank and non-numeric values are returned as zero.
+     *
+     * <p>The default implementation calls {@link #readValue};
+     * implementations may override it to avoid object creation.
+     *
+     * @param  rset  result set positioned at a row
+     * @param  jcol1   JDBC column index (first column is 1)
+     * @return  integer value, or 0
+     * @see   uk.ac.starlink.table.RowData#getLong
+     */
+    default long readLong( ResultSet rset, int jcol1 ) throws SQLException {
+        Object value = readValue( rset, jcol1 );
+        return value instanceof Number ? ((Number) value).longValue()
+                                       : 0L;
+    }
+
+    /**
+     * Indicates whether the value for this handler's column in the
+     * current row of a result set is null.
+     *
+     * <p>The default implementation calls {@link #readValue};
+     * implementations may override it to avoid object creation.
+     *
+     * @param  rset  result set positioned at a row
+     * @param  jcol1   JDBC column index (first column is 1)
+     * @return  true iff the value is null
+     * @see   uk.ac.starlink.table.RowData#isNull
+     */
+    default boolean readNull( ResultSet rset, int jcol1 )
+            throws SQLException {
+        return readValue( rset, jcol1 ) == null;
+    }
 }
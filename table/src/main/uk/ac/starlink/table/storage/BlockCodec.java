@@ -0,0 +1,739 @@
+package uk.ac.starlink.table.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import uk.ac.starlink.table.ValueInfo;
+
+/**
+ * Serializes and deserializes blocks of column values in compressed form.
+ * Unlike a {@link Codec}, which writes values one at a time,
+ * an instance of this class encodes a whole block of values together,
+ * choosing an encoding appropriate to the content of each block.
+ * Each encoded block can be decoded independently of the others.
+ *
+ * <p>The encodings used are lightweight ones:
+ * <ul>
+ * <li>integer types: frame-of-reference or delta encoding,
+ *     whichever is smaller, with bit-packing of the residuals</li>
+ * <li>floating point types: XOR with the previous value, with
+ *     leading and trailing zeros elided, or raw values if that is
+ *     not smaller</li>
+ * <li>strings: block-local dictionary with bit-packed codes for
+ *     low-cardinality blocks, otherwise length-prefixed UTF-8</li>
+ * </ul>
+ * Null values for numeric types are recorded in a bitmap,
+ * which is omitted for blocks with no nulls.
+ *
+ * <p>Instances are obtained using the {@link #getBlockCodec} method.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+abstract class BlockCodec {
+
+    private static final Charset UTF8 = Charset.forName( "UTF-8" );
+    private static final int FLAG_NULLS = 0x01;
+    private static final int FLAG_ALT = 0x02;
+
+    /**
+     * Encodes a block of values.
+     *
+     * @param  values  array containing values, some of which may be null
+     * @param  n   number of values to encode from the start of the array
+     * @return   encoded block
+     */
+    public abstract byte[] encodeBlock( Object[] values, int n )
+            throws IOException;
+
+    /**
+     * Decodes a block of values.
+     *
+     * @param  buf  buffer starting with the bytes of an encoded block;
+     *              it may be longer than the encoded block
+     * @param  n   number of values in the block
+     * @return   decoded block
+     */
+    public abstract Block decodeBlock( byte[] buf, int n );
+
+    /**
+     * Returns a block codec suitable for serializing/deserializing the
+     * contents of a given ValueInfo.  If no codec is available,
+     * null is returned.
+     *
+     * @param  info  object describing the kind of item which is required to
+     *         be de/serialized
+     * @return  block codec, or null
+     */
+    public static BlockCodec getBlockCodec( ValueInfo info ) {
+        Class<?> clazz = info.getContentClass();
+        if ( clazz == Byte.class ||
+             clazz == Short.class ||
+             clazz == Integer.class ||
+             clazz == Long.class ||
+             clazz == Character.class ||
+             clazz == Boolean.class ) {
+            return new IntegerBlockCodec( clazz );
+        }
+        else if ( clazz == Double.class ) {
+            return new FloatingBlockCodec( true );
+        }
+        else if ( clazz == Float.class ) {
+            return new FloatingBlockCodec( false );
+        }
+        else if ( clazz == String.class ) {
+            return new StringBlockCodec();
+        }
+        else {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the number of bits required to represent a value
+     * treated as unsigned.
+     *
+     * @param  value  value
+     * @return  bit count in range 0..64
+     */
+    private static int bitWidth( long value ) {
+        return 64 - Long.numberOfLeadingZeros( value );
+    }
+
+    /**
+     * Returns a mask with the lowest <code>nbit</code> bits set.
+     *
+     * @param  nbit  bit count in range 0..64
+     * @return  mask
+     */
+    private static long mask( int nbit ) {
+        return nbit >= 64 ? -1L : ( 1L << nbit ) - 1;
+    }
+
+    /**
+     * Provides access to the values of a decoded block.
+     */
+    public interface Block {
+
+        /**
+         * Returns a value as an object.
+         *
+         * @param  i  index within block
+         * @return  value, or null
+         */
+        Object getObject( int i );
+
+        /**
+         * Returns a value as a floating point number.
+         *
+         * @param  i  index within block
+         * @return  value, or NaN for null
+         */
+        double getDouble( int i );
+
+        /**
+         * Returns a value as a long integer.
+         *
+         * @param  i  index within block
+         * @return  value, or 0 for null
+         */
+        long getLong( int i );
+
+        /**
+         * Returns a value as a boolean.
+         *
+         * @param  i  index within block
+         * @return  value, or false for null
+         */
+        boolean getBoolean( int i );
+    }
+
+    /**
+     * Writes values of arbitrary bit width to a byte stream,
+     * most significant bit first.
+     */
+    private static class BitWriter {
+        private final ByteArrayOutputStream out_;
+        private long acc_;
+        private int nacc_;
+
+        /**
+         * Constructor.
+         *
+         * @param  out  destination stream
+         */
+        BitWriter( ByteArrayOutputStream out ) {
+            out_ = out;
+        }
+
+        /**
+         * Writes the lowest bits of a value.
+         *
+         * @param  value  value
+         * @param  nbit   number of bits to write, in range 0..64
+         */
+        void write( long value, int nbit ) {
+            if ( nbit > 32 ) {
+                write( value >>> 32, nbit - 32 );
+                write( value, 32 );
+            }
+            else {
+                acc_ = ( acc_ << nbit ) | ( value & mask( nbit ) );
+                nacc_ += nbit;
+                while ( nacc_ >= 8 ) {
+                    nacc_ -= 8;
+                    out_.write( (int) ( acc_ >>> nacc_ ) );
+                }
+                acc_ &= mask( nacc_ );
+            }
+        }
+
+        /**
+         * Writes any partially filled final byte.
+         */
+        void flush() {
+            if ( nacc_ > 0 ) {
+                out_.write( (int) ( acc_ << ( 8 - nacc_ ) ) );
+                acc_ = 0;
+                nacc_ = 0;
+            }
+        }
+    }
+
+    /**
+     * Reads values written by a BitWriter.
+     */
+    private static class BitReader {
+        private final byte[] buf_;
+        private int ipos_;
+        private long acc_;
+        private int nacc_;
+
+        /**
+         * Constructor.
+         *
+         * @param  buf  buffer
+         * @param  ipos  byte offset at which bit data starts
+         */
+        BitReader( byte[] buf, int ipos ) {
+            buf_ = buf;
+            ipos_ = ipos;
+        }
+
+        /**
+         * Reads an unsigned value.
+         *
+         * @param  nbit  number of bits to read, in range 0..64
+         * @return  value
+         */
+        long read( int nbit ) {
+            if ( nbit > 32 ) {
+                long hi = read( nbit - 32 );
+                return ( hi << 32 ) | read( 32 );
+            }
+            else {
+                while ( nacc_ < nbit ) {
+                    acc_ = ( acc_ << 8 ) | ( buf_[ ipos_++ ] & 0xff );
+                    nacc_ += 8;
+                }
+                nacc_ -= nbit;
+                long value = ( acc_ >>> nacc_ ) & mask( nbit );
+                acc_ &= mask( nacc_ );
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Writes a null bitmap if required.
+     *
+     * @param  values  values
+     * @param  n   value count
+     * @param  bits  destination
+     */
+    private static void writeNulls( Object[] values, int n, BitWriter bits ) {
+        for ( int i = 0; i < n; i++ ) {
+            bits.write( values[ i ] == null ? 1 : 0, 1 );
+        }
+    }
+
+    /**
+     * Reads a null bitmap.
+     *
+     * @param  n   value count
+     * @param  bits  source
+     * @return  null flag array
+     */
+    private static boolean[] readNulls( int n, BitReader bits ) {
+        boolean[] nulls = new boolean[ n ];
+        for ( int i = 0; i < n; i++ ) {
+            nulls[ i ] = bits.read( 1 ) != 0;
+        }
+        return nulls;
+    }
+
+    /**
+     * Indicates whether any of the values in an array are null.
+     *
+     * @param  values  values
+     * @param  n   value count
+     * @return  true iff any nulls are present
+     */
+    private static boolean hasNulls( Object[] values, int n ) {
+        for ( int i = 0; i < n; i++ ) {
+            if ( values[ i ] == null ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Codec for integer-like scalar values, stored internally as longs.
+     */
+    private static class IntegerBlockCodec extends BlockCodec {
+        private final Class<?> clazz_;
+
+        /**
+         * Constructor.
+         *
+         * @param  clazz  content class
+         */
+        IntegerBlockCodec( Class<?> clazz ) {
+            clazz_ = clazz;
+        }
+
+        public byte[] encodeBlock( Object[] values, int n ) {
+
+            /* Convert to longs.  Nulls are represented by the preceding
+             * value so as not to disturb the encoding. */
+            long[] vals = new long[ n ];
+            long last = 0;
+            for ( int i = 0; i < n; i++ ) {
+                Object value = values[ i ];
+                if ( value != null ) {
+                    last = toLong( value );
+                }
+                vals[ i ] = last;
+            }
+
+            /* Work out the cost of frame-of-reference and delta encodings. */
+            long min = vals[ 0 ];
+            long max = vals[ 0 ];
+            long dmin = 0;
+            long dmax = 0;
+            for ( int i = 1; i < n; i++ ) {
+                long v = vals[ i ];
+                min = Math.min( min, v );
+                max = Math.max( max, v );
+                long d = v - vals[ i - 1 ];
+                if ( i == 1 ) {
+                    dmin = d;
+                    dmax = d;
+                }
+                else {
+                    dmin = Math.min( dmin, d );
+                    dmax = Math.max( dmax, d );
+                }
+            }
+            int forWidth = bitWidth( max - min );
+            int deltaWidth = bitWidth( dmax - dmin );
+            boolean isDelta =
+                n > 1 && (long) ( n - 1 ) * deltaWidth + 64
+                       < (long) n * forWidth;
+
+            /* Write the block. */
+            boolean hasNulls = hasNulls( values, n );
+            ByteArrayOutputStream bout = new ByteArrayOutputStream();
+            bout.write( ( hasNulls ? FLAG_NULLS : 0 )
+                      | ( isDelta ? FLAG_ALT : 0 ) );
+            BitWriter bits = new BitWriter( bout );
+            if ( isDelta ) {
+                bits.write( vals[ 0 ], 64 );
+                bits.write( dmin, 64 );
+                bits.write( deltaWidth, 8 );
+            }
+            else {
+                bits.write( min, 64 );
+                bits.write( forWidth, 8 );
+            }
+            if ( hasNulls ) {
+                writeNulls( values, n, bits );
+            }
+            if ( isDelta ) {
+                for ( int i = 1; i < n; i++ ) {
+                    bits.write( vals[ i ] - vals[ i - 1 ] - dmin, deltaWidth );
+                }
+            }
+            else {
+                for ( int i = 0; i < n; i++ ) {
+                    bits.write( vals[ i ] - min, forWidth );
+                }
+            }
+            bits.flush();
+            return bout.toByteArray();
+        }
+
+        public Block decodeBlock( byte[] buf, int n ) {
+            int flags = buf[ 0 ];
+            BitReader bits = new BitReader( buf, 1 );
+            final long[] vals = new long[ n ];
+            final boolean[] nulls;
+            if ( ( flags & FLAG_ALT ) != 0 ) {
+                long v = bits.read( 64 );
+                long dmin = bits.read( 64 );
+                int width = (int) bits.read( 8 );
+                nulls = ( flags & FLAG_NULLS ) != 0 ? readNulls( n, bits )
+                                                    : null;
+                vals[ 0 ] = v;
+                for ( int i = 1; i < n; i++ ) {
+                    v += bits.read( width ) + dmin;
+                    vals[ i ] = v;
+                }
+            }
+            else {
+                long min = bits.read( 64 );
+                int width = (int) bits.read( 8 );
+                nulls = ( flags & FLAG_NULLS ) != 0 ? readNulls( n, bits )
+                                                    : null;
+                for ( int i = 0; i < n; i++ ) {
+                    vals[ i ] = bits.read( width ) + min;
+                }
+            }
+            return new Block() {
+                public Object getObject( int i ) {
+                    return nulls != null && nulls[ i ] ? null
+                                                       : fromLong( vals[ i ] );
+                }
+                public double getDouble( int i ) {
+                    return nulls != null && nulls[ i ] ? Double.NaN
+                                                       : (double) vals[ i ];
+                }
+                public long getLong( int i ) {
+                    return nulls != null && nulls[ i ] ? 0L : vals[ i ];
+                }
+                public boolean getBoolean( int i ) {
+                    return ( nulls == null || ! nulls[ i ] ) && vals[ i ] != 0;
+                }
+            };
+        }
+
+        /**
+         * Converts a non-null value to a long.
+         *
+         * @param  value  value of this codec's class
+         * @return  long representation
+         */
+        private long toLong( Object value ) {
+            if ( value instanceof Number ) {
+                return ((Number) value).longValue();
+            }
+            else if ( value instanceof Character ) {
+                return ((Character) value).charValue();
+            }
+            else {
+                return ((Boolean) value).booleanValue() ? 1 : 0;
+            }
+        }
+
+        /**
+         * Converts a long to a value of this codec's class.
+         *
+         * @param  lval  long representation
+         * @return   value
+         */
+        private Object fromLong( long lval ) {
+            if ( clazz_ == Integer.class ) {
+                return Integer.valueOf( (int) lval );
+            }
+            else if ( clazz_ == Long.class ) {
+                return Long.valueOf( lval );
+            }
+            else if ( clazz_ == Short.class ) {
+                return Short.valueOf( (short) lval );
+            }
+            else if ( clazz_ == Byte.class ) {
+                return Byte.valueOf( (byte) lval );
+            }
+            else if ( clazz_ == Character.class ) {
+                return Character.valueOf( (char) lval );
+            }
+            else {
+                return Boolean.valueOf( lval != 0 );
+            }
+        }
+    }
+
+    /**
+     * Codec for floating point values.
+     */
+    private static class FloatingBlockCodec extends BlockCodec {
+        private final boolean isDouble_;
+        private final int width_;
+
+        /**
+         * Constructor.
+         *
+         * @param  isDouble  true for double precision, false for single
+         */
+        FloatingBlockCodec( boolean isDouble ) {
+            isDouble_ = isDouble;
+            width_ = isDouble ? 64 : 32;
+        }
+
+        public byte[] encodeBlock( Object[] values, int n ) {
+
+            /* Get bit patterns.  Nulls are represented by the preceding
+             * value so as not to disturb the encoding. */
+            long[] bitVals = new long[ n ];
+            long last = 0;
+            for ( int i = 0; i < n; i++ ) {
+                Object value = values[ i ];
+                if ( value != null ) {
+                    last = isDouble_
+                         ? Double.doubleToRawLongBits( ((Number) value)
+                                                      .doubleValue() )
+                         : Float.floatToRawIntBits( ((Number) value)
+                                                   .floatValue() )
+                           & 0xffffffffL;
+                }
+                bitVals[ i ] = last;
+            }
+            boolean hasNulls = hasNulls( values, n );
+
+            /* Try XOR encoding. */
+            ByteArrayOutputStream bout = new ByteArrayOutputStream();
+            bout.write( ( hasNulls ? FLAG_NULLS : 0 ) | FLAG_ALT );
+            BitWriter bits = new BitWriter( bout );
+            if ( hasNulls ) {
+                writeNulls( values, n, bits );
+            }
+            bits.write( bitVals[ 0 ], width_ );
+            for ( int i = 1; i < n; i++ ) {
+                long x = bitVals[ i ] ^ bitVals[ i - 1 ];
+                if ( x == 0 ) {
+                    bits.write( 0, 1 );
+                }
+                else {
+                    int lz = Long.numberOfLeadingZeros( x ) - ( 64 - width_ );
+                    int tz = Long.numberOfTrailingZeros( x );
+                    int len = width_ - lz - tz;
+                    bits.write( 1, 1 );
+                    bits.write( lz, 6 );
+                    bits.write( len - 1, 6 );
+                    bits.write( x >>> tz, len );
+                }
+            }
+            bits.flush();
+
+            /* If that didn't help, just write raw values. */
+            if ( bout.size() > 1 + (long) n * width_ / 8 + ( n + 7 ) / 8 ) {
+                bout = new ByteArrayOutputStream();
+                bout.write( hasNulls ? FLAG_NULLS : 0 );
+                bits = new BitWriter( bout );
+                if ( hasNulls ) {
+                    writeNulls( values, n, bits );
+                }
+                for ( int i = 0; i < n; i++ ) {
+                    bits.write( bitVals[ i ], width_ );
+                }
+                bits.flush();
+            }
+            return bout.toByteArray();
+        }
+
+        public Block decodeBlock( byte[] buf, int n ) {
+            int flags = buf[ 0 ];
+            BitReader bits = new BitReader( buf, 1 );
+            final boolean[] nulls = ( flags & FLAG_NULLS ) != 0
+                                  ? readNulls( n, bits )
+                                  : null;
+            final double[] vals = new double[ n ];
+            if ( ( flags & FLAG_ALT ) != 0 ) {
+                long b = bits.read( width_ );
+                vals[ 0 ] = toDouble( b );
+                for ( int i = 1; i < n; i++ ) {
+                    if ( bits.read( 1 ) != 0 ) {
+                        int lz = (int) bits.read( 6 );
+                        int len = (int) bits.read( 6 ) + 1;
+                        int tz = width_ - lz - len;
+                        b ^= bits.read( len ) << tz;
+                    }
+                    vals[ i ] = toDouble( b );
+                }
+            }
+            else {
+                for ( int i = 0; i < n; i++ ) {
+                    vals[ i ] = toDouble( bits.read( width_ ) );
+                }
+            }
+            return new Block() {
+                public Object getObject( int i ) {
+                    if ( nulls != null && nulls[ i ] ) {
+                        return null;
+                    }
+                    else {
+                        return isDouble_ ? (Object) Double.valueOf( vals[ i ] )
+                                         : (Object) Float.valueOf( (float)
+                                                                   vals[ i ] );
+                    }
+                }
+                public double getDouble( int i ) {
+                    return nulls != null && nulls[ i ] ? Double.NaN
+                                                       : vals[ i ];
+                }
+                public long getLong( int i ) {
+                    return nulls != null && nulls[ i ] ? 0L
+                                                       : (long) vals[ i ];
+                }
+                public boolean getBoolean( int i ) {
+                    return ( nulls == null || ! nulls[ i ] ) && vals[ i ] != 0;
+                }
+            };
+        }
+
+        /**
+         * Converts a bit pattern to a floating point value.
+         *
+         * @param  bitVal  bit pattern
+         * @return  value
+         */
+        private double toDouble( long bitVal ) {
+            return isDouble_ ? Double.longBitsToDouble( bitVal )
+                             : Float.intBitsToFloat( (int) bitVal );
+        }
+    }
+
+    /**
+     * Codec for string values.
+     */
+    private static class StringBlockCodec extends BlockCodec {
+
+        public byte[] encodeBlock( Object[] values, int n )
+                throws IOException {
+
+            /* Assemble a dictionary, and see if it's small enough
+             * to be worth using. */
+            Map<String,Integer> dict = new LinkedHashMap<String,Integer>();
+            for ( int i = 0; i < n && dict.size() * 2 <= n; i++ ) {
+                Object value = values[ i ];
+                if ( value != null ) {
+                    String sval = value.toString();
+                    if ( ! dict.containsKey( sval ) ) {
+                        dict.put( sval, Integer.valueOf( dict.size() + 1 ) );
+                    }
+                }
+            }
+            boolean isDict = dict.size() * 2 <= n;
+
+            /* Write the block. */
+            ByteArrayOutputStream bout = new ByteArrayOutputStream();
+            DataOutputStream dout = new DataOutputStream( bout );
+            dout.writeByte( isDict ? FLAG_ALT : 0 );
+            if ( isDict ) {
+                dout.writeInt( dict.size() );
+                for ( String sval : dict.keySet() ) {
+                    writeString( sval, dout );
+                }
+                dout.flush();
+                int width = bitWidth( dict.size() );
+                BitWriter bits = new BitWriter( bout );
+                for ( int i = 0; i < n; i++ ) {
+                    Object value = values[ i ];
+                    bits.write( value == null
+                                ? 0
+                                : dict.get( value.toString() ).intValue(),
+                                width );
+                }
+                bits.flush();
+            }
+            else {
+                for ( int i = 0; i < n; i++ ) {
+                    Object value = values[ i ];
+                    writeString( value == null ? null : value.toString(),
+                                 dout );
+                }
+                dout.flush();
+            }
+            return bout.toByteArray();
+        }
+
+        public Block decodeBlock( byte[] buf, int n ) {
+            ByteBuffer bbuf = ByteBuffer.wrap( buf );
+            int flags = bbuf.get();
+            final String[] vals = new String[ n ];
+            if ( ( flags & FLAG_ALT ) != 0 ) {
+                int ndict = bbuf.getInt();
+                String[] dict = new String[ ndict + 1 ];
+                for ( int id = 1; id <= ndict; id++ ) {
+                    dict[ id ] = readString( bbuf );
+                }
+                int width = bitWidth( ndict );
+                BitReader bits = new BitReader( buf, bbuf.position() );
+                for ( int i = 0; i < n; i++ ) {
+                    vals[ i ] = dict[ (int) bits.read( width ) ];
+                }
+            }
+            else {
+                for ( int i = 0; i < n; i++ ) {
+                    vals[ i ] = readString( bbuf );
+                }
+            }
+            return new Block() {
+                public Object getObject( int i ) {
+                    return vals[ i ];
+                }
+                public double getDouble( int i ) {
+                    return Double.NaN;
+                }
+                public long getLong( int i ) {
+                    return 0L;
+                }
+                public boolean getBoolean( int i ) {
+                    return false;
+                }
+            };
+        }
+
+        /**
+         * Writes a length-prefixed string.
+         *
+         * @param  sval  string, may be null
+         * @param  out   destination
+         */
+        private static void writeString( String sval, DataOutputStream out )
+                throws IOException {
+            if ( sval == null ) {
+                out.writeInt( -1 );
+            }
+            else {
+                byte[] bytes = sval.getBytes( UTF8 );
+                out.writeInt( bytes.length );
+                out.write( bytes );
+            }
+        }
+
+        /**
+         * Reads a string written by writeString.
+         *
+         * @param  bbuf  buffer positioned at start of string
+         * @return  string, may be null
+         */
+        private static String readString( ByteBuffer bbuf ) {
+            int leng = bbuf.getInt();
+            if ( leng < 0 ) {
+                return null;
+            }
+            else {
+                String sval = new String( bbuf.array(), bbuf.position(), leng,
+                                          UTF8 );
+                bbuf.position( bbuf.position() + leng );
+                return sval;
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package uk.ac.starlink.table.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Dispenses byte buffers whose storage is outside of the java heap.
+ * Two implementations are provided by factory methods:
+ * one uses direct buffers, and the other uses successive regions
+ * of a memory-mapped scratch file.
+ *
+ * <p>Buffers are dispensed with their position at zero and
+ * their limit equal to their capacity.
+ * This class is not thread-safe.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+abstract class BufferAllocator {
+
+    /**
+     * Returns a new buffer of a given size.
+     * The buffer's initial content is all zeros.
+     *
+     * @param  nbyte  buffer capacity in bytes
+     * @return  new buffer
+     */
+    public abstract ByteBuffer allocate( int nbyte ) throws IOException;
+
+    /**
+     * Indicates that no further calls to {@link #allocate} will be made.
+     * Buffers already dispensed remain usable.
+     */
+    public abstract void close() throws IOException;
+
+    /**
+     * Returns an allocator which dispenses direct buffers.
+     * The total amount of storage available will be limited by the
+     * JVM's direct memory limit.
+     *
+     * @return  new allocator
+     */
+    public static BufferAllocator createDirectAllocator() {
+        return new BufferAllocator() {
+            public ByteBuffer allocate( int nbyte ) {
+                return ByteBuffer.allocateDirect( nbyte );
+            }
+            public void close() {
+            }
+        };
+    }
+
+    /**
+     * Returns an allocator which dispenses buffers mapped from
+     * consecutive regions of a given file.
+     * The file is extended as required.
+     * It is the caller's responsibility to delete the file when
+     * it is no longer required.
+     *
+     * @param  file  scratch file
+     * @return  new allocator
+     */
+    public static BufferAllocator createMappedAllocator( File file )
+            throws IOException {
+        final RandomAccessFile raf = new RandomAccessFile( file, "rw" );
+        final FileChannel chan = raf.getChannel();
+        return new BufferAllocator() {
+            long offset_;
+            public ByteBuffer allocate( int nbyte ) throws IOException {
+                ByteBuffer bbuf =
+                    chan.map( FileChannel.MapMode.READ_WRITE, offset_, nbyte );
+                offset_ += nbyte;
+                return bbuf;
+            }
+            public void close() throws IOException {
+                raf.close();
+            }
+        };
+    }
+}
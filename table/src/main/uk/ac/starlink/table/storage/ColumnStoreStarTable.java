@@ -21,6 +21,8 @@ class ColumnStoreStarTable extends WrapperStarTable {
     private final int ncol_;
     private final ColumnStore[] colStores_;
     private final ThreadLocal<ColumnReader>[] colReaders_;
+    private final boolean[] isNumeric_;
+    private final boolean[] isBoolean_;
 
     /**
      * Constructor.
@@ -37,6 +39,16 @@ class ColumnStoreStarTable extends WrapperStarTable {
         ncol_ = template.getColumnCount();
         colStores_ = colStores;
 
+        /* Record which columns can use the typed column reader methods
+         * for primitive access. */
+        isNumeric_ = new boolean[ ncol_ ];
+        isBoolean_ = new boolean[ ncol_ ];
+        for ( int ic = 0; ic < ncol_; ic++ ) {
+            Class<?> clazz = template.getColumnInfo( ic ).getContentClass();
+            isNumeric_[ ic ] = Number.class.isAssignableFrom( clazz );
+            isBoolean_[ ic ] = clazz == Boolean.class;
+        }
+
         /* Prepare ThreadLocals to service the thread-safe table
          * random access methods. */
         @SuppressWarnings({"unchecked","rawtypes"})
@@ -104,6 +116,36 @@ class ColumnStoreStarTable extends WrapperStarTable {
                     throw new IllegalStateException();
                 }
             }
+            public double getDouble( int icol ) throws IOException {
+                if ( irow >= 0 ) {
+                    return isNumeric_[ icol ]
+                         ? readers[ icol ].getDoubleValue( irow )
+                         : RowSequence.super.getDouble( icol );
+                }
+                else {
+                    throw new IllegalStateException();
+                }
+            }
+            public long getLong( int icol ) throws IOException {
+                if ( irow >= 0 ) {
+                    return isNumeric_[ icol ]
+                         ? readers[ icol ].getLongValue( irow )
+                         : RowSequence.super.getLong( icol );
+                }
+                else {
+                    throw new IllegalStateException();
+                }
+            }
+            public boolean getBoolean( int icol ) throws IOException {
+                if ( irow >= 0 ) {
+                    return isBoolean_[ icol ]
+                         ? readers[ icol ].getBooleanValue( irow )
+                         : RowSequence.super.getBoolean( icol );
+                }
+                else {
+                    throw new IllegalStateException();
+                }
+            }
             public void close() {
             }
         };
@@ -133,6 +175,21 @@ class ColumnStoreStarTable extends WrapperStarTable {
                 }
                 return row;
             }
+            public double getDouble( int icol ) throws IOException {
+                return isNumeric_[ icol ]
+                     ? readers[ icol ].getDoubleValue( irow_ )
+                     : RowAccess.super.getDouble( icol );
+            }
+            public long getLong( int icol ) throws IOException {
+                return isNumeric_[ icol ]
+                     ? readers[ icol ].getLongValue( irow_ )
+                     : RowAccess.super.getLong( icol );
+            }
+            public boolean getBoolean( int icol ) throws IOException {
+                return isBoolean_[ icol ]
+                     ? readers[ icol ].getBooleanValue( irow_ )
+                     : RowAccess.super.getBoolean( icol );
+            }
             public void close() {
             }
         };
@@ -0,0 +1,150 @@
+package uk.ac.starlink.table.storage;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.logging.Logger;
+import uk.ac.starlink.util.LongList;
+
+/**
+ * ColumnStore implementation which uses a streamed file to store
+ * a variable number of data items in compressed blocks.
+ * Each block of {@link #BLOCK_ROWS} values is encoded independently
+ * using a {@link BlockCodec}, and the offset of each block is held in
+ * memory, so that random access requires decoding only a single block.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+class CompressedColumnStore implements ColumnStore {
+
+    private final BlockCodec codec_;
+    private final File dataFile_;
+    private final DataOutputStream dataOut_;
+    private final LongList offsetList_;
+    private final Object[] blockValues_;
+    private int nInBlock_;
+    private long dataOffset_;
+    private long nrow_;
+    private long[] offsets_;
+    private ByteBuffer[] bbufs_;
+
+    /** Number of values in each compressed block. */
+    public static final int BLOCK_ROWS = 4096;
+
+    private static final Logger logger_ =
+        Logger.getLogger( "uk.ac.starlink.table.storage" );
+
+    /**
+     * Constructor.
+     *
+     * @param  codec  block encoder/decoder for the type of data stored
+     *                in this column
+     * @param  dataFile  filename used for storing the data;
+     *                   it is the caller's responsibility to clear this up
+     */
+    public CompressedColumnStore( BlockCodec codec, File dataFile )
+            throws IOException {
+        codec_ = codec;
+        dataFile_ = dataFile;
+        dataOut_ = new DataOutputStream(
+                       new BufferedOutputStream(
+                           new FileOutputStream( dataFile ) ) );
+        offsetList_ = new LongList();
+        blockValues_ = new Object[ BLOCK_ROWS ];
+    }
+
+    public void acceptCell( Object value ) throws IOException {
+        blockValues_[ nInBlock_++ ] = value;
+        nrow_++;
+        if ( nInBlock_ == BLOCK_ROWS ) {
+            flushBlock();
+        }
+    }
+
+    public void endCells() throws IOException {
+        if ( nInBlock_ > 0 ) {
+            flushBlock();
+        }
+        offsetList_.add( dataOffset_ );
+        dataOut_.close();
+        offsets_ = offsetList_.toLongArray();
+        bbufs_ = FileByteStore.toByteBuffers( dataFile_ );
+        logger_.config( "Compressed column: " + nrow_ + " rows in "
+                      + dataOffset_ + " bytes" );
+    }
+
+    public ColumnReader createReader() {
+        final ByteStoreAccess access =
+            NioByteStoreAccess
+           .createAccess( NioByteStoreAccess.copyBuffers( bbufs_ ) );
+        return new ColumnReader() {
+            int iblock_ = -1;
+            BlockCodec.Block block_;
+            byte[] buf_ = new byte[ 0 ];
+            public long getRowCount() {
+                return nrow_;
+            }
+            public Object getObjectValue( long ix ) throws IOException {
+                int i = locate( ix );
+                return block_.getObject( i );
+            }
+            public double getDoubleValue( long ix ) throws IOException {
+                int i = locate( ix );
+                return block_.getDouble( i );
+            }
+            public int getIntValue( long ix ) throws IOException {
+                int i = locate( ix );
+                return (int) block_.getLong( i );
+            }
+            public long getLongValue( long ix ) throws IOException {
+                int i = locate( ix );
+                return block_.getLong( i );
+            }
+            public boolean getBooleanValue( long ix ) throws IOException {
+                int i = locate( ix );
+                return block_.getBoolean( i );
+            }
+
+            /**
+             * Ensures that the block containing a given value is decoded.
+             *
+             * @param  ix  value index
+             * @return  index within current block
+             */
+            private int locate( long ix ) throws IOException {
+                int iblock = (int) ( ix / BLOCK_ROWS );
+                if ( iblock != iblock_ ) {
+                    long off = offsets_[ iblock ];
+                    int leng = (int) ( offsets_[ iblock + 1 ] - off );
+                    if ( buf_.length < leng ) {
+                        buf_ = new byte[ leng ];
+                    }
+                    access.seek( off );
+                    access.readBytes( buf_, 0, leng );
+                    int n = (int) Math.min( BLOCK_ROWS,
+                                            nrow_ - iblock * (long) BLOCK_ROWS );
+                    block_ = codec_.decodeBlock( buf_, n );
+                    iblock_ = iblock;
+                }
+                return (int) ( ix - iblock * (long) BLOCK_ROWS );
+            }
+        };
+    }
+
+    /**
+     * Encodes and writes the values accumulated so far as a block.
+     */
+    private void flushBlock() throws IOException {
+        byte[] bytes = codec_.encodeBlock( blockValues_, nInBlock_ );
+        offsetList_.add( dataOffset_ );
+        dataOut_.write( bytes );
+        dataOffset_ += bytes.length;
+        Arrays.fill( blockValues_, 0, nInBlock_, null );
+        nInBlock_ = 0;
+    }
+}
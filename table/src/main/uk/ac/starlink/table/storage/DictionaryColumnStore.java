@@ -0,0 +1,187 @@
+package uk.ac.starlink.table.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ColumnStore implementation for string values which stores an integer
+ * code for each value in off-heap storage.
+ * Codes refer to entries in a {@link StringDictionary}, which may be
+ * shared between several columns.
+ * Once the dictionary is full, strings not already present in it are
+ * written to an overflow file store instead, so that high-cardinality
+ * columns do not fill up the heap.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+class DictionaryColumnStore implements ColumnStore {
+
+    private final StringDictionary dict_;
+    private final PrimitiveColumnStore codeStore_;
+    private final File overflowFile_;
+    private final File overflowIndexFile_;
+    private ColumnStore overflowStore_;
+    private int nOverflow_;
+
+    /**
+     * Constructor.
+     *
+     * @param  dict   dictionary
+     * @param  alloc  supplies storage for codes
+     * @param  overflowFile  filename used for storing strings not in the
+     *                       dictionary; it is the caller's responsibility
+     *                       to clear this up
+     * @param  overflowIndexFile  filename used for storing offsets of
+     *                            strings not in the dictionary;
+     *                            it is the caller's responsibility
+     *                            to clear this up
+     */
+    public DictionaryColumnStore( StringDictionary dict, BufferAllocator alloc,
+                                  File overflowFile, File overflowIndexFile ) {
+        dict_ = dict;
+        codeStore_ = PrimitiveColumnStore.createStore( Integer.class, alloc );
+        overflowFile_ = overflowFile;
+        overflowIndexFile_ = overflowIndexFile;
+    }
+
+    public void acceptCell( Object value ) throws IOException {
+        if ( value == null ) {
+            codeStore_.acceptCell( null );
+        }
+        else {
+            String sval = value.toString();
+            int code = dict_.getCode( sval );
+            if ( code < 0 ) {
+                if ( overflowStore_ == null ) {
+                    overflowStore_ =
+                        new IndexedStreamColumnStore( Codec.STRING,
+                                                      overflowFile_,
+                                                      overflowIndexFile_ );
+                }
+                overflowStore_.acceptCell( sval );
+                code = -1 - nOverflow_++;
+            }
+            codeStore_.acceptCell( Integer.valueOf( code ) );
+        }
+    }
+
+    public void endCells() throws IOException {
+        codeStore_.endCells();
+        if ( overflowStore_ != null ) {
+            overflowStore_.endCells();
+        }
+    }
+
+    public ColumnReader createReader() {
+        final ColumnReader codeReader = codeStore_.createReader();
+        final ColumnReader overflowReader = overflowStore_ == null
+                                          ? null
+                                          : overflowStore_.createReader();
+        return new ColumnReader() {
+            public long getRowCount() {
+                return codeReader.getRowCount();
+            }
+            public Object getObjectValue( long ix ) throws IOException {
+                Object code = codeReader.getObjectValue( ix );
+                if ( code == null ) {
+                    return null;
+                }
+                else {
+                    int icode = ((Integer) code).intValue();
+                    return icode >= 0
+                         ? dict_.getString( icode )
+                         : overflowReader.getObjectValue( -1L - icode );
+                }
+            }
+            public double getDoubleValue( long ix ) {
+                return Double.NaN;
+            }
+            public int getIntValue( long ix ) {
+                return 0;
+            }
+            public long getLongValue( long ix ) {
+                return 0L;
+            }
+            public boolean getBooleanValue( long ix ) {
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Maps strings to integer codes.
+     * Only strings up to a given length are stored, and the number of
+     * entries is limited, so that the heap cost is bounded.
+     * This class is not thread-safe for population, but may be read
+     * concurrently once population is complete.
+     */
+    static class StringDictionary {
+
+        private final int maxEntries_;
+        private final int maxLength_;
+        private final Map<String,Integer> codeMap_;
+        private final List<String> strings_;
+
+        /**
+         * Constructor.
+         *
+         * @param  maxEntries  maximum number of entries
+         * @param  maxLength   maximum length of entry
+         */
+        public StringDictionary( int maxEntries, int maxLength ) {
+            maxEntries_ = maxEntries;
+            maxLength_ = maxLength;
+            codeMap_ = new HashMap<String,Integer>();
+            strings_ = new ArrayList<String>();
+        }
+
+        /**
+         * Returns the code for a given string, adding it to this
+         * dictionary if it is not present and there is room.
+         *
+         * @param  str  non-null string
+         * @return  non-negative code, or -1 if the string is not and
+         *          cannot be stored in this dictionary
+         */
+        public int getCode( String str ) {
+            Integer code = codeMap_.get( str );
+            if ( code != null ) {
+                return code.intValue();
+            }
+            else if ( strings_.size() < maxEntries_ &&
+                      str.length() <= maxLength_ ) {
+                int icode = strings_.size();
+                strings_.add( str );
+                codeMap_.put( str, Integer.valueOf( icode ) );
+                return icode;
+            }
+            else {
+                return -1;
+            }
+        }
+
+        /**
+         * Returns the string corresponding to a given code.
+         *
+         * @param  code  code obtained from {@link #getCode}
+         * @return  string
+         */
+        public String getString( int code ) {
+            return strings_.get( code );
+        }
+
+        /**
+         * Returns the number of entries in this dictionary.
+         *
+         * @return  entry count
+         */
+        public int size() {
+            return strings_.size();
+        }
+    }
+}
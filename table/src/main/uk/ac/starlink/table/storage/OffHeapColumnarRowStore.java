@@ -0,0 +1,243 @@
+package uk.ac.starlink.table.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.logging.Logger;
+import uk.ac.starlink.table.ColumnInfo;
+import uk.ac.starlink.table.RowStore;
+import uk.ac.starlink.table.StarTable;
+import uk.ac.starlink.table.TableFormatException;
+
+/**
+ * RowStore implementation which stores cell data column by column
+ * outside of the java heap.
+ *
+ * <p>Scalar numeric, character and boolean columns are stored as
+ * primitive values in memory-mapped or direct byte buffers,
+ * with a bitmap to record null values.
+ * String columns are stored as integer codes referring to a
+ * string dictionary shared between all the columns of the table;
+ * the dictionary is of bounded size, and strings which do not fit in it
+ * are written to a scratch file instead.
+ * Other columns (arrays) are serialized to scratch files
+ * using {@link Codec}s, as for {@link SidewaysRowStore}.
+ * No per-row objects are retained on the heap,
+ * and the resulting table provides thread-safe random access.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+public class OffHeapColumnarRowStore implements RowStore {
+
+    private final File file_;
+    private final boolean isDirect_;
+    private final Set<File> tempFiles_;
+    private int ncol_;
+    private StarTable template_;
+    private long lrow_;
+    private BufferAllocator alloc_;
+    private DictionaryColumnStore.StringDictionary dict_;
+    private ColumnStore[] colStores_;
+    private StarTable storedTable_;
+    private static final Logger logger_ =
+        Logger.getLogger( "uk.ac.starlink.table.storage" );
+
+    /** Maximum number of entries in the shared string dictionary. */
+    private static final int DICT_MAX_ENTRIES = 1 << 16;
+
+    /** Maximum length of a string in the shared string dictionary. */
+    private static final int DICT_MAX_LENGTH = 64;
+
+    /**
+     * Constructs a new row store with a given base path name to use for
+     * temporary files.
+     *
+     * @param   file  base scratch file name
+     * @param   isDirect  if true, primitive column data is stored in
+     *                    direct buffers; if false, it is stored in
+     *                    memory-mapped scratch files
+     */
+    public OffHeapColumnarRowStore( File file, boolean isDirect ) {
+        file_ = file;
+        isDirect_ = isDirect;
+        tempFiles_ = new HashSet<File>();
+    }
+
+    /**
+     * Constructs a new row store using memory-mapped scratch files
+     * with an automatically chosen (and guaranteed unique) base pathname.
+     */
+    public OffHeapColumnarRowStore() throws IOException {
+        this( File.createTempFile( "OffHeapColumnarRowStore", ".bin" ),
+              false );
+        file_.deleteOnExit();
+    }
+
+    public void acceptMetadata( StarTable meta ) throws TableFormatException {
+        try {
+            doAcceptMetadata( meta );
+        }
+        catch ( TableFormatException e ) {
+            tidy();
+            throw e;
+        }
+        catch ( IOException e ) {
+            tidy();
+            throw new TableFormatException( "I/O trouble during RowStore setup",
+                                            e );
+        }
+    }
+
+    /**
+     * Does the work for preparing to store cell data.
+     *
+     * @param  meta   template (metadata) table
+     */
+    private void doAcceptMetadata( StarTable meta ) throws IOException {
+        if ( template_ != null ) {
+            throw new IllegalStateException( "Metadata already submitted" );
+        }
+        template_ = meta;
+        ncol_ = meta.getColumnCount();
+
+        /* Check that all the columns can be stored before
+         * allocating any resources. */
+        Codec[] codecs = new Codec[ ncol_ ];
+        for ( int icol = 0; icol < ncol_; icol++ ) {
+            ColumnInfo cinfo = meta.getColumnInfo( icol );
+            Class<?> clazz = cinfo.getContentClass();
+            if ( ! PrimitiveColumnStore.canStore( clazz ) &&
+                 clazz != String.class ) {
+                Codec codec = Codec.getCodec( cinfo );
+                if ( codec == null ) {
+                    throw new TableFormatException( "No codec available for "
+                                                  + cinfo );
+                }
+                codecs[ icol ] = codec;
+            }
+        }
+
+        /* Set up the storage. */
+        if ( isDirect_ ) {
+            logger_.info( "Storing table data off-heap in direct buffers" );
+            alloc_ = BufferAllocator.createDirectAllocator();
+        }
+        else {
+            logger_.info( "Storing table data off-heap in " + file_ );
+            file_.deleteOnExit();
+            tempFiles_.add( file_ );
+            alloc_ = BufferAllocator.createMappedAllocator( file_ );
+        }
+        dict_ = new DictionaryColumnStore
+                   .StringDictionary( DICT_MAX_ENTRIES, DICT_MAX_LENGTH );
+        colStores_ = new ColumnStore[ ncol_ ];
+        for ( int icol = 0; icol < ncol_; icol++ ) {
+            Class<?> clazz = meta.getColumnInfo( icol ).getContentClass();
+            Codec codec = codecs[ icol ];
+            File dataFile = new File( file_ + "_" + icol );
+            File indexFile = new File( dataFile + "_ix" );
+            ColumnStore colStore;
+            if ( codec == null && clazz == String.class ) {
+                addTempFile( dataFile );
+                addTempFile( indexFile );
+                colStore = new DictionaryColumnStore( dict_, alloc_,
+                                                      dataFile, indexFile );
+            }
+            else if ( codec == null ) {
+                colStore = PrimitiveColumnStore.createStore( clazz, alloc_ );
+            }
+            else if ( codec.getItemSize() >= 0 ) {
+                addTempFile( dataFile );
+                colStore = new StreamColumnStore( codec, dataFile );
+            }
+            else {
+                addTempFile( dataFile );
+                addTempFile( indexFile );
+                colStore = new IndexedStreamColumnStore( codec, dataFile,
+                                                         indexFile );
+            }
+            colStores_[ icol ] = colStore;
+        }
+    }
+
+    public void acceptRow( Object[] row ) throws IOException {
+        if ( template_ == null ) {
+            throw new IllegalStateException( "acceptMetadata not called" );
+        }
+        if ( storedTable_ != null ) {
+            throw new IllegalStateException( "endRows already called" );
+        }
+        for ( int icol = 0; icol < ncol_; icol++ ) {
+            colStores_[ icol ].acceptCell( row[ icol ] );
+        }
+        lrow_++;
+    }
+
+    public void endRows() throws IOException {
+        if ( template_ == null ) {
+            throw new IllegalStateException( "acceptMetadata not called" );
+        }
+        if ( storedTable_ != null ) {
+            throw new IllegalStateException( "endRows already called" );
+        }
+        for ( int icol = 0; icol < ncol_; icol++ ) {
+            colStores_[ icol ].endCells();
+        }
+        alloc_.close();
+        logger_.info( "Stored " + lrow_ + " rows off-heap"
+                    + " (string dictionary size " + dict_.size() + ")" );
+        storedTable_ = new ColumnStoreStarTable( template_, lrow_, colStores_ );
+    }
+
+    public StarTable getStarTable() {
+        if ( storedTable_ == null ) {
+            throw new IllegalStateException( "endRows not called" );
+        }
+        return storedTable_;
+    }
+
+    /**
+     * Records a scratch file for deletion.
+     *
+     * @param  file  scratch file
+     */
+    private void addTempFile( File file ) {
+        file.deleteOnExit();
+        tempFiles_.add( file );
+    }
+
+    /**
+     * Tidies up resources associated with this store (which may be
+     * substantial).  This object may no longer be used following a
+     * call to this method.
+     */
+    private void tidy() {
+
+        /* Deletes any temporary files we have created to store data. */
+        for ( Iterator<File> it = tempFiles_.iterator(); it.hasNext(); ) {
+            File file = it.next();
+            if ( file.exists() ) {
+                if ( file.delete() ) {
+                    logger_.info( "Deleted temporary file " + file );
+                    it.remove();
+                }
+                else {
+                    logger_.warning( "Failed to delete temporary file "
+                                   + file );
+                }
+            }
+        }
+    }
+
+    protected void finalize() throws Throwable {
+        try {
+            tidy();
+        }
+        finally {
+            super.finalize();
+        }
+    }
+}
@@ -0,0 +1,454 @@
+package uk.ac.starlink.table.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ColumnStore implementation which stores scalar primitive values
+ * in byte buffers obtained from a {@link BufferAllocator}.
+ *
+ * <p>Values are written to a sequence of chunks.  The first few chunks
+ * grow geometrically in size, so that small columns do not use much
+ * storage, up to a fixed maximum size, so that the number of buffers
+ * stays modest for very large columns.
+ * Null values are recorded in a bitmap alongside each chunk,
+ * which is only allocated if the chunk actually contains a null.
+ *
+ * <p>Instances are obtained using the {@link #createStore} factory method.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+abstract class PrimitiveColumnStore implements ColumnStore {
+
+    private final BufferAllocator alloc_;
+    private final int itemSize_;
+    private final List<ByteBuffer> dataBufList_;
+    private final List<ByteBuffer> flagBufList_;
+    private long nrow_;
+    private long chunkStart_;
+    private long chunkEnd_;
+    private ByteBuffer dataBuf_;
+    private ByteBuffer[] dataBufs_;
+    private ByteBuffer[] flagBufs_;
+
+    /** Log2 of the number of rows in the first chunk. */
+    private static final int MIN_BITS = 12;
+
+    /** Log2 of the maximum number of rows in a chunk. */
+    private static final int MAX_BITS = 22;
+
+    /**
+     * Constructor.
+     *
+     * @param  alloc  supplies storage
+     * @param  itemSize  number of bytes per stored value
+     */
+    protected PrimitiveColumnStore( BufferAllocator alloc, int itemSize ) {
+        alloc_ = alloc;
+        itemSize_ = itemSize;
+        dataBufList_ = new ArrayList<ByteBuffer>();
+        flagBufList_ = new ArrayList<ByteBuffer>();
+    }
+
+    /**
+     * Writes a non-null value to a buffer.
+     *
+     * @param  buf  buffer
+     * @param  ix   item index into buffer
+     * @param  value   non-null value
+     */
+    abstract void putValue( ByteBuffer buf, int ix, Object value );
+
+    /**
+     * Reads a value from a buffer as an object.
+     *
+     * @param  buf  buffer
+     * @param  ix   item index into buffer
+     * @return   value
+     */
+    abstract Object getObject( ByteBuffer buf, int ix );
+
+    /**
+     * Reads a value from a buffer as a floating point number.
+     *
+     * @param  buf  buffer
+     * @param  ix   item index into buffer
+     * @return   value
+     */
+    abstract double getDouble( ByteBuffer buf, int ix );
+
+    /**
+     * Reads a value from a buffer as a long integer.
+     *
+     * @param  buf  buffer
+     * @param  ix   item index into buffer
+     * @return   value
+     */
+    abstract long getLong( ByteBuffer buf, int ix );
+
+    public void acceptCell( Object value ) throws IOException {
+        if ( nrow_ == chunkEnd_ ) {
+            addChunk();
+        }
+        int ix = (int) ( nrow_ - chunkStart_ );
+        if ( value == null ) {
+            int ichunk = flagBufList_.size() - 1;
+            ByteBuffer flagBuf = flagBufList_.get( ichunk );
+            if ( flagBuf == null ) {
+                int nflagByte = ( getChunkSize( ichunk ) + 7 ) / 8;
+                flagBuf = alloc_.allocate( nflagByte );
+                flagBufList_.set( ichunk, flagBuf );
+            }
+            int ibyte = ix >> 3;
+            flagBuf.put( ibyte, (byte) ( flagBuf.get( ibyte )
+                                       | ( 1 << ( ix & 7 ) ) ) );
+        }
+        else {
+            putValue( dataBuf_, ix, value );
+        }
+        nrow_++;
+    }
+
+    public void endCells() {
+        dataBufs_ = dataBufList_.toArray( new ByteBuffer[ 0 ] );
+        flagBufs_ = flagBufList_.toArray( new ByteBuffer[ 0 ] );
+    }
+
+    public ColumnReader createReader() {
+        return new PrimitiveReader();
+    }
+
+    /**
+     * Allocates storage for the next chunk.
+     */
+    private void addChunk() throws IOException {
+        int ichunk = dataBufList_.size();
+        int size = getChunkSize( ichunk );
+        dataBuf_ = alloc_.allocate( size * itemSize_ );
+        dataBufList_.add( dataBuf_ );
+        flagBufList_.add( null );
+        chunkStart_ = getChunkStart( ichunk );
+        chunkEnd_ = chunkStart_ + size;
+    }
+
+    /**
+     * Returns the index of the chunk containing a given row.
+     *
+     * @param  irow  row index
+     * @return  chunk index
+     */
+    static int getChunkIndex( long irow ) {
+        if ( irow < ( 1L << MIN_BITS ) ) {
+            return 0;
+        }
+        else if ( irow < ( 1L << MAX_BITS ) ) {
+            return 63 - Long.numberOfLeadingZeros( irow ) - ( MIN_BITS - 1 );
+        }
+        else {
+            return (int) ( irow >> MAX_BITS ) + ( MAX_BITS - MIN_BITS );
+        }
+    }
+
+    /**
+     * Returns the index of the first row in a given chunk.
+     *
+     * @param  ichunk  chunk index
+     * @return   row index
+     */
+    static long getChunkStart( int ichunk ) {
+        if ( ichunk == 0 ) {
+            return 0;
+        }
+        else if ( ichunk <= MAX_BITS - MIN_BITS ) {
+            return 1L << ( ichunk + MIN_BITS - 1 );
+        }
+        else {
+            return ( (long) ( ichunk - ( MAX_BITS - MIN_BITS ) ) ) << MAX_BITS;
+        }
+    }
+
+    /**
+     * Returns the number of rows in a given chunk.
+     *
+     * @param  ichunk  chunk index
+     * @return  row count
+     */
+    static int getChunkSize( int ichunk ) {
+        if ( ichunk == 0 ) {
+            return 1 << MIN_BITS;
+        }
+        else if ( ichunk <= MAX_BITS - MIN_BITS ) {
+            return 1 << ( ichunk + MIN_BITS - 1 );
+        }
+        else {
+            return 1 << MAX_BITS;
+        }
+    }
+
+    /**
+     * Returns a store for values of a given class, if possible.
+     *
+     * @param  clazz  content class of column
+     * @param  alloc  supplies storage
+     * @return   new store, or null if <code>clazz</code> is not a
+     *           supported scalar type
+     */
+    public static PrimitiveColumnStore createStore( Class<?> clazz,
+                                                    BufferAllocator alloc ) {
+        if ( clazz == Byte.class ) {
+            return new BytePrimitiveStore( alloc );
+        }
+        else if ( clazz == Short.class ) {
+            return new ShortPrimitiveStore( alloc );
+        }
+        else if ( clazz == Integer.class ) {
+            return new IntPrimitiveStore( alloc );
+        }
+        else if ( clazz == Long.class ) {
+            return new LongPrimitiveStore( alloc );
+        }
+        else if ( clazz == Float.class ) {
+            return new FloatPrimitiveStore( alloc );
+        }
+        else if ( clazz == Double.class ) {
+            return new DoublePrimitiveStore( alloc );
+        }
+        else if ( clazz == Character.class ) {
+            return new CharPrimitiveStore( alloc );
+        }
+        else if ( clazz == Boolean.class ) {
+            return new BooleanPrimitiveStore( alloc );
+        }
+        else {
+            return null;
+        }
+    }
+
+    /**
+     * Indicates whether values of a given class can be stored by an
+     * instance of this class.
+     *
+     * @param  clazz  content class of column
+     * @return  true iff {@link #createStore} will return a non-null value
+     *          for <code>clazz</code>
+     */
+    public static boolean canStore( Class<?> clazz ) {
+        return createStore( clazz, null ) != null;
+    }
+
+    /**
+     * Reader implementation.  Only absolute buffer access methods are used,
+     * so that the buffers can be shared between readers.
+     */
+    private class PrimitiveReader implements ColumnReader {
+        private long lo_;
+        private long hi_;
+        private ByteBuffer data_;
+        private ByteBuffer flags_;
+
+        public long getRowCount() {
+            return nrow_;
+        }
+
+        public Object getObjectValue( long irow ) {
+            int ix = locate( irow );
+            return isNull( ix ) ? null : getObject( data_, ix );
+        }
+
+        public double getDoubleValue( long irow ) {
+            int ix = locate( irow );
+            return isNull( ix ) ? Double.NaN : getDouble( data_, ix );
+        }
+
+        public int getIntValue( long irow ) {
+            int ix = locate( irow );
+            return isNull( ix ) ? 0 : (int) getLong( data_, ix );
+        }
+
+        public long getLongValue( long irow ) {
+            int ix = locate( irow );
+            return isNull( ix ) ? 0L : getLong( data_, ix );
+        }
+
+        public boolean getBooleanValue( long irow ) {
+            int ix = locate( irow );
+            return ! isNull( ix ) && getDouble( data_, ix ) != 0;
+        }
+
+        /**
+         * Prepares to read a given row.
+         *
+         * @param  irow  row index
+         * @return   item index into current chunk buffers
+         */
+        private int locate( long irow ) {
+            if ( irow < lo_ || irow >= hi_ ) {
+                int ichunk = getChunkIndex( irow );
+                lo_ = getChunkStart( ichunk );
+                hi_ = lo_ + getChunkSize( ichunk );
+                data_ = dataBufs_[ ichunk ];
+                flags_ = flagBufs_[ ichunk ];
+            }
+            return (int) ( irow - lo_ );
+        }
+
+        /**
+         * Indicates whether an item in the current chunk is null.
+         *
+         * @param  ix  item index into current chunk buffers
+         * @return  true iff null
+         */
+        private boolean isNull( int ix ) {
+            return flags_ != null
+                && ( flags_.get( ix >> 3 ) & ( 1 << ( ix & 7 ) ) ) != 0;
+        }
+    }
+
+    private static class BytePrimitiveStore extends PrimitiveColumnStore {
+        BytePrimitiveStore( BufferAllocator alloc ) {
+            super( alloc, 1 );
+        }
+        void putValue( ByteBuffer buf, int ix, Object value ) {
+            buf.put( ix, ((Number) value).byteValue() );
+        }
+        Object getObject( ByteBuffer buf, int ix ) {
+            return Byte.valueOf( buf.get( ix ) );
+        }
+        double getDouble( ByteBuffer buf, int ix ) {
+            return buf.get( ix );
+        }
+        long getLong( ByteBuffer buf, int ix ) {
+            return buf.get( ix );
+        }
+    }
+
+    private static class ShortPrimitiveStore extends PrimitiveColumnStore {
+        ShortPrimitiveStore( BufferAllocator alloc ) {
+            super( alloc, 2 );
+        }
+        void putValue( ByteBuffer buf, int ix, Object value ) {
+            buf.putShort( ix * 2, ((Number) value).shortValue() );
+        }
+        Object getObject( ByteBuffer buf, int ix ) {
+            return Short.valueOf( buf.getShort( ix * 2 ) );
+        }
+        double getDouble( ByteBuffer buf, int ix ) {
+            return buf.getShort( ix * 2 );
+        }
+        long getLong( ByteBuffer buf, int ix ) {
+            return buf.getShort( ix * 2 );
+        }
+    }
+
+    private static class IntPrimitiveStore extends PrimitiveColumnStore {
+        IntPrimitiveStore( BufferAllocator alloc ) {
+            super( alloc, 4 );
+        }
+        void putValue( ByteBuffer buf, int ix, Object value ) {
+            buf.putInt( ix * 4, ((Number) value).intValue() );
+        }
+        Object getObject( ByteBuffer buf, int ix ) {
+            return Integer.valueOf( buf.getInt( ix * 4 ) );
+        }
+        double getDouble( ByteBuffer buf, int ix ) {
+            return buf.getInt( ix * 4 );
+        }
+        long getLong( ByteBuffer buf, int ix ) {
+            return buf.getInt( ix * 4 );
+        }
+    }
+
+    private static class LongPrimitiveStore extends PrimitiveColumnStore {
+        LongPrimitiveStore( BufferAllocator alloc ) {
+            super( alloc, 8 );
+        }
+        void putValue( ByteBuffer buf, int ix, Object value ) {
+            buf.putLong( ix * 8, ((Number) value).longValue() );
+        }
+        Object getObject( ByteBuffer buf, int ix ) {
+            return Long.valueOf( buf.getLong( ix * 8 ) );
+        }
+        double getDouble( ByteBuffer buf, int ix ) {
+            return buf.getLong( ix * 8 );
+        }
+        long getLong( ByteBuffer buf, int ix ) {
+            return buf.getLong( ix * 8 );
+        }
+    }
+
+    private static class FloatPrimitiveStore extends PrimitiveColumnStore {
+        FloatPrimitiveStore( BufferAllocator alloc ) {
+            super( alloc, 4 );
+        }
+        void putValue( ByteBuffer buf, int ix, Object value ) {
+            buf.putFloat( ix * 4, ((Number) value).floatValue() );
+        }
+        Object getObject( ByteBuffer buf, int ix ) {
+            return Float.valueOf( buf.getFloat( ix * 4 ) );
+        }
+        double getDouble( ByteBuffer buf, int ix ) {
+            return buf.getFloat( ix * 4 );
+        }
+        long getLong( ByteBuffer buf, int ix ) {
+            return (long) buf.getFloat( ix * 4 );
+        }
+    }
+
+    private static class DoublePrimitiveStore extends PrimitiveColumnStore {
+        DoublePrimitiveStore( BufferAllocator alloc ) {
+            super( alloc, 8 );
+        }
+        void putValue( ByteBuffer buf, int ix, Object value ) {
+            buf.putDouble( ix * 8, ((Number) value).doubleValue() );
+        }
+        Object getObject( ByteBuffer buf, int ix ) {
+            return Double.valueOf( buf.getDouble( ix * 8 ) );
+        }
+        double getDouble( ByteBuffer buf, int ix ) {
+            return buf.getDouble( ix * 8 );
+        }
+        long getLong( ByteBuffer buf, int ix ) {
+            return (long) buf.getDouble( ix * 8 );
+        }
+    }
+
+    private static class CharPrimitiveStore extends PrimitiveColumnStore {
+        CharPrimitiveStore( BufferAllocator alloc ) {
+            super( alloc, 2 );
+        }
+        void putValue( ByteBuffer buf, int ix, Object value ) {
+            buf.putChar( ix * 2, ((Character) value).charValue() );
+        }
+        Object getObject( ByteBuffer buf, int ix ) {
+            return Character.valueOf( buf.getChar( ix * 2 ) );
+        }
+        double getDouble( ByteBuffer buf, int ix ) {
+            return buf.getChar( ix * 2 );
+        }
+        long getLong( ByteBuffer buf, int ix ) {
+            return buf.getChar( ix * 2 );
+        }
+    }
+
+    private static class BooleanPrimitiveStore extends PrimitiveColumnStore {
+        BooleanPrimitiveStore( BufferAllocator alloc ) {
+            super( alloc, 1 );
+        }
+        void putValue( ByteBuffer buf, int ix, Object value ) {
+            buf.put( ix, ((Boolean) value).booleanValue() ? (byte) 1
+                                                          : (byte) 0 );
+        }
+        Object getObject( ByteBuffer buf, int ix ) {
+            return Boolean.valueOf( buf.get( ix ) != 0 );
+        }
+        double getDouble( ByteBuffer buf, int ix ) {
+            return buf.get( ix );
+        }
+        long getLong( ByteBuffer buf, int ix ) {
+            return buf.get( ix );
+        }
+    }
+}
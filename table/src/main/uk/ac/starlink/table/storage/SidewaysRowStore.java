@@ -25,6 +25,7 @@ import uk.ac.starlink.table.TableFormatException;
 public class SidewaysRowStore implements RowStore {
 
     private final File file_;
+    private final boolean compress_;
     private final Set<File> tempFiles_;
     private int ncol_;
     private StarTable template_;
@@ -41,7 +42,23 @@ public class SidewaysRowStore implements RowStore {
      * @param   file  base scratch file name
      */
     public SidewaysRowStore( File file ) throws IOException {
+        this( file, false );
+    }
+
+    /**
+     * Constructs a new row store with a given base path name to use for
+     * temporary files, optionally using compression.
+     * If compression is selected, columns of scalar and string types
+     * are stored in independently decodable compressed blocks,
+     * which reduces the size of the scratch files at the expense of
+     * some CPU time on access.
+     *
+     * @param   file  base scratch file name
+     * @param   compress  true to compress column data where possible
+     */
+    public SidewaysRowStore( File file, boolean compress ) throws IOException {
         file_ = file;
+        compress_ = compress;
         tempFiles_ = new HashSet<File>();
     }
 
@@ -50,7 +67,18 @@ public class SidewaysRowStore implements RowStore {
      * guaranteed unique) base pathname for scrach files.
      */
     public SidewaysRowStore() throws IOException {
-        this( File.createTempFile( "SidewaysRowStore", ".bin" ) );
+        this( false );
+    }
+
+    /**
+     * Constructs a new row store, optionally using compression,
+     * with an automatically chosen (and guaranteed unique) base pathname
+     * for scratch files.
+     *
+     * @param   compress  true to compress column data where possible
+     */
+    public SidewaysRowStore( boolean compress ) throws IOException {
+        this( File.createTempFile( "SidewaysRowStore", ".bin" ), compress );
         file_.deleteOnExit();
     }
 
@@ -88,10 +116,14 @@ public class SidewaysRowStore implements RowStore {
         template_ = meta;
         ncol_ = meta.getColumnCount();
         Codec[] codecs = new Codec[ ncol_ ];
+        BlockCodec[] blockCodecs = new BlockCodec[ ncol_ ];
         for ( int icol = 0; icol < ncol_; icol++ ) {
             ColumnInfo cinfo = meta.getColumnInfo( icol );
+            if ( compress_ ) {
+                blockCodecs[ icol ] = BlockCodec.getBlockCodec( cinfo );
+            }
             Codec codec = Codec.getCodec( cinfo );
-            if ( codec == null ) {
+            if ( codec == null && blockCodecs[ icol ] == null ) {
                 throw new TableFormatException( "No codec available for " + 
                                                 cinfo );
             }
@@ -119,6 +151,11 @@ public class SidewaysRowStore implements RowStore {
             FileChannel chan = raf.getChannel();
             long offset = 0L;
             for ( int icol = 0; icol < ncol_; icol++ ) {
+                if ( blockCodecs[ icol ] != null ) {
+                    colStores_[ icol ] =
+                        createCompressedStore( blockCodecs[ icol ], icol );
+                    continue;
+                }
                 Codec codec = codecs[ icol ];
                 int itemSize = codec.getItemSize();
                 boolean fixedSize = itemSize >= 0;
@@ -148,6 +185,11 @@ public class SidewaysRowStore implements RowStore {
          * required, one for the offsets and one for the data. */
         else {
             for ( int icol = 0; icol < ncol_; icol++ ) {
+                if ( blockCodecs[ icol ] != null ) {
+                    colStores_[ icol ] =
+                        createCompressedStore( blockCodecs[ icol ], icol );
+                    continue;
+                }
                 Codec codec = codecs[ icol ];
                 int itemSize = codec.getItemSize();
                 boolean fixedSize = itemSize >= 0;
@@ -170,6 +212,22 @@ public class SidewaysRowStore implements RowStore {
         }
     }
 
+    /**
+     * Returns a new compressed column store.
+     *
+     * @param  blockCodec  block codec
+     * @param  icol   column index
+     * @return  new column store
+     */
+    private ColumnStore createCompressedStore( BlockCodec blockCodec,
+                                               int icol )
+            throws IOException {
+        File dataFile = new File( file_ + "_" + icol + "_z" );
+        dataFile.deleteOnExit();
+        tempFiles_.add( dataFile );
+        return new CompressedColumnStore( blockCodec, dataFile );
+    }
+
     public void acceptRow( Object[] row ) throws IOException {
         if ( template_ == null ) {
             throw new IllegalStateException( "acceptMetadata not called" );
@@ -0,0 +1,195 @@
+package uk.ac.starlink.table;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import uk.ac.starlink.util.SplitPolicy;
+import uk.ac.starlink.util.TestCase;
+
+public class ExternalSorterTest extends TestCase {
+
+    public ExternalSorterTest( String name ) {
+        super( name );
+        Logger.getLogger( "uk.ac.starlink.table" ).setLevel( Level.WARNING );
+    }
+
+    public void testSort() throws IOException {
+        StarTable table = createTable( 5000, 23L );
+        int[][] keySets = { { 0 }, { 1 }, { 2 }, { 3 }, { 1, 0 }, { 2, 3 } };
+        ExternalSorter[] sorters = {
+            new ExternalSorter(),
+            new ExternalSorter( StoragePolicy.PREFER_MEMORY, null, 400, 3 ),
+            new ExternalSorter( StoragePolicy.PREFER_DISK,
+                                SplitPolicy.DFLT_POLICY, 333, 128 ),
+        };
+        for ( int[] keys : keySets ) {
+            StarTable keyTable = new ColumnPermutedStarTable( table, keys );
+            for ( boolean up : new boolean[] { true, false } ) {
+                for ( boolean nullsLast : new boolean[] { true, false } ) {
+                    long[] expected =
+                        getExpectedOrder( keyTable, up, nullsLast );
+                    for ( ExternalSorter sorter : sorters ) {
+                        String label = sorter + " " + Arrays.toString( keys )
+                                     + " " + up + " " + nullsLast;
+                        assertArrayEquals( label, expected,
+                                           sorter.getSortedOrder( keyTable,
+                                                                  up,
+                                                                  nullsLast ) );
+                        StarTable sorted =
+                            sorter.sortTable( table, keyTable, up, nullsLast );
+                        assertEquals( table.getRowCount(),
+                                      sorted.getRowCount() );
+                        int ir = (int) ( expected.length / 3 );
+                        assertArrayEquals( table.getRow( expected[ ir ] ),
+                                           sorted.getRow( ir ) );
+                    }
+                }
+            }
+        }
+    }
+
+    public void testParallel() throws IOException {
+        StarTable table = createTable( 40000, 99L );
+        ExternalSorter[] sorters = {
+            new ExternalSorter( StoragePolicy.PREFER_MEMORY,
+                                SplitPolicy.DFLT_POLICY, 1 << 16, 4 ),
+            new ExternalSorter( StoragePolicy.PREFER_MEMORY,
+                                SplitPolicy.DFLT_POLICY, 7000, 4 ),
+        };
+        for ( int[] keys : new int[][] { { 0 }, { 2 }, { 2, 1 } } ) {
+            StarTable keyTable = new ColumnPermutedStarTable( table, keys );
+            for ( boolean up : new boolean[] { true, false } ) {
+                long[] expected = getExpectedOrder( keyTable, up, false );
+                for ( ExternalSorter sorter : sorters ) {
+                    assertArrayEquals( expected,
+                                       sorter.getSortedOrder( keyTable, up,
+                                                              false ) );
+                }
+            }
+        }
+    }
+
+    public void testRadix() {
+        Random rnd = new Random( 101L );
+        int n = 50000;
+        long[] keys = new long[ n ];
+        int[] ixs = new int[ n ];
+        for ( int i = 0; i < n; i++ ) {
+            keys[ i ] = i % 3 == 0 ? rnd.nextLong() : rnd.nextInt( 1000 );
+            ixs[ i ] = i;
+        }
+        long[] sorted = keys.clone();
+        for ( int i = 0; i < n; i++ ) {
+            sorted[ i ] ^= Long.MIN_VALUE;
+        }
+        Arrays.sort( sorted );
+        for ( int i = 0; i < n; i++ ) {
+            sorted[ i ] ^= Long.MIN_VALUE;
+        }
+        long[] keys0 = keys.clone();
+        ExternalSorter.radixSort( keys, ixs, n,
+                                  SplitPolicy.DFLT_POLICY.getForkJoinPool() );
+        assertArrayEquals( sorted, keys );
+        for ( int i = 0; i < n; i++ ) {
+            assertEquals( keys[ i ], keys0[ ixs[ i ] ] );
+            if ( i > 0 && keys[ i ] == keys[ i - 1 ] ) {
+                assertTrue( ixs[ i ] > ixs[ i - 1 ] );
+            }
+        }
+    }
+
+    public void testTables() throws IOException {
+        StarTable table = createTable( 1000, 5L );
+        StarTable sorted =
+            Tables.sortTable( table, new int[] { 2 }, true, true );
+        Tables.checkTable( sorted );
+        double last = Double.NEGATIVE_INFINITY;
+        for ( long ir = 0; ir < sorted.getRowCount(); ir++ ) {
+            Object val = sorted.getCell( ir, 2 );
+            if ( ! Tables.isBlank( val ) ) {
+                double d = ((Number) val).doubleValue();
+                assertTrue( d >= last );
+                last = d;
+            }
+        }
+        assertTrue( Tables.isBlank( sorted.getCell( sorted.getRowCount() - 1,
+                                                    2 ) ) );
+    }
+
+    /**
+     * Returns a table with columns of type Integer, String, Double and
+     * Boolean, including some blank values and plenty of duplicates.
+     */
+    private static StarTable createTable( int nrow, long seed ) {
+        ColumnInfo[] infos = {
+            new ColumnInfo( "i", Integer.class, null ),
+            new ColumnInfo( "s", String.class, null ),
+            new ColumnInfo( "d", Double.class, null ),
+            new ColumnInfo( "b", Boolean.class, null ),
+        };
+        RowListStarTable table = new RowListStarTable( infos );
+        Random rnd = new Random( seed );
+        for ( int ir = 0; ir < nrow; ir++ ) {
+            int k = rnd.nextInt( 50 );
+            table.addRow( new Object[] {
+                k == 0 ? null : Integer.valueOf( k - 25 ),
+                k == 1 ? null : ( k == 2 ? "" : "s" + ( k * 7 % 13 ) ),
+                k == 3 ? null
+                       : Double.valueOf( k == 4 ? Double.NaN
+                                                : rnd.nextInt( 200 ) * 0.5 ),
+                k == 5 ? null : Boolean.valueOf( rnd.nextBoolean() ),
+            } );
+        }
+        return table;
+    }
+
+    /**
+     * Sorts in the obvious way using a comparator.
+     */
+    private static long[] getExpectedOrder( final StarTable keyTable,
+                                            final boolean up,
+                                            final boolean nullsLast )
+            throws IOException {
+        int nrow = (int) keyTable.getRowCount();
+        final int nkey = keyTable.getColumnCount();
+        final Object[][] rows = new Object[ nrow ][];
+        Long[] order = new Long[ nrow ];
+        for ( int ir = 0; ir < nrow; ir++ ) {
+            rows[ ir ] = keyTable.getRow( ir );
+            order[ ir ] = Long.valueOf( ir );
+        }
+        Arrays.sort( order, new Comparator<Long>() {
+            @SuppressWarnings("unchecked")
+            public int compare( Long r1, Long r2 ) {
+                Object[] row1 = rows[ r1.intValue() ];
+                Object[] row2 = rows[ r2.intValue() ];
+                for ( int ik = 0; ik < nkey; ik++ ) {
+                    Object v1 = row1[ ik ];
+                    Object v2 = row2[ ik ];
+                    boolean null1 = Tables.isBlank( v1 );
+                    boolean null2 = Tables.isBlank( v2 );
+                    int c;
+                    if ( null1 || null2 ) {
+                        c = null1 == null2 ? 0
+                                           : ( null1 == nullsLast ? 1 : -1 );
+                    }
+                    else {
+                        c = ((Comparable<Object>) v1).compareTo( v2 );
+                    }
+                    if ( c != 0 ) {
+                        return up ? c : -c;
+                    }
+                }
+                return 0;
+            }
+        } );
+        long[] result = new long[ nrow ];
+        for ( int ir = 0; ir < nrow; ir++ ) {
+            result[ ir ] = order[ ir ].longValue();
+        }
+        return result;
+    }
+}
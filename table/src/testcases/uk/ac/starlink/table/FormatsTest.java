@@ -21,6 +21,8 @@ import uk.ac.starlink.ecsv.EcsvTableBuilder;
 import uk.ac.starlink.ecsv.EcsvTableWriter;
 import uk.ac.starlink.feather.FeatherTableBuilder;
 import uk.ac.starlink.feather.FeatherTableWriter;
+import uk.ac.starlink.parquet.ParquetTableBuilder;
+import uk.ac.starlink.parquet.ParquetTableWriter;
 import uk.ac.starlink.fits.AbstractWideFits;
 import uk.ac.starlink.fits.BintableStarTable;
 import uk.ac.starlink.fits.ColFitsTableWriter;
@@ -37,6 +39,7 @@ import uk.ac.starlink.table.storage.FileByteStore;
 import uk.ac.starlink.table.storage.DiskRowStore;
 import uk.ac.starlink.table.storage.ListRowStore;
 import uk.ac.starlink.table.storage.MemoryByteStore;
+import uk.ac.starlink.table.storage.OffHeapColumnarRowStore;
 import uk.ac.starlink.table.storage.SidewaysRowStore;
 import uk.ac.starlink.table.formats.AsciiTableBuilder;
 import uk.ac.starlink.table.formats.AsciiTableWriter;
@@ -191,7 +194,7 @@ public class FormatsTest extends TableCase {
         String[] fnames = new String[] {
             "fits-basic", "fits-plus", "fits-var", "fits-healpix",
             "colfits-basic", "colfits-plus",
-            "votable", "ecsv", "feather", "text", "ascii", "csv",
+            "votable", "ecsv", "feather", "parquet", "text", "ascii", "csv",
             "ipac", "tst", "html", "latex", "mirage",
         };
         for ( String fname : fnames ) {
@@ -202,7 +205,7 @@ public class FormatsTest extends TableCase {
         StarTableFactory tfact = new StarTableFactory();
         String[] bnames = new String[] {
             "fits", "colfits-basic", "colfits-plus",
-            "votable", "cdf", "ecsv", "feather",
+            "votable", "cdf", "ecsv", "feather", "parquet",
         };
         for ( String bname : bnames ) {
             assertNotNull( tfact.getTableBuilder( bname ) );
@@ -229,6 +232,8 @@ public class FormatsTest extends TableCase {
         exerciseRowStore( new ListRowStore() );
         exerciseRowStore( new DiskRowStore() );
         exerciseRowStore( new SidewaysRowStore() );
+        exerciseRowStore( new SidewaysRowStore( true ) );
+        exerciseRowStore( new OffHeapColumnarRowStore() );
         exerciseRowStore( new ByteStoreRowStore( new MemoryByteStore() ) );
         exerciseRowStore( new ByteStoreRowStore( new FileByteStore() ) );
         exerciseRowStore( new ByteStoreRowStore(
@@ -267,6 +272,7 @@ public class FormatsTest extends TableCase {
             "CDF",
             "ECSV",
             "feather",
+            "parquet",
             "GBIN",
         };
         String[] knownFormats = new String[] {
@@ -278,6 +284,7 @@ public class FormatsTest extends TableCase {
             "CDF",
             "ECSV",
             "feather",
+            "parquet",
             "GBIN",
             "ASCII",
             "CSV",
@@ -330,6 +337,7 @@ public class FormatsTest extends TableCase {
             "votable",
             "ecsv",
             "feather",
+            "parquet",
             "text",
             "ascii",
             "csv",
@@ -534,6 +542,8 @@ public class FormatsTest extends TableCase {
         exerciseReadWrite(
             new FeatherTableWriter( true, StoragePolicy.PREFER_MEMORY ),
             new FeatherTableBuilder(), "feather" );
+        exerciseReadWrite( new ParquetTableWriter(),
+                           new ParquetTableBuilder(), "parquet" );
         exerciseReadWrite( new AsciiTableWriter(),
                            new AsciiTableBuilder(), "text" );
         exerciseReadWrite( new CsvTableWriter( true ),
@@ -597,6 +607,9 @@ public class FormatsTest extends TableCase {
         else if ( "feather".equals( equalMethod ) ) {
             assertFeatherTableEquals( t1, t2 );
         }
+        else if ( "parquet".equals( equalMethod ) ) {
+            assertParquetTableEquals( t1, t2 );
+        }
         else if ( "exact".equals( equalMethod ) ) {
             assertTableEquals( t1, t2 );
         }
@@ -889,6 +902,29 @@ public class FormatsTest extends TableCase {
         assertRowSequenceEquals( t1a, t2 );
     }
 
+    private void assertParquetTableEquals( StarTable t1, StarTable t2 )
+            throws IOException {
+        IntList icols = new IntList();
+        int nc = t1.getColumnCount();
+        for ( int ic = 0; ic < nc; ic++ ) {
+            Class<?> clazz = t1.getColumnInfo( ic ).getContentClass();
+            Class<?> eclazz = clazz.getComponentType();
+            if ( eclazz == null ? clazz != Character.class
+                                : eclazz != char.class ) {
+                icols.add( ic );
+            }
+        }
+        StarTable t1a = new ColumnPermutedStarTable( t1, icols.toIntArray() );
+        int ncol = t1a.getColumnCount();
+        assertEquals( ncol, t2.getColumnCount() );
+        assertEquals( t1a.getName(), t2.getName() );
+        for ( int ic = 0; ic < ncol; ic++ ) {
+            assertValueInfoEquals( t1a.getColumnInfo( ic ),
+                                   t2.getColumnInfo( ic ) );
+        }
+        assertRowSequenceEquals( t1a, t2 );
+    }
+
     /**
      * Checks table invariants.  Any StarTable should be able to run
      * through these tests without errors.
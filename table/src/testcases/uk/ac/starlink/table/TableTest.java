@@ -1,5 +1,6 @@
 package uk.ac.starlink.table;
 
+import java.io.IOException;
 import uk.ac.starlink.util.TestCase;
 
 public class TableTest extends TestCase {
@@ -51,6 +52,51 @@ public class TableTest extends TestCase {
                       st.getParameterByName( fruitInfo.getName() ).getValue() );
     }
 
+    public void testColumnTypedAccess() throws IOException {
+        final int nrow = 20;
+        int[] iData = new int[ nrow ];
+        fillCycle( iData, 1, nrow );
+        ColumnInfo iInfo = new ColumnInfo( "i", Integer.class, null );
+        ColumnStarTable plain = ColumnStarTable.makeTableWithRows( nrow );
+        plain.addColumn( PrimitiveArrayColumn
+                        .makePrimitiveColumn( iInfo, iData ) );
+
+        /* A subclass which overrides getCell must see its own values
+         * from the typed accessors. */
+        ColumnStarTable negater = new ColumnStarTable() {
+            public long getRowCount() {
+                return nrow;
+            }
+            public Object getCell( long irow, int icol ) throws IOException {
+                Object value = super.getCell( irow, icol );
+                return irow % 3 == 0
+                     ? null
+                     : Integer.valueOf( - ((Integer) value).intValue() );
+            }
+        };
+        negater.addColumn( plain.getColumnData( 0 ) );
+        RowAccess pacc = plain.getRowAccess();
+        RowAccess nacc = negater.getRowAccess();
+        for ( int ir = 0; ir < nrow; ir++ ) {
+            pacc.setRowIndex( ir );
+            nacc.setRowIndex( ir );
+            assertEquals( iData[ ir ], pacc.getLong( 0 ) );
+            assertEquals( (double) iData[ ir ], pacc.getDouble( 0 ) );
+            assertFalse( pacc.isNull( 0 ) );
+            if ( ir % 3 == 0 ) {
+                assertTrue( nacc.isNull( 0 ) );
+                assertTrue( Double.isNaN( nacc.getDouble( 0 ) ) );
+            }
+            else {
+                assertFalse( nacc.isNull( 0 ) );
+                assertEquals( - iData[ ir ], nacc.getLong( 0 ) );
+                assertEquals( (double) - iData[ ir ], nacc.getDouble( 0 ) );
+            }
+        }
+        pacc.close();
+        nacc.close();
+    }
+
     public void testFormatting() {
         DefaultValueInfo info = new DefaultValueInfo( "test", Double.class );
         assertEquals( "1.2345678",
@@ -0,0 +1,208 @@
+package uk.ac.starlink.table.formats;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Random;
+import junit.framework.TestCase;
+import uk.ac.starlink.table.RowAccess;
+import uk.ac.starlink.table.RowSequence;
+import uk.ac.starlink.table.RowSplittable;
+import uk.ac.starlink.table.StarTable;
+import uk.ac.starlink.util.FileDataSource;
+
+public class IndexedTextTest extends TestCase {
+
+    private static final String PROP = StreamStarTable.INDEX_MINSIZE_PROPERTY;
+
+    public IndexedTextTest( String name ) {
+        super( name );
+    }
+
+    public void testCsv() throws IOException {
+        File file = File.createTempFile( "idx", ".csv" );
+        file.deleteOnExit();
+        int nrow = 400000;
+        Writer out = new BufferedWriter( new FileWriter( file ) );
+        out.write( "index,x,text,flag\r\n" );
+        for ( int i = 0; i < nrow; i++ ) {
+            out.write( i + "," + ( i * 0.25 ) + "," );
+            switch ( i % 5 ) {
+                case 0:
+                    out.write( "\"multi\nline, \"\"quoted\"\"\n\"" );
+                    break;
+                case 1:
+                    out.write( "\"a\nb\"" );
+                    break;
+                default:
+                    out.write( "plain" + ( i % 13 ) );
+            }
+            out.write( "," + ( i % 3 == 0 ) + ( i % 4 == 0 ? "\r\n" : "\n" ) );
+            if ( i % 1000 == 0 ) {
+                out.write( "\n\n" );
+            }
+        }
+        out.close();
+        assertTrue( file.length() > 9 * 1024 * 1024 );
+
+        StarTable seqTable = readTable( file, true, false );
+        StarTable idxTable = readTable( file, true, true );
+        assertFalse( seqTable.isRandom() );
+        assertTrue( idxTable.isRandom() );
+        assertEquals( nrow, idxTable.getRowCount() );
+        assertEquals( "index", idxTable.getColumnInfo( 0 ).getName() );
+        assertEquals( Integer.class,
+                      idxTable.getColumnInfo( 0 ).getContentClass() );
+        assertEquals( "multi\nline, \"quoted\"\n",
+                      idxTable.getCell( 5, 2 ) );
+        assertEquals( "a\nb", idxTable.getCell( 6, 2 ) );
+        checkSame( seqTable, idxTable );
+        idxTable.close();
+    }
+
+    public void testAscii() throws IOException {
+        File file = File.createTempFile( "idx", ".txt" );
+        file.deleteOnExit();
+        int nrow = 500000;
+        Writer out = new BufferedWriter( new FileWriter( file ) );
+        out.write( "# Some description\n" );
+        out.write( "# index x name\n" );
+        for ( int i = 0; i < nrow; i++ ) {
+            out.write( i + "  " + ( i * 1.5 ) + " '"
+                     + ( i % 2 == 0 ? "a b" : "c # d" ) + "'\n" );
+            if ( i % 777 == 0 ) {
+                out.write( "# comment\n\n" );
+            }
+        }
+        out.close();
+        assertTrue( file.length() > 9 * 1024 * 1024 );
+
+        StarTable seqTable = readTable( file, false, false );
+        StarTable idxTable = readTable( file, false, true );
+        assertTrue( idxTable.isRandom() );
+        assertEquals( "name", idxTable.getColumnInfo( 2 ).getName() );
+        assertEquals( "Some description",
+                      ((String) idxTable.getParameterByName( "Description" )
+                                        .getValue()).trim() );
+        assertEquals( "c # d", idxTable.getCell( 1, 2 ) );
+        checkSame( seqTable, idxTable );
+        idxTable.close();
+    }
+
+    public void testMerge() throws IOException {
+        RowEvaluator all = new RowEvaluator();
+        RowEvaluator e1 = new RowEvaluator();
+        RowEvaluator e2 = new RowEvaluator();
+        String[][] rows = {
+            { "1", "true", "2001-01-01" },
+            { "2", "false", "" },
+            { "3.5", "t", "2001-02-03T04:05:06" },
+            { "", "", "abc" },
+        };
+        for ( int i = 0; i < rows.length; i++ ) {
+            all.submitRow( Arrays.asList( rows[ i ] ) );
+            ( i < 2 ? e1 : e2 ).submitRow( Arrays.asList( rows[ i ] ) );
+        }
+        RowEvaluator e0 = new RowEvaluator();
+        e0.merge( e1 );
+        e0.merge( e2 );
+        RowEvaluator.Metadata m0 = e0.getMetadata();
+        RowEvaluator.Metadata mAll = all.getMetadata();
+        assertEquals( mAll.nrow_, m0.nrow_ );
+        for ( int icol = 0; icol < 3; icol++ ) {
+            assertEquals( mAll.colInfos_[ icol ].getContentClass(),
+                          m0.colInfos_[ icol ].getContentClass() );
+            assertEquals( mAll.colInfos_[ icol ].getElementSize(),
+                          m0.colInfos_[ icol ].getElementSize() );
+        }
+        assertEquals( Float.class, m0.colInfos_[ 0 ].getContentClass() );
+        assertEquals( Boolean.class, m0.colInfos_[ 1 ].getContentClass() );
+        assertEquals( String.class, m0.colInfos_[ 2 ].getContentClass() );
+
+        RowEvaluator e3 = new RowEvaluator();
+        e3.submitRow( Arrays.asList( new String[] { "1", "2" } ) );
+        try {
+            e0.merge( e3 );
+            fail();
+        }
+        catch ( IOException e ) {
+        }
+    }
+
+    private static StarTable readTable( File file, boolean isCsv,
+                                        boolean isIndexed )
+            throws IOException {
+        String prop0 = System.getProperty( PROP );
+        System.setProperty( PROP, isIndexed ? "0"
+                                            : Long.toString( Long.MAX_VALUE ) );
+        try {
+            FileDataSource datsrc = new FileDataSource( file );
+            return isCsv ? new CsvStarTable( datsrc )
+                         : new AsciiStarTable( datsrc );
+        }
+        finally {
+            if ( prop0 == null ) {
+                System.clearProperty( PROP );
+            }
+            else {
+                System.setProperty( PROP, prop0 );
+            }
+        }
+    }
+
+    private void checkSame( StarTable seqTable, StarTable idxTable )
+            throws IOException {
+        int ncol = seqTable.getColumnCount();
+        long nrow = seqTable.getRowCount();
+        assertEquals( ncol, idxTable.getColumnCount() );
+        assertEquals( nrow, idxTable.getRowCount() );
+        for ( int icol = 0; icol < ncol; icol++ ) {
+            assertEquals( seqTable.getColumnInfo( icol ).toString(),
+                          idxTable.getColumnInfo( icol ).toString() );
+        }
+
+        /* Sequential, random and split access all give the same rows. */
+        Object[][] rows = new Object[ (int) nrow ][];
+        RowSequence rseq = seqTable.getRowSequence();
+        for ( int ir = 0; rseq.next(); ir++ ) {
+            rows[ ir ] = rseq.getRow();
+        }
+        rseq.close();
+        RowSequence iseq = idxTable.getRowSequence();
+        for ( int ir = 0; iseq.next(); ir++ ) {
+            assertArrayEquals( rows[ ir ], iseq.getRow() );
+        }
+        iseq.close();
+        Random rnd = new Random( 99 );
+        RowAccess racc = idxTable.getRowAccess();
+        for ( int i = 0; i < 2000; i++ ) {
+            long irow = i < 10 ? i : (long) ( rnd.nextDouble() * nrow );
+            racc.setRowIndex( irow );
+            assertArrayEquals( rows[ (int) irow ], racc.getRow() );
+            assertArrayEquals( rows[ (int) irow ], idxTable.getRow( irow ) );
+        }
+        racc.setRowIndex( nrow - 1 );
+        assertArrayEquals( rows[ (int) nrow - 1 ], racc.getRow() );
+        racc.close();
+        RowSplittable split = idxTable.getRowSplittable();
+        RowSplittable split2 = split.split();
+        assertNotNull( split2 );
+        int nseen = 0;
+        for ( RowSplittable s : new RowSplittable[] { split, split2 } ) {
+            while ( s.next() ) {
+                long irow = s.rowIndex().getAsLong();
+                assertArrayEquals( rows[ (int) irow ], s.getRow() );
+                nseen++;
+            }
+            s.close();
+        }
+        assertEquals( nrow, nseen );
+    }
+
+    private static void assertArrayEquals( Object[] a1, Object[] a2 ) {
+        assertEquals( Arrays.asList( a1 ), Arrays.asList( a2 ) );
+    }
+}
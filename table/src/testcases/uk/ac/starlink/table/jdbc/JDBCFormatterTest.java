@@ -0,0 +1,338 @@
+package uk.ac.starlink.table.jdbc;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import junit.framework.TestCase;
+import uk.ac.starlink.table.ColumnInfo;
+import uk.ac.starlink.table.ColumnStarTable;
+import uk.ac.starlink.table.ObjectArrayColumn;
+import uk.ac.starlink.table.PrimitiveArrayColumn;
+import uk.ac.starlink.table.RowAccess;
+import uk.ac.starlink.table.RowSequence;
+import uk.ac.starlink.table.RowSplittable;
+import uk.ac.starlink.table.StarTable;
+import uk.ac.starlink.table.Tables;
+import uk.ac.starlink.table.WrapperRowAccess;
+import uk.ac.starlink.table.WrapperRowSequence;
+import uk.ac.starlink.table.WrapperStarTable;
+
+public class JDBCFormatterTest extends TestCase {
+
+    private static final int NROW = 2503;
+
+    public JDBCFormatterTest( String name ) {
+        super( name );
+    }
+
+    public void testWrite() throws Exception {
+
+        /* Default: batched single-row inserts. */
+        FakeDb db = new FakeDb();
+        JDBCFormatter fmt = new JDBCFormatter( db.createConnection(),
+                                               createTable() );
+        fmt.createJDBCTable( "t1", WriteMode.CREATE );
+        checkRows( db );
+        assertEquals( 0, db.nUpdate_.get() );
+        assertEquals( 3, db.nBatch_.get() );
+        assertEquals( 0, db.nCommit_.get() );
+
+        /* Unbatched. */
+        db = new FakeDb();
+        fmt = new JDBCFormatter( db.createConnection(), createTable() );
+        fmt.setBatchSize( 1 );
+        fmt.createJDBCTable( "t1", WriteMode.CREATE );
+        checkRows( db );
+        assertEquals( NROW, db.nUpdate_.get() );
+        assertEquals( 0, db.nBatch_.get() );
+
+        /* Multi-row inserts with commits. */
+        db = new FakeDb();
+        fmt = new JDBCFormatter( db.createConnection(), createTable() );
+        fmt.setRowsPerInsert( 10 );
+        fmt.setBatchSize( 500 );
+        fmt.setCommitInterval( 1000 );
+        fmt.createJDBCTable( "t1", WriteMode.CREATE );
+        checkRows( db );
+        assertEquals( 3, db.nCommit_.get() );
+        assertTrue( db.sqls_.contains( "INSERT INTO t1 VALUES"
+                                     + "( ?, ?, ? ),( ?, ?, ? ),"
+                                     + "( ?, ?, ? ),( ?, ?, ? ),"
+                                     + "( ?, ?, ? ),( ?, ?, ? ),"
+                                     + "( ?, ?, ? ),( ?, ?, ? ),"
+                                     + "( ?, ?, ? ),( ?, ?, ? )" ) );
+        assertTrue( db.autoCommit_ );
+
+        /* Parallel writers. */
+        final FakeDb pdb = new FakeDb();
+        fmt = new JDBCFormatter( pdb.createConnection(), createTable() );
+        fmt.setParallelWriters( new Connector() {
+            public Connection getConnection() {
+                return pdb.createConnection();
+            }
+        }, 4 );
+        fmt.createJDBCTable( "t1", WriteMode.CREATE );
+        checkRows( pdb );
+        assertEquals( 5, pdb.nConn_.get() );
+    }
+
+    public void testReusedRowArray() throws Exception {
+
+        /* Sequential multi-row inserts. */
+        FakeDb db = new FakeDb();
+        JDBCFormatter fmt =
+            new JDBCFormatter( db.createConnection(),
+                               new ReusingTable( createTable() ) );
+        fmt.setRowsPerInsert( 10 );
+        fmt.createJDBCTable( "t1", WriteMode.CREATE );
+        checkRows( db );
+
+        /* Parallel multi-row inserts. */
+        final FakeDb pdb = new FakeDb();
+        fmt = new JDBCFormatter( pdb.createConnection(),
+                                 new ReusingTable( createTable() ) );
+        fmt.setRowsPerInsert( 10 );
+        fmt.setParallelWriters( new Connector() {
+            public Connection getConnection() {
+                return pdb.createConnection();
+            }
+        }, 4 );
+        fmt.createJDBCTable( "t1", WriteMode.CREATE );
+        checkRows( pdb );
+    }
+
+    private static StarTable createTable() {
+        int[] ivals = new int[ NROW ];
+        double[] dvals = new double[ NROW ];
+        for ( int i = 0; i < NROW; i++ ) {
+            ivals[ i ] = i;
+            dvals[ i ] = i * 0.5;
+        }
+        ColumnStarTable table = ColumnStarTable.makeTableWithRows( NROW );
+        ColumnInfo iInfo = new ColumnInfo( "i", Integer.class, null );
+        ColumnInfo dInfo = new ColumnInfo( "d", Double.class, null );
+        ColumnInfo sInfo = new ColumnInfo( "s", String.class, null );
+        sInfo.setElementSize( 8 );
+        table.addColumn( PrimitiveArrayColumn.makePrimitiveColumn( iInfo,
+                                                                   ivals ) );
+        table.addColumn( PrimitiveArrayColumn.makePrimitiveColumn( dInfo,
+                                                                   dvals ) );
+        String[] svals = new String[ NROW ];
+        for ( int i = 0; i < NROW; i++ ) {
+            svals[ i ] = i % 3 == 0 ? null : "s" + i;
+        }
+        table.addColumn( new ObjectArrayColumn( sInfo, svals ) );
+        return table;
+    }
+
+    private void checkRows( FakeDb db ) {
+        List<Object[]> rows = db.rows_;
+        assertEquals( NROW, rows.size() );
+        Set<Integer> seen = new HashSet<Integer>();
+        for ( Object[] row : rows ) {
+            int i = ((Integer) row[ 0 ]).intValue();
+            assertTrue( seen.add( new Integer( i ) ) );
+            assertEquals( i * 0.5, ((Double) row[ 1 ]).doubleValue() );
+            assertEquals( i % 3 == 0 ? null : "s" + i, row[ 2 ] );
+        }
+    }
+
+    /**
+     * Table whose row sequences and row accesses return the same
+     * array from every getRow call.
+     */
+    private static class ReusingTable extends WrapperStarTable {
+        ReusingTable( StarTable base ) {
+            super( base );
+        }
+        @Override
+        public RowSequence getRowSequence() throws IOException {
+            final RowSequence rseq = super.getRowSequence();
+            final Object[] row = new Object[ getColumnCount() ];
+            return new WrapperRowSequence( rseq ) {
+                @Override
+                public Object[] getRow() throws IOException {
+                    Object[] r = rseq.getRow();
+                    System.arraycopy( r, 0, row, 0, row.length );
+                    return row;
+                }
+            };
+        }
+        @Override
+        public RowAccess getRowAccess() throws IOException {
+            final RowAccess racc = super.getRowAccess();
+            final Object[] row = new Object[ getColumnCount() ];
+            return new WrapperRowAccess( racc ) {
+                @Override
+                public Object[] getRow() throws IOException {
+                    Object[] r = racc.getRow();
+                    System.arraycopy( r, 0, row, 0, row.length );
+                    return row;
+                }
+            };
+        }
+        @Override
+        public RowSplittable getRowSplittable() throws IOException {
+            return Tables.getDefaultRowSplittable( this );
+        }
+    }
+
+    /**
+     * Minimal in-memory imitation of a JDBC database with a single
+     * three-column table.
+     */
+    private static class FakeDb {
+        final List<Object[]> rows_ =
+            Collections.synchronizedList( new ArrayList<Object[]>() );
+        final Set<String> sqls_ =
+            Collections.synchronizedSet( new HashSet<String>() );
+        final AtomicInteger nUpdate_ = new AtomicInteger();
+        final AtomicInteger nBatch_ = new AtomicInteger();
+        final AtomicInteger nCommit_ = new AtomicInteger();
+        final AtomicInteger nConn_ = new AtomicInteger();
+        volatile boolean autoCommit_ = true;
+
+        Connection createConnection() {
+            nConn_.incrementAndGet();
+            return proxy( Connection.class, (p, m, args) -> {
+                switch ( m.getName() ) {
+                    case "getMetaData":
+                        return createMetaData();
+                    case "createStatement":
+                        return proxy( Statement.class, (p1, m1, a1) -> {
+                            if ( m1.getName().equals( "executeUpdate" ) ) {
+                                sqls_.add( (String) a1[ 0 ] );
+                            }
+                            return defaultValue( m1.getReturnType() );
+                        } );
+                    case "prepareStatement":
+                        sqls_.add( (String) args[ 0 ] );
+                        return createStatement();
+                    case "getAutoCommit":
+                        return Boolean.valueOf( autoCommit_ );
+                    case "setAutoCommit":
+                        autoCommit_ = ((Boolean) args[ 0 ]).booleanValue();
+                        return null;
+                    case "commit":
+                        nCommit_.incrementAndGet();
+                        return null;
+                    default:
+                        return defaultValue( m.getReturnType() );
+                }
+            } );
+        }
+
+        private PreparedStatement createStatement() {
+            final List<Object> params = new ArrayList<Object>();
+            final List<List<Object>> batch = new ArrayList<List<Object>>();
+            return proxy( PreparedStatement.class, (p, m, args) -> {
+                switch ( m.getName() ) {
+                    case "setObject":
+                    case "setNull":
+                        int ip = ((Integer) args[ 0 ]).intValue() - 1;
+                        while ( params.size() <= ip ) {
+                            params.add( null );
+                        }
+                        params.set( ip, m.getName().equals( "setObject" )
+                                        ? args[ 1 ] : null );
+                        return null;
+                    case "addBatch":
+                        batch.add( new ArrayList<Object>( params ) );
+                        return null;
+                    case "executeBatch":
+                        nBatch_.incrementAndGet();
+                        for ( List<Object> ps : batch ) {
+                            addRows( ps );
+                        }
+                        int[] counts = new int[ batch.size() ];
+                        batch.clear();
+                        return counts;
+                    case "executeUpdate":
+                        nUpdate_.incrementAndGet();
+                        addRows( params );
+                        return new Integer( 1 );
+                    default:
+                        return defaultValue( m.getReturnType() );
+                }
+            } );
+        }
+
+        private void addRows( List<Object> params ) {
+            for ( int i = 0; i < params.size(); i += 3 ) {
+                rows_.add( params.subList( i, i + 3 ).toArray() );
+            }
+        }
+
+        private DatabaseMetaData createMetaData() {
+            return proxy( DatabaseMetaData.class, (p, m, args) -> {
+                switch ( m.getName() ) {
+                    case "getTypeInfo":
+                        return createTypeInfo();
+                    case "getIdentifierQuoteString":
+                        return "\"";
+                    case "getSQLKeywords":
+                        return "";
+                    case "supportsBatchUpdates":
+                        return Boolean.TRUE;
+                    default:
+                        return defaultValue( m.getReturnType() );
+                }
+            } );
+        }
+
+        private ResultSet createTypeInfo() {
+            final List<Object[]> types = Arrays.asList( new Object[][] {
+                { "INTEGER", new Short( (short) Types.INTEGER ) },
+                { "DOUBLE", new Short( (short) Types.DOUBLE ) },
+                { "VARCHAR", new Short( (short) Types.VARCHAR ) },
+            } );
+            final int[] irow = new int[] { -1 };
+            return proxy( ResultSet.class, (p, m, args) -> {
+                switch ( m.getName() ) {
+                    case "next":
+                        return Boolean.valueOf( ++irow[ 0 ] < types.size() );
+                    case "getString":
+                        return types.get( irow[ 0 ] )[ 0 ];
+                    case "getShort":
+                        return types.get( irow[ 0 ] )[ 1 ];
+                    default:
+                        return defaultValue( m.getReturnType() );
+                }
+            } );
+        }
+    }
+
+    private static <T> T proxy( Class<T> clazz, InvocationHandler handler ) {
+        return clazz.cast( Proxy.newProxyInstance( clazz.getClassLoader(),
+                                                   new Class<?>[] { clazz },
+                                                   handler ) );
+    }
+
+    private static Object defaultValue( Class<?> clazz ) {
+        if ( clazz == boolean.class ) {
+            return Boolean.FALSE;
+        }
+        else if ( clazz == int.class ) {
+            return new Integer( 0 );
+        }
+        else if ( clazz == long.class ) {
+            return new Long( 0 );
+        }
+        else {
+            return null;
+        }
+    }
+}
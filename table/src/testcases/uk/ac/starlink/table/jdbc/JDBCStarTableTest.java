@@ -0,0 +1,341 @@
+package uk.ac.starlink.table.jdbc;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import junit.framework.TestCase;
+import uk.ac.starlink.table.RowSequence;
+import uk.ac.starlink.table.RowSplittable;
+
+public class JDBCStarTableTest extends TestCase {
+
+    private static final int NROW = 1000;
+    private static final String SQL = "SELECT * FROM t";
+    private static final Pattern RANGE_REGEX =
+        Pattern.compile( ".* WHERE \\(id >= (-?[0-9]+) AND id < (-?[0-9]+)\\)"
+                       + "( OR id IS NULL)?" );
+
+    public JDBCStarTableTest( String name ) {
+        super( name );
+    }
+
+    public void testTypedRead() throws Exception {
+        FakeDb db = new FakeDb();
+        StarResultSet srset =
+            new StarResultSet( db.createResultSet( db.rows_ ) );
+        assertEquals( Integer.class,
+                      srset.getColumnInfos()[ 0 ].getContentClass() );
+        assertEquals( Double.class,
+                      srset.getColumnInfos()[ 1 ].getContentClass() );
+        assertEquals( Double.class,
+                      srset.getColumnInfos()[ 2 ].getContentClass() );
+        assertEquals( String.class,
+                      srset.getColumnInfos()[ 3 ].getContentClass() );
+        RowSequence rseq = srset.createRowSequence();
+        int nr = 0;
+        while ( rseq.next() ) {
+            Object[] row = rseq.getRow();
+            Object[] dbRow = db.rows_.get( nr );
+            assertEquals( dbRow[ 0 ], row[ 0 ] );
+            assertEquals( dbRow[ 1 ], row[ 1 ] );
+            assertEquals( dbRow[ 3 ], row[ 3 ] );
+            if ( dbRow[ 2 ] == null ) {
+                assertNull( row[ 2 ] );
+                assertTrue( rseq.isNull( 2 ) );
+                assertTrue( Double.isNaN( rseq.getDouble( 2 ) ) );
+            }
+            else {
+                assertEquals( ((BigDecimal) dbRow[ 2 ]).doubleValue(),
+                              ((Double) row[ 2 ]).doubleValue() );
+                assertFalse( rseq.isNull( 2 ) );
+            }
+            if ( dbRow[ 0 ] == null ) {
+                assertEquals( 0L, rseq.getLong( 0 ) );
+                assertTrue( rseq.isNull( 0 ) );
+            }
+            else {
+                int id = ((Integer) dbRow[ 0 ]).intValue();
+                assertEquals( id, rseq.getLong( 0 ) );
+                assertEquals( id * 0.5, rseq.getDouble( 1 ) );
+                assertEquals( (long) ( id * 0.5 ), rseq.getLong( 1 ) );
+            }
+            nr++;
+        }
+        rseq.close();
+        assertEquals( NROW, nr );
+
+        /* Numeric columns are read without getObject. */
+        assertEquals( NROW, db.nGetObject_.get() );
+    }
+
+    public void testStreaming() throws Exception {
+        FakeDb db = new FakeDb();
+        JDBCStarTable table = new JDBCStarTable( db, SQL );
+        table.setFetchSize( 500 );
+        assertEquals( 4, table.getColumnCount() );
+        RowSequence rseq = table.getRowSequence();
+        int nr = 0;
+        while ( rseq.next() ) {
+            Object[] dbRow = db.rows_.get( nr++ );
+            assertEquals( dbRow[ 1 ], rseq.getCell( 1 ) );
+            assertEquals( ((Double) dbRow[ 1 ]).doubleValue(),
+                          rseq.getDouble( 1 ) );
+        }
+        assertFalse( db.autoCommit_ );
+        rseq.close();
+        assertEquals( NROW, nr );
+        assertEquals( 500, db.fetchSize_ );
+        assertEquals( 1, db.nCommit_.get() );
+
+        /* No split without a key. */
+        RowSplittable split = table.getRowSplittable();
+        assertNull( split.split() );
+        split.close();
+    }
+
+    public void testParallel() throws Exception {
+        FakeDb db = new FakeDb();
+        JDBCStarTable table = new JDBCStarTable( db, SQL );
+        table.setParallelReaders( "id", 4 );
+        int nconn0 = db.nConn_.get();
+        RowSplittable split = table.getRowSplittable();
+        assertEquals( NROW, split.splittableSize() );
+        List<RowSplittable> parts = new ArrayList<RowSplittable>();
+        parts.add( split );
+        for ( int i = 0; i < parts.size(); i++ ) {
+            for ( RowSplittable s; ( s = parts.get( i ).split() ) != null; ) {
+                parts.add( s );
+            }
+        }
+        assertEquals( 4, parts.size() );
+        Set<Object> ids = new HashSet<Object>();
+        int nr = 0;
+        for ( RowSplittable s : parts ) {
+            while ( s.next() ) {
+                assertTrue( ids.add( s.getCell( 0 ) ) );
+                nr++;
+            }
+            assertNull( s.rowIndex() );
+            s.close();
+        }
+        assertEquals( NROW, nr );
+        assertTrue( ids.contains( null ) );
+        assertEquals( 1 + 4, db.nConn_.get() - nconn0 );
+    }
+
+    /**
+     * Minimal in-memory imitation of a JDBC database with a single
+     * four-column table.
+     */
+    private static class FakeDb implements Connector {
+        final List<Object[]> rows_ = new ArrayList<Object[]>();
+        final AtomicInteger nGetObject_ = new AtomicInteger();
+        final AtomicInteger nCommit_ = new AtomicInteger();
+        final AtomicInteger nConn_ = new AtomicInteger();
+        volatile boolean autoCommit_ = true;
+        volatile int fetchSize_;
+
+        FakeDb() {
+            for ( int i = 0; i < NROW; i++ ) {
+                rows_.add( new Object[] {
+                    i == 7 ? null : new Integer( i - 50 ),
+                    new Double( ( i - 50 ) * 0.5 ),
+                    i % 5 == 0 ? null : new BigDecimal( i + ".25" ),
+                    "s" + i,
+                } );
+            }
+        }
+
+        public Connection getConnection() {
+            nConn_.incrementAndGet();
+            return proxy( Connection.class, (p, m, args) -> {
+                switch ( m.getName() ) {
+                    case "getMetaData":
+                        return proxy( DatabaseMetaData.class,
+                                      (p1, m1, a1) ->
+                                      defaultValue( m1.getReturnType() ) );
+                    case "createStatement":
+                        return createStatement();
+                    case "getAutoCommit":
+                        return Boolean.valueOf( autoCommit_ );
+                    case "setAutoCommit":
+                        autoCommit_ = ((Boolean) args[ 0 ]).booleanValue();
+                        return null;
+                    case "commit":
+                        nCommit_.incrementAndGet();
+                        return null;
+                    default:
+                        return defaultValue( m.getReturnType() );
+                }
+            } );
+        }
+
+        private Statement createStatement() {
+            return proxy( Statement.class, (p, m, args) -> {
+                switch ( m.getName() ) {
+                    case "setFetchSize":
+                        fetchSize_ = ((Integer) args[ 0 ]).intValue();
+                        return null;
+                    case "executeQuery":
+                        return executeQuery( (String) args[ 0 ] );
+                    default:
+                        return defaultValue( m.getReturnType() );
+                }
+            } );
+        }
+
+        private ResultSet executeQuery( String sql ) {
+            if ( sql.equals( SQL ) ) {
+                return createResultSet( rows_ );
+            }
+            else if ( sql.startsWith( "SELECT MIN(id), MAX(id), COUNT(*) " ) ) {
+                int min = Integer.MAX_VALUE;
+                int max = Integer.MIN_VALUE;
+                for ( Object[] row : rows_ ) {
+                    if ( row[ 0 ] != null ) {
+                        int id = ((Integer) row[ 0 ]).intValue();
+                        min = Math.min( min, id );
+                        max = Math.max( max, id );
+                    }
+                }
+                final Object[] aggs = new Object[] {
+                    new Integer( min ), new Integer( max ),
+                    new Long( rows_.size() ),
+                };
+                return proxy( ResultSet.class, (p, m, args) -> {
+                    if ( m.getName().startsWith( "get" ) &&
+                         args.length == 1 ) {
+                        Number num =
+                            (Number) aggs[ ((Integer) args[ 0 ]).intValue()
+                                           - 1 ];
+                        return m.getReturnType() == double.class
+                             ? (Object) new Double( num.doubleValue() )
+                             : (Object) new Long( num.longValue() );
+                    }
+                    return defaultValue( m.getReturnType() );
+                } );
+            }
+            else {
+                Matcher matcher = RANGE_REGEX.matcher( sql );
+                assertTrue( sql, matcher.matches() );
+                long lo = Long.parseLong( matcher.group( 1 ) );
+                long hi = Long.parseLong( matcher.group( 2 ) );
+                boolean withNulls = matcher.group( 3 ) != null;
+                List<Object[]> rows = new ArrayList<Object[]>();
+                for ( Object[] row : rows_ ) {
+                    Integer id = (Integer) row[ 0 ];
+                    if ( id == null ? withNulls
+                                    : id.intValue() >= lo &&
+                                      id.intValue() < hi ) {
+                        rows.add( row );
+                    }
+                }
+                return createResultSet( rows );
+            }
+        }
+
+        ResultSet createResultSet( final List<Object[]> rows ) {
+            final int[] irow = new int[] { -1 };
+            final boolean[] wasNull = new boolean[ 1 ];
+            return proxy( ResultSet.class, (p, m, args) -> {
+                String mname = m.getName();
+                switch ( mname ) {
+                    case "getMetaData":
+                        return createMetaData();
+                    case "getType":
+                        return new Integer( ResultSet.TYPE_FORWARD_ONLY );
+                    case "next":
+                        return Boolean.valueOf( ++irow[ 0 ] < rows.size() );
+                    case "wasNull":
+                        return Boolean.valueOf( wasNull[ 0 ] );
+                    case "getObject":
+                        nGetObject_.incrementAndGet();
+                        break;
+                    default:
+                }
+                if ( mname.startsWith( "get" ) && args != null &&
+                     args.length == 1 && args[ 0 ] instanceof Integer ) {
+                    Object value =
+                        rows.get( irow[ 0 ] )
+                            [ ((Integer) args[ 0 ]).intValue() - 1 ];
+                    wasNull[ 0 ] = value == null;
+                    Class<?> rclazz = m.getReturnType();
+                    if ( rclazz == Object.class ) {
+                        return value;
+                    }
+                    Number num = value == null ? new Integer( 0 )
+                                               : (Number) value;
+                    if ( rclazz == double.class ) {
+                        return new Double( num.doubleValue() );
+                    }
+                    else if ( rclazz == long.class ) {
+                        return new Long( num.longValue() );
+                    }
+                    else if ( rclazz == int.class ) {
+                        return new Integer( num.intValue() );
+                    }
+                    else {
+                        fail( "Unexpected " + m );
+                    }
+                }
+                return defaultValue( m.getReturnType() );
+            } );
+        }
+
+        private ResultSetMetaData createMetaData() {
+            final String[] names = { "id", "x", "b", "s" };
+            final Class<?>[] clazzes = {
+                Integer.class, Double.class, BigDecimal.class, String.class,
+            };
+            return proxy( ResultSetMetaData.class, (p, m, args) -> {
+                switch ( m.getName() ) {
+                    case "getColumnCount":
+                        return new Integer( names.length );
+                    case "getColumnName":
+                    case "getColumnLabel":
+                        return names[ ((Integer) args[ 0 ]).intValue() - 1 ];
+                    case "getColumnClassName":
+                        return clazzes[ ((Integer) args[ 0 ]).intValue() - 1 ]
+                              .getName();
+                    case "isNullable":
+                        return new Integer( ResultSetMetaData.columnNullable );
+                    default:
+                        return defaultValue( m.getReturnType() );
+                }
+            } );
+        }
+    }
+
+    private static <T> T proxy( Class<T> clazz, InvocationHandler handler ) {
+        return clazz.cast( Proxy.newProxyInstance( clazz.getClassLoader(),
+                                                   new Class<?>[] { clazz },
+                                                   handler ) );
+    }
+
+    private static Object defaultValue( Class<?> clazz ) {
+        if ( clazz == boolean.class ) {
+            return Boolean.FALSE;
+        }
+        else if ( clazz == int.class ) {
+            return new Integer( 0 );
+        }
+        else if ( clazz == long.class ) {
+            return new Long( 0 );
+        }
+        else {
+            return null;
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package uk.ac.starlink.table.storage;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.util.Random;
 import junit.framework.AssertionFailedError;
 import uk.ac.starlink.table.ArrayColumn;
 import uk.ac.starlink.table.ByteStore;
@@ -12,6 +14,9 @@ import uk.ac.starlink.table.ColumnInfo;
 import uk.ac.starlink.table.ColumnStarTable;
 import uk.ac.starlink.table.StarTable;
 import uk.ac.starlink.table.FormatsTest;
+import uk.ac.starlink.table.RowAccess;
+import uk.ac.starlink.table.RowData;
+import uk.ac.starlink.table.RowSequence;
 import uk.ac.starlink.table.RowStore;
 import uk.ac.starlink.table.StoragePolicy;
 import uk.ac.starlink.table.TableFormatException;
@@ -38,6 +43,8 @@ public class StorageTest extends TestCase {
         assertEquals( StoragePolicy.PREFER_MEMORY, getPolicy( "memory" ) );
         assertEquals( StoragePolicy.PREFER_DISK, getPolicy( "disk" ) );
         assertEquals( StoragePolicy.SIDEWAYS, getPolicy( "sideways" ) );
+        assertEquals( StoragePolicy.COMPRESSED, getPolicy( "compressed" ) );
+        assertEquals( StoragePolicy.OFFHEAP_COLUMNAR, getPolicy( "offheap" ) );
         assertEquals( StoragePolicy.DISCARD, getPolicy( "discard" ) );
         assertEquals( StoragePolicy.ADAPTIVE, getPolicy( "adaptive" ) );
 
@@ -47,6 +54,8 @@ public class StorageTest extends TestCase {
                        StoragePolicy.PREFER_DISK.toString() );
         assertEquals( "StoragePolicy.SIDEWAYS",
                        StoragePolicy.SIDEWAYS.toString() );
+        assertEquals( "StoragePolicy.OFFHEAP_COLUMNAR",
+                       StoragePolicy.OFFHEAP_COLUMNAR.toString() );
         assertEquals( "StoragePolicy.DISCARD",
                        StoragePolicy.DISCARD.toString() );
         assertEquals( "StoragePolicy.ADAPTIVE",
@@ -58,6 +67,10 @@ public class StorageTest extends TestCase {
                     instanceof DiskRowStore );
         assertTrue( StoragePolicy.SIDEWAYS.makeRowStore()
                     instanceof SidewaysRowStore );
+        assertTrue( StoragePolicy.COMPRESSED.makeRowStore()
+                    instanceof SidewaysRowStore );
+        assertTrue( StoragePolicy.OFFHEAP_COLUMNAR.makeRowStore()
+                    instanceof OffHeapColumnarRowStore );
         assertTrue( StoragePolicy.DISCARD.makeRowStore()
                     instanceof DiscardRowStore );
         assertTrue( StoragePolicy.ADAPTIVE.makeRowStore()
@@ -166,6 +179,225 @@ public class StorageTest extends TestCase {
         assertTrue( err.indexOf( "sky-blue" ) > 0 );
     }
 
+    public void testOffHeap() throws IOException {
+        for ( int ic = 0; ic < 40; ic++ ) {
+            long start = PrimitiveColumnStore.getChunkStart( ic );
+            int size = PrimitiveColumnStore.getChunkSize( ic );
+            assertEquals( start + size,
+                          PrimitiveColumnStore.getChunkStart( ic + 1 ) );
+            assertEquals( ic, PrimitiveColumnStore.getChunkIndex( start ) );
+            assertEquals( ic, PrimitiveColumnStore
+                             .getChunkIndex( start + size - 1 ) );
+        }
+
+        int nrow = 150000;
+        ColumnStarTable t1 = ColumnStarTable.makeTableWithRows( (long) nrow );
+        Object[] numData = {
+            new byte[ nrow ],
+            new short[ nrow ],
+            new int[ nrow ],
+            new long[ nrow ],
+            new float[ nrow ],
+            new double[ nrow ],
+        };
+        for ( int i = 0; i < numData.length; i++ ) {
+            Object array = numData[ i ];
+            fillRandom( array, -100, 100 );
+            t1.addColumn( ArrayColumn.makeColumn( "col" + ( i + 1 ), array ) );
+        }
+        Integer[] nullInts = new Integer[ nrow ];
+        String[] strs = new String[ nrow ];
+        String[] words = new String[] { "red", "green", "blue", "", };
+        for ( int i = 0; i < nrow; i++ ) {
+            nullInts[ i ] = i % 3 == 0 ? null : Integer.valueOf( i );
+            strs[ i ] = i % 7 == 0 ? null
+                      : i % 2 == 0 ? words[ i % words.length ]
+                                   : "s" + i;
+        }
+        t1.addColumn( ArrayColumn.makeColumn( "nullInts", nullInts ) );
+        t1.addColumn( ArrayColumn.makeColumn( "strs", strs ) );
+        t1.addColumn( ArrayColumn.makeColumn( "arrays", new int[ nrow ][] ) );
+
+        StarTable mt = fillStore( new OffHeapColumnarRowStore(), t1 )
+                      .getStarTable();
+        StarTable dt = fillStore( new OffHeapColumnarRowStore(
+                                      File.createTempFile( "offheap", ".bin" ),
+                                      true ), t1 )
+                      .getStarTable();
+        assertTrue( mt.isRandom() );
+        assertTrue( dt.isRandom() );
+        Tables.checkTable( mt );
+        Tables.checkTable( dt );
+        fTest_.assertTableEquals( t1, mt );
+        fTest_.assertTableEquals( t1, dt );
+        for ( int irow = nrow - 8; irow < nrow; irow++ ) {
+            assertEquals( nullInts[ irow ], mt.getCell( irow, 6 ) );
+            assertEquals( strs[ irow ], mt.getCell( irow, 7 ) );
+            assertEquals( strs[ irow ], dt.getCell( irow, 7 ) );
+        }
+    }
+
+    public void testCompressed() throws IOException {
+        int n = 10000;
+        Long[] ids = new Long[ n ];
+        Integer[] cycle = new Integer[ n ];
+        Double[] smooth = new Double[ n ];
+        Float[] noisy = new Float[ n ];
+        String[] cats = new String[ n ];
+        String[] uniq = new String[ n ];
+        Long[] extremes = new Long[ n ];
+        Boolean[] flags = new Boolean[ n ];
+        Random rnd = new Random( 23L );
+        for ( int i = 0; i < n; i++ ) {
+            ids[ i ] = Long.valueOf( 1000000000000L + 3L * i );
+            cycle[ i ] = i % 11 == 0 ? null : Integer.valueOf( i % 100 );
+            smooth[ i ] = i % 13 == 0 ? null : Double.valueOf( i * 0.25 );
+            noisy[ i ] = i == 99 ? Float.NaN
+                                 : Float.valueOf( (float) rnd.nextGaussian() );
+            cats[ i ] = i % 17 == 0 ? null
+                                    : new String[] { "A", "BB", "\u00e9" }
+                                                   [ i % 3 ];
+            uniq[ i ] = "obj-" + rnd.nextLong();
+            extremes[ i ] = i % 2 == 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+            flags[ i ] = i % 5 == 0 ? null : Boolean.valueOf( i % 2 == 0 );
+        }
+        ColumnStarTable t1 = ColumnStarTable.makeTableWithRows( n );
+        t1.addColumn( ArrayColumn.makeColumn( "ids", ids ) );
+        t1.addColumn( ArrayColumn.makeColumn( "cycle", cycle ) );
+        t1.addColumn( ArrayColumn.makeColumn( "smooth", smooth ) );
+        t1.addColumn( ArrayColumn.makeColumn( "noisy", noisy ) );
+        t1.addColumn( ArrayColumn.makeColumn( "cats", cats ) );
+        t1.addColumn( ArrayColumn.makeColumn( "uniq", uniq ) );
+        t1.addColumn( ArrayColumn.makeColumn( "extremes", extremes ) );
+        t1.addColumn( ArrayColumn.makeColumn( "flags", flags ) );
+        t1.addColumn( ArrayColumn.makeColumn( "arrays", new double[ n ][] ) );
+
+        StarTable ct = fillStore( new SidewaysRowStore( true ), t1 )
+                      .getStarTable();
+        assertTrue( ct.isRandom() );
+        Tables.checkTable( ct );
+        fTest_.assertTableEquals( t1, ct );
+        for ( int irow = n - 1; irow >= 0; irow -= 97 ) {
+            for ( int icol = 0; icol < 8; icol++ ) {
+                assertEquals( t1.getCell( irow, icol ),
+                              ct.getCell( irow, icol ) );
+            }
+        }
+
+        /* Check that compression is effective where expected. */
+        int nb = CompressedColumnStore.BLOCK_ROWS;
+        assertTrue( encodedSize( ids, nb ) < nb );
+        assertTrue( encodedSize( cycle, nb ) < nb * 2 );
+        assertTrue( encodedSize( smooth, nb ) < nb * 4 );
+        assertTrue( encodedSize( cats, nb ) < nb );
+        assertTrue( encodedSize( noisy, nb ) <= nb * 4 + nb / 8 + 1 );
+    }
+
+    public void testTypedAccess() throws IOException {
+        int n = 5000;
+        ColumnStarTable t1 = ColumnStarTable.makeTableWithRows( n );
+        Class<?>[] clazzes = new Class<?>[] {
+            Byte.class, Short.class, Integer.class, Long.class,
+            Float.class, Double.class, Boolean.class, Character.class,
+        };
+        for ( Class<?> clazz : clazzes ) {
+            ColumnInfo info =
+                new ColumnInfo( clazz.getSimpleName(), clazz, null );
+            ColumnData col = ArrayColumn.makeColumn( info, n );
+            for ( int i = 0; i < n; i++ ) {
+                Object value;
+                if ( i % 7 == 0 ) {
+                    value = null;
+                }
+                else if ( clazz == Boolean.class ) {
+                    value = Boolean.valueOf( i % 3 == 0 );
+                }
+                else if ( clazz == Character.class ) {
+                    value = Character.valueOf( (char) ( 'a' + i % 26 ) );
+                }
+                else if ( clazz == Byte.class ) {
+                    value = Byte.valueOf( (byte) ( i % 100 ) );
+                }
+                else if ( clazz == Short.class ) {
+                    value = Short.valueOf( (short) ( i - 2500 ) );
+                }
+                else if ( clazz == Integer.class ) {
+                    value = Integer.valueOf( i * 1000 );
+                }
+                else if ( clazz == Long.class ) {
+                    value = Long.valueOf( i * 1000000000L );
+                }
+                else if ( clazz == Float.class ) {
+                    value = Float.valueOf( i * 0.5f );
+                }
+                else {
+                    value = Double.valueOf( i * 0.25 );
+                }
+                col.storeValue( i, value );
+            }
+            t1.addColumn( col );
+        }
+        Integer[] objInts = new Integer[ n ];
+        String[] strs = new String[ n ];
+        for ( int i = 0; i < n; i++ ) {
+            objInts[ i ] = i % 5 == 0 ? null : Integer.valueOf( -i );
+            strs[ i ] = i % 11 == 0 ? null : "s" + ( i % 4 );
+        }
+        t1.addColumn( ArrayColumn.makeColumn( "objInts", objInts ) );
+        t1.addColumn( ArrayColumn.makeColumn( "strs", strs ) );
+
+        checkTypedAccess( t1 );
+        checkTypedAccess( fillStore( new OffHeapColumnarRowStore(), t1 )
+                         .getStarTable() );
+        checkTypedAccess( fillStore( new SidewaysRowStore(), t1 )
+                         .getStarTable() );
+        checkTypedAccess( fillStore( new SidewaysRowStore( true ), t1 )
+                         .getStarTable() );
+    }
+
+    /**
+     * Checks that the typed cell accessors give the same results as
+     * the corresponding boxed values, for both sequential and random
+     * access.
+     */
+    private void checkTypedAccess( StarTable table ) throws IOException {
+        int ncol = table.getColumnCount();
+        RowSequence rseq = table.getRowSequence();
+        RowAccess racc = table.getRowAccess();
+        long irow = 0;
+        while ( rseq.next() ) {
+            racc.setRowIndex( irow );
+            for ( int icol = 0; icol < ncol; icol++ ) {
+                Object value = table.getCell( irow, icol );
+                double dval = value instanceof Number
+                            ? ((Number) value).doubleValue()
+                            : Double.NaN;
+                long lval = value instanceof Number
+                          ? ((Number) value).longValue()
+                          : 0L;
+                boolean bval = Boolean.TRUE.equals( value );
+                for ( RowData row : new RowData[] { rseq, racc } ) {
+                    assertEquals( dval, row.getDouble( icol ) );
+                    assertEquals( lval, row.getLong( icol ) );
+                    assertEquals( bval, row.getBoolean( icol ) );
+                    assertEquals( value == null, row.isNull( icol ) );
+                }
+            }
+            irow++;
+        }
+        assertEquals( table.getRowCount(), irow );
+        rseq.close();
+        racc.close();
+    }
+
+    private static int encodedSize( Object[] values, int n )
+            throws IOException {
+        ColumnInfo info =
+            new ColumnInfo( "x", values.getClass().getComponentType(), null );
+        return BlockCodec.getBlockCodec( info ).encodeBlock( values, n )
+                         .length;
+    }
+
     public void testByteStorage() throws IOException {
         testByteStore( StoragePolicy.PREFER_MEMORY.makeByteStore() );
         testByteStore( StoragePolicy.PREFER_DISK.makeByteStore() );
@@ -9,10 +9,17 @@ import uk.ac.starlink.table.ValueInfo;
 /**
  * Abstract superclass for match engines working in a Cartesian space.
  *
+ * <p>Long integer bins are always available.  If the grid cell labels
+ * are small enough, they are packed into the bits of a long integer
+ * without loss; otherwise a hash of the label is used, which may
+ * occasionally map distinct cells to the same bin
+ * (this does not affect correctness, only efficiency).
+ *
  * @author   Mark Taylor
  * @since    2 Sep 2011
  */
-public abstract class AbstractCartesianMatchEngine implements MatchEngine {
+public abstract class AbstractCartesianMatchEngine
+        implements LongBinMatchEngine {
 
     private final int ndim_;
     private final double[] scales_;
@@ -144,6 +151,10 @@ public abstract class AbstractCartesianMatchEngine implements MatchEngine {
         return new DescribedValue[] { binFactorParam_ };
     }
 
+    public boolean canBinLongs() {
+        return true;
+    }
+
     /**
      * Returns an array of the bin objects that may be covered within a
      * given distance of a given position.  Not all returned bins are
@@ -156,7 +167,7 @@ public abstract class AbstractCartesianMatchEngine implements MatchEngine {
      *          of <code>coords</code>
      */
     protected Object[] getRadiusBins( double[] coords, double radius ) {
-        return radius >= 0 ? doGetBins( coords, radius )
+        return radius >= 0 ? toCells( getLabels( coords, radius ) )
                            : NO_BINS;
     }
 
@@ -171,20 +182,50 @@ public abstract class AbstractCartesianMatchEngine implements MatchEngine {
      * @return  bin objects within a scale length of <code>coords</code>
      */
     protected Object[] getScaleBins( double[] coords ) {
-        return doGetBins( coords, Double.NaN );
+        return toCells( getLabels( coords, Double.NaN ) );
+    }
+
+    /**
+     * Returns an array of the integer bin identifiers that may be covered
+     * within a given distance of a given position.
+     * This is the primitive equivalent of {@link #getRadiusBins}.
+     *
+     * @param  coords  central position
+     * @param  radius  error radius
+     * @return  distinct bin identifiers that may be within
+     *          <code>radius</code> of <code>coords</code>
+     */
+    protected long[] getRadiusLongBins( double[] coords, double radius ) {
+        return radius >= 0 ? toLongBins( getLabels( coords, radius ) )
+                           : NO_LONG_BINS;
+    }
+
+    /**
+     * Returns an array of the integer bin identifiers that may be covered
+     * within the current anisotropic scale length in each direction
+     * of a given position.
+     * This is the primitive equivalent of {@link #getScaleBins}.
+     *
+     * @param  coords  central position
+     * @return  distinct bin identifiers within a scale length
+     *          of <code>coords</code>
+     */
+    protected long[] getScaleLongBins( double[] coords ) {
+        return toLongBins( getLabels( coords, Double.NaN ) );
     }
 
     /**
      * Does the work for the get*Bins methods.
-     * Returns bins within some range of the given position.
+     * Returns the labels of grid cells within some range of the
+     * given position.
      * If radius is a number, it is used;
      * if it's NaN, the scale length is used instead.
      *
      * @param   coords  central position
      * @param  radius  error radius or NaN
-     * @return  list of bin objects
+     * @return  array of distinct cell labels, each an ndim-element array
      */
-    private Object[] doGetBins( double[] coords, double radius ) {
+    private int[][] getLabels( double[] coords, double radius ) {
         boolean useScale = Double.isNaN( radius );
 
         /* Work out the range of cell label coordinates in each dimension
@@ -196,7 +237,7 @@ public abstract class AbstractCartesianMatchEngine implements MatchEngine {
         for ( int id = 0; id < ndim_; id++ ) {
             double c0 = coords[ id ];
             if ( Double.isNaN( c0 ) ) {
-                return NO_BINS;
+                return new int[ 0 ][];
             }
             else {
                 double r = useScale ? scales_[ id ] : radius;
@@ -208,10 +249,10 @@ public abstract class AbstractCartesianMatchEngine implements MatchEngine {
 
         /* Iterate over the cube of cells in ndim dimensions to construct
          * a list of all the cells inside it. */
-        Cell[] cells = new Cell[ ncell ];
+        int[][] labels = new int[ ncell ][];
         int[] label = llo.clone();
         for ( int ic = 0; ic < ncell; ic++ ) {
-            cells[ ic ] = new Cell( label.clone() );
+            labels[ ic ] = label.clone();
             for ( int jd = 0; jd < ndim_; jd++ ) {
                 if ( ++label[ jd ] <= lhi[ jd ] ) {
                     break;
@@ -224,13 +265,113 @@ public abstract class AbstractCartesianMatchEngine implements MatchEngine {
 
         /* Sanity check. */
         assert Arrays.equals( label, llo );
+
+        /* Return the list of cell labels. */
+        return labels;
+    }
+
+    /**
+     * Turns an array of cell labels into an array of Cell objects.
+     *
+     * @param  labels  array of distinct labels
+     * @return  array of bin objects
+     */
+    private static Object[] toCells( int[][] labels ) {
+        int ncell = labels.length;
+        Cell[] cells = new Cell[ ncell ];
+        for ( int ic = 0; ic < ncell; ic++ ) {
+            cells[ ic ] = new Cell( labels[ ic ] );
+        }
         assert new HashSet<Cell>( Arrays.asList( cells ) ).size()
                == cells.length;
-
-        /* Return the list of cells. */
         return cells;
     }
 
+    /**
+     * Turns an array of cell labels into an array of integer bin
+     * identifiers.  Each label that can be packed losslessly into
+     * a long is packed, otherwise a hash is used.
+     * In either case the output contains no duplicates.
+     *
+     * @param  labels  array of distinct labels
+     * @return  array of distinct bin identifiers
+     */
+    private long[] toLongBins( int[][] labels ) {
+        int ncell = labels.length;
+        int nbit = 64 / ndim_;
+        long[] bins = new long[ ncell ];
+        boolean isHashed = false;
+        for ( int ic = 0; ic < ncell; ic++ ) {
+            long bin = packLabel( labels[ ic ], nbit );
+            if ( bin == Long.MIN_VALUE ) {
+                bin = hashLabel( labels[ ic ] );
+                isHashed = true;
+            }
+            bins[ ic ] = bin;
+        }
+
+        /* Hashes are not guaranteed to be unique, so if any have been
+         * used, sort and remove any duplicates. */
+        if ( isHashed ) {
+            Arrays.sort( bins );
+            int nu = 0;
+            for ( int ic = 0; ic < ncell; ic++ ) {
+                if ( nu == 0 || bins[ ic ] != bins[ nu - 1 ] ) {
+                    bins[ nu++ ] = bins[ ic ];
+                }
+            }
+            if ( nu < ncell ) {
+                bins = Arrays.copyOf( bins, nu );
+            }
+        }
+        return bins;
+    }
+
+    /**
+     * Packs a cell label into the bits of a long integer,
+     * using a fixed number of bits for each dimension.
+     * The result is unique to the label, unless it is
+     * <code>Long.MIN_VALUE</code>, which indicates failure.
+     *
+     * @param  label  cell label
+     * @param  nbit   number of bits per dimension
+     * @return  packed value, or <code>Long.MIN_VALUE</code> if
+     *          the label components do not fit in the available bits
+     */
+    private static long packLabel( int[] label, int nbit ) {
+        int ndim = label.length;
+        if ( ndim == 1 ) {
+            return label[ 0 ];
+        }
+        long lim = 1L << ( nbit - 1 );
+        long mask = ( 1L << nbit ) - 1;
+        long packed = 0;
+        for ( int id = 0; id < ndim; id++ ) {
+            int c = label[ id ];
+            if ( c < -lim || c >= lim ) {
+                return Long.MIN_VALUE;
+            }
+            packed |= ( c & mask ) << ( id * nbit );
+        }
+        return packed;
+    }
+
+    /**
+     * Returns a well-mixed 64-bit hash of a cell label.
+     *
+     * @param  label  cell label
+     * @return  hash value
+     */
+    private static long hashLabel( int[] label ) {
+        long h = 0x2545f4914f6cdd1dL;
+        for ( int id = 0; id < label.length; id++ ) {
+            h = ( h ^ label[ id ] ) * 0x9e3779b97f4a7c15L;
+            h ^= h >>> 29;
+        }
+        return h;
+    }
+
+
     /** 
      * Returns the integer label of a cell position in a given dimension.
      * This identifies one of the coordinates of the discrete cube 
@@ -7,10 +7,13 @@ import uk.ac.starlink.table.ValueInfo;
 /**
  * Abstract superclass for MatchEngines which work on the celestial sphere.
  *
+ * <p>Long integer bins are available if the pixellator is a
+ * {@link HealpixSkyPixellator}.
+ *
  * @author   Mark Taylor
  * @since    5 Sep 2011
  */
-public abstract class AbstractSkyMatchEngine implements MatchEngine {
+public abstract class AbstractSkyMatchEngine implements LongBinMatchEngine {
 
     private final SkyPixellator pixellator_;
 
@@ -49,6 +52,10 @@ public abstract class AbstractSkyMatchEngine implements MatchEngine {
         return new DescribedValue[] { pixellator_.getTuningParameter() };
     }
 
+    public boolean canBinLongs() {
+        return pixellator_ instanceof HealpixSkyPixellator;
+    }
+
     /**
      * Utility function to provide a match score between two points on the
      * sphere.
@@ -110,6 +117,27 @@ public abstract class AbstractSkyMatchEngine implements MatchEngine {
              : NO_BINS;
     }
 
+    /**
+     * Uses the pixellator to get a list of integer bin identifiers
+     * for a given small circle.
+     * This method may only be called if {@link #canBinLongs} returns true.
+     *
+     * @param   alpha  right ascension of circle centre in radians
+     * @param   delta  declination of circle centre in radians
+     * @param   radius  radius of circle centre in radians
+     * @return  list of distinct pixel indices
+     *          representing all pixels which are at least partially
+     *          overlapped by the given circle
+     */
+    long[] getLongBins( double alpha, double delta, double radius ) {
+        return ( ! Double.isNaN( alpha ) &&
+                 ! Double.isNaN( delta ) &&
+                 radius >= 0 )
+             ? ((HealpixSkyPixellator) pixellator_)
+              .getPixelIndices( alpha, delta, radius )
+             : NO_LONG_BINS;
+    }
+
     public abstract String toString();
 
     /**
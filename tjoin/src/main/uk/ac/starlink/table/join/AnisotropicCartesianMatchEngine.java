@@ -108,6 +108,10 @@ public class AnisotropicCartesianMatchEngine
         return getScaleBins( toCoords( tuple ) );
     }
 
+    public long[] getLongBins( Object[] tuple ) {
+        return getScaleLongBins( toCoords( tuple ) );
+    }
+
     public boolean canBoundMatch() {
         return true;
     }
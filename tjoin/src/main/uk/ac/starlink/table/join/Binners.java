@@ -7,6 +7,8 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
 import uk.ac.starlink.table.Tables;
 import uk.ac.starlink.util.IntList;
 import uk.ac.starlink.util.LongList;
@@ -56,6 +58,70 @@ class Binners {
              : (LongBinner) new LongListLongBinner();
     }
 
+    /**
+     * Returns a new binner for storing long integer values
+     * under long integer keys.
+     * This is much more compact than the binner returned by
+     * {@link #createLongBinner}, since it does not need to create
+     * objects to represent either keys or bins.
+     * The key iterator supports <code>remove</code>.
+     *
+     * @param  nrow  number of rows in the table whose row indices
+     *               will be binned, or -1 if not known
+     * @return   new LongKeyBinner
+     */
+    public static LongKeyBinner createLongKeyBinner( long nrow ) {
+        return new OpenLongKeyBinner( nrow >= 0 && nrow < Integer.MAX_VALUE );
+    }
+
+    /**
+     * Adds all the entries from one ObjectBinner to another.
+     * The source binner should not be used following this call.
+     *
+     * @param  dest  binner to receive entries
+     * @param  src   binner supplying entries
+     */
+    public static void addObjectBins( ObjectBinner dest, ObjectBinner src ) {
+        for ( Iterator<?> it = src.getKeyIterator(); it.hasNext(); ) {
+            Object key = it.next();
+            for ( Object item : src.getList( key ) ) {
+                dest.addItem( key, item );
+            }
+        }
+    }
+
+    /**
+     * Adds all the entries from one LongBinner to another.
+     * The source binner is emptied by this call.
+     *
+     * @param  dest  binner to receive entries
+     * @param  src   binner supplying entries
+     */
+    public static void addLongBins( LongBinner dest, LongBinner src ) {
+        if ( dest instanceof LongKeyBinner && src instanceof LongKeyBinner ) {
+            LongKeyBinner ldest = (LongKeyBinner) dest;
+            LongKeyBinner lsrc = (LongKeyBinner) src;
+            for ( PrimitiveIterator.OfLong it = lsrc.getLongKeyIterator();
+                  it.hasNext(); ) {
+                long key = it.nextLong();
+                long[] items = lsrc.getLongs( key );
+                for ( int i = 0; i < items.length; i++ ) {
+                    ldest.addItem( key, items[ i ] );
+                }
+                it.remove();
+            }
+            return;
+        }
+        for ( Iterator<?> it = src.getKeyIterator(); it.hasNext(); ) {
+            Object key = it.next();
+            long[] items = src.getLongs( key );
+            for ( int i = 0; i < items.length; i++ ) {
+                dest.addItem( key, items[ i ] );
+            }
+            it.remove();
+        }
+    }
+
     /**
      * Partial ObjectBinner implementation based on a HashMap.
      * Concrete subclasses must arrange for storing and retrieving 
@@ -355,6 +421,242 @@ class Binners {
         }
     }
 
+    /**
+     * LongKeyBinner implementation using an open-addressing hash table.
+     *
+     * <p>Keys are stored in a primitive array indexed by hash,
+     * with collisions resolved by linear probing.
+     * The items for all bins are stored in a single list,
+     * and the items in each bin are chained together by a parallel
+     * list of links, each pointing to the previous item in the same bin.
+     * The hash table records the most recently added item for each key.
+     * So no objects are created per key or per item, and the storage cost
+     * is of the order of 12 bytes per key and 8 (int items) or 12
+     * (long items) bytes per item.
+     *
+     * <p>Bins removed using the key iterator leave a tombstone in the
+     * hash table, and the storage for their items is not reclaimed.
+     */
+    private static class OpenLongKeyBinner implements LongKeyBinner {
+
+        /** Multiplier for Fibonacci hashing. */
+        private static final long HASH_MULT = 0x9e3779b97f4a7c15L;
+
+        /** Head value indicating an unused slot. */
+        private static final int EMPTY = 0;
+
+        /** Head value indicating a slot whose bin has been removed. */
+        private static final int REMOVED = -1;
+
+        /** Maximum number of items that can be stored. */
+        private static final int MAX_ITEMS = Integer.MAX_VALUE - 16;
+
+        private final IntList links_;
+        private final IntList intItems_;
+        private final LongList longItems_;
+        private long[] keys_;
+        private int[] heads_;
+        private int shift_;
+        private int nslot_;
+        private int nbin_;
+        private int ntomb_;
+        private int nitem_;
+
+        /**
+         * Constructor.
+         *
+         * @param   isInt  true if all items are known to be in the range
+         *                 of an int; this permits more compact storage
+         */
+        OpenLongKeyBinner( boolean isInt ) {
+            links_ = new IntList();
+            intItems_ = isInt ? new IntList() : null;
+            longItems_ = isInt ? null : new LongList();
+            allocateSlots( 16 );
+        }
+
+        public void addItem( long key, long item ) {
+            if ( nitem_ >= MAX_ITEMS ) {
+                throw new IllegalStateException( "Too many items in binner" );
+            }
+            if ( ( nbin_ + ntomb_ + 1 ) * 3L > nslot_ * 2L ) {
+                rehash();
+            }
+            int islot = findSlot( key );
+            int head = heads_[ islot ];
+            if ( head == EMPTY || head == REMOVED ) {
+                if ( head == REMOVED ) {
+                    ntomb_--;
+                }
+                keys_[ islot ] = key;
+                links_.add( EMPTY );
+                nbin_++;
+            }
+            else {
+                links_.add( head );
+            }
+            if ( intItems_ != null ) {
+                intItems_.add( Tables.checkedLongToInt( item ) );
+            }
+            else {
+                longItems_.add( item );
+            }
+            heads_[ islot ] = ++nitem_;
+            assert links_.size() == nitem_;
+        }
+
+        public long[] getLongs( long key ) {
+            int head = heads_[ findSlot( key ) ];
+            if ( head == EMPTY || head == REMOVED ) {
+                return null;
+            }
+            int n = 0;
+            for ( int link = head; link != EMPTY;
+                  link = links_.get( link - 1 ) ) {
+                n++;
+            }
+            long[] items = new long[ n ];
+            for ( int link = head; link != EMPTY;
+                  link = links_.get( link - 1 ) ) {
+                items[ --n ] = getItem( link - 1 );
+            }
+            return items;
+        }
+
+        public PrimitiveIterator.OfLong getLongKeyIterator() {
+            return new PrimitiveIterator.OfLong() {
+                int islot_ = nextLiveSlot( 0 );
+                int lastSlot_ = -1;
+                public boolean hasNext() {
+                    return islot_ < nslot_;
+                }
+                public long nextLong() {
+                    if ( islot_ >= nslot_ ) {
+                        throw new NoSuchElementException();
+                    }
+                    lastSlot_ = islot_;
+                    islot_ = nextLiveSlot( islot_ + 1 );
+                    return keys_[ lastSlot_ ];
+                }
+                public void remove() {
+                    if ( lastSlot_ < 0 ||
+                         heads_[ lastSlot_ ] == REMOVED ) {
+                        throw new IllegalStateException();
+                    }
+                    heads_[ lastSlot_ ] = REMOVED;
+                    nbin_--;
+                    ntomb_++;
+                }
+            };
+        }
+
+        public void addItem( Object key, long item ) {
+            addItem( ((Long) key).longValue(), item );
+        }
+
+        public long[] getLongs( Object key ) {
+            return key instanceof Long ? getLongs( ((Long) key).longValue() )
+                                       : null;
+        }
+
+        public Iterator<?> getKeyIterator() {
+            return getLongKeyIterator();
+        }
+
+        public long getBinCount() {
+            return nbin_;
+        }
+
+        public long getItemCount() {
+            return nitem_;
+        }
+
+        /**
+         * Returns the item stored at a given index in the item list.
+         *
+         * @param  index  item index
+         * @return  item value
+         */
+        private long getItem( int index ) {
+            return intItems_ != null ? intItems_.get( index )
+                                     : longItems_.get( index );
+        }
+
+        /**
+         * Returns the index of the slot in which a given key is stored,
+         * or the empty slot in which it would be stored if it is absent.
+         * Removed slots are reused only if they previously held the
+         * same key.
+         *
+         * @param  key  bin key
+         * @return  slot index
+         */
+        private int findSlot( long key ) {
+            int mask = nslot_ - 1;
+            for ( int islot = (int) ( ( key * HASH_MULT ) >>> shift_ );;
+                  islot = ( islot + 1 ) & mask ) {
+                if ( heads_[ islot ] == EMPTY || keys_[ islot ] == key ) {
+                    return islot;
+                }
+            }
+        }
+
+        /**
+         * Returns the index of the first slot at or after a given index
+         * which contains a non-empty bin.
+         *
+         * @param  islot  starting slot index
+         * @return  index of next live slot, or the slot count if none
+         */
+        private int nextLiveSlot( int islot ) {
+            while ( islot < nslot_ &&
+                    ( heads_[ islot ] == EMPTY ||
+                      heads_[ islot ] == REMOVED ) ) {
+                islot++;
+            }
+            return islot;
+        }
+
+        /**
+         * Allocates a new empty hash table.
+         *
+         * @param  nslot  number of slots, must be a power of 2
+         */
+        private void allocateSlots( int nslot ) {
+            assert Integer.bitCount( nslot ) == 1;
+            nslot_ = nslot;
+            shift_ = 64 - Integer.numberOfTrailingZeros( nslot );
+            keys_ = new long[ nslot ];
+            heads_ = new int[ nslot ];
+            ntomb_ = 0;
+        }
+
+        /**
+         * Reallocates the hash table to accommodate more bins,
+         * discarding any tombstones.
+         */
+        private void rehash() {
+            long[] oldKeys = keys_;
+            int[] oldHeads = heads_;
+            int nslot = nslot_;
+            while ( ( nbin_ + 1 ) * 3L > nslot * 2L && nslot < 1 << 30 ) {
+                nslot <<= 1;
+            }
+            if ( ( nbin_ + 1 ) * 3L > nslot * 2L ) {
+                throw new IllegalStateException( "Too many bins in binner" );
+            }
+            allocateSlots( nslot );
+            for ( int i = 0; i < oldHeads.length; i++ ) {
+                int head = oldHeads[ i ];
+                if ( head != EMPTY && head != REMOVED ) {
+                    int islot = findSlot( oldKeys[ i ] );
+                    keys_[ islot ] = oldKeys[ i ];
+                    heads_[ islot ] = head;
+                }
+            }
+        }
+    }
+
     /**
      * Utility class used for the list storage implementation.
      * It has to be private for use here, so that we can distinguish
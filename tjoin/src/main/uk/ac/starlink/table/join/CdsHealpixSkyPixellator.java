@@ -38,18 +38,19 @@ public class CdsHealpixSkyPixellator extends HealpixSkyPixellator {
         depth_ = k;
     }
 
-    public Object[] getPixels( double alpha, double delta, double radius ) {
+    public long[] getPixelIndices( double alpha, double delta,
+                                   double radius ) {
         HealpixNestedBMOC bmoc =
             Healpix.getNested( depth_ )
                    .newConeComputerApprox( radius )
                    .overlappingCells( alpha, delta );
         assert bmoc.getDepthMax() == depth_;
         int npix = Tables.checkedLongToInt( bmoc.computeDeepSize() );
-        Long[] pixels = new Long[ npix ];
+        long[] pixels = new long[ npix ];
         FlatHashIterator flit = bmoc.flatHashIterator();
         for ( int ipix = 0; ipix < npix; ipix++ ) {
             assert flit.hasNext();
-            pixels[ ipix ] = new Long( flit.next() );
+            pixels[ ipix ] = flit.next();
         }
         assert ! flit.hasNext();
         return pixels;
@@ -109,6 +109,10 @@ public class CuboidCartesianMatchEngine extends AbstractCartesianMatchEngine {
         return getScaleBins( toCoords( tuple ) );
     }
 
+    public long[] getLongBins( Object[] tuple ) {
+        return getScaleLongBins( toCoords( tuple ) );
+    }
+
     public boolean canBoundMatch() {
         return true;
     }
@@ -136,6 +136,12 @@ public class EllipseCartesianMatchEngine extends AbstractCartesianMatchEngine {
                               ellipse.getMaxRadius() );
     }
 
+    public long[] getLongBins( Object[] tuple ) {
+        Ellipse ellipse = toEllipse( tuple );
+        return getRadiusLongBins( new double[] { ellipse.x_, ellipse.y_ },
+                                  ellipse.getMaxRadius() );
+    }
+
     public boolean canBoundMatch() {
         return true;
     }
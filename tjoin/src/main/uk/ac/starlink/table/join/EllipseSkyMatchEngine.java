@@ -175,6 +175,12 @@ public class EllipseSkyMatchEngine extends AbstractSkyMatchEngine {
                         ellipse.getMaxRadius() );
     }
 
+    public long[] getLongBins( Object[] tuple ) {
+        SkyEllipse ellipse = toSkyEllipse( tuple );
+        return getLongBins( ellipse.alpha_, ellipse.delta_,
+                            ellipse.getMaxRadius() );
+    }
+
     public boolean canBoundMatch() {
         return true;
     }
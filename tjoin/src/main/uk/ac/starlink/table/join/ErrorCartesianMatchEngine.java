@@ -117,6 +117,11 @@ public class ErrorCartesianMatchEngine extends AbstractCartesianMatchEngine {
         return getRadiusBins( getTupleCoords( tuple ), getTupleError( tuple ) );
     }
 
+    public long[] getLongBins( Object[] tuple ) {
+        return getRadiusLongBins( getTupleCoords( tuple ),
+                                  getTupleError( tuple ) );
+    }
+
     public boolean canBoundMatch() {
         return true;
     }
@@ -131,6 +131,11 @@ public class ErrorSkyMatchEngine extends AbstractSkyMatchEngine {
                         getError( tuple ) );
     }
 
+    public long[] getLongBins( Object[] tuple ) {
+        return getLongBins( getAlpha( tuple ), getDelta( tuple ),
+                            getError( tuple ) );
+    }
+
     public boolean canBoundMatch() {
         return true;
     }
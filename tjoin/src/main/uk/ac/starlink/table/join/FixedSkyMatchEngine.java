@@ -95,6 +95,11 @@ public class FixedSkyMatchEngine extends AbstractSkyMatchEngine {
                         getSeparation() * 0.5 );
     }
 
+    public long[] getLongBins( Object[] tuple ) {
+        return getLongBins( getAlpha( tuple ), getDelta( tuple ),
+                            getSeparation() * 0.5 );
+    }
+
     public boolean canBoundMatch() {
         return true;
     }
@@ -100,6 +100,36 @@ public abstract class HealpixSkyPixellator implements SkyPixellator {
         }
     }
 
+    /**
+     * Returns the pixels in a given region as <code>Long</code> objects.
+     * The implementation calls {@link #getPixelIndices}.
+     */
+    public Object[] getPixels( double alpha, double delta, double radius ) {
+        long[] ipixs = getPixelIndices( alpha, delta, radius );
+        int npix = ipixs.length;
+        Long[] pixels = new Long[ npix ];
+        for ( int ipix = 0; ipix < npix; ipix++ ) {
+            pixels[ ipix ] = new Long( ipixs[ ipix ] );
+        }
+        return pixels;
+    }
+
+    /**
+     * Returns the HEALPix indices of the pixels in a given region,
+     * at the current value of the k parameter.
+     * The parameters specify a small circle on the sphere; any pixels
+     * which overlap this circle must be returned (additional pixels
+     * may also be returned).  The same pixel must not be returned
+     * more than once.
+     *
+     * @param  alpha  right ascension of circle centre in radians
+     * @param  delta  declination of circle centre in radians
+     * @param  radius   radius of circle in radians
+     * @return   array of distinct pixel indices
+     */
+    public abstract long[] getPixelIndices( double alpha, double delta,
+                                            double radius );
+
     /**
      * Updates internal state for the current value of the k parameter.
      *
@@ -70,7 +70,12 @@ public class HtmSkyPixellator implements SkyPixellator {
         return levelParam_;
     }
 
-    public Object[] getPixels( double alpha, double delta, double radius ) {
+    /**
+     * This method is synchronized, since the HTM library
+     * is not known to be safe for concurrent use.
+     */
+    public synchronized Object[] getPixels( double alpha, double delta,
+                                            double radius ) {
         double arcminRadius = Math.toDegrees( radius ) * 60.0;
         Circle zone = new Circle( alpha, delta, arcminRadius );
 
@@ -92,6 +92,10 @@ public class IsotropicCartesianMatchEngine
         return getRadiusBins( toCoords( tuple ), getError() * 0.5 );
     }
 
+    public long[] getLongBins( Object[] tuple ) {
+        return getRadiusLongBins( toCoords( tuple ), getError() * 0.5 );
+    }
+
     public boolean canBoundMatch() {
         return true;
     }
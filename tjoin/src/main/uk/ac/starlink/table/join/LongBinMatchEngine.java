@@ -0,0 +1,57 @@
+package uk.ac.starlink.table.join;
+
+/**
+ * MatchEngine which can supply bin identifiers as primitive
+ * <code>long</code> values rather than as objects.
+ * This allows match implementations to avoid the memory and
+ * garbage collection overheads of boxed or composite bin keys,
+ * which can be substantial when matching very large tables.
+ *
+ * <p>The {@link #getLongBins} method returns an alternative
+ * to the output of {@link #getBins getBins}; the two sets of values
+ * do not need to be related to each other, but the requirements on the
+ * long bins are the same as those on the object bins, namely:
+ * <ol>
+ * <li><tt>matchScore(t1,t2)&gt;=0</tt> implies a non-zero intersection of
+ *     <tt>getLongBins(t1)</tt> and <tt>getLongBins(t2)</tt>
+ * </ol>
+ * In addition, the array returned by a single call to
+ * <code>getLongBins</code> must not contain duplicate values.
+ * A given match will use either the long bins or the object bins
+ * for all tuples, it will not mix the two.
+ *
+ * <p>Not every configuration of an implementing class may be able
+ * to supply long bins; the {@link #canBinLongs} method indicates
+ * whether the <code>getLongBins</code> method may be used.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+public interface LongBinMatchEngine extends MatchEngine {
+
+    /**
+     * Convenience constant - it's a zero-length array of longs, suitable
+     * for returning from {@link #getLongBins} if no match can result.
+     */
+    static final long[] NO_LONG_BINS = new long[ 0 ];
+
+    /**
+     * Returns a set of integer keys for bins into which possible matches
+     * for a given tuple might fall.
+     * This method will only be called if {@link #canBinLongs} returns true.
+     *
+     * @param  tuple  tuple
+     * @return   set of distinct bin keys which might be returned by
+     *           invoking this method on other tuples which count as
+     *           matches for the submitted <tt>tuple</tt>
+     */
+    long[] getLongBins( Object[] tuple );
+
+    /**
+     * Indicates whether the {@link #getLongBins} method may be used
+     * in the current configuration of this engine.
+     *
+     * @return  true iff <tt>getLongBins</tt> provides a usable result
+     */
+    boolean canBinLongs();
+}
@@ -0,0 +1,49 @@
+package uk.ac.starlink.table.join;
+
+import java.util.PrimitiveIterator;
+
+/**
+ * LongBinner whose keys are <code>long</code> integers.
+ * As well as the methods inherited from <code>LongBinner</code>,
+ * which take <code>Long</code> objects as keys,
+ * it provides methods that use primitive keys,
+ * so that bins can be populated and queried without creating objects.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+interface LongKeyBinner extends LongBinner {
+
+    /**
+     * Adds an integer item to a bin with an integer key.
+     *
+     * @param  key  bin key
+     * @param  item  value to add to list in bin
+     */
+    void addItem( long key, long item );
+
+    /**
+     * Returns the contents of a bin with an integer key as an array of longs.
+     * Items are returned in the order they were added.
+     *
+     * @param  key  bin key
+     * @return  bin contents, or null if the bin is empty
+     */
+    long[] getLongs( long key );
+
+    /**
+     * Returns an iterator over the bin keys.
+     * The <code>remove</code> method of this iterator may or may not
+     * be supported.
+     *
+     * @return  iterator over keys of non-empty bins
+     */
+    PrimitiveIterator.OfLong getLongKeyIterator();
+
+    /**
+     * Returns the total number of items in all bins.
+     *
+     * @return  item count
+     */
+    long getItemCount();
+}
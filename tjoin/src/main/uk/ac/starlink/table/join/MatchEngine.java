@@ -45,6 +45,14 @@ import uk.ac.starlink.table.ValueInfo;
  * These two efficiency requirements are usually conflicting to some extent.
  * <p>
  * It may help to think of all this as a sort of fuzzy hash.
+ * <p>
+ * The {@link #getBins} and {@link #matchScore} methods may be invoked
+ * concurrently from multiple threads, for instance by a
+ * {@link RowMatcher} configured for parallel execution,
+ * so implementations must be thread-safe.
+ * The configuration methods (including the <tt>setValue</tt> methods
+ * of the match and tuning parameters) will not be called
+ * while a match is in progress.
  * 
  * @author   Mark Taylor (Starlink)
  */
@@ -1,6 +1,7 @@
 package uk.ac.starlink.table.join;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
@@ -13,11 +14,21 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 import uk.ac.starlink.table.DescribedValue;
-import uk.ac.starlink.table.RowSequence;
+import uk.ac.starlink.table.ProgressRowSplittable;
+import uk.ac.starlink.table.RowAccess;
+import uk.ac.starlink.table.RowCollector;
+import uk.ac.starlink.table.RowRunner;
+import uk.ac.starlink.table.RowSplittable;
+import uk.ac.starlink.table.SequentialRowSplittable;
 import uk.ac.starlink.table.StarTable;
+import uk.ac.starlink.table.StoragePolicy;
 import uk.ac.starlink.table.Tables;
 import uk.ac.starlink.table.ValueInfo;
+import uk.ac.starlink.util.SplitCollector;
+import uk.ac.starlink.util.Splittable;
 
 /**
  * Performs matching on the rows of one or more tables.
@@ -32,6 +43,21 @@ import uk.ac.starlink.table.ValueInfo;
  * memory as possible.  Techniques include removing items from one
  * collection as they are added to another.  This means that in many
  * cases input values may be modified by the methods.
+ *
+ * <p>The binning and candidate scoring stages of the matching
+ * may be performed in parallel, according to the {@link RowRunner}
+ * supplied at construction time.  In that case the match engine's
+ * {@link MatchEngine#getBins getBins} and
+ * {@link MatchEngine#matchScore matchScore} methods
+ * will be invoked concurrently from multiple threads.
+ * The content of the LinkSets produced does not depend on
+ * the runner used, and the order in which links are added to them
+ * does not depend on the details of thread scheduling.
+ *
+ * <p>If the match engine is a {@link LongBinMatchEngine} capable of
+ * supplying primitive bin keys, these are used in preference to
+ * object bin keys where possible, which can considerably reduce
+ * the memory required for large matches.
  * 
  * @author   Mark Taylor (Starlink)
  */
@@ -40,7 +66,9 @@ public class RowMatcher {
     private final MatchEngine engine;
     private final StarTable[] tables;
     private final int nTable;
+    private final RowRunner runner;
     private ProgressIndicator indicator = new NullProgressIndicator();
+    private StoragePolicy linkStorage;
     private long startTime;
 
     /**
@@ -51,9 +79,25 @@ public class RowMatcher {
      * @param  tables  the array of tables on which matches are to be done
      */
     public RowMatcher( MatchEngine engine, StarTable[] tables ) {
+        this( engine, tables, null );
+    }
+
+    /**
+     * Constructs a new matcher with match characteristics defined by
+     * a given matching engine, and a given policy for parallel execution.
+     *
+     * @param  engine  matching engine
+     * @param  tables  the array of tables on which matches are to be done
+     * @param  runner  controls parallel execution of the binning and
+     *                 scoring stages of the match;
+     *                 if null, {@link RowRunner#SEQUENTIAL} is used
+     */
+    public RowMatcher( MatchEngine engine, StarTable[] tables,
+                       RowRunner runner ) {
         this.engine = engine;
         this.tables = tables;
         this.nTable = tables.length;
+        this.runner = runner == null ? RowRunner.SEQUENTIAL : runner;
     }
 
     /**
@@ -74,11 +118,43 @@ public class RowMatcher {
         return indicator;
     }
 
+    /**
+     * Returns the object controlling parallel execution for this matcher.
+     *
+     * @return  row runner
+     */
+    public RowRunner getRowRunner() {
+        return runner;
+    }
+
+    /**
+     * Sets the storage policy used for the link sets returned by
+     * {@link #findPairMatches findPairMatches}.
+     * If non-null, pair match results are accumulated in a
+     * {@link StorageLinkSet} using the given policy, rather than
+     * as objects on the heap, which may allow very large match results
+     * to be handled.  The default is null.
+     *
+     * @param  linkStorage  storage policy for pair match results,
+     *                      or null for in-memory storage
+     */
+    public void setLinkStorage( StoragePolicy linkStorage ) {
+        this.linkStorage = linkStorage;
+    }
+
+    /**
+     * Returns the storage policy used for pair match results.
+     *
+     * @return  storage policy for pair match results,
+     *          or null for in-memory storage
+     */
+    public StoragePolicy getLinkStorage() {
+        return linkStorage;
+    }
+
     /**
      * Constructs a new empty LinkSet for use by this matcher.
-     * The current implementation returns one based on a SortedSet,
-     * but future implementations may provide the option of LinkSet
-     * implementations backed by disk.
+     * The current implementation returns one based on a HashSet.
      *
      * @return  new LinkSet
      */
@@ -86,6 +162,21 @@ public class RowMatcher {
         return new HashSetLinkSet();
     }
 
+    /**
+     * Constructs a new empty LinkSet suitable for holding pair
+     * match results.  The returned set only needs to support efficient
+     * addition of links and iteration.
+     * If a link storage policy has been set, a {@link StorageLinkSet}
+     * is returned, otherwise the result is the same as for
+     * {@link #createLinkSet}.
+     *
+     * @return  new LinkSet for RowLink2 pairs
+     */
+    LinkSet createPairLinkSet() {
+        return linkStorage == null ? createLinkSet()
+                                   : new StorageLinkSet( linkStorage );
+    }
+
     /**
      * Returns a set of RowLink objects corresponding to a pairwise match
      * between this matcher's two tables performed with its match engine.
@@ -162,7 +253,7 @@ public class RowMatcher {
 
             /* No overlap means no matches. */
             if ( range == null ) {
-                return createLinkSet();
+                return createPairLinkSet();
             }
             else {
                 long inRangeCount1 = intersect.inRangeCounts_[ 0 ];
@@ -200,36 +291,17 @@ public class RowMatcher {
             throws IOException, InterruptedException {
 
         /* Bin the row indices for the random table. */
-        ProgressRowSequence rseq =
-            new ProgressRowSequence( tables[ indexR ], indicator,
-                                     "Binning rows for table "
-                                     + ( indexR + 1 ) );
-        LongBinner binner =
-            Binners.createLongBinner( tables[ indexR ].getRowCount() );
-        long nrow = 0;
-        long nref = 0;
-        long nexclude = 0;
-        try {
-            for ( long lrow = 0; rseq.nextProgress(); lrow++ ) {
-                Object[] row = rseq.getRow();
-                if ( range.isInside( row ) ) {
-                    Object[] keys = engine.getBins( row );
-                    int nkey = keys.length;
-                    for ( int ikey = 0; ikey < nkey; ikey++ ) {
-                        binner.addItem( keys[ ikey ], lrow );
-                    }
-                    nref += nkey;
-                }
-                else {
-                    nexclude++;
-                }
-                nrow++;
-            }
-            assert nrow == tables[ indexR ].getRowCount();
-        }
-        finally {
-            rseq.close();
-        }
+        LongBinAccumulator binAcc =
+            collectRows( new LongBinCollector( range,
+                                               tables[ indexR ]
+                                              .getRowCount() ),
+                         tables[ indexR ],
+                         "Binning rows for table " + ( indexR + 1 ) );
+        LongBinner binner = binAcc.binner_;
+        long nrow = binAcc.nrow_;
+        long nref = binAcc.nref_;
+        long nexclude = binAcc.nexclude_;
+        assert nrow == tables[ indexR ].getRowCount();
         if ( nexclude > 0 ) {
             indicator.logMessage( nexclude + "/" + nrow + " rows excluded "
                                 + "(out of match region)" );
@@ -240,70 +312,24 @@ public class RowMatcher {
         indicator.logMessage( "(average bin occupancy " +
                               ( (float) nref / (float) nbin ) + ")" );
 
-        /* Scan the rows for the sequential table. */
-        LinkSet linkSet = createLinkSet();
-        ProgressRowSequence sseq =
-            new ProgressRowSequence( tables[ indexS ], indicator,
-                                     "Scanning rows for table "
-                                   + ( indexS + 1 ) );
-        try {
-            for ( long isrow = 0; sseq.nextProgress(); isrow++ ) {
-                Object[] srowData = sseq.getRow();
-                if ( range.isInside( srowData ) ) {
-
-                    /* Identify rows from table R which may match table S. */
-                    Object[] keys = engine.getBins( srowData );
-                    int nkey = keys.length;
-                    Set<Long> rrowSet = new HashSet<Long>();
-                    for ( int ikey = 0; ikey < nkey; ikey++ ) {
-                        long[] rrows = binner.getLongs( keys[ ikey ] );
-                        if ( rrows != null ) {
-                            for ( int ir = 0; ir < rrows.length; ir++ ) {
-                                rrowSet.add( new Long( rrows[ ir ] ) );
-                            }
-                        }
-                    }
-                    long[] rrows = new long[ rrowSet.size() ];
-                    int ir = 0;
-                    for ( Long rr : rrowSet ) {
-                        rrows[ ir++ ] = rr.longValue();
-                    }
-                    Arrays.sort( rrows );
-
-                    /* Score and accumulate matched links. */
-                    List<RowLink2> linkList = new ArrayList<RowLink2>( 1 );
-                    double bestScore = Double.MAX_VALUE;
-                    for ( ir = 0; ir < rrows.length; ir++ ) {
-                        long irrow = rrows[ ir ];
-                        Object[] rrowData = tables[ indexR ].getRow( irrow );
-                        double score = engine.matchScore( srowData, rrowData );
-                        if ( score >= 0 &&
-                             ( ! bestOnly || score < bestScore ) ) {
-                            RowRef rref = new RowRef( indexR, irrow );
-                            RowRef sref = new RowRef( indexS, isrow );
-                            RowLink2 pairLink = new RowLink2( rref, sref );
-                            pairLink.setScore( score );
-                            if ( bestOnly ) {
-                                bestScore = score;
-                                linkList.clear();
-                            }
-                            linkList.add( pairLink );
-                            assert ( ! bestOnly ) || ( linkList.size() == 1 );
-                        }
-                    }
-
-                    /* Add matched links to output set. */
-                    for ( RowLink2 pairLink : linkList ) {
-                        assert ! linkSet.containsLink( pairLink );
-                        linkSet.addLink( pairLink );
-                    }
-                }
-            }
+        /* Scan the rows for the sequential table.  If link storage is
+         * in use, each partition of the scan accumulates its links
+         * directly into a storage-backed set, so that the full result
+         * is never held on the heap. */
+        String stage = "Scanning rows for table " + ( indexS + 1 );
+        if ( linkStorage == null ) {
+            List<RowLink> pairList =
+                collectRows( new ListScanCollector( binner, indexR, indexS,
+                                                    range, bestOnly ),
+                             tables[ indexS ], stage );
+            return toLinkSet( pairList, createLinkSet() );
         }
-        finally {
-            sseq.close();
+        else {
+            return collectRows( new StorageScanCollector( binner, indexR,
+                                                          indexS, range,
+                                                          bestOnly ),
+                                tables[ indexS ], stage );
         }
-        return linkSet;
     }
 
     /**
@@ -503,51 +529,34 @@ public class RowMatcher {
      */
     private LinkSet findPairs( LinkSet possibleLinks )
             throws IOException, InterruptedException {
-        LinkSet pairs = createLinkSet();
-        double nLink = (double) possibleLinks.size();
+
+        /* Transfer the links to an array, from which they can be
+         * processed in parallel, removing them from the input set
+         * for memory efficiency. */
+        RowLink[] links = new RowLink[ possibleLinks.size() ];
         int iLink = 0;
-        indicator.startStage( "Locating pairs" );
         for ( Iterator<RowLink> it = possibleLinks.iterator(); it.hasNext(); ) {
-
-            /* Obtain the link and remove it from the input set for 
-             * memory efficiency. */
-            RowLink link = it.next();
+            links[ iLink++ ] = it.next();
             it.remove();
+        }
+        assert iLink == links.length;
 
-            /* Check whether this link is non-trivial. */
-            int nref = link.size();
-            if ( nref > 1 ) {
-
-                /* Cache the rows from each ref since it may be expensive
-                 * to get them multiple times. */
-                Object[][] binnedRows = new Object[ nref ][];
-                for ( int i = 0; i < nref; i++ ) {
-                    RowRef ref = link.getRef( i );
-                    StarTable table = tables[ ref.getTableIndex() ];
-                    binnedRows[ i ] = table.getRow( ref.getRowIndex() );
-                }
-
-                /* Do a pairwise comparison of all the rows in the same group.
-                 * If they match, add the new pair to the set of pairs. */
-                for ( int i = 0; i < nref; i++ ) {
-                    for ( int j = 0; j < i; j++ ) {
-                        RowLink2 pair = new RowLink2( link.getRef( i ),
-                                                      link.getRef( j ) );
-                        if ( ! pairs.containsLink( pair ) ) {
-                            double score = engine.matchScore( binnedRows[ i ],
-                                                              binnedRows[ j ] );
-                            if ( score >= 0 ) {
-                                pair.setScore( score );
-                                pairs.addLink( pair );
-                            }
-                        }
-                    }
-                }
-            }
-            indicator.setLevel( ++iLink / nLink );
+        /* Score all the pairs within each link. */
+        PairCollector collector =
+            new PairCollector( new IndicatorTarget( links.length ) );
+        LinkSet pairs;
+        indicator.startStage( "Locating pairs" );
+        try {
+            pairs = runner.collect( collector, new LinkSplittable( links ) );
         }
-        indicator.endStage();
-        return pairs;
+        catch ( IOException e ) {
+            checkInterruption( e );
+            throw e;
+        }
+        finally {
+            indicator.endStage();
+        }
+        return toLinkSet( toSortedList( pairs, null ), createLinkSet() );
     }
 
     /**
@@ -564,7 +573,7 @@ public class RowMatcher {
         ObjectBinner binner = Binners.createObjectBinner();
         long totalRows = 0;
         for ( int itab = 0; itab < nTable; itab++ ) {
-            binRows( itab, range, binner, true );
+            binner = binRows( itab, range, binner, true );
             totalRows += tables[ itab ].getRowCount();
         }
         long nBin = binner.getBinCount();
@@ -587,22 +596,11 @@ public class RowMatcher {
             throws IOException, InterruptedException {
         StarTable table = tables[ itable ];
         long nRow = table.getRowCount();
-        LongBinner binner = Binners.createLongBinner( nRow );
-        ProgressRowSequence rseq =
-            new ProgressRowSequence( table, indicator, "Binning rows" );
-        try {
-            for ( long lrow = 0; rseq.nextProgress(); lrow++ ) {
-                Object[] row = rseq.getRow();
-                Object[] keys = engine.getBins( row );
-                int nkey = keys.length;
-                for ( int ikey = 0; ikey < nkey; ikey++ ) {
-                    binner.addItem( keys[ ikey ], lrow );
-                }
-            }
-        }
-        finally {
-            rseq.close();
-        }
+        NdRange range = new NdRange( table.getColumnCount() );
+        LongBinner binner =
+            collectRows( new LongBinCollector( range, nRow ), table,
+                         "Binning rows" )
+           .binner_;
         long nBin = binner.getBinCount();
         indicator.logMessage( "Average bin count per row: " +
                               (float) ( nBin / (double) nRow ) );
@@ -857,15 +855,15 @@ public class RowMatcher {
         }
 
         /* Bin all the rows in the interesting region of the reference table. */
-        ObjectBinner binner = Binners.createObjectBinner();
-        binRows( index0, range, binner, true );
+        ObjectBinner binner =
+            binRows( index0, range, Binners.createObjectBinner(), true );
 
         /* Bin any rows in the other tables which have entries in the bins
          * we have already created for the reference table.  Rows without
          * such entries can be ignored. */
         for ( int itab = 0; itab < nTable; itab++ ) {
             if ( itab != index0 ) {
-                binRows( itab, range, binner, false );
+                binner = binRows( itab, range, binner, false );
             }
         }
 
@@ -1056,8 +1054,7 @@ public class RowMatcher {
         /* Sort the input pairs in ascending score order.  In this way,
          * better links will be favoured (inserted into the output set)
          * over worse ones. */
-        Collection<RowLink> inPairs =
-                toSortedList( pairs, new Comparator<RowLink>() {
+        Comparator<RowLink> scoreOrder = new Comparator<RowLink>() {
             public int compare( RowLink o1, RowLink o2 ) {
                 RowLink2 r1 = (RowLink2) o1;
                 RowLink2 r2 = (RowLink2) o2;
@@ -1073,19 +1070,49 @@ public class RowMatcher {
                     return r1.compareTo( r2 );
                 }
             }
-        } );
+        };
+
+        /* If the input is held in storage, do an external sort by
+         * copying it to another storage set ordered by score,
+         * so that the links are never all on the heap at once.
+         * The input is a set, so it contains no equal links with
+         * different scores. */
+        final Iterable<RowLink> inPairs;
+        final StorageLinkSet scoredPairs;
+        final int nIn;
+        if ( pairs instanceof StorageLinkSet ) {
+            scoredPairs =
+                new StorageLinkSet( linkStorage, 2,
+                                    StorageLinkSet.DEFAULT_BUFFER_SIZE,
+                                    scoreOrder );
+            int nl = 0;
+            for ( RowLink link : pairs ) {
+                scoredPairs.addLink( link );
+                nl++;
+            }
+            ((StorageLinkSet) pairs).close();
+            inPairs = scoredPairs;
+            nIn = nl;
+        }
+        else {
+            Collection<RowLink> sortedPairs =
+                toSortedList( pairs, scoreOrder );
+            scoredPairs = null;
+            inPairs = sortedPairs;
+            nIn = sortedPairs.size();
+        }
         pairs = null;
 
         /* We will be copying entries from the input map to an output one,
          * retaining only the best matches for each row. */
-        LinkSet outPairs = createLinkSet();
+        LinkSet outPairs = createPairLinkSet();
 
         /* Prepare to keep track of which rows we have seen. */
         Set<RowRef> seenRows = new HashSet<RowRef>();
 
         /* Iterate over each entry in the input set, selectively copying
          * to the output set as we go. */
-        double nPair = inPairs.size();
+        double nPair = nIn;
         int iPair = 0;
         indicator.startStage( "Eliminating multiple row references" );
         for ( Iterator<RowLink> it = inPairs.iterator(); it.hasNext(); ) {
@@ -1112,6 +1139,9 @@ public class RowMatcher {
             indicator.setLevel( ++iPair / nPair );
         }
         indicator.endStage();
+        if ( scoredPairs != null ) {
+            scoredPairs.close();
+        }
         return outPairs;
     }
 
@@ -1406,54 +1436,45 @@ public class RowMatcher {
      * only rows with entries in bins which are already present in 
      * the <code>bins</code> object will be added and others will be ignored.
      *
+     * <p>The returned binner contains the entries of the supplied one
+     * as well as the newly binned rows; it may or may not be the same
+     * object as the supplied one, and the supplied one should not be
+     * used following this call.
+     *
      * @param   itab   index of table to operate on
      * @param   range  range of row coordinates of interest - any rows outside
      *                 this range are ignored
-     * @param   binner   binner object to modify
+     * @param   binner   binner object to add to
      * @param   newBins  whether new bins may be added to <code>bins</code>
+     * @return  binner containing the input and newly binned entries
      */
-    private void binRows( int itab, NdRange range, ObjectBinner binner,
-                          boolean newBins )
+    private ObjectBinner binRows( int itab, NdRange range, ObjectBinner binner,
+                                  boolean newBins )
             throws IOException, InterruptedException {
         if ( range == null ) {
-            return;
+            return binner;
         }
         StarTable table = tables[ itab ];
-        ProgressRowSequence rseq =
-            new ProgressRowSequence( table, indicator,
-                                     "Binning rows for table " + ( itab + 1 ) );
-        long nrow = 0;
-        long nexclude = 0;
-        try {
-            for ( long lrow = 0; rseq.nextProgress(); lrow++ ) {
-                Object[] row = rseq.getRow();
-                if ( range.isInside( row ) ) {
-                    Object[] keys = engine.getBins( row );
-                    int nkey = keys.length;
-                    if ( nkey > 0 ) {
-                        RowRef rref = new RowRef( itab, lrow );
-                        for ( int ikey = 0; ikey < nkey; ikey++ ) {
-                            Object key = keys[ ikey ];
-                            if ( newBins || binner.containsKey( key ) ) {
-                                binner.addItem( key, rref );
-                            }
-                        }
-                    }
-                }
-                else {
-                    nexclude++;
-                }
-                nrow++;
-            }
-            assert nrow == table.getRowCount();
-        }
-        finally {
-            rseq.close();
-        }
+        ObjectBinAccumulator binAcc =
+            collectRows( new ObjectBinCollector( itab, range,
+                                                 newBins ? null : binner ),
+                         table, "Binning rows for table " + ( itab + 1 ) );
+        long nrow = binAcc.nrow_;
+        long nexclude = binAcc.nexclude_;
+        assert nrow == table.getRowCount();
         if ( nexclude > 0 ) {
             indicator.logMessage( nexclude + "/" + nrow + " rows excluded "
                                 + "(out of match region)" );
         }
+
+        /* Merge the newly binned entries with the existing ones. */
+        if ( binner.getBinCount() == 0 ) {
+            return binAcc.binner_;
+        }
+        else {
+            Binners.addObjectBins( binner, binAcc.binner_ );
+            return binner;
+        }
     }
 
     /**
@@ -1638,6 +1659,764 @@ public class RowMatcher {
         return Tables.checkedLongToInt( lval );
     }
 
+    /**
+     * Returns this matcher's engine as a LongBinMatchEngine,
+     * if it is currently able to supply primitive bin keys.
+     *
+     * @return  long bin engine, or null if object bins must be used
+     */
+    private LongBinMatchEngine getLongBinEngine() {
+        return engine instanceof LongBinMatchEngine &&
+               ((LongBinMatchEngine) engine).canBinLongs()
+             ? (LongBinMatchEngine) engine
+             : null;
+    }
+
+    /**
+     * Combines several arrays of row indices into a single sorted array
+     * with no duplicates.
+     *
+     * @param  binRows  array of row index arrays; null elements are
+     *                  permitted and ignored
+     * @return  sorted array of distinct row indices
+     */
+    private static long[] mergeRowIndices( long[][] binRows ) {
+        int ntot = 0;
+        for ( long[] irs : binRows ) {
+            if ( irs != null ) {
+                ntot += irs.length;
+            }
+        }
+        long[] rrows = new long[ ntot ];
+        int ir = 0;
+        for ( long[] irs : binRows ) {
+            if ( irs != null ) {
+                System.arraycopy( irs, 0, rrows, ir, irs.length );
+                ir += irs.length;
+            }
+        }
+        Arrays.sort( rrows );
+        int nu = 0;
+        for ( ir = 0; ir < ntot; ir++ ) {
+            if ( nu == 0 || rrows[ ir ] != rrows[ nu - 1 ] ) {
+                rrows[ nu++ ] = rrows[ ir ];
+            }
+        }
+        return nu == ntot ? rrows : Arrays.copyOf( rrows, nu );
+    }
+
+    /**
+     * Performs a collection operation on the rows of a table
+     * using this matcher's row runner, with progress reporting.
+     * The supplied collector may use the row index supplier of the
+     * row splittables it is given; if the table cannot supply
+     * row indices for its splittable, it is processed sequentially.
+     *
+     * @param  collector  row collector
+     * @param  table   table supplying rows
+     * @param  stage   description of processing stage, used for
+     *                 progress reporting
+     * @return  collection result
+     */
+    private <A> A collectRows( RowCollector<A> collector, StarTable table,
+                               String stage )
+            throws IOException, InterruptedException {
+        RowSplittable rseq = runner.createRowSplittable( table );
+        if ( rseq.rowIndex() == null ) {
+            rseq.close();
+            rseq = new SequentialRowSplittable( table );
+        }
+        RowSplittable prseq =
+            new ProgressRowSplittable( rseq, new IndicatorTarget( table
+                                                                 .getRowCount()
+                                                                 ) );
+        indicator.startStage( stage );
+        try {
+            return runner.collect( collector, prseq );
+        }
+        catch ( IOException e ) {
+            checkInterruption( e );
+            throw e;
+        }
+        finally {
+            indicator.endStage();
+        }
+    }
+
+    /**
+     * Populates an empty LinkSet with the contents of a given collection
+     * of links.  The links are added to the result in their natural
+     * order, so that the result does not depend on the order of
+     * the input collection.
+     *
+     * @param  links  link collection
+     * @param  linkSet  empty link set to populate
+     * @return   populated link set
+     */
+    private LinkSet toLinkSet( Collection<RowLink> links, LinkSet linkSet ) {
+        RowLink[] linkArray = links.toArray( new RowLink[ 0 ] );
+        Arrays.parallelSort( linkArray );
+        for ( int il = 0; il < linkArray.length; il++ ) {
+            linkSet.addLink( linkArray[ il ] );
+            linkArray[ il ] = null;
+        }
+        return linkSet;
+    }
+
+    /**
+     * Throws an InterruptedException if the cause chain of a given
+     * exception indicates that processing was interrupted.
+     * Otherwise, does nothing.
+     *
+     * @param  err  exception to examine
+     */
+    private static void checkInterruption( Throwable err )
+            throws InterruptedException {
+        for ( Throwable e = err; e != null; e = e.getCause() ) {
+            if ( e instanceof InterruptedException ||
+                 e instanceof InterruptedIOException ) {
+                InterruptedException iErr =
+                    new InterruptedException( e.getMessage() );
+                iErr.initCause( err );
+                throw iErr;
+            }
+        }
+    }
+
+    /**
+     * Progress target that passes progress information to this
+     * matcher's progress indicator.
+     * Interruption from the indicator is signalled by throwing an
+     * InterruptedIOException.
+     */
+    private class IndicatorTarget implements ProgressRowSplittable.Target {
+        private final double total_;
+
+        /**
+         * Constructor.
+         *
+         * @param  total  total count expected
+         */
+        IndicatorTarget( long total ) {
+            total_ = total;
+        }
+
+        public void updateCount( long count ) throws IOException {
+            if ( total_ > 0 ) {
+                try {
+                    synchronized ( this ) {
+                        indicator.setLevel( count / total_ );
+                    }
+                }
+                catch ( InterruptedException e ) {
+                    throw (IOException)
+                          new InterruptedIOException( "Interrupted" )
+                         .initCause( e );
+                }
+            }
+        }
+
+        public void done( long count ) {
+        }
+    }
+
+    /**
+     * Accumulator for binning row indices of a single table.
+     */
+    private static class LongBinAccumulator {
+        final LongBinner binner_;
+        long nrow_;
+        long nref_;
+        long nexclude_;
+
+        /**
+         * Constructor.
+         *
+         * @param  binner  binner to populate
+         */
+        LongBinAccumulator( LongBinner binner ) {
+            binner_ = binner;
+        }
+    }
+
+    /**
+     * Collector that bins the row indices of a single table.
+     */
+    private class LongBinCollector extends RowCollector<LongBinAccumulator> {
+        private final NdRange range_;
+        private final long nrow_;
+        private final LongBinMatchEngine longEngine_;
+
+        /**
+         * Constructor.
+         *
+         * @param  range  range outside which rows are ignored
+         * @param  nrow   number of rows in table, or -1 if not known
+         */
+        LongBinCollector( NdRange range, long nrow ) {
+            range_ = range;
+            nrow_ = nrow;
+            longEngine_ = getLongBinEngine();
+        }
+
+        public LongBinAccumulator createAccumulator() {
+            return new LongBinAccumulator(
+                longEngine_ == null ? Binners.createLongBinner( nrow_ )
+                                    : Binners.createLongKeyBinner( nrow_ ) );
+        }
+
+        public void accumulateRows( RowSplittable rseq,
+                                    LongBinAccumulator acc )
+                throws IOException {
+            LongSupplier rowIndex = rseq.rowIndex();
+            LongBinner binner = acc.binner_;
+            while ( rseq.next() ) {
+                Object[] row = rseq.getRow();
+                if ( range_.isInside( row ) ) {
+                    long lrow = rowIndex.getAsLong();
+                    final int nkey;
+                    if ( longEngine_ != null ) {
+                        LongKeyBinner lbinner = (LongKeyBinner) binner;
+                        long[] keys = longEngine_.getLongBins( row );
+                        nkey = keys.length;
+                        for ( int ikey = 0; ikey < nkey; ikey++ ) {
+                            lbinner.addItem( keys[ ikey ], lrow );
+                        }
+                    }
+                    else {
+                        Object[] keys = engine.getBins( row );
+                        nkey = keys.length;
+                        for ( int ikey = 0; ikey < nkey; ikey++ ) {
+                            binner.addItem( keys[ ikey ], lrow );
+                        }
+                    }
+                    acc.nref_ += nkey;
+                }
+                else {
+                    acc.nexclude_++;
+                }
+                acc.nrow_++;
+            }
+        }
+
+        public LongBinAccumulator combine( LongBinAccumulator acc1,
+                                           LongBinAccumulator acc2 ) {
+            final LongBinAccumulator big;
+            final LongBinAccumulator small;
+            if ( acc1.binner_.getBinCount() >= acc2.binner_.getBinCount() ) {
+                big = acc1;
+                small = acc2;
+            }
+            else {
+                big = acc2;
+                small = acc1;
+            }
+            Binners.addLongBins( big.binner_, small.binner_ );
+            big.nrow_ += small.nrow_;
+            big.nref_ += small.nref_;
+            big.nexclude_ += small.nexclude_;
+            return big;
+        }
+    }
+
+    /**
+     * Accumulator for binning RowRefs from a single table.
+     */
+    private static class ObjectBinAccumulator {
+        final ObjectBinner binner_;
+        long nrow_;
+        long nexclude_;
+
+        /**
+         * Constructor.
+         *
+         * @param  binner  binner to populate
+         */
+        ObjectBinAccumulator( ObjectBinner binner ) {
+            binner_ = binner;
+        }
+    }
+
+    /**
+     * Collector that bins RowRefs for the rows of a single table.
+     */
+    private class ObjectBinCollector
+            extends RowCollector<ObjectBinAccumulator> {
+        private final int itab_;
+        private final NdRange range_;
+        private final ObjectBinner oldBinner_;
+
+        /**
+         * Constructor.
+         *
+         * @param  itab   index of table
+         * @param  range  range outside which rows are ignored
+         * @param  oldBinner  if non-null, only rows with bin keys already
+         *                    present in this binner will be binned;
+         *                    it will not be modified
+         */
+        ObjectBinCollector( int itab, NdRange range, ObjectBinner oldBinner ) {
+            itab_ = itab;
+            range_ = range;
+            oldBinner_ = oldBinner;
+        }
+
+        public ObjectBinAccumulator createAccumulator() {
+            return new ObjectBinAccumulator( Binners.createObjectBinner() );
+        }
+
+        public void accumulateRows( RowSplittable rseq,
+                                    ObjectBinAccumulator acc )
+                throws IOException {
+            LongSupplier rowIndex = rseq.rowIndex();
+            ObjectBinner binner = acc.binner_;
+            while ( rseq.next() ) {
+                Object[] row = rseq.getRow();
+                if ( range_.isInside( row ) ) {
+                    Object[] keys = engine.getBins( row );
+                    int nkey = keys.length;
+                    if ( nkey > 0 ) {
+                        RowRef rref = new RowRef( itab_, rowIndex.getAsLong() );
+                        for ( int ikey = 0; ikey < nkey; ikey++ ) {
+                            Object key = keys[ ikey ];
+                            if ( oldBinner_ == null ||
+                                 oldBinner_.containsKey( key ) ) {
+                                binner.addItem( key, rref );
+                            }
+                        }
+                    }
+                }
+                else {
+                    acc.nexclude_++;
+                }
+                acc.nrow_++;
+            }
+        }
+
+        public ObjectBinAccumulator combine( ObjectBinAccumulator acc1,
+                                             ObjectBinAccumulator acc2 ) {
+            final ObjectBinAccumulator big;
+            final ObjectBinAccumulator small;
+            if ( acc1.binner_.getItemCount() >= acc2.binner_.getItemCount() ) {
+                big = acc1;
+                small = acc2;
+            }
+            else {
+                big = acc2;
+                small = acc1;
+            }
+            Binners.addObjectBins( big.binner_, small.binner_ );
+            big.nrow_ += small.nrow_;
+            big.nexclude_ += small.nexclude_;
+            return big;
+        }
+    }
+
+    /**
+     * Collector that scans the rows of one table, identifying pair matches
+     * with rows of another table that has already been binned.
+     * Concrete subclasses determine how the resulting {@link RowLink2}s
+     * are accumulated.
+     *
+     * @param  <A>  accumulator type
+     */
+    private abstract class ScanCollector<A> extends RowCollector<A> {
+        private final LongBinner binner_;
+        private final int indexR_;
+        private final int indexS_;
+        private final NdRange range_;
+        private final boolean bestOnly_;
+        private final LongBinMatchEngine longEngine_;
+
+        /**
+         * Constructor.
+         *
+         * @param  binner  binner containing row indices for table R
+         * @param  indexR  index of table which will be accessed randomly
+         * @param  indexS  index of table which will be accessed sequentially
+         * @param  range   range outside which pairs can be ignored
+         * @param  bestOnly  if false, all matches will be included
+         *                   in the result; if true, for each row in the
+         *                   sequential table, only the best match in the
+         *                   random table will be included
+         */
+        ScanCollector( LongBinner binner, int indexR, int indexS,
+                       NdRange range, boolean bestOnly ) {
+            binner_ = binner;
+            indexR_ = indexR;
+            indexS_ = indexS;
+            range_ = range;
+            bestOnly_ = bestOnly;
+            longEngine_ = binner instanceof LongKeyBinner
+                        ? getLongBinEngine()
+                        : null;
+            assert ( binner instanceof LongKeyBinner ) ==
+                   ( getLongBinEngine() != null );
+        }
+
+        /**
+         * Adds a matched pair to an accumulator.
+         *
+         * @param  link  pair link
+         * @param  acc   accumulator
+         */
+        abstract void addLink( RowLink2 link, A acc );
+
+        public void accumulateRows( RowSplittable sseq, A links )
+                throws IOException {
+            LongSupplier rowIndex = sseq.rowIndex();
+            try ( RowAccess raccR = tables[ indexR_ ].getRowAccess() ) {
+                while ( sseq.next() ) {
+                    Object[] srowData = sseq.getRow();
+                    if ( range_.isInside( srowData ) ) {
+                        scanRow( srowData, rowIndex.getAsLong(), raccR,
+                                 links );
+                    }
+                }
+            }
+        }
+
+        /**
+         * Identifies and scores matches for a single row of table S.
+         *
+         * @param  srowData  tuple for row of table S
+         * @param  isrow   index of row in table S
+         * @param  raccR   random access for table R
+         * @param  links   accumulator to which matched pairs are added
+         */
+        private void scanRow( Object[] srowData, long isrow, RowAccess raccR,
+                              A links )
+                throws IOException {
+
+            /* Identify rows from table R which may match table S. */
+            final long[][] binRows;
+            if ( longEngine_ != null ) {
+                LongKeyBinner lbinner = (LongKeyBinner) binner_;
+                long[] keys = longEngine_.getLongBins( srowData );
+                int nkey = keys.length;
+                binRows = new long[ nkey ][];
+                for ( int ikey = 0; ikey < nkey; ikey++ ) {
+                    binRows[ ikey ] = lbinner.getLongs( keys[ ikey ] );
+                }
+            }
+            else {
+                Object[] keys = engine.getBins( srowData );
+                int nkey = keys.length;
+                binRows = new long[ nkey ][];
+                for ( int ikey = 0; ikey < nkey; ikey++ ) {
+                    binRows[ ikey ] = binner_.getLongs( keys[ ikey ] );
+                }
+            }
+            long[] rrows = mergeRowIndices( binRows );
+
+            /* Score and accumulate matched links. */
+            RowLink2 bestLink = null;
+            double bestScore = Double.MAX_VALUE;
+            for ( int ir = 0; ir < rrows.length; ir++ ) {
+                long irrow = rrows[ ir ];
+                raccR.setRowIndex( irrow );
+                Object[] rrowData = raccR.getRow();
+                double score = engine.matchScore( srowData, rrowData );
+                if ( score >= 0 && ( ! bestOnly_ || score < bestScore ) ) {
+                    RowRef rref = new RowRef( indexR_, irrow );
+                    RowRef sref = new RowRef( indexS_, isrow );
+                    RowLink2 pairLink = new RowLink2( rref, sref );
+                    pairLink.setScore( score );
+                    if ( bestOnly_ ) {
+                        bestScore = score;
+                        bestLink = pairLink;
+                    }
+                    else {
+                        addLink( pairLink, links );
+                    }
+                }
+            }
+            if ( bestLink != null ) {
+                addLink( bestLink, links );
+            }
+        }
+    }
+
+    /**
+     * ScanCollector implementation which accumulates links in a list
+     * on the heap.
+     */
+    private class ListScanCollector extends ScanCollector<List<RowLink>> {
+
+        /**
+         * Constructor.
+         *
+         * @param  binner  binner containing row indices for table R
+         * @param  indexR  index of table which will be accessed randomly
+         * @param  indexS  index of table which will be accessed sequentially
+         * @param  range   range outside which pairs can be ignored
+         * @param  bestOnly  whether only the best match for each
+         *                   sequential table row is retained
+         */
+        ListScanCollector( LongBinner binner, int indexR, int indexS,
+                           NdRange range, boolean bestOnly ) {
+            super( binner, indexR, indexS, range, bestOnly );
+        }
+
+        public List<RowLink> createAccumulator() {
+            return new ArrayList<RowLink>();
+        }
+
+        void addLink( RowLink2 link, List<RowLink> links ) {
+            links.add( link );
+        }
+
+        public List<RowLink> combine( List<RowLink> links1,
+                                      List<RowLink> links2 ) {
+            if ( links1.size() >= links2.size() ) {
+                links1.addAll( links2 );
+                return links1;
+            }
+            else {
+                links2.addAll( links1 );
+                return links2;
+            }
+        }
+    }
+
+    /**
+     * ScanCollector implementation which accumulates links in
+     * a {@link StorageLinkSet} using this matcher's link storage policy.
+     * Links spill to storage as each partition proceeds,
+     * and partial results are combined without copying the spilled runs.
+     */
+    private class StorageScanCollector
+            extends ScanCollector<StorageLinkSet> {
+
+        /**
+         * Constructor.
+         *
+         * @param  binner  binner containing row indices for table R
+         * @param  indexR  index of table which will be accessed randomly
+         * @param  indexS  index of table which will be accessed sequentially
+         * @param  range   range outside which pairs can be ignored
+         * @param  bestOnly  whether only the best match for each
+         *                   sequential table row is retained
+         */
+        StorageScanCollector( LongBinner binner, int indexR, int indexS,
+                              NdRange range, boolean bestOnly ) {
+            super( binner, indexR, indexS, range, bestOnly );
+        }
+
+        public StorageLinkSet createAccumulator() {
+            return new StorageLinkSet( linkStorage );
+        }
+
+        void addLink( RowLink2 link, StorageLinkSet links ) {
+            links.addLink( link );
+        }
+
+        public StorageLinkSet combine( StorageLinkSet links1,
+                                       StorageLinkSet links2 ) {
+            links1.transferFrom( links2 );
+            return links1;
+        }
+    }
+
+    /**
+     * Collector that identifies matched pairs within groups of
+     * possibly matched rows.  The accumulator is a set of
+     * {@link RowLink2}s.
+     */
+    private class PairCollector
+            implements SplitCollector<LinkSplittable,LinkSet> {
+        private final IndicatorTarget target_;
+        private final AtomicLong count_;
+
+        /**
+         * Constructor.
+         *
+         * @param  target  destination for progress reports
+         */
+        PairCollector( IndicatorTarget target ) {
+            target_ = target;
+            count_ = new AtomicLong();
+        }
+
+        public LinkSet createAccumulator() {
+            return createLinkSet();
+        }
+
+        public void accumulate( LinkSplittable linkSplit, LinkSet pairs ) {
+            try {
+                accumulateLinks( linkSplit, pairs );
+            }
+            catch ( IOException e ) {
+                throw new RuntimeException( "Data error in parallel processing",
+                                            e );
+            }
+        }
+
+        public LinkSet combine( LinkSet pairs1, LinkSet pairs2 ) {
+            final LinkSet big;
+            final LinkSet small;
+            if ( pairs1.size() >= pairs2.size() ) {
+                big = pairs1;
+                small = pairs2;
+            }
+            else {
+                big = pairs2;
+                small = pairs1;
+            }
+            for ( Iterator<RowLink> it = small.iterator(); it.hasNext(); ) {
+                RowLink pair = it.next();
+                if ( ! big.containsLink( pair ) ) {
+                    big.addLink( pair );
+                }
+                it.remove();
+            }
+            return big;
+        }
+
+        /**
+         * Does the work for accumulating pair matches.
+         *
+         * @param  linkSplit  splittable supplying possible links
+         * @param  pairs     set to which matched pairs will be added
+         */
+        private void accumulateLinks( LinkSplittable linkSplit,
+                                      LinkSet pairs )
+                throws IOException {
+            RowAccess[] raccs = new RowAccess[ nTable ];
+            try {
+                for ( int it = 0; it < nTable; it++ ) {
+                    raccs[ it ] = tables[ it ].getRowAccess();
+                }
+                accumulateLinks( linkSplit, pairs, raccs );
+            }
+            finally {
+                for ( RowAccess racc : raccs ) {
+                    if ( racc != null ) {
+                        racc.close();
+                    }
+                }
+            }
+        }
+
+        /**
+         * Does the work for accumulating pair matches
+         * given random access to the tables.
+         *
+         * @param  linkSplit  splittable supplying possible links
+         * @param  pairs     set to which matched pairs will be added
+         * @param  raccs   per-table random access objects
+         */
+        private void accumulateLinks( LinkSplittable linkSplit,
+                                      LinkSet pairs, RowAccess[] raccs )
+                throws IOException {
+            int nBlock = 0;
+            for ( RowLink link; ( link = linkSplit.next() ) != null; ) {
+
+                /* Check whether this link is non-trivial. */
+                int nref = link.size();
+                if ( nref > 1 ) {
+
+                    /* Cache the rows from each ref since it may be expensive
+                     * to get them multiple times. */
+                    Object[][] binnedRows = new Object[ nref ][];
+                    for ( int i = 0; i < nref; i++ ) {
+                        RowRef ref = link.getRef( i );
+                        RowAccess racc = raccs[ ref.getTableIndex() ];
+                        racc.setRowIndex( ref.getRowIndex() );
+                        binnedRows[ i ] = racc.getRow().clone();
+                    }
+
+                    /* Do a pairwise comparison of all the rows in the same
+                     * group.  If they match, add the new pair to the set
+                     * of pairs. */
+                    for ( int i = 0; i < nref; i++ ) {
+                        for ( int j = 0; j < i; j++ ) {
+                            RowLink2 pair = new RowLink2( link.getRef( i ),
+                                                          link.getRef( j ) );
+                            if ( ! pairs.containsLink( pair ) ) {
+                                double score =
+                                    engine.matchScore( binnedRows[ i ],
+                                                       binnedRows[ j ] );
+                                if ( score >= 0 ) {
+                                    pair.setScore( score );
+                                    pairs.addLink( pair );
+                                }
+                            }
+                        }
+                    }
+                }
+                if ( ++nBlock >= 1000 ) {
+                    target_.updateCount( count_.addAndGet( nBlock ) );
+                    nBlock = 0;
+                }
+            }
+            target_.updateCount( count_.addAndGet( nBlock ) );
+        }
+    }
+
+    /**
+     * Splittable that supplies the elements of an array of RowLinks.
+     * Array elements are nulled out as they are consumed,
+     * for memory efficiency.
+     */
+    private static class LinkSplittable implements Splittable<LinkSplittable> {
+        private final RowLink[] links_;
+        private int ilo_;
+        private int ihi_;
+
+        /**
+         * Constructs a splittable covering a whole array.
+         *
+         * @param  links  link array
+         */
+        LinkSplittable( RowLink[] links ) {
+            this( links, 0, links.length );
+        }
+
+        /**
+         * Constructs a splittable covering part of an array.
+         *
+         * @param  links  link array
+         * @param  ilo    index of first element (inclusive)
+         * @param  ihi    index of last element (exclusive)
+         */
+        private LinkSplittable( RowLink[] links, int ilo, int ihi ) {
+            links_ = links;
+            ilo_ = ilo;
+            ihi_ = ihi;
+        }
+
+        public LinkSplittable split() {
+            if ( ihi_ - ilo_ < 2 ) {
+                return null;
+            }
+            int mid = ( ilo_ + ihi_ ) >>> 1;
+            LinkSplittable split = new LinkSplittable( links_, mid, ihi_ );
+            ihi_ = mid;
+            return split;
+        }
+
+        public long splittableSize() {
+            return ihi_ - ilo_;
+        }
+
+        /**
+         * Returns the next link from this splittable.
+         *
+         * @return  next link, or null if there are no more
+         */
+        RowLink next() {
+            if ( ilo_ < ihi_ ) {
+                RowLink link = links_[ ilo_ ];
+                links_[ ilo_++ ] = null;
+                return link;
+            }
+            else {
+                return null;
+            }
+        }
+    }
+
     /**
      * Helper class which decorates a RowRef with a score value.
      */
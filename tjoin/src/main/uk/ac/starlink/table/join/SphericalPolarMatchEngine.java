@@ -88,6 +88,10 @@ public class SphericalPolarMatchEngine extends AbstractCartesianMatchEngine {
         return getRadiusBins( toXyz( tuple ), getError() * 0.5 );
     }
 
+    public long[] getLongBins( Object[] tuple ) {
+        return getRadiusLongBins( toXyz( tuple ), getError() * 0.5 );
+    }
+
     /**
      * Returns false.  It would probably be possible to implement this,
      * but not very easy.
@@ -0,0 +1,608 @@
+package uk.ac.starlink.table.join;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+import uk.ac.starlink.table.ByteStore;
+import uk.ac.starlink.table.StoragePolicy;
+
+/**
+ * LinkSet implementation which keeps most of its content in
+ * {@link uk.ac.starlink.table.ByteStore}s rather than on the heap.
+ *
+ * <p>Links are accumulated in an in-memory buffer of limited size.
+ * When the buffer fills up, its contents are sorted and written as
+ * a run of fixed-width records, one per link, to a new ByteStore
+ * obtained from a supplied {@link uk.ac.starlink.table.StoragePolicy}.
+ * Each record contains the table index and row index of each
+ * {@link RowRef} in the link, along with the link's score if it is a
+ * {@link RowLink2}.
+ * Links read back from storage are therefore instances of
+ * <code>RowLink</code> or <code>RowLink2</code>,
+ * even if a subclass was added.
+ * Iteration performs a merge of all the sorted runs and the current
+ * buffer contents, so that links are always returned in their natural
+ * order, or in an ordering supplied at construction time,
+ * and the {@link #sort} method is a no-op that returns true.
+ * Since the records have a fixed width, the {@link #containsLink}
+ * and {@link #removeLink} methods can use a binary search within
+ * each run.  Removal of a link that has already been written to
+ * a run is recorded on the heap.
+ *
+ * <p>This implementation is suitable for sets that are mostly
+ * populated and then iterated over, such as the results of a
+ * pair match, where the number of links may be too large to keep
+ * as objects on the heap.  The number of rows referenced by each link
+ * is limited to a value fixed at construction time.
+ *
+ * <p>Since the data may be held in temporary files,
+ * the {@link #close} method should be called when the set is no longer
+ * required.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+public class StorageLinkSet implements LinkSet {
+
+    private final StoragePolicy storage_;
+    private final int maxRefs_;
+    private final int bufferSize_;
+    private final int recSize_;
+    private final Comparator<RowLink> order_;
+    private final List<Run> runs_;
+    private final Set<RowLink> removed_;
+    private Set<RowLink> buffer_;
+    private int size_;
+
+    /** Default maximum number of links held on the heap before spilling. */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 18;
+
+    /** Flag in record header indicating that the link is a RowLink2. */
+    private static final int LINK2_FLAG = 1 << 16;
+
+    /** Mask for reference count in record header. */
+    private static final int NREF_MASK = LINK2_FLAG - 1;
+
+    /** Maximum size of a single run in bytes. */
+    private static final long MAX_RUN_BYTES = 0x7f000000;
+
+    /**
+     * Default ordering used for links in this set.
+     * It is consistent with the natural ordering of {@link RowLink},
+     * but breaks ties between unequal links so that it is also
+     * consistent with <code>equals</code>.
+     */
+    private static final Comparator<RowLink> LINK_ORDER =
+            new Comparator<RowLink>() {
+        public int compare( RowLink link1, RowLink link2 ) {
+            int c = link1.compareTo( link2 );
+            if ( c != 0 ) {
+                return c;
+            }
+            int n1 = link1.size();
+            int n2 = link2.size();
+            int n = Math.min( n1, n2 );
+            for ( int i = 0; i < n; i++ ) {
+                int cr = link1.getRef( i ).compareTo( link2.getRef( i ) );
+                if ( cr != 0 ) {
+                    return cr;
+                }
+            }
+            return Integer.compare( n1, n2 );
+        }
+    };
+
+    /**
+     * Constructs a link set suitable for pair links with a default
+     * buffer size.
+     *
+     * @param  storage  storage policy used to obtain byte stores
+     */
+    public StorageLinkSet( StoragePolicy storage ) {
+        this( storage, 2, DEFAULT_BUFFER_SIZE );
+    }
+
+    /**
+     * Constructs a link set with given characteristics.
+     *
+     * @param  storage  storage policy used to obtain byte stores
+     * @param  maxRefs  maximum number of RowRefs in any link that will
+     *                  be added to this set
+     * @param  bufferSize  maximum number of links held on the heap
+     *                     before they are written to a byte store
+     */
+    public StorageLinkSet( StoragePolicy storage, int maxRefs,
+                           int bufferSize ) {
+        this( storage, maxRefs, bufferSize, LINK_ORDER );
+    }
+
+    /**
+     * Constructs a link set with given characteristics and a custom
+     * iteration order.
+     * This can be used as an external sort, for instance to iterate
+     * over pair links in order of score.
+     *
+     * <p>The ordering is used for merging runs and for the binary
+     * searches in {@link #containsLink} and {@link #removeLink},
+     * so it must not rank any two links as equal unless they are
+     * <code>equals</code>.  Since link equality does not take account
+     * of score, a score-based ordering is only suitable if no two
+     * equal links with different scores will be added to this set.
+     *
+     * @param  storage  storage policy used to obtain byte stores
+     * @param  maxRefs  maximum number of RowRefs in any link that will
+     *                  be added to this set
+     * @param  bufferSize  maximum number of links held on the heap
+     *                     before they are written to a byte store
+     * @param  order   ordering of links for iteration
+     */
+    public StorageLinkSet( StoragePolicy storage, int maxRefs,
+                           int bufferSize, Comparator<RowLink> order ) {
+        if ( maxRefs < 1 || maxRefs > NREF_MASK ) {
+            throw new IllegalArgumentException( "Bad maxRefs " + maxRefs );
+        }
+        if ( bufferSize < 1 ) {
+            throw new IllegalArgumentException( "Bad buffer size "
+                                              + bufferSize );
+        }
+        storage_ = storage;
+        order_ = order;
+        maxRefs_ = maxRefs;
+        recSize_ = 4 + maxRefs * ( 4 + 8 ) + 8;
+        if ( bufferSize * (long) recSize_ > MAX_RUN_BYTES ) {
+            throw new IllegalArgumentException( "Buffer size too large "
+                                              + bufferSize );
+        }
+        bufferSize_ = bufferSize;
+        runs_ = new ArrayList<Run>();
+        removed_ = new HashSet<RowLink>();
+        buffer_ = new HashSet<RowLink>();
+        size_ = 0;
+    }
+
+    /**
+     * Returns the maximum number of RowRefs permitted in links
+     * added to this set.
+     *
+     * @return  maximum link size
+     */
+    public int getMaxRefs() {
+        return maxRefs_;
+    }
+
+    public void addLink( RowLink link ) {
+        int nref = link.size();
+        if ( nref > maxRefs_ ) {
+            throw new IllegalArgumentException( "Link " + link + " has more "
+                                              + "than " + maxRefs_ + " refs" );
+        }
+
+        /* Replace any equivalent link already in the buffer. */
+        buffer_.remove( link );
+        buffer_.add( link );
+
+        /* If the link was previously removed from the spilled data,
+         * the new buffer entry will supersede the spilled one. */
+        removed_.remove( link );
+        size_ = -1;
+        if ( buffer_.size() >= bufferSize_ ) {
+            spill();
+        }
+    }
+
+    public boolean containsLink( RowLink link ) {
+        if ( buffer_.contains( link ) ) {
+            return true;
+        }
+        else if ( removed_.contains( link ) ) {
+            return false;
+        }
+        else {
+            for ( Run run : runs_ ) {
+                if ( run.contains( link ) ) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    public boolean removeLink( RowLink link ) {
+        boolean found = buffer_.remove( link );
+        if ( ! removed_.contains( link ) ) {
+            for ( Run run : runs_ ) {
+                if ( run.contains( link ) ) {
+                    removed_.add( link );
+                    found = true;
+                    break;
+                }
+            }
+        }
+        if ( found ) {
+            size_ = -1;
+        }
+        return found;
+    }
+
+    /**
+     * Returns an iterator over the links in this set in their
+     * natural order, or the order supplied at construction time.
+     * The iterator's <code>remove</code> method is supported.  The effect of other modifications to this set
+     * during the iteration is undefined.
+     *
+     * @return  sorted iterator
+     */
+    public Iterator<RowLink> iterator() {
+        return new MergeIterator();
+    }
+
+    public int size() {
+        if ( size_ < 0 ) {
+            if ( runs_.isEmpty() ) {
+                size_ = buffer_.size();
+            }
+            else {
+                long count = 0;
+                for ( Iterator<RowLink> it = new MergeIterator();
+                      it.hasNext(); ) {
+                    it.next();
+                    count++;
+                }
+                size_ = checkedLongToInt( count );
+            }
+        }
+        return size_;
+    }
+
+    /**
+     * Does nothing, since iteration is always in sorted order.
+     *
+     * @return  true
+     */
+    public boolean sort() {
+        return true;
+    }
+
+    /**
+     * Moves all the links from another set into this one.
+     * Sorted runs already written by the other set are taken over
+     * without being copied, and its buffered links are added to this one.
+     * Following this call, the other set is empty,
+     * and responsibility for releasing the storage it was using
+     * passes to this set.
+     * This is intended for combining partial results accumulated
+     * in parallel.
+     *
+     * @param  other  set to empty into this one;
+     *                it must have the same maximum link size as this one,
+     *                and must not have had any links removed
+     * @throws  IllegalArgumentException  if the other set is unsuitable
+     */
+    public void transferFrom( StorageLinkSet other ) {
+        if ( other.maxRefs_ != maxRefs_ || ! other.removed_.isEmpty() ) {
+            throw new IllegalArgumentException( "Incompatible link set" );
+        }
+        runs_.addAll( other.runs_ );
+        other.runs_.clear();
+        size_ = -1;
+        for ( RowLink link : other.buffer_ ) {
+            addLink( link );
+        }
+        other.buffer_ = new HashSet<RowLink>();
+        other.size_ = 0;
+    }
+
+    /**
+     * Releases resources held by this set.
+     * It should not be used following a call to this method.
+     */
+    public void close() {
+        for ( Run run : runs_ ) {
+            run.store_.close();
+        }
+        runs_.clear();
+        buffer_.clear();
+        removed_.clear();
+        size_ = 0;
+    }
+
+    /**
+     * Writes the current contents of the buffer to a new sorted run
+     * in a byte store, and clears the buffer.
+     */
+    private void spill() {
+        RowLink[] links = getSortedBuffer();
+        ByteStore store = storage_.makeByteStore();
+        try {
+            DataOutputStream out =
+                new DataOutputStream(
+                    new BufferedOutputStream( store.getOutputStream() ) );
+            for ( RowLink link : links ) {
+                writeRecord( link, out );
+            }
+            out.flush();
+            ByteBuffer[] bufs = store.toByteBuffers();
+            if ( bufs.length != 1 ) {
+                throw new IOException( "Unexpected multi-buffer store" );
+            }
+            runs_.add( new Run( store, bufs[ 0 ], links.length ) );
+        }
+        catch ( IOException e ) {
+            store.close();
+            throw new RuntimeException( "Failed to write links to storage",
+                                        e );
+        }
+        buffer_ = new HashSet<RowLink>();
+    }
+
+    /**
+     * Returns the current contents of the buffer as a sorted array.
+     *
+     * @return  sorted buffer contents
+     */
+    private RowLink[] getSortedBuffer() {
+        RowLink[] links = buffer_.toArray( new RowLink[ 0 ] );
+        Arrays.parallelSort( links, order_ );
+        return links;
+    }
+
+    /**
+     * Writes a link as a fixed-width record.
+     *
+     * @param  link  link
+     * @param  out   destination stream
+     */
+    private void writeRecord( RowLink link, DataOutputStream out )
+            throws IOException {
+        int nref = link.size();
+        boolean isLink2 = link instanceof RowLink2;
+        out.writeInt( nref | ( isLink2 ? LINK2_FLAG : 0 ) );
+        for ( int i = 0; i < maxRefs_; i++ ) {
+            if ( i < nref ) {
+                RowRef ref = link.getRef( i );
+                out.writeInt( ref.getTableIndex() );
+                out.writeLong( ref.getRowIndex() );
+            }
+            else {
+                out.writeInt( 0 );
+                out.writeLong( 0L );
+            }
+        }
+        out.writeDouble( isLink2 ? ((RowLink2) link).getScore()
+                                 : Double.NaN );
+    }
+
+    /**
+     * Reads a link from a fixed-width record.
+     *
+     * @param  buf  buffer containing records
+     * @param  irec  record index
+     * @return  link
+     */
+    private RowLink readRecord( ByteBuffer buf, int irec ) {
+        int pos = irec * recSize_;
+        int header = buf.getInt( pos );
+        pos += 4;
+        int nref = header & NREF_MASK;
+        RowRef[] refs = new RowRef[ nref ];
+        for ( int i = 0; i < nref; i++ ) {
+            refs[ i ] = new RowRef( buf.getInt( pos ), buf.getLong( pos + 4 ) );
+            pos += 12;
+        }
+        if ( ( header & LINK2_FLAG ) != 0 ) {
+            RowLink2 link = new RowLink2( refs[ 0 ], refs[ 1 ] );
+            link.setScore( buf.getDouble( irec * recSize_ + recSize_ - 8 ) );
+            return link;
+        }
+        else {
+            return new RowLink( refs );
+        }
+    }
+
+    /**
+     * Turns a long into an int, throwing an unchecked exception if
+     * it can't be done.
+     *
+     * @param  lval  long value
+     * @return  int value
+     */
+    private static int checkedLongToInt( long lval ) {
+        int ival = (int) lval;
+        if ( ival != lval ) {
+            throw new IllegalStateException( "Too many links: " + lval );
+        }
+        return ival;
+    }
+
+    /**
+     * Represents a sorted sequence of links written to a byte store.
+     */
+    private class Run {
+        final ByteStore store_;
+        final ByteBuffer buf_;
+        final int nrec_;
+
+        /**
+         * Constructor.
+         *
+         * @param  store  byte store, used for tidying up
+         * @param  buf    buffer containing records
+         * @param  nrec   number of records
+         */
+        Run( ByteStore store, ByteBuffer buf, int nrec ) {
+            store_ = store;
+            buf_ = buf;
+            nrec_ = nrec;
+        }
+
+        /**
+         * Indicates whether this run contains a given link,
+         * using a binary search.
+         *
+         * @param  link  link to test
+         * @return  true iff an equal link is present
+         */
+        boolean contains( RowLink link ) {
+            int lo = 0;
+            int hi = nrec_ - 1;
+            while ( lo <= hi ) {
+                int mid = ( lo + hi ) >>> 1;
+                int c = order_.compare( readRecord( buf_, mid ), link );
+                if ( c < 0 ) {
+                    lo = mid + 1;
+                }
+                else if ( c > 0 ) {
+                    hi = mid - 1;
+                }
+                else {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Iterates over a sorted source of links as part of a merge.
+     */
+    private static abstract class Cursor {
+        final int rank_;
+        RowLink link_;
+
+        /**
+         * Constructor.
+         *
+         * @param  rank  recency of source; higher values are newer
+         */
+        Cursor( int rank ) {
+            rank_ = rank;
+        }
+
+        /**
+         * Moves to the next link, setting the <code>link_</code>
+         * member to it, or to null if there are no more.
+         */
+        abstract void advance();
+    }
+
+    /**
+     * Iterator which merges the sorted runs and buffer,
+     * eliminating duplicates and removed links.
+     * Where the same link appears in more than one source,
+     * the most recently added one is returned.
+     */
+    private class MergeIterator implements Iterator<RowLink> {
+        private final PriorityQueue<Cursor> queue_;
+        private RowLink next_;
+        private RowLink last_;
+
+        MergeIterator() {
+            queue_ = new PriorityQueue<Cursor>( runs_.size() + 1,
+                                                new Comparator<Cursor>() {
+                public int compare( Cursor c1, Cursor c2 ) {
+                    int c = order_.compare( c1.link_, c2.link_ );
+                    return c != 0 ? c : Integer.compare( c2.rank_, c1.rank_ );
+                }
+            } );
+            int rank = 0;
+            for ( final Run run : runs_ ) {
+                addCursor( new Cursor( rank++ ) {
+                    int irec_ = 0;
+                    void advance() {
+                        link_ = irec_ < run.nrec_
+                              ? readRecord( run.buf_, irec_++ )
+                              : null;
+                    }
+                } );
+            }
+            final RowLink[] bufLinks = getSortedBuffer();
+            addCursor( new Cursor( rank++ ) {
+                int il_ = 0;
+                void advance() {
+                    link_ = il_ < bufLinks.length ? bufLinks[ il_++ ] : null;
+                }
+            } );
+            next_ = findNext();
+        }
+
+        public boolean hasNext() {
+            return next_ != null;
+        }
+
+        public RowLink next() {
+            if ( next_ == null ) {
+                throw new NoSuchElementException();
+            }
+            last_ = next_;
+            next_ = findNext();
+            return last_;
+        }
+
+        public void remove() {
+            if ( last_ == null ) {
+                throw new IllegalStateException();
+            }
+            removeLink( last_ );
+            last_ = null;
+        }
+
+        /**
+         * Initialises a cursor and adds it to the merge queue
+         * if it is not empty.
+         *
+         * @param  cursor  new cursor
+         */
+        private void addCursor( Cursor cursor ) {
+            cursor.advance();
+            if ( cursor.link_ != null ) {
+                queue_.add( cursor );
+            }
+        }
+
+        /**
+         * Returns the next link to be returned by this iterator.
+         *
+         * @return  next link, or null if there are no more
+         */
+        private RowLink findNext() {
+            while ( ! queue_.isEmpty() ) {
+                Cursor cursor = queue_.poll();
+                RowLink link = cursor.link_;
+                advanceCursor( cursor );
+
+                /* Discard older copies of the same link. */
+                while ( ! queue_.isEmpty() &&
+                        queue_.peek().link_.equals( link ) ) {
+                    advanceCursor( queue_.poll() );
+                }
+                if ( ! removed_.contains( link ) ) {
+                    return link;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Moves a cursor on and returns it to the queue if it is not
+         * exhausted.
+         *
+         * @param  cursor  cursor that is not in the queue
+         */
+        private void advanceCursor( Cursor cursor ) {
+            cursor.advance();
+            if ( cursor.link_ != null ) {
+                queue_.add( cursor );
+            }
+        }
+    }
+}
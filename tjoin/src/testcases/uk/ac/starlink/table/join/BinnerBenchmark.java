@@ -0,0 +1,140 @@
+package uk.ac.starlink.table.join;
+
+import java.util.Random;
+
+/**
+ * Compares the heap required to bin row indices using object
+ * and primitive bin keys.
+ * This is not a unit test; run it with a main method,
+ * giving the number of rows as an optional argument.
+ * For meaningful results, run it with a heap large enough that
+ * the binners fit comfortably.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+public class BinnerBenchmark {
+
+    private final int nrow_;
+    private final double[][] tuples_;
+
+    /**
+     * Constructor.
+     *
+     * @param  nrow  number of rows to bin
+     */
+    public BinnerBenchmark( int nrow ) {
+        nrow_ = nrow;
+        Random rnd = new Random( 23L );
+        tuples_ = new double[ nrow ][];
+        for ( int ir = 0; ir < nrow; ir++ ) {
+            tuples_[ ir ] = new double[] {
+                rnd.nextDouble() * 2 * Math.PI,
+                Math.asin( rnd.nextDouble() * 2 - 1 ),
+            };
+        }
+    }
+
+    /**
+     * Bins all the rows using object keys.
+     *
+     * @param  engine  match engine
+     * @return  populated binner
+     */
+    public LongBinner binObjects( MatchEngine engine ) {
+        LongBinner binner = Binners.createLongBinner( nrow_ );
+        Object[] tuple = new Object[ 2 ];
+        for ( int ir = 0; ir < nrow_; ir++ ) {
+            tuple[ 0 ] = new Double( tuples_[ ir ][ 0 ] );
+            tuple[ 1 ] = new Double( tuples_[ ir ][ 1 ] );
+            for ( Object key : engine.getBins( tuple ) ) {
+                binner.addItem( key, ir );
+            }
+        }
+        return binner;
+    }
+
+    /**
+     * Bins all the rows using primitive keys.
+     *
+     * @param  engine  match engine
+     * @return  populated binner
+     */
+    public LongBinner binLongs( LongBinMatchEngine engine ) {
+        LongKeyBinner binner = Binners.createLongKeyBinner( nrow_ );
+        Object[] tuple = new Object[ 2 ];
+        for ( int ir = 0; ir < nrow_; ir++ ) {
+            tuple[ 0 ] = new Double( tuples_[ ir ][ 0 ] );
+            tuple[ 1 ] = new Double( tuples_[ ir ][ 1 ] );
+            for ( long key : engine.getLongBins( tuple ) ) {
+                binner.addItem( key, ir );
+            }
+        }
+        return binner;
+    }
+
+    /**
+     * Returns the heap currently in use, after garbage collection.
+     *
+     * @return  used heap in bytes
+     */
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for ( int i = 0; i < 4; i++ ) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    /**
+     * Writes a report on the retained heap and time for each binning method.
+     */
+    public void run() {
+        FixedSkyMatchEngine engine =
+            new FixedSkyMatchEngine( new CdsHealpixSkyPixellator(),
+                                     Math.toRadians( 1. / 3600. ) );
+        for ( int i = 0; i < 2; i++ ) {
+            long mem0 = usedHeap();
+            long t0 = System.currentTimeMillis();
+            LongBinner objBinner = binObjects( engine );
+            long t1 = System.currentTimeMillis();
+            long mem1 = usedHeap();
+            report( "Object", objBinner, mem1 - mem0, t1 - t0 );
+            objBinner = null;
+            mem0 = usedHeap();
+            t0 = System.currentTimeMillis();
+            LongBinner longBinner = binLongs( engine );
+            t1 = System.currentTimeMillis();
+            mem1 = usedHeap();
+            report( "Long", longBinner, mem1 - mem0, t1 - t0 );
+            longBinner = null;
+        }
+    }
+
+    /**
+     * Writes a line of output.
+     *
+     * @param  label  binner label
+     * @param  binner  populated binner
+     * @param  mem   retained heap in bytes
+     * @param  time  elapsed time in milliseconds
+     */
+    private void report( String label, LongBinner binner, long mem,
+                         long time ) {
+        System.out.println( label + ":\t"
+                          + "rows: " + nrow_ + "; "
+                          + "bins: " + binner.getBinCount() + "; "
+                          + "bytes/row: " + ( mem / nrow_ ) + "; "
+                          + "time: " + time + "ms" );
+    }
+
+    /**
+     * Main method.
+     *
+     * @param  args  optional single argument giving row count
+     */
+    public static void main( String[] args ) {
+        int nrow = args.length > 0 ? Integer.parseInt( args[ 0 ] ) : 1000000;
+        new BinnerBenchmark( nrow ).run();
+    }
+}
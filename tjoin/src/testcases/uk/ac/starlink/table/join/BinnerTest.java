@@ -1,8 +1,13 @@
 package uk.ac.starlink.table.join;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PrimitiveIterator;
 import java.util.Random;
 import java.util.Set;
 import uk.ac.starlink.util.TestCase;
@@ -23,6 +28,113 @@ public class BinnerTest extends TestCase {
         }
     }
 
+    public void testLongKeyBinner() {
+        exerciseLongKeyBinner( Binners.createLongKeyBinner( 1000 ) );
+        exerciseLongKeyBinner( Binners.createLongKeyBinner( -1 ) );
+    }
+
+    public void testEngineLongBins() {
+        double[] errs = new double[] { 1e-3, 0.1, 0.1, 0.1, 0.1, 1e-4 };
+        LongBinMatchEngine[] engines = new LongBinMatchEngine[] {
+            new FixedSkyMatchEngine( new CdsHealpixSkyPixellator(), errs[ 0 ] ),
+            new IsotropicCartesianMatchEngine( 1, errs[ 1 ], false ),
+            new IsotropicCartesianMatchEngine( 2, errs[ 2 ], false ),
+            new IsotropicCartesianMatchEngine( 3, errs[ 3 ], false ),
+            new IsotropicCartesianMatchEngine( 4, errs[ 4 ], false ),
+            new IsotropicCartesianMatchEngine( 3, errs[ 5 ], false ),
+        };
+        for ( int ie = 0; ie < engines.length; ie++ ) {
+            LongBinMatchEngine engine = engines[ ie ];
+            double err = errs[ ie ];
+            assertTrue( engine.canBinLongs() );
+            int nt = engine.getTupleInfos().length;
+            double scale = engine instanceof FixedSkyMatchEngine ? 1 : 1e3;
+            for ( int i = 0; i < 2000; i++ ) {
+                Object[] t1 = new Object[ nt ];
+                Object[] t2 = new Object[ nt ];
+                for ( int j = 0; j < nt; j++ ) {
+                    double c = ( rnd_.nextDouble() - 0.5 ) * scale;
+                    t1[ j ] = new Double( c );
+                    t2[ j ] = new Double( c + ( rnd_.nextDouble() - 0.5 )
+                                              * err );
+                }
+                long[] bins1 = engine.getLongBins( t1 );
+                long[] bins2 = engine.getLongBins( t2 );
+                assertEquals( bins1.length, toSet( bins1 ).size() );
+                if ( engine.matchScore( t1, t2 ) >= 0 ) {
+                    Set<Long> common = toSet( bins1 );
+                    common.retainAll( toSet( bins2 ) );
+                    assertTrue( common.size() > 0 );
+                }
+            }
+        }
+        assertFalse( new FixedSkyMatchEngine( new HtmSkyPixellator(), 1e-3 )
+                    .canBinLongs() );
+    }
+
+    private void exerciseLongKeyBinner( LongKeyBinner binner ) {
+        Map<Long,List<Long>> map = new HashMap<Long,List<Long>>();
+        int nkey = 5000;
+        for ( int i = 0; i < 40000; i++ ) {
+            long key = rnd_.nextInt( nkey ) * 0x100000001L - 77;
+            long item = rnd_.nextInt( 1000 );
+            binner.addItem( key, item );
+            if ( ! map.containsKey( key ) ) {
+                map.put( key, new ArrayList<Long>() );
+            }
+            map.get( key ).add( item );
+        }
+        assertEquals( map.size(), binner.getBinCount() );
+        assertEquals( 40000, binner.getItemCount() );
+        for ( Map.Entry<Long,List<Long>> entry : map.entrySet() ) {
+            assertEquals( entry.getValue(),
+                          toList( binner.getLongs( entry.getKey()
+                                                  .longValue() ) ) );
+        }
+        assertNull( binner.getLongs( 23L ) );
+
+        /* Move half the bins into a new binner. */
+        LongKeyBinner binner2 = Binners.createLongKeyBinner( -1 );
+        int ik = 0;
+        for ( PrimitiveIterator.OfLong it = binner.getLongKeyIterator();
+              it.hasNext(); ) {
+            long key = it.nextLong();
+            if ( ik++ % 2 == 0 ) {
+                for ( long item : binner.getLongs( key ) ) {
+                    binner2.addItem( key, item );
+                }
+                it.remove();
+            }
+        }
+        assertEquals( map.size(),
+                      binner.getBinCount() + binner2.getBinCount() );
+
+        /* Merge them back and check the result. */
+        Binners.addLongBins( binner, binner2 );
+        assertEquals( 0, binner2.getBinCount() );
+        assertEquals( map.size(), binner.getBinCount() );
+        Set<Long> keySet = new HashSet<Long>();
+        for ( PrimitiveIterator.OfLong it = binner.getLongKeyIterator();
+              it.hasNext(); ) {
+            long key = it.nextLong();
+            keySet.add( key );
+            assertEquals( map.get( key ), toList( binner.getLongs( key ) ) );
+        }
+        assertEquals( map.keySet(), keySet );
+    }
+
+    private static List<Long> toList( long[] values ) {
+        List<Long> list = new ArrayList<Long>();
+        for ( long v : values ) {
+            list.add( new Long( v ) );
+        }
+        return list;
+    }
+
+    private static Set<Long> toSet( long[] values ) {
+        return new HashSet<Long>( toList( values ) );
+    }
+
     private void exerciseLongBinner( LongBinner binner, int count ) {
         String[] keys = new String[] { "A", "B", };
         long[] a1 = new long[ count * 2 ];
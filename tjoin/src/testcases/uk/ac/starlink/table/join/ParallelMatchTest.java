@@ -0,0 +1,113 @@
+package uk.ac.starlink.table.join;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import uk.ac.starlink.table.ColumnInfo;
+import uk.ac.starlink.table.ColumnStarTable;
+import uk.ac.starlink.table.PrimitiveArrayColumn;
+import uk.ac.starlink.table.RowRunner;
+import uk.ac.starlink.table.StarTable;
+import uk.ac.starlink.util.SplitPolicy;
+import uk.ac.starlink.util.SplitProcessor;
+import uk.ac.starlink.util.TestCase;
+
+public class ParallelMatchTest extends TestCase {
+
+    private final Random rnd_;
+    private final RowRunner parRunner_;
+
+    public ParallelMatchTest( String name ) {
+        super( name );
+        rnd_ = new Random( 23010L );
+
+        /* Use a small task size so that the test data actually gets
+         * split between multiple tasks. */
+        parRunner_ = new RowRunner( SplitProcessor
+                    .createBasicParallelProcessor( new SplitPolicy( null, 50,
+                                                                    (short) 0 )
+                                                 ) );
+    }
+
+    public void testPairs() throws IOException, InterruptedException {
+        StarTable t1 = createTable( 2000 );
+        StarTable t2 = createTable( 1500 );
+        StarTable[] tables = new StarTable[] { t1, t2 };
+        MatchEngine engine = new IsotropicCartesianMatchEngine( 2, 0.01, true );
+        for ( PairMode mode : PairMode.values() ) {
+            LinkSet seq = new RowMatcher( engine, tables, RowRunner.SEQUENTIAL )
+                         .findPairMatches( mode );
+            LinkSet par = new RowMatcher( engine, tables, parRunner_ )
+                         .findPairMatches( mode );
+            assertTrue( seq.size() > 0 );
+            assertLinksEqual( seq, par );
+        }
+    }
+
+    public void testGroups() throws IOException, InterruptedException {
+        StarTable[] tables = new StarTable[] {
+            createTable( 1000 ), createTable( 800 ), createTable( 1200 ),
+        };
+        MatchEngine engine = new IsotropicCartesianMatchEngine( 2, 0.01, true );
+        MultiJoinType[] joinTypes = new MultiJoinType[] {
+            MultiJoinType.DEFAULT, MultiJoinType.DEFAULT, MultiJoinType.DEFAULT,
+        };
+        assertLinksEqual( new RowMatcher( engine, tables, RowRunner.SEQUENTIAL )
+                         .findGroupMatches( joinTypes ),
+                          new RowMatcher( engine, tables, parRunner_ )
+                         .findGroupMatches( joinTypes ) );
+        assertLinksEqual( new RowMatcher( engine, tables, RowRunner.SEQUENTIAL )
+                         .findMultiPairMatches( 0, true, joinTypes ),
+                          new RowMatcher( engine, tables, parRunner_ )
+                         .findMultiPairMatches( 0, true, joinTypes ) );
+    }
+
+    public void testInternal() throws IOException, InterruptedException {
+        StarTable[] tables = new StarTable[] { createTable( 3000 ) };
+        MatchEngine engine = new IsotropicCartesianMatchEngine( 2, 0.01, true );
+        LinkSet seq = new RowMatcher( engine, tables, RowRunner.SEQUENTIAL )
+                     .findInternalMatches( false );
+        LinkSet par = new RowMatcher( engine, tables, parRunner_ )
+                     .findInternalMatches( false );
+        assertTrue( seq.size() > 0 );
+        assertLinksEqual( seq, par );
+    }
+
+    private void assertLinksEqual( LinkSet links1, LinkSet links2 ) {
+        List<RowLink> list1 = toList( links1 );
+        List<RowLink> list2 = toList( links2 );
+        assertEquals( list1, list2 );
+        for ( int i = 0; i < list1.size(); i++ ) {
+            RowLink link1 = list1.get( i );
+            RowLink link2 = list2.get( i );
+            if ( link1 instanceof RowLink2 ) {
+                assertEquals( ((RowLink2) link1).getScore(),
+                              ((RowLink2) link2).getScore() );
+            }
+        }
+    }
+
+    private static List<RowLink> toList( LinkSet links ) {
+        List<RowLink> list = new ArrayList<RowLink>();
+        for ( RowLink link : links ) {
+            list.add( link );
+        }
+        return list;
+    }
+
+    private StarTable createTable( int nrow ) {
+        double[] xs = new double[ nrow ];
+        double[] ys = new double[ nrow ];
+        for ( int i = 0; i < nrow; i++ ) {
+            xs[ i ] = rnd_.nextDouble();
+            ys[ i ] = rnd_.nextDouble();
+        }
+        ColumnStarTable table = ColumnStarTable.makeTableWithRows( nrow );
+        table.addColumn( PrimitiveArrayColumn.makePrimitiveColumn(
+                             new ColumnInfo( "x", Double.class, null ), xs ) );
+        table.addColumn( PrimitiveArrayColumn.makePrimitiveColumn(
+                             new ColumnInfo( "y", Double.class, null ), ys ) );
+        return table;
+    }
+}
@@ -0,0 +1,251 @@
+package uk.ac.starlink.table.join;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import uk.ac.starlink.table.ColumnInfo;
+import uk.ac.starlink.table.ColumnStarTable;
+import uk.ac.starlink.table.PrimitiveArrayColumn;
+import uk.ac.starlink.table.RowRunner;
+import uk.ac.starlink.table.StarTable;
+import uk.ac.starlink.table.StoragePolicy;
+import uk.ac.starlink.util.SplitPolicy;
+import uk.ac.starlink.util.TestCase;
+
+public class StorageLinkSetTest extends TestCase {
+
+    private final Random rnd_;
+
+    public StorageLinkSetTest( String name ) {
+        super( name );
+        rnd_ = new Random( 55443L );
+    }
+
+    public void testLinks() {
+        exerciseLinks( StoragePolicy.PREFER_MEMORY, 1000 );
+        exerciseLinks( StoragePolicy.PREFER_MEMORY, 7 );
+        exerciseLinks( StoragePolicy.PREFER_DISK, 50 );
+    }
+
+    public void testTransfer() {
+        TreeSet<RowLink> ref = new TreeSet<RowLink>();
+        StorageLinkSet links1 =
+            new StorageLinkSet( StoragePolicy.PREFER_MEMORY, 3, 50 );
+        StorageLinkSet links2 =
+            new StorageLinkSet( StoragePolicy.PREFER_MEMORY, 3, 30 );
+        for ( int i = 0; i < 1000; i++ ) {
+            RowLink link = createLink();
+            ( i % 3 == 0 ? links1 : links2 ).addLink( link );
+            ref.add( link );
+        }
+        links1.transferFrom( links2 );
+        assertEquals( 0, links2.size() );
+        assertFalse( links2.iterator().hasNext() );
+        assertEquals( ref.size(), links1.size() );
+        assertEquals( new ArrayList<RowLink>( ref ), toList( links1 ) );
+        links2.close();
+        assertEquals( new ArrayList<RowLink>( ref ), toList( links1 ) );
+        links1.close();
+
+        StorageLinkSet links3 =
+            new StorageLinkSet( StoragePolicy.PREFER_MEMORY, 2, 50 );
+        try {
+            links3.transferFrom( new StorageLinkSet( StoragePolicy
+                                                    .PREFER_MEMORY, 3, 50 ) );
+            fail();
+        }
+        catch ( IllegalArgumentException e ) {
+        }
+        links3.close();
+    }
+
+    public void testOrder() {
+        Comparator<RowLink> scoreOrder = new Comparator<RowLink>() {
+            public int compare( RowLink link1, RowLink link2 ) {
+                int c = Double.compare( ((RowLink2) link1).getScore(),
+                                        ((RowLink2) link2).getScore() );
+                return c != 0 ? c : link1.compareTo( link2 );
+            }
+        };
+        StorageLinkSet links =
+            new StorageLinkSet( StoragePolicy.PREFER_DISK, 2, 40,
+                                scoreOrder );
+        TreeSet<RowLink> ref = new TreeSet<RowLink>( scoreOrder );
+        for ( int i = 0; i < 1000; i++ ) {
+            RowRef ref0 = new RowRef( 0, rnd_.nextInt( 50 ) );
+            RowRef ref1 = new RowRef( 1, rnd_.nextInt( 50 ) );
+            RowLink2 pair = new RowLink2( ref0, ref1 );
+            pair.setScore( scoreFor( pair ) );
+            links.addLink( pair );
+            ref.add( pair );
+        }
+        assertEquals( ref.size(), links.size() );
+        List<RowLink> list = toList( links );
+        assertEquals( new ArrayList<RowLink>( ref ), list );
+        for ( int i = 1; i < list.size(); i++ ) {
+            assertTrue( ((RowLink2) list.get( i - 1 )).getScore()
+                     <= ((RowLink2) list.get( i )).getScore() );
+        }
+        for ( RowLink link : ref ) {
+            assertTrue( links.containsLink( link ) );
+        }
+        links.close();
+    }
+
+    public void testMatch() throws IOException, InterruptedException {
+        StarTable[] tables = new StarTable[] {
+            createTable( 2000 ), createTable( 1500 ),
+        };
+        MatchEngine engine = new IsotropicCartesianMatchEngine( 2, 0.01, true );
+        ForkJoinPool pool = new ForkJoinPool( 4 );
+        RowRunner parRunner =
+            RowRunner.createStandardRunner( new SplitPolicy( pool, 100,
+                                                             (short) 8 ) );
+        for ( PairMode mode : PairMode.values() ) {
+            LinkSet heapLinks = new RowMatcher( engine, tables )
+                               .findPairMatches( mode );
+            assertLinksEqual( heapLinks, mode, engine, tables, null );
+            assertLinksEqual( heapLinks, mode, engine, tables, parRunner );
+        }
+        pool.shutdown();
+    }
+
+    private void assertLinksEqual( LinkSet heapLinks, PairMode mode,
+                                   MatchEngine engine, StarTable[] tables,
+                                   RowRunner runner )
+            throws IOException, InterruptedException {
+        RowMatcher matcher = new RowMatcher( engine, tables, runner );
+        matcher.setLinkStorage( StoragePolicy.PREFER_DISK );
+        LinkSet storeLinks = matcher.findPairMatches( mode );
+        assertTrue( storeLinks instanceof StorageLinkSet );
+        assertTrue( heapLinks.size() > 0 );
+        assertTrue( heapLinks.sort() );
+        assertTrue( storeLinks.sort() );
+        List<RowLink> list1 = toList( heapLinks );
+        List<RowLink> list2 = toList( storeLinks );
+        assertEquals( list1, list2 );
+        for ( int i = 0; i < list1.size(); i++ ) {
+            assertEquals( ((RowLink2) list1.get( i )).getScore(),
+                          ((RowLink2) list2.get( i )).getScore() );
+        }
+        ((StorageLinkSet) storeLinks).close();
+    }
+
+    private void exerciseLinks( StoragePolicy policy, int bufSize ) {
+        StorageLinkSet links = new StorageLinkSet( policy, 3, bufSize );
+        TreeSet<RowLink> ref = new TreeSet<RowLink>();
+        for ( int i = 0; i < 2000; i++ ) {
+            RowLink link = createLink();
+            links.addLink( link );
+            ref.add( link );
+        }
+        assertEquals( ref.size(), links.size() );
+        assertEquals( new ArrayList<RowLink>( ref ), toList( links ) );
+
+        /* Removals. */
+        int nrm = 0;
+        for ( Iterator<RowLink> it = ref.iterator(); it.hasNext(); ) {
+            RowLink link = it.next();
+            if ( rnd_.nextInt( 4 ) == 0 ) {
+                assertTrue( links.containsLink( link ) );
+                assertTrue( links.removeLink( link ) );
+                assertFalse( links.containsLink( link ) );
+                assertFalse( links.removeLink( link ) );
+                it.remove();
+                nrm++;
+            }
+        }
+        assertTrue( nrm > 0 );
+        assertEquals( ref.size(), links.size() );
+        assertEquals( new ArrayList<RowLink>( ref ), toList( links ) );
+
+        /* Removal by iterator. */
+        for ( Iterator<RowLink> it = links.iterator(); it.hasNext(); ) {
+            RowLink link = it.next();
+            if ( link.size() == 1 ) {
+                it.remove();
+                ref.remove( link );
+            }
+        }
+        assertEquals( ref.size(), links.size() );
+        assertEquals( new ArrayList<RowLink>( ref ), toList( links ) );
+
+        /* Re-addition of existing and removed links. */
+        for ( int i = 0; i < 500; i++ ) {
+            RowLink link = createLink();
+            links.addLink( link );
+            ref.add( link );
+            assertTrue( links.containsLink( link ) );
+        }
+        assertEquals( ref.size(), links.size() );
+        List<RowLink> list = toList( links );
+        assertEquals( new ArrayList<RowLink>( ref ), list );
+        for ( RowLink link : list ) {
+            if ( link instanceof RowLink2 ) {
+                RowLink2 pair = (RowLink2) link;
+                assertEquals( scoreFor( pair ), pair.getScore() );
+            }
+        }
+
+        try {
+            links.addLink( new RowLink( new RowRef[] {
+                new RowRef( 0, 1 ), new RowRef( 1, 1 ),
+                new RowRef( 2, 1 ), new RowRef( 3, 1 ),
+            } ) );
+            fail();
+        }
+        catch ( IllegalArgumentException e ) {
+        }
+        links.close();
+    }
+
+    private RowLink createLink() {
+        RowRef ref0 = new RowRef( 0, rnd_.nextInt( 50 ) );
+        RowRef ref1 = new RowRef( 1, rnd_.nextInt( 50 ) );
+        switch ( rnd_.nextInt( 3 ) ) {
+            case 0:
+                return new RowLink( ref0 );
+            case 1:
+                RowLink2 pair = new RowLink2( ref0, ref1 );
+                pair.setScore( scoreFor( pair ) );
+                return pair;
+            default:
+                return new RowLink( new RowRef[] {
+                    ref0, ref1, new RowRef( 2, rnd_.nextInt( 50 ) ),
+                } );
+        }
+    }
+
+    private static double scoreFor( RowLink2 pair ) {
+        return pair.getRef( 0 ).getRowIndex() * 0.25
+             + pair.getRef( 1 ).getRowIndex();
+    }
+
+    private static List<RowLink> toList( LinkSet links ) {
+        List<RowLink> list = new ArrayList<RowLink>();
+        for ( RowLink link : links ) {
+            list.add( link );
+        }
+        return list;
+    }
+
+    private StarTable createTable( int nrow ) {
+        double[] xs = new double[ nrow ];
+        double[] ys = new double[ nrow ];
+        for ( int i = 0; i < nrow; i++ ) {
+            xs[ i ] = rnd_.nextDouble();
+            ys[ i ] = rnd_.nextDouble();
+        }
+        ColumnStarTable table = ColumnStarTable.makeTableWithRows( nrow );
+        table.addColumn( PrimitiveArrayColumn.makePrimitiveColumn(
+                             new ColumnInfo( "x", Double.class, null ), xs ) );
+        table.addColumn( PrimitiveArrayColumn.makePrimitiveColumn(
+                             new ColumnInfo( "y", Double.class, null ), ys ) );
+        return table;
+    }
+}
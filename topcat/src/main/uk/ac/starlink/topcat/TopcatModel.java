@@ -8,7 +8,6 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -34,13 +33,12 @@ import javax.swing.event.ListDataListener;
 import javax.swing.table.DefaultTableColumnModel;
 import javax.swing.table.TableColumn;
 import javax.swing.table.TableColumnModel;
-import uk.ac.starlink.table.AbstractStarTable;
 import uk.ac.starlink.table.ColumnData;
 import uk.ac.starlink.table.ColumnInfo;
 import uk.ac.starlink.table.ColumnPermutedStarTable;
 import uk.ac.starlink.table.DescribedValue;
+import uk.ac.starlink.table.ExternalSorter;
 import uk.ac.starlink.table.RowListStarTable;
-import uk.ac.starlink.table.RowSequence;
 import uk.ac.starlink.table.ShapeIterator;
 import uk.ac.starlink.table.StarTable;
 import uk.ac.starlink.table.StarTableOutput;
@@ -915,55 +913,16 @@ public class TopcatModel {
      *               this viewer's model  
      * @param  ascending  true for ascending sort, false for descending
      */
-    private int[] getSortOrder( int icol, final boolean ascending )
+    private int[] getSortOrder( int icol, boolean ascending )
             throws IOException { 
-        final int sense = ascending ? 1 : -1;
-         
-        /* Define a little class for objects being sorted. */
-        class Item implements Comparable<Item> {
-            final int rank;
-            final Comparable<?> value;
-            Item( int r, Comparable<?> v ) {
-                this.rank = r;
-                this.value = v;
-            }
-            public int compareTo( Item other ) {
-                Comparable<?> oval = other.value;
-                if ( value != null && oval != null ) {
-                    @SuppressWarnings("unchecked")
-                    int cmp = ((Comparable<Object>) value).compareTo( oval ); 
-                    return sense * cmp;
-                } 
-                else if ( value == null && oval == null ) {
-                    return 0;
-                }
-                else {
-                    return sense * ( ( value == null ) ? 1 : -1 );
-                }
-            }
-        }
-
-        /* Construct a list of all the elements in the given column. */
-        int nrow = AbstractStarTable
-                  .checkedLongToInt( dataModel_.getRowCount() );
-        Item[] items = new Item[ nrow ];
-        try ( RowSequence rseq = dataModel_.getRowSequence() ) {
-            int ir = 0;
-            while ( rseq.next() ) {
-                items[ ir ] =
-                    new Item( ir, (Comparable<?>) rseq.getCell( icol ) );
-                ir++;
-            }
-        }
-
-        /* Sort the list on the ordering of the items. */
-        Arrays.parallelSort( items );
-
-        /* Construct and return a list of reordered ranks from the
-         * sorted array. */
+        StarTable keyTable =
+            new ColumnPermutedStarTable( dataModel_, new int[] { icol } );
+        long[] order =
+            new ExternalSorter().getSortedOrder( keyTable, ascending, true );
+        int nrow = order.length;
         int[] rowMap = new int[ nrow ];
         for ( int i = 0; i < nrow; i++ ) {
-            rowMap[ i ] = items[ i ].rank;
+            rowMap[ i ] = (int) order[ i ];
         }
         return rowMap;
     }
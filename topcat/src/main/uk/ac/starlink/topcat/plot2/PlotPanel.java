@@ -70,6 +70,7 @@ import uk.ac.starlink.ttools.plot2.config.StyleKeys;
 import uk.ac.starlink.ttools.plot2.data.DataSpec;
 import uk.ac.starlink.ttools.plot2.data.DataStore;
 import uk.ac.starlink.ttools.plot2.data.DataStoreFactory;
+import uk.ac.starlink.ttools.plot2.data.LodDataStoreFactory;
 import uk.ac.starlink.ttools.plot2.data.StepDataStore;
 import uk.ac.starlink.ttools.plot2.data.TupleRunner;
 import uk.ac.starlink.ttools.plot2.data.TupleSequence;
@@ -205,9 +206,10 @@ public class PlotPanel<P,A> extends JComponent implements ActionListener {
                       ToggleButtonModel axisLockModel,
                       ToggleButtonModel auxLockModel ) {
         plotType_ = plotType;
-        storeFact_ = progModel == null
-                   ? storeFact
-                   : new ProgressDataStoreFactory( storeFact, progModel );
+        storeFact_ = new LodDataStoreFactory(
+            progModel == null
+                ? storeFact
+                : new ProgressDataStoreFactory( storeFact, progModel ) );
         surfFact_ = surfFact;
         gangerFact_ = gangerFact;
         zonesFact_ = zonesFact;
@@ -1430,6 +1432,13 @@ public class PlotPanel<P,A> extends JComponent implements ActionListener {
             dataStore1 =
                 new GuiDataStore( dataStore1, progModel, ntuple / rowStep );
 
+            /* If all rows are in use, level-of-detail summaries
+             * prepared for the base store are valid here too. */
+            if ( rowStep == 1 ) {
+                dataStore1 =
+                    LodDataStoreFactory.shareStore( dataStore0, dataStore1 );
+            }
+
             /* Before we can work out the gang geometry, we need the
              * surface aspects and shade axes for each zone.
              * Calculate those, and retain other intermediate results
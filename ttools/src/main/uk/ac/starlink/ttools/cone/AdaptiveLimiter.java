@@ -0,0 +1,160 @@
+package uk.ac.starlink.ttools.cone;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Limits the number of concurrent requests to a service,
+ * adjusting the limit according to observed latency and errors.
+ *
+ * <p>Callers bracket each request with calls to {@link #acquire} and
+ * {@link #release}.  The limit is reconsidered once per "round",
+ * that is once every <em>limit</em> completed requests.
+ * If any request in the round failed, the limit is halved.
+ * Otherwise, if the recent (short-term average) latency is much larger
+ * than the long-term average latency, suggesting that the service is
+ * becoming loaded, the limit is decreased by one.
+ * Otherwise it is increased by one.
+ * The limit always stays between 1 and a fixed maximum.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+public class AdaptiveLimiter {
+
+    private final int maxLimit_;
+    private final double tolerance_;
+    private int limit_;
+    private int inFlight_;
+    private int nRound_;
+    private int nRoundError_;
+    private long nSample_;
+    private long nError_;
+    private double shortMillis_;
+    private double longMillis_;
+    private static final Logger logger_ =
+        Logger.getLogger( "uk.ac.starlink.ttools.cone" );
+
+    /** Default latency ratio above which the service is considered loaded. */
+    public static final double DFLT_TOLERANCE = 2.0;
+
+    /** Smoothing factor for short-term latency average. */
+    private static final double SHORT_ALPHA = 0.3;
+
+    /** Smoothing factor for long-term latency average. */
+    private static final double LONG_ALPHA = 0.02;
+
+    /**
+     * Constructs a limiter with default tolerance.
+     *
+     * @param  maxLimit  maximum concurrency limit
+     * @param  initLimit  initial concurrency limit
+     */
+    public AdaptiveLimiter( int maxLimit, int initLimit ) {
+        this( maxLimit, initLimit, DFLT_TOLERANCE );
+    }
+
+    /**
+     * Constructs a limiter with given tolerance.
+     *
+     * @param  maxLimit  maximum concurrency limit
+     * @param  initLimit  initial concurrency limit
+     * @param  tolerance  ratio of short-term to long-term mean latency
+     *                    above which the limit will be reduced
+     */
+    public AdaptiveLimiter( int maxLimit, int initLimit, double tolerance ) {
+        maxLimit_ = Math.max( 1, maxLimit );
+        limit_ = Math.max( 1, Math.min( maxLimit_, initLimit ) );
+        tolerance_ = tolerance;
+    }
+
+    /**
+     * Blocks until the number of requests in progress is below the
+     * current limit, and then registers a new request in progress.
+     * Each successful call must be matched by a later call of
+     * {@link #release}.
+     *
+     * @throws  InterruptedException  if the thread is interrupted
+     *                                while waiting
+     */
+    public synchronized void acquire() throws InterruptedException {
+        while ( inFlight_ >= limit_ ) {
+            wait();
+        }
+        inFlight_++;
+    }
+
+    /**
+     * Registers the completion of a request in progress.
+     *
+     * @param  nanos  elapsed time for the request in nanoseconds
+     * @param  success  true if the request succeeded, false if it failed
+     */
+    public synchronized void release( long nanos, boolean success ) {
+        inFlight_--;
+        nSample_++;
+        nRound_++;
+        if ( success ) {
+            double millis = nanos * 1e-6;
+            if ( nSample_ - nError_ == 1 ) {
+                shortMillis_ = millis;
+                longMillis_ = millis;
+            }
+            else {
+                shortMillis_ += SHORT_ALPHA * ( millis - shortMillis_ );
+                longMillis_ += LONG_ALPHA * ( millis - longMillis_ );
+            }
+        }
+        else {
+            nError_++;
+            nRoundError_++;
+        }
+        if ( nRound_ >= limit_ ) {
+            int limit0 = limit_;
+            if ( nRoundError_ > 0 ) {
+                limit_ = Math.max( 1, limit_ / 2 );
+            }
+            else if ( shortMillis_ > tolerance_ * longMillis_ ) {
+                limit_ = Math.max( 1, limit_ - 1 );
+            }
+            else {
+                limit_ = Math.min( maxLimit_, limit_ + 1 );
+            }
+            nRound_ = 0;
+            nRoundError_ = 0;
+            if ( limit_ != limit0 && logger_.isLoggable( Level.CONFIG ) ) {
+                logger_.config( "Concurrency limit " + limit0 + " -> " + limit_
+                              + " (latency " + (float) shortMillis_ + "/"
+                              + (float) longMillis_ + "ms)" );
+            }
+        }
+        notifyAll();
+    }
+
+    /**
+     * Returns the current concurrency limit.
+     *
+     * @return  maximum number of requests currently permitted in progress
+     */
+    public synchronized int getLimit() {
+        return limit_;
+    }
+
+    /**
+     * Returns the maximum value the concurrency limit can take.
+     *
+     * @return  maximum limit
+     */
+    public int getMaxLimit() {
+        return maxLimit_;
+    }
+
+    /**
+     * Returns the number of failed requests registered so far.
+     *
+     * @return  error count
+     */
+    public synchronized long getErrorCount() {
+        return nError_;
+    }
+}
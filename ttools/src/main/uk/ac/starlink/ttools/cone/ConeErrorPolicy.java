@@ -1,6 +1,7 @@
 package uk.ac.starlink.ttools.cone;
 
 import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.logging.Logger;
 import uk.ac.starlink.table.StarTable;
 
@@ -101,7 +102,8 @@ public abstract class ConeErrorPolicy {
      * Constructs an error policy which will retry the search a fixed
      * number of times.  A backing-off policy applies so that progressively
      * longer delays are introduced between successive attempts following
-     * failure.
+     * failure.  The delays are randomly jittered, so that several
+     * threads which fail at the same time do not retry in lockstep.
      *
      * @param   name  policy name
      * @param   nTry  maximum number of attempts;
@@ -116,10 +118,11 @@ public abstract class ConeErrorPolicy {
                     throws IOException, InterruptedException {
                 IOException lastError = null;
                 for ( int nFail = 0; nTry <= 0 || nFail < nTry; nFail++ ) {
-                    int delay = getDelaySeconds( nFail );
+                    long delay = getDelayMillis( nFail );
                     if ( delay > 0 ) {
-                        Thread.sleep( delay * 1000 );
-                        logger_.info( "Wait " + delay + " sec before retry" );
+                        Thread.sleep( delay );
+                        logger_.info( "Wait " + ( delay / 1000f )
+                                    + " sec before retry" );
                     }
                     try {
                         return invokeConeSearcher( cs, ra, dec, sr );
@@ -140,8 +143,23 @@ public abstract class ConeErrorPolicy {
             }
 
             /**
-             * Returns a delay in seconds to be applied if a given number
-             * of failures has already occurred before a given retry attempt.
+             * Returns a delay in milliseconds to be applied if a given
+             * number of failures has already occurred before a given
+             * retry attempt.  The nominal delay is multiplied by a
+             * random factor between 0.5 and 1.5.
+             *
+             * @param  nFail  number of failures so far
+             * @return   number of milliseconds to delay before next attempt
+             */
+            private long getDelayMillis( int nFail ) {
+                double jitter = 0.5 + ThreadLocalRandom.current().nextDouble();
+                return (long) ( getDelaySeconds( nFail ) * 1000 * jitter );
+            }
+
+            /**
+             * Returns the nominal delay in seconds to be applied
+             * if a given number of failures has already occurred
+             * before a given retry attempt.
              *
              * @param  nFail  number of failures so far
              * @return   number of seconds to delay before next attempt
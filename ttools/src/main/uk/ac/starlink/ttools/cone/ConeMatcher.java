@@ -55,6 +55,7 @@ public class ConeMatcher {
     private final JoinFixAction coneFixAct_;
     private final String distanceCol_;
     private boolean streamOutput_;
+    private boolean adaptive_;
 
     private final static Logger logger_ =
         Logger.getLogger( "uk.ac.starlink.ttools.cone" );
@@ -150,6 +151,21 @@ public class ConeMatcher {
         streamOutput_ = streamOutput;
     }
 
+    /**
+     * Determines whether the number of concurrent queries is adjusted
+     * according to service behaviour when parallelism is greater than 1.
+     * If set, the parallelism acts as an upper limit, and the number of
+     * queries in progress goes up and down according to observed query
+     * latency and error rate.
+     * The default is false.
+     *
+     * @param  adaptive  whether concurrency is adaptive
+     * @see   AdaptiveLimiter
+     */
+    public void setAdaptive( boolean adaptive ) {
+        adaptive_ = adaptive;
+    }
+
     /**
      * Returns an object which can compute the multi-cone result.
      * The result is a join between the input table and
@@ -195,7 +211,8 @@ public class ConeMatcher {
                                                        coverage_,
                                                        bestOnly_, distFilter_,
                                                        distanceCol_,
-                                                       parallelism_ ) {
+                                                       parallelism_,
+                                                       adaptive_ ) {
                 public void close() throws IOException {
                     super.close();
                     coneSearcher_.close();
@@ -0,0 +1,198 @@
+package uk.ac.starlink.ttools.cone;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Accumulates a histogram of request latencies in logarithmic bins.
+ * Bin <em>i</em> counts latencies between 2<sup>i-1</sup> and
+ * 2<sup>i</sup> milliseconds, so that a wide range of values can be
+ * summarised compactly.
+ * Instances of this class are thread-safe.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+public class LatencyHistogram {
+
+    private final long[] counts_;
+    private long count_;
+    private double sumMillis_;
+    private double minMillis_;
+    private double maxMillis_;
+
+    /** Number of bins; the last one covers everything above 70 minutes. */
+    private static final int NBIN = 24;
+
+    /**
+     * Constructor.
+     */
+    public LatencyHistogram() {
+        counts_ = new long[ NBIN ];
+        minMillis_ = Double.POSITIVE_INFINITY;
+        maxMillis_ = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Records a latency value.
+     *
+     * @param  nanos  latency in nanoseconds
+     */
+    public synchronized void addNanos( long nanos ) {
+        double millis = nanos * 1e-6;
+        counts_[ getBinIndex( millis ) ]++;
+        count_++;
+        sumMillis_ += millis;
+        minMillis_ = Math.min( minMillis_, millis );
+        maxMillis_ = Math.max( maxMillis_, millis );
+    }
+
+    /**
+     * Returns the number of values recorded.
+     *
+     * @return  value count
+     */
+    public synchronized long getCount() {
+        return count_;
+    }
+
+    /**
+     * Returns the mean latency recorded.
+     *
+     * @return  mean latency in milliseconds, or NaN if no values
+     */
+    public synchronized double getMeanMillis() {
+        return count_ > 0 ? sumMillis_ / count_ : Double.NaN;
+    }
+
+    /**
+     * Returns an upper bound for a given quantile of the recorded
+     * latencies.  The value is the upper edge of the bin in which the
+     * quantile falls, limited by the largest value recorded.
+     *
+     * @param  frac  quantile in the range 0..1
+     * @return  latency upper bound in milliseconds, or NaN if no values
+     */
+    public synchronized double getQuantileMillis( double frac ) {
+        if ( count_ == 0 ) {
+            return Double.NaN;
+        }
+        long target = (long) Math.ceil( frac * count_ );
+        long n = 0;
+        for ( int ib = 0; ib < NBIN; ib++ ) {
+            n += counts_[ ib ];
+            if ( n >= target && n > 0 ) {
+                return Math.min( getBinTop( ib ), maxMillis_ );
+            }
+        }
+        return maxMillis_;
+    }
+
+    /**
+     * Returns a multi-line textual representation of this histogram,
+     * suitable for logging.
+     * The first line is a summary, and subsequent lines give
+     * counts for each non-empty bin.
+     *
+     * @return  lines of text
+     */
+    public synchronized String[] formatLines() {
+        List<String> lines = new ArrayList<String>();
+        if ( count_ == 0 ) {
+            lines.add( "No queries" );
+            return lines.toArray( new String[ 0 ] );
+        }
+        lines.add( new StringBuffer()
+                  .append( "n=" )
+                  .append( count_ )
+                  .append( ", mean=" )
+                  .append( formatMillis( getMeanMillis() ) )
+                  .append( ", min=" )
+                  .append( formatMillis( minMillis_ ) )
+                  .append( ", p50<=" )
+                  .append( formatMillis( getQuantileMillis( 0.5 ) ) )
+                  .append( ", p90<=" )
+                  .append( formatMillis( getQuantileMillis( 0.9 ) ) )
+                  .append( ", p99<=" )
+                  .append( formatMillis( getQuantileMillis( 0.99 ) ) )
+                  .append( ", max=" )
+                  .append( formatMillis( maxMillis_ ) )
+                  .toString() );
+        long maxCount = 0;
+        for ( int ib = 0; ib < NBIN; ib++ ) {
+            maxCount = Math.max( maxCount, counts_[ ib ] );
+        }
+        for ( int ib = 0; ib < NBIN; ib++ ) {
+            long c = counts_[ ib ];
+            if ( c > 0 ) {
+                String lo = ib == 0 ? "0" : formatMillis( getBinTop( ib - 1 ) );
+                String range = lo + " - " + formatMillis( getBinTop( ib ) );
+                StringBuffer sbuf = new StringBuffer( "  " );
+                for ( int i = range.length(); i < 20; i++ ) {
+                    sbuf.append( ' ' );
+                }
+                sbuf.append( range )
+                    .append( ": " );
+                String cs = Long.toString( c );
+                for ( int i = cs.length(); i < 9; i++ ) {
+                    sbuf.append( ' ' );
+                }
+                sbuf.append( cs )
+                    .append( ' ' );
+                int nbar = (int) Math.ceil( 40.0 * c / maxCount );
+                for ( int i = 0; i < nbar; i++ ) {
+                    sbuf.append( '#' );
+                }
+                lines.add( sbuf.toString() );
+            }
+        }
+        return lines.toArray( new String[ 0 ] );
+    }
+
+    /**
+     * Returns the bin index for a given latency.
+     *
+     * @param  millis  latency in milliseconds
+     * @return  bin index
+     */
+    private static int getBinIndex( double millis ) {
+        if ( millis <= 1 ) {
+            return 0;
+        }
+        int ib = 64 - Long.numberOfLeadingZeros( (long) Math.ceil( millis )
+                                                 - 1 );
+        return Math.min( ib, NBIN - 1 );
+    }
+
+    /**
+     * Returns the upper edge of a given bin.
+     *
+     * @param  ib  bin index
+     * @return  upper latency limit in milliseconds
+     */
+    private static double getBinTop( int ib ) {
+        return ib == NBIN - 1 ? Double.POSITIVE_INFINITY
+                              : (double) ( 1L << ib );
+    }
+
+    /**
+     * Formats a millisecond value for display.
+     *
+     * @param  millis  latency in milliseconds
+     * @return  formatted value with units
+     */
+    private static String formatMillis( double millis ) {
+        if ( Double.isInfinite( millis ) ) {
+            return "inf";
+        }
+        else if ( millis < 10 ) {
+            return ( Math.round( millis * 10 ) / 10.0 ) + "ms";
+        }
+        else if ( millis < 10000 ) {
+            return Math.round( millis ) + "ms";
+        }
+        else {
+            return ( Math.round( millis / 100 ) / 10.0 ) + "s";
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package uk.ac.starlink.ttools.cone;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.logging.Level;
@@ -13,6 +14,12 @@ import uk.ac.starlink.table.StarTable;
  * The result table has the same ordering as if they had been done in 
  * sequence.
  *
+ * <p>Optionally, the number of queries actually in progress at any one
+ * time can be adjusted according to the observed behaviour of the
+ * service, using an {@link AdaptiveLimiter};
+ * the number of worker threads then acts as an upper limit.
+ * In any case, a histogram of query latencies is logged at the end.
+ *
  * @author   Mark Taylor
  * @since    18 Jan 2008
  */
@@ -20,6 +27,8 @@ public class ParallelResultRowSequence implements ConeResultRowSequence {
 
     private final ConeQueryRowSequence querySeq_;
     private final ConeSearcher coneSearcher_;
+    private final AdaptiveLimiter limiter_;
+    private final LatencyHistogram histogram_;
     private final ConeErrorPolicy errAct_;
     private final Coverage coverage_;
     private final boolean bestOnly_;
@@ -82,8 +91,39 @@ public class ParallelResultRowSequence implements ConeResultRowSequence {
                                       Coverage coverage, boolean bestOnly,
                                       boolean distFilter, String distanceCol,
                                       int parallelism ) {
+        this( querySeq, coneSearcher, errAct, coverage, bestOnly, distFilter,
+              distanceCol, parallelism, false );
+    }
+
+    /**
+     * Constructor with optional adaptive concurrency.
+     *
+     * @param  querySeq  sequence providing cone search query parameters
+     * @param  coneSearcher  cone search implementation
+     * @param  errAct   defines action on cone search invocation error
+     * @param  coverage   coverage for results, or null
+     * @param  bestOnly  whether all results or just best are required
+     * @param  distFilter  true to perform post-query filtering on results
+     *                     based on the distance between the query position
+     *                     and the result row position
+     * @param  distanceCol  name of column to hold distance information
+     *                      in output table, or null
+     * @param  parallelism  number of concurrent querying threads
+     * @param  adaptive   if true, the number of queries in progress
+     *                    is adjusted between 1 and <code>parallelism</code>
+     *                    according to observed latency and error rate;
+     *                    if false, it is always <code>parallelism</code>
+     */
+    public ParallelResultRowSequence( ConeQueryRowSequence querySeq,
+                                      ConeSearcher coneSearcher,
+                                      ConeErrorPolicy errAct,
+                                      Coverage coverage, boolean bestOnly,
+                                      boolean distFilter, String distanceCol,
+                                      int parallelism, boolean adaptive ) {
         querySeq_ = querySeq;
-        coneSearcher_ = coneSearcher;
+        limiter_ = adaptive ? new AdaptiveLimiter( parallelism, 1 ) : null;
+        histogram_ = new LatencyHistogram();
+        coneSearcher_ = new MeteredConeSearcher( coneSearcher );
         errAct_ = errAct;
         coverage_ = coverage;
         bestOnly_ = bestOnly;
@@ -200,6 +240,26 @@ public class ParallelResultRowSequence implements ConeResultRowSequence {
             logger_.info( "Submitted " + nQuery + ", skipped " + nSkip
                         + " queries to service" );
         }
+        if ( limiter_ != null ) {
+            logger_.info( "Final concurrency limit " + limiter_.getLimit()
+                        + "/" + limiter_.getMaxLimit() + ", "
+                        + limiter_.getErrorCount() + " failed requests" );
+        }
+        String[] lines = histogram_.formatLines();
+        logger_.info( "Cone query latencies: " + lines[ 0 ] );
+        for ( int il = 1; il < lines.length; il++ ) {
+            logger_.info( lines[ il ] );
+        }
+    }
+
+    /**
+     * Returns the histogram of latencies for individual requests
+     * made to the cone searcher by this sequence.
+     *
+     * @return  latency histogram
+     */
+    public LatencyHistogram getLatencyHistogram() {
+        return histogram_;
     }
 
     /**
@@ -345,6 +405,67 @@ public class ParallelResultRowSequence implements ConeResultRowSequence {
         }
     }
 
+    /**
+     * ConeSearcher wrapper which records the latency of each request,
+     * and if required, limits the number of concurrent requests.
+     * Since it wraps individual requests, retries performed by the
+     * error policy are recorded separately, and the policy's delays
+     * between retries do not count against the concurrency limit.
+     */
+    private class MeteredConeSearcher implements ConeSearcher {
+        private final ConeSearcher base_;
+
+        /**
+         * Constructor.
+         *
+         * @param  base  base searcher
+         */
+        MeteredConeSearcher( ConeSearcher base ) {
+            base_ = base;
+        }
+
+        public StarTable performSearch( double ra, double dec, double sr )
+                throws IOException {
+            if ( limiter_ != null ) {
+                try {
+                    limiter_.acquire();
+                }
+                catch ( InterruptedException e ) {
+                    Thread.currentThread().interrupt();
+                    throw (IOException)
+                          new InterruptedIOException( "Interrupted" )
+                         .initCause( e );
+                }
+            }
+            boolean success = false;
+            long start = System.nanoTime();
+            try {
+                StarTable result = base_.performSearch( ra, dec, sr );
+                success = true;
+                return result;
+            }
+            finally {
+                long nanos = System.nanoTime() - start;
+                histogram_.addNanos( nanos );
+                if ( limiter_ != null ) {
+                    limiter_.release( nanos, success );
+                }
+            }
+        }
+
+        public int getRaIndex( StarTable result ) {
+            return base_.getRaIndex( result );
+        }
+
+        public int getDecIndex( StarTable result ) {
+            return base_.getDecIndex( result );
+        }
+
+        public void close() {
+            base_.close();
+        }
+    }
+
     /**
      * Thread which performs cone queries on behalf of this sequence.
      */
@@ -54,6 +54,7 @@ public abstract class SkyConeMatch2 extends SingleMapperTask {
     private final StringParameter distcolParam_;
     private final BooleanParameter ostreamParam_;
     private final IntegerParameter parallelParam_;
+    private final BooleanParameter adaptiveParam_;
     private final ConeErrorPolicyParameter erractParam_;
     private final JoinFixActionParameter fixcolsParam_;
     private final StringParameter insuffixParam_;
@@ -268,6 +269,26 @@ public abstract class SkyConeMatch2 extends SingleMapperTask {
             paramList.add( parallelParam_ );
         }
 
+        adaptiveParam_ = new BooleanParameter( "adaptive" );
+        adaptiveParam_.setBooleanDefault( false );
+        adaptiveParam_.setPrompt( "Adjust parallelism to service response?" );
+        adaptiveParam_.setDescription( new String[] {
+            "<p>If true, and the <code>" + parallelParam_.getName() + "</code>",
+            "parameter is greater than 1, the number of queries",
+            "in progress at any one time is adjusted according to",
+            "how the service is responding.",
+            "It starts at 1 and increases while query times stay steady,",
+            "up to a maximum of the <code>" + parallelParam_.getName()
+                                            + "</code> value,",
+            "but is reduced again if the queries start to take much longer",
+            "or if any of them fail.",
+            "If false, the number of queries in progress is fixed.",
+            "</p>",
+        } );
+        if ( maxParallel > 1 ) {
+            paramList.add( adaptiveParam_ );
+        }
+
         erractParam_ = new ConeErrorPolicyParameter( "erract" );
         paramList.add( erractParam_ );
 
@@ -314,6 +335,8 @@ public abstract class SkyConeMatch2 extends SingleMapperTask {
         String srString = srParam_.stringValue( env );
         final boolean ostream = ostreamParam_.booleanValue( env );
         int parallelism = parallelParam_.intValue( env );
+        boolean adaptive = parallelism > 1
+                        && adaptiveParam_.booleanValue( env );
         ConeErrorPolicy erract = erractParam_.policyValue( env );
         if ( erract == ConeErrorPolicy.ABORT ) {
             String advice = "Cone search failed - try other values of "
@@ -368,6 +391,7 @@ public abstract class SkyConeMatch2 extends SingleMapperTask {
                              footprint, includeBlanks, distFilter, parallelism,
                              copyColIdList, distanceCol, inFixAct, coneFixAct );
         coneMatcher.setStreamOutput( true );
+        coneMatcher.setAdaptive( adaptive );
         return new TableProducer() {
             public StarTable getTable() throws IOException, TaskException {
                 ConeMatcher.ConeWorker worker = coneMatcher.createConeWorker();
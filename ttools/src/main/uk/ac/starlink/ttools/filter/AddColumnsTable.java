@@ -1,6 +1,7 @@
 package uk.ac.starlink.ttools.filter;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.function.Function;
 import java.util.function.LongSupplier;
 import uk.ac.starlink.table.ColumnInfo;
@@ -122,7 +123,7 @@ public class AddColumnsTable extends WrapperStarTable {
 
     public RowSequence getRowSequence() throws IOException {
         final RowSequence baseSeq = baseTable_.getRowSequence();
-        final SupplementData supData = colSup_.createSupplementData( baseSeq );
+        final CellCache cache = new CellCache( baseSeq );
         return new RowSequence() {
             long lrow_ = -1;
             public boolean next() throws IOException {
@@ -136,17 +137,14 @@ public class AddColumnsTable extends WrapperStarTable {
             }
             public Object getCell( int icol ) throws IOException {
                 if ( lrow_ >= 0 ) {
-                    int jcol = jcols_[ icol ];
-                    return jtabs_[ icol ] ? supData.getCell( lrow_, jcol )
-                                          : baseSeq.getCell( jcol );
+                    return cache.getCell( lrow_, icol );
                 }
                 else {
                     throw new IllegalStateException();
                 }
             }
             public Object[] getRow() throws IOException {
-                return combineRows( baseSeq.getRow(),
-                                    supData.getRow( lrow_ ) );
+                return cache.getRow( lrow_ );
             }
             public void close() throws IOException {
                 baseSeq.close();
@@ -157,7 +155,7 @@ public class AddColumnsTable extends WrapperStarTable {
     public RowAccess getRowAccess() throws IOException {
         if ( isRandom() ) {
             final RowAccess baseAcc = baseTable_.getRowAccess();
-            final SupplementData sup = colSup_.createSupplementData( baseAcc );
+            final CellCache cache = new CellCache( baseAcc );
             return new RowAccess() {
                 long irow_ = -1;
                 public void setRowIndex( long irow ) throws IOException {
@@ -165,12 +163,10 @@ public class AddColumnsTable extends WrapperStarTable {
                     baseAcc.setRowIndex( irow );
                 }
                 public Object getCell( int icol ) throws IOException {
-                    int jcol = jcols_[ icol ];
-                    return jtabs_[ icol ] ? sup.getCell( irow_, jcol )
-                                          : baseAcc.getCell( jcol );
+                    return cache.getCell( irow_, icol );
                 }
                 public Object[] getRow() throws IOException {
-                    return combineRows( baseAcc.getRow(), sup.getRow( irow_ ) );
+                    return cache.getRow( irow_ );
                 }
                 public void close() throws IOException {
                     baseAcc.close();
@@ -184,33 +180,155 @@ public class AddColumnsTable extends WrapperStarTable {
 
     public RowSplittable getRowSplittable() throws IOException {
         RowSplittable baseSplittable = baseTable.getRowSplittable();
-        final LongSupplier baseRowIndex = baseSplittable.rowIndex();
-        if ( baseRowIndex == null ) {
+        if ( baseSplittable.rowIndex() == null ) {
             return new SequentialRowSplittable( this );
         }
         else {
             Function<RowSplittable,RowData> mapper = base -> new RowData() {
-                final SupplementData sup;
+                final CellCache cache;
+                final LongSupplier rowIndex;
                 /* Constructor. */ {
                     try {
-                        sup = colSup_.createSupplementData( base );
+                        cache = new CellCache( base );
                     }
                     catch ( IOException e ) {
                         throw new RuntimeException( "shouldn't happen" );
                     }
+
+                    /* Each split has its own row index.  If one is not
+                     * available, a negative index disables caching. */
+                    rowIndex = base.rowIndex();
                 }
                 public Object getCell( int icol ) throws IOException {
-                    int jcol = jcols_[ icol ];
-                    return jtabs_[ icol ]
-                         ? sup.getCell( baseRowIndex.getAsLong(), jcol )
-                         : base.getCell( jcol );
+                    return cache.getCell( getRowIndex(), icol );
                 }
                 public Object[] getRow() throws IOException {
-                    return combineRows( base.getRow(),
-                                        sup.getRow( baseRowIndex.getAsLong() ));
+                    return cache.getRow( getRowIndex() );
+                }
+                private long getRowIndex() {
+                    return rowIndex == null ? -1L : rowIndex.getAsLong();
                 }
             };
             return new MappingRowSplittable( baseSplittable, mapper );
         }
     }
+
+    /**
+     * Retains the cell values of the current row as they are acquired.
+     *
+     * <p>In a chain of added columns, as generated for instance by a
+     * sequence of <code>addcol</code> filters, each added column is
+     * typically computed from cells of the base table, which are
+     * acquired through every intervening wrapper level, and
+     * evaluated columns may themselves be requested several times
+     * by later expressions.  Caching at each level, both for cells
+     * requested from this table and for base table cells read
+     * by the column supplement, means that a given cell is only
+     * acquired from the layer below or computed once per row,
+     * so the work per row scales with the number of columns used
+     * rather than the number of expressions that use them.
+     */
+    private class CellCache {
+
+        private final RowData baseData_;
+        private final SupplementData supData_;
+        private final Object[] baseCells_;
+        private final long[] baseRows_;
+        private final Object[] supCells_;
+        private final long[] supRows_;
+        private long irow_;
+
+        /**
+         * Constructor.
+         *
+         * @param  baseData  row data for base table
+         */
+        CellCache( RowData baseData ) throws IOException {
+            baseData_ = baseData;
+            int nbase = baseTable_.getColumnCount();
+            int nsup = colSup_.getColumnCount();
+            baseCells_ = new Object[ nbase ];
+            baseRows_ = new long[ nbase ];
+            supCells_ = new Object[ nsup ];
+            supRows_ = new long[ nsup ];
+            Arrays.fill( baseRows_, -1L );
+            Arrays.fill( supRows_, -1L );
+            irow_ = -1;
+
+            /* The supplement reads base cells through this cache.
+             * It is only invoked from the getCell method below,
+             * so the current row index is known at that point. */
+            supData_ = colSup_.createSupplementData( new RowData() {
+                public Object getCell( int jcol ) throws IOException {
+                    return getBaseCell( jcol );
+                }
+                public Object[] getRow() throws IOException {
+                    Object[] row = new Object[ baseCells_.length ];
+                    for ( int jcol = 0; jcol < row.length; jcol++ ) {
+                        row[ jcol ] = getBaseCell( jcol );
+                    }
+                    return row;
+                }
+            } );
+        }
+
+        /**
+         * Returns the value of a cell in the current row of this table.
+         *
+         * @param  irow  index of current row
+         * @param  icol  column index in this table
+         * @return  cell value
+         */
+        Object getCell( long irow, int icol ) throws IOException {
+            irow_ = irow;
+            int jcol = jcols_[ icol ];
+            if ( jtabs_[ icol ] ) {
+                if ( supRows_[ jcol ] == irow && irow >= 0 ) {
+                    return supCells_[ jcol ];
+                }
+                else {
+                    Object value = supData_.getCell( irow, jcol );
+                    supCells_[ jcol ] = value;
+                    supRows_[ jcol ] = irow;
+                    return value;
+                }
+            }
+            else {
+                return getBaseCell( jcol );
+            }
+        }
+
+        /**
+         * Returns the current row of this table.
+         *
+         * @param  irow  index of current row
+         * @return  new array containing row cells
+         */
+        Object[] getRow( long irow ) throws IOException {
+            Object[] row = new Object[ ncol_ ];
+            for ( int icol = 0; icol < ncol_; icol++ ) {
+                row[ icol ] = getCell( irow, icol );
+            }
+            return row;
+        }
+
+        /**
+         * Returns the value of a base table cell in the current row.
+         *
+         * @param  jcol  column index in base table
+         * @return  cell value
+         */
+        private Object getBaseCell( int jcol ) throws IOException {
+            long irow = irow_;
+            if ( baseRows_[ jcol ] == irow && irow >= 0 ) {
+                return baseCells_[ jcol ];
+            }
+            else {
+                Object value = baseData_.getCell( jcol );
+                baseCells_[ jcol ] = value;
+                baseRows_[ jcol ] = irow;
+                return value;
+            }
+        }
+    }
 }
@@ -0,0 +1,428 @@
+package uk.ac.starlink.ttools.filter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.logging.Logger;
+import uk.ac.starlink.table.ColumnInfo;
+import uk.ac.starlink.table.RowListStarTable;
+import uk.ac.starlink.table.RowSequence;
+import uk.ac.starlink.table.RowStore;
+import uk.ac.starlink.table.StarTable;
+import uk.ac.starlink.table.StoragePolicy;
+import uk.ac.starlink.table.Tables;
+
+/**
+ * Identifies the rows of a table which are distinct in a given set
+ * of columns, in bounded memory.
+ *
+ * <p>The key values of each row are hashed, and rows are distributed
+ * between a number of partitions according to their hash value,
+ * each partition being written to a RowStore obtained from a
+ * StoragePolicy.  Any partition small enough is then deduplicated
+ * in memory; larger ones are partitioned again using different
+ * bits of the hash.  Since identical keys always land in the same
+ * partition, the results can be merged in row order without
+ * further comparisons.
+ * Memory usage is limited by the partition size and the number of
+ * distinct keys within a partition, not by the size of the table.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+class HashDeduplicator {
+
+    private final StarTable base_;
+    private final int[] keyCols_;
+    private final StoragePolicy policy_;
+    private final int maxMemRows_;
+    private final StarTable entryMeta_;
+    private final StarTable resultMeta_;
+
+    /** Default maximum number of rows deduplicated in memory at once. */
+    public static final int DFLT_MAX_MEM_ROWS = 1 << 20;
+
+    private static final int PART_BITS = 6;
+    private static final int NPART = 1 << PART_BITS;
+    private static final int MAX_LEVEL = 64 / PART_BITS;
+    private static final Logger logger_ =
+        Logger.getLogger( "uk.ac.starlink.ttools.filter" );
+
+    /**
+     * Constructor.
+     *
+     * @param  base  input table
+     * @param  testFlags  flags indicating which columns of base are
+     *                    compared to determine row equality
+     * @param  policy   storage policy for partition data
+     * @param  maxMemRows  maximum number of rows in a partition that will
+     *                     be deduplicated in memory without
+     *                     further partitioning
+     */
+    public HashDeduplicator( StarTable base, boolean[] testFlags,
+                             StoragePolicy policy, int maxMemRows ) {
+        base_ = base;
+        policy_ = policy;
+        maxMemRows_ = maxMemRows;
+        List<ColumnInfo> entryInfos = new ArrayList<ColumnInfo>();
+        entryInfos.add( new ColumnInfo( "irow", Long.class, null ) );
+        entryInfos.add( new ColumnInfo( "hash", Long.class, null ) );
+        int[] keyCols = new int[ testFlags.length ];
+        int nk = 0;
+        for ( int ic = 0; ic < testFlags.length; ic++ ) {
+            if ( testFlags[ ic ] ) {
+                keyCols[ nk++ ] = ic;
+                entryInfos.add( new ColumnInfo( base.getColumnInfo( ic ) ) );
+            }
+        }
+        keyCols_ = Arrays.copyOf( keyCols, nk );
+        entryMeta_ =
+            new RowListStarTable( entryInfos.toArray( new ColumnInfo[ 0 ] ) );
+        resultMeta_ = new RowListStarTable( new ColumnInfo[] {
+            new ColumnInfo( "irow", Long.class, null ),
+            new ColumnInfo( "count", Long.class, null ),
+        } );
+    }
+
+    /**
+     * Returns a table listing the first occurrence of each distinct key
+     * in the base table.
+     * The result has two Long columns giving the (zero-based) row index
+     * in the base table of the first row with a given key,
+     * and the number of rows with that key.
+     * Rows are in ascending order of row index.
+     *
+     * @return  two-column table
+     */
+    public StarTable findDistinctRows() throws IOException {
+        return process( new EntrySource() {
+            public long getRowCount() {
+                return base_.getRowCount();
+            }
+            public RowSequence createEntrySequence() throws IOException {
+                return new BaseEntrySequence();
+            }
+        }, 0 );
+    }
+
+    /**
+     * Deduplicates a source of entries,
+     * partitioning it first if it is too large.
+     *
+     * @param  src  entry source
+     * @param  level   partitioning depth
+     * @return   result table
+     */
+    private StarTable process( EntrySource src, int level )
+            throws IOException {
+        long nrow = src.getRowCount();
+        if ( nrow >= 0 && ( nrow <= maxMemRows_ || level >= MAX_LEVEL ) ) {
+            return dedupInMemory( src );
+        }
+
+        /* Distribute entries between partitions using the hash bits
+         * for this level. */
+        RowStore[] parts = new RowStore[ NPART ];
+        long[] counts = new long[ NPART ];
+        for ( int ip = 0; ip < NPART; ip++ ) {
+            parts[ ip ] = policy_.makeConfiguredRowStore( entryMeta_ );
+        }
+        long ntot = 0;
+        int shift = level * PART_BITS;
+        try ( RowSequence rseq = src.createEntrySequence() ) {
+            while ( rseq.next() ) {
+                Object[] entry = rseq.getRow().clone();
+                long hash = ((Long) entry[ 1 ]).longValue();
+                int ip = (int) ( hash >>> shift ) & ( NPART - 1 );
+                parts[ ip ].acceptRow( entry );
+                counts[ ip ]++;
+                ntot++;
+            }
+        }
+        logger_.info( "Partitioned " + ntot + " rows at level " + level );
+
+        /* Deduplicate each partition.  If partitioning has not reduced
+         * the size, the keys must be largely identical, so there is
+         * no point in going further. */
+        List<StarTable> results = new ArrayList<StarTable>();
+        for ( int ip = 0; ip < NPART; ip++ ) {
+            parts[ ip ].endRows();
+            final StarTable partTable = parts[ ip ].getStarTable();
+            parts[ ip ] = null;
+            if ( counts[ ip ] > 0 ) {
+                final boolean isStuck = counts[ ip ] == ntot;
+                EntrySource partSrc = new EntrySource() {
+                    public long getRowCount() {
+                        return partTable.getRowCount();
+                    }
+                    public RowSequence createEntrySequence()
+                            throws IOException {
+                        return partTable.getRowSequence();
+                    }
+                };
+                results.add( isStuck ? dedupInMemory( partSrc )
+                                     : process( partSrc, level + 1 ) );
+            }
+            partTable.close();
+        }
+        return mergeResults( results );
+    }
+
+    /**
+     * Deduplicates a source of entries in memory.
+     *
+     * @param  src  entry source
+     * @return  result table
+     */
+    private StarTable dedupInMemory( EntrySource src ) throws IOException {
+        Map<EntryKey,long[]> map = new HashMap<EntryKey,long[]>();
+        try ( RowSequence rseq = src.createEntrySequence() ) {
+            while ( rseq.next() ) {
+                Object[] entry = rseq.getRow();
+                EntryKey key = new EntryKey( entry );
+                long[] firstCount = map.get( key );
+                if ( firstCount == null ) {
+                    key.copyValues();
+                    long irow = ((Long) entry[ 0 ]).longValue();
+                    map.put( key, new long[] { irow, 1 } );
+                }
+                else {
+                    firstCount[ 1 ]++;
+                }
+            }
+        }
+        long[][] firstCounts = map.values().toArray( new long[ 0 ][] );
+        map = null;
+        Arrays.sort( firstCounts,
+                     Comparator.comparingLong( (long[] fc) -> fc[ 0 ] ) );
+        RowStore store = policy_.makeConfiguredRowStore( resultMeta_ );
+        for ( long[] fc : firstCounts ) {
+            store.acceptRow( new Object[] { Long.valueOf( fc[ 0 ] ),
+                                            Long.valueOf( fc[ 1 ] ) } );
+        }
+        store.endRows();
+        return store.getStarTable();
+    }
+
+    /**
+     * Merges result tables, each sorted by row index, into a single
+     * result table.  The input tables are closed.
+     *
+     * @param  results  input result tables
+     * @return  merged result table
+     */
+    private StarTable mergeResults( List<StarTable> results )
+            throws IOException {
+        if ( results.size() == 1 ) {
+            return results.get( 0 );
+        }
+        PriorityQueue<ResultCursor> queue =
+            new PriorityQueue<ResultCursor>( Math.max( 1, results.size() ) );
+        RowStore store = policy_.makeConfiguredRowStore( resultMeta_ );
+        try {
+            for ( StarTable result : results ) {
+                ResultCursor cursor = new ResultCursor( result );
+                if ( cursor.next() ) {
+                    queue.add( cursor );
+                }
+                else {
+                    cursor.close();
+                }
+            }
+            while ( ! queue.isEmpty() ) {
+                ResultCursor cursor = queue.poll();
+                store.acceptRow( new Object[] {
+                    Long.valueOf( cursor.irow_ ),
+                    Long.valueOf( cursor.count_ ),
+                } );
+                if ( cursor.next() ) {
+                    queue.add( cursor );
+                }
+                else {
+                    cursor.close();
+                }
+            }
+        }
+        finally {
+            for ( ResultCursor cursor : queue ) {
+                cursor.close();
+            }
+        }
+        store.endRows();
+        return store.getStarTable();
+    }
+
+    /**
+     * Supplies entries to be deduplicated.
+     * Each entry is an array giving the row index,
+     * hash code and key values of a row.
+     */
+    private interface EntrySource {
+
+        /**
+         * Returns the number of entries, if known.
+         *
+         * @return  entry count, or -1
+         */
+        long getRowCount();
+
+        /**
+         * Returns a sequence of entries, in ascending row index order.
+         *
+         * @return  new entry sequence
+         */
+        RowSequence createEntrySequence() throws IOException;
+    }
+
+    /**
+     * Entry sequence that reads rows from the base table.
+     */
+    private class BaseEntrySequence implements RowSequence {
+        private final RowSequence rseq_;
+        private long irow_;
+        private Object[] entry_;
+
+        BaseEntrySequence() throws IOException {
+            rseq_ = base_.getRowSequence();
+            irow_ = -1;
+        }
+
+        public boolean next() throws IOException {
+            if ( rseq_.next() ) {
+                irow_++;
+                int nk = keyCols_.length;
+                Object[] entry = new Object[ 2 + nk ];
+                long hash = nk;
+                for ( int ik = 0; ik < nk; ik++ ) {
+                    Object value = rseq_.getCell( keyCols_[ ik ] );
+                    entry[ 2 + ik ] = value;
+                    Object hval = Tables.isBlank( value ) ? null : value;
+                    hash = DistinctCounter
+                          .mix( hash ^ DistinctCounter.hash( hval ) );
+                }
+                entry[ 0 ] = Long.valueOf( irow_ );
+                entry[ 1 ] = Long.valueOf( hash );
+                entry_ = entry;
+                return true;
+            }
+            else {
+                entry_ = null;
+                return false;
+            }
+        }
+
+        public Object[] getRow() {
+            return entry_;
+        }
+
+        public Object getCell( int icol ) {
+            return entry_[ icol ];
+        }
+
+        public void close() throws IOException {
+            rseq_.close();
+        }
+    }
+
+    /**
+     * Hash map key based on the key values of an entry.
+     */
+    private static class EntryKey {
+        private final long hash_;
+        private Object[] entry_;
+
+        /**
+         * Constructor.  The supplied array is used directly.
+         *
+         * @param  entry  entry array
+         */
+        EntryKey( Object[] entry ) {
+            entry_ = entry;
+            hash_ = ((Long) entry[ 1 ]).longValue();
+        }
+
+        /**
+         * Replaces the entry array with a copy,
+         * so that it is not affected by later reuse of the original.
+         */
+        void copyValues() {
+            entry_ = entry_.clone();
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) ( hash_ ^ ( hash_ >>> 32 ) );
+        }
+
+        @Override
+        public boolean equals( Object o ) {
+            if ( ! ( o instanceof EntryKey ) ) {
+                return false;
+            }
+            EntryKey other = (EntryKey) o;
+            if ( other.hash_ != hash_ ) {
+                return false;
+            }
+            for ( int i = 2; i < entry_.length; i++ ) {
+                if ( ! UniqueFilter.equalValues( entry_[ i ],
+                                                 other.entry_[ i ] ) ) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Iterates over the rows of a result table.
+     */
+    private static class ResultCursor implements Comparable<ResultCursor> {
+        private final StarTable table_;
+        private final RowSequence rseq_;
+        long irow_;
+        long count_;
+
+        /**
+         * Constructor.
+         *
+         * @param  table  result table, closed along with this cursor
+         */
+        ResultCursor( StarTable table ) throws IOException {
+            table_ = table;
+            rseq_ = table.getRowSequence();
+        }
+
+        /**
+         * Advances to the next row.
+         *
+         * @return  true iff there was another row
+         */
+        boolean next() throws IOException {
+            if ( rseq_.next() ) {
+                irow_ = ((Long) rseq_.getCell( 0 )).longValue();
+                count_ = ((Long) rseq_.getCell( 1 )).longValue();
+                return true;
+            }
+            else {
+                return false;
+            }
+        }
+
+        /**
+         * Releases resources.
+         */
+        void close() throws IOException {
+            rseq_.close();
+            table_.close();
+        }
+
+        public int compareTo( ResultCursor other ) {
+            return Long.compare( irow_, other.irow_ );
+        }
+    }
+}
@@ -50,6 +50,16 @@ public class JELSelectorTable extends WrapperStarTable {
         requiresRowIndex_ = rdr.requiresRowIndex();
     }
 
+    /**
+     * Indicates whether evaluation of this table's selection expression
+     * may depend on the row index.
+     *
+     * @return  true iff the row index may be required
+     */
+    public boolean requiresRowIndex() {
+        return requiresRowIndex_;
+    }
+
     @Override
     public boolean isRandom() {
         return false;
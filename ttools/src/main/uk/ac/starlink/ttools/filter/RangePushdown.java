@@ -0,0 +1,285 @@
+package uk.ac.starlink.ttools.filter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import uk.ac.starlink.table.ColumnInfo;
+import uk.ac.starlink.table.RangeRestrictable;
+import uk.ac.starlink.table.StarTable;
+
+/**
+ * Passes simple numeric range constraints from a selection expression
+ * to a table that can make use of them.
+ *
+ * <p>Only a restricted form of expression is understood:
+ * a top-level conjunction (<code>&amp;&amp;</code>) of terms,
+ * some of which have the form <code>&lt;col&gt; &lt;op&gt; &lt;num&gt;</code>
+ * or <code>&lt;num&gt; &lt;op&gt; &lt;col&gt;</code>, where
+ * <code>&lt;col&gt;</code> is a column name or <code>$n</code> reference,
+ * <code>&lt;op&gt;</code> is one of
+ * <code>&lt;</code>, <code>&lt;=</code>, <code>&gt;</code>,
+ * <code>&gt;=</code>, <code>==</code>,
+ * and <code>&lt;num&gt;</code> is a numeric literal.
+ * Other terms are ignored, and expressions containing top-level
+ * disjunctions or conditionals are left alone.
+ * Since the full expression is still evaluated on each row of the
+ * restricted table, the restriction only needs to be conservative.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+class RangePushdown {
+
+    private static final String NUM_REGEX =
+        "[-+]?(?:[0-9]+\\.?[0-9]*|\\.[0-9]+)(?:[eE][-+]?[0-9]+)?[fFdD]?";
+    private static final String COL_REGEX =
+        "[A-Za-z_][A-Za-z_0-9]*|\\$[0-9]+";
+    private static final String OP_REGEX = "<=|>=|==|<|>";
+    private static final Pattern COLFIRST_REGEX =
+        Pattern.compile( "(" + COL_REGEX + ")\\s*(" + OP_REGEX + ")\\s*"
+                       + "(" + NUM_REGEX + ")" );
+    private static final Pattern NUMFIRST_REGEX =
+        Pattern.compile( "(" + NUM_REGEX + ")\\s*(" + OP_REGEX + ")\\s*"
+                       + "(" + COL_REGEX + ")" );
+
+    private static final Logger logger_ =
+        Logger.getLogger( "uk.ac.starlink.ttools.filter" );
+
+    /**
+     * Private constructor prevents instantiation.
+     */
+    private RangePushdown() {
+    }
+
+    /**
+     * Returns a table containing at least all the rows of a given table
+     * for which a selection expression may be true,
+     * and possibly fewer of the others.
+     * If nothing can be done, the input table is returned.
+     *
+     * <p>The caller must ensure that the expression does not depend
+     * on the row index, which may differ in the returned table.
+     *
+     * @param  table  input table
+     * @param  expr   boolean JEL expression
+     * @return  table with the same columns,
+     *          containing a superset of the selected rows
+     */
+    public static StarTable restrict( RangeRestrictable table, String expr )
+            throws IOException {
+        List<String> terms = splitConjunction( expr );
+        if ( terms == null || expr.toLowerCase().contains( "$nrow" ) ) {
+            return table;
+        }
+        StarTable result = table;
+        for ( String term : terms ) {
+            if ( result instanceof RangeRestrictable ) {
+                Range range = parseRange( table, stripParens( term ) );
+                if ( range != null ) {
+                    logger_.config( "Range pushdown: " + range );
+                    result = ((RangeRestrictable) result)
+                            .restrictRange( range.icol_, range.lo_,
+                                            range.hi_ );
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Splits an expression into top-level terms combined with
+     * the logical AND operator.
+     *
+     * @param  expr  expression
+     * @return   list of terms, or null if the expression contains
+     *           top-level operators that make the split unsafe
+     */
+    static List<String> splitConjunction( String expr ) {
+        List<String> terms = new ArrayList<>();
+        int depth = 0;
+        char quote = 0;
+        int start = 0;
+        int leng = expr.length();
+        for ( int i = 0; i < leng; i++ ) {
+            char c = expr.charAt( i );
+            if ( quote != 0 ) {
+                if ( c == '\\' ) {
+                    i++;
+                }
+                else if ( c == quote ) {
+                    quote = 0;
+                }
+            }
+            else if ( c == '"' || c == '\'' ) {
+                quote = c;
+            }
+            else if ( c == '(' ) {
+                depth++;
+            }
+            else if ( c == ')' ) {
+                depth--;
+            }
+            else if ( depth == 0 ) {
+                char c1 = i + 1 < leng ? expr.charAt( i + 1 ) : 0;
+                if ( c == '?' || ( c == '|' && c1 == '|' ) ) {
+                    return null;
+                }
+                else if ( c == '&' && c1 == '&' ) {
+                    terms.add( expr.substring( start, i ).trim() );
+                    start = i + 2;
+                    i++;
+                }
+            }
+        }
+        if ( quote != 0 || depth != 0 ) {
+            return null;
+        }
+        terms.add( expr.substring( start ).trim() );
+        return terms;
+    }
+
+    /**
+     * Removes balanced parentheses enclosing a whole term.
+     *
+     * @param  term  term
+     * @return  term without enclosing parentheses
+     */
+    private static String stripParens( String term ) {
+        while ( term.startsWith( "(" ) && term.endsWith( ")" ) ) {
+            String inner = term.substring( 1, term.length() - 1 ).trim();
+            List<String> parts = splitConjunction( inner );
+            if ( parts == null || parts.size() != 1 ) {
+                return term;
+            }
+            term = inner;
+        }
+        return term;
+    }
+
+    /**
+     * Attempts to interpret a term as a numeric range constraint
+     * on a column.
+     *
+     * @param  table  table supplying column metadata
+     * @param  term   expression term
+     * @return  range, or null if the term is not understood
+     */
+    static Range parseRange( StarTable table, String term ) {
+        Matcher cm = COLFIRST_REGEX.matcher( term );
+        Matcher nm = NUMFIRST_REGEX.matcher( term );
+        final String col;
+        final String op;
+        final String num;
+        if ( cm.matches() ) {
+            col = cm.group( 1 );
+            op = cm.group( 2 );
+            num = cm.group( 3 );
+        }
+        else if ( nm.matches() ) {
+            col = nm.group( 3 );
+            num = nm.group( 1 );
+
+            /* Reverse the sense of the comparison. */
+            String op0 = nm.group( 2 );
+            op = op0.startsWith( "<" ) ? op0.replace( '<', '>' )
+               : op0.startsWith( ">" ) ? op0.replace( '>', '<' )
+                                       : op0;
+        }
+        else {
+            return null;
+        }
+        int icol = getColumnIndex( table, col );
+        if ( icol < 0 ) {
+            return null;
+        }
+        Class<?> clazz = table.getColumnInfo( icol ).getContentClass();
+        if ( ! Number.class.isAssignableFrom( clazz ) ) {
+            return null;
+        }
+        double value;
+        try {
+            value = Double.parseDouble( num );
+        }
+        catch ( NumberFormatException e ) {
+            return null;
+        }
+        if ( Double.isNaN( value ) ) {
+            return null;
+        }
+        switch ( op ) {
+            case "<":
+            case "<=":
+                return new Range( icol, Double.NEGATIVE_INFINITY, value );
+            case ">":
+            case ">=":
+                return new Range( icol, value, Double.POSITIVE_INFINITY );
+            case "==":
+                return new Range( icol, value, value );
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Resolves a column reference in the way that the JEL row reader does
+     * for names and <code>$n</code> references.
+     *
+     * @param  table  table
+     * @param  col   column reference
+     * @return   column index, or -1 if not resolved
+     */
+    private static int getColumnIndex( StarTable table, String col ) {
+        int ncol = table.getColumnCount();
+        if ( col.charAt( 0 ) == '$' ) {
+            try {
+                int icol = Integer.parseInt( col.substring( 1 ) ) - 1;
+                return icol >= 0 && icol < ncol ? icol : -1;
+            }
+            catch ( NumberFormatException e ) {
+                return -1;
+            }
+        }
+        for ( int icol = 0; icol < ncol; icol++ ) {
+            if ( table.getColumnInfo( icol ).getName().equals( col ) ) {
+                return icol;
+            }
+        }
+        for ( int icol = 0; icol < ncol; icol++ ) {
+            ColumnInfo info = table.getColumnInfo( icol );
+            if ( info.getName().equalsIgnoreCase( col ) ) {
+                return icol;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Inclusive range constraint on a column.
+     */
+    static class Range {
+        final int icol_;
+        final double lo_;
+        final double hi_;
+
+        /**
+         * Constructor.
+         *
+         * @param  icol  column index
+         * @param  lo   lower bound
+         * @param  hi   upper bound
+         */
+        Range( int icol, double lo, double hi ) {
+            icol_ = icol;
+            lo_ = lo;
+            hi_ = hi;
+        }
+
+        @Override
+        public String toString() {
+            return "$" + ( icol_ + 1 ) + " in [" + lo_ + ", " + hi_ + "]";
+        }
+    }
+}
@@ -3,6 +3,7 @@ package uk.ac.starlink.ttools.filter;
 import gnu.jel.CompilationException;
 import java.io.IOException;
 import java.util.Iterator;
+import uk.ac.starlink.table.RangeRestrictable;
 import uk.ac.starlink.table.StarTable;
 import uk.ac.starlink.ttools.jel.JELUtils;
 
@@ -48,7 +49,21 @@ public class SelectFilter extends BasicFilter {
         }
         public StarTable wrap( StarTable base ) throws IOException {
             try {
-                return new JELSelectorTable( base, expr_ );
+                JELSelectorTable selTable = new JELSelectorTable( base, expr_ );
+
+                /* If the base table can discard rows based on simple
+                 * range constraints, let it do so before the expression
+                 * is evaluated row by row. */
+                if ( base instanceof RangeRestrictable &&
+                     ! selTable.requiresRowIndex() ) {
+                    StarTable restricted =
+                        RangePushdown.restrict( (RangeRestrictable) base,
+                                                expr_ );
+                    if ( restricted != base ) {
+                        selTable = new JELSelectorTable( restricted, expr_ );
+                    }
+                }
+                return selTable;
             }
             catch ( CompilationException e ) {
                 throw JELUtils.toIOException( e, expr_ );
@@ -1,19 +1,17 @@
 package uk.ac.starlink.ttools.filter;
 
 import gnu.jel.CompilationException;
-import java.io.Closeable;
 import java.io.IOException;
-import java.util.Arrays;
-import java.util.Comparator;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
-import uk.ac.starlink.table.RowPermutedStarTable;
+import uk.ac.starlink.table.ColumnInfo;
+import uk.ac.starlink.table.ExternalSorter;
 import uk.ac.starlink.table.StarTable;
+import uk.ac.starlink.table.StoragePolicy;
 import uk.ac.starlink.table.Tables;
 import uk.ac.starlink.task.TaskException;
 import uk.ac.starlink.ttools.Tokenizer;
-import uk.ac.starlink.ttools.jel.RandomJELEvaluator;
+import uk.ac.starlink.ttools.jel.JELTable;
+import uk.ac.starlink.util.SplitPolicy;
 
 /**
  * Processing filter which sorts on one or more JEL expressions.
@@ -55,6 +53,9 @@ public class SortFilter extends BasicFilter {
             "<p>By default, sorting is done sequentially for small tables",
             "and in parallel for large tables, but this can be controlled",
             "with the <code>-parallel</code> or <code>-noparallel</code> flag.",
+            "Tables too large to sort in memory are sorted in chunks",
+            "which are written to temporary storage and then merged,",
+            "so there is no limit on the number of rows.",
             "</p>",
             explainSyntax( new String[] { "key-list", } ),
         };
@@ -111,6 +112,9 @@ public class SortFilter extends BasicFilter {
 
     /**
      * Step implementation which sorts all rows using a random table.
+     * The sort key values are evaluated in a single sequential pass,
+     * and sorted using an {@link ExternalSorter}, so there is no limit
+     * on the number of rows.
      */
     private static class SortStep implements ProcessingStep {
         final String[] keys_;
@@ -128,156 +132,31 @@ public class SortFilter extends BasicFilter {
 
         public StarTable wrap( StarTable baseTable ) throws IOException {
             baseTable = Tables.randomTable( baseTable );
-            long lnrow = baseTable.getRowCount();
-            if ( lnrow > Integer.MAX_VALUE ) {
-                throw new UnsupportedOperationException( 
-                    "Sorry, can't sort tables with >2^31 rows" );
-            }
-            int nrow = (int) lnrow;
+            long nrow = baseTable.getRowCount();
             boolean isParallel = isParallel_ == null
                                ? nrow > PARALLEL_THRESHOLD
                                : isParallel_.booleanValue();
-            Number[] rowMap = new Number[ nrow ];
-            for ( int i = 0; i < nrow; i++ ) {
-                rowMap[ i ] = new Integer( i );
+            int nkey = keys_.length;
+            ColumnInfo[] keyInfos = new ColumnInfo[ nkey ];
+            for ( int ik = 0; ik < nkey; ik++ ) {
+                keyInfos[ ik ] = new ColumnInfo( "key" + ( ik + 1 ),
+                                                 Object.class, null );
             }
-            RowComparator keyComparator;
+            StarTable keyTable;
             try {
-                keyComparator = new RowComparator( baseTable, keys_, up_,
-                                                   nullsLast_, isParallel );
+                keyTable = new JELTable( baseTable, keyInfos, keys_ );
             }
             catch ( CompilationException e ) {
                 throw (IOException) new IOException( "Bad sort key(s)" )
                                    .initCause( e );
             }
-            try {
-                if ( isParallel ) {
-                    Arrays.parallelSort( rowMap, keyComparator );
-                }
-                else {
-                    Arrays.sort( rowMap, keyComparator );
-                }
-            }
-            catch ( SortException e ) {
-                throw e.asIOException();
-            }
-            finally {
-                keyComparator.close();
-            }
-            long[] rmap = new long[ nrow ];
-            for ( int i = 0; i < nrow; i++ ) {
-                rmap[ i ] = rowMap[ i ].longValue();
-            }
-            return new RowPermutedStarTable( baseTable, rmap );
-        }
-    }
-
-    /** 
-     * Comparator which will compare two objects which are Numbers 
-     * representing row indices of a given table.
-     */
-    private static class RowComparator
-            implements Comparator<Number>, Closeable {
-
-        final int nexpr_;
-        final RandomJELEvaluator[] evaluators_;
-        final boolean up_;
-        final boolean nullsLast_;
-
-        /**
-         * Constructor.
-         *
-         * @param  table  table whose rows are to be examined
-         * @param  keys   array of column identifiers; first is most
-         *                significant for ordering, second next, etc
-         * @param   up  true for sorting into ascending order, false for
-         *          descending order
-         * @param   nullsLast  true if blank values should be considered
-         *          last in the collation order, false if they should
-         *          be considered first
-         */
-        public RowComparator( StarTable table, String[] keys, boolean up,
-                              boolean nullsLast, boolean isParallel )
-                throws CompilationException, IOException {
-            nexpr_ = keys.length;
-            up_ = up;
-            nullsLast_ = nullsLast;
-            evaluators_ = new RandomJELEvaluator[ nexpr_ ];
-            for ( int ie = 0; ie < nexpr_; ie++ ) {
-                evaluators_[ ie ] =
-                    RandomJELEvaluator
-                   .createEvaluator( table, keys[ ie ], isParallel );
-            }
-        }
-
-        public void close() throws IOException {
-            for ( RandomJELEvaluator rev : evaluators_ ) {
-                rev.close();
-            }
-        }
-
-        public int compare( Number o1, Number o2 ) {
-            long row1 = o1.longValue();
-            long row2 = o2.longValue();
-            int c = 0;
-            for ( int i = 0; i < nexpr_ && c == 0; i++ ) { 
-                RandomJELEvaluator evaluator = evaluators_[ i ];
-                Object val1;
-                Object val2;
-                try {
-                    val1 = evaluator.evaluateObject( row1 );
-                    val2 = evaluator.evaluateObject( row2 );
-                }
-                catch ( IOException e ) {
-                    throw new SortException( "Sort error", e );
-                }
-                try {
-                    c = compareValues( val1, val2 );
-                }
-                catch ( ClassCastException e ) {
-                    throw new SortException( 
-                        "Expression comparison error during sorting", e );
-                }
-            }
-            return up_ ? c : -c;
-        }
-
-        /**
-         * Compares the actual cell values.
-         */
-        @SuppressWarnings("unchecked")
-        private int compareValues( Object o1, Object o2 ) {
-            boolean null1 = Tables.isBlank( o1 );
-            boolean null2 = Tables.isBlank( o2 );
-            if ( null1 && null2 ) {
-                return 0;
-            }
-            else if ( null1 ) {
-                return nullsLast_ ? +1 : -1;
-            }
-            else if ( null2 ) {
-                return nullsLast_ ? -1 : +1;
-            }
-            else {
-                return ((Comparable<Object>) o1).compareTo( (Comparable) o2 );
-            }
-        }
-    }
-
-    /**
-     * Helper class defining private exception type.
-     * Used to smuggle a checked exception out of a sort comparison.
-     */
-    private static class SortException extends RuntimeException {
-        SortException( String msg, Throwable e ) {
-            super( msg, e );
-        }
-        IOException asIOException() {
-            Throwable error = getCause();
-            return error instanceof IOException
-                 ? (IOException) error
-                 : (IOException) new IOException( error.getMessage() )
-                                .initCause( error );
+            ExternalSorter sorter =
+                new ExternalSorter( StoragePolicy.getDefaultPolicy(),
+                                    isParallel ? SplitPolicy.DFLT_POLICY
+                                               : null,
+                                    ExternalSorter.DFLT_RUN_SIZE,
+                                    ExternalSorter.DFLT_MERGE_WAY );
+            return sorter.sortTable( baseTable, keyTable, up_, nullsLast_ );
         }
     }
 }
@@ -1,21 +1,12 @@
 package uk.ac.starlink.ttools.filter;
 
 import gnu.jel.CompilationException;
-import gnu.jel.CompiledExpression;
-import gnu.jel.Library;
 import java.io.IOException;
 import java.util.Iterator;
-import java.util.Map;
-import java.util.SortedMap;
-import java.util.TreeMap;
-import uk.ac.starlink.table.RowListStarTable;
+import uk.ac.starlink.table.RowRunner;
 import uk.ac.starlink.table.StarTable;
-import uk.ac.starlink.table.Tables;
 import uk.ac.starlink.task.TaskException;
 import uk.ac.starlink.ttools.Tokenizer;
-import uk.ac.starlink.ttools.jel.JELUtils;
-import uk.ac.starlink.ttools.jel.SequentialJELRowReader;
-import uk.ac.starlink.ttools.jel.StarTableJELRowReader;
 
 /**
  * Filter for returning the first (or last) few rows of a sorted table.
@@ -30,7 +21,8 @@ public class SortHeadFilter extends BasicFilter {
 
     public SortHeadFilter() {
         super( "sorthead",
-               "[-tail] [-down] [-nullsfirst] <nrows> <key-list>" );
+               "[-tail] [-down] [-nullsfirst] [-[no]parallel] "
+             + "<nrows> <key-list>" );
     }
 
     protected String[] getDescriptionLines() {
@@ -65,6 +57,10 @@ public class SortHeadFilter extends BasicFilter {
             "on memory and faster, as long as <code>&lt;nrows&gt;</code>",
             "is significantly lower than the size of the table.",
             "</p>",
+            "<p>By default the input is processed in parallel where",
+            "possible, but this can be controlled with the",
+            "<code>-parallel</code> or <code>-noparallel</code> flag.",
+            "</p>",
             explainSyntax( new String[] { "key-list", } ),
         };
     }
@@ -74,6 +70,7 @@ public class SortHeadFilter extends BasicFilter {
         boolean up = true;
         boolean nullsLast = true;
         boolean keepHead = true;
+        boolean isParallel = true;
         int nrows = -1;
         String exprs = null;
         while ( argIt.hasNext() || nrows < 0 || exprs == null ) {
@@ -90,6 +87,14 @@ public class SortHeadFilter extends BasicFilter {
                 argIt.remove();
                 nullsLast = false;
             }
+            else if ( arg.equals( "-parallel" ) ) {
+                argIt.remove();
+                isParallel = true;
+            }
+            else if ( arg.equals( "-noparallel" ) ) {
+                argIt.remove();
+                isParallel = false;
+            }
             else if ( nrows < 0 ) {
                 argIt.remove();
                 try {
@@ -124,150 +129,44 @@ public class SortHeadFilter extends BasicFilter {
         }
 
         /* Return a step implementation. */
-        return new SortHeadStep( keys, up, nullsLast, nrows, keepHead );
+        return new SortHeadStep( keys, up, nullsLast, nrows, keepHead,
+                                 isParallel );
     }
 
+    /**
+     * Step implementation which retains the top rows using a
+     * {@link TopRowSelector}.
+     */
     private static class SortHeadStep implements ProcessingStep {
         final String[] keys_;
         final boolean up_;
         final boolean nullsLast_;
         final int nrows_;
         final boolean keepHead_;
+        final boolean isParallel_;
 
         SortHeadStep( String[] keys, boolean up, boolean nullsLast,
-                      int nrows, boolean keepHead ) {
+                      int nrows, boolean keepHead, boolean isParallel ) {
             keys_ = keys;
             up_ = up;
             nullsLast_ = nullsLast;
             nrows_ = nrows;
             keepHead_ = keepHead;
+            isParallel_ = isParallel;
         }
 
         public StarTable wrap( StarTable baseTable ) throws IOException {
-
-            /* Compile expressions for the specified sort keys. */
-            SequentialJELRowReader rseq =
-                new SequentialJELRowReader( baseTable );
-            Library lib = JELUtils.getLibrary( rseq );
-            int nkey = keys_.length;
-            CompiledExpression[] compExs = new CompiledExpression[ nkey ];
+            TopRowSelector selector;
             try {
-                for ( int i = 0; i < nkey; i++ ) {
-                    compExs[ i ] =
-                        JELUtils.compile( lib, baseTable, keys_[ i ] );
-                }
+                selector = new TopRowSelector( baseTable, keys_, up_,
+                                               nullsLast_, nrows_, keepHead_ );
             }
             catch ( CompilationException e ) {
                 throw (IOException) new IOException( "Bad sort key(s)" )
                                    .initCause( e );
             }
-
-            /* Prepare a SortedMap which will keep the top nrows rows.
-             * The map keys are the Object arrays of sort key values, and the
-             * map values are the full row Object arrays. */
-            SortedMap<SortKey,Object[]> headMap =
-                new TreeMap<SortKey,Object[]>();
-
-            /* Iterate over rows in the input table. */
-            while ( rseq.next() ) {
-
-                /* Get the key values for this row. */
-                SortKey sortKey = new SortKey( rseq, compExs );
-
-                /* If there are not enough rows in the retention map yet,
-                 * insert this one unconditionally. */
-                if ( headMap.size() < nrows_ ) {
-                    headMap.put( sortKey, rseq.getRow() );
-                }
-
-                /* Otherwise, if this row sorts nearer the top/bottom 
-                 * than the current most marginal item, replace that
-                 * with this one. */
-                else {
-                    SortKey marginal = keepHead_ ? headMap.lastKey()
-                                                 : headMap.firstKey();
-                    if ( ( marginal.compareTo( sortKey ) 
-                           * ( keepHead_ ? +1 : -1 ) ) > 0 ) {
-                        assert headMap.size() == nrows_;
-                        headMap.remove( marginal );
-                        headMap.put( sortKey, rseq.getRow() );
-                        assert headMap.size() == nrows_;
-                    }
-                }
-            }
-
-            /* Prepare and return a new table containing the rows from
-             * the retention map in order. */
-            RowListStarTable outTable = new RowListStarTable( baseTable );
-            for ( Iterator<Map.Entry<SortKey,Object[]>> it =
-                      headMap.entrySet().iterator(); it.hasNext(); ) {
-                outTable.addRow( it.next().getValue() );
-                it.remove();
-            }
-            return outTable;
-        }
-
-        /**
-         * Helper class used as the sort key for table rows.
-         */
-        private class SortKey implements Comparable<SortKey> {
-            final int nkey1_;
-            final Object[] keyVals_;
-
-            SortKey( StarTableJELRowReader jelly, CompiledExpression[] compExs )
-                    throws IOException {
-                nkey1_ = compExs.length + 1;
-                keyVals_ = new Object[ nkey1_ ];
-                for ( int i = 0; i < nkey1_ - 1; i++ ) {
-                    try {
-                        keyVals_[ i ] = jelly.evaluate( compExs[ i ] );
-                    }
-                    catch ( IOException e ) {
-                        throw e;
-                    }
-                    catch ( Throwable e ) {
-                        throw (IOException) new IOException( e.getMessage() )
-                                           .initCause( e );
-                    }
-                }
-                keyVals_[ nkey1_ - 1 ] = new Long( jelly.getCurrentRow() );
-            }
-
-            public int compareTo( SortKey other ) {
-                int c = 0;
-                for ( int i = 0; i < nkey1_ && c == 0; i++ ) {
-                    c = compareValues( this.keyVals_[i], other.keyVals_[i] );
-                }
-                return up_ ? c : -c;
-            }
-        }
-
-        /**
-         * Compares actual object values.
-         */
-        @SuppressWarnings("unchecked")
-        private int compareValues( Object o1, Object o2 ) {
-            boolean null1 = Tables.isBlank( o1 );
-            boolean null2 = Tables.isBlank( o2 );
-            if ( null1 && null2 ) {
-                return 0;
-            }
-            else if ( null1 ) {
-                return nullsLast_ ? +1 : -1;
-            }
-            else if ( null2 ) {
-                return nullsLast_ ? -1 : +1;
-            }
-            else {
-                if ( o1 instanceof Comparable &&
-                     o2 instanceof Comparable ) {
-                    return ((Comparable) o1).compareTo( (Comparable) o2 );
-                }
-                else {
-                    assert false;
-                    return 0;
-                }
-            }
+            return selector.selectRows( isParallel_ ? RowRunner.DEFAULT
+                                                    : RowRunner.SEQUENTIAL );
         }
     }
 }
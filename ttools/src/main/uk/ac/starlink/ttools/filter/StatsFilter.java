@@ -51,6 +51,7 @@ public class StatsFilter extends BasicFilter {
     private static final ValueInfo MINPOS_INFO;
     private static final ValueInfo MAXPOS_INFO;
     private static final ValueInfo CARDINALITY_INFO;
+    private static final ValueInfo APPROXCARD_INFO;
     private static final ValueInfo MEDIAN_INFO;
     private static final ValueInfo Q1_INFO;
     private static final ValueInfo Q2_INFO;
@@ -94,6 +95,10 @@ public class StatsFilter extends BasicFilter {
         CARDINALITY_INFO = new DefaultValueInfo( "Cardinality", Integer.class,
             "Number of distinct values in column; " +
             "values >" + UnivariateStats.MAX_CARDINALITY + " ignored" ),
+        APPROXCARD_INFO = new DefaultValueInfo( "ApproxCardinality",
+                                                Long.class,
+            "Estimated number of distinct values in column, "
+          + "accurate to about 1%" ),
         MEDIAN_INFO = new QuantileInfo( 0.5, "Median",
                                         "Middle value in sequence" ),
         Q1_INFO = new QuantileInfo( 0.25, "Quartile1", "First quartile" ),
@@ -289,6 +294,8 @@ public class StatsFilter extends BasicFilter {
 
         /* Work out if we need to calculate cardinalities. */
         boolean doCard = Arrays.asList( infos ).contains( CARDINALITY_INFO );
+        boolean doApproxCard =
+            Arrays.asList( infos ).contains( APPROXCARD_INFO );
 
         /* Work out if we need to calculate Mean Absolute Deviations. */
         boolean doMad = Arrays.asList( infos ).contains( MAD_INFO )
@@ -309,7 +316,8 @@ public class StatsFilter extends BasicFilter {
         /* Calculate the statistics in sequential or parallel mode. */
         TableStats tstats =
             TableStats.calculateStats( table, runner,
-                                       doQuant ? qSupplier : null, doCard );
+                                       doQuant ? qSupplier : null, doCard,
+                                       doApproxCard );
         UnivariateStats[] colStats = tstats.getColumnStats();
 
         /* Get a MapGroup representing column metadata (the option is 
@@ -388,6 +396,12 @@ public class StatsFilter extends BasicFilter {
                     map.put( CARDINALITY_INFO, new Integer( ncard ) );
                 }
             }
+            if ( doApproxCard ) {
+                long ncard = stats.getApproxCardinality();
+                if ( ncard >= 0 ) {
+                    map.put( APPROXCARD_INFO, Long.valueOf( ncard ) );
+                }
+            }
             Quantiler quantiler = stats.getQuantiler();
             if ( quantiler != null ) {
                 for ( int iq = 0; iq < quantInfos.length; iq++ ) {
@@ -67,9 +67,29 @@ public class TableStats {
                                              Supplier<Quantiler> qSupplier,
                                              boolean doCard )
             throws IOException {
+        return calculateStats( table, runner, qSupplier, doCard, false );
+    }
+
+    /**
+     * Calculates statistics from a given table, optionally including
+     * approximate distinct value counts.
+     *
+     * @param  table  table supplying data
+     * @param  runner   controls sequential/parallel processing
+     * @param  qSupplier  supplies quantile accumulators if quantiles are
+     *                    required, otherwise null
+     * @param  doCard   whether to count distinct values
+     * @param  doApproxCard  whether to estimate the number of distinct
+     *                       values in fixed memory
+     */
+    public static TableStats calculateStats( StarTable table, RowRunner runner,
+                                             Supplier<Quantiler> qSupplier,
+                                             boolean doCard,
+                                             boolean doApproxCard )
+            throws IOException {
         ColumnInfo[] colInfos = Tables.getColumnInfos( table );
         StatsCollector collector =
-            new StatsCollector( colInfos, qSupplier, doCard );
+            new StatsCollector( colInfos, qSupplier, doCard, doApproxCard );
         return runner.collect( collector, table );
     }
 
@@ -119,13 +139,10 @@ public class TableStats {
                 while ( rseq.next() ) {
                     for ( int jc = 0; jc < njc; jc++ ) {
                         int ic = madIcols[ jc ];
-                        Object value = rseq.getCell( ic );
-                        if ( value instanceof Number ) {
-                            double dval = ((Number) value).doubleValue();
-                            if ( !Double.isNaN( dval ) ) {
-                                double dm = Math.abs( dval - medians[ ic ] );
-                                qs[ ic ].acceptDatum( dm );
-                            }
+                        double dval = rseq.getDouble( ic );
+                        if ( !Double.isNaN( dval ) ) {
+                            double dm = Math.abs( dval - medians[ ic ] );
+                            qs[ ic ].acceptDatum( dm );
                         }
                     }
                 }
@@ -153,6 +170,7 @@ public class TableStats {
         private final ColumnInfo[] colInfos_;
         private final Supplier<Quantiler> qSupplier_;
         private final boolean doCard_;
+        private final boolean doApproxCard_;
         private final int ncol_;
 
         /**
@@ -161,13 +179,15 @@ public class TableStats {
          * @param   colInfos  column metadata
          * @param   qSupplier  quantiler supplier, or null for no quantiles
          * @param   doCard   whether to count distinct values
+         * @param   doApproxCard  whether to estimate distinct values
          */
         public StatsCollector( ColumnInfo[] colInfos,
                                Supplier<Quantiler> qSupplier,
-                               boolean doCard ) {
+                               boolean doCard, boolean doApproxCard ) {
             colInfos_ = colInfos;
             qSupplier_ = qSupplier;
             doCard_ = doCard;
+            doApproxCard_ = doApproxCard;
             ncol_ = colInfos.length;
         }
 
@@ -176,7 +196,8 @@ public class TableStats {
             for ( int icol = 0; icol < ncol_; icol++ ) {
                 Class<?> clazz = colInfos_[ icol ].getContentClass();
                 colStats[ icol ] =
-                    UnivariateStats.createStats( clazz, qSupplier_, doCard_ );
+                    UnivariateStats.createStats( clazz, qSupplier_, doCard_,
+                                                 doApproxCard_ );
             }
             return new TableStats( colStats );
         }
@@ -196,10 +217,9 @@ public class TableStats {
             long nr = 0;
             while ( rseq.next() ) {
                 nr++;
-                Object[] row = rseq.getRow();
                 long irow = rowIndex == null ? -1 : rowIndex.getAsLong();
                 for ( int icol = 0; icol < ncol_; icol++ ) {
-                    colStats[ icol ].acceptDatum( row[ icol ], irow );
+                    colStats[ icol ].acceptCell( rseq, icol, irow );
                 }
             }
             tstats.nrow_ += nr;
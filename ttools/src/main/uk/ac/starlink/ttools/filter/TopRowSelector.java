@@ -0,0 +1,533 @@
+package uk.ac.starlink.ttools.filter;
+
+import gnu.jel.CompilationException;
+import gnu.jel.CompiledExpression;
+import gnu.jel.Library;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+import uk.ac.starlink.table.RowCollector;
+import uk.ac.starlink.table.RowListStarTable;
+import uk.ac.starlink.table.RowRunner;
+import uk.ac.starlink.table.RowSplittable;
+import uk.ac.starlink.table.StarTable;
+import uk.ac.starlink.table.Tables;
+import uk.ac.starlink.ttools.jel.JELUtils;
+import uk.ac.starlink.ttools.jel.SequentialJELRowReader;
+
+/**
+ * Selects the rows at the head or tail of the sorted order of a table
+ * in a single streaming pass, without sorting the whole table.
+ *
+ * <p>Each partition of the input keeps a bounded heap of the best
+ * rows it has seen so far, with numeric sort keys held in primitive
+ * arrays, and the partial heaps are merged at the end.
+ * Memory usage is therefore proportional to the number of retained rows
+ * multiplied by the number of concurrent partitions, and independent
+ * of the length of the table.
+ *
+ * <p>The collation order is exactly that used by the
+ * {@link uk.ac.starlink.table.ExternalSorter}:
+ * keys are compared in turn, with blank values at the end if nullsLast
+ * is true, and the whole ordering reversed for a descending sort;
+ * ties are broken by ascending row index.
+ * The result is therefore identical to a full sort followed by
+ * taking the first or last rows.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+class TopRowSelector {
+
+    private final StarTable table_;
+    private final String[] exprs_;
+    private final KeyType[] types_;
+    private final boolean up_;
+    private final boolean nullsLast_;
+    private final int nrows_;
+    private final boolean keepHead_;
+
+    /**
+     * Constructor.
+     *
+     * @param  table  input table
+     * @param  exprs  JEL expressions giving sort keys in order of precedence
+     * @param  up   true for ascending sort, false for descending
+     * @param  nullsLast  true if blank values sort at the end
+     * @param  nrows   maximum number of rows to retain
+     * @param  keepHead  true to retain the head, false for the tail
+     * @throws  CompilationException  if any of the expressions is bad
+     */
+    public TopRowSelector( StarTable table, String[] exprs, boolean up,
+                           boolean nullsLast, int nrows, boolean keepHead )
+            throws IOException, CompilationException {
+        table_ = table;
+        exprs_ = exprs;
+        up_ = up;
+        nullsLast_ = nullsLast;
+        nrows_ = nrows;
+        keepHead_ = keepHead;
+        types_ = new KeyType[ exprs.length ];
+        try ( SequentialJELRowReader rdr =
+                  new SequentialJELRowReader( table ) ) {
+            Library lib = JELUtils.getLibrary( rdr );
+            for ( int ik = 0; ik < exprs.length; ik++ ) {
+                Class<?> clazz = JELUtils.getWrapperType(
+                    JELUtils.getExpressionType( lib, table, exprs[ ik ] ) );
+                types_[ ik ] = KeyType.forClass( clazz );
+            }
+        }
+    }
+
+    /**
+     * Performs the selection.
+     * If the input table cannot supply row indices for its partitions,
+     * the selection is done sequentially.
+     *
+     * @param  runner  controls parallel execution
+     * @return  table containing the selected rows in sort order
+     */
+    public StarTable selectRows( RowRunner runner ) throws IOException {
+        RowSplittable rsplit = runner.createRowSplittable( table_ );
+        if ( rsplit.rowIndex() == null ) {
+            rsplit.close();
+            runner = RowRunner.SEQUENTIAL;
+            rsplit = runner.createRowSplittable( table_ );
+        }
+        RowHeap heap = runner.collect( new HeapCollector(), rsplit );
+        RowListStarTable outTable = new RowListStarTable( table_ );
+        for ( int is : heap.getSortedSlots() ) {
+            outTable.addRow( heap.rows_[ is ] );
+        }
+        return outTable;
+    }
+
+    /**
+     * Collector that accumulates rows into bounded heaps.
+     */
+    private class HeapCollector extends RowCollector<RowHeap> {
+
+        public RowHeap createAccumulator() {
+            return new RowHeap();
+        }
+
+        public void accumulateRows( RowSplittable rsplit, RowHeap heap )
+                throws IOException {
+            SequentialJELRowReader rdr =
+                new SequentialJELRowReader( table_, rsplit );
+            CompiledExpression[] compExs =
+                JELUtils.compileExpressions( rdr, exprs_ );
+            LongSupplier rowIndex = rsplit.rowIndex();
+            int nkey = compExs.length;
+            while ( rdr.next() ) {
+                int is = heap.getCandidateSlot();
+                for ( int ik = 0; ik < nkey; ik++ ) {
+                    heap.setKey( is, ik, evaluate( rdr, compExs[ ik ] ) );
+                }
+                heap.rowIxs_[ is ] = rowIndex.getAsLong();
+                if ( heap.isAcceptable( is ) ) {
+                    heap.rows_[ is ] = rdr.getRow().clone();
+                    heap.accept( is );
+                }
+            }
+        }
+
+        public RowHeap combine( RowHeap heap1, RowHeap heap2 ) {
+            if ( heap1.size_ < heap2.size_ ) {
+                RowHeap h = heap1;
+                heap1 = heap2;
+                heap2 = h;
+            }
+            for ( int i = 0; i < heap2.size_; i++ ) {
+                heap1.offer( heap2, heap2.heap_[ i ] );
+            }
+            return heap1;
+        }
+
+        /**
+         * Evaluates a compiled expression.
+         *
+         * @param  rdr  row reader
+         * @param  compEx  compiled expression
+         * @return  value at current row
+         */
+        private Object evaluate( SequentialJELRowReader rdr,
+                                 CompiledExpression compEx )
+                throws IOException {
+            try {
+                return rdr.evaluate( compEx );
+            }
+            catch ( IOException | RuntimeException | Error e ) {
+                throw e;
+            }
+            catch ( Throwable e ) {
+                throw (IOException) new IOException( e.getMessage() )
+                                   .initCause( e );
+            }
+        }
+    }
+
+    /**
+     * Bounded heap of table rows.
+     * Entries are stored in fixed slots, and the heap itself is an
+     * array of slot indices with the least desirable retained entry
+     * at the top.
+     * There is one more slot than the maximum number of retained rows,
+     * so that a candidate row can be assessed in place before
+     * deciding whether to keep it.
+     */
+    private class RowHeap {
+
+        final int nslot_;
+        final double[][] dkeys_;
+        final long[][] lkeys_;
+        final boolean[][] lnulls_;
+        final Object[][] okeys_;
+        long[] rowIxs_;
+        Object[][] rows_;
+        int[] heap_;
+        int capacity_;
+        int size_;
+        int spare_;
+
+        /**
+         * Constructor.  Storage is allocated as required,
+         * so that heaps for short partitions stay small.
+         */
+        RowHeap() {
+            nslot_ = nrows_ + 1;
+            int nkey = types_.length;
+            dkeys_ = new double[ nkey ][];
+            lkeys_ = new long[ nkey ][];
+            lnulls_ = new boolean[ nkey ][];
+            okeys_ = new Object[ nkey ][];
+            rowIxs_ = new long[ 0 ];
+            rows_ = new Object[ 0 ][];
+            heap_ = new int[ 0 ];
+            spare_ = nrows_;
+            resize( Math.min( nslot_, 64 ) );
+        }
+
+        /**
+         * Returns the index of a slot not currently in use,
+         * into which a candidate entry can be written.
+         *
+         * @return  free slot index
+         */
+        int getCandidateSlot() {
+            int is = size_ < nrows_ ? size_ : spare_;
+            if ( is >= capacity_ ) {
+                resize( (int) Math.min( nslot_, 2L * capacity_ ) );
+            }
+            return is;
+        }
+
+        /**
+         * Reallocates the storage arrays.
+         *
+         * @param  capacity  new number of slots
+         */
+        private void resize( int capacity ) {
+            for ( int ik = 0; ik < types_.length; ik++ ) {
+                switch ( types_[ ik ] ) {
+                    case DOUBLE:
+                        dkeys_[ ik ] = dkeys_[ ik ] == null
+                                     ? new double[ capacity ]
+                                     : Arrays.copyOf( dkeys_[ ik ], capacity );
+                        break;
+                    case LONG:
+                        lkeys_[ ik ] = lkeys_[ ik ] == null
+                                     ? new long[ capacity ]
+                                     : Arrays.copyOf( lkeys_[ ik ], capacity );
+                        lnulls_[ ik ] = lnulls_[ ik ] == null
+                                      ? new boolean[ capacity ]
+                                      : Arrays.copyOf( lnulls_[ ik ],
+                                                       capacity );
+                        break;
+                    default:
+                        okeys_[ ik ] = okeys_[ ik ] == null
+                                     ? new Object[ capacity ]
+                                     : Arrays.copyOf( okeys_[ ik ], capacity );
+                }
+            }
+            rowIxs_ = Arrays.copyOf( rowIxs_, capacity );
+            rows_ = Arrays.copyOf( rows_, capacity );
+            heap_ = Arrays.copyOf( heap_, capacity );
+            capacity_ = capacity;
+        }
+
+        /**
+         * Stores a key value in a given slot.
+         *
+         * @param  is  slot index
+         * @param  ik  key index
+         * @param  value  key value
+         */
+        void setKey( int is, int ik, Object value ) {
+            switch ( types_[ ik ] ) {
+                case DOUBLE:
+                    dkeys_[ ik ][ is ] = value instanceof Number
+                                       ? ((Number) value).doubleValue()
+                                       : Double.NaN;
+                    break;
+                case LONG:
+                    boolean isNull = value == null;
+                    lnulls_[ ik ][ is ] = isNull;
+                    lkeys_[ ik ][ is ] = isNull ? 0 : toLong( value );
+                    break;
+                default:
+                    okeys_[ ik ][ is ] = Tables.isBlank( value ) ? null
+                                                                 : value;
+            }
+        }
+
+        /**
+         * Indicates whether the entry in the candidate slot
+         * would be retained by this heap.
+         *
+         * @param  is  candidate slot index
+         * @return  true iff the entry should be accepted
+         */
+        boolean isAcceptable( int is ) {
+            return size_ < nrows_ || isBetter( this, is, this, heap_[ 0 ] );
+        }
+
+        /**
+         * Adds the entry in the candidate slot to this heap,
+         * evicting the least desirable entry if necessary.
+         * Must only be called if {@link #isAcceptable} is true.
+         *
+         * @param  is  candidate slot index
+         */
+        void accept( int is ) {
+            if ( size_ < nrows_ ) {
+                heap_[ size_ ] = is;
+                siftUp( size_++ );
+            }
+            else {
+                spare_ = heap_[ 0 ];
+                heap_[ 0 ] = is;
+                siftDown( 0 );
+            }
+        }
+
+        /**
+         * Offers an entry from another heap for inclusion in this one.
+         *
+         * @param  other  other heap
+         * @param  os   slot index in other heap
+         */
+        void offer( RowHeap other, int os ) {
+            if ( size_ == nrows_ &&
+                 ! isBetter( other, os, this, heap_[ 0 ] ) ) {
+                return;
+            }
+            int is = getCandidateSlot();
+            for ( int ik = 0; ik < types_.length; ik++ ) {
+                switch ( types_[ ik ] ) {
+                    case DOUBLE:
+                        dkeys_[ ik ][ is ] = other.dkeys_[ ik ][ os ];
+                        break;
+                    case LONG:
+                        lkeys_[ ik ][ is ] = other.lkeys_[ ik ][ os ];
+                        lnulls_[ ik ][ is ] = other.lnulls_[ ik ][ os ];
+                        break;
+                    default:
+                        okeys_[ ik ][ is ] = other.okeys_[ ik ][ os ];
+                }
+            }
+            rowIxs_[ is ] = other.rowIxs_[ os ];
+            rows_[ is ] = other.rows_[ os ];
+            accept( is );
+        }
+
+        /**
+         * Returns the occupied slot indices in sort order.
+         * This heap is emptied as a side effect.
+         *
+         * @return  slot index array
+         */
+        int[] getSortedSlots() {
+            int n = size_;
+            int[] slots = new int[ n ];
+            for ( int i = n - 1; i >= 0; i-- ) {
+                slots[ keepHead_ ? i : n - 1 - i ] = heap_[ 0 ];
+                heap_[ 0 ] = heap_[ --size_ ];
+                siftDown( 0 );
+            }
+            return slots;
+        }
+
+        /**
+         * Moves a heap element up to its proper place.
+         *
+         * @param  ih  heap position
+         */
+        private void siftUp( int ih ) {
+            int is = heap_[ ih ];
+            while ( ih > 0 ) {
+                int ip = ( ih - 1 ) >> 1;
+                int ps = heap_[ ip ];
+                if ( isBetter( this, ps, this, is ) ) {
+                    heap_[ ih ] = ps;
+                    ih = ip;
+                }
+                else {
+                    break;
+                }
+            }
+            heap_[ ih ] = is;
+        }
+
+        /**
+         * Moves a heap element down to its proper place.
+         *
+         * @param  ih  heap position
+         */
+        private void siftDown( int ih ) {
+            if ( size_ == 0 ) {
+                return;
+            }
+            int is = heap_[ ih ];
+            int half = size_ >> 1;
+            while ( ih < half ) {
+                int ic = 2 * ih + 1;
+                int cs = heap_[ ic ];
+                int ir = ic + 1;
+                if ( ir < size_ && isBetter( this, cs, this, heap_[ ir ] ) ) {
+                    ic = ir;
+                    cs = heap_[ ic ];
+                }
+                if ( isBetter( this, is, this, cs ) ) {
+                    heap_[ ih ] = cs;
+                    ih = ic;
+                }
+                else {
+                    break;
+                }
+            }
+            heap_[ ih ] = is;
+        }
+    }
+
+    /**
+     * Indicates whether one entry is more desirable for retention
+     * than another.
+     *
+     * @param  h1  heap containing first entry
+     * @param  s1  slot of first entry
+     * @param  h2  heap containing second entry
+     * @param  s2  slot of second entry
+     * @return  true iff entry 1 should be retained in preference to entry 2
+     */
+    private boolean isBetter( RowHeap h1, int s1, RowHeap h2, int s2 ) {
+        int c = compare( h1, s1, h2, s2 );
+        return keepHead_ ? c < 0 : c > 0;
+    }
+
+    /**
+     * Compares two entries according to the collation order.
+     * Since row indices are distinct, entries for different rows
+     * never compare equal.
+     *
+     * @param  h1  heap containing first entry
+     * @param  s1  slot of first entry
+     * @param  h2  heap containing second entry
+     * @param  s2  slot of second entry
+     * @return  negative, zero or positive as entry 1 sorts before,
+     *          the same as, or after entry 2
+     */
+    @SuppressWarnings("unchecked")
+    private int compare( RowHeap h1, int s1, RowHeap h2, int s2 ) {
+        for ( int ik = 0; ik < types_.length; ik++ ) {
+            boolean null1;
+            boolean null2;
+            int c;
+            switch ( types_[ ik ] ) {
+                case DOUBLE:
+                    double d1 = h1.dkeys_[ ik ][ s1 ];
+                    double d2 = h2.dkeys_[ ik ][ s2 ];
+                    null1 = Double.isNaN( d1 );
+                    null2 = Double.isNaN( d2 );
+                    c = null1 || null2 ? 0 : Double.compare( d1, d2 );
+                    break;
+                case LONG:
+                    null1 = h1.lnulls_[ ik ][ s1 ];
+                    null2 = h2.lnulls_[ ik ][ s2 ];
+                    c = null1 || null2
+                      ? 0
+                      : Long.compare( h1.lkeys_[ ik ][ s1 ],
+                                      h2.lkeys_[ ik ][ s2 ] );
+                    break;
+                default:
+                    Object o1 = h1.okeys_[ ik ][ s1 ];
+                    Object o2 = h2.okeys_[ ik ][ s2 ];
+                    null1 = o1 == null;
+                    null2 = o2 == null;
+                    c = null1 || null2 || ! ( o1 instanceof Comparable )
+                      ? 0
+                      : ((Comparable<Object>) o1).compareTo( o2 );
+            }
+            if ( null1 != null2 ) {
+                c = null1 == nullsLast_ ? +1 : -1;
+            }
+            if ( c != 0 ) {
+                return up_ ? c : -c;
+            }
+        }
+        return Long.compare( h1.rowIxs_[ s1 ], h2.rowIxs_[ s2 ] );
+    }
+
+    /**
+     * Converts a non-null integer-like value to a long.
+     *
+     * @param  value  Number, Character or Boolean
+     * @return  long value preserving natural ordering
+     */
+    private static long toLong( Object value ) {
+        if ( value instanceof Number ) {
+            return ((Number) value).longValue();
+        }
+        else if ( value instanceof Character ) {
+            return ((Character) value).charValue();
+        }
+        else {
+            return ((Boolean) value).booleanValue() ? 1 : 0;
+        }
+    }
+
+    /**
+     * Enumerates the ways in which sort key values are stored.
+     */
+    private enum KeyType {
+
+        /** Floating point values, stored as double; NaN means blank. */
+        DOUBLE,
+
+        /** Integer, character or boolean values, stored as long. */
+        LONG,
+
+        /** Other values, which must be mutually Comparable. */
+        OBJECT;
+
+        /**
+         * Returns the key type appropriate for a given value class.
+         *
+         * @param  clazz  expression result type
+         * @return  key type
+         */
+        static KeyType forClass( Class<?> clazz ) {
+            if ( clazz == Double.class || clazz == Float.class ) {
+                return DOUBLE;
+            }
+            else if ( clazz == Long.class || clazz == Integer.class ||
+                      clazz == Short.class || clazz == Byte.class ||
+                      clazz == Character.class || clazz == Boolean.class ) {
+                return LONG;
+            }
+            else {
+                return OBJECT;
+            }
+        }
+    }
+}
@@ -9,6 +9,7 @@ import uk.ac.starlink.table.RowAccess;
 import uk.ac.starlink.table.RowSequence;
 import uk.ac.starlink.table.RowSplittable;
 import uk.ac.starlink.table.StarTable;
+import uk.ac.starlink.table.StoragePolicy;
 import uk.ac.starlink.table.Tables;
 import uk.ac.starlink.table.ValueInfo;
 import uk.ac.starlink.table.WrapperStarTable;
@@ -27,7 +28,7 @@ public class UniqueFilter extends BasicFilter {
                               "Number of duplicate rows" );
 
     public UniqueFilter() {
-        super( "uniq", "[-count] [<colid-list>]" );
+        super( "uniq", "[-count] [-global] [<colid-list>]" );
     }
 
     protected String[] getDescriptionLines() {
@@ -46,6 +47,17 @@ public class UniqueFilter extends BasicFilter {
             "input rows represented by each output row.  A unique row",
             "has a " + COUNT_INFO.getName() + " value of 1.",
             "</p>",
+            "<p>If the <code>-global</code> flag is given, then all rows",
+            "which duplicate an earlier row are removed,",
+            "not just adjacent ones; the first row of each distinct set",
+            "is retained, in its original position.",
+            "This is done by distributing the rows between temporary",
+            "partitions according to a hash of their values,",
+            "so it works for tables of any size, but it requires",
+            "temporary storage as large as the compared columns and",
+            "an extra pass through the data.",
+            "Temporary storage is managed by the default storage policy.",
+            "</p>",
             explainSyntax( new String[] { "colid-list", } ),
         };
     }
@@ -53,12 +65,17 @@ public class UniqueFilter extends BasicFilter {
     public ProcessingStep createStep( Iterator<String> argIt ) {
         String testIds = null;
         boolean count = false;
+        boolean global = false;
         while ( argIt.hasNext() && testIds == null ) {
             String arg = argIt.next();
             if ( arg.equals( "-count" ) ) {
                 argIt.remove();
                 count = true;
             }
+            else if ( arg.equals( "-global" ) ) {
+                argIt.remove();
+                global = true;
+            }
             else {
                 argIt.remove();
                 testIds = arg;
@@ -66,9 +83,11 @@ public class UniqueFilter extends BasicFilter {
         }
         final String tids = testIds;
         final boolean doCount = count;
+        final boolean isGlobal = global;
         return new ProcessingStep() {
             public StarTable wrap( StarTable base ) throws IOException {
-                return new UniqueTable( base, tids, doCount );
+                return isGlobal ? new GlobalUniqueTable( base, tids, doCount )
+                                : new UniqueTable( base, tids, doCount );
             }
         };
     }
@@ -185,6 +204,126 @@ public class UniqueFilter extends BasicFilter {
         }
     }
 
+    /**
+     * Table which removes all rows duplicating an earlier row,
+     * whether adjacent or not.
+     */
+    private static class GlobalUniqueTable extends WrapperStarTable {
+
+        final boolean[] testFlags_;
+        final boolean doCount_;
+        private StarTable distinctRows_;
+
+        GlobalUniqueTable( StarTable base, String testIds, boolean doCount )
+                throws IOException {
+            super( base );
+            if ( testIds == null ) {
+                testFlags_ = new boolean[ base.getColumnCount() ];
+                Arrays.fill( testFlags_, true );
+            }
+            else {
+                testFlags_ = new ColumnIdentifier( base )
+                            .getColumnFlags( testIds );
+            }
+            doCount_ = doCount;
+        }
+
+        public boolean isRandom() {
+            return false;
+        }
+
+        public int getColumnCount() {
+            return super.getColumnCount() + ( doCount_ ? 1 : 0 );
+        }
+
+        public ColumnInfo getColumnInfo( int icol ) {
+            return ( icol == 0 && doCount_ )
+                 ? new ColumnInfo( COUNT_INFO )
+                 : super.getColumnInfo( icol - ( doCount_ ? 1 : 0 ) );
+        }
+
+        public long getRowCount() {
+            return -1L;
+        }
+
+        /**
+         * Returns a table giving the index and duplicate count of
+         * each retained row, calculating it if necessary.
+         *
+         * @return  table with (irow, count) columns
+         */
+        private synchronized StarTable getDistinctRows() throws IOException {
+            if ( distinctRows_ == null ) {
+                distinctRows_ =
+                    new HashDeduplicator( baseTable, testFlags_,
+                                          StoragePolicy.getDefaultPolicy(),
+                                          HashDeduplicator.DFLT_MAX_MEM_ROWS )
+                   .findDistinctRows();
+            }
+            return distinctRows_;
+        }
+
+        public RowSequence getRowSequence() throws IOException {
+            final RowSequence dseq = getDistinctRows().getRowSequence();
+            final RowSequence rseq = super.getRowSequence();
+            final int ncol = super.getColumnCount();
+            final int ioff = doCount_ ? 1 : 0;
+            return new RowSequence() {
+                long irow_ = -1;
+                Object[] row_;
+
+                public boolean next() throws IOException {
+                    if ( ! dseq.next() ) {
+                        row_ = null;
+                        return false;
+                    }
+                    long jrow = ((Long) dseq.getCell( 0 )).longValue();
+                    while ( irow_ < jrow ) {
+                        if ( ! rseq.next() ) {
+                            throw new IOException( "Table changed length" );
+                        }
+                        irow_++;
+                    }
+                    Object[] row = new Object[ ncol + ioff ];
+                    System.arraycopy( rseq.getRow(), 0, row, ioff, ncol );
+                    if ( doCount_ ) {
+                        long count = ((Long) dseq.getCell( 1 )).longValue();
+                        row[ 0 ] = Integer.valueOf( (int)
+                                       Math.min( count, Integer.MAX_VALUE ) );
+                    }
+                    row_ = row;
+                    return true;
+                }
+
+                public Object[] getRow() {
+                    if ( row_ != null ) {
+                        return row_;
+                    }
+                    else {
+                        throw new IllegalStateException();
+                    }
+                }
+
+                public Object getCell( int icol ) {
+                    return getRow()[ icol ];
+                }
+
+                public void close() throws IOException {
+                    dseq.close();
+                    rseq.close();
+                }
+            };
+        }
+
+        public RowAccess getRowAccess() {
+            throw new UnsupportedOperationException( "not random" );
+        }
+
+        public RowSplittable getRowSplittable() throws IOException {
+            return Tables.getDefaultRowSplittable( this );
+        }
+    }
+
     /**
      * Tests whether two values are equal withing the meaning of the act.
      * Nulls and blank values are treated properly.
@@ -193,7 +332,7 @@ public class UniqueFilter extends BasicFilter {
      * @param  o2  object 2
      * @return  true iff o1 is equivalent to o2
      */
-    private static final boolean equalValues( Object o1, Object o2 ) {
+    static boolean equalValues( Object o1, Object o2 ) {
         return ( Tables.isBlank( o1 ) && Tables.isBlank( o2 ) )
             || ( o1 != null && o1.equals( o2 ) );
     }
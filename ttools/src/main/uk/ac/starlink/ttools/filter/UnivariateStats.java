@@ -1,8 +1,10 @@
 package uk.ac.starlink.ttools.filter;
 
+import java.io.IOException;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.function.Supplier;
+import uk.ac.starlink.table.RowData;
 import uk.ac.starlink.table.ValueInfo;
 import uk.ac.starlink.table.Tables;
 
@@ -30,6 +32,25 @@ public abstract class UnivariateStats {
      */
     public abstract void acceptDatum( Object value, long irow );
 
+    /**
+     * Submits the value of a cell in a table row to the statistics
+     * accumulator.  The effect is the same as calling
+     * {@link #acceptDatum} with the cell value, but implementations
+     * may use the typed accessor methods of the row data
+     * to avoid object creation.
+     *
+     * <p>The default implementation calls <code>acceptDatum</code>
+     * with the result of {@link RowData#getCell getCell}.
+     *
+     * @param   row   row data
+     * @param   icol  index of cell within row
+     * @param   irow    row index of input value
+     */
+    public void acceptCell( RowData row, int icol, long irow )
+            throws IOException {
+        acceptDatum( row.getCell( icol ), irow );
+    }
+
     /**
      * Adds the accumulated content of a second UnivariateStats object
      * to this one.
@@ -112,6 +133,16 @@ public abstract class UnivariateStats {
      */
     public abstract int getCardinality();
 
+    /**
+     * Returns an estimate of the number of distinct non-null values
+     * submitted, if it was collected.
+     * Unlike {@link #getCardinality}, this is available however
+     * many distinct values there are, but it is only approximate.
+     *
+     * @return  estimated number of distinct non-null values, or -1
+     */
+    public abstract long getApproxCardinality();
+
     /**
      * Returns a quantiler ready to provide quantile values, or null
      * if quantiles were not gathered.
@@ -137,16 +168,36 @@ public abstract class UnivariateStats {
     public static UnivariateStats createStats( Class<?> clazz,
                                                Supplier<Quantiler> qSupplier,
                                                boolean doCard ) {
- 
+        return createStats( clazz, qSupplier, doCard, false );
+    }
+
+    /**
+     * Factory method to construct an instance of this class for accumulating
+     * particular types of values, optionally estimating cardinality.
+     *
+     * @param  clazz  class of which all submitted values will be instances of
+     *         (if they're not null)
+     * @param  qSupplier  supplier for an object that can calculate quantiles,
+     *                    or null if quantiles are not required
+     * @param  doCard   true if an attempt is to be made to count
+     *                  distinct values
+     * @param  doApproxCard  true if the number of distinct values is to
+     *                       be estimated using a {@link DistinctCounter}
+     * @return   stats accumulator
+     */
+    public static UnivariateStats createStats( Class<?> clazz,
+                                               Supplier<Quantiler> qSupplier,
+                                               boolean doCard,
+                                               boolean doApproxCard ) {
         if ( Number.class.isAssignableFrom( clazz ) ) {
-            return new NumberStats( qSupplier, doCard );
+            return new NumberStats( qSupplier, doCard, doApproxCard );
         }
         else if ( clazz == Boolean.class ) {
             return new BooleanStats();
         }
         else {
             boolean doCompare = Comparable.class.isAssignableFrom( clazz );
-            return new ObjectStats( doCard, doCompare );
+            return new ObjectStats( doCard, doApproxCard, doCompare );
         }
     }
 
@@ -172,6 +223,7 @@ public abstract class UnivariateStats {
         private Set<Object> distincts_;
         private int ndistinct_;
         private final int maxCard_;
+        private final DistinctCounter counter_;
         private Comparable<?> min_;
         private Comparable<?> max_;
         private long minPos_ = -1L;
@@ -181,17 +233,23 @@ public abstract class UnivariateStats {
          * Constructor.
          *
          * @param  doCard   whether to count distinct values
+         * @param  doApproxCard  whether to estimate distinct values
          * @param  doCompare  whether to try to find min/max values
          */
-        ObjectStats( boolean doCard, boolean doCompare ) {
+        ObjectStats( boolean doCard, boolean doApproxCard,
+                     boolean doCompare ) {
             doCompare_ = doCompare;
             distincts_ = doCard ? new HashSet<Object>() : null;
             maxCard_ = MAX_CARDINALITY;
+            counter_ = doApproxCard ? new DistinctCounter() : null;
         }
 
         public void acceptDatum( Object obj, long irow ) {
             if ( ! Tables.isBlank( obj ) ) {
                 nGood_++;
+                if ( counter_ != null ) {
+                    counter_.add( obj );
+                }
                 if ( distincts_ != null ) {
                     if ( ndistinct_ < maxCard_ ) {
                         if ( distincts_.add( obj ) ) {
@@ -250,12 +308,18 @@ public abstract class UnivariateStats {
             if ( distincts_ != null ) {
                 if ( other.distincts_ != null ) {
                     distincts_.addAll( other.distincts_ );
+                    ndistinct_ = distincts_.size();
+                    if ( ndistinct_ > maxCard_ ) {
+                        distincts_ = null;
+                    }
                 }
-                ndistinct_ = distincts_.size();
-                if ( ndistinct_ > maxCard_ ) {
+                else {
                     distincts_ = null;
                 }
             }
+            if ( counter_ != null ) {
+                counter_.addCounter( other.counter_ );
+            }
         }
 
         public long getCount() {
@@ -298,6 +362,10 @@ public abstract class UnivariateStats {
             return distincts_ == null ? -1 : distincts_.size();
         }
 
+        public long getApproxCardinality() {
+            return counter_ == null ? -1L : counter_.getEstimate();
+        }
+
         public Quantiler getQuantiler() {
             return null;
         }
@@ -372,6 +440,10 @@ public abstract class UnivariateStats {
             return card;
         }
 
+        public long getApproxCardinality() {
+            return getCardinality();
+        }
+
         public Quantiler getQuantiler() {
             return null;
         }
@@ -381,6 +453,8 @@ public abstract class UnivariateStats {
      * Stats implementation for Number objects.
      */
     private static class NumberStats extends UnivariateStats {
+        private static final int NEW_MIN = 1;
+        private static final int NEW_MAX = 2;
         private long nGood_;
         private double sum1_;
         private double sum2_;
@@ -396,6 +470,7 @@ public abstract class UnivariateStats {
         private Set<Object> distincts_;
         private int ndistinct_;
         private final int maxCard_;
+        private final DistinctCounter counter_;
 
         /**
          * Constructor.
@@ -403,11 +478,14 @@ public abstract class UnivariateStats {
          * @param  qSupplier  quantile supplier if quantiles are required,
          *                    null if they are not
          * @param  doCard  whether to try to count distinct values
+         * @param  doApproxCard  whether to estimate distinct values
          */
-        public NumberStats( Supplier<Quantiler> qSupplier, boolean doCard ) {
+        public NumberStats( Supplier<Quantiler> qSupplier, boolean doCard,
+                            boolean doApproxCard ) {
             quantiler_ = qSupplier == null ? null : qSupplier.get();
             distincts_ = doCard ? new HashSet<Object>() : null;
             maxCard_ = MAX_CARDINALITY;
+            counter_ = doApproxCard ? new DistinctCounter() : null;
         }
 
         public void acceptDatum( Object obj, long irow ) {
@@ -415,24 +493,12 @@ public abstract class UnivariateStats {
                 Number val = (Number) obj;
                 double dval = val.doubleValue();
                 if ( ! Double.isNaN( dval ) ) {
-                    nGood_++;
-                    double s1 = dval;
-                    double s2 = dval * s1;
-                    double s3 = dval * s2;
-                    double s4 = dval * s3;
-                    sum1_ += s1;
-                    sum2_ += s2;
-                    sum3_ += s3;
-                    sum4_ += s4;
-                    if ( ! ( dval >= dmin_ ) ) {  // note NaN handling
-                        dmin_ = dval;
+                    int flags = acceptDouble( dval, irow );
+                    if ( ( flags & NEW_MIN ) != 0 ) {
                         min_ = val;
-                        minPos_ = irow;
                     }
-                    if ( ! ( dval <= dmax_ ) ) {  // note NaN handling
-                        dmax_ = dval;
+                    if ( ( flags & NEW_MAX ) != 0 ) {
                         max_ = val;
-                        maxPos_ = irow;
                     }
                     if ( distincts_ != null ) {
                         if ( ndistinct_ < maxCard_ ) {
@@ -444,13 +510,79 @@ public abstract class UnivariateStats {
                             distincts_ = null;
                         }
                     }
-                    if ( quantiler_ != null ) {
-                        quantiler_.acceptDatum( dval );
+                    if ( counter_ != null ) {
+                        counter_.add( val );
+                    }
+                }
+            }
+        }
+
+        /**
+         * Uses the typed numeric value of the cell, unless distinct
+         * values are being counted, which requires the value object.
+         * The value object is only read if it is a new extremum.
+         */
+        @Override
+        public void acceptCell( RowData row, int icol, long irow )
+                throws IOException {
+            if ( distincts_ != null || counter_ != null ) {
+                acceptDatum( row.getCell( icol ), irow );
+            }
+            else {
+                double dval = row.getDouble( icol );
+                if ( ! Double.isNaN( dval ) ) {
+                    int flags = acceptDouble( dval, irow );
+                    if ( flags != 0 ) {
+                        Number val = (Number) row.getCell( icol );
+                        if ( ( flags & NEW_MIN ) != 0 ) {
+                            min_ = val;
+                        }
+                        if ( ( flags & NEW_MAX ) != 0 ) {
+                            max_ = val;
+                        }
                     }
                 }
             }
         }
 
+        /**
+         * Accumulates the sums, quantiles and extremum values
+         * for a non-NaN value.
+         * The caller is responsible for updating the minimum and maximum
+         * value objects if indicated by the return value.
+         *
+         * @param  dval  numeric value, not NaN
+         * @param  irow  row index of value
+         * @return  bitmask of NEW_MIN and NEW_MAX flags, indicating
+         *          whether the value is a new minimum or maximum
+         */
+        private int acceptDouble( double dval, long irow ) {
+            nGood_++;
+            double s1 = dval;
+            double s2 = dval * s1;
+            double s3 = dval * s2;
+            double s4 = dval * s3;
+            sum1_ += s1;
+            sum2_ += s2;
+            sum3_ += s3;
+            sum4_ += s4;
+            int flags = 0;
+            if ( ! ( dval >= dmin_ ) ) {  // note NaN handling
+                dmin_ = dval;
+                minPos_ = irow;
+                flags |= NEW_MIN;
+            }
+            if ( ! ( dval <= dmax_ ) ) {  // note NaN handling
+                dmax_ = dval;
+                maxPos_ = irow;
+                flags |= NEW_MAX;
+            }
+            if ( quantiler_ != null ) {
+                quantiler_.acceptDatum( dval );
+            }
+            return flags;
+        }
+
         public void addStats( UnivariateStats o ) {
             NumberStats other = (NumberStats) o;
             nGood_ += other.nGood_;
@@ -471,12 +603,18 @@ public abstract class UnivariateStats {
             if ( distincts_ != null ) {
                 if ( other.distincts_ != null ) {
                     distincts_.addAll( other.distincts_ );
+                    ndistinct_ = distincts_.size();
+                    if ( ndistinct_ > maxCard_ ) {
+                        distincts_ = null;
+                    }
                 }
-                ndistinct_ = distincts_.size();
-                if ( ndistinct_ > maxCard_ ) {
+                else {
                     distincts_ = null;
                 }
             }
+            if ( counter_ != null ) {
+                counter_.addCounter( other.counter_ );
+            }
             if ( quantiler_ != null ) {
                 quantiler_.addQuantiler( other.quantiler_ );
             }
@@ -522,6 +660,10 @@ public abstract class UnivariateStats {
             return distincts_ == null ? -1 : distincts_.size();
         }
 
+        public long getApproxCardinality() {
+            return counter_ == null ? -1L : counter_.getEstimate();
+        }
+
         public Quantiler getQuantiler() {
             if ( quantiler_ != null ) {
                 quantiler_.ready();
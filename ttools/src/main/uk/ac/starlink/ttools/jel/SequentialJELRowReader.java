@@ -2,6 +2,7 @@ package uk.ac.starlink.ttools.jel;
 
 import java.io.IOException;
 import java.util.function.LongSupplier;
+import uk.ac.starlink.table.RowData;
 import uk.ac.starlink.table.RowSequence;
 import uk.ac.starlink.table.RowSplittable;
 import uk.ac.starlink.table.StarTable;
@@ -67,6 +68,13 @@ public class SequentialJELRowReader extends StarTableJELRowReader
         return rseq_.getRow();
     } 
 
+    /**
+     * Returns the underlying row sequence.
+     */
+    protected RowData getRowData() {
+        return rseq_;
+    }
+
     public boolean next() throws IOException {
         lrow_++;
         return rseq_.next();
@@ -8,6 +8,7 @@ import java.util.logging.Logger;
 import java.util.regex.Pattern;
 import uk.ac.starlink.table.ColumnInfo;
 import uk.ac.starlink.table.DescribedValue;
+import uk.ac.starlink.table.RowData;
 import uk.ac.starlink.table.StarTable;
 import uk.ac.starlink.table.Tables;
 
@@ -121,6 +122,24 @@ public abstract class StarTableJELRowReader extends JELRowReader {
      */
     protected abstract Object getCell( int icol ) throws IOException;
 
+    /**
+     * Returns an object supplying typed access to the cells of the
+     * current row, if one is available.
+     * If non-null, its typed accessor methods such as
+     * {@link RowData#getDouble getDouble} are used in preference to
+     * {@link #getCell getCell} when evaluating primitive-valued columns,
+     * which can avoid object creation.
+     * Its cell values must be the same as those returned by
+     * <code>getCell</code>.
+     *
+     * <p>The default implementation returns null.
+     *
+     * @return  row data for the current row, or null
+     */
+    protected RowData getRowData() {
+        return null;
+    }
+
     /**
      * Returns the index of the row on which evaluations are currently
      * taking place.
@@ -370,28 +389,54 @@ public abstract class StarTableJELRowReader extends JELRowReader {
     }
 
     protected boolean getBooleanColumnValue( int icol ) {
+        RowData rdata = getRowData();
+        if ( rdata != null ) {
+            try {
+                boolean bval = rdata.getBoolean( icol );
+                if ( bval || ! rdata.isNull( icol ) ) {
+                    return bval;
+                }
+            }
+            catch ( IOException e ) {
+                logger_.warning( "Expression evaluation error: " + e );
+            }
+            foundNull();
+            return false;
+        }
         return getBooleanValue( (Boolean) getCellValue( icol ) );
     }
     protected byte getByteColumnValue( int icol ) {
-        return getByteValue( (Byte) getCellValue( icol ) );
+        return getRowData() != null
+             ? (byte) getLongCellValue( icol )
+             : getByteValue( (Byte) getCellValue( icol ) );
     }
     protected char getCharColumnValue( int icol ) {
         return getCharValue( (Character) getCellValue( icol ) );
     }
     protected short getShortColumnValue( int icol ) {
-        return getShortValue( (Short) getCellValue( icol ) );
+        return getRowData() != null
+             ? (short) getLongCellValue( icol )
+             : getShortValue( (Short) getCellValue( icol ) );
     }
     protected int getIntColumnValue( int icol ) {
-        return getIntValue( (Integer) getCellValue( icol ) );
+        return getRowData() != null
+             ? (int) getLongCellValue( icol )
+             : getIntValue( (Integer) getCellValue( icol ) );
     }
     protected long getLongColumnValue( int icol ) {
-        return getLongValue( (Long) getCellValue( icol ) );
+        return getRowData() != null
+             ? getLongCellValue( icol )
+             : getLongValue( (Long) getCellValue( icol ) );
     }
     protected float getFloatColumnValue( int icol ) {
-        return getFloatValue( (Float) getCellValue( icol ) );
+        return getRowData() != null
+             ? (float) getDoubleCellValue( icol )
+             : getFloatValue( (Float) getCellValue( icol ) );
     }
     protected double getDoubleColumnValue( int icol ) {
-        return getDoubleValue( (Double) getCellValue( icol ) );
+        return getRowData() != null
+             ? getDoubleCellValue( icol )
+             : getDoubleValue( (Double) getCellValue( icol ) );
     }
     protected Object getObjectColumnValue( int icol ) {
         return getCellValue( icol );
@@ -414,6 +459,49 @@ public abstract class StarTableJELRowReader extends JELRowReader {
         }
     }
 
+    /**
+     * Returns the value of a floating point cell in the current row
+     * using the typed row data, without throwing checked errors.
+     *
+     * @param   icol  column index
+     * @return  cell value, or NaN for null
+     */
+    private double getDoubleCellValue( int icol ) {
+        try {
+            return getRowData().getDouble( icol );
+        }
+        catch ( IOException e ) {
+            logger_.warning( "Expression evaluation error: " + e );
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Returns the value of an integer cell in the current row
+     * using the typed row data, without throwing checked errors.
+     * If the value is null, {@link #foundNull} is called.
+     * Since blank values are reported as zero, the nullness is only
+     * checked in that case; this avoids reading the cell twice when
+     * the row data has to fall back to <code>getCell</code>.
+     *
+     * @param   icol  column index
+     * @return  cell value
+     */
+    private long getLongCellValue( int icol ) {
+        RowData rdata = getRowData();
+        try {
+            long lval = rdata.getLong( icol );
+            if ( lval != 0 || ! rdata.isNull( icol ) ) {
+                return lval;
+            }
+        }
+        catch ( IOException e ) {
+            logger_.warning( "Expression evaluation error: " + e );
+        }
+        foundNull();
+        return 0L;
+    }
+
     /**
      * Takes a (non-prefixed) UCD specification and returns a Pattern
      * actual UCDs should match if they represent the same thing.
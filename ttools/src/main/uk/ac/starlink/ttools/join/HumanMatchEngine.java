@@ -4,6 +4,7 @@ import java.util.logging.Logger;
 import uk.ac.starlink.table.DefaultValueInfo;
 import uk.ac.starlink.table.DescribedValue;
 import uk.ac.starlink.table.ValueInfo;
+import uk.ac.starlink.table.join.LongBinMatchEngine;
 import uk.ac.starlink.table.join.MatchEngine;
 import uk.ac.starlink.table.join.NdRange;
 import uk.ac.starlink.ttools.func.CoordsRadians;
@@ -20,7 +21,7 @@ import uk.ac.starlink.ttools.func.CoordsRadians;
  * @author   Mark Taylor
  * @since    2 Sep 2005
  */
-public class HumanMatchEngine implements MatchEngine {
+public class HumanMatchEngine implements LongBinMatchEngine {
 
     private final MatchEngine baseEngine_;
     private final ValueInfo[] tupleInfos_;
@@ -101,6 +102,16 @@ public class HumanMatchEngine implements MatchEngine {
         return baseEngine_.getBins( unwrapTuple( tuple ) );
     }
 
+    public boolean canBinLongs() {
+        return baseEngine_ instanceof LongBinMatchEngine &&
+               ((LongBinMatchEngine) baseEngine_).canBinLongs();
+    }
+
+    public long[] getLongBins( Object[] tuple ) {
+        return ((LongBinMatchEngine) baseEngine_)
+              .getLongBins( unwrapTuple( tuple ) );
+    }
+
     public double matchScore( Object[] tuple1, Object[] tuple2 ) {
         return scoreWrapper_
               .wrapDouble( baseEngine_.matchScore( unwrapTuple( tuple1 ),
@@ -2,11 +2,13 @@ package uk.ac.starlink.ttools.join;
 
 import gnu.jel.CompilationException;
 import uk.ac.starlink.table.JoinFixAction;
+import uk.ac.starlink.table.RowRunner;
 import uk.ac.starlink.table.ValueInfo;
 import uk.ac.starlink.table.join.JoinType;
 import uk.ac.starlink.table.join.MatchEngine;
 import uk.ac.starlink.table.join.PairMode;
 import uk.ac.starlink.table.join.ProgressIndicator;
+import uk.ac.starlink.task.BooleanParameter;
 import uk.ac.starlink.task.Environment;
 import uk.ac.starlink.task.ExecutionException;
 import uk.ac.starlink.task.Parameter;
@@ -14,6 +16,8 @@ import uk.ac.starlink.task.TaskException;
 import uk.ac.starlink.task.UsageException;
 import uk.ac.starlink.ttools.task.InputTableSpec;
 import uk.ac.starlink.ttools.task.JoinFixActionParameter;
+import uk.ac.starlink.ttools.task.LineTableEnvironment;
+import uk.ac.starlink.ttools.task.RowRunnerParameter;
 import uk.ac.starlink.ttools.task.TableMapper;
 import uk.ac.starlink.ttools.task.TableMapping;
 import uk.ac.starlink.ttools.task.WordsParameter;
@@ -32,6 +36,8 @@ public class Match2Mapper implements TableMapper {
     private final FindModeParameter modeParam_;
     private final JoinFixActionParameter fixcolParam_;
     private final ProgressIndicatorParameter progressParam_;
+    private final RowRunnerParameter runnerParam_;
+    private final BooleanParameter linkstoreParam_;
 
     /**
      * Constructor.
@@ -46,6 +52,8 @@ public class Match2Mapper implements TableMapper {
         joinParam_ = new JoinTypeParameter( "join" );
         modeParam_ = new FindModeParameter( "find" );
         progressParam_ = new ProgressIndicatorParameter( "progress" );
+        runnerParam_ = new RowRunnerParameter( "runner" );
+        linkstoreParam_ = createLinkStoreParameter();
     }
 
     public Parameter<?>[] getParameters() {
@@ -62,6 +70,8 @@ public class Match2Mapper implements TableMapper {
             fixcolParam_.createSuffixParameter( "2" ),
             matcherParam_.getScoreParameter(),
             progressParam_,
+            runnerParam_,
+            linkstoreParam_,
         };
     }
 
@@ -87,10 +97,45 @@ public class Match2Mapper implements TableMapper {
         ValueInfo scoreInfo = matcherParam_.getScoreInfo( env );
         ProgressIndicator progger =
             progressParam_.progressIndicatorValue( env );
+        RowRunner runner = runnerParam_.objectValue( env );
 
         /* Construct and return a mapping based on this lot. */
-        return new Match2Mapping( matcher, tupleExprs[ 0 ], tupleExprs[ 1 ],
-                                  join, pairMode, fixacts[ 0 ], fixacts[ 1 ],
-                                  scoreInfo, progger );
+        Match2Mapping mapping =
+            new Match2Mapping( matcher, tupleExprs[ 0 ], tupleExprs[ 1 ],
+                               join, pairMode, fixacts[ 0 ], fixacts[ 1 ],
+                               scoreInfo, progger, runner );
+        if ( linkstoreParam_.booleanValue( env ) ) {
+            mapping.setLinkStorage( LineTableEnvironment
+                                   .getStoragePolicy( env ) );
+        }
+        return mapping;
+    }
+
+    /**
+     * Returns a parameter which determines whether pair match results
+     * are spilled to storage rather than held on the heap.
+     *
+     * @return  new link storage parameter
+     */
+    static BooleanParameter createLinkStoreParameter() {
+        BooleanParameter param = new BooleanParameter( "linkstore" );
+        param.setPrompt( "Spill match results to storage?" );
+        param.setDescription( new String[] {
+            "<p>If true, the matched pairs are written to scratch storage",
+            "as they are found, rather than being held in memory.",
+            "The storage used is determined by the",
+            "default storage policy.",
+            "This can reduce the memory required for matches",
+            "that produce a very large number of pairs,",
+            "at the cost of some additional I/O.",
+            "For <code>find</code> modes that select the best match,",
+            "the candidate pairs are also sorted by score in storage.",
+            "The rows of the output table are the same,",
+            "but for some values of <code>join</code>",
+            "they may appear in a different order.",
+            "</p>",
+        } );
+        param.setBooleanDefault( false );
+        return param;
     }
 }
@@ -4,7 +4,9 @@ import java.io.IOException;
 import java.io.PrintStream;
 import java.util.logging.Logger;
 import uk.ac.starlink.table.JoinFixAction;
+import uk.ac.starlink.table.RowRunner;
 import uk.ac.starlink.table.StarTable;
+import uk.ac.starlink.table.StoragePolicy;
 import uk.ac.starlink.table.Tables;
 import uk.ac.starlink.table.ValueInfo;
 import uk.ac.starlink.table.join.JoinType;
@@ -14,6 +16,7 @@ import uk.ac.starlink.table.join.MatchStarTables;
 import uk.ac.starlink.table.join.PairMode;
 import uk.ac.starlink.table.join.ProgressIndicator;
 import uk.ac.starlink.table.join.RowMatcher;
+import uk.ac.starlink.table.join.StorageLinkSet;
 import uk.ac.starlink.task.ExecutionException;
 import uk.ac.starlink.task.TaskException;
 import uk.ac.starlink.ttools.jel.JELTable;
@@ -36,6 +39,8 @@ public class Match2Mapping implements TableMapping {
     final JoinType join_;
     final ValueInfo scoreInfo_;
     final ProgressIndicator progger_;
+    final RowRunner runner_;
+    private StoragePolicy linkStorage_;
 
     private static final Logger logger =
         Logger.getLogger( "uk.ac.starlink.ttools.task" );
@@ -59,11 +64,13 @@ public class Match2Mapping implements TableMapping {
      * @param   scoreInfo  column description for inter-table match score
      *                     values, or null for no score column
      * @param   progger    progress indicator for matching
+     * @param   runner     controls parallel execution of the match
      */
     Match2Mapping( MatchEngine matchEngine, String[] exprTuple1,
                    String[] exprTuple2, JoinType join, PairMode pairMode,
                    JoinFixAction fixact1, JoinFixAction fixact2,
-                   ValueInfo scoreInfo, ProgressIndicator progger ) {
+                   ValueInfo scoreInfo, ProgressIndicator progger,
+                   RowRunner runner ) {
         matchEngine_ = matchEngine;
         exprTuple1_ = exprTuple1;
         exprTuple2_ = exprTuple2;
@@ -72,6 +79,19 @@ public class Match2Mapping implements TableMapping {
         fixacts_ = new JoinFixAction[] { fixact1, fixact2, };
         scoreInfo_ = scoreInfo;
         progger_ = progger;
+        runner_ = runner;
+    }
+
+    /**
+     * Sets the storage policy used for the pair match results.
+     * If non-null, matched pairs are spilled to storage as they are found
+     * rather than accumulated on the heap.  The default is null.
+     *
+     * @param  linkStorage  storage policy for match results,
+     *                      or null for in-memory storage
+     */
+    public void setLinkStorage( StoragePolicy linkStorage ) {
+        linkStorage_ = linkStorage;
     }
 
     public StarTable mapTables( InputTableSpec[] inSpecs )
@@ -96,8 +116,10 @@ public class Match2Mapping implements TableMapping {
         /* Do the match. */
         RowMatcher matcher =
             new RowMatcher( matchEngine_,
-                            new StarTable[] { subTable1, subTable2 } );
+                            new StarTable[] { subTable1, subTable2 },
+                            runner_ );
         matcher.setIndicator( progger_ );
+        matcher.setLinkStorage( linkStorage_ );
         LinkSet matches;
         try {
             matches = matcher.findPairMatches( pairMode_ );
@@ -111,10 +133,19 @@ public class Match2Mapping implements TableMapping {
         }
         boolean addGroups = pairMode_.mayProduceGroups();
 
-        /* Create a new table from the result and return. */
-        return MatchStarTables.makeJoinTable( inTable1, inTable2, matches,
-                                              join_, addGroups, fixacts_,
-                                              scoreInfo_ );
+        /* Create a new table from the result and return.
+         * The join table takes its own copy of the links, so any
+         * scratch storage used by the link set can be released. */
+        try {
+            return MatchStarTables.makeJoinTable( inTable1, inTable2, matches,
+                                                  join_, addGroups, fixacts_,
+                                                  scoreInfo_ );
+        }
+        finally {
+            if ( matches instanceof StorageLinkSet ) {
+                ((StorageLinkSet) matches).close();
+            }
+        }
     }
 
     /**
@@ -2,6 +2,7 @@ package uk.ac.starlink.ttools.join;
 
 import java.io.PrintStream;
 import uk.ac.starlink.table.JoinFixAction;
+import uk.ac.starlink.table.RowRunner;
 import uk.ac.starlink.table.join.CdsHealpixSkyPixellator;
 import uk.ac.starlink.table.join.FixedSkyMatchEngine;
 import uk.ac.starlink.table.join.HealpixSkyPixellator;
@@ -10,6 +11,7 @@ import uk.ac.starlink.table.join.NullProgressIndicator;
 import uk.ac.starlink.table.join.PairMode;
 import uk.ac.starlink.table.join.ProgressIndicator;
 import uk.ac.starlink.table.join.TextProgressIndicator;
+import uk.ac.starlink.task.BooleanParameter;
 import uk.ac.starlink.task.DoubleParameter;
 import uk.ac.starlink.task.Environment;
 import uk.ac.starlink.task.IntegerParameter;
@@ -17,6 +19,8 @@ import uk.ac.starlink.task.Parameter;
 import uk.ac.starlink.task.ParameterValueException;
 import uk.ac.starlink.task.TaskException;
 import uk.ac.starlink.ttools.func.CoordsRadians;
+import uk.ac.starlink.ttools.task.LineTableEnvironment;
+import uk.ac.starlink.ttools.task.RowRunnerParameter;
 import uk.ac.starlink.ttools.task.SkyCoordParameter;
 import uk.ac.starlink.ttools.task.TableMapper;
 import uk.ac.starlink.ttools.task.TableMapping;
@@ -35,6 +39,8 @@ public class SkyMatch2Mapper implements TableMapper {
     private final JoinTypeParameter joinParam_;
     private final FindModeParameter modeParam_;
     private final IntegerParameter healpixkParam_;
+    private final RowRunnerParameter runnerParam_;
+    private final BooleanParameter linkstoreParam_;
 
     /**
      * Constructor.
@@ -89,6 +95,8 @@ public class SkyMatch2Mapper implements TableMapper {
 
         joinParam_ = new JoinTypeParameter( "join" );
         modeParam_ = new FindModeParameter( "find" );
+        runnerParam_ = new RowRunnerParameter( "runner" );
+        linkstoreParam_ = Match2Mapper.createLinkStoreParameter();
     }
 
     public Parameter<?>[] getParameters() {
@@ -101,6 +109,8 @@ public class SkyMatch2Mapper implements TableMapper {
             healpixkParam_,
             joinParam_,
             modeParam_,
+            runnerParam_,
+            linkstoreParam_,
         }; 
     }
 
@@ -126,6 +136,7 @@ public class SkyMatch2Mapper implements TableMapper {
         pixer.setHealpixK( k );
         JoinType join = joinParam_.joinTypeValue( env );
         PairMode pairMode = modeParam_.objectValue( env );
+        RowRunner runner = runnerParam_.objectValue( env );
 
         JoinFixAction fixact1 =
             JoinFixAction.makeRenameDuplicatesAction( "_1", false, true );
@@ -136,7 +147,14 @@ public class SkyMatch2Mapper implements TableMapper {
             err == null
                 ? (ProgressIndicator) new NullProgressIndicator()
                 : (ProgressIndicator) new TextProgressIndicator( err, false );
-        return new SkyMatch2Mapping( matcher, ra1, dec1, ra2, dec2, join,
-                                     pairMode, fixact1, fixact2, progger );
+        SkyMatch2Mapping mapping =
+            new SkyMatch2Mapping( matcher, ra1, dec1, ra2, dec2, join,
+                                  pairMode, fixact1, fixact2, progger,
+                                  runner );
+        if ( linkstoreParam_.booleanValue( env ) ) {
+            mapping.setLinkStorage( LineTableEnvironment
+                                   .getStoragePolicy( env ) );
+        }
+        return mapping;
     }
 }
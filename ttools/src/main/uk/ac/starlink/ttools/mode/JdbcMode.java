@@ -3,10 +3,12 @@ package uk.ac.starlink.ttools.mode;
 import java.util.logging.Logger;
 import uk.ac.starlink.table.StarTable;
 import uk.ac.starlink.table.jdbc.JDBCAuthenticator;
+import uk.ac.starlink.table.jdbc.JDBCFormatter;
 import uk.ac.starlink.table.jdbc.JDBCHandler;
 import uk.ac.starlink.table.jdbc.WriteMode;
 import uk.ac.starlink.task.ChoiceParameter;
 import uk.ac.starlink.task.Environment;
+import uk.ac.starlink.task.IntegerParameter;
 import uk.ac.starlink.task.Parameter;
 import uk.ac.starlink.task.StringParameter;
 import uk.ac.starlink.task.TaskException;
@@ -28,6 +30,10 @@ public class JdbcMode implements ProcessingMode {
     private final ChoiceParameter<WriteMode> writeParam_;
     private final StringParameter userParam_;
     private final StringParameter passwdParam_;
+    private final IntegerParameter batchParam_;
+    private final IntegerParameter commitParam_;
+    private final IntegerParameter insertrowsParam_;
+    private final IntegerParameter nconnParam_;
 
     private final static Logger logger_ =
         Logger.getLogger( "uk.ac.starlink.table.jdbc" );
@@ -128,6 +134,66 @@ public class JdbcMode implements ProcessingMode {
             "<p>Password for the SQL connection to the database.",
             "</p>",
         } );
+
+        batchParam_ = new IntegerParameter( "batchsize" );
+        batchParam_.setPrompt( "Number of rows per JDBC batch" );
+        batchParam_.setUsage( "<nrow>" );
+        batchParam_.setIntDefault( JDBCFormatter.DFLT_BATCH_SIZE );
+        batchParam_.setDescription( new String[] {
+            "<p>The number of rows sent to the database in each",
+            "JDBC batch update.",
+            "Larger values usually write faster.",
+            "A value of 1 or less means that each INSERT is",
+            "executed separately.",
+            "Batching is not used if the driver does not support it.",
+            "</p>",
+        } );
+
+        commitParam_ = new IntegerParameter( "commitrows" );
+        commitParam_.setPrompt( "Number of rows per transaction" );
+        commitParam_.setUsage( "<nrow>" );
+        commitParam_.setIntDefault( 0 );
+        commitParam_.setMinimum( 0 );
+        commitParam_.setDescription( new String[] {
+            "<p>If positive, auto-commit is turned off while writing,",
+            "and a commit is made after approximately every",
+            "<code>&lt;nrow&gt;</code> rows and at the end.",
+            "If zero, the driver's default auto-commit behaviour is used.",
+            "</p>",
+        } );
+
+        insertrowsParam_ = new IntegerParameter( "insertrows" );
+        insertrowsParam_.setPrompt( "Number of rows per INSERT statement" );
+        insertrowsParam_.setUsage( "<nrow>" );
+        insertrowsParam_.setIntDefault( 1 );
+        insertrowsParam_.setMinimum( 1 );
+        insertrowsParam_.setDescription( new String[] {
+            "<p>The number of rows inserted by each INSERT statement.",
+            "If greater than 1, multi-row",
+            "<code>INSERT ... VALUES (...), (...), ...</code>",
+            "statements are used, so that the data is streamed to the",
+            "database in large blocks.",
+            "This is often much faster than single-row inserts,",
+            "but is not supported by all databases.",
+            "</p>",
+        } );
+
+        nconnParam_ = new IntegerParameter( "nconn" );
+        nconnParam_.setPrompt( "Number of parallel writer connections" );
+        nconnParam_.setUsage( "<n>" );
+        nconnParam_.setIntDefault( 1 );
+        nconnParam_.setMinimum( 1 );
+        nconnParam_.setDescription( new String[] {
+            "<p>The number of database connections used to write",
+            "rows in parallel.",
+            "If greater than 1, the rows of the table are divided",
+            "between that many connections, each writing its share",
+            "concurrently, so rows will not in general be written",
+            "in order.",
+            "Each connection commits separately,",
+            "so a failure may leave some of the rows written.",
+            "</p>",
+        } );
     }
 
     public Parameter<?>[] getAssociatedParameters() {
@@ -139,6 +205,10 @@ public class JdbcMode implements ProcessingMode {
             writeParam_,
             userParam_,
             passwdParam_,
+            batchParam_,
+            commitParam_,
+            insertrowsParam_,
+            nconnParam_,
         };
     }
 
@@ -171,6 +241,11 @@ public class JdbcMode implements ProcessingMode {
                 return new String[] { user, passwd };
             }
         };
-        return new JdbcConsumer( url, new JDBCHandler( auth ), mode );
+        JDBCHandler handler = new JDBCHandler( auth );
+        handler.setBatchSize( batchParam_.intValue( env ) );
+        handler.setCommitInterval( commitParam_.intValue( env ) );
+        handler.setRowsPerInsert( insertrowsParam_.intValue( env ) );
+        handler.setWriterCount( nconnParam_.intValue( env ) );
+        return new JdbcConsumer( url, handler, mode );
     }
 }
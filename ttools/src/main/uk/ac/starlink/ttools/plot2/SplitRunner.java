@@ -53,6 +53,17 @@ public abstract class SplitRunner<S extends Splittable<S>> {
      */
     public abstract boolean willAttemptSplit( S content );
 
+    /**
+     * Returns the maximum number of threads that this runner
+     * may use concurrently.
+     * The default implementation returns 1.
+     *
+     * @return  parallelism
+     */
+    public int getParallelism() {
+        return 1;
+    }
+
     /**
      * Returns an instance that uses SplitProcessor instances in the normal way
      * with the default concurrency policy.
@@ -82,6 +93,10 @@ public abstract class SplitRunner<S extends Splittable<S>> {
                       return policy.willAttemptSplit( content );
                   }
                   @Override
+                  public int getParallelism() {
+                      return policy.getForkJoinPool().getParallelism();
+                  }
+                  @Override
                   public String toString() {
                       return "Standard[" + policy + "]";
                   }
@@ -111,6 +126,10 @@ public abstract class SplitRunner<S extends Splittable<S>> {
                 return policy.willAttemptSplit( content );
             }
             @Override
+            public int getParallelism() {
+                return policy.getForkJoinPool().getParallelism();
+            }
+            @Override
             public String toString() {
                 return "Bench[" + policy + "]";
             }
@@ -144,23 +163,27 @@ public abstract class SplitRunner<S extends Splittable<S>> {
      */
     private static SplitPolicy createDefaultPolicy() {
 
-        /* Use the common ForkJoinPool.  The parallelism for this
+        /* Use the default pool, determined at execution time.
+         * By default this is the common ForkJoinPool, whose parallelism
          * may be set using the system property
-         * java.util.concurrent.ForkJoinPool.common.parallelism. */
-        ForkJoinPool fjPool = ForkJoinPool.commonPool();
+         * java.util.concurrent.ForkJoinPool.common.parallelism,
+         * but a dedicated pool may be configured using SplitPools. */
+        ForkJoinPool fjPool = null;
 
         /* The range suggested in the ForkJoinTask javadocs is 1e2-1e4,
          * so this is conservative; but for plots with fewer than 1e5
          * rows the plotting is in most cases usually 'fast enough'
          * for interactive use; we stick with sequential computation in
-         * those cases because there's less to go wrong. */
-        int minTaskSize = 100_000;
+         * those cases because there's less to go wrong.
+         * The default value (1e5) may be overridden by system property. */
+        int minTaskSize = 0;
 
         /* The value 8 is suggested by the example in the Spliterator javadocs.
          * Since accumulator creation may in some cases be expensive,
          * and accumulator pooling is not always used even in those cases,
-         * we do want to restrict the total number of tasks. */
-        short maxTasksPerCore = 8;
+         * we do want to restrict the total number of tasks.
+         * The default value (8) may be overridden by system property. */
+        short maxTasksPerCore = -1;
 
         /* Return default policy. */
         SplitPolicy policy =
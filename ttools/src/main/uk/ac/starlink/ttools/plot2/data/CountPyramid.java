@@ -0,0 +1,207 @@
+package uk.ac.starlink.ttools.plot2.data;
+
+/**
+ * Multi-resolution grid of point counts in data space.
+ * Each level of the pyramid is a sparse list of occupied cells with
+ * the number of data positions falling in each.
+ * Cells at level <code>k</code> are identified by integer keys
+ * arranged so that the parent cell at level <code>k-1</code>
+ * has key <code>key&gt;&gt;2</code>;
+ * within each level keys are stored in ascending order.
+ *
+ * <p>Concrete subclasses define the geometry, that is the relationship
+ * between cell keys and positions in data space.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+public abstract class CountPyramid {
+
+    private final int dataDimCount_;
+    private final int[][] keys_;
+    private final int[][] counts_;
+    private final long pointCount_;
+
+    /**
+     * Constructor.  The coarser levels are calculated from the
+     * supplied finest level.
+     *
+     * @param  dataDimCount  dimensionality of data positions
+     * @param  maxLevel   index of the finest level
+     * @param  grid   dense array of point counts for the finest level,
+     *                indexed by cell key
+     */
+    protected CountPyramid( int dataDimCount, int maxLevel, int[] grid ) {
+        dataDimCount_ = dataDimCount;
+        keys_ = new int[ maxLevel + 1 ][];
+        counts_ = new int[ maxLevel + 1 ][];
+
+        /* Compact the dense finest level to a sparse list. */
+        int nc = 0;
+        long npoint = 0;
+        for ( int c : grid ) {
+            if ( c != 0 ) {
+                nc++;
+                npoint += c;
+            }
+        }
+        int[] keys = new int[ nc ];
+        int[] counts = new int[ nc ];
+        int ic = 0;
+        for ( int key = 0; key < grid.length; key++ ) {
+            int c = grid[ key ];
+            if ( c != 0 ) {
+                keys[ ic ] = key;
+                counts[ ic ] = c;
+                ic++;
+            }
+        }
+        keys_[ maxLevel ] = keys;
+        counts_[ maxLevel ] = counts;
+        pointCount_ = npoint;
+
+        /* Aggregate each level to get its parent.  Since children of
+         * the same parent are adjacent in key order, this is a single
+         * pass merging runs of equal parent keys. */
+        for ( int level = maxLevel - 1; level >= 0; level-- ) {
+            int[] ckeys = keys_[ level + 1 ];
+            int[] ccounts = counts_[ level + 1 ];
+            int[] pkeys = new int[ ckeys.length ];
+            int[] pcounts = new int[ ckeys.length ];
+            int np = 0;
+            for ( int i = 0; i < ckeys.length; i++ ) {
+                int pkey = ckeys[ i ] >>> 2;
+                if ( np > 0 && pkeys[ np - 1 ] == pkey ) {
+                    pcounts[ np - 1 ] = addCounts( pcounts[ np - 1 ],
+                                                   ccounts[ i ] );
+                }
+                else {
+                    pkeys[ np ] = pkey;
+                    pcounts[ np ] = ccounts[ i ];
+                    np++;
+                }
+            }
+            keys_[ level ] = trim( pkeys, np );
+            counts_[ level ] = trim( pcounts, np );
+        }
+    }
+
+    /**
+     * Returns the dimensionality of the data positions represented
+     * by this pyramid.
+     *
+     * @return  data dimension count
+     */
+    public int getDataDimCount() {
+        return dataDimCount_;
+    }
+
+    /**
+     * Returns the index of the finest level in this pyramid.
+     *
+     * @return  maximum level
+     */
+    public int getMaxLevel() {
+        return keys_.length - 1;
+    }
+
+    /**
+     * Returns the total number of points represented by this pyramid.
+     *
+     * @return  point count
+     */
+    public long getPointCount() {
+        return pointCount_;
+    }
+
+    /**
+     * Returns the number of occupied cells at a given level.
+     *
+     * @param  level  level index
+     * @return  number of non-empty cells
+     */
+    public int getCellCount( int level ) {
+        return keys_[ level ].length;
+    }
+
+    /**
+     * Returns the key of an occupied cell at a given level.
+     *
+     * @param  level  level index
+     * @param  icell  index of cell within level,
+     *                in the range 0..getCellCount(level)-1
+     * @return  cell key
+     */
+    public int getCellKey( int level, int icell ) {
+        return keys_[ level ][ icell ];
+    }
+
+    /**
+     * Returns the number of points in an occupied cell at a given level.
+     *
+     * @param  level  level index
+     * @param  icell  index of cell within level,
+     *                in the range 0..getCellCount(level)-1
+     * @return  number of points in cell, or Integer.MAX_VALUE in case
+     *          of overflow
+     */
+    public int getCellPoints( int level, int icell ) {
+        return counts_[ level ][ icell ];
+    }
+
+    /**
+     * Writes the central data position of a given cell into
+     * a supplied array.
+     *
+     * @param  level  level index
+     * @param  key  cell key
+     * @param  dpos  data position array, filled on exit
+     */
+    public abstract void getCellCenter( int level, int key, double[] dpos );
+
+    /**
+     * Adds two counts, saturating at the maximum integer value.
+     *
+     * @param  c1  first count
+     * @param  c2  second count
+     * @return  sum
+     */
+    static int addCounts( int c1, int c2 ) {
+        long sum = (long) c1 + (long) c2;
+        return sum < Integer.MAX_VALUE ? (int) sum : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Adds the contents of one dense count grid into another.
+     *
+     * @param  grid1  destination grid
+     * @param  grid2  grid to add
+     * @return  <code>grid1</code>
+     */
+    static int[] addGrids( int[] grid1, int[] grid2 ) {
+        for ( int i = 0; i < grid1.length; i++ ) {
+            if ( grid2[ i ] != 0 ) {
+                grid1[ i ] = addCounts( grid1[ i ], grid2[ i ] );
+            }
+        }
+        return grid1;
+    }
+
+    /**
+     * Returns an array truncated to a given length.
+     *
+     * @param  array  input array
+     * @param  n  required length
+     * @return   array with the first <code>n</code> elements of the input
+     */
+    private static int[] trim( int[] array, int n ) {
+        if ( n == array.length ) {
+            return array;
+        }
+        else {
+            int[] out = new int[ n ];
+            System.arraycopy( array, 0, out, 0, n );
+            return out;
+        }
+    }
+}
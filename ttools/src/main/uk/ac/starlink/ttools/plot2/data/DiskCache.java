@@ -93,7 +93,7 @@ public class DiskCache {
      */
     public void ready() throws IOException {
         if ( mkdirs( dir_, false ) ) {
-            logger_.log( logLevel_, "Created plot cache directory " + dir_ );
+            logger_.log( logLevel_, "Created cache directory " + dir_ );
             initBaseCacheDir( getNamedAncestor( dir_, CACHE_DIRNAME ) ); 
         }
         if ( ! dir_.isDirectory() || ! dir_.canWrite() ) {
@@ -129,7 +129,7 @@ public class DiskCache {
          * and there is more than that free, then no action is required. */
         if ( limit_ < 0 && freeSpace > -limit_ ) {
             logger_.log( logLevel_,
-                         "Plot cache filesystem free space "
+                         "Cache filesystem free space "
                        + formatByteSize( freeSpace ) + " > "
                        + formatByteSize( -limit_ ) );
             return;
@@ -150,7 +150,7 @@ public class DiskCache {
         long maxSize = limit_ > 0
                      ? limit_
                      : freeSpace + totsize + limit_;
-        log( "Plot cache usage: " + formatByteSize( totsize )
+        log( "Cache usage: " + formatByteSize( totsize )
                           + " / " + formatByteSize( maxSize ) );
 
         /* If actual usage exceeds maximum size, delete files oldest first
@@ -169,11 +169,11 @@ public class DiskCache {
                 long size = fm.size_;
                 if ( file.delete() ) {
                     overSize -= size;
-                    log( "Drop plot cache file " + file
+                    log( "Drop cache file " + file
                        + " (" + formatByteSize( size ) + ")" );
                 }
                 else {
-                    logger_.warning( "Failed to drop plot cache file " + file );
+                    logger_.warning( "Failed to drop cache file " + file );
                 }
             }
         }
@@ -191,7 +191,7 @@ public class DiskCache {
         }
         int nfile = createdFiles_.size();
         return new StringBuffer()
-           .append( "Persistent plot cache data written: " )
+           .append( "Persistent cache data written: " )
            .append( nfile )
            .append( " " )
            .append( nfile == 1 ? "file" : "files" )
@@ -232,7 +232,8 @@ public class DiskCache {
                 new PrintStream( new FileOutputStream( readmeFile ) );
             out.println( "This directory holds persistent cached data" );
             out.println( "for use by the STILTS application." );
-            out.println( "It's probably related to plotting operations." );
+            out.println( "It's probably related to plotting operations" );
+            out.println( "or to cached table columns." );
             out.println( "Deleting this directory or its contents" );
             out.println( "is not likely to break anything," );
             out.println( "but it may lead to slower startup of some plots" );
@@ -0,0 +1,352 @@
+package uk.ac.starlink.ttools.plot2.data;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+import uk.ac.starlink.ttools.plot2.PointCloud;
+import uk.ac.starlink.ttools.plot2.Slow;
+import uk.ac.starlink.ttools.plot2.SubCloud;
+
+/**
+ * DataStoreFactory wrapper that dispenses DataStores able to supply
+ * level-of-detail summaries of large point clouds.
+ *
+ * <p>The DataStores produced by this factory behave exactly like
+ * those of the base factory, but in addition can be passed to the
+ * static {@link #getPlanePyramid getPlanePyramid} and
+ * {@link #getSkyPyramid getSkyPyramid} methods to obtain a
+ * {@link CountPyramid} for a given point cloud.
+ * Pyramids are calculated on first request, which takes a scan
+ * (two for planar data) through the data, and are then retained
+ * for the lifetime of the store; they are also carried over to
+ * subsequent stores generated by this factory where the same data
+ * is still available.
+ * Plotting code that just needs per-pixel counts can then use
+ * the pyramid level matching the current pixel scale instead of
+ * scanning every tuple, so that zoomed-out frames of very large
+ * datasets can be rendered in time independent of the row count.
+ *
+ * <p>This is intended for interactive use, where the same dataset
+ * is typically plotted many times at different scales.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+public class LodDataStoreFactory implements DataStoreFactory {
+
+    private final DataStoreFactory baseFact_;
+    private final long minPoints_;
+    private final int planeLevel_;
+    private final int skyLevel_;
+
+    /** Default minimum row count for which pyramids are used. */
+    public static final long DFLT_MIN_POINTS = 1_000_000;
+
+    /** Default finest level for planar pyramids. */
+    public static final int DFLT_PLANE_LEVEL = 11;
+
+    /** Default finest level (HEALPix order) for sky pyramids. */
+    public static final int DFLT_SKY_LEVEL = 9;
+
+    private static final Logger logger_ =
+        Logger.getLogger( "uk.ac.starlink.ttools.plot2.data" );
+
+    /**
+     * Constructs a factory with default configuration.
+     *
+     * @param  baseFact  base factory that actually acquires the data
+     */
+    public LodDataStoreFactory( DataStoreFactory baseFact ) {
+        this( baseFact, DFLT_MIN_POINTS, DFLT_PLANE_LEVEL, DFLT_SKY_LEVEL );
+    }
+
+    /**
+     * Constructs a factory with custom configuration.
+     *
+     * @param  baseFact  base factory that actually acquires the data
+     * @param  minPoints  minimum number of rows in a point cloud
+     *                    for which a pyramid will be supplied
+     * @param  planeLevel  finest level for planar pyramids;
+     *                     memory usage during construction is
+     *                     4 bytes per cell, that is
+     *                     <code>4*4^planeLevel</code> bytes per thread
+     * @param  skyLevel  finest level (HEALPix order) for sky pyramids;
+     *                   memory usage during construction is
+     *                   <code>48*4^skyLevel</code> bytes per thread
+     */
+    public LodDataStoreFactory( DataStoreFactory baseFact, long minPoints,
+                                int planeLevel, int skyLevel ) {
+        baseFact_ = baseFact;
+        minPoints_ = minPoints;
+        planeLevel_ = Math.min( planeLevel, PlaneCountPyramid.MAX_LEVEL );
+        skyLevel_ = Math.min( skyLevel, SkyCountPyramid.MAX_LEVEL );
+    }
+
+    public DataStore readDataStore( DataSpec[] specs, DataStore prevStore )
+            throws IOException, InterruptedException {
+        LodDataStore prevLodStore = prevStore instanceof LodDataStore
+                                  ? (LodDataStore) prevStore
+                                  : null;
+        DataStore basePrevStore = prevLodStore == null
+                                ? prevStore
+                                : prevLodStore.baseStore_;
+        DataStore baseStore = baseFact_.readDataStore( specs, basePrevStore );
+        LodDataStore store =
+            new LodDataStore( baseStore,
+                              new HashMap<PyramidKey,CountPyramid>() );
+
+        /* Retain pyramids whose data is still available. */
+        if ( prevLodStore != null ) {
+            synchronized ( prevLodStore.pyramidMap_ ) {
+                for ( Map.Entry<PyramidKey,CountPyramid> entry :
+                      prevLodStore.pyramidMap_.entrySet() ) {
+                    if ( hasData( baseStore, entry.getKey().cloud_ ) ) {
+                        store.pyramidMap_.put( entry.getKey(),
+                                               entry.getValue() );
+                    }
+                }
+            }
+        }
+        return store;
+    }
+
+    /**
+     * Returns a count pyramid for 2-d positions in a point cloud,
+     * if one is available.
+     * A non-null value is only returned if the data store was
+     * dispensed by an instance of this class and the point cloud
+     * is large enough to make it worthwhile.
+     * If the pyramid has not already been calculated this method
+     * will do it, which may take time.
+     *
+     * @param  dataStore  data store
+     * @param  cloud   point cloud with 2-dimensional data positions
+     * @return  pyramid, or null
+     */
+    @Slow
+    public static PlaneCountPyramid getPlanePyramid( DataStore dataStore,
+                                                     PointCloud cloud ) {
+        return (PlaneCountPyramid) getPyramid( dataStore, cloud, false );
+    }
+
+    /**
+     * Returns a count pyramid for sky positions in a point cloud,
+     * if one is available.
+     * A non-null value is only returned if the data store was
+     * dispensed by an instance of this class and the point cloud
+     * is large enough to make it worthwhile.
+     * If the pyramid has not already been calculated this method
+     * will do it, which may take time.
+     *
+     * @param  dataStore  data store
+     * @param  cloud   point cloud with 3-dimensional unit vector
+     *                 data positions
+     * @return  pyramid, or null
+     */
+    @Slow
+    public static SkyCountPyramid getSkyPyramid( DataStore dataStore,
+                                                 PointCloud cloud ) {
+        return (SkyCountPyramid) getPyramid( dataStore, cloud, true );
+    }
+
+    /**
+     * Decorates a data store derived from one dispensed by this factory
+     * so that it shares the original's pyramids.
+     * This can be used when the data store dispensed by this factory
+     * is wrapped to add behaviour such as progress reporting;
+     * pyramids are then obtained from, and if necessary built using,
+     * the wrapper.
+     * The wrapper must supply the same tuples as the original.
+     *
+     * @param  lodStore  data store dispensed by this factory
+     * @param  viewStore  data store wrapping <code>lodStore</code>
+     * @return  data store with the data behaviour of <code>viewStore</code>
+     *          and the pyramids of <code>lodStore</code>,
+     *          or just <code>viewStore</code> if <code>lodStore</code>
+     *          did not come from this factory
+     */
+    public static DataStore shareStore( DataStore lodStore,
+                                        DataStore viewStore ) {
+        if ( lodStore instanceof LodDataStore ) {
+            LodDataStore lstore = (LodDataStore) lodStore;
+            return lstore.factory().new LodDataStore( viewStore,
+                                                      lstore.pyramidMap_ );
+        }
+        else {
+            return viewStore;
+        }
+    }
+
+    /**
+     * Returns a pyramid of either type.
+     *
+     * @param  dataStore  data store
+     * @param  cloud  point cloud
+     * @param  isSky  true for sky pyramid, false for plane pyramid
+     * @return  pyramid, or null
+     */
+    private static CountPyramid getPyramid( DataStore dataStore,
+                                            PointCloud cloud, boolean isSky ) {
+        return dataStore instanceof LodDataStore
+             ? ((LodDataStore) dataStore).getPyramid( cloud, isSky )
+             : null;
+    }
+
+    /**
+     * Indicates whether a data store has the data for all the
+     * subclouds of a point cloud.
+     *
+     * @param  dataStore  data store
+     * @param  cloud  point cloud
+     * @return  true iff all the data is available
+     */
+    private static boolean hasData( DataStore dataStore, PointCloud cloud ) {
+        for ( SubCloud subCloud : cloud.getSubClouds() ) {
+            if ( ! dataStore.hasData( subCloud.getDataSpec() ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Indicates whether a point cloud is big enough to merit use
+     * of a pyramid.
+     *
+     * @param  cloud  point cloud
+     * @return  true if the total row count is unknown or at least
+     *          the minimum point count
+     */
+    private boolean isLarge( PointCloud cloud ) {
+        long nrow = 0;
+        for ( SubCloud subCloud : cloud.getSubClouds() ) {
+            long n = subCloud.getDataSpec().getSourceTable().getRowCount();
+            if ( n < 0 ) {
+                return true;
+            }
+            nrow += n;
+        }
+        return nrow >= minPoints_;
+    }
+
+    /**
+     * Map key for pyramids.
+     */
+    private static class PyramidKey {
+        final PointCloud cloud_;
+        final boolean isSky_;
+
+        /**
+         * Constructor.
+         *
+         * @param  cloud  point cloud
+         * @param  isSky  true for sky pyramid, false for plane pyramid
+         */
+        PyramidKey( PointCloud cloud, boolean isSky ) {
+            cloud_ = cloud;
+            isSky_ = isSky;
+        }
+
+        @Override
+        public int hashCode() {
+            return cloud_.hashCode() * 23 + ( isSky_ ? 1 : 0 );
+        }
+
+        @Override
+        public boolean equals( Object o ) {
+            if ( o instanceof PyramidKey ) {
+                PyramidKey other = (PyramidKey) o;
+                return this.cloud_.equals( other.cloud_ )
+                    && this.isSky_ == other.isSky_;
+            }
+            else {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * DataStore implementation dispensed by this factory.
+     */
+    private class LodDataStore implements DataStore {
+
+        final DataStore baseStore_;
+        final Map<PyramidKey,CountPyramid> pyramidMap_;
+
+        /**
+         * Constructor.
+         *
+         * @param  baseStore  data store to which data access is delegated
+         * @param  pyramidMap  map of pyramids, may be shared
+         */
+        LodDataStore( DataStore baseStore,
+                      Map<PyramidKey,CountPyramid> pyramidMap ) {
+            baseStore_ = baseStore;
+            pyramidMap_ = pyramidMap;
+        }
+
+        public boolean hasData( DataSpec spec ) {
+            return baseStore_.hasData( spec );
+        }
+
+        public TupleSequence getTupleSequence( DataSpec spec ) {
+            return baseStore_.getTupleSequence( spec );
+        }
+
+        public TupleRunner getTupleRunner() {
+            return baseStore_.getTupleRunner();
+        }
+
+        /**
+         * Returns the factory that owns this store.
+         *
+         * @return  factory
+         */
+        LodDataStoreFactory factory() {
+            return LodDataStoreFactory.this;
+        }
+
+        /**
+         * Returns a pyramid for a point cloud, calculating it if necessary.
+         *
+         * @param  cloud  point cloud
+         * @param  isSky  true for sky pyramid, false for plane pyramid
+         * @return  pyramid, or null if not appropriate
+         */
+        CountPyramid getPyramid( PointCloud cloud, boolean isSky ) {
+            if ( ! isLarge( cloud ) ) {
+                return null;
+            }
+            PyramidKey key = new PyramidKey( cloud, isSky );
+            synchronized ( pyramidMap_ ) {
+                if ( pyramidMap_.containsKey( key ) ) {
+                    return pyramidMap_.get( key );
+                }
+            }
+            long start = System.currentTimeMillis();
+            CountPyramid pyramid = isSky
+                ? SkyCountPyramid
+                 .createPyramid( cloud.createDataPosSupplier( this ),
+                                 getTupleRunner().coordRunner(), skyLevel_ )
+                : PlaneCountPyramid
+                 .createPyramid( cloud.createDataPosSupplier( this ),
+                                 getTupleRunner().coordRunner(),
+                                 planeLevel_ );
+
+            /* An interrupted scan may have been truncated;
+             * don't keep the result. */
+            if ( Thread.currentThread().isInterrupted() ) {
+                return null;
+            }
+            logger_.info( "Count pyramid for "
+                        + ( pyramid == null ? 0 : pyramid.getPointCount() )
+                        + " points built in "
+                        + ( System.currentTimeMillis() - start ) + "ms" );
+            synchronized ( pyramidMap_ ) {
+                pyramidMap_.put( key, pyramid );
+            }
+            return pyramid;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package uk.ac.starlink.ttools.plot2.data;
+
+import java.util.function.Supplier;
+import uk.ac.starlink.ttools.plot2.CoordSequence;
+import uk.ac.starlink.ttools.plot2.SplitRunner;
+import uk.ac.starlink.util.SplitCollector;
+
+/**
+ * CountPyramid for 2-dimensional Cartesian data positions.
+ * It is a quadtree over the rectangular bounds of the data;
+ * level <code>k</code> divides each axis into <code>2^k</code>
+ * equal intervals, and cell keys are Morton (Z-order) indices
+ * interleaving the X and Y cell indices.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+public class PlaneCountPyramid extends CountPyramid {
+
+    private final double xlo_;
+    private final double xhi_;
+    private final double ylo_;
+    private final double yhi_;
+
+    /** Largest permitted level. */
+    public static final int MAX_LEVEL = 13;
+
+    /**
+     * Constructor.
+     *
+     * @param  maxLevel  index of finest level
+     * @param  bounds   4-element array (xlo, xhi, ylo, yhi)
+     *                  giving data bounds
+     * @param  grid   dense array of point counts at the finest level,
+     *                indexed by Morton key
+     */
+    private PlaneCountPyramid( int maxLevel, double[] bounds, int[] grid ) {
+        super( 2, maxLevel, grid );
+        xlo_ = bounds[ 0 ];
+        xhi_ = bounds[ 1 ];
+        ylo_ = bounds[ 2 ];
+        yhi_ = bounds[ 3 ];
+    }
+
+    /**
+     * Returns the data bounds covered by this pyramid.
+     *
+     * @return  4-element array (xlo, xhi, ylo, yhi)
+     */
+    public double[] getBounds() {
+        return new double[] { xlo_, xhi_, ylo_, yhi_ };
+    }
+
+    /**
+     * Returns the coarsest level of this pyramid at which
+     * the cell extent does not exceed given values.
+     *
+     * @param  xsize  maximum cell extent in X data coordinates
+     * @param  ysize  maximum cell extent in Y data coordinates
+     * @return  level index, or -1 if no level is fine enough
+     */
+    public int getLevel( double xsize, double ysize ) {
+        int maxLevel = getMaxLevel();
+        for ( int level = 0; level <= maxLevel; level++ ) {
+            double n = 1 << level;
+            if ( ( xhi_ - xlo_ ) / n <= xsize &&
+                 ( yhi_ - ylo_ ) / n <= ysize ) {
+                return level;
+            }
+        }
+        return -1;
+    }
+
+    public void getCellCenter( int level, int key, double[] dpos ) {
+        double n = 1 << level;
+        dpos[ 0 ] = xlo_ + ( compact( key ) + 0.5 ) * ( ( xhi_ - xlo_ ) / n );
+        dpos[ 1 ] = ylo_ + ( compact( key >>> 1 ) + 0.5 )
+                         * ( ( yhi_ - ylo_ ) / n );
+    }
+
+    /**
+     * Constructs a pyramid from a sequence of 2-d data positions.
+     * This performs two passes through the data, one to determine
+     * the data bounds and one to accumulate the counts.
+     *
+     * @param  cseqSupplier  supplier for data position sequences
+     * @param  runner   controls parallel processing
+     * @param  maxLevel  index of finest level, not greater than
+     *                   {@link #MAX_LEVEL}
+     * @return  new pyramid, or null if there are no usable positions
+     */
+    public static PlaneCountPyramid
+            createPyramid( Supplier<CoordSequence> cseqSupplier,
+                           SplitRunner<CoordSequence> runner,
+                           final int maxLevel ) {
+        if ( maxLevel > MAX_LEVEL ) {
+            throw new IllegalArgumentException( "Level " + maxLevel
+                                              + " > " + MAX_LEVEL );
+        }
+
+        /* Get data bounds. */
+        double[] bounds = runner.collect( new BoundsCollector(),
+                                          cseqSupplier );
+        if ( ! ( bounds[ 0 ] <= bounds[ 1 ] ) ) {
+            return null;
+        }
+        for ( int i = 0; i < 4; i += 2 ) {
+            if ( bounds[ i ] == bounds[ i + 1 ] ) {
+                double d = Math.max( Math.abs( bounds[ i ] ) * 1e-6, 1e-6 );
+                bounds[ i ] -= d;
+                bounds[ i + 1 ] += d;
+            }
+        }
+
+        /* Accumulate counts into a dense grid. */
+        final int ncell = 1 << maxLevel;
+        final double xlo = bounds[ 0 ];
+        final double ylo = bounds[ 2 ];
+        final double xfact = ncell / ( bounds[ 1 ] - bounds[ 0 ] );
+        final double yfact = ncell / ( bounds[ 3 ] - bounds[ 2 ] );
+        SplitCollector<CoordSequence,int[]> gridCollector =
+                new SplitCollector<CoordSequence,int[]>() {
+            public int[] createAccumulator() {
+                return new int[ 1 << ( 2 * maxLevel ) ];
+            }
+            public void accumulate( CoordSequence cseq, int[] grid ) {
+                double[] dpos = cseq.getCoords();
+                while ( cseq.next() ) {
+                    double x = dpos[ 0 ];
+                    double y = dpos[ 1 ];
+                    if ( ! Double.isNaN( x ) && ! Double.isNaN( y ) &&
+                         ! Double.isInfinite( x ) &&
+                         ! Double.isInfinite( y ) ) {
+                        int ix = Math.min( (int) ( ( x - xlo ) * xfact ),
+                                           ncell - 1 );
+                        int iy = Math.min( (int) ( ( y - ylo ) * yfact ),
+                                           ncell - 1 );
+                        int key = spread( ix ) | ( spread( iy ) << 1 );
+                        int c = grid[ key ];
+                        if ( c != Integer.MAX_VALUE ) {
+                            grid[ key ] = c + 1;
+                        }
+                    }
+                }
+            }
+            public int[] combine( int[] grid1, int[] grid2 ) {
+                return addGrids( grid1, grid2 );
+            }
+        };
+        int[] grid = runner.collectPool( gridCollector, cseqSupplier );
+        return new PlaneCountPyramid( maxLevel, bounds, grid );
+    }
+
+    /**
+     * Spreads the bits of a 15-bit integer so that they occupy
+     * the even bit positions.
+     *
+     * @param  i  input value
+     * @return  spread value
+     */
+    private static int spread( int i ) {
+        i &= 0x7fff;
+        i = ( i | ( i << 8 ) ) & 0x00ff00ff;
+        i = ( i | ( i << 4 ) ) & 0x0f0f0f0f;
+        i = ( i | ( i << 2 ) ) & 0x33333333;
+        i = ( i | ( i << 1 ) ) & 0x55555555;
+        return i;
+    }
+
+    /**
+     * Inverse of {@link #spread}; collects the even bits of
+     * an integer.
+     *
+     * @param  i  input value
+     * @return  compacted value
+     */
+    private static int compact( int i ) {
+        i &= 0x55555555;
+        i = ( i | ( i >>> 1 ) ) & 0x33333333;
+        i = ( i | ( i >>> 2 ) ) & 0x0f0f0f0f;
+        i = ( i | ( i >>> 4 ) ) & 0x00ff00ff;
+        i = ( i | ( i >>> 8 ) ) & 0x0000ffff;
+        return i;
+    }
+
+    /**
+     * Collector that determines the bounds of finite 2-d positions.
+     * The accumulator is a 4-element (xlo, xhi, ylo, yhi) array.
+     */
+    private static class BoundsCollector
+            implements SplitCollector<CoordSequence,double[]> {
+        public double[] createAccumulator() {
+            return new double[] {
+                Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+                Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+            };
+        }
+        public void accumulate( CoordSequence cseq, double[] bounds ) {
+            double[] dpos = cseq.getCoords();
+            while ( cseq.next() ) {
+                double x = dpos[ 0 ];
+                double y = dpos[ 1 ];
+                if ( ! Double.isInfinite( x ) && ! Double.isInfinite( y ) &&
+                     ! Double.isNaN( x ) && ! Double.isNaN( y ) ) {
+                    bounds[ 0 ] = Math.min( bounds[ 0 ], x );
+                    bounds[ 1 ] = Math.max( bounds[ 1 ], x );
+                    bounds[ 2 ] = Math.min( bounds[ 2 ], y );
+                    bounds[ 3 ] = Math.max( bounds[ 3 ], y );
+                }
+            }
+        }
+        public double[] combine( double[] b1, double[] b2 ) {
+            b1[ 0 ] = Math.min( b1[ 0 ], b2[ 0 ] );
+            b1[ 1 ] = Math.max( b1[ 1 ], b2[ 1 ] );
+            b1[ 2 ] = Math.min( b1[ 2 ], b2[ 2 ] );
+            b1[ 3 ] = Math.max( b1[ 3 ], b2[ 3 ] );
+            return b1;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package uk.ac.starlink.ttools.plot2.data;
+
+import cds.healpix.HashComputer;
+import cds.healpix.Healpix;
+import cds.healpix.HealpixNested;
+import java.util.function.Supplier;
+import uk.ac.starlink.ttools.plot2.CdsHealpixUtil;
+import uk.ac.starlink.ttools.plot2.CoordSequence;
+import uk.ac.starlink.ttools.plot2.SplitRunner;
+import uk.ac.starlink.util.SplitCollector;
+
+/**
+ * CountPyramid for positions on the unit sphere.
+ * Level <code>k</code> is the HEALPix grid of order <code>k</code>,
+ * and cell keys are HEALPix NESTED indices.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+public class SkyCountPyramid extends CountPyramid {
+
+    private final HealpixNested[] healpixes_;
+
+    /** Largest permitted level. */
+    public static final int MAX_LEVEL = 12;
+
+    /**
+     * Constructor.
+     *
+     * @param  maxLevel  index of finest level
+     * @param  grid   dense array of point counts at the finest level,
+     *                indexed by HEALPix NESTED index
+     */
+    private SkyCountPyramid( int maxLevel, int[] grid ) {
+        super( 3, maxLevel, grid );
+        healpixes_ = new HealpixNested[ maxLevel + 1 ];
+        for ( int level = 0; level <= maxLevel; level++ ) {
+            healpixes_[ level ] = Healpix.getNested( level );
+        }
+    }
+
+    /**
+     * Returns the coarsest level of this pyramid at which the
+     * cell area does not exceed a given value.
+     *
+     * @param  maxAreaSr  maximum cell area in steradians
+     * @return  level index, or -1 if no level is fine enough
+     */
+    public int getLevel( double maxAreaSr ) {
+        int maxLevel = getMaxLevel();
+        for ( int level = 0; level <= maxLevel; level++ ) {
+            double cellArea = 4 * Math.PI / ( 12L << ( 2 * level ) );
+            if ( cellArea <= maxAreaSr ) {
+                return level;
+            }
+        }
+        return -1;
+    }
+
+    public void getCellCenter( int level, int key, double[] dpos ) {
+        double[] lonlat = new double[ 2 ];
+        healpixes_[ level ].center( key, lonlat );
+        CdsHealpixUtil.lonlatToVector( lonlat, dpos );
+    }
+
+    /**
+     * Constructs a pyramid from a sequence of unit vector data positions.
+     *
+     * @param  cseqSupplier  supplier for data position sequences
+     * @param  runner   controls parallel processing
+     * @param  maxLevel  index of finest level, not greater than
+     *                   {@link #MAX_LEVEL}
+     * @return  new pyramid
+     */
+    public static SkyCountPyramid
+            createPyramid( Supplier<CoordSequence> cseqSupplier,
+                           SplitRunner<CoordSequence> runner,
+                           final int maxLevel ) {
+        if ( maxLevel > MAX_LEVEL ) {
+            throw new IllegalArgumentException( "Level " + maxLevel
+                                              + " > " + MAX_LEVEL );
+        }
+        SplitCollector<CoordSequence,int[]> gridCollector =
+                new SplitCollector<CoordSequence,int[]>() {
+            public int[] createAccumulator() {
+                return new int[ 12 << ( 2 * maxLevel ) ];
+            }
+            public void accumulate( CoordSequence cseq, int[] grid ) {
+                HashComputer hasher =
+                    Healpix.getNested( maxLevel ).newHashComputer();
+                double[] dpos = cseq.getCoords();
+                while ( cseq.next() ) {
+                    if ( ! Double.isNaN( dpos[ 0 ] ) ) {
+                        int key =
+                            (int) CdsHealpixUtil.vectorToHash( hasher, dpos );
+                        int c = grid[ key ];
+                        if ( c != Integer.MAX_VALUE ) {
+                            grid[ key ] = c + 1;
+                        }
+                    }
+                }
+            }
+            public int[] combine( int[] grid1, int[] grid2 ) {
+                return addGrids( grid1, grid2 );
+            }
+        };
+        int[] grid = runner.collectPool( gridCollector, cseqSupplier );
+        return new SkyCountPyramid( maxLevel, grid );
+    }
+}
@@ -7,7 +7,10 @@ import uk.ac.starlink.ttools.plot2.CoordSequence;
 import uk.ac.starlink.ttools.plot2.Ranger;
 import uk.ac.starlink.ttools.plot2.SplitRunner;
 import uk.ac.starlink.ttools.plot2.paper.Paper;
+import uk.ac.starlink.ttools.plot2.paper.TiledPaper;
 import uk.ac.starlink.util.SplitCollector;
+import uk.ac.starlink.util.SplitPolicy;
+import uk.ac.starlink.util.Splittable;
 
 /**
  * SplitRunner subclass for use with TupleSequences.
@@ -19,6 +22,7 @@ public class TupleRunner extends SplitRunner<TupleSequence> {
 
     private final SplitRunner<TupleSequence> runner_;
     private final SplitRunner<CoordSequence> coordRunner_;
+    private final SplitRunner<TileSplittable> tileRunner_;
 
     /** Standard instance for parallel processing. */
     public static final TupleRunner DEFAULT =
@@ -42,14 +46,49 @@ public class TupleRunner extends SplitRunner<TupleSequence> {
         SplitRunner<TupleSequence> tr = (SplitRunner<TupleSequence>) runner;
         @SuppressWarnings("unchecked")
         SplitRunner<CoordSequence> cr = (SplitRunner<CoordSequence>) runner;
+        @SuppressWarnings("unchecked")
+        SplitRunner<TileSplittable> pr = (SplitRunner<TileSplittable>) runner;
         runner_ = tr;
         coordRunner_ = cr;
+        tileRunner_ = pr;
+    }
+
+    /**
+     * Returns an instance that executes according to a given split policy.
+     * This can be used to run plotting operations in a dedicated pool.
+     *
+     * @param  policy  split policy
+     * @return  new runner
+     */
+    public static TupleRunner createStandardTupleRunner( SplitPolicy policy ) {
+        return new TupleRunner( SplitRunner.createStandardRunner( policy ) );
+    }
+
+    /**
+     * Returns an instance that executes in a named dedicated pool
+     * with a given parallelism.
+     *
+     * @param  poolName  pool name
+     * @param  parallelism  pool parallelism
+     * @return  new runner
+     * @see   uk.ac.starlink.util.SplitPools#getPool
+     */
+    public static TupleRunner createPoolRunner( String poolName,
+                                                int parallelism ) {
+        return createStandardTupleRunner( SplitPolicy
+                                         .createPoolPolicy( poolName,
+                                                            parallelism ) );
     }
 
     public boolean willAttemptSplit( TupleSequence tseq ) {
         return runner_.willAttemptSplit( tseq );
     }
 
+    @Override
+    public int getParallelism() {
+        return runner_.getParallelism();
+    }
+
     public <A> A collect( SplitCollector<TupleSequence,A> collector,
                           Supplier<TupleSequence> tupleSupplier ) {
         return runner_.collect( collector, tupleSupplier );
@@ -99,6 +138,44 @@ public class TupleRunner extends SplitRunner<TupleSequence> {
             paper.mergeSheet( collectPool( collector, tseqFact ) );
         }
 
+        /* If the paper can't merge but can be tiled, paint all the data
+         * to each tile in parallel.  Each tile only updates its own
+         * pixels, so no merge is required, and since every pixel is
+         * painted in data order, the result is the same as for
+         * sequential painting. */
+        else if ( paper instanceof TiledPaper && tseqFact.willAttemptSplit()
+                  && getParallelism() > 1 ) {
+            final Paper[] tiles =
+                ((TiledPaper) paper).createTiles( getParallelism() );
+            final int ntile = tiles.length;
+            final TupleSequence[] tseqs = new TupleSequence[ ntile ];
+            for ( int it = 0; it < ntile; it++ ) {
+                tseqs[ it ] = tseqFact.get();
+            }
+            SplitCollector<TileSplittable,int[]> collector =
+                    new SplitCollector<TileSplittable,int[]>() {
+                public int[] createAccumulator() {
+                    return new int[ 1 ];
+                }
+                public void accumulate( TileSplittable tiler, int[] count ) {
+                    for ( int it = tiler.ilo_; it < tiler.ihi_; it++ ) {
+                        tuplePainter.accept( tseqs[ it ], tiles[ it ] );
+                        count[ 0 ]++;
+                    }
+                }
+                public int[] combine( int[] count1, int[] count2 ) {
+                    count1[ 0 ] += count2[ 0 ];
+                    return count1;
+                }
+            };
+            final long tileSize = tseqFact.splittableSize();
+            int[] count =
+                tileRunner_.collect( collector,
+                                     () -> new TileSplittable( 0, ntile,
+                                                               tileSize ) );
+            assert count[ 0 ] == ntile;
+        }
+
         /* If no concurrency, accumulate directly to the supplied paper
          * instance, which will save a merge. */
         else {
@@ -168,6 +245,7 @@ public class TupleRunner extends SplitRunner<TupleSequence> {
         private final Supplier<TupleSequence> baseFact_;
         private final AtomicReference<TupleSequence> tseqRef_;
         private final boolean willAttemptSplit_;
+        private final long splittableSize_;
 
         /**
          * Convenience constructor using a DataSpec and DataStore.
@@ -188,6 +266,7 @@ public class TupleRunner extends SplitRunner<TupleSequence> {
             baseFact_ = baseFact;
             TupleSequence tseq = baseFact.get();
             willAttemptSplit_ = TupleRunner.this.willAttemptSplit( tseq );
+            splittableSize_ = tseq.splittableSize();
             tseqRef_ = new AtomicReference<TupleSequence>( tseq );
         }
 
@@ -206,5 +285,53 @@ public class TupleRunner extends SplitRunner<TupleSequence> {
         public boolean willAttemptSplit() {
             return willAttemptSplit_;
         }
+
+        /**
+         * Returns the splittable size of the TupleSequences that
+         * this factory produces.
+         *
+         * @return  tuple sequence size, or negative value if not known
+         */
+        public long splittableSize() {
+            return splittableSize_;
+        }
+    }
+
+    /**
+     * Splittable representing a range of tiles, each of which is
+     * painted using the whole of a tuple sequence.
+     */
+    private static class TileSplittable implements Splittable<TileSplittable> {
+
+        private final long tileSize_;
+        final int ilo_;
+        int ihi_;
+
+        /**
+         * Constructor.
+         *
+         * @param  ilo  index of first tile in range
+         * @param  ihi  index after last tile in range
+         * @param  tileSize  splittable size of the work for each tile
+         */
+        TileSplittable( int ilo, int ihi, long tileSize ) {
+            ilo_ = ilo;
+            ihi_ = ihi;
+            tileSize_ = tileSize;
+        }
+
+        public TileSplittable split() {
+            if ( ihi_ - ilo_ < 2 ) {
+                return null;
+            }
+            int mid = ( ilo_ + ihi_ ) >>> 1;
+            TileSplittable other = new TileSplittable( mid, ihi_, tileSize_ );
+            ihi_ = mid;
+            return other;
+        }
+
+        public long splittableSize() {
+            return tileSize_ < 0 ? tileSize_ : ( ihi_ - ilo_ ) * tileSize_;
+        }
     }
 }
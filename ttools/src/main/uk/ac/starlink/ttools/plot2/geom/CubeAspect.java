@@ -1,5 +1,7 @@
 package uk.ac.starlink.ttools.plot2.geom;
 
+import java.util.Arrays;
+
 /**
  * Defines the data range covered by a CubeSurface.
  *
@@ -82,4 +84,34 @@ public class CubeAspect {
     public double[][] getLimits() {
         return new double[][] { xlimits_, ylimits_, zlimits_ };
     }
+
+    @Override
+    public boolean equals( Object o ) {
+        if ( o instanceof CubeAspect ) {
+            CubeAspect other = (CubeAspect) o;
+            return Arrays.equals( this.xlimits_, other.xlimits_ )
+                && Arrays.equals( this.ylimits_, other.ylimits_ )
+                && Arrays.equals( this.zlimits_, other.zlimits_ )
+                && Arrays.equals( this.rotmat_, other.rotmat_ )
+                && this.zoom_ == other.zoom_
+                && this.xoff_ == other.xoff_
+                && this.yoff_ == other.yoff_;
+        }
+        else {
+            return false;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        int code = 34902;
+        code = 23 * code + Arrays.hashCode( xlimits_ );
+        code = 23 * code + Arrays.hashCode( ylimits_ );
+        code = 23 * code + Arrays.hashCode( zlimits_ );
+        code = 23 * code + Arrays.hashCode( rotmat_ );
+        code = 23 * code + Float.floatToIntBits( (float) zoom_ );
+        code = 23 * code + Float.floatToIntBits( (float) xoff_ );
+        code = 23 * code + Float.floatToIntBits( (float) yoff_ );
+        return code;
+    }
 }
@@ -60,4 +60,28 @@ public class PlaneAspect {
     public double getYMax() {
         return ymax_;
     }
+
+    @Override
+    public boolean equals( Object o ) {
+        if ( o instanceof PlaneAspect ) {
+            PlaneAspect other = (PlaneAspect) o;
+            return this.xmin_ == other.xmin_
+                && this.xmax_ == other.xmax_
+                && this.ymin_ == other.ymin_
+                && this.ymax_ == other.ymax_;
+        }
+        else {
+            return false;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        int code = 55701;
+        code = 23 * code + Float.floatToIntBits( (float) xmin_ );
+        code = 23 * code + Float.floatToIntBits( (float) xmax_ );
+        code = 23 * code + Float.floatToIntBits( (float) ymin_ );
+        code = 23 * code + Float.floatToIntBits( (float) ymax_ );
+        return code;
+    }
 }
@@ -62,4 +62,28 @@ public class TimeAspect {
     public double getYMax() {
         return ymax_;
     }
+
+    @Override
+    public boolean equals( Object o ) {
+        if ( o instanceof TimeAspect ) {
+            TimeAspect other = (TimeAspect) o;
+            return this.tmin_ == other.tmin_
+                && this.tmax_ == other.tmax_
+                && this.ymin_ == other.ymin_
+                && this.ymax_ == other.ymax_;
+        }
+        else {
+            return false;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        int code = 88234;
+        code = 23 * code + Float.floatToIntBits( (float) tmin_ );
+        code = 23 * code + Float.floatToIntBits( (float) tmax_ );
+        code = 23 * code + Float.floatToIntBits( (float) ymin_ );
+        code = 23 * code + Float.floatToIntBits( (float) ymax_ );
+        return code;
+    }
 }
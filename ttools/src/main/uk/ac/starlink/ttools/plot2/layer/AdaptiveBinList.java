@@ -4,6 +4,8 @@ package uk.ac.starlink.ttools.plot2.layer;
  * BinList implementation that starts off using a hash-based implementation,
  * but switches to an array-based implementation if the hash gets full
  * enough to make it worth while.
+ * The hash is a {@link PrimitiveHashBinList} if the combiner
+ * can supply one, otherwise a {@link HashBinList}.
  *
  * @author   Mark Taylor
  * @since    15 Jan 2019
@@ -15,6 +17,7 @@ public class AdaptiveBinList implements BinList {
     private final int binThresh_;
     private int isub_;
     private HashBinList hlist_;
+    private PrimitiveHashBinList plist_;
     private BinList base_;
 
     /**
@@ -24,7 +27,9 @@ public class AdaptiveBinList implements BinList {
      * bin size (in terms of storage).  Object overhead is typically
      * 2 words (16 bytes), so if the array has one double per bin and
      * the hash has one (Long,Combiner.Container) pair per bin,
-     * the ratio will be at least 6.
+     * the ratio will be at least 6.  For a primitive hash
+     * the ratio is lower, around 2-4, but switching at the same
+     * threshold keeps the hash smaller than the array would be.
      *
      * @param  size       maximum number of bins
      * @param  combiner   combiner
@@ -34,8 +39,14 @@ public class AdaptiveBinList implements BinList {
     public AdaptiveBinList( int size, Combiner combiner, int factThresh ) {
         size_ = size;
         combiner_ = combiner;
-        hlist_ = new HashBinList( size, combiner );
-        base_ = hlist_;
+        plist_ = combiner.createPrimitiveHashBinList( size );
+        if ( plist_ != null ) {
+            base_ = plist_;
+        }
+        else {
+            hlist_ = new HashBinList( size, combiner );
+            base_ = hlist_;
+        }
         binThresh_ = size / factThresh;
     }
 
@@ -60,6 +71,14 @@ public class AdaptiveBinList implements BinList {
                 base_ = alist;
             }
         }
+        else if ( plist_ != null && ++isub_ % 1024 == 0 &&
+                  plist_.getBinCount() > binThresh_ ) {
+            BinList alist = ArrayBinList.fromPrimitiveHashBinList( plist_ );
+            plist_ = null;
+            if ( alist != null ) {
+                base_ = alist;
+            }
+        }
         base_.submitToBin( index, datum );
     }
 
@@ -90,6 +109,6 @@ public class AdaptiveBinList implements BinList {
      *           false if it's array-based
      */
     public boolean isHash() {
-        return hlist_ != null;
+        return hlist_ != null || plist_ != null;
     }
 }
@@ -160,6 +160,35 @@ public abstract class ArrayBinList implements BinList {
         return out;
     }
 
+    /**
+     * Tries to create an ArrayBinList with the same content as a
+     * supplied PrimitiveHashBinList.  Null may be returned if it can't
+     * be done.
+     *
+     * @param  in  bin list whose data is to be copied
+     * @return  array bin list with copied content, or null if unsuccessful
+     */
+    public static ArrayBinList
+            fromPrimitiveHashBinList( PrimitiveHashBinList in ) {
+        int size = (int) in.getSize();
+        if ( size != in.getSize() ) {
+            return null;
+        }
+        ArrayBinList out = in.getCombiner().createArrayBinList( size );
+        if ( out == null ) {
+            return null;
+        }
+        for ( Iterator<Long> it = in.getResult().indexIterator();
+              it.hasNext(); ) {
+            long lndex = it.next().longValue();
+            int ix = (int) lndex;
+            assert ix == lndex;
+            out.copyBin( ix, in.getBinContainer( lndex ) );
+            out.mask_.set( ix );
+        }
+        return out;
+    }
+
     /**
      * Returns an iterator over the indices of the set bits in a BitSet.
      *
@@ -38,7 +38,8 @@ public abstract class BinListCollector
      * Returns a BinList implementation suitable for a given number of
      * bins and a given combiner.
      * This may return an implementation based on a hash, or an array,
-     * or some combination.
+     * or some combination.  Where a hash is used, a primitive-based one
+     * is preferred if the combiner supports it.
      *
      * @param  combiner  combiner
      * @param  size    maximum number of bins
@@ -54,7 +55,9 @@ public abstract class BinListCollector
             return new AdaptiveBinList( (int) size, combiner, 8 );
         }
         else {
-            return new HashBinList( size, combiner );
+            BinList binList = combiner.createPrimitiveHashBinList( size );
+            return binList != null ? binList
+                                   : new HashBinList( size, combiner );
         }
     }
 
@@ -81,10 +84,35 @@ public abstract class BinListCollector
         BinList bl2 = binList2 instanceof AdaptiveBinList
                     ? ((AdaptiveBinList) binList2).getBaseBinList()
                     : binList2;
+
+        /* If one adaptive list has switched to an array and the other
+         * is still a primitive hash, convert the hash too so that the
+         * two can be merged directly. */
+        if ( bl1 instanceof ArrayBinList &&
+             bl2 instanceof PrimitiveHashBinList ) {
+            bl2 = toArrayBinList( (PrimitiveHashBinList) bl2 );
+        }
+        else if ( bl2 instanceof ArrayBinList &&
+                  bl1 instanceof PrimitiveHashBinList ) {
+            bl1 = toArrayBinList( (PrimitiveHashBinList) bl1 );
+        }
         if ( bl1 instanceof ArrayBinList && bl2 instanceof ArrayBinList ) {
             ((ArrayBinList) bl1).addBins( (ArrayBinList) bl2 );
             return bl1;
         }
+        else if ( bl1 instanceof PrimitiveHashBinList &&
+                  bl2 instanceof PrimitiveHashBinList ) {
+            PrimitiveHashBinList pbl1 = (PrimitiveHashBinList) bl1;
+            PrimitiveHashBinList pbl2 = (PrimitiveHashBinList) bl2;
+            if ( pbl1.getBinCount() >= pbl2.getBinCount() ) {
+                pbl1.addBins( pbl2 );
+                return pbl1;
+            }
+            else {
+                pbl2.addBins( pbl1 );
+                return pbl2;
+            }
+        }
         else if ( bl1 instanceof HashBinList ) {
             ((HashBinList) bl1).addBins( bl2 );
             return bl1;
@@ -101,4 +129,16 @@ public abstract class BinListCollector
             return bl;
         }
     }
+
+    /**
+     * Returns an array-based bin list with the same content as a
+     * given primitive hash-based one, if possible.
+     *
+     * @param  pbl  input bin list
+     * @return  array bin list if available, otherwise <code>pbl</code>
+     */
+    private static BinList toArrayBinList( PrimitiveHashBinList pbl ) {
+        ArrayBinList abl = ArrayBinList.fromPrimitiveHashBinList( pbl );
+        return abl == null ? pbl : abl;
+    }
 }
@@ -7,6 +7,11 @@ import uk.ac.starlink.ttools.plot2.PlotUtil;
 import uk.ac.starlink.ttools.plot2.PointCloud;
 import uk.ac.starlink.ttools.plot2.Surface;
 import uk.ac.starlink.ttools.plot2.data.DataStore;
+import uk.ac.starlink.ttools.plot2.data.LodDataStoreFactory;
+import uk.ac.starlink.ttools.plot2.data.PlaneCountPyramid;
+import uk.ac.starlink.ttools.plot2.data.SkyCountPyramid;
+import uk.ac.starlink.ttools.plot2.geom.PlaneSurface;
+import uk.ac.starlink.ttools.plot2.geom.SkySurface;
 import uk.ac.starlink.util.SplitCollector;
 
 /**
@@ -84,6 +89,12 @@ public class BinPlan {
         final int xoff = bounds.x;
         final int yoff = bounds.y;
         final Gridder gridder = new Gridder( bounds.width, bounds.height );
+        Binner pyramidBinner =
+            binPyramid( pointCloud, surface, dataStore, gridder );
+        if ( pyramidBinner != null ) {
+            return new PointCloudBinPlan( pyramidBinner, gridder,
+                                          pointCloud, surface );
+        }
         SplitCollector<CoordSequence,Binner> collector =
                 new SplitCollector<CoordSequence,Binner>() {
             public Binner createAccumulator() {
@@ -111,6 +122,156 @@ public class BinPlan {
         return new PointCloudBinPlan( binner, gridder, pointCloud, surface );
     }
 
+    /**
+     * Attempts to bin the points of a point cloud using a
+     * pre-calculated count pyramid rather than by scanning the data.
+     * This is only possible if the data store can supply a pyramid
+     * with a level fine enough to represent the current pixel grid.
+     *
+     * @param   pointCloud  data position set
+     * @param   surface   plot surface
+     * @param   dataStore  data storage object
+     * @param   gridder   pixel grid geometry
+     * @return   binner populated from pyramid, or null if no suitable
+     *           pyramid is available
+     */
+    private static Binner binPyramid( PointCloud pointCloud, Surface surface,
+                                      DataStore dataStore, Gridder gridder ) {
+        if ( surface instanceof PlaneSurface ) {
+            PlaneSurface psurf = (PlaneSurface) surface;
+            boolean[] logFlags = psurf.getLogFlags();
+            if ( logFlags[ 0 ] || logFlags[ 1 ] ) {
+                return null;
+            }
+            PlaneCountPyramid pyramid =
+                LodDataStoreFactory.getPlanePyramid( dataStore, pointCloud );
+            return pyramid == null
+                 ? null
+                 : binPlanePyramid( pyramid, psurf, gridder );
+        }
+        else if ( surface instanceof SkySurface ) {
+            SkyCountPyramid pyramid =
+                LodDataStoreFactory.getSkyPyramid( dataStore, pointCloud );
+            return pyramid == null
+                 ? null
+                 : binSkyPyramid( pyramid, (SkySurface) surface, gridder );
+        }
+        else {
+            return null;
+        }
+    }
+
+    /**
+     * Bins the points of a planar count pyramid on a grid.
+     * A pyramid level with cells no larger than half a pixel is used
+     * if available, or no larger than a pixel otherwise,
+     * and the count of each cell is assigned to the pixel
+     * containing its center.
+     * This conserves the total count, and ensures that every
+     * occupied cell within the plot bounds contributes to some pixel.
+     *
+     * @param  pyramid  count pyramid
+     * @param  surface  plot surface with linear axes
+     * @param  gridder  pixel grid geometry
+     * @return  binner, or null if the pyramid is not fine enough
+     */
+    private static Binner binPlanePyramid( PlaneCountPyramid pyramid,
+                                           PlaneSurface surface,
+                                           Gridder gridder ) {
+        Rectangle bounds = surface.getPlotBounds();
+        double[][] limits = surface.getDataLimits();
+        double xpix = ( limits[ 0 ][ 1 ] - limits[ 0 ][ 0 ] ) / bounds.width;
+        double ypix = ( limits[ 1 ][ 1 ] - limits[ 1 ][ 0 ] ) / bounds.height;
+        int level = pyramid.getLevel( 0.5 * xpix, 0.5 * ypix );
+        if ( level < 0 ) {
+            level = pyramid.getLevel( xpix, ypix );
+        }
+        if ( level < 0 ) {
+            return null;
+        }
+
+        /* Get the linear data->graphics transformation. */
+        double[] bbox = pyramid.getBounds();
+        Point2D.Double gp0 = new Point2D.Double();
+        Point2D.Double gp1 = new Point2D.Double();
+        if ( ! surface.dataToGraphics( new double[] { bbox[ 0 ], bbox[ 2 ] },
+                                       false, gp0 ) ||
+             ! surface.dataToGraphics( new double[] { bbox[ 1 ], bbox[ 3 ] },
+                                       false, gp1 ) ) {
+            return null;
+        }
+        double ncell = 1 << level;
+        double gxCell = ( gp1.x - gp0.x ) / ncell;
+        double gyCell = ( gp1.y - gp0.y ) / ncell;
+        double gxlo = bounds.x;
+        double gylo = bounds.y;
+        int nx = gridder.getWidth();
+        int ny = gridder.getHeight();
+        Binner binner = new Binner( gridder.getLength() );
+        double[] dpos = new double[ 2 ];
+        double xsize = ( bbox[ 1 ] - bbox[ 0 ] ) / ncell;
+        double ysize = ( bbox[ 3 ] - bbox[ 2 ] ) / ncell;
+        int nc = pyramid.getCellCount( level );
+        for ( int ic = 0; ic < nc; ic++ ) {
+            pyramid.getCellCenter( level, pyramid.getCellKey( level, ic ),
+                                   dpos );
+            double gxc = gp0.x + ( dpos[ 0 ] - bbox[ 0 ] ) / xsize * gxCell
+                       - gxlo;
+            double gyc = gp0.y + ( dpos[ 1 ] - bbox[ 2 ] ) / ysize * gyCell
+                       - gylo;
+            int gx = PlotUtil.ifloor( gxc );
+            int gy = PlotUtil.ifloor( gyc );
+            if ( gx >= 0 && gx < nx && gy >= 0 && gy < ny ) {
+                binner.increment( gridder.getIndex( gx, gy ),
+                                  pyramid.getCellPoints( level, ic ) );
+            }
+        }
+        return binner;
+    }
+
+    /**
+     * Bins the points of a sky count pyramid on a grid.
+     * A pyramid level with cells no larger than a sixteenth of the
+     * pixel area is used if available, or no larger than a pixel
+     * otherwise, and the count of each cell is assigned to the pixel
+     * containing its center.
+     *
+     * @param  pyramid  count pyramid
+     * @param  surface  sky surface
+     * @param  gridder  pixel grid geometry
+     * @return  binner, or null if the pyramid is not fine enough
+     */
+    private static Binner binSkyPyramid( SkyCountPyramid pyramid,
+                                         SkySurface surface,
+                                         Gridder gridder ) {
+        double pixArea = surface.pixelAreaSteradians();
+        int level = pyramid.getLevel( pixArea / 16 );
+        if ( level < 0 ) {
+            level = pyramid.getLevel( pixArea );
+        }
+        if ( level < 0 ) {
+            return null;
+        }
+        Rectangle bounds = surface.getPlotBounds();
+        int xoff = bounds.x;
+        int yoff = bounds.y;
+        Binner binner = new Binner( gridder.getLength() );
+        Point2D.Double gp = new Point2D.Double();
+        double[] dpos = new double[ 3 ];
+        int nc = pyramid.getCellCount( level );
+        for ( int ic = 0; ic < nc; ic++ ) {
+            pyramid.getCellCenter( level, pyramid.getCellKey( level, ic ),
+                                   dpos );
+            if ( surface.dataToGraphics( dpos, true, gp ) ) {
+                int gx = PlotUtil.ifloor( gp.x ) - xoff;
+                int gy = PlotUtil.ifloor( gp.y ) - yoff;
+                binner.increment( gridder.getIndex( gx, gy ),
+                                  pyramid.getCellPoints( level, ic ) );
+            }
+        }
+        return binner;
+    }
+
     /**
      * Concrete BinPlan implementation for the positions represented
      * in a PointCloud.
@@ -55,6 +55,19 @@ public class Binner {
         total_++;
     }
 
+    /**
+     * Increments the count in a given bin by a given amount.
+     *
+     * @param  index  bin index
+     * @param  count  non-negative increment
+     */
+    public void increment( int index, int count ) {
+        long sum = (long) array_[ index ] + count;
+        array_[ index ] = sum < Integer.MAX_VALUE ? (int) sum
+                                                  : Integer.MAX_VALUE;
+        total_ += count;
+    }
+
     /**
      * Returns the count in a given bin.
      *
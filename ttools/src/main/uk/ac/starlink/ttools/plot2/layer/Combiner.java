@@ -126,6 +126,22 @@ public abstract class Combiner {
      */
     public abstract ArrayBinList createArrayBinList( int size );
 
+    /**
+     * May be able to create a bin list suitable for sparse or very large
+     * index ranges, based on a hash with primitive storage.
+     * If a combiner implementation is able to provide a
+     * PrimitiveHashBinList implementation, which will generally be
+     * significantly more efficient than a HashBinList,
+     * this method should return it.
+     * The default implementation returns null.
+     *
+     * @param  size   index range of required bin list
+     * @return   primitive hash-based bin list, or null
+     */
+    public PrimitiveHashBinList createPrimitiveHashBinList( long size ) {
+        return null;
+    }
+
     /**
      * Returns this combiner's name.
      *
@@ -355,6 +371,11 @@ public abstract class Combiner {
             return new MeanBinList( size, this );
         }
 
+        @Override
+        public PrimitiveHashBinList createPrimitiveHashBinList( long size ) {
+            return new MeanHashBinList( size, this );
+        }
+
         public Container createContainer() {
             return new MeanContainer();
         }
@@ -401,6 +422,36 @@ public abstract class Combiner {
             }
         }
 
+        /**
+         * PrimitiveHashBinList subclass for MeanCombiner.
+         */
+        private static class MeanHashBinList extends PrimitiveHashBinList {
+            MeanHashBinList( long size, MeanCombiner combiner ) {
+                super( size, combiner, true, true, 0 );
+            }
+            public void submitToSlot( int islot, double value ) {
+                counts_[ islot ]++;
+                values_[ islot ] += value;
+            }
+            public double getSlotResult( int islot ) {
+                int count = counts_[ islot ];
+                return count == 0 ? Double.NaN
+                                  : values_[ islot ] / (double) count;
+            }
+            public void addSlot( int islot, PrimitiveHashBinList other,
+                                 int jslot ) {
+                MeanHashBinList meanOther = (MeanHashBinList) other;
+                counts_[ islot ] += meanOther.counts_[ jslot ];
+                values_[ islot ] += meanOther.values_[ jslot ];
+            }
+            public Container createSlotContainer( int islot ) {
+                MeanContainer container = new MeanContainer();
+                container.count_ = counts_[ islot ];
+                container.sum_ = values_[ islot ];
+                return container;
+            }
+        }
+
         /**
          * Container that holds a count and a sum.
          * Note this is a static class to keep memory usage down
@@ -629,6 +680,11 @@ public abstract class Combiner {
             return new AbstractCountBinList( size, this );
         }
 
+        @Override
+        public PrimitiveHashBinList createPrimitiveHashBinList( long size ) {
+            return new CountHashBinList( size, this );
+        }
+
         public Container createContainer() {
             return new CountContainer();
         }
@@ -659,6 +715,31 @@ public abstract class Combiner {
             }
         }
 
+        /**
+         * PrimitiveHashBinList subclass for AbstractCountCombiner.
+         */
+        private static class CountHashBinList extends PrimitiveHashBinList {
+            CountHashBinList( long size, AbstractCountCombiner combiner ) {
+                super( size, combiner, false, true, 0 );
+            }
+            public void submitToSlot( int islot, double value ) {
+                counts_[ islot ]++;
+            }
+            public double getSlotResult( int islot ) {
+                int count = counts_[ islot ];
+                return count == 0 ? Double.NaN : count;
+            }
+            public void addSlot( int islot, PrimitiveHashBinList other,
+                                 int jslot ) {
+                counts_[ islot ] += ((CountHashBinList) other).counts_[ jslot ];
+            }
+            public Container createSlotContainer( int islot ) {
+                CountContainer container = new CountContainer();
+                container.count_ = counts_[ islot ];
+                return container;
+            }
+        }
+
         /**
          * Container that holds a count.
          * Note this is a static class to keep memory usage down
@@ -753,6 +834,11 @@ public abstract class Combiner {
             return new AbstractSumBinList( size, this );
         }
 
+        @Override
+        public PrimitiveHashBinList createPrimitiveHashBinList( long size ) {
+            return new SumHashBinList( size, this );
+        }
+
         public Container createContainer() {
             return new SumContainer();
         }
@@ -785,6 +871,33 @@ public abstract class Combiner {
             }
         }
 
+        /**
+         * PrimitiveHashBinList subclass for AbstractSumCombiner.
+         */
+        private static class SumHashBinList extends PrimitiveHashBinList {
+            SumHashBinList( long size, AbstractSumCombiner combiner ) {
+                super( size, combiner, true, false, Double.NaN );
+            }
+            public void submitToSlot( int islot, double datum ) {
+                values_[ islot ] = combineSum( values_[ islot ], datum );
+            }
+            public double getSlotResult( int islot ) {
+                return values_[ islot ];
+            }
+            public void addSlot( int islot, PrimitiveHashBinList other,
+                                 int jslot ) {
+                double otherSum = ((SumHashBinList) other).values_[ jslot ];
+                if ( ! Double.isNaN( otherSum ) ) {
+                    values_[ islot ] = combineSum( values_[ islot ], otherSum );
+                }
+            }
+            public Container createSlotContainer( int islot ) {
+                SumContainer container = new SumContainer();
+                container.sum_ = values_[ islot ];
+                return container;
+            }
+        }
+
         /**
          * Container that holds a sum.
          * Note this is a static class to keep memory usage down
@@ -883,6 +996,11 @@ public abstract class Combiner {
             return new MinBinList( size, this );
         }
 
+        @Override
+        public PrimitiveHashBinList createPrimitiveHashBinList( long size ) {
+            return new MinHashBinList( size, this );
+        }
+
         public Container createContainer() {
             return new MinContainer();
         }
@@ -927,6 +1045,33 @@ public abstract class Combiner {
             }
         }
 
+        /**
+         * PrimitiveHashBinList subclass for MinCombiner.
+         */
+        private static class MinHashBinList extends PrimitiveHashBinList {
+            MinHashBinList( long size, MinCombiner combiner ) {
+                super( size, combiner, true, false, Double.NaN );
+            }
+            public void submitToSlot( int islot, double datum ) {
+                values_[ islot ] = combineMin( values_[ islot ], datum );
+            }
+            public double getSlotResult( int islot ) {
+                return values_[ islot ];
+            }
+            public void addSlot( int islot, PrimitiveHashBinList other,
+                                 int jslot ) {
+                double otherMin = ((MinHashBinList) other).values_[ jslot ];
+                if ( ! Double.isNaN( otherMin ) ) {
+                    values_[ islot ] = combineMin( values_[ islot ], otherMin );
+                }
+            }
+            public Container createSlotContainer( int islot ) {
+                MinContainer container = new MinContainer();
+                container.min_ = values_[ islot ];
+                return container;
+            }
+        }
+
         /**
          * Container that accumulates a minimum.
          * Note this is a static class to keep memory usage down
@@ -979,6 +1124,11 @@ public abstract class Combiner {
             return new MaxBinList( size, this );
         }
 
+        @Override
+        public PrimitiveHashBinList createPrimitiveHashBinList( long size ) {
+            return new MaxHashBinList( size, this );
+        }
+
         public Container createContainer() {
             return new MaxContainer();
         }
@@ -1023,6 +1173,33 @@ public abstract class Combiner {
             }
         }
 
+        /**
+         * PrimitiveHashBinList subclass for MaxCombiner.
+         */
+        private static class MaxHashBinList extends PrimitiveHashBinList {
+            MaxHashBinList( long size, MaxCombiner combiner ) {
+                super( size, combiner, true, false, Double.NaN );
+            }
+            public void submitToSlot( int islot, double datum ) {
+                values_[ islot ] = combineMax( values_[ islot ], datum );
+            }
+            public double getSlotResult( int islot ) {
+                return values_[ islot ];
+            }
+            public void addSlot( int islot, PrimitiveHashBinList other,
+                                 int jslot ) {
+                double otherMax = ((MaxHashBinList) other).values_[ jslot ];
+                if ( ! Double.isNaN( otherMax ) ) {
+                    values_[ islot ] = combineMax( values_[ islot ], otherMax );
+                }
+            }
+            public Container createSlotContainer( int islot ) {
+                MaxContainer container = new MaxContainer();
+                container.max_ = values_[ islot ];
+                return container;
+            }
+        }
+
         /**
          * Container that accumulates a maximum.
          * Note this is a static class to keep memory usage down
@@ -0,0 +1,345 @@
+package uk.ac.starlink.ttools.plot2.layer;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Abstract subclass of BinList based on an open-addressing hash table
+ * with primitive storage.
+ * Like {@link HashBinList} it is suitable for sparse bin lists,
+ * but it does not require a boxed key, map entry and container object
+ * for each populated bin, so that memory usage and garbage collection
+ * overhead are much lower for large numbers of populated bins.
+ *
+ * <p>Bin state is held in one or both of a <code>double[]</code>
+ * and an <code>int[]</code> array indexed by hash slot;
+ * concrete subclasses, provided by {@link Combiner} implementations,
+ * determine how submitted values update that state.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+public abstract class PrimitiveHashBinList implements BinList {
+
+    private final long size_;
+    private final Combiner combiner_;
+    private final boolean hasValues_;
+    private final boolean hasCounts_;
+    private final double valueInit_;
+    private long[] keys_;
+    private int nbit_;
+    private int nbin_;
+    private int growThresh_;
+
+    /** Per-slot floating point state, or null if not used. */
+    double[] values_;
+
+    /** Per-slot integer state, or null if not used. */
+    int[] counts_;
+
+    /** Key value marking an unoccupied slot. */
+    private static final long EMPTY = -1L;
+
+    /** Base 2 logarithm of the length of runs hashed together. */
+    private static final int RUN_BITS = 3;
+
+    /** Mask for position within a run. */
+    private static final long RUN_MASK = ( 1L << RUN_BITS ) - 1;
+
+    /** Base 2 logarithm of the initial slot count. */
+    private static final int INIT_BITS = 6;
+
+    /**
+     * Constructor.
+     *
+     * @param  size   bin count
+     * @param  combiner   combiner
+     * @param  hasValues  whether a floating point value is required per bin
+     * @param  hasCounts  whether an integer value is required per bin
+     * @param  valueInit  initial floating point value for each new bin;
+     *                    ignored if <code>hasValues</code> is false
+     */
+    protected PrimitiveHashBinList( long size, Combiner combiner,
+                                    boolean hasValues, boolean hasCounts,
+                                    double valueInit ) {
+        size_ = size;
+        combiner_ = combiner;
+        hasValues_ = hasValues;
+        hasCounts_ = hasCounts;
+        valueInit_ = valueInit;
+        allocate( INIT_BITS );
+    }
+
+    /**
+     * Adds a value to the state held in a given slot.
+     *
+     * @param  islot  slot index
+     * @param  datum  value to submit
+     */
+    protected abstract void submitToSlot( int islot, double datum );
+
+    /**
+     * Returns the combined value for the bin held in a given slot.
+     *
+     * @param  islot  occupied slot index
+     * @return  bin value
+     */
+    protected abstract double getSlotResult( int islot );
+
+    /**
+     * Accumulates the contents of a slot from another bin list into
+     * a slot of this one.  The effect is the same as if all the data
+     * submitted to the other slot had been submitted to this one.
+     *
+     * @param  islot  slot index in this list
+     * @param  other  second bin list of the same type as this one
+     * @param  jslot  occupied slot index in <code>other</code>
+     * @throws   ClassCastException   if <code>other</code>'s type
+     *                                does not match this one
+     */
+    protected abstract void addSlot( int islot, PrimitiveHashBinList other,
+                                     int jslot );
+
+    /**
+     * Returns a new container, of the type used by this list's combiner,
+     * holding the state of a given slot.
+     *
+     * @param  islot  occupied slot index
+     * @return  new container
+     */
+    protected abstract Combiner.Container createSlotContainer( int islot );
+
+    public long getSize() {
+        return size_;
+    }
+
+    public Combiner getCombiner() {
+        return combiner_;
+    }
+
+    public void submitToBin( long index, double datum ) {
+        submitToSlot( getSlot( index ), datum );
+    }
+
+    public Combiner.Container getBinContainer( long index ) {
+        int islot = findSlot( index );
+        return islot >= 0 ? createSlotContainer( islot ) : null;
+    }
+
+    /**
+     * Returns the number of bins currently populated.
+     *
+     * @return  populated bin count
+     */
+    public int getBinCount() {
+        return nbin_;
+    }
+
+    /**
+     * Accumulates all the data from another bin list into this one.
+     * The effect is the same as if all the data submitted to
+     * <code>other</code> had been submitted to this.
+     * This works directly on the primitive storage, so it is cheap
+     * compared to the general purpose
+     * {@link HashBinList#addBins HashBinList.addBins}.
+     *
+     * @param  other   second bin list of the same type as this one
+     * @throws   ClassCastException   if <code>other</code>'s type
+     *                                does not match this one
+     */
+    public void addBins( PrimitiveHashBinList other ) {
+        long[] okeys = other.keys_;
+        for ( int jslot = 0; jslot < okeys.length; jslot++ ) {
+            long key = okeys[ jslot ];
+            if ( key != EMPTY ) {
+                addSlot( getSlot( key ), other, jslot );
+            }
+        }
+    }
+
+    public Result getResult() {
+        return new Result() {
+            public double getBinValue( long index ) {
+                int islot = findSlot( index );
+                return islot >= 0 ? getSlotResult( islot ) : Double.NaN;
+            }
+            public long getBinCount() {
+                return nbin_;
+            }
+            public Iterator<Long> indexIterator() {
+                return createKeyIterator( keys_ );
+            }
+            public Result compact() {
+
+                /* If the hash is well populated, a plain array will be
+                 * more compact.  Otherwise, the primitive storage is
+                 * compact enough already. */
+                double frac = nbin_ * 1.0 / size_;
+                if ( frac > 0.25 && size_ < Integer.MAX_VALUE ) {
+                    int isize = (int) size_;
+                    double[] values = new double[ isize ];
+                    BitSet mask = new BitSet( isize );
+                    for ( int islot = 0; islot < keys_.length; islot++ ) {
+                        long key = keys_[ islot ];
+                        if ( key != EMPTY ) {
+                            int index = (int) key;
+                            mask.set( index );
+                            values[ index ] = getSlotResult( islot );
+                        }
+                    }
+                    return ArrayBinList.createDoubleMaskResult( mask, values );
+                }
+                else {
+                    return this;
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns the slot index for a given bin index, creating and
+     * initialising a new slot if required.
+     *
+     * @param  index  bin index
+     * @return  slot index
+     */
+    private int getSlot( long index ) {
+        int mask = keys_.length - 1;
+        for ( int islot = hashSlot( index );; islot = ( islot + 1 ) & mask ) {
+            long key = keys_[ islot ];
+            if ( key == index ) {
+                return islot;
+            }
+            else if ( key == EMPTY ) {
+                if ( nbin_ >= growThresh_ ) {
+                    rehash();
+                    return getSlot( index );
+                }
+                keys_[ islot ] = index;
+                nbin_++;
+                return islot;
+            }
+        }
+    }
+
+    /**
+     * Returns the slot index for a given bin index if it is populated.
+     *
+     * @param  index  bin index
+     * @return  slot index, or -1 if the bin is empty
+     */
+    private int findSlot( long index ) {
+        int mask = keys_.length - 1;
+        for ( int islot = hashSlot( index );; islot = ( islot + 1 ) & mask ) {
+            long key = keys_[ islot ];
+            if ( key == index ) {
+                return islot;
+            }
+            else if ( key == EMPTY ) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Returns the preferred slot for a given bin index.
+     * Runs of adjacent bin indices map to adjacent slots,
+     * which keeps memory access local when indices are scanned in order,
+     * while Fibonacci hashing of the run number spreads out
+     * regular strides such as grid rows.
+     *
+     * @param  index  bin index
+     * @return  slot index
+     */
+    private int hashSlot( long index ) {
+        long run = index >>> RUN_BITS;
+        int base = (int) ( ( run * 0x9e3779b97f4a7c15L ) >>> ( 64 - nbit_ ) );
+        return ( base + (int) ( index & RUN_MASK ) ) & ( keys_.length - 1 );
+    }
+
+    /**
+     * Doubles the slot count, rehashing the existing contents.
+     */
+    private void rehash() {
+        long[] keys0 = keys_;
+        double[] values0 = values_;
+        int[] counts0 = counts_;
+        allocate( nbit_ + 1 );
+        int mask = keys_.length - 1;
+        for ( int jslot = 0; jslot < keys0.length; jslot++ ) {
+            long key = keys0[ jslot ];
+            if ( key != EMPTY ) {
+                int islot = hashSlot( key );
+                while ( keys_[ islot ] != EMPTY ) {
+                    islot = ( islot + 1 ) & mask;
+                }
+                keys_[ islot ] = key;
+                if ( hasValues_ ) {
+                    values_[ islot ] = values0[ jslot ];
+                }
+                if ( hasCounts_ ) {
+                    counts_[ islot ] = counts0[ jslot ];
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets up empty storage with a given number of slots.
+     * The bin count is not affected.
+     *
+     * @param  nbit  base 2 logarithm of slot count
+     */
+    private void allocate( int nbit ) {
+        int nslot = 1 << nbit;
+        nbit_ = nbit;
+        growThresh_ = nslot / 2;
+        keys_ = new long[ nslot ];
+        Arrays.fill( keys_, EMPTY );
+        if ( hasValues_ ) {
+            values_ = new double[ nslot ];
+            if ( valueInit_ != 0 ) {
+                Arrays.fill( values_, valueInit_ );
+            }
+        }
+        if ( hasCounts_ ) {
+            counts_ = new int[ nslot ];
+        }
+    }
+
+    /**
+     * Returns an iterator over the occupied entries of a key array.
+     *
+     * @param  keys  key array
+     * @return  iterator over bin indices
+     */
+    private static Iterator<Long> createKeyIterator( final long[] keys ) {
+        return new Iterator<Long>() {
+            int islot = nextSlot( 0 );
+            public boolean hasNext() {
+                return islot < keys.length;
+            }
+            public Long next() {
+                if ( islot < keys.length ) {
+                    Long result = Long.valueOf( keys[ islot ] );
+                    islot = nextSlot( islot + 1 );
+                    return result;
+                }
+                else {
+                    throw new NoSuchElementException();
+                }
+            }
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+            private int nextSlot( int is ) {
+                while ( is < keys.length && keys[ is ] == EMPTY ) {
+                    is++;
+                }
+                return is;
+            }
+        };
+    }
+}
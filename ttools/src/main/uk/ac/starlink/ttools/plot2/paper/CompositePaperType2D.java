@@ -10,6 +10,11 @@ import uk.ac.starlink.ttools.plot2.Pixer;
  * Bitmapped 2D PaperType which can render any combination of coloured,
  * opaque and transparent pixels.
  *
+ * <p>Since the result of compositing depends on the order in which
+ * samples are added, the papers produced by this type do not support
+ * sheet merging.  They can however be divided into
+ * {@link TiledPaper tiles} for parallel painting.
+ *
  * @author   Mark Taylor
  * @since    14 Feb 2013
  */
@@ -35,7 +40,8 @@ public class CompositePaperType2D extends RgbPaperType2D {
     /**
      * Paper implementation for this class.
      */
-    private static class CompositePaper extends RgbPaper2D {
+    private static class CompositePaper extends RgbPaper2D
+                                        implements TiledPaper {
 
         private final float[] frgba_;
         private final Compositor.Buffer composBuf_;
@@ -58,6 +64,19 @@ public class CompositePaperType2D extends RgbPaperType2D {
                         .createBuffer( bounds.width * bounds.height );
         }
 
+        /**
+         * Constructs a tile sharing the compositing buffer of
+         * an existing paper.
+         *
+         * @param  base  paper whose storage is shared
+         * @param  clip  tile region in plot coordinates
+         */
+        private CompositePaper( CompositePaper base, Rectangle clip ) {
+            super( base, clip );
+            frgba_ = new float[ 4 ];
+            composBuf_ = base.composBuf_;
+        }
+
         public boolean canMerge() {
             return false;
         }
@@ -70,6 +89,25 @@ public class CompositePaperType2D extends RgbPaperType2D {
             throw new UnsupportedOperationException();
         }
 
+        /**
+         * Returns tiles which are horizontal strips of this paper.
+         */
+        public Paper[] createTiles( int ntile ) {
+            Rectangle clip = getClip();
+            int ny = clip.height;
+            int nt = Math.max( 1, Math.min( ntile, ny ) );
+            Paper[] tiles = new Paper[ nt ];
+            for ( int it = 0; it < nt; it++ ) {
+                int y0 = clip.y + (int) ( ny * (long) it / nt );
+                int y1 = clip.y + (int) ( ny * (long) ( it + 1 ) / nt );
+                tiles[ it ] =
+                    new CompositePaper( this, new Rectangle( clip.x, y0,
+                                                             clip.width,
+                                                             y1 - y0 ) );
+            }
+            return tiles;
+        }
+
         /**
          * Override this method so that the decal painting is captured,
          * painted to a temporary buffer, and composited with the 
@@ -94,9 +132,15 @@ public class CompositePaperType2D extends RgbPaperType2D {
             g.translate( - bounds.x, - bounds.y );
             decal.paintDecal( g );
             g.dispose();
-            int npix = bounds.width * bounds.height;
+
+            /* Only update rows within the clip region, which is the whole
+             * plot unless this paper is a horizontal tile. */
+            Rectangle clip = getClip();
+            int ilo = Math.max( 0, clip.y - bounds.y ) * bounds.width;
+            int ihi = Math.min( bounds.height, clip.y + clip.height - bounds.y )
+                    * bounds.width;
             if ( hasAlpha ) {
-                for ( int i = 0; i < npix; i++ ) {
+                for ( int i = ilo; i < ihi; i++ ) {
                     int rgba = rgbBuf[ i ];
                     if ( rgba != bg ) {
                         composBuf_.addSample( i, rgba );
@@ -104,7 +148,7 @@ public class CompositePaperType2D extends RgbPaperType2D {
                 }
             }
             else {
-                for ( int i = 0; i < npix; i++ ) {
+                for ( int i = ilo; i < ihi; i++ ) {
                     int rgb = rgbBuf[ i ];
                     if ( rgb != bg ) {
                         composBuf_.addSample( i, rgb, 1f );
@@ -134,6 +134,21 @@ public abstract class RgbPaperType implements PaperType {
             graphics_.translate( -bounds.x, -bounds.y );
         }
 
+        /**
+         * Constructs a paper which shares the image and graphics context
+         * of an existing one.
+         *
+         * @param  base  paper whose storage is shared
+         */
+        protected RgbPaper( RgbPaper base ) {
+            paperType_ = base.paperType_;
+            bounds_ = base.bounds_;
+            xpix_ = base.xpix_;
+            ypix_ = base.ypix_;
+            rgbImage_ = base.rgbImage_;
+            graphics_ = base.graphics_;
+        }
+
         public PaperType getPaperType() {
             return paperType_;
         }
@@ -72,6 +72,31 @@ public abstract class RgbPaperType2D extends RgbPaperType
             clip_ = new Rectangle( bounds );
         }
 
+        /**
+         * Constructs a paper which shares the storage of an existing one,
+         * but only paints glyph pixels within a given region.
+         *
+         * @param  base  paper whose storage is shared
+         * @param  clip  region outside which glyph pixels are ignored,
+         *               in plot coordinates
+         */
+        protected RgbPaper2D( RgbPaper2D base, Rectangle clip ) {
+            super( base );
+            x0_ = base.x0_;
+            y0_ = base.y0_;
+            clip_ = base.clip_.intersection( clip );
+        }
+
+        /**
+         * Returns the region within which glyph pixels are painted
+         * by this paper.
+         *
+         * @return  clip region in plot coordinates
+         */
+        public Rectangle getClip() {
+            return new Rectangle( clip_ );
+        }
+
         /**
          * Places a glyph on this paper.
          *
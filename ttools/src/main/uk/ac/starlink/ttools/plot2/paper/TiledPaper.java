@@ -0,0 +1,40 @@
+package uk.ac.starlink.ttools.plot2.paper;
+
+/**
+ * Paper which can be partitioned into disjoint tiles for
+ * parallel painting.
+ *
+ * <p>This is an alternative to the sheet split/merge scheme
+ * ({@link Paper#createSheet}/{@link Paper#mergeSheet}) for papers
+ * whose rendering depends on the order in which glyphs are painted,
+ * so that painting disjoint subsets of the data to separate sheets
+ * and merging the results afterwards would not give the same result
+ * as painting them all in sequence.
+ * Instead, each tile receives all the data in sequence, but only
+ * updates the pixels in its own region.
+ * Every pixel is therefore painted by a single tile in data order,
+ * and the result is identical to that of sequential painting.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+public interface TiledPaper extends Paper {
+
+    /**
+     * Returns a number of papers which together cover this one
+     * without overlapping.
+     * Painting a glyph to one of the returned tiles has the same effect
+     * on the pixels within that tile's region as painting it to
+     * this paper, and no effect on any other pixels.
+     * The tiles share storage with this paper, so no merge step
+     * is required, and different tiles may be painted concurrently
+     * from different threads.
+     * However, each tile must only be painted from one thread at a time,
+     * and this paper must not be painted directly while the tiles
+     * are in use.
+     *
+     * @param  ntile  requested number of tiles; fewer may be returned
+     * @return   array of tiles
+     */
+    Paper[] createTiles( int ntile );
+}
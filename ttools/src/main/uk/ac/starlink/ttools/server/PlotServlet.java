@@ -18,6 +18,10 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Set;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.logging.Logger;
@@ -29,6 +33,7 @@ import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import org.json.JSONObject;
 import uk.ac.starlink.table.StarTableFactory;
 import uk.ac.starlink.table.StarTableOutput;
 import uk.ac.starlink.table.jdbc.JDBCAuthenticator;
@@ -71,6 +76,9 @@ public class PlotServlet extends HttpServlet {
     private StarTableOutput tableOutput_;
     private JDBCAuthenticator jdbcAuth_;
     private SoftCache<String,PlotSession<?,?>> sessionCache_;
+    private SoftCache<String,DataStore> storeCache_;
+    private Map<String,FutureTask<DataStore>> storeLoads_;
+    private RenderPool renderPool_;
     private String servletId_;
     private String acao_;
     private Logger logger_;
@@ -79,6 +87,7 @@ public class PlotServlet extends HttpServlet {
     private static final String EXAMPLE_IPYNB = "basic-plots.ipynb";
     private static final String PYTHON_IPYNB = "plotserv.py";
     private static final String DFLT_ALLOWORIGINS = "*"; // think it's safe
+    private static final String METRICS_PATH = "metrics";
     private static final Map<String,String> MIME_TYPES = mimeTypes();
 
     /** Replacement token for server base URL. */
@@ -106,6 +115,9 @@ public class PlotServlet extends HttpServlet {
         imgCache_ = sContext.getImageCache();
         tableOutput_ = new StarTableOutput();
         sessionCache_ = new SoftCache<String,PlotSession<?,?>>();
+        storeCache_ = new SoftCache<String,DataStore>();
+        storeLoads_ = new ConcurrentHashMap<String,FutureTask<DataStore>>();
+        renderPool_ = sContext.getRenderPool();
         servletId_ = createId( this );
         String acao = sContext.getAllowOrigins();
         acao_ = acao == null ? DFLT_ALLOWORIGINS : acao;
@@ -115,6 +127,8 @@ public class PlotServlet extends HttpServlet {
     @Override
     public void destroy() {
         sessionCache_.clear();
+        storeCache_.clear();
+        renderPool_.shutdown();
         super.destroy();
     }
 
@@ -220,6 +234,15 @@ public class PlotServlet extends HttpServlet {
             return;
         }
 
+        /* If this is a request for usage statistics, return them. */
+        if ( subPath.matches( "/+" + METRICS_PATH + "/*" ) ) {
+            response.setStatus( 200 );
+            response.setContentType( "application/json" );
+            response.setHeader( "Cache-Control", "no-cache" );
+            response.getOutputStream().println( getMetricsJson() );
+            return;
+        }
+
         /* Otherwise, it should be some dynamic content.
          * Parse the request and find out what kind of action is required. */
         Matcher matcher = Pattern.compile( "/+([a-z]+)/+(.*)" )
@@ -291,8 +314,40 @@ public class PlotServlet extends HttpServlet {
             sessionCache_.purge();
         }
 
-        /* Service the session-specific request. */
-        service.sessionRespond( session, request, response );
+        /* Service the session-specific request.
+         * Sessions have mutable state, so requests relating to the
+         * same session are serviced one at a time.
+         * If the rendering queue is full, ask the client to retry later. */
+        try {
+            synchronized ( session ) {
+                service.sessionRespond( session, request, response );
+            }
+        }
+        catch ( RejectedExecutionException e ) {
+            if ( response.isCommitted() ) {
+                throw new ServletException( "Plot server busy", e );
+            }
+            else {
+                response.setHeader( "Retry-After", "1" );
+                response.sendError( 503, "Plot server busy" );
+            }
+        }
+    }
+
+    /**
+     * Returns a JSON object giving usage statistics for this servlet.
+     *
+     * @return  JSON text
+     */
+    private String getMetricsJson() {
+        JSONObject json = new JSONObject();
+        json.put( "sessions", sessionCache_.size() );
+        json.put( "dataStores", storeCache_.size() );
+        for ( Map.Entry<String,Number> entry :
+              renderPool_.getMetrics().entrySet() ) {
+            json.put( entry.getKey(), entry.getValue() );
+        }
+        return json.toString( 1 );
     }
 
     /**
@@ -352,13 +407,73 @@ public class PlotServlet extends HttpServlet {
                                PlotConfiguration<P,A> plotConfig,
                                GraphicExporter exporter )
             throws IOException, InterruptedException {
-        DataStore dataStore = plotConfig.createDataStore( null );
+        DataStore dataStore = getDataStore( plotTxt, plotConfig );
         PlotScene<P,A> scene =
             plotConfig.createPlotScene( dataStore, caching_ );
         Navigator<A> navigator = plotConfig.createNavigator();
         Dimension size = plotConfig.getPlotSize();
         return new PlotSession<P,A>( plotTxt, scene, navigator,
-                                     exporter, dataStore, size, imgCache_ );
+                                     exporter, dataStore, size, imgCache_,
+                                     renderPool_ );
+    }
+
+    /**
+     * Returns a data store for a given plot.
+     * Data stores are shared between sessions with the same plot text,
+     * so that if a session is recreated, or another client requests
+     * the same plot, the data does not have to be read again.
+     * If several requests for the same plot arrive at once,
+     * only one of them reads the data.
+     *
+     * @param  plotTxt   unencoded plot setup string
+     * @param  plotConfig   plot configuration object
+     * @return   data store
+     */
+    private DataStore getDataStore( final String plotTxt,
+                                    final PlotConfiguration<?,?> plotConfig )
+            throws IOException, InterruptedException {
+        DataStore store = storeCache_.get( plotTxt );
+        if ( store != null ) {
+            return store;
+        }
+        FutureTask<DataStore> task = new FutureTask<DataStore>( () -> {
+            DataStore st = plotConfig.createDataStore( null );
+            storeCache_.put( plotTxt, st );
+            storeCache_.purge();
+            return st;
+        } );
+        FutureTask<DataStore> loading =
+            storeLoads_.putIfAbsent( plotTxt, task );
+        if ( loading == null ) {
+            loading = task;
+            try {
+                task.run();
+            }
+            finally {
+                storeLoads_.remove( plotTxt, task );
+            }
+        }
+        try {
+            return loading.get();
+        }
+        catch ( ExecutionException e ) {
+            Throwable cause = e.getCause();
+            if ( cause instanceof IOException ) {
+                throw (IOException) cause;
+            }
+            else if ( cause instanceof InterruptedException ) {
+                throw (InterruptedException) cause;
+            }
+            else if ( cause instanceof RuntimeException ) {
+                throw (RuntimeException) cause;
+            }
+            else if ( cause instanceof Error ) {
+                throw (Error) cause;
+            }
+            else {
+                throw new IOException( "Data read failed: " + cause, cause );
+            }
+        }
     }
 
     /**
@@ -478,6 +593,9 @@ public class PlotServlet extends HttpServlet {
                + jslibRef + "</li>",
             "<li>Examples using " + PlotSession.JS_FILE + ": "
                + alink( EXAMPLE_HTML ) + "</li>",
+            "<li>Server usage statistics: "
+               + "<a href='" + prefix + "/" + METRICS_PATH + "'>"
+               + METRICS_PATH + "</a></li>",
             "<li>Example Jupyter notebook "
                + "(using " + alink( PYTHON_IPYNB ) + "): "
                + alink( EXAMPLE_IPYNB ) + "</li>",
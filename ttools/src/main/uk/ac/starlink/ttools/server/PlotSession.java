@@ -21,6 +21,7 @@ import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -87,6 +88,7 @@ public class PlotSession<P,A> {
     private final DataStore dataStore_;
     private final String imgSuffix_;
     private final DiskCache imgCache_;
+    private final RenderPool renderPool_;
     private final A[] initialAspects_;
     private final Dimension initialSize_;
     private List<HighlightPosition> highlights_;
@@ -142,11 +144,13 @@ public class PlotSession<P,A> {
      * @param   size   initial dimension of IMG element
      * @param   imgCache  disk cache for storing default image files;
      *                    may be null for no caching
+     * @param   renderPool  pool for rendering and caching encoded images;
+     *                      may be null for direct rendering
      */
     public PlotSession( String plotTxt, PlotScene<P,A> scene,
                         Navigator<A> navigator, GraphicExporter exporter,
                         DataStore dataStore, Dimension size,
-                        DiskCache imgCache ) {
+                        DiskCache imgCache, RenderPool renderPool ) {
         plotTxt_ = plotTxt;
         scene_ = scene;
         navigator_ = navigator;
@@ -154,6 +158,7 @@ public class PlotSession<P,A> {
         dataStore_ = dataStore;
         size_ = size;
         imgCache_ = imgCache;
+        renderPool_ = renderPool;
         String[] suffixes = exporter.getFileSuffixes();
         imgSuffix_ = suffixes.length > 0 ? suffixes[ 0 ] : "";
         initialSize_ = new Dimension( size );
@@ -189,6 +194,44 @@ public class PlotSession<P,A> {
         bout.flush();
     }
 
+    /**
+     * Returns the bytes of the image file for the current state of
+     * this session.  If a render pool is in use, the result may come
+     * from the pool's cache, or from a rendering job shared with
+     * concurrent requests for the same image from other sessions.
+     * In that case the plot surfaces may not be up to date
+     * on return, see {@link #ensureSurfaces}.
+     *
+     * @param  exporter  controls output format
+     * @return  image file content
+     */
+    private byte[] getImageBytes( final GraphicExporter exporter )
+            throws IOException {
+        if ( renderPool_ == null ) {
+            return renderImageBytes( exporter );
+        }
+        else {
+            ImageKey key = new ImageKey( plotTxt_, exporter.getName(),
+                                         size_, scene_.getAspects() );
+            return renderPool_.getImage( key,
+                                         () -> renderImageBytes( exporter ) );
+        }
+    }
+
+    /**
+     * Renders the image file for the current state of this session
+     * to a byte array.
+     *
+     * @param  exporter  controls output format
+     * @return  image file content
+     */
+    private byte[] renderImageBytes( GraphicExporter exporter )
+            throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeImageData( out, exporter );
+        return out.toByteArray();
+    }
+
     /**
      * Returns an object that can output the image file corresponding
      * to the state of this session as determined by a supplied request.
@@ -236,9 +279,16 @@ public class PlotSession<P,A> {
         else {
             result = updateAspect( request );
         }
+
+        /* If the image has changed, acquire its content now,
+         * so that any failure to do so, for instance on account of
+         * server load, happens before any output is written. */
+        final byte[] buf = result.isImageChanged_
+                         ? getImageBytes( exporter )
+                         : null;
         return new ImageWriter() {
             public long getByteCount() {
-                return -1;
+                return buf == null ? -1 : buf.length;
             }
             public boolean isChanged() {
                 return result.isImageChanged_;
@@ -247,7 +297,7 @@ public class PlotSession<P,A> {
                 return result.decoration_;
             }
             public void writeImage( OutputStream out ) throws IOException {
-                writeImageData( out, exporter );
+                out.write( buf == null ? getImageBytes( exporter ) : buf );
             }
         };
     }
@@ -427,8 +477,9 @@ public class PlotSession<P,A> {
         else {
             File workFile = DiskCache.toWorkFilename( file );
             try {
+                byte[] buf = getImageBytes( exporter_ );
                 OutputStream out = new FileOutputStream( workFile );
-                writeImageData( out, exporter_ );
+                out.write( buf );
                 out.close();
                 workFile.renameTo( file );
                 imgCache_.fileAdded( file );
@@ -1057,6 +1108,7 @@ public class PlotSession<P,A> {
                 }
 
                 /* Write highlight markers. */
+                session.ensureSurfaces();
                 if ( session.highlights_.size() > 0 ) {
                     List<Decoration> hidecs = new ArrayList<>();
                     Surface[] surfaces = session.scene_.getSurfaces();
@@ -1138,6 +1190,9 @@ public class PlotSession<P,A> {
                 Point gpos = parseXY( paramMap.get( "pos" ) );
                 JSONObject json = new JSONObject();
                 PlotScene<?,?> scene = session.scene_;
+                if ( gpos != null ) {
+                    session.ensureSurfaces();
+                }
                 Surface[] surfs = scene.getSurfaces();
                 if ( gpos != null && surfs[ 0 ] != null ) {
                     int iz = scene.getGang().getNavigationZoneIndex( gpos );
@@ -1349,6 +1404,56 @@ public class PlotSession<P,A> {
         void writeImage( OutputStream out ) throws IOException;
     }
 
+    /**
+     * Identifies the content of an encoded plot image.
+     * Sessions with the same plot text, format, size and aspects
+     * will produce the same image.
+     */
+    private static class ImageKey {
+        final String plotTxt_;
+        final String format_;
+        final Dimension size_;
+        final Object[] aspects_;
+
+        /**
+         * Constructor.
+         *
+         * @param  plotTxt  plot text
+         * @param  format   image format name
+         * @param  size   image dimensions
+         * @param  aspects  per-zone plot aspects
+         */
+        ImageKey( String plotTxt, String format, Dimension size,
+                  Object[] aspects ) {
+            plotTxt_ = plotTxt;
+            format_ = format;
+            size_ = new Dimension( size );
+            aspects_ = aspects.clone();
+        }
+        @Override
+        public int hashCode() {
+            int code = 6601;
+            code = 23 * code + plotTxt_.hashCode();
+            code = 23 * code + format_.hashCode();
+            code = 23 * code + size_.hashCode();
+            code = 23 * code + Arrays.hashCode( aspects_ );
+            return code;
+        }
+        @Override
+        public boolean equals( Object o ) {
+            if ( o instanceof ImageKey ) {
+                ImageKey other = (ImageKey) o;
+                return this.plotTxt_.equals( other.plotTxt_ )
+                    && this.format_.equals( other.format_ )
+                    && this.size_.equals( other.size_ )
+                    && Arrays.equals( this.aspects_, other.aspects_ );
+            }
+            else {
+                return false;
+            }
+        }
+    }
+
     /**
      * Utility class that aggregates a table and a row index.
      */
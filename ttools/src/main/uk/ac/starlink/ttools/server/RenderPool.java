@@ -0,0 +1,300 @@
+package uk.ac.starlink.ttools.server;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Manages rendering of encoded plot images for the plot server.
+ *
+ * <p>Rendering jobs are run on a fixed-size thread pool with a bounded
+ * queue; if the queue is full, further requests are rejected with a
+ * {@link java.util.concurrent.RejectedExecutionException} rather than
+ * tying up more request threads and memory.
+ * The encoded output of each job is kept in a memory cache,
+ * limited by total byte count with least recently used entries
+ * discarded first, so that repeated requests for the same image
+ * are served without rendering.
+ * Concurrent requests for the same image share a single rendering job.
+ *
+ * <p>Image identity is determined by a caller-supplied key object,
+ * which must have suitable <code>equals</code> and
+ * <code>hashCode</code> methods.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+public class RenderPool {
+
+    private final int nthread_;
+    private final int queueSize_;
+    private final long cacheLimit_;
+    private final BlockingQueue<Runnable> queue_;
+    private final ThreadPoolExecutor executor_;
+    private final Map<Object,FutureTask<byte[]>> inflightMap_;
+    private final Map<Object,byte[]> cacheMap_;
+    private long cacheBytes_;
+    private final AtomicLong nRequest_;
+    private final AtomicLong nHit_;
+    private final AtomicLong nCoalesce_;
+    private final AtomicLong nReject_;
+    private final AtomicLong nRender_;
+    private final AtomicLong nFail_;
+    private final AtomicLong nEvict_;
+    private final AtomicLong renderNanos_;
+    private final AtomicLong waitNanos_;
+    private final AtomicLong maxRenderNanos_;
+
+    /**
+     * Constructor.
+     *
+     * @param  nthread  maximum number of concurrent rendering jobs
+     * @param  queueSize  maximum number of rendering jobs that may be
+     *                    waiting to execute
+     * @param  cacheLimit  maximum total size in bytes of cached images;
+     *                     zero means no caching
+     */
+    public RenderPool( int nthread, int queueSize, long cacheLimit ) {
+        nthread_ = nthread;
+        queueSize_ = queueSize;
+        cacheLimit_ = cacheLimit;
+        queue_ = new ArrayBlockingQueue<Runnable>( queueSize );
+        executor_ =
+            new ThreadPoolExecutor( nthread, nthread, 60, TimeUnit.SECONDS,
+                                    queue_, createThreadFactory(),
+                                    new ThreadPoolExecutor.AbortPolicy() );
+        executor_.allowCoreThreadTimeOut( true );
+        inflightMap_ = new ConcurrentHashMap<Object,FutureTask<byte[]>>();
+        cacheMap_ = new LinkedHashMap<Object,byte[]>( 16, 0.75f, true );
+        nRequest_ = new AtomicLong();
+        nHit_ = new AtomicLong();
+        nCoalesce_ = new AtomicLong();
+        nReject_ = new AtomicLong();
+        nRender_ = new AtomicLong();
+        nFail_ = new AtomicLong();
+        nEvict_ = new AtomicLong();
+        renderNanos_ = new AtomicLong();
+        waitNanos_ = new AtomicLong();
+        maxRenderNanos_ = new AtomicLong();
+    }
+
+    /**
+     * Returns the encoded bytes of an image.
+     * If an image with the given key is in the cache, it is returned
+     * directly.  If it is currently being rendered on behalf of another
+     * request, this method waits for that rendering to complete.
+     * Otherwise, the supplied renderer is queued for execution on
+     * this pool's rendering threads, and this method waits for it
+     * to complete.
+     *
+     * <p>The renderer is run on a different thread than the caller's,
+     * but the calling thread is blocked until it completes,
+     * so that it may safely use objects to which the caller
+     * holds a lock.
+     *
+     * @param  key  image identifier
+     * @param  renderer   generates the encoded image bytes if required
+     * @return   encoded image bytes; the caller must not modify the content
+     * @throws   RejectedExecutionException  if the rendering queue is full
+     */
+    public byte[] getImage( final Object key,
+                            final Callable<byte[]> renderer )
+            throws IOException {
+        nRequest_.incrementAndGet();
+        byte[] cached = getCached( key );
+        if ( cached != null ) {
+            nHit_.incrementAndGet();
+            return cached;
+        }
+        final long submitTime = System.nanoTime();
+        FutureTask<byte[]> task = new FutureTask<byte[]>( () -> {
+            long startTime = System.nanoTime();
+            waitNanos_.addAndGet( startTime - submitTime );
+            byte[] buf;
+            try {
+                buf = renderer.call();
+            }
+            catch ( Throwable e ) {
+                nFail_.incrementAndGet();
+                inflightMap_.remove( key );
+                throw e;
+            }
+            long renderTime = System.nanoTime() - startTime;
+            renderNanos_.addAndGet( renderTime );
+            maxRenderNanos_.accumulateAndGet( renderTime, Math::max );
+            nRender_.incrementAndGet();
+
+            /* Cache before deregistering, so that there is no window
+             * in which a new request would find neither. */
+            putCached( key, buf );
+            inflightMap_.remove( key );
+            return buf;
+        } );
+        FutureTask<byte[]> running = inflightMap_.putIfAbsent( key, task );
+        if ( running != null ) {
+            nCoalesce_.incrementAndGet();
+        }
+        else {
+            running = task;
+            try {
+                executor_.execute( task );
+            }
+            catch ( RejectedExecutionException e ) {
+                inflightMap_.remove( key, task );
+                nReject_.incrementAndGet();
+                throw e;
+            }
+        }
+        return waitFor( running );
+    }
+
+    /**
+     * Returns a map of the current usage statistics for this pool.
+     * Map values are numbers.
+     *
+     * @return   ordered name-&gt;value map of metrics
+     */
+    public Map<String,Number> getMetrics() {
+        long nReq = nRequest_.get();
+        long nHit = nHit_.get();
+        long nRender = nRender_.get();
+        int nEntry;
+        long nbyte;
+        synchronized ( cacheMap_ ) {
+            nEntry = cacheMap_.size();
+            nbyte = cacheBytes_;
+        }
+        Map<String,Number> map = new LinkedHashMap<>();
+        map.put( "renderThreads", nthread_ );
+        map.put( "activeRenders", executor_.getActiveCount() );
+        map.put( "queueDepth", queue_.size() );
+        map.put( "queueCapacity", queueSize_ );
+        map.put( "requests", nReq );
+        map.put( "cacheHits", nHit );
+        map.put( "coalesced", nCoalesce_.get() );
+        map.put( "rejected", nReject_.get() );
+        map.put( "cacheHitRate", nReq > 0 ? nHit / (double) nReq : 0.0 );
+        map.put( "renders", nRender );
+        map.put( "renderFailures", nFail_.get() );
+        map.put( "renderMeanMillis",
+                 nRender > 0 ? 1e-6 * renderNanos_.get() / nRender : 0.0 );
+        map.put( "renderMaxMillis", 1e-6 * maxRenderNanos_.get() );
+        map.put( "queueWaitMeanMillis",
+                 nRender > 0 ? 1e-6 * waitNanos_.get() / nRender : 0.0 );
+        map.put( "cacheEntries", nEntry );
+        map.put( "cacheBytes", nbyte );
+        map.put( "cacheLimit", cacheLimit_ );
+        map.put( "cacheEvictions", nEvict_.get() );
+        return map;
+    }
+
+    /**
+     * Discards cached images and stops the rendering threads.
+     * Queued jobs will still be executed.
+     */
+    public void shutdown() {
+        executor_.shutdown();
+        synchronized ( cacheMap_ ) {
+            cacheMap_.clear();
+            cacheBytes_ = 0;
+        }
+    }
+
+    /**
+     * Returns a cached image if available.
+     *
+     * @param  key  image identifier
+     * @return  cached bytes, or null
+     */
+    private byte[] getCached( Object key ) {
+        synchronized ( cacheMap_ ) {
+            return cacheMap_.get( key );
+        }
+    }
+
+    /**
+     * Adds an image to the cache, discarding the least recently used
+     * entries if necessary to stay within the size limit.
+     *
+     * @param  key  image identifier
+     * @param  buf  encoded image bytes
+     */
+    private void putCached( Object key, byte[] buf ) {
+        if ( buf.length > cacheLimit_ ) {
+            return;
+        }
+        synchronized ( cacheMap_ ) {
+            byte[] old = cacheMap_.put( key, buf );
+            cacheBytes_ += buf.length - ( old == null ? 0 : old.length );
+            for ( Iterator<byte[]> it = cacheMap_.values().iterator();
+                  cacheBytes_ > cacheLimit_ && it.hasNext(); ) {
+                cacheBytes_ -= it.next().length;
+                it.remove();
+                nEvict_.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Waits for a rendering job to complete and returns its result.
+     *
+     * @param  future  rendering job
+     * @return  encoded image bytes
+     */
+    private static byte[] waitFor( Future<byte[]> future )
+            throws IOException {
+        try {
+            return future.get();
+        }
+        catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw (IOException)
+                  new InterruptedIOException( "Interrupted" ).initCause( e );
+        }
+        catch ( ExecutionException e ) {
+            Throwable cause = e.getCause();
+            if ( cause instanceof IOException ) {
+                throw (IOException) cause;
+            }
+            else if ( cause instanceof RuntimeException ) {
+                throw (RuntimeException) cause;
+            }
+            else if ( cause instanceof Error ) {
+                throw (Error) cause;
+            }
+            else {
+                throw new IOException( "Rendering failed: " + cause, cause );
+            }
+        }
+    }
+
+    /**
+     * Returns a factory for daemon rendering threads.
+     *
+     * @return  thread factory
+     */
+    private static ThreadFactory createThreadFactory() {
+        final AtomicInteger iThread = new AtomicInteger();
+        return r -> {
+            Thread thread =
+                new Thread( r, "PlotRender-" + iThread.incrementAndGet() );
+            thread.setDaemon( true );
+            return thread;
+        };
+    }
+}
@@ -16,6 +16,7 @@ import uk.ac.starlink.ttools.Stilts;
 import uk.ac.starlink.ttools.plot2.SplitRunner;
 import uk.ac.starlink.ttools.plot2.data.DataStoreFactory;
 import uk.ac.starlink.ttools.plot2.data.DiskCache;
+import uk.ac.starlink.ttools.plot2.data.LodDataStoreFactory;
 import uk.ac.starlink.ttools.plot2.data.PersistentDataStoreFactory;
 import uk.ac.starlink.ttools.plot2.data.TupleRunner;
 import uk.ac.starlink.ttools.task.TableFactoryParameter;
@@ -103,6 +104,30 @@ public class StiltsContext {
      */
     public static final String ALLOWORIGINS_PARAM = "allowOrigins";
 
+    /**
+     * Name of a servlet initialisation parameter giving the maximum
+     * number of plot images that may be rendered concurrently by
+     * the plot server.  If not supplied, the number of available
+     * processors is used.
+     */
+    public static final String RENDERTHREADS_PARAM = "plotRenderThreads";
+
+    /**
+     * Name of a servlet initialisation parameter giving the maximum
+     * number of plot rendering jobs that may be queued waiting for
+     * a rendering thread.  Requests beyond this limit are refused
+     * with a 503 (Service Unavailable) response.
+     * If not supplied, a default value is used.
+     */
+    public static final String RENDERQUEUE_PARAM = "plotRenderQueue";
+
+    /**
+     * Name of a servlet initialisation parameter giving the maximum
+     * total size in bytes of the in-memory cache of encoded plot images.
+     * If not supplied, a default value is used; zero means no caching.
+     */
+    public static final String IMAGEMEMCACHE_PARAM = "plotImageMemCache";
+
     /** 
      * Constructor.
      *
@@ -162,7 +187,8 @@ public class StiltsContext {
             createCache( dir -> PersistentDataStoreFactory.toCacheDir( dir ),
                          0.9 );
         TupleRunner tupleRunner = createTupleRunner();
-        return new PersistentDataStoreFactory( cache, tupleRunner );
+        return new LodDataStoreFactory(
+                   new PersistentDataStoreFactory( cache, tupleRunner ) );
     }
 
     /**
@@ -175,6 +201,31 @@ public class StiltsContext {
                             0.1 );
     }
 
+    /**
+     * Returns a pool for rendering and caching plot images.
+     *
+     * @return  render pool
+     */
+    public RenderPool getRenderPool() throws ServletException {
+        int nthread =
+            (int) getLongParameter( RENDERTHREADS_PARAM,
+                                    Runtime.getRuntime()
+                                           .availableProcessors() );
+        int queueSize =
+            (int) getLongParameter( RENDERQUEUE_PARAM, 16 * nthread );
+        long cacheLimit =
+            getLongParameter( IMAGEMEMCACHE_PARAM, 32 * 1024 * 1024 );
+        if ( nthread < 1 || queueSize < 1 || cacheLimit < 0 ) {
+            throw new ServletException( "Bad render pool configuration ("
+                                      + RENDERTHREADS_PARAM + "=" + nthread
+                                      + ", " + RENDERQUEUE_PARAM + "="
+                                      + queueSize + ", "
+                                      + IMAGEMEMCACHE_PARAM + "="
+                                      + cacheLimit + ")" );
+        }
+        return new RenderPool( nthread, queueSize, cacheLimit );
+    }
+
     /**
      * Returns the intended content of the CORS Access-Control-Allow-Origin
      * header.  A null value should be taken to mean default behaviour,
@@ -218,6 +269,30 @@ public class StiltsContext {
         }
     }
 
+    /**
+     * Returns the value of an integer-valued initialisation parameter.
+     *
+     * @param  name  parameter name
+     * @param  dflt  value to return if the parameter is not supplied
+     * @return  parameter value
+     */
+    private long getLongParameter( String name, long dflt )
+            throws ServletException {
+        String txt = context_.getInitParameter( name );
+        if ( txt == null || txt.trim().length() == 0 ) {
+            return dflt;
+        }
+        else {
+            try {
+                return Long.parseLong( txt.trim() );
+            }
+            catch ( RuntimeException e ) {
+                throw new ServletException( "Unsuitable value \"" + txt
+                                          + "\" for " + name );
+            }
+        }
+    }
+
     /**
      * Returns a DiskCache object for use with a servlet.
      *
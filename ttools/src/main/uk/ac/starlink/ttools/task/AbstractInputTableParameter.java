@@ -149,7 +149,11 @@ public abstract class AbstractInputTableParameter<T> extends Parameter<T> {
                                          fmt );
             }
             else {
-                return tfact.makeStarTable( loc, fmt );
+                StarTable table = tfact.makeStarTable( loc, fmt );
+                PersistentColumnCache colCache =
+                    PersistentColumnCache.getDefaultInstance();
+                return colCache == null ? table
+                                        : colCache.wrapTable( table, loc );
             }
         }
         catch ( EOFException e ) {
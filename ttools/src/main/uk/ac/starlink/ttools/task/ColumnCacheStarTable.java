@@ -0,0 +1,556 @@
+package uk.ac.starlink.ttools.task;
+
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import uk.ac.starlink.table.RandomRowSplittable;
+import uk.ac.starlink.table.RowAccess;
+import uk.ac.starlink.table.RowSequence;
+import uk.ac.starlink.table.RowSplittable;
+import uk.ac.starlink.table.StarTable;
+import uk.ac.starlink.table.WrapperStarTable;
+
+/**
+ * Wrapper table which supplies some of its columns from memory-mapped
+ * column files written by a {@link PersistentColumnCache}.
+ *
+ * <p>If all the columns are cached, or if the base table provides
+ * random access, the table is random access and data are read from the
+ * cache files where available, and from the base table otherwise.
+ * If some columns are not cached and the base table is sequential-only,
+ * sequential access is delegated to the base table,
+ * since reading a row from it will decode all the columns anyway.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+class ColumnCacheStarTable extends WrapperStarTable {
+
+    private final MappedColumn[] mcols_;
+    private final boolean allCached_;
+    private final long nrow_;
+
+    /**
+     * Constructor.
+     *
+     * @param  base   base table
+     * @param  mcols  array with an entry for each column of the base table,
+     *                giving the cached data, or null for uncached columns
+     */
+    ColumnCacheStarTable( StarTable base, MappedColumn[] mcols ) {
+        super( base );
+        mcols_ = mcols;
+        nrow_ = base.getRowCount();
+        boolean allCached = true;
+        for ( MappedColumn mcol : mcols ) {
+            allCached = allCached && mcol != null;
+        }
+        allCached_ = allCached;
+    }
+
+    @Override
+    public boolean isRandom() {
+        return allCached_ || baseTable.isRandom();
+    }
+
+    @Override
+    public Object getCell( long irow, int icol ) throws IOException {
+        MappedColumn mcol = mcols_[ icol ];
+        return mcol == null ? baseTable.getCell( irow, icol )
+                            : mcol.getValue( irow );
+    }
+
+    @Override
+    public Object[] getRow( long irow ) throws IOException {
+        Object[] row = allCached_ ? new Object[ mcols_.length ]
+                                  : baseTable.getRow( irow );
+        for ( int ic = 0; ic < mcols_.length; ic++ ) {
+            MappedColumn mcol = mcols_[ ic ];
+            if ( mcol != null ) {
+                row[ ic ] = mcol.getValue( irow );
+            }
+        }
+        return row;
+    }
+
+    @Override
+    public RowAccess getRowAccess() throws IOException {
+        return new CacheRowAccess( allCached_ ? null
+                                              : baseTable.getRowAccess() );
+    }
+
+    @Override
+    public RowSequence getRowSequence() throws IOException {
+        return isRandom() ? new CacheRowSequence( getRowAccess() )
+                          : baseTable.getRowSequence();
+    }
+
+    @Override
+    public RowSplittable getRowSplittable() throws IOException {
+        return isRandom() ? new RandomRowSplittable( this )
+                          : baseTable.getRowSplittable();
+    }
+
+    /**
+     * RowAccess implementation that reads cached columns from the cache,
+     * and others from an optional base RowAccess.
+     */
+    private class CacheRowAccess implements RowAccess {
+
+        private final RowAccess baseAcc_;
+        private final Object[] row_;
+        private long irow_;
+
+        /**
+         * Constructor.
+         *
+         * @param  baseAcc  access to base table for uncached columns;
+         *                  may be null if all columns are cached
+         */
+        CacheRowAccess( RowAccess baseAcc ) {
+            baseAcc_ = baseAcc;
+            row_ = new Object[ mcols_.length ];
+            irow_ = -1;
+        }
+
+        public void setRowIndex( long irow ) throws IOException {
+            irow_ = irow;
+            if ( baseAcc_ != null ) {
+                baseAcc_.setRowIndex( irow );
+            }
+        }
+
+        public Object getCell( int icol ) throws IOException {
+            MappedColumn mcol = mcols_[ icol ];
+            return mcol == null ? baseAcc_.getCell( icol )
+                                : mcol.getValue( irow_ );
+        }
+
+        public Object[] getRow() throws IOException {
+            for ( int ic = 0; ic < row_.length; ic++ ) {
+                MappedColumn mcol = mcols_[ ic ];
+                row_[ ic ] = mcol == null ? baseAcc_.getCell( ic )
+                                          : mcol.getValue( irow_ );
+            }
+            return row_;
+        }
+
+        @Override
+        public double getDouble( int icol ) throws IOException {
+            MappedColumn mcol = mcols_[ icol ];
+            return mcol == null ? baseAcc_.getDouble( icol )
+                                : mcol.getDouble( irow_ );
+        }
+
+        @Override
+        public boolean isNull( int icol ) throws IOException {
+            MappedColumn mcol = mcols_[ icol ];
+            return mcol == null ? baseAcc_.isNull( icol )
+                                : mcol.isNull( irow_ );
+        }
+
+        public void close() throws IOException {
+            if ( baseAcc_ != null ) {
+                baseAcc_.close();
+            }
+        }
+    }
+
+    /**
+     * RowSequence implementation that steps through the rows of a
+     * RowAccess.
+     */
+    private class CacheRowSequence implements RowSequence {
+
+        private final RowAccess acc_;
+        private long irow_;
+
+        /**
+         * Constructor.
+         *
+         * @param  acc  row access for this table
+         */
+        CacheRowSequence( RowAccess acc ) {
+            acc_ = acc;
+            irow_ = -1;
+        }
+
+        public boolean next() throws IOException {
+            if ( irow_ + 1 < nrow_ ) {
+                acc_.setRowIndex( ++irow_ );
+                return true;
+            }
+            else {
+                return false;
+            }
+        }
+
+        public Object getCell( int icol ) throws IOException {
+            checkRow();
+            return acc_.getCell( icol );
+        }
+
+        public Object[] getRow() throws IOException {
+            checkRow();
+            return acc_.getRow();
+        }
+
+        @Override
+        public double getDouble( int icol ) throws IOException {
+            checkRow();
+            return acc_.getDouble( icol );
+        }
+
+        @Override
+        public boolean isNull( int icol ) throws IOException {
+            checkRow();
+            return acc_.isNull( icol );
+        }
+
+        public void close() throws IOException {
+            acc_.close();
+        }
+
+        /**
+         * Checks that the sequence is positioned at a row.
+         */
+        private void checkRow() {
+            if ( irow_ < 0 ) {
+                throw new IllegalStateException( "No current row" );
+            }
+        }
+    }
+
+    /**
+     * Enumerates the column data types that can be cached,
+     * and defines how they are stored.
+     */
+    enum ColType {
+
+        DOUBLE( 1, 8, Double.class ) {
+            Object read( ByteBuffer buf, int off ) {
+                return Double.valueOf( buf.getDouble( off ) );
+            }
+            double readDouble( ByteBuffer buf, int off ) {
+                return buf.getDouble( off );
+            }
+            void write( DataOutput out, Object value ) throws IOException {
+                out.writeDouble( value == null
+                               ? Double.NaN
+                               : ((Number) value).doubleValue() );
+            }
+        },
+        FLOAT( 2, 4, Float.class ) {
+            Object read( ByteBuffer buf, int off ) {
+                return Float.valueOf( buf.getFloat( off ) );
+            }
+            double readDouble( ByteBuffer buf, int off ) {
+                return buf.getFloat( off );
+            }
+            void write( DataOutput out, Object value ) throws IOException {
+                out.writeFloat( value == null
+                              ? Float.NaN
+                              : ((Number) value).floatValue() );
+            }
+        },
+        LONG( 3, 8, Long.class ) {
+            Object read( ByteBuffer buf, int off ) {
+                return Long.valueOf( buf.getLong( off ) );
+            }
+            double readDouble( ByteBuffer buf, int off ) {
+                return buf.getLong( off );
+            }
+            void write( DataOutput out, Object value ) throws IOException {
+                out.writeLong( value == null ? 0
+                                             : ((Number) value).longValue() );
+            }
+        },
+        INT( 4, 4, Integer.class ) {
+            Object read( ByteBuffer buf, int off ) {
+                return Integer.valueOf( buf.getInt( off ) );
+            }
+            double readDouble( ByteBuffer buf, int off ) {
+                return buf.getInt( off );
+            }
+            void write( DataOutput out, Object value ) throws IOException {
+                out.writeInt( value == null ? 0
+                                            : ((Number) value).intValue() );
+            }
+        },
+        SHORT( 5, 2, Short.class ) {
+            Object read( ByteBuffer buf, int off ) {
+                return Short.valueOf( buf.getShort( off ) );
+            }
+            double readDouble( ByteBuffer buf, int off ) {
+                return buf.getShort( off );
+            }
+            void write( DataOutput out, Object value ) throws IOException {
+                out.writeShort( value == null ? 0
+                                              : ((Number) value).shortValue() );
+            }
+        },
+        BYTE( 6, 1, Byte.class ) {
+            Object read( ByteBuffer buf, int off ) {
+                return Byte.valueOf( buf.get( off ) );
+            }
+            double readDouble( ByteBuffer buf, int off ) {
+                return buf.get( off );
+            }
+            void write( DataOutput out, Object value ) throws IOException {
+                out.writeByte( value == null ? 0
+                                             : ((Number) value).byteValue() );
+            }
+        },
+        BOOLEAN( 7, 1, Boolean.class ) {
+            Object read( ByteBuffer buf, int off ) {
+                return Boolean.valueOf( buf.get( off ) != 0 );
+            }
+            double readDouble( ByteBuffer buf, int off ) {
+                return Double.NaN;
+            }
+            void write( DataOutput out, Object value ) throws IOException {
+                out.writeByte( Boolean.TRUE.equals( value ) ? 1 : 0 );
+            }
+        };
+
+        final int code_;
+        final int size_;
+        final Class<?> clazz_;
+
+        /**
+         * Constructor.
+         *
+         * @param  code  integer code identifying this type in cache files
+         * @param  size  number of bytes per element
+         * @param  clazz  column content class
+         */
+        ColType( int code, int size, Class<?> clazz ) {
+            code_ = code;
+            size_ = size;
+            clazz_ = clazz;
+        }
+
+        /**
+         * Reads a value from a buffer.
+         *
+         * @param  buf  buffer
+         * @param  off  offset into buffer
+         * @return  value
+         */
+        abstract Object read( ByteBuffer buf, int off );
+
+        /**
+         * Reads a value from a buffer as a double.
+         *
+         * @param  buf  buffer
+         * @param  off  offset into buffer
+         * @return  numeric value, or NaN for non-numeric types
+         */
+        abstract double readDouble( ByteBuffer buf, int off );
+
+        /**
+         * Writes a value to an output stream.
+         * Null values are written as some fixed value.
+         *
+         * @param  out  destination
+         * @param  value  value to write, may be null
+         */
+        abstract void write( DataOutput out, Object value ) throws IOException;
+
+        /**
+         * Returns the type for a given column content class.
+         *
+         * @param  clazz  content class
+         * @return  type, or null if it cannot be cached
+         */
+        static ColType forClass( Class<?> clazz ) {
+            for ( ColType type : values() ) {
+                if ( type.clazz_.equals( clazz ) ) {
+                    return type;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Returns the type for a given integer code.
+         *
+         * @param  code  type code
+         * @return  type, or null if unknown
+         */
+        static ColType forCode( int code ) {
+            for ( ColType type : values() ) {
+                if ( type.code_ == code ) {
+                    return type;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Provides read access to a single column cache file.
+     *
+     * <p>The file consists of a fixed-length header, followed by the
+     * values, padded to a multiple of 8 bytes, followed (only if the
+     * header flag is set) by a bit mask with a set bit for each null value.
+     */
+    static class MappedColumn {
+
+        private final ColType type_;
+        private final long nrow_;
+        private final ByteBuffer[] valueBufs_;
+        private final ByteBuffer[] nullBufs_;
+
+        /** Magic number at the start of each column cache file. */
+        static final long MAGIC = 0x5354494c434f4c31L;  // "STILCOL1"
+
+        /** Length of file header in bytes. */
+        static final int HEADER_LENG = 32;
+
+        /** Offset within header of null flag. */
+        static final int NULLFLAG_OFFSET = 12;
+
+        /** Number of bits in the length of each mapped buffer. */
+        private static final int BLOCK_BITS = 30;
+
+        /** Mask for offset within a mapped buffer. */
+        private static final long BLOCK_MASK = ( 1L << BLOCK_BITS ) - 1;
+
+        /**
+         * Constructs a MappedColumn by mapping a given cache file.
+         *
+         * @param  file  cache file
+         * @param  type  required data type
+         * @param  nrow  required row count
+         * @throws  IOException  if the file cannot be read or
+         *                       does not have the required content
+         */
+        MappedColumn( File file, ColType type, long nrow ) throws IOException {
+            type_ = type;
+            nrow_ = nrow;
+            try ( RandomAccessFile raf = new RandomAccessFile( file, "r" );
+                  FileChannel chan = raf.getChannel() ) {
+                ByteBuffer hdr = ByteBuffer.allocate( HEADER_LENG );
+                while ( hdr.hasRemaining() && chan.read( hdr ) >= 0 ) {
+                }
+                hdr.flip();
+                if ( hdr.remaining() < HEADER_LENG ||
+                     hdr.getLong() != MAGIC ||
+                     hdr.getInt() != type.code_ ) {
+                    throw new IOException( "Bad column cache header in "
+                                         + file );
+                }
+                boolean hasNulls = hdr.getInt() != 0;
+                if ( hdr.getLong() != nrow ) {
+                    throw new IOException( "Row count mismatch in " + file );
+                }
+                long valueLeng = nrow * type.size_;
+                long nullOff = getNullOffset( type, nrow );
+                long nullLeng = hasNulls ? ( nrow + 7 ) / 8 : 0;
+                if ( chan.size() != nullOff + nullLeng ) {
+                    throw new IOException( "Wrong length for " + file );
+                }
+                valueBufs_ = mapBlocks( chan, HEADER_LENG, valueLeng );
+                nullBufs_ = hasNulls ? mapBlocks( chan, nullOff, nullLeng )
+                                     : null;
+            }
+        }
+
+        /**
+         * Returns the data type of this column.
+         *
+         * @return  type
+         */
+        ColType getType() {
+            return type_;
+        }
+
+        /**
+         * Returns the value at a given row.
+         *
+         * @param  irow  row index
+         * @return  value, may be null
+         */
+        Object getValue( long irow ) {
+            if ( isNull( irow ) ) {
+                return null;
+            }
+            long pos = irow * type_.size_;
+            return type_.read( valueBufs_[ (int) ( pos >>> BLOCK_BITS ) ],
+                               (int) ( pos & BLOCK_MASK ) );
+        }
+
+        /**
+         * Returns the value at a given row as a double.
+         *
+         * @param  irow  row index
+         * @return  numeric value, or NaN
+         */
+        double getDouble( long irow ) {
+            if ( isNull( irow ) ) {
+                return Double.NaN;
+            }
+            long pos = irow * type_.size_;
+            return type_.readDouble( valueBufs_[ (int) ( pos >>> BLOCK_BITS ) ],
+                                     (int) ( pos & BLOCK_MASK ) );
+        }
+
+        /**
+         * Indicates whether the value at a given row is null.
+         *
+         * @param  irow  row index
+         * @return  true iff value is null
+         */
+        boolean isNull( long irow ) {
+            if ( irow < 0 || irow >= nrow_ ) {
+                throw new IndexOutOfBoundsException( "No row " + irow );
+            }
+            if ( nullBufs_ == null ) {
+                return false;
+            }
+            long pos = irow >>> 3;
+            byte b = nullBufs_[ (int) ( pos >>> BLOCK_BITS ) ]
+                    .get( (int) ( pos & BLOCK_MASK ) );
+            return ( b & ( 1 << ( irow & 7 ) ) ) != 0;
+        }
+
+        /**
+         * Returns the offset into a cache file of the null mask.
+         *
+         * @param  type  data type
+         * @param  nrow  row count
+         * @return   null mask offset in bytes
+         */
+        static long getNullOffset( ColType type, long nrow ) {
+            return ( ( HEADER_LENG + nrow * type.size_ + 7 ) / 8 ) * 8;
+        }
+
+        /**
+         * Maps a region of a file as an array of read-only buffers,
+         * each of which (except perhaps the last) has the same length.
+         *
+         * @param  chan  file channel
+         * @param  offset  offset of region start in file
+         * @param  leng   length of region
+         * @return  buffers
+         */
+        private static ByteBuffer[] mapBlocks( FileChannel chan, long offset,
+                                               long leng )
+                throws IOException {
+            long blockSize = 1L << BLOCK_BITS;
+            int nblock = (int) ( ( leng + blockSize - 1 ) / blockSize );
+            ByteBuffer[] bufs = new ByteBuffer[ nblock ];
+            for ( int ib = 0; ib < nblock; ib++ ) {
+                long off = ib * blockSize;
+                bufs[ ib ] = chan.map( FileChannel.MapMode.READ_ONLY,
+                                       offset + off,
+                                       Math.min( blockSize, leng - off ) );
+            }
+            return bufs;
+        }
+    }
+}
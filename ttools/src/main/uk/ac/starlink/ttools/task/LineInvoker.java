@@ -30,6 +30,9 @@ import uk.ac.starlink.ttools.plottask.PlotStateFactory;
 import uk.ac.starlink.util.IOUtils;
 import uk.ac.starlink.util.LoadException;
 import uk.ac.starlink.util.ObjectFactory;
+import uk.ac.starlink.util.SplitPolicy;
+import uk.ac.starlink.util.SplitPools;
+import uk.ac.starlink.util.SplitStats;
 import uk.ac.starlink.util.gui.MemoryMonitor;
 
 /**
@@ -172,6 +175,21 @@ public class LineInvoker {
                     it.remove();
                     allowunused = false;
                 }
+                else if ( arg.equals( "-parallelism" ) && it.hasNext() ) {
+                    it.remove();
+                    String pval = it.next();
+                    it.remove();
+                    int parallelism;
+                    try {
+                        parallelism = Integer.parseInt( pval );
+                    }
+                    catch ( NumberFormatException e ) {
+                        err.println( "\nBad -parallelism value: " + pval
+                                   + "\n" );
+                        return 1;
+                    }
+                    SplitPools.setDefaultParallelism( parallelism );
+                }
                 else if ( arg.equals( "-checkversion" ) && it.hasNext() ) {
                     it.remove();
                     String vers = it.next();
@@ -309,6 +327,10 @@ public class LineInvoker {
                         String secs =
                             Float.toString( ( millis / 100L ) * 0.1f );
                         err.println( "Elapsed time: " + secs + "s" );
+                        SplitStats stats = SplitPolicy.DFLT_POLICY.getStats();
+                        if ( stats.getCollectionCount() > 0 ) {
+                            err.println( "Parallel " + stats );
+                        }
                     }
                     return 0;
                 }
@@ -626,6 +648,9 @@ public class LineInvoker {
             .append( " [-memgui]" )
             .append( '\n' )
             .append( pad )
+            .append( " [-parallelism <n>]" )
+            .append( '\n' )
+            .append( pad )
             .append( " [-checkversion <vers>]" )
             .append( " [-stdout <file>]" )
             .append( " [-stderr <file>]" )
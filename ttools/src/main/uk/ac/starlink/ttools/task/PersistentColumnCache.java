@@ -0,0 +1,737 @@
+package uk.ac.starlink.ttools.task;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import uk.ac.starlink.table.ColumnInfo;
+import uk.ac.starlink.table.RowData;
+import uk.ac.starlink.table.RowSequence;
+import uk.ac.starlink.table.StarTable;
+import uk.ac.starlink.table.WrapperRowSequence;
+import uk.ac.starlink.table.WrapperStarTable;
+import uk.ac.starlink.ttools.plot2.data.DiskCache;
+import uk.ac.starlink.ttools.task.ColumnCacheStarTable.ColType;
+import uk.ac.starlink.ttools.task.ColumnCacheStarTable.MappedColumn;
+
+/**
+ * Persistent cache of decoded table columns, shared between JVMs.
+ *
+ * <p>When a table is read from a local file, the contents of its
+ * primitive scalar columns (numeric and boolean) can be written
+ * to one file per column in a cache directory.
+ * Subsequent reads of the same file, by this or any other process,
+ * then take those columns from memory-mapped cache files
+ * instead of decoding them from the original.
+ * Cache entries are keyed by the canonical path, size and
+ * modification time of the input file, as well as the position
+ * within it and the column metadata, so that a changed input file
+ * will not pick up stale data.
+ *
+ * <p>Cache entries are not populated by a dedicated pass through the
+ * input.  Instead, the cache files are written as a side effect of
+ * the first complete sequential read of a table which has no cache
+ * entry yet, and until then the table data is read from the input
+ * in the usual way.
+ * Cache files are written under a work filename and then renamed,
+ * so they only appear in the cache once complete.
+ * A writer holds an exclusive lock on a per-entry lock file while
+ * populating; concurrent processes which find the lock held
+ * just read the input uncached rather than duplicating the work.
+ * Readers do not need locks.
+ * Cache size is bounded using the {@link DiskCache} least recently used
+ * policy; files are touched when used so that their modification times
+ * reflect usage by any process.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+public class PersistentColumnCache {
+
+    private final DiskCache cache_;
+
+    /**
+     * Name of system property that enables the column cache.
+     * If unset or "false" no caching is done;
+     * if "true" a default directory is used;
+     * otherwise the value is used as the base cache directory.
+     */
+    public static final String CACHE_PROP = "stilts.colcache";
+
+    /**
+     * Name of system property giving the column cache size limit;
+     * the value is interpreted as for the {@link DiskCache} constructor.
+     */
+    public static final String LIMIT_PROP = "stilts.colcache.limit";
+
+    /** Cache subdirectory label. */
+    public static final String CACHE_LABEL = "table-cols";
+
+    private static final Logger logger_ =
+        Logger.getLogger( "uk.ac.starlink.ttools.task" );
+    private static PersistentColumnCache dfltInstance_;
+    private static boolean dfltInit_;
+
+    /**
+     * Constructor.
+     *
+     * @param  cache  disk cache defining the directory and size limit
+     */
+    public PersistentColumnCache( DiskCache cache ) {
+        cache_ = cache;
+    }
+
+    /**
+     * Returns the disk cache used by this object.
+     *
+     * @return  disk cache
+     */
+    public DiskCache getDiskCache() {
+        return cache_;
+    }
+
+    /**
+     * Returns a table with the same content as a given table
+     * loaded from a table location, but with columns supplied from
+     * this cache where possible.
+     * If the location does not refer to a local file,
+     * or if the table has no cacheable columns,
+     * or if the cache cannot be used for some reason,
+     * the input table is returned unchanged.
+     *
+     * @param  table  table loaded from <code>loc</code>
+     * @param  loc   table location, perhaps with a "#position" suffix
+     * @return   table with the same content as <code>table</code>
+     */
+    public StarTable wrapTable( StarTable table, String loc ) {
+        File file = new File( loc );
+        String pos = null;
+        if ( ! file.isFile() ) {
+            int ihash = loc.lastIndexOf( '#' );
+            if ( ihash > 0 ) {
+                file = new File( loc.substring( 0, ihash ) );
+                pos = loc.substring( ihash + 1 );
+            }
+        }
+        return file.isFile() ? wrapTable( table, file, pos ) : table;
+    }
+
+    /**
+     * Returns a table with the same content as a given table
+     * loaded from a local file, but with columns supplied from
+     * this cache where possible.
+     * If the table has no cacheable columns,
+     * or if the cache cannot be used for some reason,
+     * the input table is returned unchanged.
+     * If there is no cache entry for the table yet, the returned table
+     * reads all its data from the input table, but populates the cache
+     * during its first complete sequential scan,
+     * so that later loads of the same table can use the cache.
+     *
+     * @param  table  table loaded from <code>file</code>
+     * @param  file   file from which table was loaded
+     * @param  pos    position of table within file, or null
+     * @return   table with the same content as <code>table</code>
+     */
+    public StarTable wrapTable( StarTable table, File file, String pos ) {
+        long nrow = table.getRowCount();
+        int ncol = table.getColumnCount();
+        if ( nrow <= 0 ) {
+            return table;
+        }
+        ColType[] types = new ColType[ ncol ];
+        boolean hasCacheable = false;
+        for ( int ic = 0; ic < ncol; ic++ ) {
+            types[ ic ] =
+                ColType.forClass( table.getColumnInfo( ic ).getContentClass() );
+            hasCacheable = hasCacheable || types[ ic ] != null;
+        }
+        if ( ! hasCacheable ) {
+            return table;
+        }
+        try {
+            File[] colFiles = getColumnFiles( table, file, pos, types );
+            MappedColumn[] mcols = openColumns( colFiles, types, nrow );
+            if ( mcols == null ) {
+                return new PopulatingStarTable( table, colFiles, types );
+            }
+            for ( File f : colFiles ) {
+                if ( f != null ) {
+                    cache_.touch( f );
+                }
+            }
+            return new ColumnCacheStarTable( table, mcols );
+        }
+        catch ( IOException e ) {
+            logger_.log( Level.WARNING,
+                         "Column cache failed for " + file + ": " + e, e );
+            return table;
+        }
+    }
+
+    /**
+     * Returns the cache files used for the columns of a given table.
+     *
+     * @param  table  table
+     * @param  file   file from which table was loaded
+     * @param  pos    position of table within file, or null
+     * @param  types  per-column cache types, null for uncached columns
+     * @return  per-column cache file array, null for uncached columns
+     */
+    private File[] getColumnFiles( StarTable table, File file, String pos,
+                                   ColType[] types )
+            throws IOException {
+        StringBuffer sbuf = new StringBuffer()
+            .append( file.getCanonicalPath() )
+            .append( '\n' )
+            .append( file.length() )
+            .append( '\n' )
+            .append( file.lastModified() )
+            .append( '\n' )
+            .append( pos )
+            .append( '\n' )
+            .append( table.getRowCount() );
+        int ncol = types.length;
+        for ( int ic = 0; ic < ncol; ic++ ) {
+            ColumnInfo info = table.getColumnInfo( ic );
+            sbuf.append( '\n' )
+                .append( info.getName() )
+                .append( '\t' )
+                .append( info.getContentClass().getName() );
+        }
+        String key = "C-" + DiskCache.hashText( sbuf.toString(), 24 );
+        File dir = cache_.getDir();
+        File[] files = new File[ ncol ];
+        for ( int ic = 0; ic < ncol; ic++ ) {
+            if ( types[ ic ] != null ) {
+                files[ ic ] = new File( dir, key + "-" + ( ic + 1 ) + ".col" );
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Attempts to map all the cache files for a table.
+     *
+     * @param  colFiles  per-column cache files, null for uncached columns
+     * @param  types   per-column cache types, null for uncached columns
+     * @param  nrow   row count
+     * @return  per-column mapped columns, null for uncached columns;
+     *          or null if the cache entry is not available
+     */
+    private MappedColumn[] openColumns( File[] colFiles, ColType[] types,
+                                        long nrow ) {
+        int ncol = colFiles.length;
+        for ( File f : colFiles ) {
+            if ( f != null && ! f.isFile() ) {
+                return null;
+            }
+        }
+        MappedColumn[] mcols = new MappedColumn[ ncol ];
+        for ( int ic = 0; ic < ncol; ic++ ) {
+            if ( colFiles[ ic ] != null ) {
+                try {
+                    mcols[ ic ] =
+                        new MappedColumn( colFiles[ ic ], types[ ic ], nrow );
+                }
+                catch ( IOException e ) {
+
+                    /* Possibly deleted by another process. */
+                    logger_.info( "Column cache file unusable: " + e );
+                    return null;
+                }
+            }
+        }
+        return mcols;
+    }
+
+    /**
+     * Prepares to write the cache files for a table,
+     * if they are not already present.
+     * If the return value is non-null, it holds an exclusive lock on
+     * the entry's lock file, which is released when it is finished
+     * or discarded.
+     *
+     * @param  table  table
+     * @param  colFiles  per-column cache files, null for uncached columns
+     * @param  types   per-column cache types, null for uncached columns
+     * @return   cache writer, or null if the entry is complete or
+     *           is being populated by another process
+     */
+    private CacheWriter createCacheWriter( StarTable table, File[] colFiles,
+                                           ColType[] types )
+            throws IOException {
+        cache_.ready();
+        File lockFile = null;
+        for ( int ic = 0; ic < colFiles.length && lockFile == null; ic++ ) {
+            if ( colFiles[ ic ] != null ) {
+                String name = colFiles[ ic ].getName();
+                String key = name.substring( 0, name.lastIndexOf( '-' ) );
+                lockFile = new File( colFiles[ ic ].getParentFile(),
+                                     key + ".lock" );
+            }
+        }
+        RandomAccessFile lraf = new RandomAccessFile( lockFile, "rw" );
+        FileLock lock = null;
+        try {
+            lock = lraf.getChannel().tryLock();
+        }
+        catch ( OverlappingFileLockException e ) {
+
+            /* Locked by another table in this JVM. */
+        }
+        if ( lock == null ) {
+            lraf.close();
+            return null;
+        }
+        boolean complete = true;
+        for ( File f : colFiles ) {
+            complete = complete && ( f == null || f.isFile() );
+        }
+        if ( complete ) {
+            lock.release();
+            lraf.close();
+            return null;
+        }
+        CacheWriter writer = new CacheWriter( lraf, lock );
+        try {
+            writer.init( table, colFiles, types );
+        }
+        catch ( IOException e ) {
+            writer.discard();
+            throw e;
+        }
+        return writer;
+    }
+
+    /**
+     * Returns the default instance of this class, as configured by
+     * system properties.
+     *
+     * @return  default cache, or null if persistent column caching
+     *          is not enabled
+     * @see  #CACHE_PROP
+     * @see  #LIMIT_PROP
+     */
+    public static synchronized PersistentColumnCache getDefaultInstance() {
+        if ( ! dfltInit_ ) {
+            dfltInit_ = true;
+            String cacheTxt = null;
+            String limitTxt = null;
+            try {
+                cacheTxt = System.getProperty( CACHE_PROP );
+                limitTxt = System.getProperty( LIMIT_PROP );
+            }
+            catch ( SecurityException e ) {
+                // never mind
+            }
+            if ( cacheTxt != null && cacheTxt.trim().length() > 0 &&
+                 ! "false".equalsIgnoreCase( cacheTxt.trim() ) ) {
+                File baseDir = "true".equalsIgnoreCase( cacheTxt.trim() )
+                             ? null
+                             : new File( cacheTxt.trim() );
+                long limit = 0;
+                if ( limitTxt != null && limitTxt.trim().length() > 0 ) {
+                    try {
+                        limit = Long.parseLong( limitTxt.trim() );
+                    }
+                    catch ( NumberFormatException e ) {
+                        logger_.warning( "Bad " + LIMIT_PROP + " value \""
+                                       + limitTxt + "\" - ignore" );
+                    }
+                }
+                File dir = DiskCache.toCacheDir( baseDir, CACHE_LABEL );
+                dfltInstance_ =
+                    new PersistentColumnCache( new DiskCache( dir, limit ) );
+            }
+        }
+        return dfltInstance_;
+    }
+
+    /**
+     * Writes all the cached columns for a table, one row at a time.
+     */
+    private class CacheWriter {
+
+        private final RandomAccessFile lraf_;
+        private final FileLock lock_;
+        private ColumnWriter[] writers_;
+        private long nrow_;
+        private long irow_;
+
+        /**
+         * Constructor.
+         *
+         * @param  lraf  open lock file
+         * @param  lock  exclusive lock held on <code>lraf</code>
+         */
+        CacheWriter( RandomAccessFile lraf, FileLock lock ) {
+            lraf_ = lraf;
+            lock_ = lock;
+            writers_ = new ColumnWriter[ 0 ];
+        }
+
+        /**
+         * Opens the column writers for the files not already in the cache.
+         *
+         * @param  table  table
+         * @param  colFiles  per-column cache files, null for uncached columns
+         * @param  types   per-column cache types, null for uncached columns
+         */
+        void init( StarTable table, File[] colFiles, ColType[] types )
+                throws IOException {
+            int ncol = colFiles.length;
+            nrow_ = table.getRowCount();
+            writers_ = new ColumnWriter[ ncol ];
+            int nw = 0;
+            for ( int ic = 0; ic < ncol; ic++ ) {
+                File f = colFiles[ ic ];
+                if ( f != null && ! f.isFile() ) {
+                    writers_[ ic ] = new ColumnWriter( f, types[ ic ], nrow_ );
+                    nw++;
+                }
+            }
+            cache_.log( "Writing " + nw + " cached columns of "
+                      + table.getName() + " (" + nrow_ + " rows)" );
+        }
+
+        /**
+         * Writes the cached cells of the next row.
+         *
+         * @param  row  row data
+         */
+        void writeRow( RowData row ) throws IOException {
+            if ( irow_ >= nrow_ ) {
+                throw new IOException( "Too many rows" );
+            }
+            for ( int ic = 0; ic < writers_.length; ic++ ) {
+                ColumnWriter writer = writers_[ ic ];
+                if ( writer != null ) {
+                    writer.write( irow_, row.getCell( ic ) );
+                }
+            }
+            irow_++;
+        }
+
+        /**
+         * Completes the cache entry once all rows have been written,
+         * and releases the lock.
+         */
+        void finish() throws IOException {
+            if ( irow_ != nrow_ ) {
+                throw new IOException( "Row count mismatch: "
+                                     + irow_ + " != " + nrow_ );
+            }
+            try {
+                for ( ColumnWriter writer : writers_ ) {
+                    if ( writer != null ) {
+                        writer.finish();
+                        cache_.fileAdded( writer.file_ );
+                    }
+                }
+            }
+            finally {
+                release();
+            }
+            cache_.tidy();
+        }
+
+        /**
+         * Abandons the write, removing any workspace files,
+         * and releases the lock.
+         */
+        void discard() {
+            for ( ColumnWriter writer : writers_ ) {
+                if ( writer != null ) {
+                    writer.discard();
+                }
+            }
+            try {
+                release();
+            }
+            catch ( IOException e ) {
+                // never mind
+            }
+        }
+
+        /**
+         * Releases the lock file.
+         */
+        private void release() throws IOException {
+            try {
+                lock_.release();
+            }
+            finally {
+                lraf_.close();
+            }
+        }
+    }
+
+    /**
+     * Table with the same content as its base table, which populates
+     * the cache entry for that table as a side effect of the first
+     * complete sequential read.
+     */
+    private class PopulatingStarTable extends WrapperStarTable {
+
+        private final File[] colFiles_;
+        private final ColType[] types_;
+        private final AtomicBoolean isActive_;
+        private volatile boolean isDone_;
+
+        /**
+         * Constructor.
+         *
+         * @param  base  base table
+         * @param  colFiles  per-column cache files, null for uncached columns
+         * @param  types   per-column cache types, null for uncached columns
+         */
+        PopulatingStarTable( StarTable base, File[] colFiles,
+                             ColType[] types ) {
+            super( base );
+            colFiles_ = colFiles;
+            types_ = types;
+            isActive_ = new AtomicBoolean();
+        }
+
+        public RowSequence getRowSequence() throws IOException {
+            RowSequence rseq = super.getRowSequence();
+            if ( isDone_ || ! isActive_.compareAndSet( false, true ) ) {
+                return rseq;
+            }
+            CacheWriter writer;
+            try {
+                writer = createCacheWriter( baseTable, colFiles_, types_ );
+            }
+            catch ( IOException e ) {
+                logger_.log( Level.WARNING,
+                             "Column cache failed for " + baseTable.getName()
+                           + ": " + e, e );
+                writer = null;
+            }
+            if ( writer == null ) {
+                isDone_ = true;
+                return rseq;
+            }
+            return new PopulatingRowSequence( rseq, writer );
+        }
+
+        /**
+         * Row sequence which passes each row it reads to a cache writer.
+         */
+        private class PopulatingRowSequence extends WrapperRowSequence {
+
+            private CacheWriter writer_;
+
+            /**
+             * Constructor.
+             *
+             * @param  rseq  base sequence
+             * @param  writer  cache writer
+             */
+            PopulatingRowSequence( RowSequence rseq, CacheWriter writer ) {
+                super( rseq );
+                writer_ = writer;
+            }
+
+            public boolean next() throws IOException {
+                boolean hasNext = baseSeq.next();
+                if ( writer_ != null ) {
+                    try {
+                        if ( hasNext ) {
+                            writer_.writeRow( baseSeq );
+                        }
+                        else {
+                            writer_.finish();
+                            writer_ = null;
+                            isDone_ = true;
+                        }
+                    }
+                    catch ( IOException e ) {
+                        logger_.log( Level.WARNING,
+                                     "Column cache write failed for "
+                                   + baseTable.getName() + ": " + e, e );
+                        if ( writer_ != null ) {
+                            writer_.discard();
+                            writer_ = null;
+                        }
+                        isDone_ = true;
+                    }
+                }
+                return hasNext;
+            }
+
+            public double getDouble( int icol ) throws IOException {
+                return baseSeq.getDouble( icol );
+            }
+
+            public long getLong( int icol ) throws IOException {
+                return baseSeq.getLong( icol );
+            }
+
+            public boolean getBoolean( int icol ) throws IOException {
+                return baseSeq.getBoolean( icol );
+            }
+
+            public boolean isNull( int icol ) throws IOException {
+                return baseSeq.isNull( icol );
+            }
+
+            public void close() throws IOException {
+
+                /* If the sequence was not read to the end, abandon the
+                 * write and let a later sequence have another go. */
+                if ( writer_ != null ) {
+                    writer_.discard();
+                    writer_ = null;
+                    isActive_.set( false );
+                }
+                super.close();
+            }
+        }
+    }
+
+    /**
+     * Writes the data for one cached column.
+     */
+    private static class ColumnWriter {
+
+        final File file_;
+        private final File workFile_;
+        private final File nullFile_;
+        private final ColType type_;
+        private final long nrow_;
+        private final FileOutputStream fout_;
+        private final DataOutputStream out_;
+        private OutputStream nullOut_;
+        private int nullByte_;
+        private long nullBytePos_;
+
+        /**
+         * Constructor.
+         *
+         * @param  file  destination file
+         * @param  type  column data type
+         * @param  nrow  number of rows
+         */
+        ColumnWriter( File file, ColType type, long nrow ) throws IOException {
+            file_ = file;
+            type_ = type;
+            nrow_ = nrow;
+            workFile_ = DiskCache.toWorkFilename( file );
+            nullFile_ = new File( workFile_.getPath() + "-nulls" );
+            fout_ = new FileOutputStream( workFile_ );
+            out_ = new DataOutputStream( new BufferedOutputStream( fout_ ) );
+            out_.writeLong( MappedColumn.MAGIC );
+            out_.writeInt( type.code_ );
+            out_.writeInt( 0 );
+            out_.writeLong( nrow );
+            out_.writeLong( 0L );
+            assert out_.size() == MappedColumn.HEADER_LENG;
+        }
+
+        /**
+         * Writes the value for the next row.
+         *
+         * @param  irow  row index
+         * @param  value  cell value
+         */
+        void write( long irow, Object value ) throws IOException {
+            type_.write( out_, value );
+            if ( value == null ) {
+                setNull( irow );
+            }
+        }
+
+        /**
+         * Completes the write and moves the file into place.
+         */
+        void finish() throws IOException {
+            long npad = MappedColumn.getNullOffset( type_, nrow_ )
+                      - ( MappedColumn.HEADER_LENG + nrow_ * type_.size_ );
+            for ( long i = 0; i < npad; i++ ) {
+                out_.write( 0 );
+            }
+            if ( nullOut_ != null ) {
+                flushNullBytes( ( nrow_ + 7 ) / 8 );
+                nullOut_.close();
+                nullOut_ = null;
+                try ( InputStream in = new FileInputStream( nullFile_ ) ) {
+                    byte[] buf = new byte[ 64 * 1024 ];
+                    for ( int n; ( n = in.read( buf ) ) >= 0; ) {
+                        out_.write( buf, 0, n );
+                    }
+                }
+                out_.flush();
+                ByteBuffer flag = ByteBuffer.allocate( 4 );
+                flag.putInt( 1 );
+                flag.flip();
+                fout_.getChannel().write( flag, MappedColumn.NULLFLAG_OFFSET );
+                nullFile_.delete();
+            }
+            out_.close();
+            if ( ! workFile_.renameTo( file_ ) ) {
+                workFile_.delete();
+                throw new IOException( "Failed to rename " + workFile_
+                                     + " to " + file_ );
+            }
+        }
+
+        /**
+         * Abandons the write, removing any workspace files.
+         */
+        void discard() {
+            try {
+                out_.close();
+                if ( nullOut_ != null ) {
+                    nullOut_.close();
+                }
+            }
+            catch ( IOException e ) {
+                // never mind
+            }
+            workFile_.delete();
+            nullFile_.delete();
+        }
+
+        /**
+         * Records that a given row is null.
+         * Rows must be flagged in ascending order.
+         *
+         * @param  irow  row index
+         */
+        private void setNull( long irow ) throws IOException {
+            if ( nullOut_ == null ) {
+                nullOut_ = new BufferedOutputStream(
+                               new FileOutputStream( nullFile_ ) );
+            }
+            flushNullBytes( irow >>> 3 );
+            nullByte_ |= 1 << ( irow & 7 );
+        }
+
+        /**
+         * Writes out null mask bytes up to, but not including,
+         * a given byte position.
+         *
+         * @param  pos  byte index of null mask
+         */
+        private void flushNullBytes( long pos ) throws IOException {
+            while ( nullBytePos_ < pos ) {
+                nullOut_.write( nullByte_ );
+                nullByte_ = 0;
+                nullBytePos_++;
+            }
+        }
+    }
+}
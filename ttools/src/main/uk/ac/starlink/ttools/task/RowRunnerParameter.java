@@ -0,0 +1,109 @@
+package uk.ac.starlink.ttools.task;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import uk.ac.starlink.table.RowRunner;
+import uk.ac.starlink.task.ChoiceParameter;
+import uk.ac.starlink.task.Environment;
+import uk.ac.starlink.task.ParameterValueException;
+import uk.ac.starlink.task.TaskException;
+
+/**
+ * Parameter for selecting a RowRunner,
+ * which controls whether row-based processing is done sequentially
+ * or in parallel.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+public class RowRunnerParameter extends ChoiceParameter<RowRunner> {
+
+    private static final Pattern PARALLEL_N_REGEX =
+        Pattern.compile( "parallel([0-9]+)", Pattern.CASE_INSENSITIVE );
+
+    /** Runners for dedicated pools, keyed by parallelism. */
+    private static final Map<Integer,RowRunner> poolRunners_ =
+        new HashMap<Integer,RowRunner>();
+
+    /**
+     * Constructor.
+     *
+     * @param  name  parameter name
+     */
+    public RowRunnerParameter( String name ) {
+        super( name, RowRunner.class );
+        addOption( RowRunner.SEQUENTIAL, "sequential" );
+        addOption( RowRunner.DEFAULT, "parallel" );
+        setDefaultOption( RowRunner.DEFAULT );
+        setPrompt( "Threading implementation" );
+        setDescription( new String[] {
+            "<p>Selects the threading implementation.",
+            "The options are currently:",
+            "<ul>",
+            "<li><code>parallel</code>:",
+            "uses multiple threads to process the data,",
+            "to the extent that the input tables permit",
+            "and the number of available cores makes worthwhile",
+            "</li>",
+            "<li><code>parallel&lt;n&gt;</code>:",
+            "like <code>parallel</code>, but uses a dedicated thread pool",
+            "with at most <code>&lt;n&gt;</code> threads",
+            "rather than the default pool;",
+            "tasks specifying the same value share a pool.",
+            "This can be used to limit the number of cores used",
+            "by a task, for instance when several are running concurrently",
+            "</li>",
+            "<li><code>sequential</code>:",
+            "processes all the data in a single thread",
+            "</li>",
+            "</ul>",
+            "The result of the processing does not depend",
+            "on this setting, but the performance may.",
+            "Parallel processing is usually faster on multi-core machines,",
+            "especially for large tables, but it may use more memory.",
+            "</p>",
+        } );
+    }
+
+    @Override
+    public RowRunner stringToObject( Environment env, String sval )
+            throws TaskException {
+        Matcher matcher = PARALLEL_N_REGEX.matcher( sval.trim() );
+        if ( matcher.matches() ) {
+            int n;
+            try {
+                n = Integer.parseInt( matcher.group( 1 ) );
+            }
+            catch ( NumberFormatException e ) {
+                n = -1;
+            }
+            if ( n <= 0 ) {
+                throw new ParameterValueException( this, "Bad thread count "
+                                                 + matcher.group( 1 ) );
+            }
+            return n == 1 ? RowRunner.SEQUENTIAL
+                          : getPoolRunner( n );
+        }
+        else {
+            return super.stringToObject( env, sval );
+        }
+    }
+
+    /**
+     * Returns a runner using a dedicated pool with a given parallelism.
+     * The same instance is returned for every request with the same
+     * value, so repeated use does not accumulate pools.
+     * The pool is registered with {@link uk.ac.starlink.util.SplitPools},
+     * and its worker threads are daemon threads, so it does not need
+     * to be shut down explicitly.
+     *
+     * @param  n  parallelism
+     * @return  runner
+     */
+    private static synchronized RowRunner getPoolRunner( int n ) {
+        return poolRunners_.computeIfAbsent( Integer.valueOf( n ),
+                 k -> RowRunner.createPoolRunner( "parallel" + k, k ) );
+    }
+}
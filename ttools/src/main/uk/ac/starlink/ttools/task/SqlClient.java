@@ -14,9 +14,11 @@ import uk.ac.starlink.table.StarTableWriter;
 import uk.ac.starlink.table.TableFormatException;
 import uk.ac.starlink.table.Tables;
 import uk.ac.starlink.table.formats.TextTableWriter;
+import uk.ac.starlink.table.jdbc.JDBCUtils;
 import uk.ac.starlink.table.jdbc.SequentialResultSetStarTable;
 import uk.ac.starlink.task.Environment;
 import uk.ac.starlink.task.Executable;
+import uk.ac.starlink.task.IntegerParameter;
 import uk.ac.starlink.task.MultiParameter;
 import uk.ac.starlink.task.Parameter;
 import uk.ac.starlink.task.ParameterValueException;
@@ -36,6 +38,7 @@ public class SqlClient implements Task {
     private final ConnectionParameter connParam_;
     private final StatementParameter stmtParam_;
     private final OutputFormatParameter ofmtParam_;
+    private final IntegerParameter fetchParam_;
 
     /** 
      * Constructor.
@@ -45,6 +48,25 @@ public class SqlClient implements Task {
         stmtParam_ = new StatementParameter( "sql" );
         ofmtParam_ = new OutputFormatParameter( "ofmt" );
         ofmtParam_.setStringDefault( "text" );
+        fetchParam_ = new IntegerParameter( "fetchsize" );
+        fetchParam_.setPrompt( "Number of rows per JDBC fetch" );
+        fetchParam_.setUsage( "<nrow>" );
+        fetchParam_.setIntDefault( 0 );
+        fetchParam_.setMinimum( 0 );
+        fetchParam_.setDescription( new String[] {
+            "<p>The number of result rows retrieved from the database",
+            "at a time.",
+            "If positive, queries are executed on a forward-only,",
+            "read-only statement with auto-commit turned off",
+            "so that the driver can stream results from a server-side",
+            "cursor; this allows very large results to be output",
+            "in constant memory.",
+            "In this case each statement is committed after execution.",
+            "If zero, the driver's default behaviour is used,",
+            "which for some drivers means reading the whole result",
+            "into memory before any output is written.",
+            "</p>",
+        } );
     }
 
     public String getPurpose() {
@@ -58,6 +80,7 @@ public class SqlClient implements Task {
                                         .getAssociatedParameters() ) );
         paramList.add( stmtParam_ );
         paramList.add( ofmtParam_ );
+        paramList.add( fetchParam_ );
         return paramList.toArray( new Parameter<?>[ 0 ] );
     }
 
@@ -77,9 +100,11 @@ public class SqlClient implements Task {
         Connection connection = connParam_.objectValue( env );
         String[] sqlLines = 
             Tokenizer.tokenizeLines( stmtParam_.stringValue( env ) );
+        int fetchSize = fetchParam_.intValue( env );
         PrintStream err = env.getErrorStream();
         try {
-            return new SqlExecutable( connection, sqlLines, sink, err );
+            return new SqlExecutable( connection, sqlLines, fetchSize,
+                                      sink, err );
         }
         catch ( SQLException e ) {
             throw new TaskException( e.getMessage(), e );
@@ -121,14 +146,19 @@ public class SqlClient implements Task {
          * @param  connection  JDBC connection to database; will be closed
          *                     following execution
          * @param  sqlLines one or more SQL statements for execution
+         * @param  fetchSize  JDBC fetch size for streamed results,
+         *                    or 0 for driver default
          * @param  sink   destination for output result sets
          * @param  err    destination stream for bookkeeping output
          */
         SqlExecutable( Connection connection, String[] sqlLines,
-                       ResultSink sink, PrintStream err  )
+                       int fetchSize, ResultSink sink, PrintStream err  )
                 throws SQLException {
             connection_ = connection;
-            stmt_ = connection.createStatement();
+            stmt_ = fetchSize > 0
+                  ? JDBCUtils.createStreamingStatement( connection, false,
+                                                        fetchSize )
+                  : connection.createStatement();
             sqlLines_ = sqlLines;
             sink_ = sink;
             err_ = err;
@@ -173,6 +203,9 @@ public class SqlClient implements Task {
                     err_.println( "Updates: " + stmt_.getUpdateCount() );
                 }
             }
+            if ( ! connection_.getAutoCommit() ) {
+                connection_.commit();
+            }
             long elapsed = System.currentTimeMillis() - start;
             err_.println( "Elapsed time: " + (float) ( elapsed / 1000. )
                         + " sec" );
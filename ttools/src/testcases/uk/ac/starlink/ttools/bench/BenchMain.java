@@ -0,0 +1,138 @@
+package uk.ac.starlink.ttools.bench;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import uk.ac.starlink.table.StarTableOutput;
+
+/**
+ * Command-line entry point for running benchmarks.
+ *
+ * <p>Usage:
+ * <pre>
+ *    BenchMain [-nrow &lt;n&gt;] [-warmup &lt;n&gt;] [-iter &lt;n&gt;]
+ *              [-revision &lt;id&gt;] [-ofmt &lt;format&gt;] [-out &lt;location&gt;]
+ *              [&lt;label-prefix&gt; ...]
+ * </pre>
+ * If any label prefixes are given, only benchmarks whose
+ * <code>group.name</code> label starts with one of them are run,
+ * so for instance "<code>io</code>" runs all the I/O benchmarks and
+ * "<code>match.sky</code>" runs the sky crossmatch benchmarks.
+ * Progress is reported to standard error, and the results table
+ * is written to the given location (default standard output) in
+ * the given format (default <code>ecsv</code>).
+ * The revision identifier, which is recorded in the output,
+ * defaults to the value of the <code>bench.revision</code>
+ * system property.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+public class BenchMain {
+
+    /**
+     * Private constructor prevents instantiation.
+     */
+    private BenchMain() {
+    }
+
+    /**
+     * Main method.
+     *
+     * @param  args  arguments
+     */
+    public static void main( String[] args ) throws IOException {
+        String usage = new StringBuffer()
+            .append( "\n   Usage: " )
+            .append( BenchMain.class.getName() )
+            .append( " [-nrow <n>] [-warmup <n>] [-iter <n>]" )
+            .append( "\n             [-revision <id>]" )
+            .append( " [-ofmt <format>] [-out <location>]" )
+            .append( "\n             [<label-prefix> ...]" )
+            .append( "\n" )
+            .toString();
+        int nrow = 200000;
+        int nWarmup = 3;
+        int nIter = 5;
+        String revision = System.getProperty( "bench.revision" );
+        String ofmt = "ecsv";
+        String out = "-";
+        List<String> argList = new ArrayList<String>( Arrays.asList( args ) );
+        List<String> prefixes = new ArrayList<String>();
+        try {
+            for ( Iterator<String> it = argList.iterator(); it.hasNext(); ) {
+                String arg = it.next();
+                if ( arg.equals( "-nrow" ) && it.hasNext() ) {
+                    nrow = Integer.parseInt( it.next() );
+                }
+                else if ( arg.equals( "-warmup" ) && it.hasNext() ) {
+                    nWarmup = Integer.parseInt( it.next() );
+                }
+                else if ( arg.equals( "-iter" ) && it.hasNext() ) {
+                    nIter = Integer.parseInt( it.next() );
+                }
+                else if ( arg.equals( "-revision" ) && it.hasNext() ) {
+                    revision = it.next();
+                }
+                else if ( arg.equals( "-ofmt" ) && it.hasNext() ) {
+                    ofmt = it.next();
+                }
+                else if ( arg.equals( "-out" ) && it.hasNext() ) {
+                    out = it.next();
+                }
+                else if ( arg.startsWith( "-h" ) ) {
+                    System.out.println( usage );
+                    return;
+                }
+                else if ( arg.startsWith( "-" ) ) {
+                    System.err.println( usage );
+                    System.exit( 1 );
+                }
+                else {
+                    prefixes.add( arg );
+                }
+            }
+        }
+        catch ( NumberFormatException e ) {
+            System.err.println( usage );
+            System.exit( 1 );
+        }
+
+        System.setProperty( "java.awt.headless", "true" );
+        Logger.getLogger( "uk.ac.starlink" ).setLevel( Level.WARNING );
+        BenchRunner runner =
+            new BenchRunner( nWarmup, nIter, revision, System.err );
+        for ( Benchmark bench : Benchmarks.createAllBenchmarks( nrow ) ) {
+            if ( isIncluded( bench, prefixes ) ) {
+                runner.run( bench );
+            }
+        }
+        new StarTableOutput()
+           .writeStarTable( runner.createResultTable(), out, ofmt );
+    }
+
+    /**
+     * Indicates whether a benchmark is selected by a list of label prefixes.
+     *
+     * @param  bench  benchmark
+     * @param  prefixes  label prefixes; if empty, everything is selected
+     * @return  true iff benchmark should be run
+     */
+    private static boolean isIncluded( Benchmark bench,
+                                       List<String> prefixes ) {
+        if ( prefixes.isEmpty() ) {
+            return true;
+        }
+        String label = bench.getLabel();
+        for ( String prefix : prefixes ) {
+            if ( label.startsWith( prefix ) ) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
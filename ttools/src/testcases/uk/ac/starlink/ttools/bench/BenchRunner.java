@@ -0,0 +1,343 @@
+package uk.ac.starlink.ttools.bench;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.logging.Logger;
+import uk.ac.starlink.table.ColumnInfo;
+import uk.ac.starlink.table.DefaultValueInfo;
+import uk.ac.starlink.table.DescribedValue;
+import uk.ac.starlink.table.RowListStarTable;
+import uk.ac.starlink.table.StarTable;
+import uk.ac.starlink.table.ValueInfo;
+
+/**
+ * Executes {@link Benchmark}s and accumulates timing results.
+ *
+ * <p>Each benchmark is set up, run for a number of untimed warmup
+ * iterations to allow JIT compilation to settle, and then run for
+ * a number of timed iterations.  Results are available as a
+ * StarTable, which can be written out in any supported output format
+ * for comparison between runs; the table parameters record
+ * the run configuration and the source revision, if known.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+public class BenchRunner {
+
+    private final int nWarmup_;
+    private final int nIter_;
+    private final String revision_;
+    private final PrintStream log_;
+    private final List<Result> results_;
+    private static final Logger logger_ =
+        Logger.getLogger( "uk.ac.starlink.ttools.bench" );
+
+    /** Parameter metadata for the source revision identifier. */
+    public static final ValueInfo REVISION_INFO =
+        new DefaultValueInfo( "revision", String.class,
+                              "Source revision identifier" );
+
+    /** Parameter metadata for the number of warmup iterations. */
+    public static final ValueInfo WARMUP_INFO =
+        new DefaultValueInfo( "warmup", Integer.class,
+                              "Number of untimed iterations per benchmark" );
+
+    /** Parameter metadata for the number of timed iterations. */
+    public static final ValueInfo ITER_INFO =
+        new DefaultValueInfo( "iterations", Integer.class,
+                              "Number of timed iterations per benchmark" );
+
+    private static final ColumnInfo GROUP_INFO =
+        new ColumnInfo( "group", String.class, "Benchmark group" );
+    private static final ColumnInfo NAME_INFO =
+        new ColumnInfo( "name", String.class, "Benchmark name" );
+    private static final ColumnInfo NROW_INFO =
+        new ColumnInfo( "nrow", Long.class, "Rows processed per iteration" );
+    private static final ColumnInfo MEAN_INFO =
+        new ColumnInfo( "mean", Double.class, "Mean time per iteration" );
+    private static final ColumnInfo SD_INFO =
+        new ColumnInfo( "stdev", Double.class,
+                        "Standard deviation of time per iteration" );
+    private static final ColumnInfo MIN_INFO =
+        new ColumnInfo( "min", Double.class, "Minimum time per iteration" );
+    private static final ColumnInfo MAX_INFO =
+        new ColumnInfo( "max", Double.class, "Maximum time per iteration" );
+    private static final ColumnInfo RATE_INFO =
+        new ColumnInfo( "rows_per_sec", Double.class,
+                        "Throughput based on mean time" );
+    private static final ColumnInfo CHECKSUM_INFO =
+        new ColumnInfo( "checksum", Long.class,
+                        "Value returned by final iteration" );
+    private static final ColumnInfo ERROR_INFO =
+        new ColumnInfo( "error", String.class,
+                        "Error message if benchmark failed" );
+    static {
+        for ( ColumnInfo info :
+              new ColumnInfo[] { MEAN_INFO, SD_INFO, MIN_INFO, MAX_INFO } ) {
+            info.setUnitString( "ms" );
+        }
+        RATE_INFO.setUnitString( "s**-1" );
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param  nWarmup  number of untimed iterations per benchmark
+     * @param  nIter   number of timed iterations per benchmark
+     * @param  revision  source revision identifier for recording in
+     *                   results, or null
+     * @param  log   destination for progress messages, or null
+     */
+    public BenchRunner( int nWarmup, int nIter, String revision,
+                        PrintStream log ) {
+        nWarmup_ = nWarmup;
+        nIter_ = Math.max( 1, nIter );
+        revision_ = revision;
+        log_ = log;
+        results_ = new ArrayList<Result>();
+    }
+
+    /**
+     * Runs a benchmark and records the result.
+     * If the benchmark fails, the failure is recorded rather than
+     * being propagated.
+     *
+     * @param  bench  benchmark
+     * @return   result
+     */
+    public Result run( Benchmark bench ) {
+        Result result;
+        try {
+            bench.setUp();
+            try {
+                long checksum = 0;
+                for ( int i = 0; i < nWarmup_; i++ ) {
+                    checksum = bench.run();
+                }
+                double[] times = new double[ nIter_ ];
+                for ( int i = 0; i < nIter_; i++ ) {
+                    long t0 = System.nanoTime();
+                    checksum = bench.run();
+                    times[ i ] = ( System.nanoTime() - t0 ) * 1e-6;
+                }
+                result = new Result( bench, times, checksum, null );
+            }
+            finally {
+                bench.tearDown();
+            }
+        }
+        catch ( Throwable e ) {
+            logger_.warning( "Benchmark " + bench + " failed: " + e );
+            result = new Result( bench, new double[ 0 ], 0, e.toString() );
+        }
+        results_.add( result );
+        if ( log_ != null ) {
+            log_.println( result );
+        }
+        return result;
+    }
+
+    /**
+     * Returns the results accumulated so far.
+     *
+     * @return  result list
+     */
+    public List<Result> getResults() {
+        return results_;
+    }
+
+    /**
+     * Returns a table containing the results accumulated so far,
+     * one row per benchmark.
+     *
+     * @return  result table
+     */
+    public StarTable createResultTable() {
+        ColumnInfo[] infos = new ColumnInfo[] {
+            GROUP_INFO, NAME_INFO, NROW_INFO,
+            MEAN_INFO, SD_INFO, MIN_INFO, MAX_INFO, RATE_INFO,
+            CHECKSUM_INFO, ERROR_INFO,
+        };
+        RowListStarTable table = new RowListStarTable( infos );
+        table.setName( "benchmarks" );
+        for ( Result r : results_ ) {
+            Benchmark b = r.bench_;
+            table.addRow( new Object[] {
+                b.getGroup(),
+                b.getName(),
+                Long.valueOf( b.getRowCount() ),
+                Double.valueOf( r.getMean() ),
+                Double.valueOf( r.getStdev() ),
+                Double.valueOf( r.getMin() ),
+                Double.valueOf( r.getMax() ),
+                Double.valueOf( r.getRowsPerSecond() ),
+                Long.valueOf( r.checksum_ ),
+                r.error_,
+            } );
+        }
+        List<DescribedValue> params = table.getParameters();
+        params.add( new DescribedValue( REVISION_INFO, revision_ ) );
+        params.add( new DescribedValue( WARMUP_INFO,
+                                        Integer.valueOf( nWarmup_ ) ) );
+        params.add( new DescribedValue( ITER_INFO,
+                                        Integer.valueOf( nIter_ ) ) );
+        params.add( createParam( "date", new Date().toString() ) );
+        params.add( createParam( "java.version",
+                                 System.getProperty( "java.version" ) ) );
+        params.add( createParam( "java.vm.name",
+                                 System.getProperty( "java.vm.name" ) ) );
+        params.add( createParam( "os.name", System.getProperty( "os.name" ) ) );
+        params.add( createParam( "os.arch", System.getProperty( "os.arch" ) ) );
+        params.add( new DescribedValue(
+                        new DefaultValueInfo( "ncpu", Integer.class,
+                                              "Available processors" ),
+                        Integer.valueOf( Runtime.getRuntime()
+                                                .availableProcessors() ) ) );
+        params.add( new DescribedValue(
+                        new DefaultValueInfo( "maxheap", Long.class,
+                                              "Maximum heap size in bytes" ),
+                        Long.valueOf( Runtime.getRuntime().maxMemory() ) ) );
+        return table;
+    }
+
+    /**
+     * Returns a string-valued described value.
+     *
+     * @param  name  parameter name
+     * @param  value  parameter value
+     * @return  new parameter
+     */
+    private static DescribedValue createParam( String name, String value ) {
+        return new DescribedValue( new DefaultValueInfo( name, String.class ),
+                                   value );
+    }
+
+    /**
+     * Records the outcome of running a benchmark.
+     */
+    public static class Result {
+
+        private final Benchmark bench_;
+        private final double[] times_;
+        private final long checksum_;
+        private final String error_;
+
+        /**
+         * Constructor.
+         *
+         * @param  bench  benchmark
+         * @param  times  iteration times in milliseconds
+         * @param  checksum  value returned by last iteration
+         * @param  error   error message, or null for success
+         */
+        Result( Benchmark bench, double[] times, long checksum,
+                String error ) {
+            bench_ = bench;
+            times_ = times.clone();
+            checksum_ = checksum;
+            error_ = error;
+            Arrays.sort( times_ );
+        }
+
+        /**
+         * Returns the benchmark to which this result applies.
+         *
+         * @return  benchmark
+         */
+        public Benchmark getBenchmark() {
+            return bench_;
+        }
+
+        /**
+         * Returns the error message, if the benchmark failed.
+         *
+         * @return   error message, or null for success
+         */
+        public String getError() {
+            return error_;
+        }
+
+        /**
+         * Returns the value returned by the final iteration.
+         *
+         * @return  checksum
+         */
+        public long getChecksum() {
+            return checksum_;
+        }
+
+        /**
+         * Returns the mean iteration time in milliseconds.
+         *
+         * @return  mean time, or NaN if there are no timings
+         */
+        public double getMean() {
+            double sum = 0;
+            for ( double t : times_ ) {
+                sum += t;
+            }
+            return times_.length > 0 ? sum / times_.length : Double.NaN;
+        }
+
+        /**
+         * Returns the standard deviation of iteration time in milliseconds.
+         *
+         * @return  sample standard deviation,
+         *          or NaN if there are fewer than two timings
+         */
+        public double getStdev() {
+            int n = times_.length;
+            if ( n < 2 ) {
+                return Double.NaN;
+            }
+            double mean = getMean();
+            double sum2 = 0;
+            for ( double t : times_ ) {
+                sum2 += ( t - mean ) * ( t - mean );
+            }
+            return Math.sqrt( sum2 / ( n - 1 ) );
+        }
+
+        /**
+         * Returns the minimum iteration time in milliseconds.
+         *
+         * @return  minimum time, or NaN if there are no timings
+         */
+        public double getMin() {
+            return times_.length > 0 ? times_[ 0 ] : Double.NaN;
+        }
+
+        /**
+         * Returns the maximum iteration time in milliseconds.
+         *
+         * @return  maximum time, or NaN if there are no timings
+         */
+        public double getMax() {
+            return times_.length > 0 ? times_[ times_.length - 1 ]
+                                     : Double.NaN;
+        }
+
+        /**
+         * Returns the throughput in rows per second, based on the mean time.
+         *
+         * @return  rows per second
+         */
+        public double getRowsPerSecond() {
+            return bench_.getRowCount() / ( getMean() * 1e-3 );
+        }
+
+        @Override
+        public String toString() {
+            return error_ == null
+                 ? String.format( "%-36s %10.2f ms +/- %8.2f  %12.0f rows/s",
+                                  bench_.getLabel(), getMean(), getStdev(),
+                                  getRowsPerSecond() )
+                 : String.format( "%-36s FAILED: %s",
+                                  bench_.getLabel(), error_ );
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package uk.ac.starlink.ttools.bench;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import uk.ac.starlink.table.StarTable;
+import uk.ac.starlink.table.Tables;
+import uk.ac.starlink.util.TestCase;
+
+/**
+ * Runs each benchmark once on a small table, to make sure that
+ * they continue to work.  No timings are checked.
+ */
+public class BenchTest extends TestCase {
+
+    public BenchTest( String name ) {
+        super( name );
+        Logger.getLogger( "uk.ac.starlink" ).setLevel( Level.WARNING );
+    }
+
+    public void testSynthetic() throws IOException {
+        StarTable t1 = SyntheticTables.createSkyTable( 500, 99L, 5, 0 );
+        StarTable t2 = SyntheticTables.createSkyTable( 500, 99L, 5, 0 );
+        Tables.checkTable( t1 );
+        assertEquals( Benchmarks.scanTable( t1 ), Benchmarks.scanTable( t2 ) );
+        for ( long ir = 0; ir < 500; ir++ ) {
+            double dec = ((Number) t1.getCell( ir, 2 )).doubleValue();
+            assertTrue( Math.abs( dec - SyntheticTables.DEC0 ) <= 5.0001 );
+        }
+    }
+
+    public void testBenchmarks() {
+        BenchRunner runner = new BenchRunner( 0, 1, "test", null );
+        List<Benchmark> benches = Benchmarks.createAllBenchmarks( 2000 );
+        for ( Benchmark bench : benches ) {
+            BenchRunner.Result result = runner.run( bench );
+            assertNull( bench.getLabel() + ": " + result.getError(),
+                        result.getError() );
+        }
+        StarTable results = runner.createResultTable();
+        assertEquals( benches.size(), results.getRowCount() );
+        assertEquals( "test",
+                      results.getParameterByName( "revision" ).getValue() );
+    }
+}
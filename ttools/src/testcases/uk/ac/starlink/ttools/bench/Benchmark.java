@@ -0,0 +1,102 @@
+package uk.ac.starlink.ttools.bench;
+
+import java.io.IOException;
+
+/**
+ * Defines a single timed operation for use with a {@link BenchRunner}.
+ *
+ * <p>The {@link #setUp} method is called once before any timings are
+ * made, and {@link #tearDown} once after they are complete;
+ * the {@link #run} method is invoked repeatedly in between,
+ * and only its execution is timed.
+ * Implementations should return from <code>run</code> a value
+ * which depends on the work done, so that the JIT compiler
+ * cannot eliminate that work.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+public abstract class Benchmark {
+
+    private final String group_;
+    private final String name_;
+    private final long nrow_;
+
+    /**
+     * Constructor.
+     *
+     * @param  group  name of the group to which this benchmark belongs
+     * @param  name   name of this benchmark, unique within its group
+     * @param  nrow   number of rows processed by each invocation of
+     *                <code>run</code>, used for throughput figures
+     */
+    protected Benchmark( String group, String name, long nrow ) {
+        group_ = group;
+        name_ = name;
+        nrow_ = nrow;
+    }
+
+    /**
+     * Returns the name of the group to which this benchmark belongs.
+     *
+     * @return  group name
+     */
+    public String getGroup() {
+        return group_;
+    }
+
+    /**
+     * Returns the name of this benchmark.
+     *
+     * @return  name
+     */
+    public String getName() {
+        return name_;
+    }
+
+    /**
+     * Returns the fully qualified label for this benchmark,
+     * of the form <code>group.name</code>.
+     *
+     * @return  label
+     */
+    public String getLabel() {
+        return group_ + "." + name_;
+    }
+
+    /**
+     * Returns the number of rows processed by each invocation of
+     * {@link #run}.
+     *
+     * @return  row count
+     */
+    public long getRowCount() {
+        return nrow_;
+    }
+
+    /**
+     * Prepares this benchmark for execution.
+     * The default implementation does nothing.
+     */
+    public void setUp() throws IOException {
+    }
+
+    /**
+     * Performs the timed operation.
+     *
+     * @return  checksum value dependent on the work done
+     */
+    public abstract long run() throws Exception;
+
+    /**
+     * Releases any resources associated with this benchmark.
+     * The default implementation does nothing.
+     */
+    public void tearDown() throws IOException {
+    }
+
+    @Override
+    public String toString() {
+        return getLabel();
+    }
+}
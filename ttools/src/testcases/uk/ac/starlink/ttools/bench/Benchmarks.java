@@ -0,0 +1,515 @@
+package uk.ac.starlink.ttools.bench;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.swing.Icon;
+import uk.ac.starlink.table.ColumnInfo;
+import uk.ac.starlink.table.ColumnPermutedStarTable;
+import uk.ac.starlink.table.ExternalSorter;
+import uk.ac.starlink.table.RowRunner;
+import uk.ac.starlink.table.RowSequence;
+import uk.ac.starlink.table.StarTable;
+import uk.ac.starlink.table.StarTableFactory;
+import uk.ac.starlink.table.StarTableOutput;
+import uk.ac.starlink.table.StoragePolicy;
+import uk.ac.starlink.table.join.CdsHealpixSkyPixellator;
+import uk.ac.starlink.table.join.FixedSkyMatchEngine;
+import uk.ac.starlink.table.join.IsotropicCartesianMatchEngine;
+import uk.ac.starlink.table.join.MatchEngine;
+import uk.ac.starlink.table.join.NullProgressIndicator;
+import uk.ac.starlink.table.join.PairMode;
+import uk.ac.starlink.table.join.RowMatcher;
+import uk.ac.starlink.ttools.filter.TableStats;
+import uk.ac.starlink.ttools.filter.UnivariateStats;
+import uk.ac.starlink.ttools.jel.JELTable;
+import uk.ac.starlink.ttools.plot2.task.AbstractPlot2Task;
+import uk.ac.starlink.ttools.plot2.task.PlanePlot2Task;
+import uk.ac.starlink.ttools.plot2.task.SkyPlot2Task;
+import uk.ac.starlink.ttools.task.MapEnvironment;
+import uk.ac.starlink.util.SplitPolicy;
+
+/**
+ * Provides the standard set of benchmarks covering table I/O,
+ * storage policies, crossmatching, expression evaluation, statistics
+ * and plotting.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+public class Benchmarks {
+
+    /** Output formats exercised by the I/O benchmarks. */
+    public static final String[] IO_FORMATS = {
+        "fits", "colfits-plus", "votable", "ecsv", "csv", "feather",
+    };
+
+    /**
+     * Private constructor prevents instantiation.
+     */
+    private Benchmarks() {
+    }
+
+    /**
+     * Returns all the standard benchmarks.
+     *
+     * @param  nrow  nominal number of rows in benchmark tables
+     * @return  benchmark list
+     */
+    public static List<Benchmark> createAllBenchmarks( int nrow ) {
+        List<Benchmark> list = new ArrayList<Benchmark>();
+        list.addAll( createIoBenchmarks( nrow ) );
+        list.addAll( createStorageBenchmarks( nrow ) );
+        list.addAll( createMatchBenchmarks( nrow ) );
+        list.addAll( createJelBenchmarks( nrow ) );
+        list.addAll( createStatsBenchmarks( nrow ) );
+        list.addAll( createSortBenchmarks( nrow ) );
+        list.addAll( createPlotBenchmarks( nrow ) );
+        return list;
+    }
+
+    /**
+     * Returns benchmarks for reading and writing tables in various
+     * output formats.
+     *
+     * @param  nrow  number of rows in benchmark tables
+     * @return  benchmark list
+     */
+    public static List<Benchmark> createIoBenchmarks( final int nrow ) {
+        final StarTable table =
+            SyntheticTables.createSkyTable( nrow, 1L, 180, 0 );
+        final StarTableOutput sto = new StarTableOutput();
+        List<Benchmark> list = new ArrayList<Benchmark>();
+        for ( final String fmt : IO_FORMATS ) {
+            list.add( new Benchmark( "io", "write-" + fmt, nrow ) {
+                File file_;
+                public void setUp() throws IOException {
+                    file_ = createTempFile( fmt );
+                }
+                public long run() throws IOException {
+                    sto.writeStarTable( table, file_.toString(), fmt );
+                    return file_.length();
+                }
+                public void tearDown() {
+                    file_.delete();
+                }
+            } );
+            list.add( new Benchmark( "io", "read-" + fmt, nrow ) {
+                File file_;
+                StarTableFactory fact_;
+                public void setUp() throws IOException {
+                    file_ = createTempFile( fmt );
+                    sto.writeStarTable( table, file_.toString(), fmt );
+                    fact_ = new StarTableFactory( false );
+                    fact_.setStoragePolicy( StoragePolicy.DISCARD );
+                }
+                public long run() throws IOException {
+                    StarTable t =
+                        fact_.makeStarTable( file_.toString(), fmt );
+                    long sum = scanTable( t );
+                    t.close();
+                    return sum;
+                }
+                public void tearDown() {
+                    file_.delete();
+                }
+            } );
+        }
+        return list;
+    }
+
+    /**
+     * Returns benchmarks for copying a table into each storage policy
+     * and scanning the result.
+     *
+     * @param  nrow  number of rows in benchmark tables
+     * @return  benchmark list
+     */
+    public static List<Benchmark> createStorageBenchmarks( int nrow ) {
+        final StarTable table =
+            SyntheticTables.createSkyTable( nrow, 2L, 180, 0 );
+        Object[][] policies = new Object[][] {
+            { "memory", StoragePolicy.PREFER_MEMORY },
+            { "disk", StoragePolicy.PREFER_DISK },
+            { "sideways", StoragePolicy.SIDEWAYS },
+            { "compressed", StoragePolicy.COMPRESSED },
+            { "offheap", StoragePolicy.OFFHEAP_COLUMNAR },
+            { "adaptive", StoragePolicy.ADAPTIVE },
+        };
+        List<Benchmark> list = new ArrayList<Benchmark>();
+        for ( Object[] entry : policies ) {
+            final StoragePolicy policy = (StoragePolicy) entry[ 1 ];
+            list.add( new Benchmark( "storage", (String) entry[ 0 ], nrow ) {
+                public long run() throws IOException {
+                    StarTable t = policy.copyTable( table );
+                    long sum = scanTable( t );
+                    t.close();
+                    return sum;
+                }
+            } );
+        }
+        return list;
+    }
+
+    /**
+     * Returns benchmarks for pair matching between two tables at
+     * several source densities, using sky and Cartesian match engines.
+     *
+     * @param  nrow  number of rows in each input table
+     * @return  benchmark list
+     */
+    public static List<Benchmark> createMatchBenchmarks( int nrow ) {
+        List<Benchmark> list = new ArrayList<Benchmark>();
+
+        /* Sky matches: a fixed number of sources spread over regions of
+         * different sizes, matched with a 1 arcsec tolerance. */
+        double arcsec = 1.0 / 3600.0;
+        double[] radii = { 180, 10, 1 };
+        String[] skyNames = { "sky-allsky", "sky-10deg", "sky-1deg" };
+        for ( int i = 0; i < radii.length; i++ ) {
+            StarTable t1 = SyntheticTables
+                          .createSkyTupleTable( nrow, 3L, radii[ i ], 0 );
+            StarTable t2 = SyntheticTables
+                          .createSkyTupleTable( nrow, 3L, radii[ i ],
+                                                0.5 * arcsec );
+            MatchEngine engine =
+                new FixedSkyMatchEngine( new CdsHealpixSkyPixellator(),
+                                         Math.toRadians( arcsec ) );
+            list.add( createMatchBenchmark( skyNames[ i ], engine,
+                                            t1, t2 ) );
+        }
+
+        /* Cartesian matches: same approach in 2 dimensions. */
+        double[] sizes = { 1e4, 1e3, 1e2 };
+        String[] cartNames = { "cart-sparse", "cart-medium", "cart-dense" };
+        for ( int i = 0; i < sizes.length; i++ ) {
+            StarTable t1 = SyntheticTables
+                          .createCartesianTable( nrow, 4L, 2, sizes[ i ], 0 );
+            StarTable t2 = SyntheticTables
+                          .createCartesianTable( nrow, 4L, 2, sizes[ i ],
+                                                 0.05 );
+            MatchEngine engine =
+                new IsotropicCartesianMatchEngine( 2, 0.1, false );
+            list.add( createMatchBenchmark( cartNames[ i ], engine,
+                                            t1, t2 ) );
+        }
+        return list;
+    }
+
+    /**
+     * Returns benchmarks for evaluating JEL expressions over all the
+     * rows of a table.
+     *
+     * @param  nrow  number of rows in benchmark tables
+     * @return  benchmark list
+     */
+    public static List<Benchmark> createJelBenchmarks( int nrow ) {
+        final StarTable table =
+            SyntheticTables.createSkyTable( nrow, 5L, 180, 0 );
+        String[][] exprs = new String[][] {
+            { "arith", "ra + 2 * dec" },
+            { "func", "skyDistanceDegrees(ra, dec, 180, 30)" },
+            { "bool", "mag < 15 && ! flag" },
+            { "string", "equals(type, \"STAR\") ? 1 : 0" },
+            { "null", "NULL_mag ? -1 : mag" },
+        };
+        List<Benchmark> list = new ArrayList<Benchmark>();
+        for ( String[] entry : exprs ) {
+            final String expr = entry[ 1 ];
+            list.add( new Benchmark( "jel", entry[ 0 ], nrow ) {
+                StarTable jt_;
+                public void setUp() throws IOException {
+                    try {
+                        jt_ = new JELTable( table, new ColumnInfo[] {
+                                  new ColumnInfo( "value", Object.class, null ),
+                              }, new String[] { expr } );
+                    }
+                    catch ( Exception e ) {
+                        throw (IOException)
+                              new IOException( "Bad expression " + expr
+                                             + ": " + e )
+                             .initCause( e );
+                    }
+                }
+                public long run() throws IOException {
+                    return scanTable( jt_ );
+                }
+            } );
+        }
+        return list;
+    }
+
+    /**
+     * Returns benchmarks for accumulating per-column univariate statistics.
+     * The <code>memory</code> case uses an in-memory table,
+     * and the other cases read the table from VOTable files with
+     * externally referenced BINARY or BINARY2 data.
+     *
+     * @param  nrow  number of rows in benchmark tables
+     * @return  benchmark list
+     */
+    public static List<Benchmark> createStatsBenchmarks( int nrow ) {
+        final StarTable table =
+            SyntheticTables.createSkyTable( nrow, 6L, 180, 0 );
+        List<Benchmark> list = new ArrayList<Benchmark>();
+        list.add( new Benchmark( "stats", "memory", nrow ) {
+            public long run() throws IOException {
+                return calculateStats( table );
+            }
+        } );
+        final StarTableOutput sto = new StarTableOutput();
+        for ( final String enc : new String[] { "binary", "binary2" } ) {
+            list.add( new Benchmark( "stats", enc + "-href", nrow ) {
+                File dir_;
+                File file_;
+                StarTableFactory fact_;
+                public void setUp() throws IOException {
+                    dir_ = Files.createTempDirectory( "bench" ).toFile();
+                    file_ = new File( dir_, "stats.vot" );
+                    sto.writeStarTable( table, file_.toString(),
+                                        "votable-" + enc + "-href" );
+                    fact_ = new StarTableFactory( false );
+                    fact_.setStoragePolicy( StoragePolicy.DISCARD );
+                }
+                public long run() throws IOException {
+                    StarTable t =
+                        fact_.makeStarTable( file_.toString(), "votable" );
+                    long sum = calculateStats( t );
+                    t.close();
+                    return sum;
+                }
+                public void tearDown() {
+                    for ( File f : dir_.listFiles() ) {
+                        f.delete();
+                    }
+                    dir_.delete();
+                }
+            } );
+        }
+        return list;
+    }
+
+    /**
+     * Returns benchmarks for determining the sorted order of a table.
+     * The <code>radix</code> case sorts on a single floating point key,
+     * <code>merge</code> on two keys, <code>sequential</code> is like
+     * <code>radix</code> but without parallelism, and <code>external</code>
+     * forces the key data to be spilled to disk in several runs
+     * and merged.
+     * For a large-scale test, run with <code>-nrow 100000000 sort</code>
+     * and plenty of heap.
+     *
+     * @param  nrow  number of rows in benchmark tables
+     * @return  benchmark list
+     */
+    public static List<Benchmark> createSortBenchmarks( int nrow ) {
+        StarTable table =
+            SyntheticTables.createCartesianTable( nrow, 7L, 2, 1e6, 0 );
+        final StarTable key1 =
+            new ColumnPermutedStarTable( table, new int[] { 0 } );
+        final StarTable key2 =
+            new ColumnPermutedStarTable( table, new int[] { 0, 1 } );
+        int runSize = Math.max( 1024, nrow / 8 );
+        Object[][] cases = new Object[][] {
+            { "radix", key1, new ExternalSorter() },
+            { "merge", key2, new ExternalSorter() },
+            { "sequential", key1,
+              new ExternalSorter( StoragePolicy.PREFER_MEMORY, null,
+                                  ExternalSorter.DFLT_RUN_SIZE,
+                                  ExternalSorter.DFLT_MERGE_WAY ) },
+            { "external", key1,
+              new ExternalSorter( StoragePolicy.PREFER_DISK,
+                                  SplitPolicy.DFLT_POLICY, runSize,
+                                  ExternalSorter.DFLT_MERGE_WAY ) },
+        };
+        List<Benchmark> list = new ArrayList<Benchmark>();
+        for ( Object[] entry : cases ) {
+            final StarTable keyTable = (StarTable) entry[ 1 ];
+            final ExternalSorter sorter = (ExternalSorter) entry[ 2 ];
+            list.add( new Benchmark( "sort", (String) entry[ 0 ], nrow ) {
+                public long run() throws IOException {
+                    long[] order =
+                        sorter.getSortedOrder( keyTable, true, true );
+                    return order[ 0 ] + order[ order.length - 1 ];
+                }
+            } );
+        }
+        return list;
+    }
+
+    /**
+     * Returns benchmarks for painting plot layers on a headless
+     * bitmap surface.
+     *
+     * @param  nrow  number of rows in benchmark tables
+     * @return  benchmark list
+     */
+    public static List<Benchmark> createPlotBenchmarks( int nrow ) {
+        StarTable table = SyntheticTables.createSkyTable( nrow, 6L, 30, 0 );
+        List<Benchmark> list = new ArrayList<Benchmark>();
+        list.add( createPlotBenchmark( "plane-mark", table, false,
+                                       "layer1=mark", "x1=ra", "y1=dec" ) );
+        list.add( createPlotBenchmark( "plane-density", table, false,
+                                       "layer1=mark", "x1=ra", "y1=dec",
+                                       "shading1=density" ) );
+        list.add( createPlotBenchmark( "plane-grid", table, false,
+                                       "layer1=grid", "x1=ra", "y1=dec" ) );
+        list.add( createPlotBenchmark( "plane-histogram", table, false,
+                                       "layer1=histogram", "x1=mag" ) );
+        list.add( createPlotBenchmark( "sky-mark", table, true,
+                                       "layer1=mark", "lon1=ra",
+                                       "lat1=dec" ) );
+        list.add( createPlotBenchmark( "sky-density", table, true,
+                                       "layer1=skydensity", "lon1=ra",
+                                       "lat1=dec" ) );
+        return list;
+    }
+
+    /**
+     * Reads all the cells of a table, returning a value dependent on
+     * their contents.
+     *
+     * @param  table  table
+     * @return  checksum
+     */
+    public static long scanTable( StarTable table ) throws IOException {
+        int ncol = table.getColumnCount();
+        boolean[] isNumeric = new boolean[ ncol ];
+        for ( int ic = 0; ic < ncol; ic++ ) {
+            isNumeric[ ic ] = Number.class
+                             .isAssignableFrom( table.getColumnInfo( ic )
+                                                     .getContentClass() );
+        }
+        long sum = 0;
+        RowSequence rseq = table.getRowSequence();
+        try {
+            while ( rseq.next() ) {
+                for ( int ic = 0; ic < ncol; ic++ ) {
+                    if ( isNumeric[ ic ] ) {
+                        sum += Double.doubleToLongBits( rseq.getDouble( ic ) );
+                    }
+                    else {
+                        Object value = rseq.getCell( ic );
+                        if ( value != null ) {
+                            sum += value.hashCode();
+                        }
+                    }
+                }
+                sum = sum * 31 + 1;
+            }
+        }
+        finally {
+            rseq.close();
+        }
+        return sum;
+    }
+
+    /**
+     * Accumulates sequential per-column statistics for a table
+     * and returns a checksum of the results.
+     *
+     * @param  table  table
+     * @return  checksum
+     */
+    private static long calculateStats( StarTable table ) throws IOException {
+        TableStats stats =
+            TableStats.calculateStats( table, RowRunner.SEQUENTIAL,
+                                       null, false );
+        long sum = 0;
+        for ( UnivariateStats ustats : stats.getColumnStats() ) {
+            sum += ustats.getCount();
+            sum += Double.doubleToLongBits( ustats.getSum() );
+        }
+        return sum;
+    }
+
+    /**
+     * Returns a benchmark that performs a symmetric best pair match.
+     *
+     * @param  name   benchmark name
+     * @param  engine  match engine
+     * @param  t1   first input table, containing match tuples
+     * @param  t2   second input table, containing match tuples
+     * @return  new benchmark
+     */
+    private static Benchmark createMatchBenchmark( String name,
+                                                   final MatchEngine engine,
+                                                   StarTable t1,
+                                                   StarTable t2 ) {
+        final StarTable[] tables = new StarTable[] { t1, t2 };
+        return new Benchmark( "match", name, t1.getRowCount() ) {
+            public long run() throws Exception {
+                RowMatcher matcher = new RowMatcher( engine, tables );
+                matcher.setIndicator( new NullProgressIndicator() );
+                return matcher.findPairMatches( PairMode.BEST ).size();
+            }
+        };
+    }
+
+    /**
+     * Returns a benchmark that creates a plot and paints it to an
+     * offscreen image.
+     *
+     * @param  name   benchmark name
+     * @param  table  input table
+     * @param  isSky  true for a sky plot, false for a plane plot
+     * @param  params  name=value parameter settings for the plot task,
+     *                 excluding the input table
+     * @return  new benchmark
+     */
+    private static Benchmark createPlotBenchmark( String name,
+                                                  final StarTable table,
+                                                  final boolean isSky,
+                                                  String... params ) {
+        final int xpix = 600;
+        final int ypix = 400;
+        final List<String> paramList = Arrays.asList( params );
+        return new Benchmark( "plot", name, table.getRowCount() ) {
+            public long run() throws Exception {
+                MapEnvironment env = new MapEnvironment();
+                env.setValue( "in1", table );
+                env.setValue( "xpix", Integer.toString( xpix ) );
+                env.setValue( "ypix", Integer.toString( ypix ) );
+                for ( String param : paramList ) {
+                    int ieq = param.indexOf( '=' );
+                    env.setValue( param.substring( 0, ieq ),
+                                  param.substring( ieq + 1 ) );
+                }
+                AbstractPlot2Task task = isSky ? new SkyPlot2Task()
+                                               : new PlanePlot2Task();
+                Icon icon = task.createPlotIcon( env );
+                BufferedImage image =
+                    new BufferedImage( icon.getIconWidth(),
+                                       icon.getIconHeight(),
+                                       BufferedImage.TYPE_INT_ARGB );
+                Graphics2D g = image.createGraphics();
+                icon.paintIcon( null, g, 0, 0 );
+                g.dispose();
+                long sum = 0;
+                for ( int iy = 0; iy < image.getHeight(); iy += 7 ) {
+                    for ( int ix = 0; ix < image.getWidth(); ix += 7 ) {
+                        sum += image.getRGB( ix, iy );
+                    }
+                }
+                return sum;
+            }
+        };
+    }
+
+    /**
+     * Returns a new scratch file for a given table format.
+     *
+     * @param  fmt  output format name
+     * @return  temporary file, marked for deletion on exit
+     */
+    private static File createTempFile( String fmt ) throws IOException {
+        File file = File.createTempFile( "bench", "." + fmt );
+        file.deleteOnExit();
+        return file;
+    }
+}
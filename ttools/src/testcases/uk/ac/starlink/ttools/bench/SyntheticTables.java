@@ -0,0 +1,204 @@
+package uk.ac.starlink.ttools.bench;
+
+import java.io.IOException;
+import java.util.Random;
+import uk.ac.starlink.table.ArrayColumn;
+import uk.ac.starlink.table.ColumnInfo;
+import uk.ac.starlink.table.ColumnStarTable;
+import uk.ac.starlink.table.PrimitiveArrayColumn;
+import uk.ac.starlink.table.StarTable;
+
+/**
+ * Generates reproducible synthetic tables for benchmarking.
+ * All the tables are held in memory, and the data depends only on the
+ * supplied arguments, so that timings are comparable between runs.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+public class SyntheticTables {
+
+    /** Right ascension of the centre of generated sky regions. */
+    public static final double RA0 = 180.0;
+
+    /** Declination of the centre of generated sky regions. */
+    public static final double DEC0 = 30.0;
+
+    private static final String[] TYPES = {
+        "STAR", "GALAXY", "QSO", "UNKNOWN", "star?", "galaxy?",
+    };
+
+    /**
+     * Private constructor prevents instantiation.
+     */
+    private SyntheticTables() {
+    }
+
+    /**
+     * Returns a catalogue-like table with sky positions distributed
+     * uniformly over a circular region of the sky.
+     * The columns are
+     * <code>id</code> (long), <code>ra</code>, <code>dec</code> (double,
+     * degrees), <code>mag</code> (float, sometimes blank),
+     * <code>err</code> (double, arcsec), <code>flag</code> (boolean)
+     * and <code>type</code> (short string, sometimes blank).
+     *
+     * <p>Positions depend only on <code>seed</code> and
+     * <code>radiusDeg</code>; if a non-zero <code>jitterDeg</code> is
+     * given, each position is additionally perturbed by up to
+     * that amount in each coordinate, so that two tables with the same
+     * seed and different jitter values can be cross-matched.
+     *
+     * @param  nrow  row count
+     * @param  seed  random seed
+     * @param  radiusDeg  radius in degrees of the populated region;
+     *                    180 gives all-sky coverage
+     * @param  jitterDeg  maximum positional perturbation in degrees
+     * @return  new table
+     */
+    public static StarTable createSkyTable( int nrow, long seed,
+                                            double radiusDeg,
+                                            double jitterDeg ) {
+        Random rnd = new Random( seed );
+        Random jrnd = new Random( ~seed );
+        long[] ids = new long[ nrow ];
+        double[] ras = new double[ nrow ];
+        double[] decs = new double[ nrow ];
+        float[] mags = new float[ nrow ];
+        double[] errs = new double[ nrow ];
+        boolean[] flags = new boolean[ nrow ];
+        String[] types = new String[ nrow ];
+        double cosR = Math.cos( Math.toRadians( Math.min( radiusDeg, 180 ) ) );
+        double tilt = Math.toRadians( 90 - DEC0 );
+        double sinT = Math.sin( tilt );
+        double cosT = Math.cos( tilt );
+        for ( int ir = 0; ir < nrow; ir++ ) {
+
+            /* Pick a point uniformly in a cap about the pole,
+             * then rotate the pole to the region centre. */
+            double z = cosR + ( 1 - cosR ) * rnd.nextDouble();
+            double phi = 2 * Math.PI * rnd.nextDouble();
+            double rxy = Math.sqrt( Math.max( 0, 1 - z * z ) );
+            double x = rxy * Math.cos( phi );
+            double y = rxy * Math.sin( phi );
+            double x1 = x * cosT + z * sinT;
+            double z1 = -x * sinT + z * cosT;
+            double ra = Math.toDegrees( Math.atan2( y, x1 ) ) + RA0;
+            double dec = Math.toDegrees( Math.asin( Math.max( -1,
+                                                    Math.min( 1, z1 ) ) ) );
+            if ( jitterDeg != 0 ) {
+                ra += jitterDeg * ( 2 * jrnd.nextDouble() - 1 )
+                    / Math.max( 1e-6, Math.cos( Math.toRadians( dec ) ) );
+                dec = Math.max( -90, Math.min( 90, dec + jitterDeg *
+                                        ( 2 * jrnd.nextDouble() - 1 ) ) );
+            }
+            ids[ ir ] = seed * 1000000000L + ir;
+            ras[ ir ] = ( ra % 360 + 360 ) % 360;
+            decs[ ir ] = dec;
+            mags[ ir ] = ir % 23 == 0 ? Float.NaN
+                                      : (float) ( 12 + 8 * rnd.nextDouble() );
+            errs[ ir ] = 0.05 + 0.5 * rnd.nextDouble();
+            flags[ ir ] = rnd.nextInt( 8 ) == 0;
+            types[ ir ] = ir % 31 == 0 ? null
+                                       : TYPES[ rnd.nextInt( TYPES.length ) ];
+        }
+        ColumnStarTable table = ColumnStarTable.makeTableWithRows( nrow );
+        table.setName( "sky-" + seed );
+        table.addColumn( primitiveColumn( "id", Long.class, ids ) );
+        table.addColumn( primitiveColumn( "ra", Double.class, ras ) );
+        table.addColumn( primitiveColumn( "dec", Double.class, decs ) );
+        table.addColumn( primitiveColumn( "mag", Float.class, mags ) );
+        table.addColumn( primitiveColumn( "err", Double.class, errs ) );
+        table.addColumn( primitiveColumn( "flag", Boolean.class, flags ) );
+        ColumnInfo typeInfo = new ColumnInfo( "type", String.class, null );
+        typeInfo.setElementSize( 8 );
+        table.addColumn( ArrayColumn.makeColumn( typeInfo, types ) );
+        return table;
+    }
+
+    /**
+     * Returns a table containing only the sky coordinates of
+     * a table created by {@link #createSkyTable}, in radians,
+     * suitable for use with sky match engines.
+     *
+     * @param  nrow  row count
+     * @param  seed  random seed
+     * @param  radiusDeg  radius in degrees of the populated region
+     * @param  jitterDeg  maximum positional perturbation in degrees
+     * @return  new two-column table
+     */
+    public static StarTable createSkyTupleTable( int nrow, long seed,
+                                                 double radiusDeg,
+                                                 double jitterDeg ) {
+        StarTable sky = createSkyTable( nrow, seed, radiusDeg, jitterDeg );
+        double[] ras = new double[ nrow ];
+        double[] decs = new double[ nrow ];
+        for ( int ir = 0; ir < nrow; ir++ ) {
+            try {
+                ras[ ir ] = Math.toRadians( ((Number) sky.getCell( ir, 1 ))
+                                           .doubleValue() );
+                decs[ ir ] = Math.toRadians( ((Number) sky.getCell( ir, 2 ))
+                                            .doubleValue() );
+            }
+            catch ( IOException e ) {
+                throw new AssertionError( e );
+            }
+        }
+        ColumnStarTable table = ColumnStarTable.makeTableWithRows( nrow );
+        table.addColumn( primitiveColumn( "ra_rad", Double.class, ras ) );
+        table.addColumn( primitiveColumn( "dec_rad", Double.class, decs ) );
+        return table;
+    }
+
+    /**
+     * Returns a table of points distributed uniformly in a
+     * Cartesian hypercube.
+     * Columns are named <code>x1</code>, <code>x2</code>, ...
+     *
+     * @param  nrow  row count
+     * @param  seed  random seed
+     * @param  ndim  dimensionality
+     * @param  size  extent of the populated cube in each dimension
+     * @param  jitter  maximum perturbation of each coordinate;
+     *                 positions are otherwise determined by seed and size
+     * @return  new table
+     */
+    public static StarTable createCartesianTable( int nrow, long seed,
+                                                  int ndim, double size,
+                                                  double jitter ) {
+        Random rnd = new Random( seed );
+        Random jrnd = new Random( ~seed );
+        double[][] coords = new double[ ndim ][ nrow ];
+        for ( int ir = 0; ir < nrow; ir++ ) {
+            for ( int id = 0; id < ndim; id++ ) {
+                double c = size * rnd.nextDouble();
+                if ( jitter != 0 ) {
+                    c += jitter * ( 2 * jrnd.nextDouble() - 1 );
+                }
+                coords[ id ][ ir ] = c;
+            }
+        }
+        ColumnStarTable table = ColumnStarTable.makeTableWithRows( nrow );
+        table.setName( "cart-" + seed );
+        for ( int id = 0; id < ndim; id++ ) {
+            table.addColumn( primitiveColumn( "x" + ( id + 1 ), Double.class,
+                                              coords[ id ] ) );
+        }
+        return table;
+    }
+
+    /**
+     * Creates a column from a primitive array.
+     *
+     * @param  name  column name
+     * @param  clazz  wrapper class corresponding to array element type
+     * @param  data   primitive array
+     * @return  new column
+     */
+    private static PrimitiveArrayColumn primitiveColumn( String name,
+                                                         Class<?> clazz,
+                                                         Object data ) {
+        return PrimitiveArrayColumn
+              .makePrimitiveColumn( new ColumnInfo( name, clazz, null ), data );
+    }
+}
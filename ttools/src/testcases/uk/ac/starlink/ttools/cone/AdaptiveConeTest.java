@@ -0,0 +1,203 @@
+package uk.ac.starlink.ttools.cone;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import junit.framework.TestCase;
+import uk.ac.starlink.table.JoinFixAction;
+import uk.ac.starlink.table.StarTable;
+import uk.ac.starlink.table.StarTableFactory;
+import uk.ac.starlink.table.StoragePolicy;
+import uk.ac.starlink.table.Tables;
+import uk.ac.starlink.ttools.task.TableProducer;
+import uk.ac.starlink.util.URLDataSource;
+import uk.ac.starlink.vo.ConeSearch;
+import uk.ac.starlink.votable.VOTableBuilder;
+
+public class AdaptiveConeTest extends TestCase {
+
+    private static final long MS = 1000 * 1000;
+
+    public AdaptiveConeTest( String name ) {
+        super( name );
+        Logger.getLogger( "uk.ac.starlink.ttools.cone" )
+              .setLevel( Level.WARNING );
+        Logger.getLogger( "uk.ac.starlink.table" ).setLevel( Level.WARNING );
+        Logger.getLogger( "uk.ac.starlink.vo" ).setLevel( Level.WARNING );
+    }
+
+    public void testLimiter() throws InterruptedException {
+        AdaptiveLimiter limiter = new AdaptiveLimiter( 8, 1 );
+        assertEquals( 1, limiter.getLimit() );
+
+        /* Steady latency: limit climbs to the maximum. */
+        for ( int i = 0; i < 100; i++ ) {
+            limiter.acquire();
+            limiter.release( 10 * MS, true );
+        }
+        assertEquals( 8, limiter.getLimit() );
+
+        /* A failure in a round halves the limit. */
+        releaseRound( limiter, 10 * MS, false );
+        assertEquals( 4, limiter.getLimit() );
+        assertEquals( 8, limiter.getErrorCount() );
+
+        /* A latency spike reduces the limit. */
+        releaseRound( limiter, 200 * MS, true );
+        assertEquals( 3, limiter.getLimit() );
+        releaseRound( limiter, 200 * MS, true );
+        assertEquals( 2, limiter.getLimit() );
+
+        /* It never drops below 1. */
+        for ( int i = 0; i < 10; i++ ) {
+            releaseRound( limiter, 10 * MS, false );
+        }
+        assertEquals( 1, limiter.getLimit() );
+        assertEquals( 8, limiter.getMaxLimit() );
+    }
+
+    public void testHistogram() {
+        LatencyHistogram hist = new LatencyHistogram();
+        assertEquals( 0, hist.getCount() );
+        assertTrue( Double.isNaN( hist.getQuantileMillis( 0.5 ) ) );
+        for ( int i = 0; i < 90; i++ ) {
+            hist.addNanos( 3 * MS );
+        }
+        for ( int i = 0; i < 10; i++ ) {
+            hist.addNanos( 100 * MS );
+        }
+        assertEquals( 100, hist.getCount() );
+        assertEquals( 12.7, hist.getMeanMillis(), 1e-6 );
+        assertEquals( 4.0, hist.getQuantileMillis( 0.5 ) );
+        assertEquals( 4.0, hist.getQuantileMillis( 0.9 ) );
+        assertEquals( 100.0, hist.getQuantileMillis( 0.99 ) );
+        String[] lines = hist.formatLines();
+        assertEquals( 3, lines.length );
+        assertTrue( lines[ 0 ].startsWith( "n=100, " ) );
+    }
+
+    public void testService() throws Exception {
+        final Set<Integer> ports = new HashSet<Integer>();
+        final AtomicInteger nQuery = new AtomicInteger();
+        HttpServer server =
+            HttpServer.create( new InetSocketAddress( InetAddress
+                                                     .getLoopbackAddress(),
+                                                      0 ), 0 );
+        server.createContext( "/cone", new HttpHandler() {
+            public void handle( HttpExchange exch ) throws IOException {
+                synchronized ( ports ) {
+                    ports.add( new Integer( exch.getRemoteAddress()
+                                                .getPort() ) );
+                }
+                nQuery.incrementAndGet();
+                Map<String,String> params = new HashMap<String,String>();
+                for ( String pair :
+                      exch.getRequestURI().getRawQuery().split( "&" ) ) {
+                    String[] kv = pair.split( "=", 2 );
+                    params.put( kv[ 0 ],
+                                URLDecoder.decode( kv[ 1 ], "UTF-8" ) );
+                }
+                byte[] body = createResponse( params.get( "RA" ),
+                                              params.get( "DEC" ) )
+                             .getBytes( "UTF-8" );
+                exch.getResponseHeaders().set( "Content-Type", "text/xml" );
+                exch.sendResponseHeaders( 200, body.length );
+                OutputStream out = exch.getResponseBody();
+                out.write( body );
+                out.close();
+            }
+        } );
+        ExecutorService executor = Executors.newFixedThreadPool( 8 );
+        server.setExecutor( executor );
+        server.start();
+        try {
+            String url = "http://localhost:" + server.getAddress().getPort()
+                       + "/cone?";
+            ConeSearcher searcher =
+                new ServiceConeSearcher( new ConeSearch( url ), 0, true,
+                                         new StarTableFactory() );
+            final StarTable messier =
+                new VOTableBuilder()
+               .makeStarTable( new URLDataSource( getClass()
+                                                 .getResource( "../messier"
+                                                             + ".xml" ) ),
+                               true, StoragePolicy.PREFER_MEMORY );
+            TableProducer inProd = new TableProducer() {
+                public StarTable getTable() {
+                    return messier;
+                }
+            };
+            ConeMatcher matcher = new ConeMatcher(
+                    searcher, ConeErrorPolicy.ABORT, inProd,
+                    new JELQuerySequenceFactory( "RA + 0", "DEC", "0.5" ),
+                    true, null, false, true, 4, "*", null,
+                    JoinFixAction.NO_ACTION, JoinFixAction.NO_ACTION );
+            matcher.setAdaptive( true );
+            ConeMatcher.ConeWorker worker = matcher.createConeWorker();
+            new Thread( worker ).run();
+            StarTable result = Tables.randomTable( worker.getTable() );
+            long nrow = messier.getRowCount();
+            assertEquals( nrow, result.getRowCount() );
+            assertEquals( nrow, nQuery.get() );
+
+            /* Connections are reused rather than opened per query. */
+            assertTrue( ports.size() + " connections for " + nrow
+                      + " queries",
+                        ports.size() <= 4 * 2 );
+        }
+        finally {
+            server.stop( 0 );
+            executor.shutdown();
+        }
+    }
+
+    private static void releaseRound( AdaptiveLimiter limiter, long nanos,
+                                      boolean success )
+            throws InterruptedException {
+        int n = limiter.getLimit();
+        for ( int i = 0; i < n; i++ ) {
+            limiter.acquire();
+        }
+        for ( int i = 0; i < n; i++ ) {
+            limiter.release( nanos, success );
+        }
+    }
+
+    private static String createResponse( String ra, String dec ) {
+        return new StringBuffer()
+              .append( "<?xml version='1.0'?>\n" )
+              .append( "<VOTABLE version='1.1'>\n" )
+              .append( "<RESOURCE>\n" )
+              .append( "<TABLE>\n" )
+              .append( "<FIELD name='ra' datatype='double'" )
+              .append( " ucd='POS_EQ_RA_MAIN'/>\n" )
+              .append( "<FIELD name='dec' datatype='double'" )
+              .append( " ucd='POS_EQ_DEC_MAIN'/>\n" )
+              .append( "<DATA><TABLEDATA>\n" )
+              .append( "<TR><TD>" )
+              .append( ra )
+              .append( "</TD><TD>" )
+              .append( dec )
+              .append( "</TD></TR>\n" )
+              .append( "</TABLEDATA></DATA>\n" )
+              .append( "</TABLE>\n" )
+              .append( "</RESOURCE>\n" )
+              .append( "</VOTABLE>\n" )
+              .append( "\n\n\n" )
+              .toString();
+    }
+}
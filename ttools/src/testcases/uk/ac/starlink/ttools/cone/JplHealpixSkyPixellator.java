@@ -56,7 +56,8 @@ public class JplHealpixSkyPixellator extends HealpixSkyPixellator {
         this( false, 4 );
     }
 
-    public Object[] getPixels( double alpha, double delta, double radius ) {
+    public long[] getPixelIndices( double alpha, double delta,
+                                   double radius ) {
         double theta = Math.PI * 0.5 - delta;
         alpha = alpha % ( 2 * Math.PI );
         if ( alpha < 0 ) {
@@ -74,15 +75,15 @@ public class JplHealpixSkyPixellator extends HealpixSkyPixellator {
             rset = null;
         }
         if ( rset == null ) {
-            return new Long[ 0 ];
+            return new long[ 0 ];
         }
         else {
             int npix = (int) rset.nval();
-            Long[] pixels = new Long[ npix ];
+            long[] pixels = new long[ npix ];
             int ip = 0;
             for ( RangeSet.ValueIterator vit = rset.valueIterator();
                   vit.hasNext(); ) {
-                pixels[ ip++ ] = new Long( vit.next() );
+                pixels[ ip++ ] = vit.next();
             }
             assert ip == npix;
             return pixels;
@@ -0,0 +1,195 @@
+package uk.ac.starlink.ttools.filter;
+
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import junit.framework.TestCase;
+import uk.ac.starlink.table.ColumnInfo;
+import uk.ac.starlink.table.ColumnStarTable;
+import uk.ac.starlink.table.PrimitiveArrayColumn;
+import uk.ac.starlink.table.RowAccess;
+import uk.ac.starlink.table.RowCollector;
+import uk.ac.starlink.table.RowData;
+import uk.ac.starlink.table.RowRunner;
+import uk.ac.starlink.table.RowSequence;
+import uk.ac.starlink.table.RowSplittable;
+import uk.ac.starlink.table.StarTable;
+import uk.ac.starlink.table.WrapperRowAccess;
+import uk.ac.starlink.table.WrapperRowSequence;
+import uk.ac.starlink.table.WrapperStarTable;
+import uk.ac.starlink.util.SplitPolicy;
+
+public class AddColumnsTableTest extends TestCase {
+
+    public void testCellReuse() throws IOException {
+        int nrow = 50;
+        double[] xs = new double[ nrow ];
+        int[] ks = new int[ nrow ];
+        for ( int i = 0; i < nrow; i++ ) {
+            xs[ i ] = 0.5 * i;
+            ks[ i ] = i % 7;
+        }
+        ColumnStarTable base = ColumnStarTable.makeTableWithRows( nrow );
+        ColumnInfo xInfo = new ColumnInfo( "x", Double.class, null );
+        ColumnInfo kInfo = new ColumnInfo( "k", Integer.class, null );
+        base.addColumn( PrimitiveArrayColumn.makePrimitiveColumn( xInfo, xs ) );
+        base.addColumn( PrimitiveArrayColumn.makePrimitiveColumn( kInfo, ks ) );
+        AtomicLong nread = new AtomicLong();
+        StarTable t = new CountingTable( base, nread );
+
+        /* Chain of added columns, each depending on the base columns
+         * and the previous added column. */
+        int nadd = 10;
+        for ( int ia = 0; ia < nadd; ia++ ) {
+            String expr = ia == 0 ? "x + k"
+                                  : "a" + ( ia - 1 ) + " * 2 + x - x + k - k";
+            ColumnInfo info = new ColumnInfo( "a" + ia );
+            t = new AddColumnsTable( t, new JELColumnSupplement( t, expr,
+                                                                 info ) );
+        }
+        assertEquals( 2 + nadd, t.getColumnCount() );
+
+        RowSequence rseq = t.getRowSequence();
+        for ( int ir = 0; rseq.next(); ir++ ) {
+            Object[] row = rseq.getRow();
+            double v = xs[ ir ] + ks[ ir ];
+            assertEquals( v, ((Number) row[ 2 ]).doubleValue() );
+            for ( int ia = 1; ia < nadd; ia++ ) {
+                v *= 2;
+            }
+            assertEquals( v, ((Number) row[ 1 + nadd ]).doubleValue() );
+            assertEquals( v, ((Number) rseq.getCell( 1 + nadd ))
+                                          .doubleValue() );
+        }
+        rseq.close();
+
+        /* Each base cell is read once per row. */
+        assertEquals( 2 * nrow, nread.get() );
+
+        nread.set( 0 );
+        RowAccess racc = t.getRowAccess();
+        racc.setRowIndex( 3 );
+        assertEquals( ( xs[ 3 ] + ks[ 3 ] ) * ( 1 << ( nadd - 1 ) ),
+                      ((Number) racc.getCell( 1 + nadd )).doubleValue() );
+        racc.getRow();
+        assertEquals( 2, nread.get() );
+        racc.setRowIndex( 4 );
+        assertEquals( ks[ 4 ], ((Number) racc.getCell( 1 )).intValue() );
+        racc.close();
+    }
+
+    public void testParallel() throws IOException {
+        int nrow = 200000;
+        double[] xs = new double[ nrow ];
+        for ( int i = 0; i < nrow; i++ ) {
+            xs[ i ] = i;
+        }
+        ColumnStarTable base = ColumnStarTable.makeTableWithRows( nrow );
+        base.addColumn( PrimitiveArrayColumn
+                       .makePrimitiveColumn( new ColumnInfo( "x", Double.class,
+                                                             null ), xs ) );
+        StarTable t = base;
+        t = new AddColumnsTable( t, new JELColumnSupplement(
+                                        t, "x*2", new ColumnInfo( "y" ) ) );
+        t = new AddColumnsTable( t, new JELColumnSupplement(
+                                        t, "y+1", new ColumnInfo( "z" ) ) );
+        double[] seqSums = new SumCollector().accumulateAll( t );
+        assertEquals( 2.0 * nrow * ( nrow - 1 ) / 2 + nrow, seqSums[ 2 ] );
+
+        /* Splits processed one after another, each using its own
+         * row index. */
+        RowSplittable s1 = t.getRowSplittable();
+        RowSplittable s2 = s1.split();
+        assertNotNull( s2 );
+        SumCollector collector = new SumCollector();
+        double[] splitSums = collector.createAccumulator();
+        collector.accumulate( s1, splitSums );
+        collector.accumulate( s2, splitSums );
+        assertArrayEquals( seqSums, splitSums );
+
+        /* Parallel execution. */
+        ForkJoinPool pool = new ForkJoinPool( 4 );
+        try {
+            RowRunner runner =
+                RowRunner
+               .createStandardRunner( new SplitPolicy( pool, 1000,
+                                                       (short) 0 ) );
+            assertArrayEquals( seqSums,
+                               runner.collect( new SumCollector(), t ) );
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void assertArrayEquals( double[] a1, double[] a2 ) {
+        assertEquals( a1.length, a2.length );
+        for ( int i = 0; i < a1.length; i++ ) {
+            assertEquals( a1[ i ], a2[ i ] );
+        }
+    }
+
+    /**
+     * Sums all the columns of a table.
+     */
+    private static class SumCollector extends RowCollector<double[]> {
+        double[] accumulateAll( StarTable table ) throws IOException {
+            double[] sums = createAccumulator();
+            RowSequence rseq = table.getRowSequence();
+            while ( rseq.next() ) {
+                addRow( rseq, sums );
+            }
+            rseq.close();
+            return sums;
+        }
+        public double[] createAccumulator() {
+            return new double[ 3 ];
+        }
+        public double[] combine( double[] sums1, double[] sums2 ) {
+            for ( int i = 0; i < sums1.length; i++ ) {
+                sums1[ i ] += sums2[ i ];
+            }
+            return sums1;
+        }
+        public void accumulateRows( RowSplittable rseq, double[] sums )
+                throws IOException {
+            while ( rseq.next() ) {
+                addRow( rseq, sums );
+            }
+        }
+        private static void addRow( RowData row, double[] sums )
+                throws IOException {
+            for ( int ic = 0; ic < sums.length; ic++ ) {
+                sums[ ic ] += ((Number) row.getCell( ic )).doubleValue();
+            }
+        }
+    }
+
+    private static class CountingTable extends WrapperStarTable {
+        final AtomicLong nread_;
+        CountingTable( StarTable base, AtomicLong nread ) {
+            super( base );
+            nread_ = nread;
+        }
+        @Override
+        public RowSequence getRowSequence() throws IOException {
+            return new WrapperRowSequence( super.getRowSequence() ) {
+                @Override
+                public Object getCell( int icol ) throws IOException {
+                    nread_.incrementAndGet();
+                    return super.getCell( icol );
+                }
+            };
+        }
+        @Override
+        public RowAccess getRowAccess() throws IOException {
+            return new WrapperRowAccess( super.getRowAccess() ) {
+                @Override
+                public Object getCell( int icol ) throws IOException {
+                    nread_.incrementAndGet();
+                    return super.getCell( icol );
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package uk.ac.starlink.ttools.filter;
+
+import java.util.Random;
+import junit.framework.TestCase;
+
+public class DistinctCounterTest extends TestCase {
+
+    public void testEstimate() {
+        Random rnd = new Random( 2301L );
+        for ( int n : new int[] { 0, 1, 10, 1000, 50000, 2000000 } ) {
+            DistinctCounter counter = new DistinctCounter();
+            for ( int i = 0; i < n; i++ ) {
+                counter.add( Long.valueOf( i ) );
+                if ( rnd.nextInt( 4 ) == 0 ) {
+                    counter.add( Integer.valueOf( rnd.nextInt( i + 1 ) ) );
+                }
+            }
+            long est = counter.getEstimate();
+            double tol = Math.max( 1, 4 * counter.getRelativeError() * n );
+            assertTrue( n + ": " + est, Math.abs( est - n ) <= tol );
+        }
+    }
+
+    public void testMerge() {
+        DistinctCounter c1 = new DistinctCounter( 12 );
+        DistinctCounter c2 = new DistinctCounter( 12 );
+        DistinctCounter call = new DistinctCounter( 12 );
+        for ( int i = 0; i < 100000; i++ ) {
+            String s = "x" + ( i % 30000 );
+            ( i % 3 == 0 ? c1 : c2 ).add( s );
+            call.add( s );
+        }
+        c1.addCounter( c2 );
+        assertEquals( call.getEstimate(), c1.getEstimate() );
+        long est = c1.getEstimate();
+        assertTrue( Math.abs( est - 30000 ) < 30000 * 0.1 );
+        c1.clear();
+        assertEquals( 0, c1.getEstimate() );
+        try {
+            c1.addCounter( new DistinctCounter() );
+            fail();
+        }
+        catch ( IllegalArgumentException e ) {
+        }
+    }
+
+    public void testHash() {
+        assertEquals( DistinctCounter.hash( Integer.valueOf( 99 ) ),
+                      DistinctCounter.hash( Long.valueOf( 99 ) ) );
+        assertEquals( DistinctCounter.hash( new String( "abc" ) ),
+                      DistinctCounter.hash( "abc" ) );
+        assertFalse( DistinctCounter.hash( "abc" )
+                  == DistinctCounter.hash( "abd" ) );
+        assertFalse( DistinctCounter.hash( Long.valueOf( 0 ) ) == 0 );
+    }
+}
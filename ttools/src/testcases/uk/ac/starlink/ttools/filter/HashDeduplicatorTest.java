@@ -0,0 +1,98 @@
+package uk.ac.starlink.ttools.filter;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import junit.framework.TestCase;
+import uk.ac.starlink.table.ColumnInfo;
+import uk.ac.starlink.table.RowListStarTable;
+import uk.ac.starlink.table.RowSequence;
+import uk.ac.starlink.table.StarTable;
+import uk.ac.starlink.table.StoragePolicy;
+
+public class HashDeduplicatorTest extends TestCase {
+
+    public HashDeduplicatorTest( String name ) {
+        super( name );
+        Logger.getLogger( "uk.ac.starlink.ttools.filter" )
+              .setLevel( Level.WARNING );
+    }
+
+    public void testDedup() throws IOException {
+        RowListStarTable table = new RowListStarTable( new ColumnInfo[] {
+            new ColumnInfo( "i", Integer.class, null ),
+            new ColumnInfo( "s", String.class, null ),
+            new ColumnInfo( "d", Double.class, null ),
+        } );
+        Random rnd = new Random( 44L );
+        int nrow = 20000;
+        for ( int ir = 0; ir < nrow; ir++ ) {
+            int k = rnd.nextInt( 3000 );
+            table.addRow( new Object[] {
+                Integer.valueOf( ir ),
+                k % 100 == 0 ? null : "s" + ( k % 700 ),
+                k % 50 == 0 ? Double.valueOf( Double.NaN )
+                            : Double.valueOf( k % 3 ),
+            } );
+        }
+        boolean[] flags = { false, true, true };
+
+        /* Work out the expected result the obvious way. */
+        Map<List<Object>,long[]> expected =
+            new HashMap<List<Object>,long[]>();
+        for ( int ir = 0; ir < nrow; ir++ ) {
+            String s = (String) table.getCell( ir, 1 );
+            Double d = (Double) table.getCell( ir, 2 );
+            List<Object> key =
+                Arrays.asList( new Object[] {
+                    s, d.isNaN() ? null : d,
+                } );
+            long[] fc = expected.get( key );
+            if ( fc == null ) {
+                expected.put( key, new long[] { ir, 1 } );
+            }
+            else {
+                fc[ 1 ]++;
+            }
+        }
+
+        StoragePolicy[] policies = {
+            StoragePolicy.PREFER_MEMORY,
+            StoragePolicy.PREFER_DISK,
+        };
+        for ( StoragePolicy policy : policies ) {
+            for ( int maxMem : new int[] { 1 << 20, 2000, 100 } ) {
+                StarTable result =
+                    new HashDeduplicator( table, flags, policy, maxMem )
+                   .findDistinctRows();
+                assertEquals( expected.size(), result.getRowCount() );
+                long last = -1;
+                long total = 0;
+                try ( RowSequence rseq = result.getRowSequence() ) {
+                    while ( rseq.next() ) {
+                        long irow = ((Long) rseq.getCell( 0 )).longValue();
+                        long count = ((Long) rseq.getCell( 1 )).longValue();
+                        assertTrue( irow > last );
+                        last = irow;
+                        total += count;
+                        String s = (String) table.getCell( irow, 1 );
+                        Double d = (Double) table.getCell( irow, 2 );
+                        long[] fc = expected.get(
+                            Arrays.asList( new Object[] {
+                                s, d.isNaN() ? null : d,
+                            } ) );
+                        assertEquals( fc[ 0 ], irow );
+                        assertEquals( fc[ 1 ], count );
+                    }
+                }
+                assertEquals( nrow, total );
+                result.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package uk.ac.starlink.ttools.filter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import junit.framework.TestCase;
+import uk.ac.starlink.table.ColumnInfo;
+import uk.ac.starlink.table.RangeRestrictable;
+import uk.ac.starlink.table.RowListStarTable;
+import uk.ac.starlink.table.StarTable;
+import uk.ac.starlink.table.WrapperStarTable;
+
+public class RangePushdownTest extends TestCase {
+
+    public RangePushdownTest( String name ) {
+        super( name );
+    }
+
+    public void testSplit() {
+        assertEquals( Arrays.asList( "a > 1", "(b < 2 || c)", "d" ),
+                      RangePushdown.splitConjunction( "a > 1 && "
+                                                    + "(b < 2 || c) && d" ) );
+        assertEquals( Arrays.asList( "s == \"x && y\"" ),
+                      RangePushdown.splitConjunction( "s == \"x && y\"" ) );
+        assertNull( RangePushdown.splitConjunction( "a > 1 || b < 2" ) );
+        assertNull( RangePushdown.splitConjunction( "a > 1 ? b : c" ) );
+        assertNull( RangePushdown.splitConjunction( "(a > 1" ) );
+    }
+
+    public void testRestrict() throws IOException {
+        RecordingTable table = new RecordingTable();
+        assertSame( table, RangePushdown.restrict( table, "s == \"a\"" ) );
+        assertSame( table, RangePushdown.restrict( table, "x > 1 || y < 2" ) );
+        assertTrue( table.ranges_.isEmpty() );
+
+        RangePushdown.restrict( table, "x > 1.5 && Y <= -2e3 && "
+                                     + "(3 < $1) && s == \"b\" && "
+                                     + "x + 1 > 4" );
+        assertEquals( Arrays.asList( "0:1.5:Infinity",
+                                     "1:-Infinity:-2000.0",
+                                     "0:3.0:Infinity" ),
+                      table.ranges_ );
+
+        table.ranges_.clear();
+        RangePushdown.restrict( table, "7 == y && z < 3 && x < $nrow" );
+        assertTrue( table.ranges_.isEmpty() );
+        RangePushdown.restrict( table, "7 == y && z < 3" );
+        assertEquals( Arrays.asList( "1:7.0:7.0" ), table.ranges_ );
+    }
+
+    /**
+     * Table which records range restrictions without applying them.
+     */
+    private static class RecordingTable extends WrapperStarTable
+                                        implements RangeRestrictable {
+        final List<String> ranges_;
+        RecordingTable() {
+            super( new RowListStarTable( new ColumnInfo[] {
+                new ColumnInfo( "x", Double.class, null ),
+                new ColumnInfo( "y", Integer.class, null ),
+                new ColumnInfo( "s", String.class, null ),
+            } ) );
+            ranges_ = new ArrayList<String>();
+        }
+        public StarTable restrictRange( int icol, double lo, double hi ) {
+            ranges_.add( icol + ":" + lo + ":" + hi );
+            return this;
+        }
+    }
+}
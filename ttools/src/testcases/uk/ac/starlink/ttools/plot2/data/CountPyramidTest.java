@@ -0,0 +1,154 @@
+package uk.ac.starlink.ttools.plot2.data;
+
+import java.util.Random;
+import java.util.function.Supplier;
+import uk.ac.starlink.ttools.plot2.CdsHealpixUtil;
+import uk.ac.starlink.ttools.plot2.CoordSequence;
+import uk.ac.starlink.ttools.plot2.SplitRunner;
+import uk.ac.starlink.util.TestCase;
+
+public class CountPyramidTest extends TestCase {
+
+    private final SplitRunner<CoordSequence> runner_ =
+        TupleRunner.DEFAULT.coordRunner();
+
+    public void testPlane() {
+        Random rnd = new Random( 2301 );
+        int np = 20000;
+        double[][] points = new double[ np + 1 ][];
+        for ( int i = 0; i < np; i++ ) {
+            points[ i ] = new double[] { 10 + 5 * rnd.nextGaussian(),
+                                         -3 + rnd.nextDouble() };
+        }
+        points[ np ] = new double[] { Double.NaN, 0 };
+        PlaneCountPyramid pyramid =
+            PlaneCountPyramid.createPyramid( supplier( points ), runner_, 6 );
+        assertEquals( np, pyramid.getPointCount() );
+        assertEquals( 6, pyramid.getMaxLevel() );
+        assertEquals( 1, pyramid.getCellCount( 0 ) );
+        assertEquals( np, pyramid.getCellPoints( 0, 0 ) );
+        checkLevels( pyramid );
+
+        /* Each cell center lies within the data bounds, and each point
+         * is counted in the finest cell containing it. */
+        double[] bounds = pyramid.getBounds();
+        int level = pyramid.getMaxLevel();
+        double xsize = ( bounds[ 1 ] - bounds[ 0 ] ) / ( 1 << level );
+        double ysize = ( bounds[ 3 ] - bounds[ 2 ] ) / ( 1 << level );
+        double[] dpos = new double[ 2 ];
+        int ntot = 0;
+        for ( int ic = 0; ic < pyramid.getCellCount( level ); ic++ ) {
+            pyramid.getCellCenter( level, pyramid.getCellKey( level, ic ),
+                                   dpos );
+            int nin = 0;
+            for ( int ip = 0; ip < np; ip++ ) {
+                if ( Math.abs( points[ ip ][ 0 ] - dpos[ 0 ] )
+                     <= 0.5 * xsize * 1.000001 &&
+                     Math.abs( points[ ip ][ 1 ] - dpos[ 1 ] )
+                     <= 0.5 * ysize * 1.000001 ) {
+                    nin++;
+                }
+            }
+            assertTrue( nin >= pyramid.getCellPoints( level, ic ) );
+            ntot += pyramid.getCellPoints( level, ic );
+        }
+        assertEquals( np, ntot );
+
+        assertEquals( 0, pyramid.getLevel( bounds[ 1 ] - bounds[ 0 ],
+                                           bounds[ 3 ] - bounds[ 2 ] ) );
+        assertEquals( 2, pyramid.getLevel( 0.25 * ( bounds[ 1 ] - bounds[ 0 ] ),
+                                           1e10 ) );
+        assertEquals( -1, pyramid.getLevel( xsize * 0.5, 1e10 ) );
+    }
+
+    public void testSky() {
+        Random rnd = new Random( 881 );
+        int np = 5000;
+        double[][] points = new double[ np ][];
+        for ( int i = 0; i < np; i++ ) {
+            double lon = rnd.nextDouble() * 2 * Math.PI;
+            double lat = Math.asin( 2 * rnd.nextDouble() - 1 );
+            double[] xyz = new double[ 3 ];
+            CdsHealpixUtil.lonlatToVector( lon, lat, xyz );
+            points[ i ] = xyz;
+        }
+        SkyCountPyramid pyramid =
+            SkyCountPyramid.createPyramid( supplier( points ), runner_, 4 );
+        assertEquals( np, pyramid.getPointCount() );
+        assertEquals( 12, pyramid.getCellCount( 0 ) );
+        checkLevels( pyramid );
+        double[] dpos = new double[ 3 ];
+        pyramid.getCellCenter( 3, pyramid.getCellKey( 3, 0 ), dpos );
+        assertEquals( 1.0, dpos[ 0 ] * dpos[ 0 ] + dpos[ 1 ] * dpos[ 1 ]
+                                                 + dpos[ 2 ] * dpos[ 2 ],
+                      1e-10 );
+        assertEquals( 0, pyramid.getLevel( 4 * Math.PI / 12 ) );
+        assertEquals( 1, pyramid.getLevel( 4 * Math.PI / 12 * 0.3 ) );
+        assertEquals( -1, pyramid.getLevel( 1e-8 ) );
+    }
+
+    private void checkLevels( CountPyramid pyramid ) {
+        for ( int level = 0; level <= pyramid.getMaxLevel(); level++ ) {
+            long n = 0;
+            int lastKey = -1;
+            for ( int ic = 0; ic < pyramid.getCellCount( level ); ic++ ) {
+                int key = pyramid.getCellKey( level, ic );
+                assertTrue( key > lastKey );
+                lastKey = key;
+                assertTrue( pyramid.getCellPoints( level, ic ) > 0 );
+                n += pyramid.getCellPoints( level, ic );
+            }
+            assertEquals( pyramid.getPointCount(), n );
+        }
+    }
+
+    private static Supplier<CoordSequence> supplier( double[][] points ) {
+        return () -> new ArrayCoordSequence( points, 0, points.length );
+    }
+
+    private static class ArrayCoordSequence implements CoordSequence {
+        final double[][] points_;
+        final double[] coords_;
+        int ip_;
+        int end_;
+
+        ArrayCoordSequence( double[][] points, int start, int end ) {
+            points_ = points;
+            coords_ = new double[ points[ 0 ].length ];
+            ip_ = start - 1;
+            end_ = end;
+        }
+
+        public double[] getCoords() {
+            return coords_;
+        }
+
+        public boolean next() {
+            if ( ++ip_ < end_ ) {
+                System.arraycopy( points_[ ip_ ], 0, coords_, 0,
+                                  coords_.length );
+                return true;
+            }
+            else {
+                return false;
+            }
+        }
+
+        public CoordSequence split() {
+            int start = ip_ + 1;
+            int n = end_ - start;
+            if ( n < 2 ) {
+                return null;
+            }
+            int mid = start + n / 2;
+            CoordSequence other =
+                new ArrayCoordSequence( points_, start, mid );
+            ip_ = mid - 1;
+            return other;
+        }
+
+        public long splittableSize() {
+            return end_ - ip_ - 1;
+        }
+    }
+}
@@ -104,6 +104,10 @@ public class CombinerTest extends TestCase {
         BinList abins = combiner.createArrayBinList( nbin );
         BinList hbins = new HashBinList( nbin, combiner );
         AdaptiveBinList dbins = new AdaptiveBinList( nbin, combiner, 2 );
+        BinList pbins = combiner.createPrimitiveHashBinList( nbin );
+        if ( pbins == null ) {
+            pbins = new HashBinList( nbin, combiner );
+        }
         assertTrue( dbins.isHash() );
         for ( int is = 0; is < nsamp; is++ ) {
             int ibin = random_.nextInt( nbin );
@@ -112,6 +116,7 @@ public class CombinerTest extends TestCase {
                 abins.submitToBin( ibin, datum );
                 hbins.submitToBin( ibin, datum );
                 dbins.submitToBin( ibin, datum );
+                pbins.submitToBin( ibin, datum );
                 mask.set( ibin );
             }
         }
@@ -128,6 +133,8 @@ public class CombinerTest extends TestCase {
         BinList.Result hcResult = hResult.compact();
         BinList.Result dResult = dbins.getResult();
         BinList.Result dcResult = dbins.getResult();
+        BinList.Result pResult = pbins.getResult();
+        BinList.Result pcResult = pResult.compact();
         for ( int ib = 0; ib < nbin; ib++ ) {
             double value = aResult.getBinValue( ib );
             assertEquals( value, hResult.getBinValue( ib ) );
@@ -135,6 +142,8 @@ public class CombinerTest extends TestCase {
             assertEquals( value, acResult.getBinValue( ib ) );
             assertEquals( value, hcResult.getBinValue( ib ) );
             assertEquals( value, dcResult.getBinValue( ib ) );
+            assertEquals( value, pResult.getBinValue( ib ) );
+            assertEquals( value, pcResult.getBinValue( ib ) );
             if ( skipBin( nbin, ib ) ) {
                 nskip++;
                 assertTrue( Double.isNaN( value ) );
@@ -147,6 +156,53 @@ public class CombinerTest extends TestCase {
         assertEquals( nOc, countOccupiedBins( hcResult, nbin ) );
         assertEquals( nOc, countOccupiedBins( dResult, nbin ) );
         assertEquals( nOc, countOccupiedBins( dcResult, nbin ) );
+        assertEquals( nOc, countOccupiedBins( pResult, nbin ) );
+        assertEquals( nOc, countOccupiedBins( pcResult, nbin ) );
+    }
+
+    public void testMerge() {
+        for ( Combiner combiner : combiners_ ) {
+            if ( combiner.createPrimitiveHashBinList( 10 ) != null ) {
+                exerciseMerge( combiner, 3000000000L, 100000, 20000 );
+                exerciseMerge( combiner, 1200000, 400000, 250000 );
+            }
+        }
+    }
+
+    private void exerciseMerge( Combiner combiner, long nbin, int nrange,
+                                int nsamp ) {
+        BinList ref = new HashBinList( nbin, combiner );
+        BinList[] parts = new BinList[ 3 ];
+        for ( int ip = 0; ip < parts.length; ip++ ) {
+            parts[ ip ] =
+                BinListCollector.createDefaultBinList( combiner, nbin );
+        }
+        assertTrue( parts[ 0 ] instanceof PrimitiveHashBinList ||
+                    parts[ 0 ] instanceof AdaptiveBinList );
+        for ( int is = 0; is < nsamp; is++ ) {
+            long ibin = ( nbin / nrange ) * random_.nextInt( nrange );
+            double datum = random_.nextDouble() * 10 - 1;
+            ref.submitToBin( ibin, datum );
+
+            /* Put most of the data in the first part, so that for
+             * adaptive lists it switches to an array and the others
+             * stay as hashes. */
+            parts[ is % 8 == 0 ? 1 + ( is / 8 ) % 2 : 0 ]
+                .submitToBin( ibin, datum );
+        }
+        BinList merged =
+            BinListCollector
+           .mergeBinLists( parts[ 2 ],
+                           BinListCollector.mergeBinLists( parts[ 0 ],
+                                                           parts[ 1 ] ) );
+        BinList.Result refResult = ref.getResult();
+        BinList.Result mResult = merged.getResult();
+        assertEquals( refResult.getBinCount(), mResult.getBinCount() );
+        for ( Iterator<Long> it = refResult.indexIterator(); it.hasNext(); ) {
+            long ibin = it.next().longValue();
+            assertEquals( refResult.getBinValue( ibin ),
+                          mResult.getBinValue( ibin ), 1e-8 );
+        }
     }
 
     private static boolean skipBin( int nbin, int ibin ) {
@@ -0,0 +1,72 @@
+package uk.ac.starlink.ttools.plot2.paper;
+
+import java.awt.Color;
+import java.awt.Rectangle;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+import junit.framework.TestCase;
+import uk.ac.starlink.ttools.plot2.Glyph;
+import uk.ac.starlink.ttools.plot2.layer.XYShape;
+import uk.ac.starlink.ttools.plot2.layer.XYShapes;
+
+public class TiledPaperTest extends TestCase {
+
+    private static final int NPOINT = 20000;
+
+    public TiledPaperTest( String name ) {
+        super( name );
+    }
+
+    public void testComposite() {
+        Compositor[] compositors = new Compositor[] {
+            Compositor.SATURATION,
+            new Compositor.BoostCompositor( 0.1f ),
+        };
+        Rectangle bounds = new Rectangle( 10, 20, 200, 150 );
+        for ( Compositor compos : compositors ) {
+            CompositePaperType2D ptype = new CompositePaperType2D( compos );
+            int[] seqRgbs = paint( ptype, bounds, 1 );
+            assertTrue( seqRgbs[ 0 ] != seqRgbs[ seqRgbs.length / 2 ] );
+            for ( int ntile : new int[] { 2, 3, 7, 1000 } ) {
+                assertTrue( Arrays.equals( seqRgbs,
+                                           paint( ptype, bounds, ntile ) ) );
+            }
+        }
+    }
+
+    private static int[] paint( CompositePaperType2D ptype, Rectangle bounds,
+                                int ntile ) {
+        RgbPaperType.RgbPaper paper = ptype.createPaper2D( bounds );
+        final Paper[] tiles;
+        if ( ntile > 1 ) {
+            tiles = ((TiledPaper) paper).createTiles( ntile );
+            assertEquals( Math.min( ntile, bounds.height ), tiles.length );
+        }
+        else {
+            tiles = new Paper[] { paper };
+        }
+        IntStream.range( 0, tiles.length ).parallel().forEach( it -> {
+            Random rnd = new Random( 2301L );
+            XYShape[] shapes = XYShapes.getXYShapes();
+            Color[] colors = {
+                new Color( 1f, 0f, 0f, 0.1f ),
+                new Color( 0f, 0.5f, 1f, 0.3f ),
+                new Color( 0.2f, 0.2f, 0.2f, 0.05f ),
+            };
+            for ( int ip = 0; ip < NPOINT; ip++ ) {
+                double x = bounds.x + rnd.nextGaussian() * 40 + 100;
+                double y = bounds.y + rnd.nextGaussian() * 30 + 75;
+                XYShape shape = shapes[ rnd.nextInt( shapes.length ) ];
+                short sz = (short) rnd.nextInt( 6 );
+                Glyph glyph = shape.getGlyph( sz, sz );
+                Color color = colors[ rnd.nextInt( colors.length ) ];
+                if ( bounds.contains( x, y ) ) {
+                    ptype.placeGlyph( tiles[ it ], x, y, glyph, color );
+                }
+            }
+        } );
+        paper.flush();
+        return paper.getRgbImage().getBuffer().clone();
+    }
+}
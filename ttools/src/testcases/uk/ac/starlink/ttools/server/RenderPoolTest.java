@@ -0,0 +1,129 @@
+package uk.ac.starlink.ttools.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import junit.framework.TestCase;
+
+public class RenderPoolTest extends TestCase {
+
+    public RenderPoolTest( String name ) {
+        super( name );
+    }
+
+    public void testCoalesce() throws Exception {
+        final RenderPool pool = new RenderPool( 2, 4, 1000 );
+        final CountDownLatch gate = new CountDownLatch( 1 );
+        final AtomicInteger nrender = new AtomicInteger();
+        final Callable<byte[]> renderer = () -> {
+            nrender.incrementAndGet();
+            gate.await();
+            return new byte[] { 1, 2, 3 };
+        };
+        int nreq = 6;
+        ExecutorService clients = Executors.newFixedThreadPool( nreq );
+        List<Future<byte[]>> results = new ArrayList<>();
+        for ( int i = 0; i < nreq; i++ ) {
+            results.add( clients.submit( () ->
+                                         pool.getImage( "a", renderer ) ) );
+        }
+        while ( pool.getMetrics().get( "coalesced" ).intValue()
+                < nreq - 1 ) {
+            Thread.sleep( 10 );
+        }
+        gate.countDown();
+        for ( Future<byte[]> result : results ) {
+            assertEquals( 3, result.get().length );
+        }
+        clients.shutdown();
+        assertEquals( 1, nrender.get() );
+
+        /* Subsequent request comes from the cache. */
+        pool.getImage( "a", renderer );
+        assertEquals( 1, nrender.get() );
+        Map<String,Number> metrics = pool.getMetrics();
+        assertEquals( 1, metrics.get( "cacheHits" ).intValue() );
+        assertEquals( 1, metrics.get( "renders" ).intValue() );
+        pool.shutdown();
+    }
+
+    public void testEviction() throws Exception {
+        RenderPool pool = new RenderPool( 1, 1, 250 );
+        final AtomicInteger nrender = new AtomicInteger();
+        Callable<byte[]> renderer = () -> {
+            nrender.incrementAndGet();
+            return new byte[ 100 ];
+        };
+        pool.getImage( "a", renderer );
+        pool.getImage( "b", renderer );
+        pool.getImage( "a", renderer );
+        assertEquals( 2, nrender.get() );
+
+        /* Adding c evicts the least recently used entry, b. */
+        pool.getImage( "c", renderer );
+        assertEquals( 3, nrender.get() );
+        pool.getImage( "a", renderer );
+        assertEquals( 3, nrender.get() );
+        pool.getImage( "b", renderer );
+        assertEquals( 4, nrender.get() );
+        Map<String,Number> metrics = pool.getMetrics();
+        assertEquals( 200, metrics.get( "cacheBytes" ).intValue() );
+        assertEquals( 2, metrics.get( "cacheEvictions" ).intValue() );
+
+        /* Failures are reported and not cached. */
+        Callable<byte[]> failer = () -> {
+            throw new IllegalStateException( "no" );
+        };
+        for ( int i = 0; i < 2; i++ ) {
+            try {
+                pool.getImage( "d", failer );
+                fail();
+            }
+            catch ( IllegalStateException e ) {
+            }
+        }
+        assertEquals( 2, pool.getMetrics().get( "renderFailures" )
+                             .intValue() );
+        pool.shutdown();
+    }
+
+    public void testReject() throws Exception {
+        final RenderPool pool = new RenderPool( 1, 1, 1000 );
+        final CountDownLatch gate = new CountDownLatch( 1 );
+        final Callable<byte[]> renderer = () -> {
+            gate.await();
+            return new byte[ 1 ];
+        };
+        ExecutorService clients = Executors.newFixedThreadPool( 2 );
+        Future<byte[]> f1 =
+            clients.submit( () -> pool.getImage( "a", renderer ) );
+        while ( pool.getMetrics().get( "activeRenders" ).intValue() < 1 ) {
+            Thread.sleep( 10 );
+        }
+        Future<byte[]> f2 =
+            clients.submit( () -> pool.getImage( "b", renderer ) );
+        while ( pool.getMetrics().get( "queueDepth" ).intValue() < 1 ) {
+            Thread.sleep( 10 );
+        }
+        try {
+            pool.getImage( "c", renderer );
+            fail();
+        }
+        catch ( RejectedExecutionException e ) {
+            assertEquals( 1, pool.getMetrics().get( "rejected" ).intValue() );
+        }
+        gate.countDown();
+        assertEquals( 1, f1.get().length );
+        assertEquals( 1, f2.get().length );
+        assertEquals( 1, pool.getImage( "c", renderer ).length );
+        clients.shutdown();
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,186 @@
+package uk.ac.starlink.ttools.task;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import uk.ac.starlink.table.ColumnInfo;
+import uk.ac.starlink.table.RowListStarTable;
+import uk.ac.starlink.table.RowSequence;
+import uk.ac.starlink.table.RowSplittable;
+import uk.ac.starlink.table.StarTable;
+import uk.ac.starlink.table.Tables;
+import uk.ac.starlink.table.WrapperStarTable;
+import uk.ac.starlink.ttools.TableTestCase;
+import uk.ac.starlink.ttools.plot2.data.DiskCache;
+
+public class PersistentColumnCacheTest extends TableTestCase {
+
+    public PersistentColumnCacheTest( String name ) {
+        super( name );
+        Logger.getLogger( "uk.ac.starlink.ttools" ).setLevel( Level.SEVERE );
+    }
+
+    public void testCache() throws IOException {
+        File dir = Files.createTempDirectory( "colcache" ).toFile();
+        File srcFile = File.createTempFile( "src", ".dat" );
+        srcFile.deleteOnExit();
+        try {
+            PersistentColumnCache colCache =
+                new PersistentColumnCache(
+                    new DiskCache( new File( dir, "cols" ), 1L << 30 ) );
+            exerciseCache( colCache, createTable( 3000, true ), srcFile );
+            exerciseCache( colCache, createTable( 2500, false ), srcFile );
+        }
+        finally {
+            for ( File f : new File( dir, "cols" ).listFiles() ) {
+                f.delete();
+            }
+            new File( dir, "cols" ).delete();
+            dir.delete();
+        }
+    }
+
+    private void exerciseCache( PersistentColumnCache colCache,
+                                RowListStarTable data, File srcFile )
+            throws IOException {
+        CountTable base = new CountTable( data );
+        boolean allCached = data.getColumnCount() == 7;
+
+        /* First use reads the base table, and writes the cache
+         * only once a sequential scan has been completed. */
+        StarTable t1 = colCache.wrapTable( base, srcFile, null );
+        assertNotSame( base, t1 );
+        assertEquals( 0, base.nseq_ );
+        assertFalse( t1.isRandom() );
+        RowSequence rseq = t1.getRowSequence();
+        assertTrue( rseq.next() );
+        rseq.close();
+        assertEquals( 0, countColumnFiles( colCache ) );
+        assertSameData( data, t1 );
+        assertEquals( 7, countColumnFiles( colCache ) );
+        assertSameData( data, t1 );
+        assertTrue( base.nseq_ > 0 );
+
+        /* Second use does not need to read the base table
+         * for cached columns. */
+        base.nseq_ = 0;
+        StarTable t2 = colCache.wrapTable( base, srcFile, null );
+        assertEquals( 0, base.nseq_ );
+        for ( int ir = 0; ir < data.getRowCount(); ir += 97 ) {
+            for ( int ic = 0; ic < 7; ic++ ) {
+                assertEquals( data.getCell( ir, ic ), t2.getCell( ir, ic ) );
+            }
+        }
+        assertEquals( allCached, t2.isRandom() );
+        assertSameData( data, t2 );
+        checkSplit( data, t2 );
+        if ( allCached ) {
+            Tables.checkTable( t2 );
+            assertEquals( 0, base.nseq_ );
+        }
+
+        /* Changing the source file invalidates the entry. */
+        assertTrue( srcFile.setLastModified( srcFile.lastModified()
+                                           - 10000 ) );
+        base.nseq_ = 0;
+        StarTable t3 = colCache.wrapTable( base, srcFile, null );
+        assertEquals( 0, base.nseq_ );
+        assertSameData( data, t3 );
+        assertTrue( base.nseq_ > 0 );
+        assertEquals( 14, countColumnFiles( colCache ) );
+        for ( File f : colCache.getDiskCache().getDir().listFiles() ) {
+            f.delete();
+        }
+    }
+
+    private static int countColumnFiles( PersistentColumnCache colCache ) {
+        int n = 0;
+        for ( File f : colCache.getDiskCache().getDir().listFiles() ) {
+            if ( f.getName().endsWith( ".col" ) ) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    private void checkSplit( StarTable expected, StarTable table )
+            throws IOException {
+        if ( ! table.isRandom() ) {
+            return;
+        }
+        RowSplittable split = table.getRowSplittable();
+        RowSplittable split2 = split.split();
+        assertNotNull( split2 );
+        long nr = 0;
+        for ( RowSplittable s : new RowSplittable[] { split2, split } ) {
+            while ( s.next() ) {
+                long ir = s.rowIndex().getAsLong();
+                assertArrayEquals( expected.getRow( ir ), s.getRow() );
+                assertEquals( ((Number) expected.getCell( ir, 0 ))
+                             .doubleValue(), s.getDouble( 0 ), 0 );
+                nr++;
+            }
+            s.close();
+        }
+        assertEquals( expected.getRowCount(), nr );
+    }
+
+    private static RowListStarTable createTable( int nrow,
+                                                 boolean hasString ) {
+        ColumnInfo[] infos = {
+            new ColumnInfo( "d", Double.class, null ),
+            new ColumnInfo( "f", Float.class, null ),
+            new ColumnInfo( "l", Long.class, null ),
+            new ColumnInfo( "i", Integer.class, null ),
+            new ColumnInfo( "s", Short.class, null ),
+            new ColumnInfo( "b", Byte.class, null ),
+            new ColumnInfo( "z", Boolean.class, null ),
+            new ColumnInfo( "t", String.class, null ),
+        };
+        int ncol = hasString ? infos.length : infos.length - 1;
+        ColumnInfo[] cinfos = new ColumnInfo[ ncol ];
+        System.arraycopy( infos, 0, cinfos, 0, ncol );
+        RowListStarTable table = new RowListStarTable( cinfos );
+        Random rnd = new Random( nrow );
+        for ( int ir = 0; ir < nrow; ir++ ) {
+            boolean blank = rnd.nextInt( 10 ) == 0;
+            Object[] row = {
+                Double.valueOf( blank ? Double.NaN : rnd.nextGaussian() ),
+                blank ? null : Float.valueOf( rnd.nextFloat() ),
+                blank ? null : Long.valueOf( rnd.nextLong() ),
+                blank ? null : Integer.valueOf( rnd.nextInt() ),
+                blank ? null : Short.valueOf( (short) ir ),
+                blank ? null : Byte.valueOf( (byte) ir ),
+                blank ? null : Boolean.valueOf( rnd.nextBoolean() ),
+                "r" + ir,
+            };
+            Object[] trow = new Object[ ncol ];
+            System.arraycopy( row, 0, trow, 0, ncol );
+            table.addRow( trow );
+        }
+        return table;
+    }
+
+    /**
+     * Sequential-only table which counts the row sequences
+     * taken out on it.
+     */
+    private static class CountTable extends WrapperStarTable {
+        int nseq_;
+        CountTable( StarTable base ) {
+            super( base );
+        }
+        @Override
+        public boolean isRandom() {
+            return false;
+        }
+        @Override
+        public RowSequence getRowSequence() throws IOException {
+            nseq_++;
+            return super.getRowSequence();
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package uk.ac.starlink.ttools.task;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import uk.ac.starlink.table.ColumnData;
@@ -161,6 +165,59 @@ public class TableMatch2Test extends TableTestCase {
         assertEquals( 3, joinABcount( t1_, t22, "1and2", "best", 2000 ) );
     }
 
+    public void testRunner() throws Exception {
+        String[] finds = new String[] { "all", "best", "best1", "best2" };
+        for ( String find : finds ) {
+            StarTable tSeq = runnerJoin( "sequential", find );
+            StarTable tPar = runnerJoin( "parallel", find );
+            assertEquals( tSeq.getRowCount(), tPar.getRowCount() );
+            for ( long ir = 0; ir < tSeq.getRowCount(); ir++ ) {
+                assertArrayEquals( tSeq.getRow( ir ), tPar.getRow( ir ) );
+            }
+        }
+    }
+
+    public void testLinkStore() throws Exception {
+        String[] finds = new String[] { "all", "best", "best1", "best2" };
+        for ( String find : finds ) {
+            StarTable tHeap = runnerJoin( "parallel", find );
+            StarTable tStore = runnerJoin( "parallel", find, "true" );
+            assertEquals( getRowStrings( tHeap ), getRowStrings( tStore ) );
+        }
+    }
+
+    private static Set<String> getRowStrings( StarTable table )
+            throws IOException {
+        Set<String> rows = new TreeSet<String>();
+        for ( long ir = 0; ir < table.getRowCount(); ir++ ) {
+            assertTrue( rows.add( Arrays.toString( table.getRow( ir ) ) ) );
+        }
+        return rows;
+    }
+
+    private StarTable runnerJoin( String runner, String find )
+            throws Exception {
+        return runnerJoin( runner, find, "false" );
+    }
+
+    private StarTable runnerJoin( String runner, String find,
+                                  String linkstore )
+            throws Exception {
+        MapEnvironment env = new MapEnvironment()
+                            .setValue( "in1", t1_ )
+                            .setValue( "in2", t2_ )
+                            .setValue( "matcher", "2d" )
+                            .setValue( "values1", "X Y" )
+                            .setValue( "values2", "X Y" )
+                            .setValue( "params", "2000" )
+                            .setValue( "join", "1or2" )
+                            .setValue( "find", find )
+                            .setValue( "runner", runner )
+                            .setValue( "linkstore", linkstore );
+        new TableMatch2().createExecutable( env ).execute();
+        return Tables.randomTable( env.getOutputTable( "omode" ) );
+    }
+
     public void testNot() throws Exception {
         StarTable tNot = join12( "1not2", "best", 1.0 );
         assertArrayEquals( new double[] { 659.68, 1046.874, 17.2 },
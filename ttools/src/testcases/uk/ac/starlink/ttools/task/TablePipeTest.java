@@ -19,6 +19,7 @@ import uk.ac.starlink.table.ColumnInfo;
 import uk.ac.starlink.table.DefaultValueInfo;
 import uk.ac.starlink.table.DescribedValue;
 import uk.ac.starlink.table.StarTable;
+import uk.ac.starlink.table.StarTableFactory;
 import uk.ac.starlink.table.Tables;
 import uk.ac.starlink.task.TaskException;
 import uk.ac.starlink.ttools.TableTestCase;
@@ -742,6 +743,30 @@ public class TablePipeTest extends TableTestCase {
     public void testSortHead() throws Exception {
         workSortHead( inTable_, "", "d" );
         workSortHead( inTable_, "-down", "a b" );
+
+        StarTable big = process( new StarTableFactory()
+                                .makeStarTable( ":loop:40000" ),
+                                 "addcol k '$0%97==0 ? NaN : ($0*7919)%500';"
+                               + "addcol s '\"s\"+($0%13)'" );
+        String[] flagSets = { "", "-down", "-nullsfirst", "-down -nullsfirst" };
+        for ( String flags : flagSets ) {
+            for ( String keys : new String[] { "k", "s k", "s" } ) {
+                StarTable sorted =
+                    process( big, "sort " + flags + " '" + keys + "'" );
+                for ( int n : new int[] { 1, 37, 1000 } ) {
+                    for ( String par : new String[] { "-parallel",
+                                                      "-noparallel" } ) {
+                        String hcmd = "sorthead " + par + " " + flags + " "
+                                    + n + " '" + keys + "'";
+                        assertSameData( process( sorted, "head " + n ),
+                                        process( big, hcmd ) );
+                        assertSameData( process( sorted, "tail " + n ),
+                                        process( big, "sorthead -tail "
+                                                    + hcmd.substring( 9 ) ) );
+                    }
+                }
+            }
+        }
     }
 
     private void workSortHead( StarTable table, String flags, String keys )
@@ -877,6 +902,34 @@ public class TablePipeTest extends TableTestCase {
         assertArrayEquals(
             new String[] { "DupCount", "a", "b", "c", "d" },
             getColNames( apply( "uniq -count" ) ) );
+
+        StarTable loop = process( new StarTableFactory()
+                                 .makeStarTable( ":loop:1000" ),
+                                  "addcol k 'i%7'" );
+        assertEquals( 1000L, Tables.randomTable( process( loop, "uniq k" ) )
+                            .getRowCount() );
+        StarTable guniq = process( loop, "uniq -global -count k" );
+        assertArrayEquals( box( new int[] { 0, 1, 2, 3, 4, 5, 6 } ),
+                           getColData( guniq, 1 ) );
+        assertArrayEquals( box( new int[] { 143, 143, 143, 143, 143, 143,
+                                            142 } ),
+                           getColData( guniq, 0 ) );
+        assertSameData( inTable_, apply( "uniq -global" ) );
+    }
+
+    public void testCardinality() throws Exception {
+        StarTable stats =
+            process( new StarTableFactory().makeStarTable( ":loop:5000" ),
+                     "addcol k 'i%70'; addcol s 'concat(\"x\", i%1000)';"
+                   + "stats Cardinality ApproxCardinality" );
+        Object[] cards = getColData( stats, 0 );
+        Object[] approxes = getColData( stats, 1 );
+        assertNull( cards[ 0 ] );
+        assertEquals( Integer.valueOf( 70 ), cards[ 1 ] );
+        assertNull( cards[ 2 ] );
+        assertEquals( 5000, ((Long) approxes[ 0 ]).doubleValue(), 100 );
+        assertEquals( Long.valueOf( 70 ), approxes[ 1 ] );
+        assertEquals( 1000, ((Long) approxes[ 2 ]).doubleValue(), 20 );
     }
 
 }
@@ -13,6 +13,21 @@ public class SplitPolicy {
     private final ForkJoinPool fjPool_;
     private final int minTaskSize_;
     private final short maxTasksPerCore_;
+    private final SplitStats stats_;
+
+    /**
+     * Name of system property that may be used to override the
+     * default minimum subtask size ({@value}).
+     */
+    public static final String MIN_TASK_SIZE_PROPERTY =
+        "startable.mintasksize";
+
+    /**
+     * Name of system property that may be used to override the
+     * default maximum average number of subtasks per core ({@value}).
+     */
+    public static final String MAX_TASKS_PER_CORE_PROPERTY =
+        "startable.maxtaskspercore";
 
     /**
      * Default value for minimum subtask size.
@@ -31,7 +46,14 @@ public class SplitPolicy {
      */
     public static final short DFLT_MAX_TASKS_PER_CORE = 8;
 
-    /** Default splitting policy. */
+    /**
+     * Default splitting policy.
+     * This uses the default pool as determined at execution time
+     * by {@link SplitPools#getDefaultPool}, and default values for
+     * the other configuration items, which may be overridden by the
+     * system properties {@value #MIN_TASK_SIZE_PROPERTY} and
+     * {@value #MAX_TASKS_PER_CORE_PROPERTY}.
+     */
     public static final SplitPolicy DFLT_POLICY = new SplitPolicy();
 
     /**
@@ -45,32 +67,61 @@ public class SplitPolicy {
      * Constructs a policy with supplied configuration options.
      *
      * @param  fjPool  fork/join pool for execution,
-     *               or null to use the common pol
+     *               or null to use the default pool
+     *               ({@link SplitPools#getDefaultPool})
      * @param  minTaskSize  smallest acceptable size of sub-task
      *                      to split tasks into, or non-positive value
-     *                      for default ({@link #DFLT_MIN_TASK_SIZE})
+     *                      for default ({@link #DFLT_MIN_TASK_SIZE},
+     *                      unless overridden by system property)
      * @param  maxTasksPerCore  maximum number of tasks (on average)
      *                          to be executed on each core as a result
      *                          of decomposition, or zero for no limit,
      *                          or negative value for default limit
-     *                          ({@link #DFLT_MAX_TASKS_PER_CORE})
+     *                          ({@link #DFLT_MAX_TASKS_PER_CORE},
+     *                          unless overridden by system property)
      */
     public SplitPolicy( ForkJoinPool fjPool, int minTaskSize,
                         short maxTasksPerCore ) {
-        fjPool_ = fjPool == null ? ForkJoinPool.commonPool() : fjPool;
-        minTaskSize_ = minTaskSize > 0 ? minTaskSize
-                                       : DFLT_MIN_TASK_SIZE;
-        maxTasksPerCore_ = maxTasksPerCore >= 0 ? maxTasksPerCore
-                                                : DFLT_MAX_TASKS_PER_CORE;
+        fjPool_ = fjPool;
+        minTaskSize_ =
+              minTaskSize > 0
+            ? minTaskSize
+            : Math.max( 1, SplitPools
+                          .getIntProperty( MIN_TASK_SIZE_PROPERTY,
+                                           DFLT_MIN_TASK_SIZE ) );
+        maxTasksPerCore_ =
+              maxTasksPerCore >= 0
+            ? maxTasksPerCore
+            : (short) Math.max( 0, Math.min( Short.MAX_VALUE, SplitPools
+                          .getIntProperty( MAX_TASKS_PER_CORE_PROPERTY,
+                                           DFLT_MAX_TASKS_PER_CORE ) ) );
+        stats_ = new SplitStats();
+    }
+
+    /**
+     * Constructs a policy with default configuration that executes
+     * in a named pool with given parallelism.
+     * The pool is acquired from {@link SplitPools#getPool}.
+     *
+     * @param  poolName  pool name
+     * @param  parallelism   pool parallelism
+     * @return  new policy
+     */
+    public static SplitPolicy createPoolPolicy( String poolName,
+                                                int parallelism ) {
+        return new SplitPolicy( SplitPools.getPool( poolName, parallelism ),
+                                0, (short) -1 );
     }
 
     /**
      * Returns the ForkJoinPool used by this policy.
+     * If no pool was specified at construction time, this is the
+     * default pool current at the time of the call.
      *
      * @return  forkjoinpool
      */
     public ForkJoinPool getForkJoinPool() {
-        return fjPool_;
+        return fjPool_ == null ? SplitPools.getDefaultPool() : fjPool_;
     }
 
     /**
@@ -105,12 +156,22 @@ public class SplitPolicy {
         return size >= 0 && size >= 2 * getMinTaskSize();
     }
 
+    /**
+     * Returns the object accumulating execution statistics for
+     * operations performed using this policy.
+     *
+     * @return  statistics
+     */
+    public SplitStats getStats() {
+        return stats_;
+    }
+
     @Override
     public String toString() {
         return new StringBuffer()
               .append( "SplitPolicy(" )
               .append( "parallelism=" )
-              .append( fjPool_.getParallelism() )
+              .append( getForkJoinPool().getParallelism() )
               .append( ", " )
               .append( "minTaskSize=" )
               .append( getMinTaskSize() )
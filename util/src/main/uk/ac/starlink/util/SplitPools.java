@@ -0,0 +1,223 @@
+package uk.ac.starlink.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.logging.Logger;
+
+/**
+ * Manages the ForkJoinPools used for parallel processing by
+ * SplitProcessor instances.
+ *
+ * <p>By default, parallel processing uses the JVM's common pool.
+ * That is fine for a single job, but where several jobs are running
+ * concurrently in the same JVM (for instance in a server)
+ * they will compete for the same threads.
+ * This class provides a registry of named pools with fixed parallelism,
+ * so that the available cores can be partitioned between jobs;
+ * a job can use a policy based on its own pool, and release the pool
+ * when it is no longer required.
+ *
+ * <p>The pool used by default, that is when a {@link SplitPolicy}
+ * is constructed without an explicit pool,
+ * may be configured at runtime using
+ * {@link #setDefaultParallelism setDefaultParallelism},
+ * or from the system property {@value #PARALLELISM_PROPERTY}.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+public class SplitPools {
+
+    /**
+     * Name of system property giving the parallelism of the default pool
+     * ({@value}).
+     * If set to a positive integer, a dedicated pool of that parallelism
+     * will be used in place of the common pool.
+     */
+    public static final String PARALLELISM_PROPERTY = "startable.parallelism";
+
+    /** Name of the dedicated pool used as the default, if any. */
+    public static final String DEFAULT_POOL_NAME = "default";
+
+    private static final Map<String,ForkJoinPool> poolMap_ =
+        new LinkedHashMap<String,ForkJoinPool>();
+    private static ForkJoinPool defaultPool_;
+    private static final Logger logger_ =
+        Logger.getLogger( "uk.ac.starlink.util" );
+
+    /**
+     * Private constructor prevents instantiation.
+     */
+    private SplitPools() {
+    }
+
+    /**
+     * Returns a named pool with a given parallelism.
+     * If a pool with the given name already exists it is returned,
+     * otherwise a new one is created and registered under that name.
+     * Worker threads are daemon threads named after the pool.
+     *
+     * @param  name  pool name
+     * @param  parallelism   required parallelism, must be positive
+     * @return  pool
+     * @throws  IllegalArgumentException  if parallelism is not positive,
+     *          or a pool with the same name but different parallelism
+     *          already exists
+     */
+    public static synchronized ForkJoinPool getPool( String name,
+                                                     int parallelism ) {
+        if ( parallelism <= 0 ) {
+            throw new IllegalArgumentException( "Bad parallelism "
+                                              + parallelism );
+        }
+        ForkJoinPool pool = poolMap_.get( name );
+        if ( pool == null ) {
+            pool = createPool( name, parallelism );
+            poolMap_.put( name, pool );
+            logger_.info( "Created pool " + name
+                        + " with parallelism " + parallelism );
+        }
+        else if ( pool.getParallelism() != parallelism ) {
+            throw new IllegalArgumentException(
+                "Pool " + name + " already exists with parallelism "
+              + pool.getParallelism() + " != " + parallelism );
+        }
+        return pool;
+    }
+
+    /**
+     * Returns the names of all the pools currently registered.
+     *
+     * @return  pool names
+     */
+    public static synchronized String[] getPoolNames() {
+        return poolMap_.keySet().toArray( new String[ 0 ] );
+    }
+
+    /**
+     * Removes a named pool from the registry and shuts it down.
+     * Tasks already submitted will complete, but no new tasks will
+     * be accepted by the pool.
+     * If the pool is currently the default pool, the default
+     * reverts to the common pool.
+     *
+     * @param  name  pool name
+     * @return  true iff a pool with the given name was released
+     */
+    public static synchronized boolean releasePool( String name ) {
+        ForkJoinPool pool = poolMap_.remove( name );
+        if ( pool == null ) {
+            return false;
+        }
+        else {
+            if ( pool == defaultPool_ ) {
+                defaultPool_ = ForkJoinPool.commonPool();
+            }
+            pool.shutdown();
+            return true;
+        }
+    }
+
+    /**
+     * Returns the pool to be used by split policies that do not
+     * specify their own.
+     *
+     * @return  default pool
+     */
+    public static synchronized ForkJoinPool getDefaultPool() {
+        if ( defaultPool_ == null ) {
+            defaultPool_ = createDefaultPool();
+        }
+        return defaultPool_;
+    }
+
+    /**
+     * Sets the parallelism of the default pool.
+     * If a positive value is given, a dedicated pool named
+     * {@link #DEFAULT_POOL_NAME} is used; any previous dedicated
+     * default pool with different parallelism is released.
+     * A non-positive value reverts to using the common pool.
+     *
+     * <p>Since the default pool is located at execution time,
+     * this affects subsequent operations by all split policies
+     * constructed without an explicit pool.
+     *
+     * @param  parallelism  parallelism of default pool,
+     *                      or non-positive value for the common pool
+     */
+    public static synchronized void setDefaultParallelism( int parallelism ) {
+        ForkJoinPool pool = poolMap_.get( DEFAULT_POOL_NAME );
+        if ( pool != null && pool.getParallelism() != parallelism ) {
+            releasePool( DEFAULT_POOL_NAME );
+        }
+        defaultPool_ = parallelism > 0
+                     ? getPool( DEFAULT_POOL_NAME, parallelism )
+                     : ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Returns an integer value from a system property.
+     *
+     * @param  propName  system property name
+     * @param  dflt   value to return if the property is not set
+     *                or cannot be parsed
+     * @return   property value
+     */
+    static int getIntProperty( String propName, int dflt ) {
+        String txt;
+        try {
+            txt = System.getProperty( propName );
+        }
+        catch ( SecurityException e ) {
+            return dflt;
+        }
+        if ( txt == null || txt.trim().length() == 0 ) {
+            return dflt;
+        }
+        try {
+            return Integer.parseInt( txt.trim() );
+        }
+        catch ( NumberFormatException e ) {
+            logger_.warning( "Ignoring non-integer value for " + propName
+                           + ": \"" + txt + "\"" );
+            return dflt;
+        }
+    }
+
+    /**
+     * Determines the default pool from the environment.
+     *
+     * @return  initial default pool
+     */
+    private static ForkJoinPool createDefaultPool() {
+        int parallelism = getIntProperty( PARALLELISM_PROPERTY, 0 );
+        return parallelism > 0
+             ? getPool( DEFAULT_POOL_NAME, parallelism )
+             : ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Constructs a new pool with named daemon worker threads.
+     *
+     * @param  name  pool name
+     * @param  parallelism  parallelism
+     * @return  new pool
+     */
+    private static ForkJoinPool createPool( final String name,
+                                           int parallelism ) {
+        ForkJoinPool.ForkJoinWorkerThreadFactory thFact =
+                new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+            public ForkJoinWorkerThread newThread( ForkJoinPool pool ) {
+                ForkJoinWorkerThread th =
+                    ForkJoinPool.defaultForkJoinWorkerThreadFactory
+                                .newThread( pool );
+                th.setName( "SplitPool-" + name + "-" + th.getPoolIndex() );
+                th.setDaemon( true );
+                return th;
+            }
+        };
+        return new ForkJoinPool( parallelism, thFact, null, false );
+    }
+}
@@ -8,6 +8,7 @@ import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.RecursiveTask;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 
 /**
@@ -173,6 +174,60 @@ public abstract class SplitProcessor<S extends Splittable<S>> {
         return minSize;
     }
 
+    /**
+     * Accumulates execution counts during a single collection operation.
+     */
+    private static class Counts {
+
+        final AtomicInteger nTask_ = new AtomicInteger();
+        final AtomicInteger nSplit_ = new AtomicInteger();
+        final AtomicInteger nSteal_ = new AtomicInteger();
+        final AtomicLong stealNanos_ = new AtomicLong();
+
+        /**
+         * Called when a task starts execution to record whether it has
+         * been stolen, that is executed by a thread other than the one
+         * that forked it.
+         *
+         * @param  forkThread  thread that forked the task,
+         *                     or null if it was not forked
+         * @param  forkTime   System.nanoTime at which task was forked
+         */
+        void checkSteal( Thread forkThread, long forkTime ) {
+            if ( forkThread != null && forkThread != Thread.currentThread() ) {
+                nSteal_.incrementAndGet();
+                stealNanos_.addAndGet( System.nanoTime() - forkTime );
+            }
+        }
+
+        /**
+         * Adds the counts accumulated by this object to a statistics
+         * object.
+         *
+         * @param  stats  statistics accumulator
+         * @param  elapsedNanos  duration of collection operation
+         */
+        void record( SplitStats stats, long elapsedNanos ) {
+            stats.addCollection( nTask_.get(), nSplit_.get(), nSteal_.get(),
+                                 stealNanos_.get(), elapsedNanos );
+        }
+
+        @Override
+        public String toString() {
+            return new StringBuffer()
+               .append( "tasks: " )
+               .append( nTask_ )
+               .append( ", splits: " )
+               .append( nSplit_ )
+               .append( ", steals: " )
+               .append( nSteal_ )
+               .append( " (" )
+               .append( stealNanos_.get() / 1000000 )
+               .append( "ms)" )
+               .toString();
+        }
+    }
+
     /**
      * SplitProcessor that processes content sequentially.
      */
@@ -224,20 +279,21 @@ public abstract class SplitProcessor<S extends Splittable<S>> {
         }
 
         public <A> A collect( SplitCollector<S,A> collector, S content ) {
-            AtomicInteger nfork = new AtomicInteger();
+            Counts counts = new Counts();
             int minSize = getMinSplitSize( content, policy_ );
             ForkJoinTask<A> task =
                 new BasicSplitTask<S,A>( null, collector, content, minSize,
-                                         nfork );
+                                         counts );
             long start = System.nanoTime();
             A acc = policy_.getForkJoinPool().invoke( task );
+            long elapsed = System.nanoTime() - start;
+            counts.record( policy_.getStats(), elapsed );
             String msg = new StringBuffer()
                .append( this )
                .append( " - " )
-               .append( "tasks: " )
-               .append( nfork )
+               .append( counts )
                .append( ", time: " )
-               .append( ( System.nanoTime() - start ) / 1000000 )
+               .append( elapsed / 1000000 )
                .toString();
             logger_.info( msg );
             return acc;
@@ -253,9 +309,11 @@ public abstract class SplitProcessor<S extends Splittable<S>> {
             private final SplitCollector<S,A> collector_;
             private final S content_;
             private final int minSize_;
-            private final AtomicInteger nfork_;
+            private final Counts counts_;
             private BasicSplitTask<S,A> sibling_;
             private A result_;
+            private Thread forkThread_;
+            private long forkTime_;
 
             /**
              * Constructor.
@@ -264,29 +322,34 @@ public abstract class SplitProcessor<S extends Splittable<S>> {
              * @param   collector  collector
              * @param   content   input data
              * @param   minSize   minimum size of split tasks
-             * @param   nfork  task fork counter
+             * @param   counts  execution counters
              */
             BasicSplitTask( BasicSplitTask<S,A> parent,
                             SplitCollector<S,A> collector, S content,
-                            int minSize, AtomicInteger nfork ) {
+                            int minSize, Counts counts ) {
                 super( parent );
                 collector_ = collector;
                 content_ = content;
                 minSize_ = minSize;
-                nfork_ = nfork;
+                counts_ = counts;
             }
 
             public void compute() {
+                counts_.checkSteal( forkThread_, forkTime_ );
+                forkThread_ = null;
                 S content1 = maybeSplit( content_, minSize_ );
                 if ( content1 != null ) {
+                    counts_.nSplit_.incrementAndGet();
                     BasicSplitTask<S,A> t0 =
                        new BasicSplitTask<S,A>( this, collector_, content_,
-                                                minSize_, nfork_ );
+                                                minSize_, counts_ );
                     BasicSplitTask<S,A> t1 =
                        new BasicSplitTask<S,A>( this, collector_, content1,
-                                                minSize_, nfork_ );
+                                                minSize_, counts_ );
                     t0.sibling_ = t1;
                     t1.sibling_ = t0;
+                    t1.forkThread_ = Thread.currentThread();
+                    t1.forkTime_ = System.nanoTime();
                     setPendingCount( 1 );
                     t1.fork();
                     t0.compute();
@@ -295,9 +358,7 @@ public abstract class SplitProcessor<S extends Splittable<S>> {
                     A accumulator = collector_.createAccumulator();
                     collector_.accumulate( content_, accumulator );
                     result_ = accumulator;
-                    if ( nfork_ != null ) {
-                        nfork_.incrementAndGet();
-                    }
+                    counts_.nTask_.incrementAndGet();
                     tryComplete();
                 }
             }
@@ -349,12 +410,12 @@ public abstract class SplitProcessor<S extends Splittable<S>> {
 
         public <A> A collect( SplitCollector<S,A> collector, S content ) {
             Collection<A> accPool = new ArrayList<A>();
-            AtomicInteger nfork = new AtomicInteger();
+            Counts counts = new Counts();
             int minSize = getMinSplitSize( content, policy_ );
             long t0 = System.nanoTime();
             ForkJoinTask<A> accTask =
                 new PoolSplitTask<S,A>( null, collector, content, minSize,
-                                        accPool, nfork );
+                                        accPool, counts );
             ForkJoinPool fjPool = policy_.getForkJoinPool();
             fjPool.invoke( accTask );
             int npool = accPool.size();
@@ -364,11 +425,11 @@ public abstract class SplitProcessor<S extends Splittable<S>> {
             accPool = null;
             A result = fjPool.invoke( joinTask );
             long t2 = System.nanoTime();
+            counts.record( policy_.getStats(), t2 - t0 );
             String msg = new StringBuffer()
                .append( this )
                .append( " - " )
-               .append( "tasks: " )
-               .append( nfork )
+               .append( counts )
                .append( ", pool: " )
                .append( npool )
                .append( ", time: " )
@@ -391,7 +452,9 @@ public abstract class SplitProcessor<S extends Splittable<S>> {
             private final S content_;
             private final int minSize_;
             private final Collection<A> accPool_;
-            private final AtomicInteger nfork_;
+            private final Counts counts_;
+            private Thread forkThread_;
+            private long forkTime_;
 
             /**
              * Constructor.
@@ -402,29 +465,34 @@ public abstract class SplitProcessor<S extends Splittable<S>> {
              * @param   minSize   minimum size of split tasks
              * @param   accPool   pool of accumulators,
              *                    will be expanded as required
-             * @param   nfork  task fork counter
+             * @param   counts  execution counters
              */
             PoolSplitTask( PoolSplitTask<S,A> parent,
                            SplitCollector<S,A> collector, S content,
                            int minSize, Collection<A> accPool,
-                           AtomicInteger nfork ) {
+                           Counts counts ) {
                 super( parent );
                 collector_ = collector;
                 content_ = content;
                 minSize_ = minSize;
                 accPool_ = accPool;
-                nfork_ = nfork;
+                counts_ = counts;
             }
 
             public void compute() {
+                counts_.checkSteal( forkThread_, forkTime_ );
+                forkThread_ = null;
                 S content1 = maybeSplit( content_, minSize_ );
                 if ( content1 != null ) {
+                    counts_.nSplit_.incrementAndGet();
                     PoolSplitTask<S,A> t0 =
                         new PoolSplitTask<S,A>( this, collector_, content_,
-                                                minSize_, accPool_, nfork_ );
+                                                minSize_, accPool_, counts_ );
                     PoolSplitTask<S,A> t1 =
                         new PoolSplitTask<S,A>( this, collector_, content1,
-                                                minSize_, accPool_, nfork_ );
+                                                minSize_, accPool_, counts_ );
+                    t1.forkThread_ = Thread.currentThread();
+                    t1.forkTime_ = System.nanoTime();
                     setPendingCount( 1 );
                     t1.fork();
                     t0.compute();
@@ -433,9 +501,7 @@ public abstract class SplitProcessor<S extends Splittable<S>> {
                     A accumulator = getAccumulator();
                     collector_.accumulate( content_, accumulator );
                     releaseAccumulator( accumulator );
-                    if ( nfork_ != null ) {
-                        nfork_.incrementAndGet();
-                    }
+                    counts_.nTask_.incrementAndGet();
                     tryComplete();
                 }
             }
@@ -0,0 +1,160 @@
+package uk.ac.starlink.util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accumulates statistics about parallel executions performed by
+ * SplitProcessor instances.
+ * Each {@link SplitPolicy} has an instance of this class,
+ * which is updated on completion of every collection operation
+ * that uses that policy.
+ * All methods are thread-safe.
+ *
+ * <p>The counters are:
+ * <dl>
+ * <dt>collections</dt>
+ * <dd>number of top-level collection operations</dd>
+ * <dt>tasks</dt>
+ * <dd>number of leaf tasks, each of which accumulates a single
+ *     unsplit portion of the input</dd>
+ * <dt>splits</dt>
+ * <dd>number of times a splittable was divided in two</dd>
+ * <dt>steals</dt>
+ * <dd>number of forked subtasks executed by a thread other than
+ *     the one that forked them</dd>
+ * <dt>steal time</dt>
+ * <dd>total time that stolen subtasks spent queued between being
+ *     forked and starting execution</dd>
+ * <dt>elapsed time</dt>
+ * <dd>total wall-clock duration of collection operations</dd>
+ * </dl>
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+public class SplitStats {
+
+    private final LongAdder nCollect_;
+    private final LongAdder nTask_;
+    private final LongAdder nSplit_;
+    private final LongAdder nSteal_;
+    private final LongAdder stealNanos_;
+    private final LongAdder elapsedNanos_;
+
+    /**
+     * Constructor.
+     */
+    public SplitStats() {
+        nCollect_ = new LongAdder();
+        nTask_ = new LongAdder();
+        nSplit_ = new LongAdder();
+        nSteal_ = new LongAdder();
+        stealNanos_ = new LongAdder();
+        elapsedNanos_ = new LongAdder();
+    }
+
+    /**
+     * Records the outcome of a single collection operation.
+     *
+     * @param  nTask  number of leaf tasks
+     * @param  nSplit  number of splits
+     * @param  nSteal  number of stolen subtasks
+     * @param  stealNanos  total queue time in nanoseconds of stolen subtasks
+     * @param  elapsedNanos  wall-clock duration in nanoseconds
+     */
+    public void addCollection( long nTask, long nSplit, long nSteal,
+                               long stealNanos, long elapsedNanos ) {
+        nCollect_.increment();
+        nTask_.add( nTask );
+        nSplit_.add( nSplit );
+        nSteal_.add( nSteal );
+        stealNanos_.add( stealNanos );
+        elapsedNanos_.add( elapsedNanos );
+    }
+
+    /**
+     * Returns the number of collection operations recorded.
+     *
+     * @return  collection count
+     */
+    public long getCollectionCount() {
+        return nCollect_.sum();
+    }
+
+    /**
+     * Returns the number of leaf tasks recorded.
+     *
+     * @return  task count
+     */
+    public long getTaskCount() {
+        return nTask_.sum();
+    }
+
+    /**
+     * Returns the number of splits recorded.
+     *
+     * @return  split count
+     */
+    public long getSplitCount() {
+        return nSplit_.sum();
+    }
+
+    /**
+     * Returns the number of stolen subtasks recorded.
+     *
+     * @return  steal count
+     */
+    public long getStealCount() {
+        return nSteal_.sum();
+    }
+
+    /**
+     * Returns the total time stolen subtasks spent waiting to be stolen.
+     *
+     * @return  steal time in nanoseconds
+     */
+    public long getStealNanos() {
+        return stealNanos_.sum();
+    }
+
+    /**
+     * Returns the total wall-clock time spent in collection operations.
+     *
+     * @return  elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos_.sum();
+    }
+
+    /**
+     * Resets all counters to zero.
+     * If collections are in progress at the time of the call,
+     * the results may not be exact.
+     */
+    public void reset() {
+        nCollect_.reset();
+        nTask_.reset();
+        nSplit_.reset();
+        nSteal_.reset();
+        stealNanos_.reset();
+        elapsedNanos_.reset();
+    }
+
+    @Override
+    public String toString() {
+        return new StringBuffer()
+              .append( "collections: " )
+              .append( getCollectionCount() )
+              .append( ", tasks: " )
+              .append( getTaskCount() )
+              .append( ", splits: " )
+              .append( getSplitCount() )
+              .append( ", steals: " )
+              .append( getStealCount() )
+              .append( ", steal time: " )
+              .append( getStealNanos() / 1000000 )
+              .append( ", time: " )
+              .append( getElapsedNanos() / 1000000 )
+              .toString();
+    }
+}
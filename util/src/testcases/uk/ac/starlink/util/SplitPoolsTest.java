@@ -0,0 +1,100 @@
+package uk.ac.starlink.util;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class SplitPoolsTest extends TestCase {
+
+    public SplitPoolsTest( String name ) {
+        super( name );
+        Logger.getLogger( "uk.ac.starlink.util" ).setLevel( Level.WARNING );
+    }
+
+    public void testPools() {
+        ForkJoinPool p3 = SplitPools.getPool( "test3", 3 );
+        assertEquals( 3, p3.getParallelism() );
+        assertSame( p3, SplitPools.getPool( "test3", 3 ) );
+        assertTrue( Arrays.asList( SplitPools.getPoolNames() )
+                          .contains( "test3" ) );
+        try {
+            SplitPools.getPool( "test3", 4 );
+            fail();
+        }
+        catch ( IllegalArgumentException e ) {
+        }
+        assertTrue( SplitPools.releasePool( "test3" ) );
+        assertFalse( SplitPools.releasePool( "test3" ) );
+        assertTrue( p3.isShutdown() );
+
+        SplitPolicy dfltPolicy = new SplitPolicy();
+        SplitPools.setDefaultParallelism( 2 );
+        assertEquals( 2, dfltPolicy.getForkJoinPool().getParallelism() );
+        assertEquals( 2, SplitPools.getDefaultPool().getParallelism() );
+        SplitPools.setDefaultParallelism( 0 );
+        assertSame( ForkJoinPool.commonPool(), dfltPolicy.getForkJoinPool() );
+    }
+
+    public void testStats() {
+        SplitPolicy policy =
+            new SplitPolicy( SplitPools.getPool( "test4", 4 ), 100, (short) 0 );
+        SplitProcessor<RangeSplittable> proc =
+            SplitProcessor.createBasicParallelProcessor( policy );
+        int n = 10000;
+        long[] sum = proc.collect( new SumCollector(),
+                                   new RangeSplittable( 0, n ) );
+        assertEquals( (long) n * ( n - 1 ) / 2, sum[ 0 ] );
+        SplitStats stats = policy.getStats();
+        assertEquals( 1, stats.getCollectionCount() );
+        assertTrue( stats.getTaskCount() > 1 );
+        assertEquals( stats.getTaskCount() - 1, stats.getSplitCount() );
+        assertTrue( stats.getStealCount() <= stats.getSplitCount() );
+
+        SplitProcessor<RangeSplittable> poolProc =
+            SplitProcessor.createPoolParallelProcessor( policy );
+        sum = poolProc.collect( new SumCollector(),
+                                new RangeSplittable( 0, n ) );
+        assertEquals( (long) n * ( n - 1 ) / 2, sum[ 0 ] );
+        assertEquals( 2, stats.getCollectionCount() );
+        stats.reset();
+        assertEquals( 0, stats.getCollectionCount() );
+        assertEquals( 0, stats.getTaskCount() );
+        SplitPools.releasePool( "test4" );
+    }
+
+    private static class RangeSplittable
+            implements Splittable<RangeSplittable> {
+        private int lo_;
+        private final int hi_;
+        RangeSplittable( int lo, int hi ) {
+            lo_ = lo;
+            hi_ = hi;
+        }
+        public long splittableSize() {
+            return hi_ - lo_;
+        }
+        public RangeSplittable split() {
+            int mid = ( lo_ + hi_ ) / 2;
+            RangeSplittable other = new RangeSplittable( lo_, mid );
+            lo_ = mid;
+            return other;
+        }
+    }
+
+    private static class SumCollector
+            implements SplitCollector<RangeSplittable,long[]> {
+        public long[] createAccumulator() {
+            return new long[ 1 ];
+        }
+        public void accumulate( RangeSplittable range, long[] acc ) {
+            for ( int i = range.lo_; i < range.hi_; i++ ) {
+                acc[ 0 ] += i;
+            }
+        }
+        public long[] combine( long[] acc1, long[] acc2 ) {
+            acc1[ 0 ] += acc2[ 0 ];
+            return acc1;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package uk.ac.starlink.vo;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.logging.Logger;
@@ -109,8 +110,13 @@ public class ConeSearch {
                                TableSink sink ) throws IOException {
         URL qurl = getSearchURL( ra, dec, sr, verb );
         logger_.info( "Submitting query: " + qurl );
-        new VOTableBuilder().streamStarTable( coding_.openStream( qurl ),
-                                              sink, null );
+        InputStream in = coding_.openStream( qurl );
+        try {
+            new VOTableBuilder().streamStarTable( in, sink, null );
+        }
+        finally {
+            closeForReuse( in );
+        }
     }
 
     /**
@@ -132,15 +138,18 @@ public class ConeSearch {
         /* Submit the CGI query and create a DOM from the resulting stream. */
         StoragePolicy storage = tfact.getStoragePolicy();
         VOElement topEl;
+        InputStream in = coding_.openStream( qurl );
         try {
             topEl = new VOElementFactory( storage )
-                   .makeVOElement( coding_.openStream( qurl ),
-                                   qurl.toString() );
+                   .makeVOElement( in, qurl.toString() );
         }
         catch ( SAXException e ) {
             throw (IOException) new IOException( e.getMessage() )
                                .initCause( e );
         }
+        finally {
+            closeForReuse( in );
+        }
 
         /* If there is a TABLE in the resulting DOM, return it. */
         NodeList tableEls = topEl.getElementsByTagName( "TABLE" );
@@ -162,6 +171,36 @@ public class ConeSearch {
                                "in returned stream" );
     }
 
+    /**
+     * Closes a response stream in such a way that the underlying
+     * HTTP connection can be reused for subsequent requests.
+     * The JDK's HTTP implementation only returns a connection to its
+     * keep-alive cache if the response has been read to the end and
+     * the stream closed; the XML parser may stop reading before the end
+     * and does not necessarily close the stream, in which case each
+     * query would need a new connection.  So any small amount of
+     * remaining content is read and discarded before closing.
+     *
+     * @param  in  response input stream
+     */
+    private static void closeForReuse( InputStream in ) {
+        try {
+            byte[] buf = new byte[ 4096 ];
+            for ( int ntot = 0, n; ntot < 64 * 1024 &&
+                                   ( n = in.read( buf ) ) >= 0; ntot += n ) {
+            }
+        }
+        catch ( IOException e ) {
+            // never mind, stream may already be closed
+        }
+        try {
+            in.close();
+        }
+        catch ( IOException e ) {
+            // never mind
+        }
+    }
+
     /**
      * Recurses through a DOM looking for elements which appear to represent
      * an error status.  If it finds one, it will throw a suitable IOException.
@@ -0,0 +1,186 @@
+package uk.ac.starlink.votable;
+
+import java.io.DataInput;
+import java.io.IOException;
+import uk.ac.starlink.table.RowData;
+
+/**
+ * Holds the decoded contents of a single row of a VOTable BINARY
+ * or BINARY2 stream.
+ *
+ * <p>Scalar numeric cells are decoded into primitive storage arrays
+ * which are reused from row to row, and are only packaged as objects
+ * if they are requested by {@link #getCell} or {@link #getRow}.
+ * The typed accessor methods {@link #getDouble}, {@link #getLong}
+ * and {@link #isNull} can therefore read such cells without
+ * any object creation.  Other cells are decoded into objects
+ * as each row is read.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+class BinaryRowData implements RowData {
+
+    private final Decoder[] decoders_;
+    private final NumericDecoder[] scalarDecoders_;
+    private final Object[] scalarArrays_;
+    private final boolean isBinary2_;
+    private final int ncol_;
+    private final boolean[] nullFlags_;
+    private final Object[] cells_;
+    private Object[] row_;
+    private boolean hasRow_;
+
+    /**
+     * Constructor.
+     *
+     * @param  decoders  n-element array of decoders for decoding
+     *                   n-column data
+     * @param  isBinary2  true for BINARY2 format, false for BINARY
+     */
+    public BinaryRowData( Decoder[] decoders, boolean isBinary2 ) {
+        decoders_ = decoders;
+        isBinary2_ = isBinary2;
+        ncol_ = decoders.length;
+        scalarDecoders_ = new NumericDecoder[ ncol_ ];
+        scalarArrays_ = new Object[ ncol_ ];
+        for ( int icol = 0; icol < ncol_; icol++ ) {
+            Decoder decoder = decoders[ icol ];
+            if ( decoder instanceof NumericDecoder &&
+                 ((NumericDecoder) decoder).isTypedScalar() ) {
+                NumericDecoder ndecoder = (NumericDecoder) decoder;
+                scalarDecoders_[ icol ] = ndecoder;
+                scalarArrays_[ icol ] = ndecoder.getEmptyArray( 1 );
+            }
+        }
+        nullFlags_ = new boolean[ ncol_ ];
+        cells_ = new Object[ ncol_ ];
+    }
+
+    /**
+     * Reads the next row from a stream into this object,
+     * replacing the current contents.
+     *
+     * @param  in  input stream positioned at the start of a row
+     */
+    public void readRow( DataInput in ) throws IOException {
+        hasRow_ = false;
+        row_ = null;
+        if ( isBinary2_ ) {
+            FlagIO.readFlags( in, nullFlags_ );
+        }
+        for ( int icol = 0; icol < ncol_; icol++ ) {
+            NumericDecoder sdecoder = scalarDecoders_[ icol ];
+            if ( sdecoder != null ) {
+                sdecoder.decodeStream1( scalarArrays_[ icol ], 0, in );
+            }
+            else if ( isBinary2_ && nullFlags_[ icol ] ) {
+                decoders_[ icol ].skipStream( in );
+                cells_[ icol ] = null;
+            }
+            else {
+                cells_[ icol ] = decoders_[ icol ].decodeStream( in );
+            }
+        }
+        hasRow_ = true;
+    }
+
+    /**
+     * Discards the current row, so that subsequent data access
+     * will fail until the next call to {@link #readRow}.
+     */
+    public void clear() {
+        hasRow_ = false;
+        row_ = null;
+    }
+
+    public Object getCell( int icol ) {
+        checkRow();
+        if ( row_ != null ) {
+            return row_[ icol ];
+        }
+        NumericDecoder sdecoder = scalarDecoders_[ icol ];
+        if ( sdecoder == null ) {
+            return cells_[ icol ];
+        }
+        else if ( isBinary2_ && nullFlags_[ icol ] ) {
+            return null;
+        }
+        else {
+            return sdecoder.packageArray( scalarArrays_[ icol ] );
+        }
+    }
+
+    /**
+     * Returns a new array containing the cells of the current row.
+     * The same array is returned by subsequent calls until the next
+     * row is read, but it is not reused for later rows.
+     */
+    public Object[] getRow() {
+        checkRow();
+        if ( row_ == null ) {
+            Object[] row = new Object[ ncol_ ];
+            for ( int icol = 0; icol < ncol_; icol++ ) {
+                row[ icol ] = getCell( icol );
+            }
+            row_ = row;
+        }
+        return row_;
+    }
+
+    public double getDouble( int icol ) {
+        checkRow();
+        NumericDecoder sdecoder = scalarDecoders_[ icol ];
+        if ( sdecoder == null ) {
+            Object cell = cells_[ icol ];
+            return cell instanceof Number ? ((Number) cell).doubleValue()
+                                          : Double.NaN;
+        }
+        else {
+            return isScalarNull( icol )
+                 ? Double.NaN
+                 : sdecoder.getDouble1( scalarArrays_[ icol ], 0 );
+        }
+    }
+
+    public long getLong( int icol ) {
+        checkRow();
+        NumericDecoder sdecoder = scalarDecoders_[ icol ];
+        if ( sdecoder == null ) {
+            Object cell = cells_[ icol ];
+            return cell instanceof Number ? ((Number) cell).longValue()
+                                          : 0L;
+        }
+        else {
+            return isScalarNull( icol )
+                 ? 0L
+                 : sdecoder.getLong1( scalarArrays_[ icol ], 0 );
+        }
+    }
+
+    public boolean isNull( int icol ) {
+        checkRow();
+        return scalarDecoders_[ icol ] == null ? cells_[ icol ] == null
+                                               : isScalarNull( icol );
+    }
+
+    /**
+     * Indicates whether a scalar numeric cell in the current row is null.
+     *
+     * @param  icol  index of column with a typed scalar decoder
+     * @return  true iff cell value is null
+     */
+    private boolean isScalarNull( int icol ) {
+        return ( isBinary2_ && nullFlags_[ icol ] )
+            || scalarDecoders_[ icol ].isNull( scalarArrays_[ icol ], 0 );
+    }
+
+    /**
+     * Throws an exception if there is no current row.
+     */
+    private void checkRow() {
+        if ( ! hasRow_ ) {
+            throw new IllegalStateException( "No current row" );
+        }
+    }
+}
@@ -21,9 +21,7 @@ class BinaryRowSequence implements RowSequence {
 
     private final PushbackInputStream pIn_;
     private final DataInput dataIn_;
-    private final int ncol_;
-    private final RowReader rowReader_;
-    private Object[] row_;
+    private final BinaryRowData rowData_;
 
     /**
      * Constructs a new row sequence from a set of decoders and a
@@ -38,7 +36,6 @@ class BinaryRowSequence implements RowSequence {
     public BinaryRowSequence( final Decoder[] decoders, InputStream in,
                               String encoding, boolean isBinary2 )
             throws IOException {
-        ncol_ = decoders.length;
         if ( "gzip".equals( encoding ) ) {
             in = new GZIPInputStream( in );
         }
@@ -47,33 +44,7 @@ class BinaryRowSequence implements RowSequence {
         }
         pIn_ = new PushbackInputStream( in );
         dataIn_ = new DataInputStream( pIn_ );
-        rowReader_ = isBinary2
-            ? new RowReader() {
-                  final boolean[] nullFlags = new boolean[ ncol_ ];
-                  public void readRow( Object[] row ) throws IOException {
-                      FlagIO.readFlags( dataIn_, nullFlags );
-                      for ( int icol = 0; icol < ncol_; icol++ ) {
-                          Decoder decoder = decoders[ icol ];
-                          final Object cell;
-                          if ( nullFlags[ icol ] ) {
-                              decoder.skipStream( dataIn_ );
-                              cell = null;
-                          }
-                          else {
-                              cell = decoder.decodeStream( dataIn_ );
-                          }
-                          row[ icol ] = cell;
-                      }
-                  }
-              }
-            : new RowReader() {
-                  public void readRow( Object[] row ) throws IOException {
-                      for ( int icol = 0; icol < ncol_; icol++ ) {
-                          row[ icol ] = decoders[ icol ]
-                                       .decodeStream( dataIn_ );
-                      }
-                  }
-              };
+        rowData_ = new BinaryRowData( decoders, isBinary2 );
     }
 
     public boolean next() throws IOException {
@@ -89,46 +60,32 @@ class BinaryRowSequence implements RowSequence {
         }
         else {
             pIn_.unread( b );
-            Object[] row = new Object[ ncol_ ];
-            rowReader_.readRow( row );
-            row_ = row;
+            rowData_.readRow( dataIn_ );
             return true;
         }
     }
 
     public Object[] getRow() {
-        if ( row_ != null ) {
-            return row_;
-        }
-        else {
-            throw new IllegalStateException( "No next() yet" );
-        }
+        return rowData_.getRow();
     }
 
     public Object getCell( int icol ) {
-        if ( row_ != null ) {
-            return row_[ icol ];
-        }
-        else {
-            throw new IllegalStateException( "No next() yet" );
-        }
+        return rowData_.getCell( icol );
     }
 
-    public void close() throws IOException {
-        pIn_.close();
+    public double getDouble( int icol ) {
+        return rowData_.getDouble( icol );
     }
 
-    /**
-     * Interface for an object that can read a row from a binary stream.
-     */
-    private interface RowReader {
+    public long getLong( int icol ) {
+        return rowData_.getLong( icol );
+    }
 
-        /**
-         * Populates a given row array with cell values for the next
-         * data row available.
-         *
-         * @param  row  array of objects to be filled
-         */
-        void readRow( Object[] row ) throws IOException;
+    public boolean isNull( int icol ) {
+        return rowData_.isNull( icol );
+    }
+
+    public void close() throws IOException {
+        pIn_.close();
     }
 }
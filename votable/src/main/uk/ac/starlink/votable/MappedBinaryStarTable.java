@@ -0,0 +1,457 @@
+package uk.ac.starlink.votable;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.util.logging.Logger;
+import uk.ac.starlink.fits.BasicInput;
+import uk.ac.starlink.fits.InputFactory;
+import uk.ac.starlink.table.AbstractStarTable;
+import uk.ac.starlink.table.ColumnInfo;
+import uk.ac.starlink.table.RowAccess;
+import uk.ac.starlink.table.RowSequence;
+import uk.ac.starlink.util.LongList;
+
+/**
+ * Random-access StarTable reading an unencoded BINARY or BINARY2
+ * stream from a local file.
+ *
+ * <p>Since BINARY rows may have variable lengths, the file is skimmed
+ * once to locate row boundaries, and the byte offset
+ * of every {@link #INDEX_STEP}'th row is recorded.
+ * This happens the first time that the row count, random access
+ * or splitting is required, so that purely sequential reads
+ * do not pay for an extra pass through the file.
+ * Access to a given row then involves seeking to the nearest preceding
+ * indexed row and skipping forward.
+ * Each RowAccess and RowSequence has its own mapped input,
+ * and access to consecutive rows proceeds without any seeking,
+ * so the default {@link uk.ac.starlink.table.RowSplittable}
+ * implementation provides efficient parallel processing.
+ *
+ * <p>The column metadata supplied by this table is minimal,
+ * since it is intended to supply the data for a VOTable TABLE element
+ * which provides the real metadata.
+ *
+ * @author   Starjava contributors
+ * @since    18 Oct 2026
+ */
+class MappedBinaryStarTable extends AbstractStarTable {
+
+    private final Decoder[] decoders_;
+    private final boolean isBinary2_;
+    private final int ncol_;
+    private final long leng_;
+    private final ColumnInfo[] colInfos_;
+    private final File file_;
+    private final InputFactory inputFact_;
+    private volatile long[] index_;
+    private long nrow_;
+    private RowReader randomReader_;
+    private BinaryRowData randomData_;
+
+    /** Number of rows between recorded row offsets. */
+    static final int INDEX_STEP = 64;
+
+    private static final Logger logger_ =
+        Logger.getLogger( "uk.ac.starlink.votable" );
+
+    /**
+     * Constructor.  The file is not read until it is required.
+     *
+     * @param  decoders  n-element array of decoders for decoding
+     *                   n-column data
+     * @param  file   file containing unencoded binary data
+     * @param  isBinary2  true for BINARY2 format, false for BINARY
+     */
+    public MappedBinaryStarTable( Decoder[] decoders, File file,
+                                  boolean isBinary2 )
+            throws IOException {
+        decoders_ = decoders;
+        isBinary2_ = isBinary2;
+        ncol_ = decoders.length;
+        leng_ = file.length();
+        colInfos_ = new ColumnInfo[ ncol_ ];
+        for ( int icol = 0; icol < ncol_; icol++ ) {
+            colInfos_[ icol ] =
+                new ColumnInfo( "col" + ( icol + 1 ),
+                                decoders[ icol ].getContentClass(), null );
+        }
+        file_ = file;
+        inputFact_ = InputFactory.createFileFactory( file, 0, leng_ );
+        nrow_ = -1;
+    }
+
+    public int getColumnCount() {
+        return ncol_;
+    }
+
+    /**
+     * Returns the number of rows, indexing the file if it has not
+     * been done already.  If indexing fails, -1 is returned.
+     */
+    public long getRowCount() {
+        try {
+            return getIndex() == null ? -1 : nrow_;
+        }
+        catch ( IOException e ) {
+            logger_.warning( "Failed to index " + file_ + ": " + e );
+            return -1;
+        }
+    }
+
+    public ColumnInfo getColumnInfo( int icol ) {
+        return colInfos_[ icol ];
+    }
+
+    public boolean isRandom() {
+        return true;
+    }
+
+    public synchronized Object[] getRow( long irow ) throws IOException {
+        if ( randomReader_ == null ) {
+            randomReader_ = new RowReader();
+            randomData_ = randomReader_.createRowData();
+        }
+        randomReader_.seekRow( irow );
+        randomReader_.readRow( randomData_ );
+        return randomData_.getRow();
+    }
+
+    public Object getCell( long irow, int icol ) throws IOException {
+        return getRow( irow )[ icol ];
+    }
+
+    public RowSequence getRowSequence() throws IOException {
+        final RowReader reader = new RowReader();
+        final BinaryRowData rdata = reader.createRowData();
+        return new RowSequence() {
+            public boolean next() throws IOException {
+                if ( reader.hasMoreData() ) {
+                    reader.readRow( rdata );
+                    return true;
+                }
+                else {
+                    rdata.clear();
+                    return false;
+                }
+            }
+            public Object getCell( int icol ) {
+                return rdata.getCell( icol );
+            }
+            public Object[] getRow() {
+                return rdata.getRow();
+            }
+            public double getDouble( int icol ) {
+                return rdata.getDouble( icol );
+            }
+            public long getLong( int icol ) {
+                return rdata.getLong( icol );
+            }
+            public boolean isNull( int icol ) {
+                return rdata.isNull( icol );
+            }
+            public void close() throws IOException {
+                reader.close();
+            }
+        };
+    }
+
+    public RowAccess getRowAccess() throws IOException {
+        getIndex();
+        final RowReader reader = new RowReader();
+        final BinaryRowData rdata = reader.createRowData();
+        return new RowAccess() {
+            long irow_ = -1;
+            long rowIrow_ = -1;
+            public void setRowIndex( long irow ) {
+                irow_ = irow;
+            }
+            public Object getCell( int icol ) throws IOException {
+                return readRow().getCell( icol );
+            }
+            public Object[] getRow() throws IOException {
+                return readRow().getRow();
+            }
+            public double getDouble( int icol ) throws IOException {
+                return readRow().getDouble( icol );
+            }
+            public long getLong( int icol ) throws IOException {
+                return readRow().getLong( icol );
+            }
+            public boolean isNull( int icol ) throws IOException {
+                return readRow().isNull( icol );
+            }
+            public void close() throws IOException {
+                reader.close();
+            }
+
+            /**
+             * Ensures that the current row has been read.
+             *
+             * @return  row data for the current row
+             */
+            private BinaryRowData readRow() throws IOException {
+                if ( irow_ != rowIrow_ ) {
+                    reader.seekRow( irow_ );
+                    reader.readRow( rdata );
+                    rowIrow_ = irow_;
+                }
+                return rdata;
+            }
+        };
+    }
+
+    public synchronized void close() throws IOException {
+        if ( randomReader_ != null ) {
+            randomReader_.close();
+            randomReader_ = null;
+            randomData_ = null;
+        }
+        inputFact_.close();
+    }
+
+    /**
+     * Returns the row offset index, skimming the data to
+     * construct it if necessary.
+     *
+     * @return  offsets of every INDEX_STEP'th row
+     */
+    private long[] getIndex() throws IOException {
+        long[] index = index_;
+        if ( index == null ) {
+            synchronized ( this ) {
+                index = index_;
+                if ( index == null ) {
+                    LongList list = new LongList();
+                    long irow = 0;
+                    RowReader skimmer = new RowReader();
+                    try {
+                        while ( skimmer.hasMoreData() ) {
+                            if ( irow % INDEX_STEP == 0 ) {
+                                list.add( skimmer.in_.getOffset() );
+                            }
+                            skimmer.skipRow();
+                            irow++;
+                        }
+                    }
+                    finally {
+                        skimmer.close();
+                    }
+                    index = list.toLongArray();
+                    nrow_ = irow;
+                    index_ = index;
+                    logger_.info( "Indexed " + irow + " BINARY"
+                                + ( isBinary2_ ? "2" : "" ) + " rows in "
+                                + file_ );
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Reads rows from an independent input.
+     */
+    private class RowReader {
+        final BasicInput in_;
+        final DataInput din_;
+        final boolean[] nullFlags_;
+        long nextRow_;
+
+        /**
+         * Constructor.  The reader is initially positioned at the first row.
+         */
+        RowReader() throws IOException {
+            in_ = inputFact_.createInput( true );
+            din_ = new BasicDataInput( in_ );
+            nullFlags_ = new boolean[ ncol_ ];
+            nextRow_ = 0;
+        }
+
+        /**
+         * Indicates whether there is unread data following the current
+         * position.
+         *
+         * @return  true iff more rows are available
+         */
+        boolean hasMoreData() {
+            return in_.getOffset() < leng_;
+        }
+
+        /**
+         * Positions this reader at the start of a given row.
+         *
+         * @param  irow  row index
+         */
+        void seekRow( long irow ) throws IOException {
+            long[] index = getIndex();
+            if ( irow < 0 || irow >= nrow_ ) {
+                throw new IllegalArgumentException( "No such row " + irow );
+            }
+            if ( irow < nextRow_ || irow - nextRow_ >= INDEX_STEP ) {
+                int ix = (int) ( irow / INDEX_STEP );
+                in_.seek( index[ ix ] );
+                nextRow_ = ix * (long) INDEX_STEP;
+            }
+            while ( nextRow_ < irow ) {
+                skipRow();
+            }
+        }
+
+        /**
+         * Returns a new object into which rows can be read by this reader.
+         *
+         * @return  new row data object
+         */
+        BinaryRowData createRowData() {
+            return new BinaryRowData( decoders_, isBinary2_ );
+        }
+
+        /**
+         * Reads the row at the current position into a supplied
+         * row data object and advances.
+         *
+         * @param  rdata  row data object obtained from this reader
+         */
+        void readRow( BinaryRowData rdata ) throws IOException {
+            rdata.readRow( din_ );
+            nextRow_++;
+        }
+
+        /**
+         * Skips over the row at the current position.
+         */
+        void skipRow() throws IOException {
+            if ( isBinary2_ ) {
+                FlagIO.readFlags( din_, nullFlags_ );
+            }
+            for ( int icol = 0; icol < ncol_; icol++ ) {
+                decoders_[ icol ].skipStream( din_ );
+            }
+            nextRow_++;
+        }
+
+        /**
+         * Releases resources.
+         */
+        void close() throws IOException {
+            in_.close();
+        }
+    }
+
+    /**
+     * Adapts a BasicInput to the DataInput interface.
+     */
+    private static class BasicDataInput implements DataInput {
+        private final BasicInput in_;
+
+        /**
+         * Constructor.
+         *
+         * @param  in  basic input
+         */
+        BasicDataInput( BasicInput in ) {
+            in_ = in;
+        }
+
+        public void readFully( byte[] b ) throws IOException {
+            in_.readBytes( b );
+        }
+
+        public void readFully( byte[] b, int off, int len )
+                throws IOException {
+            if ( off == 0 && len == b.length ) {
+                in_.readBytes( b );
+            }
+            else {
+                byte[] buf = new byte[ len ];
+                in_.readBytes( buf );
+                System.arraycopy( buf, 0, b, off, len );
+            }
+        }
+
+        public int skipBytes( int n ) throws IOException {
+            in_.skip( n );
+            return n;
+        }
+
+        public boolean readBoolean() throws IOException {
+            return in_.readByte() != 0;
+        }
+
+        public byte readByte() throws IOException {
+            return in_.readByte();
+        }
+
+        public int readUnsignedByte() throws IOException {
+            return in_.readByte() & 0xff;
+        }
+
+        public short readShort() throws IOException {
+            return in_.readShort();
+        }
+
+        public int readUnsignedShort() throws IOException {
+            return in_.readShort() & 0xffff;
+        }
+
+        public char readChar() throws IOException {
+            return (char) in_.readShort();
+        }
+
+        public int readInt() throws IOException {
+            return in_.readInt();
+        }
+
+        public long readLong() throws IOException {
+            return in_.readLong();
+        }
+
+        public float readFloat() throws IOException {
+            return in_.readFloat();
+        }
+
+        public double readDouble() throws IOException {
+            return in_.readDouble();
+        }
+
+        public String readLine() throws IOException {
+            StringBuilder sbuf = new StringBuilder();
+            while ( true ) {
+                int c;
+                try {
+                    c = in_.readByte() & 0xff;
+                }
+                catch ( EOFException e ) {
+                    return sbuf.length() > 0 ? sbuf.toString() : null;
+                }
+                if ( c == '\n' ) {
+                    return sbuf.toString();
+                }
+                else if ( c == '\r' ) {
+                    if ( in_.isRandom() ) {
+                        long pos = in_.getOffset();
+                        try {
+                            if ( in_.readByte() != '\n' ) {
+                                in_.seek( pos );
+                            }
+                        }
+                        catch ( EOFException e ) {
+                        }
+                    }
+                    return sbuf.toString();
+                }
+                else {
+                    sbuf.append( (char) c );
+                }
+            }
+        }
+
+        public String readUTF() throws IOException {
+            return DataInputStream.readUTF( this );
+        }
+    }
+}
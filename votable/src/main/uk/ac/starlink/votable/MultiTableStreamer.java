@@ -103,9 +103,9 @@ class MultiTableStreamer extends SkeletonDOMBuilder implements TableHandler {
                 String encoding = getAttribute( atts, "encoding" );
                 Decoder[] decoders = getDecoders( tableEl.getFields() );
                 TabularData tdata =
-                    new TableBodies
-                       .HrefBinaryTabularData( decoders, url, encoding,
-                                               isBinary2 );
+                    TableBodies
+                   .createHrefBinaryTabularData( decoders, url, encoding,
+                                                 isBinary2 );
                 tableEl.setData( tdata );
                 tqueue_.addTable( new VOStarTable( tableEl ) );
             }
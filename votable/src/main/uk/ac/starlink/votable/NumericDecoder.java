@@ -78,6 +78,42 @@ abstract class NumericDecoder extends Decoder {
         return array;
     }
 
+    /**
+     * Indicates whether this decoder decodes single numeric values
+     * whose content can be retrieved from a storage array using
+     * the {@link #getDouble1} and {@link #getLong1} methods.
+     * The default implementation returns false.
+     *
+     * @return  true iff typed scalar access is supported
+     */
+    boolean isTypedScalar() {
+        return false;
+    }
+
+    /**
+     * Returns one element of a storage array as a double precision value.
+     * Only supported if {@link #isTypedScalar} returns true.
+     *
+     * @param  array  array returned by a previous call to getEmptyArray
+     * @param  index  the element of this array to read
+     * @return  element value
+     */
+    double getDouble1( Object array, int index ) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns one element of a storage array as a long integer value.
+     * Only supported if {@link #isTypedScalar} returns true.
+     *
+     * @param  array  array returned by a previous call to getEmptyArray
+     * @param  index  the element of this array to read
+     * @return  element value
+     */
+    long getLong1( Object array, int index ) {
+        throw new UnsupportedOperationException();
+    }
+
     public Object decodeString( String txt ) {
         StringTokenizer st = new StringTokenizer( txt );
         int ntok = st.countTokens();
@@ -287,6 +323,12 @@ abstract class NumericDecoder extends Decoder {
         void setBad1( Object array, int index ) {
             ((short[]) array)[ index ] = bad;
         }
+        double getDouble1( Object array, int index ) {
+            return ((short[]) array)[ index ];
+        }
+        long getLong1( Object array, int index ) {
+            return ((short[]) array)[ index ];
+        }
         public boolean isNull( Object array, int index ) {
             return hasBad && ((short[]) array)[ index ] == bad;
         }
@@ -300,6 +342,9 @@ abstract class NumericDecoder extends Decoder {
             short[] arr = (short[]) array;
             return isNull( arr, 0 ) ? null : new Short( arr[ 0 ] );
         }
+        boolean isTypedScalar() {
+            return true;
+        }
         public Object decodeString( String txt ) {
             return scalarDecodeString( txt );
         }
@@ -327,6 +372,9 @@ abstract class NumericDecoder extends Decoder {
             short[] arr = (short[]) array;
             return isNull( arr, 0 ) ? null : new Short( arr[ 0 ] );
         }
+        boolean isTypedScalar() {
+            return true;
+        }
         public Object decodeString( String txt ) {
             return scalarDecodeString( txt );
         }
@@ -358,6 +406,12 @@ abstract class NumericDecoder extends Decoder {
         void setBad1( Object array, int index ) {
             ((int[]) array)[ index ] = bad;
         }
+        double getDouble1( Object array, int index ) {
+            return ((int[]) array)[ index ];
+        }
+        long getLong1( Object array, int index ) {
+            return ((int[]) array)[ index ];
+        }
         public boolean isNull( Object array, int index ) {
             return hasBad && ((int[]) array)[ index ] == bad;
         }
@@ -371,6 +425,9 @@ abstract class NumericDecoder extends Decoder {
             int[] arr = (int[]) array;
             return isNull( arr, 0 ) ? null : new Integer( arr[ 0 ] );
         }
+        boolean isTypedScalar() {
+            return true;
+        }
         public Object decodeString( String txt ) {
             return scalarDecodeString( txt );
         }
@@ -402,6 +459,12 @@ abstract class NumericDecoder extends Decoder {
         void setBad1( Object array, int index ) {
             ((long[]) array)[ index ] = bad;
         }
+        double getDouble1( Object array, int index ) {
+            return ((long[]) array)[ index ];
+        }
+        long getLong1( Object array, int index ) {
+            return ((long[]) array)[ index ];
+        }
         public boolean isNull( Object array, int index ) {
             return hasBad && ((long[]) array)[ index ] == bad;
         }
@@ -415,6 +478,9 @@ abstract class NumericDecoder extends Decoder {
             long[] arr = (long[]) array;
             return isNull( arr, 0 ) ? null : new Long( arr[ 0 ] );
         }
+        boolean isTypedScalar() {
+            return true;
+        }
         public Object decodeString( String txt ) {
             return scalarDecodeString( txt );
         }
@@ -443,6 +509,12 @@ abstract class NumericDecoder extends Decoder {
         void setBad1( Object array, int index ) {
             ((float[]) array)[ index ] = Float.NaN;
         }
+        double getDouble1( Object array, int index ) {
+            return ((float[]) array)[ index ];
+        }
+        long getLong1( Object array, int index ) {
+            return (long) ((float[]) array)[ index ];
+        }
         public boolean isNull( Object array, int index ) {
             return Float.isNaN( ((float[]) array)[ index ] );
         }
@@ -456,6 +528,9 @@ abstract class NumericDecoder extends Decoder {
             float[] arr = (float[]) array;
             return isNull( arr, 0 ) ? null : new Float( arr[ 0 ] );
         }
+        boolean isTypedScalar() {
+            return true;
+        }
         public Object decodeString( String txt ) {
             return scalarDecodeString( txt );
         }
@@ -484,6 +559,12 @@ abstract class NumericDecoder extends Decoder {
         void setBad1( Object array, int index ) {
             ((double[]) array)[ index ] = Double.NaN;
         }
+        double getDouble1( Object array, int index ) {
+            return ((double[]) array)[ index ];
+        }
+        long getLong1( Object array, int index ) {
+            return (long) ((double[]) array)[ index ];
+        }
         public boolean isNull( Object array, int index ) {
             return Double.isNaN( ((double[]) array)[ index ] );
         }
@@ -497,6 +578,9 @@ abstract class NumericDecoder extends Decoder {
             double[] arr = (double[]) array;
             return isNull( arr, 0 ) ? null : new Double( arr[ 0 ] );
         }
+        boolean isTypedScalar() {
+            return true;
+        }
         public Object decodeString( String txt ) {
             return scalarDecodeString( txt );
         }
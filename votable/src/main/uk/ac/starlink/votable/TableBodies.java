@@ -1,20 +1,25 @@
 package uk.ac.starlink.votable;
 
 import java.io.BufferedInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import uk.ac.starlink.fits.FitsTableBuilder;
 import uk.ac.starlink.table.EmptyRowSequence;
 import uk.ac.starlink.table.RowAccess;
 import uk.ac.starlink.table.RowSequence;
+import uk.ac.starlink.table.RowSplittable;
 import uk.ac.starlink.table.StarTable;
 import uk.ac.starlink.table.TableSink;
 import uk.ac.starlink.util.DOMUtils;
+import uk.ac.starlink.util.URLUtils;
 
 /**
  * Class providing various implementations of {@link TabularData} 
@@ -27,6 +32,9 @@ import uk.ac.starlink.util.DOMUtils;
  */
 class TableBodies {
 
+    private static final Logger logger_ =
+        Logger.getLogger( "uk.ac.starlink.votable" );
+
     /**
      * Abstract superclass for TabularData implementations which only 
      * allow sequential access.
@@ -133,6 +141,15 @@ class TableBodies {
             return startab.getRow( irow );
         }
 
+        /**
+         * Returns a RowSplittable over the underlying table's data.
+         *
+         * @return  row splittable
+         */
+        public RowSplittable getRowSplittable() throws IOException {
+            return startab.getRowSplittable();
+        }
+
         public void close() throws IOException {
             startab.close();
         }
@@ -368,6 +385,44 @@ class TableBodies {
         }
     }
 
+    /**
+     * Returns a TabularData implementation for a BINARY or BINARY2
+     * STREAM element with an <tt>href</tt> attribute pointing to the data.
+     * If the data is an unencoded local file, the result provides
+     * random access and efficient splitting for parallel processing;
+     * the file is indexed for this purpose when first required.
+     * Otherwise, or if the file cannot be opened,
+     * a sequential-only implementation is returned.
+     *
+     * @param  decoders  n-element array of decoders for decoding
+     *                   n-column data
+     * @param  url  location of the stream data
+     * @param  encoding  encoding string as per <tt>encoding</tt> attribute
+     *         of STREAM element ("gzip" or "base64", else assumed none)
+     * @param  isBinary2 true for BINARY2 format, false for BINARY
+     * @return  tabular data
+     */
+    static TabularData createHrefBinaryTabularData( Decoder[] decoders,
+                                                    URL url, String encoding,
+                                                    boolean isBinary2 ) {
+        File file = URLUtils.urlToFile( url.toString() );
+        boolean isEncoded = "gzip".equals( encoding )
+                         || "base64".equals( encoding );
+        if ( file != null && file.isFile() && ! isEncoded ) {
+            try {
+                return new StarTableTabularData(
+                           new MappedBinaryStarTable( decoders, file,
+                                                      isBinary2 ) );
+            }
+            catch ( IOException e ) {
+                logger_.log( Level.WARNING,
+                             "Failed to map binary stream " + file
+                           + " - use sequential access", e );
+            }
+        }
+        return new HrefBinaryTabularData( decoders, url, encoding, isBinary2 );
+    }
+
     /**
      * Returns the column content classes associated with an array of decoders.
      */
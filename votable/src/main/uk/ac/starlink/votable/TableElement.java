@@ -345,9 +345,9 @@ public class TableElement extends VOElement {
         if ( href != null && href.length() > 0 ) {
             URL url = getContextURL( href );
             String encoding = streamEl.getAttribute( "encoding" );
-            return new TableBodies
-                      .HrefBinaryTabularData( decoders, url, encoding,
-                                              isBinary2 );
+            return TableBodies
+                  .createHrefBinaryTabularData( decoders, url, encoding,
+                                                isBinary2 );
         }
         else {
             return new TableBodies.SequentialTabularData( clazzes ) {
@@ -16,6 +16,7 @@ import uk.ac.starlink.table.DefaultValueInfo;
 import uk.ac.starlink.table.DescribedValue;
 import uk.ac.starlink.table.RowAccess;
 import uk.ac.starlink.table.RowSequence;
+import uk.ac.starlink.table.RowSplittable;
 import uk.ac.starlink.table.StarTable;
 import uk.ac.starlink.table.Tables;
 import uk.ac.starlink.table.URLValueInfo;
@@ -313,6 +314,18 @@ public class VOStarTable extends AbstractStarTable {
         }
     }
 
+    /**
+     * If the data comes from an underlying StarTable, as for instance
+     * for FITS-plus files or indexed local BINARY streams,
+     * that table's splittable is used, so that any efficient
+     * parallel access it offers is available.
+     */
+    public RowSplittable getRowSplittable() throws IOException {
+        return tdata instanceof TableBodies.StarTableTabularData
+             ? ((TableBodies.StarTableTabularData) tdata).getRowSplittable()
+             : super.getRowSplittable();
+    }
+
     public Object[] getRow( long lrow ) throws IOException {
         if ( isRandom() ) {
             return tdata.getRow( lrow );
@@ -127,9 +127,9 @@ public class VOTableDOMBuilder implements ContentHandler {
                 Decoder[] decoders = 
                     SkeletonDOMBuilder.getDecoders( tableEl.getFields() );
                 TabularData tdata = 
-                    new TableBodies
-                       .HrefBinaryTabularData( decoders, url, encoding,
-                                               isBinary2 );
+                    TableBodies
+                   .createHrefBinaryTabularData( decoders, url, encoding,
+                                                 isBinary2 );
                 tableEl.setData( tdata );
             }
         }
@@ -0,0 +1,242 @@
+package uk.ac.starlink.votable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.function.LongSupplier;
+import javax.xml.parsers.DocumentBuilderFactory;
+import org.w3c.dom.Document;
+import uk.ac.starlink.table.ArrayColumn;
+import uk.ac.starlink.table.ColumnInfo;
+import uk.ac.starlink.table.ColumnStarTable;
+import uk.ac.starlink.table.PrimitiveArrayColumn;
+import uk.ac.starlink.table.RowAccess;
+import uk.ac.starlink.table.RowCollector;
+import uk.ac.starlink.table.RowData;
+import uk.ac.starlink.table.RowRunner;
+import uk.ac.starlink.table.RowSequence;
+import uk.ac.starlink.table.RowSplittable;
+import uk.ac.starlink.table.StarTable;
+import uk.ac.starlink.table.StarTableOutput;
+import uk.ac.starlink.table.StoragePolicy;
+import uk.ac.starlink.table.Tables;
+import uk.ac.starlink.util.FileDataSource;
+import uk.ac.starlink.util.SplitPolicy;
+import uk.ac.starlink.util.SplitProcessor;
+import uk.ac.starlink.util.TestCase;
+
+public class MappedBinaryTest extends TestCase {
+
+    private static final int NROW = 3000;
+
+    public MappedBinaryTest( String name ) {
+        super( name );
+    }
+
+    public void testHref() throws Exception {
+        exerciseHref( DataFormat.BINARY );
+        exerciseHref( DataFormat.BINARY2 );
+    }
+
+    public void testFitsPlus() throws IOException {
+        File f = File.createTempFile( "table", ".fits" );
+        f.deleteOnExit();
+        new FitsPlusTableWriter()
+           .writeStarTable( createTable(), f.getPath(), new StarTableOutput() );
+        StarTable table =
+            new FitsPlusTableBuilder()
+           .makeStarTable( new FileDataSource( f ), true,
+                           StoragePolicy.PREFER_MEMORY );
+        exerciseSplit( table );
+    }
+
+    public void testTyped() throws Exception {
+        for ( DataFormat format :
+              new DataFormat[] { DataFormat.BINARY, DataFormat.BINARY2 } ) {
+            for ( boolean inline : new boolean[] { true, false } ) {
+                File f = File.createTempFile( "table", ".vot" );
+                f.deleteOnExit();
+                new VOTableWriter( format, inline )
+                   .writeStarTable( createNullTable(), f.getPath(),
+                                    new StarTableOutput() );
+                new File( f.getPath().replaceFirst( "\\.vot$", "-data.bin" ) )
+                   .deleteOnExit();
+
+                /* Build a plain DOM, so that inline data is decoded
+                 * from the STREAM element on demand. */
+                Document doc = DocumentBuilderFactory.newInstance()
+                              .newDocumentBuilder().parse( f );
+                TableElement tabEl =
+                    (TableElement)
+                    new VOElementFactory()
+                   .makeVOElement( doc, f.toURI().toString() )
+                   .getElementsByVOTagName( "TABLE" ).item( 0 );
+                StarTable table = new VOStarTable( tabEl );
+                RowSequence rseq = table.getRowSequence();
+                long nr = 0;
+                while ( rseq.next() ) {
+                    assertTypedEquals( rseq );
+                    nr++;
+                }
+                rseq.close();
+                assertEquals( NROW, nr );
+                if ( table.isRandom() ) {
+                    RowAccess racc = table.getRowAccess();
+                    for ( long ir = NROW - 1; ir >= 0; ir -= 7 ) {
+                        racc.setRowIndex( ir );
+                        assertTypedEquals( racc );
+                    }
+                    racc.close();
+                }
+                table.close();
+            }
+        }
+    }
+
+    private void assertTypedEquals( RowData rdata ) throws IOException {
+        Object[] row = rdata.getRow();
+        for ( int ic = 0; ic < row.length; ic++ ) {
+            Object cell = rdata.getCell( ic );
+            assertEquals( row[ ic ], cell );
+            assertEquals( cell == null, rdata.isNull( ic ) );
+            double dval = cell instanceof Number
+                        ? ((Number) cell).doubleValue()
+                        : Double.NaN;
+            long lval = cell instanceof Number ? ((Number) cell).longValue()
+                                               : 0L;
+            assertEquals( Double.valueOf( dval ),
+                          Double.valueOf( rdata.getDouble( ic ) ) );
+            assertEquals( lval, rdata.getLong( ic ) );
+        }
+    }
+
+    private void exerciseHref( DataFormat format ) throws Exception {
+        File f = File.createTempFile( "table", ".vot" );
+        f.deleteOnExit();
+        new VOTableWriter( format, false )
+           .writeStarTable( createTable(), f.getPath(), new StarTableOutput() );
+        new File( f.getPath().replaceFirst( "\\.vot$", "-data.bin" ) )
+           .deleteOnExit();
+        VOElement top = new VOElementFactory( StoragePolicy.DISCARD )
+                       .makeVOElement( f );
+        TableElement tabEl =
+            (TableElement) top.getElementsByVOTagName( "TABLE" ).item( 0 );
+        StarTable table = new VOStarTable( tabEl );
+        assertTrue( table.isRandom() );
+        exerciseSplit( table );
+
+        /* Sequential access before the row index has been built. */
+        StarTable table2 =
+            new VOStarTable( (TableElement)
+                             new VOElementFactory( StoragePolicy.DISCARD )
+                            .makeVOElement( f )
+                            .getElementsByVOTagName( "TABLE" ).item( 0 ) );
+        RowSequence rseq = table2.getRowSequence();
+        int nr = 0;
+        while ( rseq.next() ) {
+            assertEquals( nr * 0.5, rseq.getCell( 0 ) );
+            nr++;
+        }
+        rseq.close();
+        assertEquals( NROW, nr );
+        assertEquals( NROW, table2.getRowCount() );
+        assertEquals( "abcde", table2.getCell( 1234, 2 ) );
+        table2.close();
+    }
+
+    private void exerciseSplit( StarTable table ) throws IOException {
+        assertTrue( table.isRandom() );
+        assertEquals( NROW, table.getRowCount() );
+        Tables.checkTable( table );
+        RowRunner parRunner =
+            new RowRunner( SplitProcessor
+                          .createBasicParallelProcessor(
+                               new SplitPolicy( null, 100, (short) 0 ) ) );
+        double[] seqSums = RowRunner.SEQUENTIAL.collect( new SumCollector(),
+                                                         table );
+        double[] parSums = parRunner.collect( new SumCollector(), table );
+        assertEquals( NROW, (int) seqSums[ 2 ] );
+        assertArrayEquals( seqSums, parSums );
+        assertEquals( "abcde", table.getCell( 1234, 2 ) );
+        table.close();
+    }
+
+    private static StarTable createTable() {
+        double[] xs = new double[ NROW ];
+        int[] ks = new int[ NROW ];
+        String[] ss = new String[ NROW ];
+        for ( int i = 0; i < NROW; i++ ) {
+            xs[ i ] = i * 0.5;
+            ks[ i ] = i % 17;
+            ss[ i ] = i % 2 == 0 ? "abcdef".substring( 0, i % 5 + 1 ) : null;
+        }
+        ColumnStarTable table = ColumnStarTable.makeTableWithRows( NROW );
+        table.addColumn( PrimitiveArrayColumn.makePrimitiveColumn(
+                             new ColumnInfo( "x", Double.class, null ), xs ) );
+        table.addColumn( PrimitiveArrayColumn.makePrimitiveColumn(
+                             new ColumnInfo( "k", Integer.class, null ), ks ) );
+        table.addColumn( ArrayColumn.makeColumn(
+                             new ColumnInfo( "s", String.class, null ), ss ) );
+        return table;
+    }
+
+    private static StarTable createNullTable() {
+        double[] xs = new double[ NROW ];
+        float[] fs = new float[ NROW ];
+        Integer[] ks = new Integer[ NROW ];
+        Long[] ls = new Long[ NROW ];
+        Short[] hs = new Short[ NROW ];
+        String[] ss = new String[ NROW ];
+        for ( int i = 0; i < NROW; i++ ) {
+            boolean isNull = i % 5 == 3;
+            xs[ i ] = isNull ? Double.NaN : i * 0.25 - 100;
+            fs[ i ] = isNull ? Float.NaN : i * 0.5f;
+            ks[ i ] = isNull ? null : Integer.valueOf( i - 1000 );
+            ls[ i ] = isNull ? null : Long.valueOf( i * 1000000007L );
+            hs[ i ] = isNull ? null : Short.valueOf( (short) ( i % 300 ) );
+            ss[ i ] = isNull ? null : Integer.toString( i );
+        }
+        ColumnStarTable table = ColumnStarTable.makeTableWithRows( NROW );
+        table.addColumn( PrimitiveArrayColumn.makePrimitiveColumn(
+                             new ColumnInfo( "x", Double.class, null ), xs ) );
+        table.addColumn( PrimitiveArrayColumn.makePrimitiveColumn(
+                             new ColumnInfo( "f", Float.class, null ), fs ) );
+        table.addColumn( ArrayColumn.makeColumn(
+                             new ColumnInfo( "k", Integer.class, null ), ks ) );
+        table.addColumn( ArrayColumn.makeColumn(
+                             new ColumnInfo( "l", Long.class, null ), ls ) );
+        table.addColumn( ArrayColumn.makeColumn(
+                             new ColumnInfo( "h", Short.class, null ), hs ) );
+        table.addColumn( ArrayColumn.makeColumn(
+                             new ColumnInfo( "s", String.class, null ), ss ) );
+        return table;
+    }
+
+    /**
+     * Accumulates sums of x and row index, and row count.
+     */
+    private class SumCollector extends RowCollector<double[]> {
+        public double[] createAccumulator() {
+            return new double[ 3 ];
+        }
+        public void accumulateRows( RowSplittable rseq, double[] acc )
+                throws IOException {
+            LongSupplier rowIndex = rseq.rowIndex();
+            while ( rseq.next() ) {
+                double x = ((Number) rseq.getCell( 0 )).doubleValue();
+                long irow = rowIndex.getAsLong();
+                assertEquals( irow * 0.5, x );
+                assertEquals( (int) ( irow % 17 ),
+                              ((Number) rseq.getRow()[ 1 ]).intValue() );
+                acc[ 0 ] += x;
+                acc[ 1 ] += irow;
+                acc[ 2 ]++;
+            }
+        }
+        public double[] combine( double[] acc1, double[] acc2 ) {
+            for ( int i = 0; i < 3; i++ ) {
+                acc1[ i ] += acc2[ i ];
+            }
+            return acc1;
+        }
+    }
+}